@@ -6,11 +6,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,13 +27,22 @@ public class FdaDrugCodeDisplayLookup {
   public static final String FAKE_DRUG_CODE_DISPLAY = "Fake Diluent - WATER";
 
   /**
-   * Stores a map from Drug Code (PRODUCTNDC) to Drug Code Display (SUBSTANCENAME) derived from the
-   * downloaded NDC file.
+   * Maximum number of national drug codes tracked in {@link #drugCodeLookupMissingFailures} so that
+   * bad claim data cannot grow it without bound.
    */
-  private Map<String, String> ndcProductHashMap = new HashMap<>();
+  private static final int MAX_TRACKED_MISSING_DRUG_CODES = 10_000;
 
-  /** Tracks the national drug codes that have already had code lookup failures. */
-  private final Set<String> drugCodeLookupMissingFailures = new HashSet<>();
+  /**
+   * Stores the Drug Code Display (PROPRIETARYNAME - SUBSTANCENAME) for each Drug Code (PRODUCTNDC)
+   * derived from the downloaded NDC file.
+   */
+  private FdaNdcTable ndcTable;
+
+  /**
+   * Tracks the national drug codes that have already had code lookup failures. Updated concurrently
+   * by request threads.
+   */
+  private final Set<String> drugCodeLookupMissingFailures = ConcurrentHashMap.newKeySet();
 
   /** Keeps track of the PRODUCTNDC column index in the fda_products_utf8.tsv file. */
   private static int PRODUCT_NDC_COLUMN_INDEX = 1;
@@ -84,12 +94,26 @@ public class FdaDrugCodeDisplayLookup {
   }
 
   /**
-   * Constructs an {@link FdaDrugCodeDisplayLookup}.
+   * Constructs an {@link FdaDrugCodeDisplayLookup}. Uses the {@link App#FDA_NDC_TABLE_RESOURCE}
+   * preprocessed during the build when it is available and falls back to parsing the {@link
+   * App#FDA_PRODUCTS_RESOURCE} otherwise.
    *
    * @param includeFakeDrugCode whether to include the fake testing drug code or not
    */
   private FdaDrugCodeDisplayLookup(boolean includeFakeDrugCode) {
-    readFDADrugCodeFile(includeFakeDrugCode, getFileInputStream(App.FDA_PRODUCTS_RESOURCE));
+    InputStream ndcTableStream = getFileInputStream(App.FDA_NDC_TABLE_RESOURCE);
+    if (ndcTableStream != null) {
+      try (InputStream inputStream = ndcTableStream) {
+        ndcTable = FdaNdcTable.read(inputStream);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Unable to read NDC table.", e);
+      }
+      if (includeFakeDrugCode) {
+        ndcTable = ndcTable.withProductDisplay(FAKE_DRUG_CODE, FAKE_DRUG_CODE_DISPLAY);
+      }
+    } else {
+      readFDADrugCodeFile(includeFakeDrugCode, getFileInputStream(App.FDA_PRODUCTS_RESOURCE));
+    }
   }
 
   /**
@@ -108,19 +132,15 @@ public class FdaDrugCodeDisplayLookup {
       return null;
     }
 
-    String claimDrugCodeReformatted = null;
-
-    claimDrugCodeReformatted =
-        claimDrugCode.get().substring(0, 5) + "-" + claimDrugCode.get().substring(5, 9);
-
-    if (ndcProductHashMap.containsKey(claimDrugCodeReformatted)) {
-      String ndcSubstanceName = ndcProductHashMap.get(claimDrugCodeReformatted);
+    String ndcSubstanceName = ndcTable.lookup(claimDrugCode.get());
+    if (ndcSubstanceName != null) {
       return ndcSubstanceName;
     }
 
     // log which NDC codes we couldn't find a match for in our downloaded NDC file
-    if (!drugCodeLookupMissingFailures.contains(claimDrugCode.get())) {
-      drugCodeLookupMissingFailures.add(claimDrugCode.get());
+    if (LOGGER.isDebugEnabled()
+        && drugCodeLookupMissingFailures.size() < MAX_TRACKED_MISSING_DRUG_CODES
+        && drugCodeLookupMissingFailures.add(claimDrugCode.get())) {
       LOGGER.debug(
           "No national drug code value (PRODUCTNDC column) match found for drug code {} in"
               + " resource {}.",
@@ -144,11 +164,12 @@ public class FdaDrugCodeDisplayLookup {
   protected Map<String, String> readFDADrugCodeFile(
       boolean includeFakeDrugCode, InputStream inputStream) {
 
-    ndcProductHashMap = getFdaProcessedData(includeFakeDrugCode, inputStream);
+    Map<String, String> ndcProductHashMap = getFdaProcessedData(includeFakeDrugCode, inputStream);
 
     if (includeFakeDrugCode) {
       ndcProductHashMap.put(FAKE_DRUG_CODE, FAKE_DRUG_CODE_DISPLAY);
     }
+    ndcTable = FdaNdcTable.fromProductDisplays(ndcProductHashMap);
     return ndcProductHashMap;
   }
 
@@ -164,12 +185,24 @@ public class FdaDrugCodeDisplayLookup {
    */
   protected Map<String, String> getFdaProcessedData(
       boolean includeFakeDrugCode, InputStream inputStream) {
+    return readProductDisplays(inputStream);
+  }
+
+  /**
+   * Reads the Drug Code Display for each Drug Code (<code>PRODUCTNDC</code>) from an FDA NDC
+   * Products file. Used at runtime when there is no preprocessed {@link FdaNdcTable} and during the
+   * build to produce one.
+   *
+   * @param inputStream is the inputStream that is passed in
+   * @return a map with drug codes and fields.
+   */
+  public static Map<String, String> readProductDisplays(InputStream inputStream) {
 
     Map<String, String> ndcProcessedData = new HashMap<String, String>();
 
     try (final InputStream ndcProductStream = inputStream;
         final BufferedReader ndcProductsIn =
-            new BufferedReader(new InputStreamReader(ndcProductStream))) {
+            new BufferedReader(new InputStreamReader(ndcProductStream, StandardCharsets.UTF_8))) {
       /*
        * We want to extract the PRODUCTNDC and PROPRIETARYNAME/SUBSTANCENAME from the FDA Products
        * file (fda_products_utf8.tsv is in /target/classes directory) and put in a Map for easy
@@ -194,7 +227,7 @@ public class FdaDrugCodeDisplayLookup {
                 4,
                 '0');
         ndcProcessedData.put(
-            String.format("%s-%s", nationalDrugCodeManufacturer, nationalDrugCodeIngredient),
+            nationalDrugCodeManufacturer + "-" + nationalDrugCodeIngredient,
             ndcProductColumns[PROPRIETARY_NAME_COLUMN_INDEX].replace("\"", "")
                 + " - "
                 + ndcProductColumns[SUBSTANCE_NAME_COLUMN_INDEX].replace("\"", ""));
@@ -0,0 +1,199 @@
+package gov.cms.bfd.data.fda.lookup;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable table of FDA drug code displays keyed by the 9-digit numeric form of the product NDC
+ * (the 5-digit labeler code followed by the 4-digit product code). The keys are kept in a sorted
+ * {@code int} array so that a claim drug code can be looked up by parsing its first nine digits and
+ * binary-searching, without building a formatted key string for every lookup.
+ *
+ * <p>The table is preprocessed from the FDA products TSV during the build and stored as a binary
+ * resource containing {@link #MAGIC}, {@link #FORMAT_VERSION}, the number of entries, the sorted
+ * codes, and then the displays in the same order.
+ */
+public final class FdaNdcTable {
+  /** Identifies an FDA NDC table file. */
+  static final int MAGIC = 0x4e444354;
+
+  /** Version of the file format. Incremented whenever the format changes. */
+  static final int FORMAT_VERSION = 1;
+
+  /** Number of digits in the labeler code part of a product NDC. */
+  private static final int LABELER_DIGITS = 5;
+
+  /** Number of digits in a claim drug code that identify the product. */
+  private static final int PRODUCT_NDC_DIGITS = 9;
+
+  /** Sorted numeric product NDCs. */
+  private final int[] codes;
+
+  /** Display for the product NDC at the same index in {@link #codes}. */
+  private final String[] displays;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param codes sorted numeric product NDCs
+   * @param displays display for each code
+   */
+  private FdaNdcTable(int[] codes, String[] displays) {
+    this.codes = codes;
+    this.displays = displays;
+  }
+
+  /**
+   * Builds a table from displays keyed by product NDC in the {@code 00000-0000} form produced by
+   * {@link FdaDrugCodeDisplayLookup#readProductDisplays}. Keys that are not in that form are
+   * ignored.
+   *
+   * @param displaysByProductNdc displays keyed by product NDC
+   * @return the table
+   */
+  public static FdaNdcTable fromProductDisplays(Map<String, String> displaysByProductNdc) {
+    final Map<Integer, String> sorted = new TreeMap<>();
+    for (Map.Entry<String, String> entry : displaysByProductNdc.entrySet()) {
+      final String productNdc = entry.getKey();
+      if (productNdc.length() == PRODUCT_NDC_DIGITS + 1
+          && productNdc.charAt(LABELER_DIGITS) == '-') {
+        final int code =
+            parseDigits(
+                productNdc.substring(0, LABELER_DIGITS) + productNdc.substring(LABELER_DIGITS + 1));
+        if (code >= 0) {
+          sorted.put(code, entry.getValue());
+        }
+      }
+    }
+    final int[] codes = new int[sorted.size()];
+    final String[] displays = new String[sorted.size()];
+    int index = 0;
+    for (Map.Entry<Integer, String> entry : sorted.entrySet()) {
+      codes[index] = entry.getKey();
+      displays[index] = entry.getValue();
+      index += 1;
+    }
+    return new FdaNdcTable(codes, displays);
+  }
+
+  /**
+   * Reads a table written by {@link #write}. The stream is not closed.
+   *
+   * @param inputStream the stream to read from
+   * @return the table
+   * @throws IOException if reading fails or the stream does not contain a table
+   */
+  public static FdaNdcTable read(InputStream inputStream) throws IOException {
+    final DataInputStream in = new DataInputStream(inputStream);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("not an FDA NDC table");
+    }
+    final int version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException(
+          String.format(
+              "unsupported FDA NDC table version: expected=%d actual=%d", FORMAT_VERSION, version));
+    }
+    final int size = in.readInt();
+    final int[] codes = new int[size];
+    for (int i = 0; i < size; ++i) {
+      codes[i] = in.readInt();
+    }
+    final String[] displays = new String[size];
+    for (int i = 0; i < size; ++i) {
+      displays[i] = in.readUTF();
+    }
+    return new FdaNdcTable(codes, displays);
+  }
+
+  /**
+   * Writes this table in the form read by {@link #read}. The stream is not closed.
+   *
+   * @param outputStream the stream to write to
+   * @throws IOException if writing fails
+   */
+  public void write(OutputStream outputStream) throws IOException {
+    final DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeInt(codes.length);
+    for (int code : codes) {
+      out.writeInt(code);
+    }
+    for (String display : displays) {
+      out.writeUTF(display);
+    }
+    out.flush();
+  }
+
+  /**
+   * Creates a copy of this table with an added or replaced display.
+   *
+   * @param productNdc the product NDC in the {@code 00000-0000} form
+   * @param display the display
+   * @return the new table
+   */
+  public FdaNdcTable withProductDisplay(String productNdc, String display) {
+    final Map<String, String> displaysByProductNdc = new TreeMap<>();
+    for (int i = 0; i < codes.length; ++i) {
+      final String digits = String.format("%09d", codes[i]);
+      displaysByProductNdc.put(
+          digits.substring(0, LABELER_DIGITS) + "-" + digits.substring(LABELER_DIGITS),
+          displays[i]);
+    }
+    displaysByProductNdc.put(productNdc, display);
+    return fromProductDisplays(displaysByProductNdc);
+  }
+
+  /**
+   * Looks up the display for a claim drug code. Only the first nine digits (the labeler and product
+   * codes) are used, the package code that may follow them is ignored.
+   *
+   * @param claimDrugCode NDC value in claim records
+   * @return the display or null if the code is too short, is not numeric, or is not in the table
+   */
+  public String lookup(String claimDrugCode) {
+    if (claimDrugCode.length() < PRODUCT_NDC_DIGITS) {
+      return null;
+    }
+    final int code = parseDigits(claimDrugCode);
+    if (code < 0) {
+      return null;
+    }
+    final int index = Arrays.binarySearch(codes, code);
+    return index >= 0 ? displays[index] : null;
+  }
+
+  /**
+   * Gets the number of product NDCs in the table.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return codes.length;
+  }
+
+  /**
+   * Parses the first nine characters of a string as a decimal number.
+   *
+   * @param value the string, which must have at least nine characters
+   * @return the number or -1 if any of the characters is not a digit
+   */
+  private static int parseDigits(String value) {
+    int code = 0;
+    for (int i = 0; i < PRODUCT_NDC_DIGITS; ++i) {
+      final char digit = value.charAt(i);
+      if (digit < '0' || digit > '9') {
+        return -1;
+      }
+      code = code * 10 + (digit - '0');
+    }
+    return code;
+  }
+}
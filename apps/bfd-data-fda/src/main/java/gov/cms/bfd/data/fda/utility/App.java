@@ -8,6 +8,12 @@ public class App {
    */
   public static final String FDA_PRODUCTS_RESOURCE = "fda_products_utf8.tsv";
 
+  /**
+   * The name of the classpath resource for the NDC table preprocessed from {@link
+   * #FDA_PRODUCTS_RESOURCE}.
+   */
+  public static final String FDA_NDC_TABLE_RESOURCE = "fda_ndc_table.bin";
+
   /**
    * The application entry point, which will receive all non-JVM command line options in the <code>
    * args</code> array.
@@ -31,5 +37,6 @@ public class App {
     }
 
     DataUtilityCommons.getFDADrugCodes(args[0], FDA_PRODUCTS_RESOURCE);
+    DataUtilityCommons.buildNdcTable(args[0], FDA_PRODUCTS_RESOURCE, FDA_NDC_TABLE_RESOURCE);
   }
 }
@@ -1,5 +1,7 @@
 package gov.cms.bfd.data.fda.utility;
 
+import gov.cms.bfd.data.fda.lookup.FdaDrugCodeDisplayLookup;
+import gov.cms.bfd.data.fda.lookup.FdaNdcTable;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -8,6 +10,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.URL;
 import java.nio.charset.Charset;
@@ -66,6 +69,29 @@ public class DataUtilityCommons {
     }
   }
 
+  /**
+   * Preprocesses the converted FDA products file produced by {@link #getFDADrugCodes} into an
+   * {@link FdaNdcTable} so that the lookup does not need to parse the products file at startup.
+   *
+   * @param outputDir the output directory containing the fda file.
+   * @param fdaFile the fda file.
+   * @param ndcTableFile the table file to produce in the output directory.
+   */
+  public static void buildNdcTable(String outputDir, String fdaFile, String ndcTableFile) {
+    Path outputPath = Paths.get(outputDir);
+    try (OutputStream out =
+        new BufferedOutputStream(Files.newOutputStream(outputPath.resolve(ndcTableFile)))) {
+      FdaNdcTable ndcTable =
+          FdaNdcTable.fromProductDisplays(
+              FdaDrugCodeDisplayLookup.readProductDisplays(
+                  Files.newInputStream(outputPath.resolve(fdaFile))));
+      ndcTable.write(out);
+      LOGGER.info("wrote {} product NDCs to {}", ndcTable.size(), ndcTableFile);
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
   /**
    * Creates the file in the specified location.
    *
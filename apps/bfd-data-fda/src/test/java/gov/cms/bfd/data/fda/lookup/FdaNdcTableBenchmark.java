@@ -0,0 +1,150 @@
+package gov.cms.bfd.data.fda.lookup;
+
+import gov.cms.bfd.BenchmarkUtils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the original FDA drug code lookup (parsing the products TSV into a hashmap at startup
+ * and formatting a {@code 00000-0000} key for every lookup) with reading a preprocessed {@link
+ * FdaNdcTable} and looking up the raw claim drug code. A synthetic products TSV with the given
+ * number of products (the FDA file contains roughly a hundred thousand) is used. For each it
+ * reports the median startup time and the median latency of a lookup where half of the codes are
+ * found.
+ *
+ * <p>From {@code bfd-data-fda}, run:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.data.fda.lookup.FdaNdcTableBenchmark \
+ *   -Dexec.args="100000 10 1000000"
+ * </pre>
+ *
+ * <p>The arguments are the number of products, the number of measured iterations, and the number of
+ * lookups per iteration.
+ */
+public final class FdaNdcTableBenchmark {
+  /** Prevents instantiation of this class. */
+  private FdaNdcTableBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of products, iterations, and lookups per iteration
+   * @throws Exception if the table cannot be written or read
+   */
+  public static void main(String[] args) throws Exception {
+    final int productCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    final int lookupCount = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+
+    final Random random = new Random(42);
+    final StringBuilder tsv = new StringBuilder("header\n");
+    final String[] productNdcs = new String[productCount];
+    for (int i = 0; i < productCount; ++i) {
+      // Even product codes only so that odd ones can be used for misses.
+      productNdcs[i] = String.format("%05d-%04d", random.nextInt(100_000), 2 * (i % 5000));
+      tsv.append("id\t")
+          .append(productNdcs[i])
+          .append("\tHUMAN PRESCRIPTION DRUG\tProduct ")
+          .append(i)
+          .append("\t\t\t\t\t\t\t\t\t\tSUBSTANCE ")
+          .append(i % 1000)
+          .append("\t\t\t\t\t\t\n");
+    }
+    final byte[] tsvBytes = tsv.toString().getBytes(StandardCharsets.UTF_8);
+    final ByteArrayOutputStream tableBytes = new ByteArrayOutputStream();
+    FdaNdcTable.fromProductDisplays(
+            FdaDrugCodeDisplayLookup.readProductDisplays(new ByteArrayInputStream(tsvBytes)))
+        .write(tableBytes);
+
+    final String[] claimDrugCodes = new String[lookupCount];
+    for (int i = 0; i < lookupCount; ++i) {
+      final String productNdc = productNdcs[random.nextInt(productCount)];
+      final int productCode = Integer.parseInt(productNdc.substring(6)) + random.nextInt(2);
+      claimDrugCodes[i] = productNdc.substring(0, 5) + String.format("%04d", productCode) + "01";
+    }
+
+    final long mapNanos =
+        BenchmarkUtils.measure(
+                iterations,
+                () -> {
+                  final long start = System.nanoTime();
+                  FdaDrugCodeDisplayLookup.readProductDisplays(new ByteArrayInputStream(tsvBytes));
+                  return new long[] {System.nanoTime() - start};
+                })
+            .median();
+    final Map<String, String> map =
+        FdaDrugCodeDisplayLookup.readProductDisplays(new ByteArrayInputStream(tsvBytes));
+    System.out.printf(
+        "tsv   products=%d bytes=%d startup=%.1fms%n",
+        map.size(), tsvBytes.length, mapNanos / 1_000_000.0);
+
+    final long tableNanos =
+        BenchmarkUtils.measure(
+                iterations,
+                () -> {
+                  final long start = System.nanoTime();
+                  FdaNdcTable.read(new ByteArrayInputStream(tableBytes.toByteArray()));
+                  return new long[] {System.nanoTime() - start};
+                })
+            .median();
+    final FdaNdcTable table = FdaNdcTable.read(new ByteArrayInputStream(tableBytes.toByteArray()));
+    System.out.printf(
+        "table products=%d bytes=%d startup=%.1fms%n",
+        table.size(), tableBytes.size(), tableNanos / 1_000_000.0);
+
+    reportLookups(
+        "hashmap",
+        iterations,
+        claimDrugCodes,
+        code -> map.get(code.substring(0, 5) + "-" + code.substring(5, 9)));
+    reportLookups("table", iterations, claimDrugCodes, table::lookup);
+  }
+
+  /**
+   * Measures looking up every claim drug code and prints the median time per lookup.
+   *
+   * @param name name of the lookup strategy
+   * @param iterations number of measured iterations
+   * @param claimDrugCodes the codes to look up
+   * @param lookup the lookup strategy
+   * @throws Exception if a lookup fails
+   */
+  private static void reportLookups(
+      String name, int iterations, String[] claimDrugCodes, Lookup lookup) throws Exception {
+    final int[] found = new int[1];
+    final long nanos =
+        BenchmarkUtils.measure(
+                iterations,
+                () -> {
+                  found[0] = 0;
+                  final long start = System.nanoTime();
+                  for (String claimDrugCode : claimDrugCodes) {
+                    if (lookup.display(claimDrugCode) != null) {
+                      found[0] += 1;
+                    }
+                  }
+                  return new long[] {System.nanoTime() - start};
+                })
+            .median();
+    System.out.printf(
+        "%-7s lookups=%d found=%d: %.1fns/lookup%n",
+        name, claimDrugCodes.length, found[0], (double) nanos / claimDrugCodes.length);
+  }
+
+  /** A strategy for looking up the display of a claim drug code. */
+  @FunctionalInterface
+  private interface Lookup {
+    /**
+     * Looks up the display of a claim drug code.
+     *
+     * @param claimDrugCode the claim drug code
+     * @return the display or null if there is none
+     */
+    String display(String claimDrugCode);
+  }
+}
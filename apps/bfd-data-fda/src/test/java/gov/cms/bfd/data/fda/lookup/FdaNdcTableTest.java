@@ -0,0 +1,90 @@
+package gov.cms.bfd.data.fda.lookup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Provides tests for {@link FdaNdcTable}. */
+public class FdaNdcTableTest {
+
+  /** Should look up claim drug codes by their first nine digits. */
+  @Test
+  public void shouldLookUpClaimDrugCodes() {
+    FdaNdcTable table =
+        FdaNdcTable.fromProductDisplays(
+            Map.of(
+                "00000-0001", "Sterile Diluent - WATER",
+                "50090-1234", "Aspirin - ASPIRIN",
+                "bad", "ignored",
+                "5009a-1234", "ignored"));
+
+    assertEquals(2, table.size());
+    assertEquals("Sterile Diluent - WATER", table.lookup("000000001"));
+    assertEquals("Aspirin - ASPIRIN", table.lookup("500901234"));
+    assertEquals("Aspirin - ASPIRIN", table.lookup("50090123401"));
+    assertNull(table.lookup("500901235"));
+    assertNull(table.lookup("50090123"));
+    assertNull(table.lookup("5009a1234"));
+    assertNull(table.lookup(""));
+  }
+
+  /** Should read back the same table that was written. */
+  @Test
+  public void shouldReadTableThatWasWritten() throws IOException {
+    FdaNdcTable table =
+        FdaNdcTable.fromProductDisplays(
+            Map.of("00000-0001", "Sterile Diluent - WATER", "99999-9999", "Ünïcode - ÄÖ"));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    table.write(bytes);
+
+    FdaNdcTable read = FdaNdcTable.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+    assertEquals(2, read.size());
+    assertEquals("Sterile Diluent - WATER", read.lookup("000000001"));
+    assertEquals("Ünïcode - ÄÖ", read.lookup("999999999"));
+  }
+
+  /** Should add or replace a display without changing the original table. */
+  @Test
+  public void shouldAddProductDisplayToCopy() {
+    FdaNdcTable table = FdaNdcTable.fromProductDisplays(Map.of("50090-1234", "Aspirin - ASPIRIN"));
+
+    FdaNdcTable withFake =
+        table.withProductDisplay(
+            FdaDrugCodeDisplayLookup.FAKE_DRUG_CODE,
+            FdaDrugCodeDisplayLookup.FAKE_DRUG_CODE_DISPLAY);
+
+    assertEquals(2, withFake.size());
+    assertEquals(FdaDrugCodeDisplayLookup.FAKE_DRUG_CODE_DISPLAY, withFake.lookup("000000000"));
+    assertEquals("Aspirin - ASPIRIN", withFake.lookup("500901234"));
+    assertNull(table.lookup("000000000"));
+  }
+
+  /** Should build the same displays from the products TSV as the hashmap did. */
+  @Test
+  public void shouldBuildTableFromProductsFile() {
+    FdaNdcTable table =
+        FdaNdcTable.fromProductDisplays(
+            FdaDrugCodeDisplayLookup.readProductDisplays(
+                new ByteArrayInputStream(
+                    FdaDrugCodeDisplayLookupTest.INPUT_FILE_STRING_WITH_DOUBLE_QUOTES.getBytes(
+                        StandardCharsets.UTF_8))));
+
+    assertEquals("Sterile Diluent - WATER", table.lookup("000000001"));
+  }
+
+  /** Should reject a stream that does not contain a table. */
+  @Test
+  public void shouldRejectInvalidTable() {
+    assertThrows(
+        IOException.class,
+        () -> FdaNdcTable.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})));
+  }
+}
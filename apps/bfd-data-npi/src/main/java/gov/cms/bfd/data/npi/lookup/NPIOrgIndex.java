@@ -0,0 +1,200 @@
+package gov.cms.bfd.data.npi.lookup;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Memory-mapped index of NPI org names. The index file is built from the NPI TSV file during the
+ * build and contains a header, fixed-width entries sorted by NPI, and the UTF-8 encoded org names.
+ * Lookups binary-search the entries so the org names stay off-heap and are shared between JVMs
+ * through the OS page cache.
+ *
+ * <p>The header contains {@link #MAGIC}, {@link #FORMAT_VERSION}, the number of entries, and an
+ * unused int. Each entry contains the NPI as a long, then the offset (from the start of the names)
+ * and length in bytes of its org name as ints.
+ */
+public final class NPIOrgIndex {
+  /** Identifies an NPI org index file. */
+  static final int MAGIC = 0x4e504958;
+
+  /** Version of the file format. Incremented whenever the format changes. */
+  static final int FORMAT_VERSION = 1;
+
+  /** Number of bytes in the header. */
+  private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+  /** Number of bytes in each entry. */
+  private static final int ENTRY_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+  /** Number of digits in a valid NPI. */
+  private static final int NPI_LENGTH = 10;
+
+  /** The mapped index file. Only absolute reads are used so it can be shared between threads. */
+  private final ByteBuffer buffer;
+
+  /** Number of entries in the index. */
+  private final int size;
+
+  /** Offset of the first org name in {@link #buffer}. */
+  private final int namesStart;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param buffer the contents of the index file
+   * @throws IOException if the contents are not a valid index
+   */
+  NPIOrgIndex(ByteBuffer buffer) throws IOException {
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IOException("not an NPI org index");
+    }
+    final int version = buffer.getInt(Integer.BYTES);
+    if (version != FORMAT_VERSION) {
+      throw new IOException(
+          String.format(
+              "unsupported NPI org index version: expected=%d actual=%d", FORMAT_VERSION, version));
+    }
+    final int entryCount = buffer.getInt(2 * Integer.BYTES);
+    final long entriesEnd = HEADER_SIZE + (long) entryCount * ENTRY_SIZE;
+    if (entryCount < 0 || entriesEnd > buffer.limit()) {
+      throw new IOException("truncated NPI org index");
+    }
+    this.buffer = buffer;
+    size = entryCount;
+    namesStart = (int) entriesEnd;
+  }
+
+  /**
+   * Memory-maps an index file.
+   *
+   * @param indexFile the index file
+   * @return the index
+   * @throws IOException if the file cannot be mapped or is not a valid index
+   */
+  public static NPIOrgIndex open(Path indexFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+      // The mapping remains valid after the channel is closed.
+      return new NPIOrgIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Looks up the org name for an NPI.
+   *
+   * @param npiNumber the NPI
+   * @return the org name or {@link Optional#empty()} if the NPI is not in the index
+   */
+  public Optional<String> lookup(String npiNumber) {
+    final long npi = parseNpi(npiNumber);
+    if (npi < 0) {
+      return Optional.empty();
+    }
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int entry = HEADER_SIZE + middle * ENTRY_SIZE;
+      final long middleNpi = buffer.getLong(entry);
+      if (middleNpi < npi) {
+        low = middle + 1;
+      } else if (middleNpi > npi) {
+        high = middle - 1;
+      } else {
+        final int nameOffset = buffer.getInt(entry + Long.BYTES);
+        final byte[] name = new byte[buffer.getInt(entry + Long.BYTES + Integer.BYTES)];
+        buffer.get(namesStart + nameOffset, name);
+        return Optional.of(new String(name, StandardCharsets.UTF_8));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the number of NPIs in the index.
+   *
+   * @return the number of entries
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Builds an index file from a TSV stream in the format produced by the NPI download. Rows are
+   * parsed the same way as {@link NPIOrgLookup#readNPIOrgDataStream}. Rows whose NPI is not a ten
+   * digit number are skipped. When an NPI appears more than once the last org name wins.
+   *
+   * @param tsvStream the TSV stream, which is closed before returning
+   * @param indexFile the index file to write
+   * @return the number of entries written
+   * @throws IOException if reading or writing fails
+   */
+  public static int write(InputStream tsvStream, Path indexFile) throws IOException {
+    final Map<Long, byte[]> namesByNpi = new TreeMap<>();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(tsvStream, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] columns = line.split("\t");
+        if (columns.length == 2) {
+          final long npi = parseNpi(columns[0].replace("\"", ""));
+          if (npi >= 0) {
+            namesByNpi.put(npi, columns[1].replace("\"", "").getBytes(StandardCharsets.UTF_8));
+          }
+        }
+      }
+    }
+
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(namesByNpi.size());
+      out.writeInt(0);
+      int nameOffset = 0;
+      for (Map.Entry<Long, byte[]> entry : namesByNpi.entrySet()) {
+        out.writeLong(entry.getKey());
+        out.writeInt(nameOffset);
+        out.writeInt(entry.getValue().length);
+        nameOffset = Math.addExact(nameOffset, entry.getValue().length);
+      }
+      for (byte[] name : namesByNpi.values()) {
+        out.write(name);
+      }
+    }
+    return namesByNpi.size();
+  }
+
+  /**
+   * Converts an NPI into the long stored in the index.
+   *
+   * @param npiNumber the NPI
+   * @return the NPI as a long or -1 if it is not a ten digit number
+   */
+  private static long parseNpi(String npiNumber) {
+    if (npiNumber.length() != NPI_LENGTH) {
+      return -1;
+    }
+    long npi = 0;
+    for (int i = 0; i < NPI_LENGTH; ++i) {
+      final char digit = npiNumber.charAt(i);
+      if (digit < '0' || digit > '9') {
+        return -1;
+      }
+      npi = npi * 10 + (digit - '0');
+    }
+    return npi;
+  }
+}
@@ -5,6 +5,11 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -21,23 +26,33 @@ public class NPIOrgLookup {
   /** A fake org name display that is associated with the FAKE_NPI_ORG_NAME. */
   public static final String FAKE_NPI_ORG_NAME = "Fake ORG Name";
 
-  /** Hashmap to keep the org names. */
+  /** Hashmap to keep the org names. Only used when there is no {@link #npiOrgIndex}. */
   private Map<String, String> npiOrgHashMap = new HashMap<>();
 
+  /** Memory-mapped index of the org names. Null when the org names are kept in the hashmap. */
+  private NPIOrgIndex npiOrgIndex;
+
   /** A field to return the production org lookup. */
   private static NPIOrgLookup npiOrgLookupForProduction;
 
   /**
    * Factory method for creating a {@link NPIOrgLookup } for production that does not include the
-   * fake org name.
+   * fake org name. Uses the memory-mapped {@link App#NPI_INDEX_RESOURCE} when it is available and
+   * falls back to reading {@link App#NPI_RESOURCE} into a hashmap otherwise.
    *
    * @throws IOException if there is an issue reading file
    * @return the {@link NPIOrgLookup }
    */
   public static NPIOrgLookup createNpiOrgLookup() throws IOException {
     if (npiOrgLookupForProduction == null) {
-      InputStream npiDataStream = getFileInputStream(App.NPI_RESOURCE);
-      npiOrgLookupForProduction = new NPIOrgLookup(npiDataStream);
+      Optional<NPIOrgIndex> npiOrgIndex = openIndexResource(App.NPI_INDEX_RESOURCE);
+      if (npiOrgIndex.isPresent()) {
+        LOGGER.info("Using NPI org index with {} entries", npiOrgIndex.get().size());
+        npiOrgLookupForProduction = new NPIOrgLookup(npiOrgIndex.get());
+      } else {
+        InputStream npiDataStream = getFileInputStream(App.NPI_RESOURCE);
+        npiOrgLookupForProduction = new NPIOrgLookup(npiDataStream);
+      }
     }
 
     return npiOrgLookupForProduction;
@@ -58,6 +73,15 @@ public class NPIOrgLookup {
     npiOrgHashMap = readNPIOrgDataStream(npiDataStream);
   }
 
+  /**
+   * Constructs an {@link NPIOrgLookup} that looks up org names in a memory-mapped index.
+   *
+   * @param npiOrgIndex the index
+   */
+  public NPIOrgLookup(NPIOrgIndex npiOrgIndex) {
+    this.npiOrgIndex = npiOrgIndex;
+  }
+
   /**
    * Retrieves the Org Data for NPI Display for the given NPI number using the npi file downloaded
    * during the build.
@@ -73,6 +97,10 @@ public class NPIOrgLookup {
       return Optional.empty();
     }
 
+    if (npiOrgIndex != null) {
+      return npiOrgIndex.lookup(npiNumber.get());
+    }
+
     if (npiOrgHashMap.containsKey(npiNumber.get())) {
       String npiDisplay = npiOrgHashMap.get(npiNumber.get());
       return Optional.of(npiDisplay);
@@ -108,6 +136,34 @@ public class NPIOrgLookup {
     return npiProcessedData;
   }
 
+  /**
+   * Memory-maps the index resource with the given name. The resource is mapped in place when it is
+   * a file. Otherwise (e.g. when it is inside a jar) it is first copied to a temporary file.
+   *
+   * @param resourceName the name of the index resource
+   * @return the index or {@link Optional#empty()} if there is no such resource
+   * @throws IOException if there is an issue reading or mapping the index
+   */
+  protected static Optional<NPIOrgIndex> openIndexResource(String resourceName) throws IOException {
+    URL indexUrl = Thread.currentThread().getContextClassLoader().getResource(resourceName);
+    if (indexUrl == null) {
+      return Optional.empty();
+    }
+    if ("file".equals(indexUrl.getProtocol())) {
+      try {
+        return Optional.of(NPIOrgIndex.open(Path.of(indexUrl.toURI())));
+      } catch (URISyntaxException e) {
+        throw new IOException(e);
+      }
+    }
+    Path indexFile = Files.createTempFile("npi-org-index", ".idx");
+    indexFile.toFile().deleteOnExit();
+    try (InputStream indexStream = indexUrl.openStream()) {
+      Files.copy(indexStream, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return Optional.of(NPIOrgIndex.open(indexFile));
+  }
+
   /**
    * Returns a inputStream from file name passed in.
    *
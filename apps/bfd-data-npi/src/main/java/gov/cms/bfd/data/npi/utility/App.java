@@ -8,7 +8,7 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A simple application that downloads NPI Data file; unzips it and then converts it to UTF-8
- * format.
+ * format. Also builds the memory-mapped index of the converted file.
  */
 public final class App {
   private static final Logger LOGGER = LoggerFactory.getLogger(App.class);
@@ -19,6 +19,12 @@ public final class App {
    */
   public static final String NPI_RESOURCE = "npi_org_data_utf8.tsv";
 
+  /**
+   * The name of the classpath resource for the memory-mapped index built from {@link
+   * #NPI_RESOURCE}.
+   */
+  public static final String NPI_INDEX_RESOURCE = "npi_org_data.idx";
+
   /**
    * The application entry point, which will receive all non-JVM command line options in the <code>
    * args</code> array.
@@ -58,5 +64,6 @@ public final class App {
     }
 
     DataUtilityCommons.getNPIOrgNames(outputDir, downloadUrl, NPI_RESOURCE);
+    DataUtilityCommons.buildNPIIndex(outputDir, NPI_RESOURCE, NPI_INDEX_RESOURCE);
   }
 }
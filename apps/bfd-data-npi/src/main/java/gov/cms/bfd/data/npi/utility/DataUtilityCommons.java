@@ -1,6 +1,7 @@
 package gov.cms.bfd.data.npi.utility;
 
 import com.google.common.base.Strings;
+import gov.cms.bfd.data.npi.lookup.NPIOrgIndex;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -79,6 +80,29 @@ public class DataUtilityCommons {
     }
   }
 
+  /**
+   * Builds the NPI org index from the converted npi file produced by {@link #getNPIOrgNames}. The
+   * index is only rebuilt if it is missing or older than the npi file.
+   *
+   * @param outputDir the output directory containing the npi file
+   * @param npiFile the npi file
+   * @param indexFile the index file to produce in the output directory
+   * @throws IOException if there is an issue reading or writing a file
+   */
+  public static void buildNPIIndex(String outputDir, String npiFile, String indexFile)
+      throws IOException {
+    Path npiPath = Paths.get(outputDir).resolve(npiFile);
+    Path indexPath = Paths.get(outputDir).resolve(indexFile);
+    if (Files.isRegularFile(indexPath)
+        && Files.getLastModifiedTime(indexPath).compareTo(Files.getLastModifiedTime(npiPath))
+            >= 0) {
+      LOGGER.info("using existing index file {}", indexPath);
+      return;
+    }
+    int entryCount = NPIOrgIndex.write(Files.newInputStream(npiPath), indexPath);
+    LOGGER.info("wrote {} entries to index file {}", entryCount, indexPath);
+  }
+
   /**
    * Extracts a zip file specified by the zipFilePath to a directory specified by destDirectory
    * (will be created if does not exists).
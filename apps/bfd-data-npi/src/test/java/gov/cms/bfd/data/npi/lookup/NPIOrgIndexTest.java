@@ -0,0 +1,98 @@
+package gov.cms.bfd.data.npi.lookup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** NPI org index test. */
+public class NPIOrgIndexTest {
+
+  /** Directory for index files. */
+  @TempDir Path tempDir;
+
+  /**
+   * Index should return the same org names as the hashmap read from the same TSV, including names
+   * with multi-byte characters, and skip malformed rows.
+   */
+  @Test
+  public void shouldLookUpOrgNamesWrittenFromTsv() throws IOException {
+    String tsv =
+        "1992903249\tCAMPBELL CLINICS\n"
+            + "\"1023011178\"\t\"COLLABRIA CARE\"\n"
+            + "0000000000\tFake ORG Name\n"
+            + "1497758544\tCLÍNICA MÉDICA\n"
+            + "12345\tSHORT NPI\n"
+            + "ABCDEFGHIJ\tNOT A NUMBER\n"
+            + "1215930367\n"
+            + "1992903249\tCAMPBELL CLINICS, INC\n";
+
+    NPIOrgIndex index = writeAndOpen(tsv);
+
+    assertEquals(4, index.size());
+    assertEquals(Optional.of("CAMPBELL CLINICS, INC"), index.lookup("1992903249"));
+    assertEquals(Optional.of("COLLABRIA CARE"), index.lookup("1023011178"));
+    assertEquals(Optional.of(NPIOrgLookup.FAKE_NPI_ORG_NAME), index.lookup("0000000000"));
+    assertEquals(Optional.of("CLÍNICA MÉDICA"), index.lookup("1497758544"));
+    assertEquals(Optional.empty(), index.lookup("1215930367"));
+    assertEquals(Optional.empty(), index.lookup("12345"));
+    assertEquals(Optional.empty(), index.lookup("ABCDEFGHIJ"));
+    assertEquals(Optional.empty(), index.lookup(""));
+    assertEquals(Optional.empty(), index.lookup("9999999999"));
+  }
+
+  /** Empty index should not find anything. */
+  @Test
+  public void shouldNotFindAnythingInEmptyIndex() throws IOException {
+    NPIOrgIndex index = writeAndOpen("");
+
+    assertEquals(0, index.size());
+    assertEquals(Optional.empty(), index.lookup("1992903249"));
+  }
+
+  /** {@link NPIOrgLookup} should use the index when constructed with one. */
+  @Test
+  public void shouldRetrieveOrgDisplayFromIndex() throws IOException {
+    NPIOrgLookup lookup = new NPIOrgLookup(writeAndOpen("1992903249\tCAMPBELL CLINICS\n"));
+
+    assertEquals(
+        Optional.of("CAMPBELL CLINICS"), lookup.retrieveNPIOrgDisplay(Optional.of("1992903249")));
+    assertEquals(Optional.empty(), lookup.retrieveNPIOrgDisplay(Optional.of("1023011178")));
+    assertEquals(Optional.empty(), lookup.retrieveNPIOrgDisplay(Optional.empty()));
+  }
+
+  /** Files that are not an index should be rejected. */
+  @Test
+  public void shouldRejectInvalidIndex() throws IOException {
+    assertThrows(IOException.class, () -> new NPIOrgIndex(ByteBuffer.allocate(4)));
+
+    Path indexFile = tempDir.resolve("bad.idx");
+    Files.write(indexFile, "not an index at all".getBytes(StandardCharsets.UTF_8));
+    assertThrows(IOException.class, () -> NPIOrgIndex.open(indexFile));
+
+    ByteBuffer truncated = ByteBuffer.allocate(16);
+    truncated.putInt(NPIOrgIndex.MAGIC).putInt(NPIOrgIndex.FORMAT_VERSION).putInt(1).putInt(0);
+    assertThrows(IOException.class, () -> new NPIOrgIndex(truncated));
+  }
+
+  /**
+   * Writes an index from the given TSV and memory-maps it.
+   *
+   * @param tsv the TSV contents
+   * @return the index
+   * @throws IOException if there is an issue writing or mapping the index
+   */
+  private NPIOrgIndex writeAndOpen(String tsv) throws IOException {
+    Path indexFile = tempDir.resolve("npi.idx");
+    NPIOrgIndex.write(new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8)), indexFile);
+    return NPIOrgIndex.open(indexFile);
+  }
+}
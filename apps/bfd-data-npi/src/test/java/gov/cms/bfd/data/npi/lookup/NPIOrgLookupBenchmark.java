@@ -0,0 +1,186 @@
+package gov.cms.bfd.data.npi.lookup;
+
+import gov.cms.bfd.BenchmarkUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Compares the hashmap backed {@link NPIOrgLookup} with one backed by a memory-mapped {@link
+ * NPIOrgIndex}. A synthetic TSV with the given number of org NPIs (the NPPES file contains roughly
+ * two million) is generated along with its index. For each implementation it reports the startup
+ * time, the heap retained by the lookup, and the median latency of a lookup where half of the NPIs
+ * are found.
+ *
+ * <p>Example invocation, from {@code bfd-data-npi}:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.data.npi.lookup.NPIOrgLookupBenchmark \
+ *   -Dexec.args="2000000 10 1000000"
+ * </pre>
+ *
+ * <p>The arguments are the number of org NPIs, the number of measured iterations, and the number of
+ * lookups per iteration.
+ */
+public final class NPIOrgLookupBenchmark {
+  /** Words used to build random org names. */
+  private static final String[] WORDS = {
+    "COUNTY",
+    "HOSPITAL",
+    "SYSTEM",
+    "INC",
+    "CLINIC",
+    "CARE",
+    "HEALTH",
+    "MEDICAL",
+    "GROUP",
+    "LLC",
+    "PHARMACY",
+    "CENTER",
+    "REGIONAL",
+    "FAMILY",
+    "SERVICES",
+    "ASSOCIATES",
+    "THERAPY",
+    "HOME"
+  };
+
+  /** Holds the lookup being measured so it stays reachable while the heap is measured. */
+  private static NPIOrgLookup loaded;
+
+  /** Prevents instantiation of this class. */
+  private NPIOrgLookupBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of org NPIs, iterations, and lookups per iteration
+   * @throws Exception if the data files cannot be written or read
+   */
+  public static void main(String[] args) throws Exception {
+    final int orgCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+    final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    final int lookupCount = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+
+    final Path tempDir = Files.createTempDirectory("npi-benchmark");
+    final Path tsvFile = tempDir.resolve("npi.tsv");
+    final Path indexFile = tempDir.resolve("npi.idx");
+    final Random random = new Random(42);
+    final long[] npis = new long[orgCount];
+    try (Writer writer = Files.newBufferedWriter(tsvFile, StandardCharsets.UTF_8)) {
+      for (int i = 0; i < orgCount; ++i) {
+        npis[i] = 1_000_000_000L + 2L * i;
+        writer.write(npis[i] + "\t" + randomOrgName(random) + "\n");
+      }
+    }
+    NPIOrgIndex.write(Files.newInputStream(tsvFile), indexFile);
+    System.out.printf(
+        "orgs=%d tsv=%.1fMB index=%.1fMB%n",
+        orgCount, Files.size(tsvFile) / 1048576.0, Files.size(indexFile) / 1048576.0);
+
+    // Odd NPIs are never in the data so half of the lookups miss.
+    final String[] lookups = new String[lookupCount];
+    for (int i = 0; i < lookupCount; ++i) {
+      lookups[i] = Long.toString(npis[random.nextInt(orgCount)] + random.nextInt(2));
+    }
+
+    report(
+        "hashmap",
+        iterations,
+        lookups,
+        () -> {
+          try (InputStream tsvStream = Files.newInputStream(tsvFile)) {
+            return new NPIOrgLookup(tsvStream);
+          }
+        });
+    report("index", iterations, lookups, () -> new NPIOrgLookup(NPIOrgIndex.open(indexFile)));
+
+    Files.delete(tsvFile);
+    Files.delete(indexFile);
+    Files.delete(tempDir);
+  }
+
+  /**
+   * Measures one lookup implementation and prints the results.
+   *
+   * @param name name of the implementation
+   * @param iterations number of measured iterations
+   * @param lookups the NPIs to look up in each iteration
+   * @param factory creates the lookup
+   * @throws Exception if the lookup cannot be created
+   */
+  private static void report(String name, int iterations, String[] lookups, Factory factory)
+      throws Exception {
+    final BenchmarkUtils.Samples startup =
+        BenchmarkUtils.measure(
+            iterations,
+            () -> {
+              final long start = System.nanoTime();
+              loaded = factory.create();
+              final long elapsed = System.nanoTime() - start;
+              final long withLookup = BenchmarkUtils.usedHeapAfterGc();
+              loaded = null;
+              final long withoutLookup = BenchmarkUtils.usedHeapAfterGc();
+              return new long[] {elapsed, withLookup - withoutLookup};
+            });
+
+    final NPIOrgLookup lookup = factory.create();
+    final int[] found = new int[1];
+    final long lookupNanos =
+        BenchmarkUtils.measure(
+                iterations,
+                () -> {
+                  found[0] = 0;
+                  final long start = System.nanoTime();
+                  for (String npi : lookups) {
+                    if (lookup.retrieveNPIOrgDisplay(Optional.of(npi)).isPresent()) {
+                      found[0] += 1;
+                    }
+                  }
+                  return new long[] {System.nanoTime() - start};
+                })
+            .median();
+
+    System.out.printf(
+        "%-7s startup=%.1fms retained=%.1fMB lookups=%d found=%d: %.1fns/lookup%n",
+        name,
+        startup.median(0) / 1_000_000.0,
+        startup.median(1) / 1048576.0,
+        lookups.length,
+        found[0],
+        (double) lookupNanos / lookups.length);
+  }
+
+  /**
+   * Builds a random org name of two to five words.
+   *
+   * @param random source of randomness
+   * @return the org name
+   */
+  private static String randomOrgName(Random random) {
+    final StringBuilder name = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+    final int wordCount = 2 + random.nextInt(4);
+    for (int i = 1; i < wordCount; ++i) {
+      name.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return name.toString();
+  }
+
+  /** Creates the lookup being measured. */
+  @FunctionalInterface
+  private interface Factory {
+    /**
+     * Creates the lookup.
+     *
+     * @return the lookup
+     * @throws IOException if the lookup cannot be created
+     */
+    NPIOrgLookup create() throws IOException;
+  }
+}
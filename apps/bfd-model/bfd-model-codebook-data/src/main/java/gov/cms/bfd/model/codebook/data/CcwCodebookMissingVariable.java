@@ -1,6 +1,7 @@
 package gov.cms.bfd.model.codebook.data;
 
 import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
+import gov.cms.bfd.model.codebook.model.CodebookValueIndex;
 import gov.cms.bfd.model.codebook.model.Value;
 import gov.cms.bfd.model.codebook.model.ValueGroup;
 import gov.cms.bfd.model.codebook.model.Variable;
@@ -164,6 +165,10 @@ public enum CcwCodebookMissingVariable implements CcwCodebookInterface {
   /** The variables mapped by id. */
   private Map<String, Variable> VARIABLES_BY_ID = buildVariablesMappedById();
 
+  /** The index of this variable's coded values. Null for constants without a {@link Variable}. */
+  private final CodebookValueIndex valueIndex =
+      getVariable() == null ? null : CodebookValueIndex.of(getVariable());
+
   /**
    * Build variables mapped by id.
    *
@@ -307,4 +312,14 @@ public enum CcwCodebookMissingVariable implements CcwCodebookInterface {
   public Variable getVariable() {
     return VARIABLES_BY_ID.get(this.name());
   }
+
+  /**
+   * Returns the index of this variable's coded values, which is built once per constant.
+   *
+   * @return the value index or null if this constant has no {@link Variable}
+   */
+  @Override
+  public CodebookValueIndex getValueIndex() {
+    return valueIndex;
+  }
 }
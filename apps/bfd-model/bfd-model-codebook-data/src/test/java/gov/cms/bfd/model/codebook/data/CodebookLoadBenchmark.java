@@ -0,0 +1,89 @@
+package gov.cms.bfd.model.codebook.data;
+
+import gov.cms.bfd.BenchmarkUtils;
+import gov.cms.bfd.model.codebook.model.Variable;
+import gov.cms.bfd.model.codebook.unmarshall.CodebookVariableReader;
+import gov.cms.bfd.model.codebook.unmarshall.CompiledCodebookReader;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compares loading the codebook {@link Variable}s by unmarshalling the codebook XML with {@link
+ * CodebookVariableReader} against reading the compiled codebook with {@link
+ * CompiledCodebookReader}. For each it reports the time of the first load (which includes class
+ * loading and corresponds to application startup), the median time of later loads, and the heap
+ * retained by the loaded {@link Variable}s.
+ *
+ * <p>Run it from {@code bfd-model-codebook-data} with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.model.codebook.data.CodebookLoadBenchmark \
+ *   -Dexec.args="10 both"
+ * </pre>
+ *
+ * <p>The arguments are the number of measured iterations and which reader to measure ({@code xml},
+ * {@code compiled}, or {@code both}). Measuring a single reader per JVM gives the most accurate
+ * first load times.
+ */
+public final class CodebookLoadBenchmark {
+  /** Holds the most recently loaded variables so they stay reachable while the heap is measured. */
+  private static Map<String, Variable> loaded;
+
+  /** Prevents instantiation of this class. */
+  private CodebookLoadBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of measured iterations and which reader to measure
+   * @throws Exception if the variables could not be loaded
+   */
+  public static void main(String[] args) throws Exception {
+    final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+    final String readers = args.length > 1 ? args[1] : "both";
+
+    if (!readers.equals("compiled")) {
+      report("xml", iterations, () -> new CodebookVariableReader().buildVariablesMappedById());
+    }
+    if (!readers.equals("xml")) {
+      report("compiled", iterations, () -> new CompiledCodebookReader().buildVariablesMappedById());
+    }
+  }
+
+  /**
+   * Measures one way of loading the variables and prints the results.
+   *
+   * @param name name of the reader
+   * @param iterations number of measured iterations
+   * @param loader loads the variables
+   * @throws Exception if the variables could not be loaded
+   */
+  private static void report(String name, int iterations, Supplier<Map<String, Variable>> loader)
+      throws Exception {
+    final long start = System.nanoTime();
+    final int variableCount = loader.get().size();
+    final long firstNanos = System.nanoTime() - start;
+
+    final BenchmarkUtils.Samples samples =
+        BenchmarkUtils.measure(
+            iterations,
+            () -> {
+              final long loadStart = System.nanoTime();
+              loaded = loader.get();
+              final long elapsed = System.nanoTime() - loadStart;
+              // Measured after loading so that caches created by the reader are excluded.
+              final long withVariables = BenchmarkUtils.usedHeapAfterGc();
+              loaded = null;
+              final long withoutVariables = BenchmarkUtils.usedHeapAfterGc();
+              return new long[] {elapsed, withVariables - withoutVariables};
+            });
+    System.out.printf(
+        "%-8s variables=%d first=%.1fms median=%.1fms retained=%.1fKB%n",
+        name,
+        variableCount,
+        firstNanos / 1_000_000.0,
+        samples.median(0) / 1_000_000.0,
+        samples.median(1) / 1024.0);
+  }
+}
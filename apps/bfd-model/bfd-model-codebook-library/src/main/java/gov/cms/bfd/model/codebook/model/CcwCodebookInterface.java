@@ -10,6 +10,17 @@ public interface CcwCodebookInterface {
    */
   public Variable getVariable();
 
+  /**
+   * Gets the index of the variable's coded values. Implementations should build this once and
+   * return the same instance on every call. The default implementation builds a new index on every
+   * call.
+   *
+   * @return the value index
+   */
+  public default CodebookValueIndex getValueIndex() {
+    return CodebookValueIndex.of(getVariable());
+  }
+
   /**
    * Gets the CCW Codebook variable's name.
    *
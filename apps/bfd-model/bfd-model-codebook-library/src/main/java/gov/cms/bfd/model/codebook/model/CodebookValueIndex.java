@@ -0,0 +1,119 @@
+package gov.cms.bfd.model.codebook.model;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable index of the {@link Value}s of a single {@link Variable} keyed by {@link
+ * Value#getCode()}. Codes that appear in more than one {@link Value} of the variable are recorded
+ * as duplicates rather than being mapped to a description since there is no way to know which of
+ * the descriptions is correct.
+ */
+public final class CodebookValueIndex {
+  /** Index for variables that have no coded values. */
+  private static final CodebookValueIndex UNCODED =
+      new CodebookValueIndex(false, Map.of(), Set.of());
+
+  /** True if the variable has coded values. */
+  private final boolean coded;
+
+  /** Maps each code that appears exactly once to its description. */
+  private final Map<String, String> descriptionsByCode;
+
+  /** Codes that appear more than once. */
+  private final Set<String> duplicateCodes;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param coded true if the variable has coded values
+   * @param descriptionsByCode maps each unique code to its description
+   * @param duplicateCodes codes that appear more than once
+   */
+  private CodebookValueIndex(
+      boolean coded, Map<String, String> descriptionsByCode, Set<String> duplicateCodes) {
+    this.coded = coded;
+    this.descriptionsByCode = Map.copyOf(descriptionsByCode);
+    this.duplicateCodes = Set.copyOf(duplicateCodes);
+  }
+
+  /**
+   * Builds the index for a {@link Variable} by walking all of its {@link ValueGroup}s once.
+   *
+   * @param variable the variable to index
+   * @return the index
+   */
+  public static CodebookValueIndex of(Variable variable) {
+    if (variable.getValueGroups().isEmpty()) {
+      return UNCODED;
+    }
+    final Map<String, String> descriptionsByCode = new HashMap<>();
+    final Set<String> duplicateCodes = new HashSet<>();
+    for (ValueGroup valueGroup : variable.getValueGroups().get()) {
+      for (Value value : valueGroup.getValues()) {
+        final String code = value.getCode();
+        if (code == null || duplicateCodes.contains(code)) {
+          continue;
+        }
+        if (descriptionsByCode.containsKey(code)) {
+          descriptionsByCode.remove(code);
+          duplicateCodes.add(code);
+        } else {
+          descriptionsByCode.put(code, value.getDescription());
+        }
+      }
+    }
+    // Codes without a description have nothing to display.
+    descriptionsByCode.values().removeIf(description -> description == null);
+    return new CodebookValueIndex(true, descriptionsByCode, duplicateCodes);
+  }
+
+  /**
+   * Builds the index for every {@link Variable} in a map such as the one returned by {@link
+   * gov.cms.bfd.model.codebook.unmarshall.CodebookVariableReader#buildVariablesMappedById()}.
+   *
+   * @param variablesById the variables keyed by id
+   * @return unmodifiable map of indexes keyed by the same ids
+   */
+  public static Map<String, CodebookValueIndex> buildIndexesMappedById(
+      Map<String, Variable> variablesById) {
+    final Map<String, CodebookValueIndex> indexesById = new LinkedHashMap<>();
+    for (Map.Entry<String, Variable> entry : variablesById.entrySet()) {
+      indexesById.put(entry.getKey(), of(entry.getValue()));
+    }
+    return Map.copyOf(indexesById);
+  }
+
+  /**
+   * Determines if the variable has coded values.
+   *
+   * @return true if the variable has coded values
+   */
+  public boolean isCoded() {
+    return coded;
+  }
+
+  /**
+   * Looks up the description of a code that appears exactly once in the variable.
+   *
+   * @param code the code to look up
+   * @return the description or {@link Optional#empty()} if the code is unknown or a duplicate
+   */
+  public Optional<String> getDescription(String code) {
+    return Optional.ofNullable(descriptionsByCode.get(code));
+  }
+
+  /**
+   * Determines if a code appears in more than one {@link Value} of the variable.
+   *
+   * @param code the code to check
+   * @return true if the code is a duplicate
+   */
+  public boolean isDuplicate(String code) {
+    return duplicateCodes.contains(code);
+  }
+}
@@ -9,6 +9,7 @@ import jakarta.xml.bind.annotation.XmlElementWrapper;
 import jakarta.xml.bind.annotation.XmlTransient;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -114,6 +115,13 @@ public final class Variable {
   @XmlElement(name = "p")
   private List<String> comment;
 
+  /**
+   * Loads the {@link #description} and {@link #comment} paragraphs the first time either is
+   * requested. Only set for variables read from a compiled codebook and cleared once the paragraphs
+   * have been loaded.
+   */
+  @XmlTransient private volatile Consumer<Variable> paragraphLoader;
+
   /**
    * Constructs a new {@link Variable} instance.
    *
@@ -219,6 +227,7 @@ public final class Variable {
    *     paragraphs long, with one {@link List} entry per paragraph
    */
   public Optional<List<String>> getDescription() {
+    loadParagraphs();
     return Optional.ofNullable(description);
   }
 
@@ -283,9 +292,33 @@ public final class Variable {
    *     </code> if that information is unknown for this {@link Variable}
    */
   public Optional<List<String>> getComment() {
+    loadParagraphs();
     return Optional.ofNullable(comment);
   }
 
+  /**
+   * Defers loading of the {@link #description} and {@link #comment} paragraphs until one of them is
+   * first requested. The loader is expected to populate both using their setters.
+   *
+   * @param paragraphLoader called with this {@link Variable} to load its paragraphs
+   */
+  public void setParagraphLoader(Consumer<Variable> paragraphLoader) {
+    this.paragraphLoader = paragraphLoader;
+  }
+
+  /** Calls the {@link #paragraphLoader} if the paragraphs have not been loaded yet. */
+  private void loadParagraphs() {
+    if (paragraphLoader != null) {
+      synchronized (this) {
+        final Consumer<Variable> loader = paragraphLoader;
+        if (loader != null) {
+          loader.accept(this);
+          paragraphLoader = null;
+        }
+      }
+    }
+  }
+
   /** {@inheritDoc} */
   @Override
   public String toString() {
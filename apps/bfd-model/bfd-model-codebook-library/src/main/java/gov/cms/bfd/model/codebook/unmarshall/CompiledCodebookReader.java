@@ -0,0 +1,252 @@
+package gov.cms.bfd.model.codebook.unmarshall;
+
+import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+import gov.cms.bfd.model.codebook.model.Codebook;
+import gov.cms.bfd.model.codebook.model.SupportedCodebook;
+import gov.cms.bfd.model.codebook.model.Value;
+import gov.cms.bfd.model.codebook.model.ValueGroup;
+import gov.cms.bfd.model.codebook.model.Variable;
+import gov.cms.bfd.model.codebook.model.VariableType;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the {@link Variable}s written by {@link CompiledCodebookWriter} at build time. This avoids
+ * unmarshalling the codebook XML at startup. Every distinct string is read once and shared by all
+ * of the {@link Variable}s, {@link ValueGroup}s and {@link Value}s that refer to it. The
+ * description and comment paragraphs of each {@link Variable} are only read if they are requested.
+ */
+public final class CompiledCodebookReader {
+  /** Name of the classpath resource containing the compiled codebook. */
+  public static final String RESOURCE_NAME = "codebook-compiled.bin";
+
+  /** Identifies a compiled codebook file. */
+  static final int MAGIC = 0x43434342;
+
+  /** Version of the file format. Incremented whenever the format changes. */
+  static final int FORMAT_VERSION = 1;
+
+  /** Number of bytes in the header: magic, version, and length of the main section. */
+  private static final int HEADER_LENGTH = 3 * Integer.BYTES;
+
+  /** Provides the compiled codebook bytes. */
+  private final ByteSource byteSource;
+
+  /**
+   * Initializes an instance that reads the compiled codebook from the {@link #RESOURCE_NAME}
+   * classpath resource.
+   */
+  public CompiledCodebookReader() {
+    this(getCompiledCodebookFromResource());
+  }
+
+  /**
+   * Initializes an instance that reads the compiled codebook from the {@link #RESOURCE_NAME} file
+   * in the given directory.
+   *
+   * @param directory directory containing the compiled codebook
+   */
+  public CompiledCodebookReader(File directory) {
+    this(Files.asByteSource(new File(directory, RESOURCE_NAME)));
+  }
+
+  /**
+   * Initializes an instance.
+   *
+   * @param byteSource provides the compiled codebook bytes
+   */
+  public CompiledCodebookReader(ByteSource byteSource) {
+    this.byteSource = byteSource;
+  }
+
+  /**
+   * Builds a {@link Map} of the compiled {@link Variable}s keyed by their ids. The map contains the
+   * same variables in the same order as the one returned by {@link
+   * CodebookVariableReader#buildVariablesMappedById()} when the file was written.
+   *
+   * @return the map of {@link Variable}s
+   */
+  public Map<String, Variable> buildVariablesMappedById() {
+    try (DataInputStream in = new DataInputStream(byteSource.openBufferedStream())) {
+      final int paragraphsStart = readHeader(in);
+
+      final String[] strings = new String[in.readInt()];
+      for (int i = 0; i < strings.length; ++i) {
+        strings[i] = readString(in);
+      }
+
+      final Codebook[] codebooks = new Codebook[in.readInt()];
+      for (int i = 0; i < codebooks.length; ++i) {
+        codebooks[i] = new Codebook(SupportedCodebook.valueOf(strings[in.readInt()]));
+      }
+
+      final int variableCount = in.readInt();
+      final Map<String, Variable> variablesById = new LinkedHashMap<>(variableCount);
+      for (int i = 0; i < variableCount; ++i) {
+        final Codebook codebook = codebooks[in.readInt()];
+        final Variable variable = new Variable(codebook);
+        variable.setId(lookup(strings, in.readInt()));
+        variable.setLabel(lookup(strings, in.readInt()));
+        variable.setShortName(lookup(strings, in.readInt()));
+        variable.setLongName(lookup(strings, in.readInt()));
+        final int type = in.readInt();
+        variable.setType(type < 0 ? null : VariableType.values()[type]);
+        final int length = in.readInt();
+        variable.setLength(length < 0 ? null : length);
+        variable.setSource(lookup(strings, in.readInt()));
+        variable.setValueFormat(lookup(strings, in.readInt()));
+        variable.setValueGroups(readValueGroups(strings, in));
+
+        final long paragraphsOffset = paragraphsStart + (long) in.readInt();
+        variable.setParagraphLoader(v -> loadParagraphs(v, paragraphsOffset));
+
+        codebook.getVariables().add(variable);
+        variablesById.put(variable.getId(), variable);
+      }
+      return variablesById;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads and verifies the header.
+   *
+   * @param in the stream positioned at the start of the file
+   * @return the offset of the paragraphs section from the start of the file
+   * @throws IOException if reading fails or the header is invalid
+   */
+  private static int readHeader(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("not a compiled codebook");
+    }
+    final int version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException(
+          String.format(
+              "unsupported compiled codebook version: expected=%d actual=%d",
+              FORMAT_VERSION, version));
+    }
+    return HEADER_LENGTH + in.readInt();
+  }
+
+  /**
+   * Reads the value groups of a variable.
+   *
+   * @param strings the string table
+   * @param in the stream to read from
+   * @return the value groups or null if the variable is not coded
+   * @throws IOException if reading fails
+   */
+  private static List<ValueGroup> readValueGroups(String[] strings, DataInputStream in)
+      throws IOException {
+    final int groupCount = in.readInt();
+    if (groupCount < 0) {
+      return null;
+    }
+    final List<ValueGroup> valueGroups = new ArrayList<>(groupCount);
+    for (int g = 0; g < groupCount; ++g) {
+      final int paragraphCount = in.readInt();
+      List<String> description = null;
+      if (paragraphCount >= 0) {
+        description = new ArrayList<>(paragraphCount);
+        for (int p = 0; p < paragraphCount; ++p) {
+          description.add(lookup(strings, in.readInt()));
+        }
+      }
+      final int valueCount = in.readInt();
+      final List<Value> values = new ArrayList<>(valueCount);
+      for (int v = 0; v < valueCount; ++v) {
+        values.add(new Value(lookup(strings, in.readInt()), lookup(strings, in.readInt())));
+      }
+      valueGroups.add(new ValueGroup(description, values));
+    }
+    return valueGroups;
+  }
+
+  /**
+   * Reads the description and comment paragraphs of a variable and stores them in the variable.
+   * Called the first time either is requested.
+   *
+   * @param variable the variable to update
+   * @param offset offset of the variable's paragraphs from the start of the file
+   */
+  private void loadParagraphs(Variable variable, long offset) {
+    try (InputStream stream = byteSource.openBufferedStream()) {
+      stream.skipNBytes(offset);
+      final DataInputStream in = new DataInputStream(stream);
+      variable.setDescription(readParagraphs(in));
+      variable.setComment(readParagraphs(in));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads a list of paragraphs written inline.
+   *
+   * @param in the stream to read from
+   * @return the paragraphs or null if there are none
+   * @throws IOException if reading fails
+   */
+  private static List<String> readParagraphs(DataInputStream in) throws IOException {
+    final int count = in.readInt();
+    if (count < 0) {
+      return null;
+    }
+    final List<String> paragraphs = new ArrayList<>(count);
+    for (int i = 0; i < count; ++i) {
+      paragraphs.add(readString(in));
+    }
+    return paragraphs;
+  }
+
+  /**
+   * Reads a string written as its UTF-8 byte count followed by its bytes.
+   *
+   * @param in the stream to read from
+   * @return the string
+   * @throws IOException if reading fails
+   */
+  private static String readString(DataInputStream in) throws IOException {
+    final byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Looks up a string in the string table.
+   *
+   * @param strings the string table
+   * @param index the index or -1 for null
+   * @return the string or null
+   */
+  private static String lookup(String[] strings, int index) {
+    return index < 0 ? null : strings[index];
+  }
+
+  /**
+   * Looks up the {@link #RESOURCE_NAME} resource and returns a {@link ByteSource} for it.
+   *
+   * @return {@link ByteSource} for the resource
+   */
+  private static ByteSource getCompiledCodebookFromResource() {
+    final URL url = Codebook.class.getClassLoader().getResource(RESOURCE_NAME);
+    if (url == null) {
+      throw new IllegalStateException(
+          String.format("Unable to locate classpath resource: '%s'.", RESOURCE_NAME));
+    }
+    return Resources.asByteSource(url);
+  }
+}
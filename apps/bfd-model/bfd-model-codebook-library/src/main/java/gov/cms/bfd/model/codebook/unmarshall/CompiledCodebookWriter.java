@@ -0,0 +1,213 @@
+package gov.cms.bfd.model.codebook.unmarshall;
+
+import gov.cms.bfd.model.codebook.model.Codebook;
+import gov.cms.bfd.model.codebook.model.Value;
+import gov.cms.bfd.model.codebook.model.ValueGroup;
+import gov.cms.bfd.model.codebook.model.Variable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link Variable}s in the compact binary form read by {@link CompiledCodebookReader}. Used
+ * at build time so that applications never need to unmarshall the codebook XML.
+ *
+ * <p>The file starts with a header containing {@link CompiledCodebookReader#MAGIC}, {@link
+ * CompiledCodebookReader#FORMAT_VERSION} and the length of the main section. The main section
+ * contains a table of every distinct string followed by the codebooks and variables, which refer to
+ * strings by their index in the table. The description and comment paragraphs of each variable are
+ * written after the main section so they can be read only when requested.
+ */
+public final class CompiledCodebookWriter {
+  /** Maps each distinct string to its index in {@link #strings}. */
+  private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+  /** Every distinct string in the order they were first referenced. */
+  private final List<String> strings = new ArrayList<>();
+
+  /** Maps each codebook to its index in {@link #codebooks}. */
+  private final Map<Codebook, Integer> codebookIndexes = new HashMap<>();
+
+  /** Every distinct codebook in the order they were first referenced. */
+  private final List<Codebook> codebooks = new ArrayList<>();
+
+  /** Initializes an instance. Instances are only used by {@link #write}. */
+  private CompiledCodebookWriter() {}
+
+  /**
+   * Writes the given variables to a stream. The stream is not closed.
+   *
+   * @param variablesById the variables keyed by id, such as those returned by {@link
+   *     CodebookVariableReader#buildVariablesMappedById()}
+   * @param output the stream to write to
+   * @throws IOException if writing fails
+   */
+  public static void write(Map<String, Variable> variablesById, OutputStream output)
+      throws IOException {
+    new CompiledCodebookWriter().writeVariables(variablesById, output);
+  }
+
+  /**
+   * Writes the given variables to a stream.
+   *
+   * @param variablesById the variables keyed by id
+   * @param output the stream to write to
+   * @throws IOException if writing fails
+   */
+  private void writeVariables(Map<String, Variable> variablesById, OutputStream output)
+      throws IOException {
+    final ByteArrayOutputStream variableBytes = new ByteArrayOutputStream();
+    final ByteArrayOutputStream paragraphBytes = new ByteArrayOutputStream();
+    final DataOutputStream variableOut = new DataOutputStream(variableBytes);
+    final DataOutputStream paragraphOut = new DataOutputStream(paragraphBytes);
+
+    variableOut.writeInt(variablesById.size());
+    for (Variable variable : variablesById.values()) {
+      variableOut.writeInt(codebookIndex(variable.getCodebook()));
+      variableOut.writeInt(stringIndex(variable.getId()));
+      variableOut.writeInt(stringIndex(variable.getLabel()));
+      variableOut.writeInt(stringIndex(variable.getShortName().orElse(null)));
+      variableOut.writeInt(stringIndex(variable.getLongName()));
+      variableOut.writeInt(variable.getType().map(Enum::ordinal).orElse(-1));
+      variableOut.writeInt(variable.getLength() == null ? -1 : variable.getLength());
+      variableOut.writeInt(stringIndex(variable.getSource().orElse(null)));
+      variableOut.writeInt(stringIndex(variable.getValueFormat().orElse(null)));
+      writeValueGroups(variable.getValueGroups().orElse(null), variableOut);
+
+      variableOut.writeInt(paragraphOut.size());
+      writeParagraphs(variable.getDescription().orElse(null), paragraphOut);
+      writeParagraphs(variable.getComment().orElse(null), paragraphOut);
+    }
+
+    // Codebooks are written last so they have all been indexed, but read before the variables.
+    final ByteArrayOutputStream mainBytes = new ByteArrayOutputStream();
+    final DataOutputStream mainOut = new DataOutputStream(mainBytes);
+    final List<Integer> codebookIdIndexes = new ArrayList<>();
+    for (Codebook codebook : codebooks) {
+      codebookIdIndexes.add(stringIndex(codebook.getId()));
+    }
+    mainOut.writeInt(strings.size());
+    for (String string : strings) {
+      writeString(string, mainOut);
+    }
+    mainOut.writeInt(codebookIdIndexes.size());
+    for (int codebookIdIndex : codebookIdIndexes) {
+      mainOut.writeInt(codebookIdIndex);
+    }
+    mainOut.flush();
+    variableOut.flush();
+    paragraphOut.flush();
+
+    final DataOutputStream out = new DataOutputStream(output);
+    out.writeInt(CompiledCodebookReader.MAGIC);
+    out.writeInt(CompiledCodebookReader.FORMAT_VERSION);
+    out.writeInt(mainBytes.size() + variableBytes.size());
+    mainBytes.writeTo(out);
+    variableBytes.writeTo(out);
+    paragraphBytes.writeTo(out);
+    out.flush();
+  }
+
+  /**
+   * Writes the value groups of a variable. Their values are written as pairs of string indexes.
+   *
+   * @param valueGroups the value groups or null if the variable is not coded
+   * @param out the stream to write to
+   * @throws IOException if writing fails
+   */
+  private void writeValueGroups(List<ValueGroup> valueGroups, DataOutputStream out)
+      throws IOException {
+    if (valueGroups == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(valueGroups.size());
+    for (ValueGroup valueGroup : valueGroups) {
+      final List<String> description = valueGroup.getDescription();
+      out.writeInt(description == null ? -1 : description.size());
+      if (description != null) {
+        for (String paragraph : description) {
+          out.writeInt(stringIndex(paragraph));
+        }
+      }
+      out.writeInt(valueGroup.getValues().size());
+      for (Value value : valueGroup.getValues()) {
+        out.writeInt(stringIndex(value.getCode()));
+        out.writeInt(stringIndex(value.getDescription()));
+      }
+    }
+  }
+
+  /**
+   * Writes a list of paragraphs inline rather than as indexes into the string table so that they
+   * are not loaded with the table.
+   *
+   * @param paragraphs the paragraphs or null if there are none
+   * @param out the stream to write to
+   * @throws IOException if writing fails
+   */
+  private static void writeParagraphs(List<String> paragraphs, DataOutputStream out)
+      throws IOException {
+    if (paragraphs == null) {
+      out.writeInt(-1);
+      return;
+    }
+    out.writeInt(paragraphs.size());
+    for (String paragraph : paragraphs) {
+      writeString(paragraph, out);
+    }
+  }
+
+  /**
+   * Writes a string as its UTF-8 byte count followed by its bytes. Used instead of {@link
+   * DataOutputStream#writeUTF} since that is limited to 64KB strings.
+   *
+   * @param string the string to write
+   * @param out the stream to write to
+   * @throws IOException if writing fails
+   */
+  private static void writeString(String string, DataOutputStream out) throws IOException {
+    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Finds the index of a string in the string table, adding it if necessary.
+   *
+   * @param string the string or null
+   * @return the index or -1 for null
+   */
+  private int stringIndex(String string) {
+    if (string == null) {
+      return -1;
+    }
+    return stringIndexes.computeIfAbsent(
+        string,
+        s -> {
+          strings.add(s);
+          return strings.size() - 1;
+        });
+  }
+
+  /**
+   * Finds the index of a codebook, adding it if necessary.
+   *
+   * @param codebook the codebook
+   * @return the index
+   */
+  private int codebookIndex(Codebook codebook) {
+    return codebookIndexes.computeIfAbsent(
+        codebook,
+        c -> {
+          codebooks.add(c);
+          return codebooks.size() - 1;
+        });
+  }
+}
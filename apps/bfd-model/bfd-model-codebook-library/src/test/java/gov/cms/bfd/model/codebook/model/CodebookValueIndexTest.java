@@ -0,0 +1,84 @@
+package gov.cms.bfd.model.codebook.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CodebookValueIndex}. */
+public class CodebookValueIndexTest {
+  /**
+   * Verifies that unique codes map to their descriptions, duplicate codes are recorded as such even
+   * when they appear in different value groups, and unknown codes are neither.
+   */
+  @Test
+  void shouldIndexUniqueAndDuplicateCodes() {
+    final Variable variable =
+        createVariable(
+            "A",
+            List.of(
+                new ValueGroup(
+                    List.of("first"),
+                    List.of(new Value("1", "One"), new Value("2", "Two"), new Value("3", null))),
+                new ValueGroup(
+                    List.of("second"), List.of(new Value("2", "Deux"), new Value("4", "Four")))));
+
+    final CodebookValueIndex index = CodebookValueIndex.of(variable);
+
+    assertTrue(index.isCoded());
+    assertEquals(Optional.of("One"), index.getDescription("1"));
+    assertEquals(Optional.of("Four"), index.getDescription("4"));
+    assertFalse(index.isDuplicate("1"));
+
+    assertEquals(Optional.empty(), index.getDescription("2"));
+    assertTrue(index.isDuplicate("2"));
+
+    assertEquals(Optional.empty(), index.getDescription("3"));
+    assertFalse(index.isDuplicate("3"));
+
+    assertEquals(Optional.empty(), index.getDescription("5"));
+    assertFalse(index.isDuplicate("5"));
+  }
+
+  /** Verifies that a variable without value groups produces an uncoded index. */
+  @Test
+  void shouldMarkVariablesWithoutValuesAsUncoded() {
+    final CodebookValueIndex index = CodebookValueIndex.of(createVariable("B", null));
+
+    assertFalse(index.isCoded());
+    assertEquals(Optional.empty(), index.getDescription("1"));
+    assertFalse(index.isDuplicate("1"));
+  }
+
+  /** Verifies that an index is built for every variable in a map keyed by id. */
+  @Test
+  void shouldBuildIndexesMappedById() {
+    final Variable coded =
+        createVariable("A", List.of(new ValueGroup(List.of(), List.of(new Value("1", "One")))));
+    final Variable uncoded = createVariable("B", null);
+
+    final Map<String, CodebookValueIndex> indexes =
+        CodebookValueIndex.buildIndexesMappedById(Map.of("A", coded, "B", uncoded));
+
+    assertEquals(2, indexes.size());
+    assertEquals(Optional.of("One"), indexes.get("A").getDescription("1"));
+    assertSame(CodebookValueIndex.of(uncoded), indexes.get("B"));
+  }
+
+  /**
+   * Creates a {@link Variable} with the given id and value groups.
+   *
+   * @param id the variable id
+   * @param valueGroups the value groups or null if the variable is not coded
+   * @return the variable
+   */
+  private static Variable createVariable(String id, List<ValueGroup> valueGroups) {
+    return new Variable(
+        id, id, List.of(), id, id, VariableType.CHAR, 1, "", "", valueGroups, List.of());
+  }
+}
@@ -0,0 +1,176 @@
+package gov.cms.bfd.model.codebook.unmarshall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.io.ByteSource;
+import gov.cms.bfd.model.codebook.model.Codebook;
+import gov.cms.bfd.model.codebook.model.SupportedCodebook;
+import gov.cms.bfd.model.codebook.model.Value;
+import gov.cms.bfd.model.codebook.model.ValueGroup;
+import gov.cms.bfd.model.codebook.model.Variable;
+import gov.cms.bfd.model.codebook.model.VariableType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CompiledCodebookReader} and {@link CompiledCodebookWriter}. */
+public class CompiledCodebookReaderTest {
+  /**
+   * Verifies that variables written by {@link CompiledCodebookWriter} are read back with the same
+   * properties, in the same order, and with their codebooks and repeated strings shared.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void shouldReadVariablesThatWereWritten() throws IOException {
+    final Codebook claims = new Codebook(SupportedCodebook.FFS_CLAIMS);
+    final Codebook events = new Codebook(SupportedCodebook.PARTD_EVENTS);
+    final Map<String, Variable> written = new LinkedHashMap<>();
+    written.put(
+        "B",
+        createVariable(
+            claims,
+            "B",
+            List.of(
+                new ValueGroup(
+                    List.of("group"), List.of(new Value("1", "Yes"), new Value("2", null))),
+                new ValueGroup(null, List.of(new Value("3", "Yes"))))));
+    written.put("A", createVariable(events, "A", null));
+    written.put("C", createVariable(claims, "C", null));
+
+    final Map<String, Variable> read = readBack(written);
+
+    assertEquals(List.of("B", "A", "C"), List.copyOf(read.keySet()));
+    for (Variable expected : written.values()) {
+      final Variable actual = read.get(expected.getId());
+      assertEquals(expected.getCodebook().getId(), actual.getCodebook().getId());
+      assertEquals(expected.getLabel(), actual.getLabel());
+      assertEquals(expected.getShortName(), actual.getShortName());
+      assertEquals(expected.getLongName(), actual.getLongName());
+      assertEquals(expected.getType(), actual.getType());
+      assertEquals(expected.getLength(), actual.getLength());
+      assertEquals(expected.getSource(), actual.getSource());
+      assertEquals(expected.getValueFormat(), actual.getValueFormat());
+      assertEquals(expected.getDescription(), actual.getDescription());
+      assertEquals(expected.getComment(), actual.getComment());
+      assertEquals(toString(expected), toString(actual));
+    }
+    assertSame(read.get("B").getCodebook(), read.get("C").getCodebook());
+    assertEquals(List.of(read.get("B"), read.get("C")), read.get("B").getCodebook().getVariables());
+
+    final List<Value> values =
+        read.get("B").getValueGroups().get().stream()
+            .flatMap(group -> group.getValues().stream())
+            .toList();
+    assertSame(values.get(0).getDescription(), values.get(2).getDescription());
+  }
+
+  /**
+   * Verifies that the description and comment paragraphs are only read once and only when they are
+   * first requested.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void shouldLoadParagraphsOnlyWhenRequested() throws IOException {
+    final Codebook claims = new Codebook(SupportedCodebook.FFS_CLAIMS);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CompiledCodebookWriter.write(Map.of("A", createVariable(claims, "A", null)), bytes);
+    final AtomicInteger opens = new AtomicInteger();
+    final ByteSource source = ByteSource.wrap(bytes.toByteArray());
+    final ByteSource countingSource =
+        new ByteSource() {
+          @Override
+          public InputStream openStream() throws IOException {
+            opens.incrementAndGet();
+            return source.openStream();
+          }
+        };
+
+    final Variable variable =
+        new CompiledCodebookReader(countingSource).buildVariablesMappedById().get("A");
+    assertEquals(1, opens.get());
+
+    assertEquals(
+        Optional.of(List.of("A description", "A second paragraph")), variable.getDescription());
+    assertEquals(Optional.of(List.of("A comment")), variable.getComment());
+    assertEquals(
+        Optional.of(List.of("A description", "A second paragraph")), variable.getDescription());
+    assertEquals(2, opens.get());
+  }
+
+  /** Verifies that a file that was not written by {@link CompiledCodebookWriter} is rejected. */
+  @Test
+  void shouldRejectInvalidFiles() {
+    final CompiledCodebookReader reader =
+        new CompiledCodebookReader(ByteSource.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+    assertThrows(UncheckedIOException.class, reader::buildVariablesMappedById);
+  }
+
+  /**
+   * Writes variables and reads them back.
+   *
+   * @param variablesById the variables to write
+   * @return the variables that were read
+   * @throws IOException pass through
+   */
+  private static Map<String, Variable> readBack(Map<String, Variable> variablesById)
+      throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CompiledCodebookWriter.write(variablesById, bytes);
+    return new CompiledCodebookReader(ByteSource.wrap(bytes.toByteArray()))
+        .buildVariablesMappedById();
+  }
+
+  /**
+   * Creates a {@link Variable} in the given codebook.
+   *
+   * @param codebook the codebook
+   * @param id the variable id
+   * @param valueGroups the value groups or null if the variable is not coded
+   * @return the variable
+   */
+  private static Variable createVariable(
+      Codebook codebook, String id, List<ValueGroup> valueGroups) {
+    final Variable variable = new Variable(codebook);
+    variable.setId(id);
+    variable.setLabel(id + " label");
+    variable.setDescription(List.of(id + " description", id + " second paragraph"));
+    variable.setShortName(valueGroups == null ? null : id);
+    variable.setLongName(id + "_LONG");
+    variable.setType(valueGroups == null ? VariableType.NUM : VariableType.CHAR);
+    variable.setLength(id.length());
+    variable.setSource(valueGroups == null ? null : "CWF");
+    variable.setValueFormat(valueGroups == null ? null : "X");
+    variable.setValueGroups(valueGroups);
+    variable.setComment(List.of(id + " comment"));
+    return variable;
+  }
+
+  /**
+   * Renders the value groups of a variable so they can be compared.
+   *
+   * @param variable the variable
+   * @return a string containing every value group description, code, and value description
+   */
+  private static String toString(Variable variable) {
+    return variable
+        .getValueGroups()
+        .map(
+            groups ->
+                groups.stream()
+                    .map(group -> group.getDescription() + ":" + group.getValues())
+                    .toList()
+                    .toString())
+        .orElse("uncoded");
+  }
+}
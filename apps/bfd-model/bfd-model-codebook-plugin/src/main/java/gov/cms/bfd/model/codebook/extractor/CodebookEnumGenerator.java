@@ -9,8 +9,10 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeSpec;
 import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
 import gov.cms.bfd.model.codebook.model.Codebook;
+import gov.cms.bfd.model.codebook.model.CodebookValueIndex;
 import gov.cms.bfd.model.codebook.model.Variable;
 import gov.cms.bfd.model.codebook.unmarshall.CodebookVariableReader;
+import gov.cms.bfd.model.codebook.unmarshall.CompiledCodebookReader;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
@@ -122,7 +124,16 @@ public class CodebookEnumGenerator {
                 Modifier.PRIVATE,
                 Modifier.STATIC,
                 Modifier.FINAL)
-            .initializer("new $T().buildVariablesMappedById()", CodebookVariableReader.class)
+            .initializer("new $T().buildVariablesMappedById()", CompiledCodebookReader.class)
+            .build());
+    variablesEnumType.addField(
+        FieldSpec.builder(
+                ParameterizedTypeName.get(Map.class, String.class, CodebookValueIndex.class),
+                "VALUE_INDEXES_BY_ID",
+                Modifier.PRIVATE,
+                Modifier.STATIC,
+                Modifier.FINAL)
+            .initializer("$T.buildIndexesMappedById(VARIABLES_BY_ID)", CodebookValueIndex.class)
             .build());
     variablesEnumType.addMethod(
         MethodSpec.methodBuilder("getVariable")
@@ -134,6 +145,17 @@ public class CodebookEnumGenerator {
                 Variable.class,
                 variableEnumName)
             .build());
+    variablesEnumType.addMethod(
+        MethodSpec.methodBuilder("getValueIndex")
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement("return VALUE_INDEXES_BY_ID.get(this.name())")
+            .returns(CodebookValueIndex.class)
+            .addJavadoc(
+                "@return the {@link $T} of this constant's coded values, built once when the enum"
+                    + " is initialized\n",
+                CodebookValueIndex.class)
+            .build());
 
     TypeSpec columnEnumFinal = variablesEnumType.build();
     JavaFile columnsEnumFile = JavaFile.builder(packageName, columnEnumFinal).build();
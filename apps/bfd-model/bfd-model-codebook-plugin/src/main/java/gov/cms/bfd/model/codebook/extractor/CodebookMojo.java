@@ -3,18 +3,24 @@ package gov.cms.bfd.model.codebook.extractor;
 import gov.cms.bfd.model.codebook.model.Codebook;
 import gov.cms.bfd.model.codebook.model.SupportedCodebook;
 import gov.cms.bfd.model.codebook.model.Variable;
+import gov.cms.bfd.model.codebook.unmarshall.CodebookVariableReader;
+import gov.cms.bfd.model.codebook.unmarshall.CompiledCodebookReader;
+import gov.cms.bfd.model.codebook.unmarshall.CompiledCodebookWriter;
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.function.Function;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -28,7 +34,10 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
-/** Maven plugin that processes codebook PDF files to produce XML files and enum class. */
+/**
+ * Maven plugin that processes codebook PDF files to produce XML files, a compiled codebook, and
+ * enum class.
+ */
 @Mojo(name = "codebooks", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
 @NoArgsConstructor
 @AllArgsConstructor
@@ -70,7 +79,7 @@ public class CodebookMojo extends AbstractMojo {
   private MavenProject project;
 
   /**
-   * Execute the mojo logic. Generates XML files and an enum class.
+   * Execute the mojo logic. Generates XML files, a compiled codebook, and an enum class.
    *
    * @throws MojoExecutionException if execution fails
    */
@@ -84,7 +93,7 @@ public class CodebookMojo extends AbstractMojo {
       // Ensure maven will compile our java enum class.
       project.addCompileSourceRoot(javaFilesDirectory);
 
-      // Ensure maven will include our XML files as resource files.
+      // Ensure maven will include our XML and compiled codebook files as resource files.
       var resource = new Resource();
       resource.setFiltering(false);
       resource.setDirectory(xmlFilesDirectory);
@@ -92,6 +101,7 @@ public class CodebookMojo extends AbstractMojo {
 
       // Generate all the things.
       generateXmlFiles();
+      generateCompiledCodebookFile();
       generateEnumClassFile();
     } catch (IOException ex) {
       throw new MojoExecutionException("I/O error during code generation", ex);
@@ -133,6 +143,22 @@ public class CodebookMojo extends AbstractMojo {
     }
   }
 
+  /**
+   * Generate a compiled codebook file from the previously generated XML files. The enum class reads
+   * this file at runtime instead of unmarshalling the XML files.
+   *
+   * @throws IOException may be thrown while writing files
+   */
+  void generateCompiledCodebookFile() throws IOException {
+    final File xmlDirectory = new File(xmlFilesDirectory);
+    final Map<String, Variable> variablesById =
+        new CodebookVariableReader(xmlDirectory).buildVariablesMappedById();
+    final Path outputFile = xmlDirectory.toPath().resolve(CompiledCodebookReader.RESOURCE_NAME);
+    try (OutputStream output = Files.newOutputStream(outputFile)) {
+      CompiledCodebookWriter.write(variablesById, output);
+    }
+  }
+
   /**
    * Generate an enum class file from the previously generated XML files.
    *
@@ -0,0 +1,26 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Defines the method signature for writers that store a batch of entities using plain JDBC
+ * statements rather than JPA. Generated implementations insert or update every entity in a single
+ * set of batched statements and replace the rows of any child tables.
+ *
+ * @param <TEntity> type of the entity objects written
+ */
+@FunctionalInterface
+public interface BulkEntityWriter<TEntity> {
+  /**
+   * Writes the entities using the provided {@link Connection}. The caller is responsible for
+   * transaction boundaries so that all of the rows are written atomically.
+   *
+   * @param connection the connection to write to
+   * @param entities the entities to write
+   * @return the number of rows inserted or updated, including child table rows
+   * @throws SQLException if any statement fails
+   */
+  int writeEntities(Connection connection, Collection<TEntity> entities) throws SQLException;
+}
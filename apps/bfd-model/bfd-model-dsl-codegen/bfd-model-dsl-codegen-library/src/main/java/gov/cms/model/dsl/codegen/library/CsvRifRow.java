@@ -0,0 +1,75 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.util.Map;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * {@link RifRow} implementation backed by a {@link CSVRecord}. {@link CSVParser#getHeaderMap()}
+ * returns a new copy on every call, so the header map is captured once per file and shared by every
+ * row created from that file.
+ */
+public final class CsvRifRow implements RifRow {
+  /** The wrapped record. */
+  private final CSVRecord csvRecord;
+
+  /** The header of the file, shared by every row of the file. */
+  private final Map<String, Integer> headerMap;
+
+  /**
+   * Constructs a new row.
+   *
+   * @param csvRecord the wrapped record
+   * @param headerMap the header of the file, which should be the same instance for every row of the
+   *     file
+   */
+  public CsvRifRow(CSVRecord csvRecord, Map<String, Integer> headerMap) {
+    this.csvRecord = csvRecord;
+    this.headerMap = headerMap;
+  }
+
+  /**
+   * Accessor for the wrapped record.
+   *
+   * @return the record
+   */
+  public CSVRecord getCsvRecord() {
+    return csvRecord;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Map<String, Integer> getHeaderMap() {
+    return headerMap;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int size() {
+    return csvRecord.size();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String get(int index) {
+    return csvRecord.get(index);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String get(String label) {
+    return csvRecord.get(label);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getRecordNumber() {
+    return csvRecord.getRecordNumber();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public String toString() {
+    return csvRecord.toString();
+  }
+}
@@ -0,0 +1,200 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Overloaded methods that bind entity field values to {@link PreparedStatement} parameters. Used by
+ * generated {@link BulkEntityWriter} implementations so that each field can be bound with the same
+ * call regardless of its type. Null values are bound using {@link PreparedStatement#setNull} with
+ * the SQL type matching the java type.
+ */
+public final class JdbcParameters {
+  /** Prevents instantiation of static utility class. */
+  private JdbcParameters() {}
+
+  /**
+   * Binds a {@link String} value.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, String value) throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.VARCHAR);
+    } else {
+      statement.setString(index, value);
+    }
+  }
+
+  /**
+   * Binds a {@code char} value as a single character string.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, char value) throws SQLException {
+    statement.setString(index, String.valueOf(value));
+  }
+
+  /**
+   * Binds a {@link Character} value as a single character string.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, Character value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.CHAR);
+    } else {
+      statement.setString(index, String.valueOf(value.charValue()));
+    }
+  }
+
+  /**
+   * Binds a {@link Short} value.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, Short value) throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.SMALLINT);
+    } else {
+      statement.setShort(index, value);
+    }
+  }
+
+  /**
+   * Binds an {@link Integer} value.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, Integer value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.INTEGER);
+    } else {
+      statement.setInt(index, value);
+    }
+  }
+
+  /**
+   * Binds a {@link Long} value.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, Long value) throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.BIGINT);
+    } else {
+      statement.setLong(index, value);
+    }
+  }
+
+  /**
+   * Binds a {@link Boolean} value.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, Boolean value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.BOOLEAN);
+    } else {
+      statement.setBoolean(index, value);
+    }
+  }
+
+  /**
+   * Binds a {@link BigDecimal} value.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, BigDecimal value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.NUMERIC);
+    } else {
+      statement.setBigDecimal(index, value);
+    }
+  }
+
+  /**
+   * Binds a {@link LocalDate} value.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, LocalDate value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.DATE);
+    } else {
+      statement.setObject(index, value);
+    }
+  }
+
+  /**
+   * Binds an {@link Instant} value as a timestamp with time zone in UTC.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, Instant value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+    } else {
+      statement.setObject(index, value.atOffset(ZoneOffset.UTC));
+    }
+  }
+
+  /**
+   * Binds an enum value using its name, matching how entities map enums with {@code
+   * EnumType.STRING}.
+   *
+   * @param statement the statement to bind to
+   * @param index one based parameter index
+   * @param value the value, possibly null
+   * @throws SQLException if the statement rejects the value
+   */
+  public static void set(PreparedStatement statement, int index, Enum<?> value)
+      throws SQLException {
+    if (value == null) {
+      statement.setNull(index, Types.VARCHAR);
+    } else {
+      statement.setString(index, value.name());
+    }
+  }
+}
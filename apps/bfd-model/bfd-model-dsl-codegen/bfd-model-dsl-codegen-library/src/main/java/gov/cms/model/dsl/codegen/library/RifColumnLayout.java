@@ -0,0 +1,99 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The fixed list of RIF column labels read by a generated parser. Generated code refers to each
+ * column by its position in this list, and {@link RifObjectWrapper} uses {@link #resolve} to
+ * translate those positions into the indexes of the columns in the RIF file being parsed. The
+ * header of a file is only examined the first time one of its records is resolved, so reading a
+ * field does not require a header label lookup.
+ *
+ * <p>Instances are safe to share between threads.
+ */
+public class RifColumnLayout {
+  /** Index used for labels that do not appear in the header of a file. */
+  static final int MISSING_COLUMN = -1;
+
+  /** The column labels, in the order used by generated code. */
+  private final String[] labels;
+
+  /** The column indexes for the most recently seen file. */
+  private volatile Resolution lastResolution;
+
+  /**
+   * Constructs a new layout for the given column labels.
+   *
+   * @param labels the column labels, in the order used by generated code
+   */
+  public RifColumnLayout(String... labels) {
+    this.labels = labels.clone();
+  }
+
+  /**
+   * Accessor for the label of a column.
+   *
+   * @param column position of the column in this layout
+   * @return the label of the column
+   */
+  public String getLabel(int column) {
+    return labels[column];
+  }
+
+  /**
+   * Accessor for number of columns.
+   *
+   * @return number of columns
+   */
+  public int getColumnCount() {
+    return labels.length;
+  }
+
+  /**
+   * Finds the index within the given row of every column in this layout. The result is computed
+   * once per {@link RifRow#getHeaderMap()} instance (i.e. once per file) and reused for every other
+   * row of the file. Labels missing from the header have an index of {@link #MISSING_COLUMN}, as do
+   * all labels if the file has no header.
+   *
+   * @param row any row of the file being parsed
+   * @return the column indexes, in the order of this layout's labels
+   */
+  int[] resolve(RifRow row) {
+    final Map<String, Integer> headerMap = row.getHeaderMap();
+    Resolution resolution = lastResolution;
+    if (resolution == null || resolution.headerMap != headerMap) {
+      resolution = new Resolution(headerMap, indexesFor(headerMap));
+      lastResolution = resolution;
+    }
+    return resolution.columnIndexes;
+  }
+
+  /**
+   * Computes the index of every label in the header of a file.
+   *
+   * @param headerMap the header of the file, possibly null
+   * @return the column indexes, in the order of this layout's labels
+   */
+  private int[] indexesFor(Map<String, Integer> headerMap) {
+    final int[] columnIndexes = new int[labels.length];
+    Arrays.fill(columnIndexes, MISSING_COLUMN);
+    if (headerMap != null) {
+      for (int i = 0; i < labels.length; ++i) {
+        final Integer index = headerMap.get(labels[i]);
+        if (index != null) {
+          columnIndexes[i] = index;
+        }
+      }
+    }
+    return columnIndexes;
+  }
+
+  /**
+   * The column indexes for one file.
+   *
+   * @param headerMap the header of the file
+   * @param columnIndexes the column indexes, in the order of the layout's labels
+   */
+  private record Resolution(Map<String, Integer> headerMap, int[] columnIndexes) {}
+}
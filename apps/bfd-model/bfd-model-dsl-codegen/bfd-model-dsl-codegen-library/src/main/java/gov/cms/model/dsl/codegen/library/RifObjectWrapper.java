@@ -4,31 +4,36 @@ import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import java.util.List;
 import java.util.Objects;
-import org.apache.commons.csv.CSVRecord;
 
 /**
- * Wrapper around RIF data contained in {@link CSVRecord} objects. Generated code calls these
- * methods to access individual RIF fields by name or index.
+ * Wrapper around RIF data contained in {@link RifRow} objects. Generated code calls these methods
+ * to access individual RIF fields by name or index.
  */
 public class RifObjectWrapper {
   /**
    * The first record contains the data for the claim object and any additional lines contain data
    * for claim lines.
    */
-  private final List<CSVRecord> lines;
+  private final List<? extends RifRow> lines;
 
   /**
    * Contains the CSV header for the object. Used for determining whether or not a given column
    * label is valid.
    */
-  private final CSVRecord header;
+  private final RifRow header;
+
+  /** The {@link RifColumnLayout} that {@link #columnIndexes} was resolved for, if any. */
+  private RifColumnLayout layout;
+
+  /** The indexes within {@link #header} of the columns of {@link #layout}. */
+  private int[] columnIndexes;
 
   /**
-   * Constructs a new object for the given {@link CSVRecord}s.
+   * Constructs a new object for the given {@link RifRow}s.
    *
    * @param csvRecords one or more records containing data for the object
    */
-  public RifObjectWrapper(List<CSVRecord> csvRecords) {
+  public RifObjectWrapper(List<? extends RifRow> csvRecords) {
     // Verify the inputs.
     Objects.requireNonNull(csvRecords);
     if (csvRecords.isEmpty()) {
@@ -43,7 +48,7 @@ public class RifObjectWrapper {
    *
    * @param singleLine one line of CSV data
    */
-  public RifObjectWrapper(CSVRecord singleLine) {
+  public RifObjectWrapper(RifRow singleLine) {
     lines = ImmutableList.of(singleLine);
     header = singleLine;
   }
@@ -64,7 +69,11 @@ public class RifObjectWrapper {
    * @return wrapper for the line at the given index
    */
   public RifObjectWrapper getLines(int index) {
-    return new RifObjectWrapper(lines.get(index));
+    final RifObjectWrapper line = new RifObjectWrapper(lines.get(index));
+    // every line of an object comes from the same file so they share the same column indexes
+    line.layout = layout;
+    line.columnIndexes = columnIndexes;
+    return line;
   }
 
   /**
@@ -91,4 +100,72 @@ public class RifObjectWrapper {
     }
     return value;
   }
+
+  /**
+   * Tests whether a value exists for a column of a {@link RifColumnLayout}. Equivalent to {@link
+   * #hasValue(String)} with the column's label, but without looking up the label in the header.
+   *
+   * @param layout the layout defining the column
+   * @param column position of the column in the layout
+   * @return true if the value is non-null and non-empty
+   */
+  public boolean hasValue(RifColumnLayout layout, int column) {
+    final int index = getColumnIndex(layout, column);
+    if (index == RifColumnLayout.MISSING_COLUMN) {
+      return hasValue(layout.getLabel(column));
+    }
+    return !header.isEmpty(index);
+  }
+
+  /**
+   * Returns a (possibly empty) value for a column of a {@link RifColumnLayout}. Equivalent to
+   * {@link #getValue(String, String)} with the column's label, but without looking up the label in
+   * the header.
+   *
+   * @param layout the layout defining the column
+   * @param column position of the column in the layout
+   * @param defaultValue the default value
+   * @return the value of the column
+   */
+  public String getValue(RifColumnLayout layout, int column, String defaultValue) {
+    var value = getColumn(layout, column);
+    if (value != null && value.isEmpty() && defaultValue != null) {
+      value = defaultValue;
+    }
+    return value;
+  }
+
+  /**
+   * Reads a column of a {@link RifColumnLayout} by index. Columns without a valid index fall back
+   * to the label lookup so that a missing or truncated column produces the same error as {@link
+   * RifRow#get(String)}.
+   *
+   * @param layout the layout defining the column
+   * @param column position of the column in the layout
+   * @return the value of the column
+   */
+  private String getColumn(RifColumnLayout layout, int column) {
+    final int index = getColumnIndex(layout, column);
+    if (index == RifColumnLayout.MISSING_COLUMN) {
+      return header.get(layout.getLabel(column));
+    }
+    return header.get(index);
+  }
+
+  /**
+   * Finds the index within {@link #header} of a column of a {@link RifColumnLayout}.
+   *
+   * @param layout the layout defining the column
+   * @param column position of the column in the layout
+   * @return the index, or {@link RifColumnLayout#MISSING_COLUMN} if the column is not in the header
+   *     or this row is too short to contain it
+   */
+  private int getColumnIndex(RifColumnLayout layout, int column) {
+    if (layout != this.layout) {
+      columnIndexes = layout.resolve(header);
+      this.layout = layout;
+    }
+    final int index = columnIndexes[column];
+    return index < header.size() ? index : RifColumnLayout.MISSING_COLUMN;
+  }
 }
@@ -0,0 +1,92 @@
+package gov.cms.model.dsl.codegen.library;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single row of a pipe-delimited RIF file, as read by {@link RifObjectWrapper}. Implementations
+ * may come from commons-csv (see {@link CsvRifRow}) or from a dedicated RIF reader. Values are
+ * accessed by index or by header label with the same semantics (and the same errors) as {@link
+ * org.apache.commons.csv.CSVRecord}.
+ */
+public interface RifRow {
+  /**
+   * Accessor for the header of the file containing this row. Every row of a file returns the same
+   * map instance, which allows callers to cache information derived from the header.
+   *
+   * @return map of column label to column index
+   */
+  Map<String, Integer> getHeaderMap();
+
+  /**
+   * Accessor for the number of values in this row.
+   *
+   * @return number of values
+   */
+  int size();
+
+  /**
+   * Accessor for a value by index.
+   *
+   * @param index 0 based index of the column
+   * @return the value, never null
+   * @throws ArrayIndexOutOfBoundsException if the index is not valid for this row
+   */
+  String get(int index);
+
+  /**
+   * Accessor for the one based number of this row within its file, not counting the header.
+   *
+   * @return the record number
+   */
+  long getRecordNumber();
+
+  /**
+   * Tests whether the value at the given index is empty. Implementations may override this to avoid
+   * creating a {@link String} for the value.
+   *
+   * @param index 0 based index of the column
+   * @return true if the value is empty
+   */
+  default boolean isEmpty(int index) {
+    return get(index).isEmpty();
+  }
+
+  /**
+   * Accessor for a value by header label.
+   *
+   * @param label the column label
+   * @return the value, never null
+   * @throws IllegalArgumentException if the label is not in the header or the row is too short to
+   *     contain that column
+   */
+  default String get(String label) {
+    final Integer index = getHeaderMap().get(label);
+    if (index == null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Mapping for %s not found, expected one of %s", label, getHeaderMap().keySet()));
+    }
+    if (index >= size()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Index for header '%s' is %d but CSVRecord only has %d values!",
+              label, index, size()));
+    }
+    return get(index);
+  }
+
+  /**
+   * Copies the values of this row into a new list.
+   *
+   * @return a new mutable list containing every value of this row
+   */
+  default List<String> toList() {
+    final List<String> values = new ArrayList<>(size());
+    for (int i = 0; i < size(); ++i) {
+      values.add(get(i));
+    }
+    return values;
+  }
+}
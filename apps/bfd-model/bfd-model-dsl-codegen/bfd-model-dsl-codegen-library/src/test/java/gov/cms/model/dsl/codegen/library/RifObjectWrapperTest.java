@@ -0,0 +1,78 @@
+package gov.cms.model.dsl.codegen.library;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.junit.jupiter.api.Test;
+
+/** Tests proper operation of the {@link RifObjectWrapper} class. */
+public class RifObjectWrapperTest {
+  /** A layout whose columns are in a different order than in the files. */
+  private final RifColumnLayout layout = new RifColumnLayout("C", "A", "B");
+
+  /**
+   * Verifies that columns read by their position in a {@link RifColumnLayout} return the same
+   * values as columns read by label, whatever the order of the columns in the file.
+   *
+   * @throws IOException if the CSV cannot be parsed
+   */
+  @Test
+  public void testIndexedAccessMatchesLabelAccess() throws IOException {
+    for (String csv : List.of("A|B|C\n1||3\n4|5|6\n", "C|B|A\n3||1\n6|5|4\n")) {
+      final RifObjectWrapper wrapper = new RifObjectWrapper(parse(csv));
+      for (int column = 0; column < layout.getColumnCount(); ++column) {
+        final String label = layout.getLabel(column);
+        assertEquals(wrapper.getValue(label, null), wrapper.getValue(layout, column, null));
+        assertEquals(wrapper.getValue(label, "0"), wrapper.getValue(layout, column, "0"));
+        assertEquals(wrapper.hasValue(label), wrapper.hasValue(layout, column));
+      }
+      assertEquals("0", wrapper.getValue(layout, 2, "0"));
+      assertFalse(wrapper.hasValue(layout, 2));
+      assertEquals("4", wrapper.getLines(1).getValue(layout, 1, null));
+      assertTrue(wrapper.getLines(1).hasValue(layout, 2));
+    }
+  }
+
+  /**
+   * Verifies that the header is resolved once per file and that a column missing from the header
+   * fails the same way it does when read by label.
+   *
+   * @throws IOException if the CSV cannot be parsed
+   */
+  @Test
+  public void testColumnsResolvedOncePerFile() throws IOException {
+    final List<RifRow> records = parse("A|C\n1|3\n4|6\n");
+    final int[] columnIndexes = layout.resolve(records.get(0));
+    assertSame(columnIndexes, layout.resolve(records.get(1)));
+    assertEquals(RifColumnLayout.MISSING_COLUMN, columnIndexes[2]);
+    assertTrue(layout.resolve(parse("A|B|C\n1|2|3\n").get(0))[2] >= 0);
+
+    final RifObjectWrapper wrapper = new RifObjectWrapper(records.get(0));
+    assertEquals("3", wrapper.getValue(layout, 0, null));
+    assertThrows(IllegalArgumentException.class, () -> wrapper.getValue("B", null));
+    assertThrows(IllegalArgumentException.class, () -> wrapper.getValue(layout, 2, null));
+  }
+
+  /**
+   * Parses a CSV file in the RIF format.
+   *
+   * @param csv the file contents, including the header
+   * @return the records, sharing one header map
+   * @throws IOException if the CSV cannot be parsed
+   */
+  private static List<RifRow> parse(String csv) throws IOException {
+    final CSVParser parser =
+        new CSVParser(new StringReader(csv), CSVFormat.EXCEL.withHeader().withDelimiter('|'));
+    final Map<String, Integer> headerMap = parser.getHeaderMap();
+    return parser.stream().<RifRow>map(record -> new CsvRifRow(record, headerMap)).toList();
+  }
+}
@@ -30,6 +30,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.lang.model.element.Modifier;
@@ -83,6 +86,12 @@ public class GenerateEntitiesFromDslMojo extends AbstractMojo {
           .initializer("$L", 1L)
           .build();
 
+  /**
+   * Matches the name of a field that is one of a numbered family of fields. The number is the
+   * second group and the rest of the name is the first and third groups.
+   */
+  static final Pattern NumberedPropertyPattern = Pattern.compile("^(\\D+)(\\d+)(\\D*)$");
+
   /** Path to a single mapping file or a directory containing one or more mapping files. */
   @Parameter(property = "mappingPath")
   private String mappingPath;
@@ -217,6 +226,7 @@ public class GenerateEntitiesFromDslMojo extends AbstractMojo {
     classBuilder.addMethods(accessorSpecs);
     classBuilder.addMethods(joinPropertySpecs);
     classBuilder.addMethods(createMethodSpecsForGroupedProperties(mapping));
+    classBuilder.addMethods(createMethodSpecsForIndexedProperties(mapping));
     classBuilder.addAnnotations(annotationSpecs);
     if (primaryKeySpecs.size() > 1) {
       final var primaryKeyClassName = computePrimaryKeyClassName(mapping);
@@ -1072,6 +1082,52 @@ public class GenerateEntitiesFromDslMojo extends AbstractMojo {
     return methodSpecs;
   }
 
+  /**
+   * Generates an indexed accessor method for each numbered family of grouped fields. A family is
+   * made up of the grouped fields whose names differ only by a number, such as {@code
+   * procedure1Code} through {@code procedure25Code}. Its accessor is named after the field name
+   * with the number removed, such as {@code getProcedureCode(int number)}, and returns the field
+   * value for a number or null if the entity has no such field. Families of primitive fields are
+   * skipped since they have no null value.
+   *
+   * @param mapping {@link MappingBean} for the entity with the grouped fields
+   * @return the list of {@link MethodSpec}
+   * @throws MojoExecutionException if the fields of a family do not all have the same type
+   */
+  @VisibleForTesting
+  List<MethodSpec> createMethodSpecsForIndexedProperties(MappingBean mapping)
+      throws MojoExecutionException {
+    final Map<String, Map<Integer, ColumnBean>> families = new TreeMap<>();
+    for (ColumnBean column : mapping.getTable().getColumns()) {
+      final Matcher matcher = NumberedPropertyPattern.matcher(column.getName());
+      if (column.hasGroupName() && matcher.matches()) {
+        families
+            .computeIfAbsent(matcher.group(1) + matcher.group(3), family -> new TreeMap<>())
+            .put(Integer.parseInt(matcher.group(2)), column);
+      }
+    }
+    List<MethodSpec> methodSpecs = new LinkedList<>();
+    for (Map.Entry<String, Map<Integer, ColumnBean>> family : families.entrySet()) {
+      final Map<Integer, String> propertyNames = new TreeMap<>();
+      TypeName fieldType = null;
+      for (Map.Entry<Integer, ColumnBean> entry : family.getValue().entrySet()) {
+        final TypeName columnType = createFieldTypeForColumn(mapping, entry.getValue());
+        if (fieldType != null && !fieldType.equals(columnType)) {
+          throw MojoUtil.createException(
+              "numbered fields have different types: mapping=%s family=%s",
+              mapping.getId(), family.getKey());
+        }
+        fieldType = columnType;
+        propertyNames.put(entry.getKey(), entry.getValue().getName());
+      }
+      if (!fieldType.isPrimitive()) {
+        methodSpecs.add(
+            PoetUtil.createIndexedPropertyGetter(family.getKey(), propertyNames, fieldType));
+      }
+    }
+    return methodSpecs;
+  }
+
   /**
    * Immutable {@link Record} holding all the information required to create accessor methods
    * (setter/getter) for a field.
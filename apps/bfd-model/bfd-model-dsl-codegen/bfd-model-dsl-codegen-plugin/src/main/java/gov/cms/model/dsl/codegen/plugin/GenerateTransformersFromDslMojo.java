@@ -13,6 +13,8 @@ import com.squareup.javapoet.TypeSpec;
 import gov.cms.model.dsl.codegen.library.DataTransformer;
 import gov.cms.model.dsl.codegen.library.EnumStringExtractor;
 import gov.cms.model.dsl.codegen.library.ExternalTransformation;
+import gov.cms.model.dsl.codegen.library.RifColumnLayout;
+import gov.cms.model.dsl.codegen.plugin.accessor.Getter;
 import gov.cms.model.dsl.codegen.plugin.accessor.GrpcGetter;
 import gov.cms.model.dsl.codegen.plugin.accessor.OptionalSetter;
 import gov.cms.model.dsl.codegen.plugin.accessor.RifGetter;
@@ -32,6 +34,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -56,6 +59,9 @@ import org.apache.maven.project.MavenProject;
  *       strings if one is required by the {@link TransformationBean}.
  *   <li>Private final field declaration for each {@link ExternalTransformation} lambda function
  *       required by the {@link TransformationBean}.
+ *   <li>For RIF mappings, a private final {@link RifColumnLayout} field listing every RIF column
+ *       read by the transformer. Fields are read by their position in this layout so that the
+ *       header of each RIF file only has to be resolved to column indexes once.
  *   <li>A public constructor that accepts any arguments needed to initialize the private final
  *       fields.
  *   <li>A simple public {code transformMessage()} method for each message class defined by the root
@@ -173,6 +179,11 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
         classBuilder.addField(field);
       }
     }
+    final List<String> rifColumnLabels = findAllRifColumnLabels(allMappings);
+    final Getter rifGetter = new RifGetter(rifColumnLabels);
+    if (!rifColumnLabels.isEmpty()) {
+      classBuilder.addField(createRifColumnLayoutField(rifColumnLabels));
+    }
     MethodSpec.Builder constructor = MethodSpec.constructorBuilder().addModifiers(Modifier.PUBLIC);
     if (TransformerUtil.anyMappingRequiresIdHasher(allMappings.stream())) {
       classBuilder.addField(
@@ -203,7 +214,11 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
     classBuilder.addMethod(createSimplifiedTransformMessageMethod(mapping));
     classBuilder.addMethod(createTransformRootMessageMethod(mapping));
     for (MappingBean aMapping : allMappings) {
-      classBuilder.addMethod(createTransformMethodForMapping(aMapping));
+      final Getter fromCodeGenerator =
+          aMapping.getSourceType() == MappingBean.SourceType.RifCsv
+              ? rifGetter
+              : GrpcGetter.Instance;
+      classBuilder.addMethod(createTransformMethodForMapping(aMapping, fromCodeGenerator));
       if (aMapping.hasArrayTransformations()) {
         classBuilder.addMethod(createTransformArraysMethodForMapping(root, aMapping));
       }
@@ -243,6 +258,51 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
     return answer.build();
   }
 
+  /**
+   * Collects the RIF column labels read by the transformations of all of the given RIF mappings, in
+   * the order they are first used.
+   *
+   * @param allMappings all mappings the transformer class will generate code for
+   * @return the distinct column labels
+   */
+  @VisibleForTesting
+  static List<String> findAllRifColumnLabels(List<MappingBean> allMappings) {
+    final Set<String> labels = new LinkedHashSet<>();
+    for (MappingBean mapping : allMappings) {
+      if (mapping.getSourceType() != MappingBean.SourceType.RifCsv) {
+        continue;
+      }
+      for (TransformationBean transformation : mapping.getTransformations()) {
+        if (!transformation.isArray() && transformation.getFrom().indexOf('.') < 0) {
+          labels.add(transformation.getFrom());
+        }
+      }
+    }
+    return List.copyOf(labels);
+  }
+
+  /**
+   * Creates the {@link FieldSpec} for the {@link RifColumnLayout} used by the generated code to
+   * read RIF columns by index. The field is per instance rather than static so that concurrently
+   * parsed files, each with its own transformer, do not share the cached column indexes.
+   *
+   * @param columnLabels the labels of all columns read by the transformer
+   * @return the {@link FieldSpec}
+   */
+  private FieldSpec createRifColumnLayoutField(List<String> columnLabels) {
+    final CodeBlock.Builder initializer = CodeBlock.builder().add("new $T(", RifColumnLayout.class);
+    for (int i = 0; i < columnLabels.size(); ++i) {
+      initializer.add(i == 0 ? "$S" : ", $S", columnLabels.get(i));
+    }
+    return FieldSpec.builder(
+            RifColumnLayout.class,
+            FieldTransformer.RIF_COLUMNS_VAR,
+            Modifier.PRIVATE,
+            Modifier.FINAL)
+        .initializer(initializer.add(")").build())
+        .build();
+  }
+
   /**
    * Creates a {@link FieldSpec} for each private field of the generated transformer class. The
    * actual fields to be created are dictated by the {@link FieldTransformer#generateFieldSpecs}
@@ -470,9 +530,10 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
    * message may contain.
    *
    * @param mapping {@link MappingBean} for message/entity to be processed
+   * @param fromCodeGenerator the {@link Getter} used to read fields of the message
    * @return the {@link MethodSpec}
    */
-  private MethodSpec createTransformMethodForMapping(MappingBean mapping)
+  private MethodSpec createTransformMethodForMapping(MappingBean mapping, Getter fromCodeGenerator)
       throws MojoExecutionException {
     final TypeName messageClassType = ModelUtil.classType(mapping.getMessageClassName());
     final TypeName entityClassType = ModelUtil.classType(mapping.getEntityClassName());
@@ -489,10 +550,6 @@ public class GenerateTransformersFromDslMojo extends AbstractMojo {
                 entityClassType,
                 FieldTransformer.DEST_VAR,
                 entityClassType);
-    final var fromCodeGenerator =
-        mapping.getSourceType() == MappingBean.SourceType.RifCsv
-            ? RifGetter.Instance
-            : GrpcGetter.Instance;
     final var toCodeGenerator =
         mapping.getNullableFieldAccessorType() == MappingBean.NullableFieldAccessorType.Standard
             ? StandardSetter.Instance
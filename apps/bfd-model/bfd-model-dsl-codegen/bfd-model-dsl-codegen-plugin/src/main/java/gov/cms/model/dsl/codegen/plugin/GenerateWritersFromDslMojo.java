@@ -0,0 +1,675 @@
+package gov.cms.model.dsl.codegen.plugin;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import gov.cms.model.dsl.codegen.library.BulkEntityWriter;
+import gov.cms.model.dsl.codegen.library.JdbcParameters;
+import gov.cms.model.dsl.codegen.plugin.model.ColumnBean;
+import gov.cms.model.dsl.codegen.plugin.model.JoinBean;
+import gov.cms.model.dsl.codegen.plugin.model.MappingBean;
+import gov.cms.model.dsl.codegen.plugin.model.ModelUtil;
+import gov.cms.model.dsl.codegen.plugin.model.RootBean;
+import gov.cms.model.dsl.codegen.plugin.model.TableBean;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.lang.model.element.Modifier;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * A Maven Mojo that generates code to write batches of JPA entity objects to the database using
+ * plain JDBC batches instead of {@code EntityManager.merge()}. The generated writer class
+ * implements {@link BulkEntityWriter} and consists of the following parts:
+ *
+ * <ul>
+ *   <li>A private static final SQL string for an {@code INSERT ... ON CONFLICT DO UPDATE} statement
+ *       that inserts or updates a row of the root {@link MappingBean}'s table.
+ *   <li>For every array join of the root mapping, a private static final SQL string that deletes
+ *       all of the rows belonging to a set of parents (using {@code = ANY (?)}) and another that
+ *       inserts a single row.
+ *   <li>A public {@code writeEntities()} method that upserts every entity in one JDBC batch and
+ *       then replaces the rows of each child table with one delete statement and one JDBC batch of
+ *       inserts. Entities with the same primary key are reduced to the last one in the batch.
+ *   <li>One private {@code bindX()} method for each mapping that sets the statement parameters from
+ *       the fields of an entity using {@link JdbcParameters}.
+ * </ul>
+ *
+ * <p>Database only columns are populated using the join property with the same name as the column
+ * so the mapping must define one for each such column.
+ */
+@Mojo(name = "writers", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
+public class GenerateWritersFromDslMojo extends AbstractMojo {
+  /** Name of the public method that writes a batch of entities. */
+  private static final String WRITE_METHOD_NAME = "writeEntities";
+
+  /**
+   * Base name for private methods generated to bind the columns of each mapping. The mapping id is
+   * appended to the end of this base to form the unique method name.
+   */
+  private static final String BIND_METHOD_NAME_BASE = "bind";
+
+  /**
+   * Base name for private methods generated to replace the rows of each child table. The join field
+   * name is appended to the end of this base to form the unique method name.
+   */
+  private static final String REPLACE_METHOD_NAME_BASE = "replace";
+
+  /** Name of the connection parameter in generated methods. */
+  private static final String CONNECTION_VAR = "connection";
+
+  /** Name of the entities parameter in generated methods. */
+  private static final String ENTITIES_VAR = "entities";
+
+  /** Name of the statement parameter and variables in generated methods. */
+  private static final String STATEMENT_VAR = "statement";
+
+  /** Name of the entity parameter and variables in generated methods. */
+  private static final String ENTITY_VAR = "entity";
+
+  /** Name of the parent keys parameter and variables in generated methods. */
+  private static final String KEYS_VAR = "keys";
+
+  /** Path to a single mapping file or a directory containing one or more mapping files. */
+  @Parameter(property = "mappingPath")
+  private String mappingPath;
+
+  /** Path to directory to contain generated code. */
+  @Parameter(
+      property = "writersDirectory",
+      defaultValue = "${project.build.directory}/generated-sources/writers")
+  private String writersDirectory;
+
+  /**
+   * Instance of {@link MavenProject} used to call {@link MavenProject#addCompileSourceRoot(String)}
+   * to ensure our generated classes are compiled.
+   */
+  @Parameter(property = "project", readonly = true)
+  private MavenProject project;
+
+  /** Parameterless constructor used by Maven to instantiate the plugin. */
+  public GenerateWritersFromDslMojo() {}
+
+  /**
+   * All fields constructor for use in unit tests.
+   *
+   * @param mappingPath path to file or directory containing mappings
+   * @param writersDirectory path to directory to contain generated code
+   * @param project instance of {@link MavenProject}
+   */
+  @VisibleForTesting
+  GenerateWritersFromDslMojo(String mappingPath, String writersDirectory, MavenProject project) {
+    this.mappingPath = mappingPath;
+    this.writersDirectory = writersDirectory;
+    this.project = project;
+  }
+
+  /**
+   * Executed by maven to execute the mojo. Reads all mapping files and generates a writer class for
+   * every {@link MappingBean} that has a non-empty {@link MappingBean#writerClassName} value.
+   *
+   * @throws MojoExecutionException if the process fails due to some error
+   */
+  public void execute() throws MojoExecutionException {
+    try {
+      final File outputDir = MojoUtil.initializeOutputDirectory(writersDirectory);
+      final RootBean root = ModelUtil.loadModelFromYamlFileOrDirectory(mappingPath);
+      MojoUtil.validateModel(root);
+      for (MappingBean mapping : root.getMappings()) {
+        if (mapping.hasWriter()) {
+          TypeSpec writerClass = createWriterClassForMapping(root, mapping);
+          JavaFile javaFile = JavaFile.builder(mapping.writerPackage(), writerClass).build();
+          javaFile.writeTo(outputDir);
+        }
+      }
+      project.addCompileSourceRoot(writersDirectory);
+    } catch (IOException ex) {
+      throw new MojoExecutionException("I/O error during code generation", ex);
+    }
+  }
+
+  /**
+   * Creates a {@link TypeSpec} defining a writer class for the given {@link MappingBean}.
+   *
+   * @param root {@link RootBean} containing all known mappings
+   * @param mapping {@link MappingBean} to create writer class for
+   * @return the {@link TypeSpec}
+   * @throws MojoExecutionException if the mapping cannot be written in bulk
+   */
+  private TypeSpec createWriterClassForMapping(RootBean root, MappingBean mapping)
+      throws MojoExecutionException {
+    final ClassName entityClass = ClassName.bestGuess(mapping.getEntityClassName());
+    final ColumnBean keyColumn = getSingleKeyColumn(mapping);
+    final List<ChildTable> children = getChildTables(root, mapping, keyColumn);
+    final TypeSpec.Builder classBuilder =
+        TypeSpec.classBuilder(mapping.writerSimpleName())
+            .addModifiers(Modifier.PUBLIC)
+            .addSuperinterface(
+                ParameterizedTypeName.get(ClassName.get(BulkEntityWriter.class), entityClass))
+            .addJavadoc(
+                "Writes batches of {@link $T} to the database using JDBC batches.\n", entityClass);
+    classBuilder.addField(createSqlField(upsertSqlName(mapping), createUpsertSql(mapping)));
+    for (ChildTable child : children) {
+      classBuilder.addField(
+          createSqlField(deleteSqlName(child), createDeleteSql(child.mapping, child.keyColumn)));
+      classBuilder.addField(
+          createSqlField(
+              insertSqlName(child), createInsertSql(child.mapping, getColumns(child.mapping))));
+    }
+    classBuilder.addMethod(createWriteMethod(mapping, entityClass, keyColumn, children));
+    for (ChildTable child : children) {
+      classBuilder.addMethod(createReplaceMethod(entityClass, child));
+    }
+    classBuilder.addMethod(createBindMethod(mapping));
+    for (ChildTable child : children) {
+      classBuilder.addMethod(createBindMethod(child.mapping));
+    }
+    return classBuilder.build();
+  }
+
+  /**
+   * Finds the single primary key column of the root mapping. Child rows are deleted by matching
+   * their parent key against an array of keys so compound keys are not supported.
+   *
+   * @param mapping the root {@link MappingBean}
+   * @return the primary key column
+   * @throws MojoExecutionException if the table does not have exactly one primary key column
+   */
+  private ColumnBean getSingleKeyColumn(MappingBean mapping) throws MojoExecutionException {
+    final List<ColumnBean> keyColumns = mapping.getTable().getPrimaryKeyColumnBeans();
+    if (keyColumns.size() != 1) {
+      throw MojoUtil.createException(
+          "writers require a single primary key column: mapping=%s", mapping.getId());
+    }
+    return keyColumns.get(0);
+  }
+
+  /**
+   * Creates a {@link ChildTable} for every multi-valued join of the root mapping.
+   *
+   * @param root {@link RootBean} containing all known mappings
+   * @param mapping the root {@link MappingBean}
+   * @param parentKeyColumn primary key column of the root mapping
+   * @return the child tables in the order of their joins
+   * @throws MojoExecutionException if a join cannot be written in bulk
+   */
+  private List<ChildTable> getChildTables(
+      RootBean root, MappingBean mapping, ColumnBean parentKeyColumn)
+      throws MojoExecutionException {
+    final List<ChildTable> children = new ArrayList<>();
+    for (JoinBean join : mapping.getTable().getJoins()) {
+      if (join.getJoinType().isSingleValue()) {
+        continue;
+      }
+      final MappingBean childMapping =
+          root.findMappingForJoinBean(join)
+              .orElseThrow(
+                  () ->
+                      MojoUtil.createException(
+                          "writers require array joins to reference a mapping: mapping=%s join=%s",
+                          mapping.getId(), join.getFieldName()));
+      if (!join.hasMappedBy()) {
+        throw MojoUtil.createException(
+            "writers require array joins to have a mappedBy column: mapping=%s join=%s",
+            mapping.getId(), join.getFieldName());
+      }
+      if (childMapping.getTable().getJoins().stream()
+          .anyMatch(j -> j.getJoinType().isMultiValue())) {
+        throw MojoUtil.createException(
+            "writers do not support nested array joins: mapping=%s join=%s",
+            mapping.getId(), join.getFieldName());
+      }
+      final ColumnBean keyColumn = childMapping.getTable().findColumnByName(join.getMappedBy());
+      if (!keyColumn.computeJavaType().box().equals(parentKeyColumn.computeJavaType().box())) {
+        throw MojoUtil.createException(
+            "writers require mappedBy columns to match the parent key type: mapping=%s join=%s",
+            mapping.getId(), join.getFieldName());
+      }
+      children.add(new ChildTable(join, childMapping, keyColumn));
+    }
+    return children;
+  }
+
+  /**
+   * Creates the {@code writeEntities()} method. It removes duplicate entities, upserts the
+   * remaining ones and replaces the rows of every child table.
+   *
+   * @param mapping the root {@link MappingBean}
+   * @param entityClass the entity class
+   * @param keyColumn primary key column of the root mapping
+   * @param children the child tables
+   * @return the {@link MethodSpec}
+   * @throws MojoExecutionException if the key value cannot be read from the entity
+   */
+  private MethodSpec createWriteMethod(
+      MappingBean mapping, ClassName entityClass, ColumnBean keyColumn, List<ChildTable> children)
+      throws MojoExecutionException {
+    final TypeName keyType = keyColumn.computeJavaType().box();
+    final TypeName uniqueType =
+        ParameterizedTypeName.get(ClassName.get(Map.class), keyType, entityClass);
+    final MethodSpec.Builder method =
+        MethodSpec.methodBuilder(WRITE_METHOD_NAME)
+            .addAnnotation(Override.class)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(TypeName.INT)
+            .addParameter(Connection.class, CONNECTION_VAR)
+            .addParameter(
+                ParameterizedTypeName.get(ClassName.get(Collection.class), entityClass),
+                ENTITIES_VAR)
+            .addException(SQLException.class)
+            .addStatement("final $T unique = new $T<>()", uniqueType, LinkedHashMap.class)
+            .beginControlFlow("for ($T $L : $L)", entityClass, ENTITY_VAR, ENTITIES_VAR)
+            .addStatement("unique.put($L, $L)", createGetterCall(mapping, keyColumn), ENTITY_VAR)
+            .endControlFlow()
+            .beginControlFlow("if (unique.isEmpty())")
+            .addStatement("return 0")
+            .endControlFlow()
+            .addStatement("int count = 0")
+            .beginControlFlow(
+                "try ($T $L = $L.prepareStatement($L))",
+                PreparedStatement.class,
+                STATEMENT_VAR,
+                CONNECTION_VAR,
+                upsertSqlName(mapping))
+            .beginControlFlow("for ($T $L : unique.values())", entityClass, ENTITY_VAR)
+            .addStatement("$L($L, $L)", bindMethodName(mapping), STATEMENT_VAR, ENTITY_VAR)
+            .addStatement("$L.addBatch()", STATEMENT_VAR)
+            .endControlFlow()
+            .addStatement("$L.executeBatch()", STATEMENT_VAR)
+            .addStatement("count += unique.size()")
+            .endControlFlow();
+    if (!children.isEmpty()) {
+      method
+          .addStatement(
+              "final $T $L = $L.createArrayOf($S, unique.keySet().toArray())",
+              Array.class,
+              KEYS_VAR,
+              CONNECTION_VAR,
+              baseSqlType(keyColumn))
+          .beginControlFlow("try");
+      for (ChildTable child : children) {
+        method.addStatement(
+            "count += $L($L, unique.values(), $L)",
+            replaceMethodName(child),
+            CONNECTION_VAR,
+            KEYS_VAR);
+      }
+      method.nextControlFlow("finally").addStatement("$L.free()", KEYS_VAR).endControlFlow();
+    }
+    return method.addStatement("return count").build();
+  }
+
+  /**
+   * Creates the {@code replaceX()} method for a child table. It deletes every row belonging to the
+   * parents with one statement and then inserts the current rows in one JDBC batch.
+   *
+   * @param entityClass the root entity class
+   * @param child the child table
+   * @return the {@link MethodSpec}
+   */
+  private MethodSpec createReplaceMethod(ClassName entityClass, ChildTable child) {
+    final ClassName childClass = ClassName.bestGuess(child.mapping.getEntityClassName());
+    return MethodSpec.methodBuilder(replaceMethodName(child))
+        .addModifiers(Modifier.PRIVATE)
+        .returns(TypeName.INT)
+        .addParameter(Connection.class, CONNECTION_VAR)
+        .addParameter(
+            ParameterizedTypeName.get(ClassName.get(Collection.class), entityClass), ENTITIES_VAR)
+        .addParameter(Array.class, KEYS_VAR)
+        .addException(SQLException.class)
+        .beginControlFlow(
+            "try ($T $L = $L.prepareStatement($L))",
+            PreparedStatement.class,
+            STATEMENT_VAR,
+            CONNECTION_VAR,
+            deleteSqlName(child))
+        .addStatement("$L.setArray(1, $L)", STATEMENT_VAR, KEYS_VAR)
+        .addStatement("$L.executeUpdate()", STATEMENT_VAR)
+        .endControlFlow()
+        .addStatement("int count = 0")
+        .beginControlFlow(
+            "try ($T $L = $L.prepareStatement($L))",
+            PreparedStatement.class,
+            STATEMENT_VAR,
+            CONNECTION_VAR,
+            insertSqlName(child))
+        .beginControlFlow("for ($T $L : $L)", entityClass, ENTITY_VAR, ENTITIES_VAR)
+        .beginControlFlow(
+            "for ($T child : $L.$L())",
+            childClass,
+            ENTITY_VAR,
+            PoetUtil.fieldToMethodName("get", child.join.getFieldName()))
+        .addStatement("$L($L, child)", bindMethodName(child.mapping), STATEMENT_VAR)
+        .addStatement("$L.addBatch()", STATEMENT_VAR)
+        .addStatement("count += 1")
+        .endControlFlow()
+        .endControlFlow()
+        .beginControlFlow("if (count > 0)")
+        .addStatement("$L.executeBatch()", STATEMENT_VAR)
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement("return count")
+        .build();
+  }
+
+  /**
+   * Creates the {@code bindX()} method for a mapping. It sets one statement parameter for each
+   * column in the same order as {@link #getColumns}.
+   *
+   * @param mapping the {@link MappingBean}
+   * @return the {@link MethodSpec}
+   * @throws MojoExecutionException if a column value cannot be read from the entity
+   */
+  private MethodSpec createBindMethod(MappingBean mapping) throws MojoExecutionException {
+    final MethodSpec.Builder method =
+        MethodSpec.methodBuilder(bindMethodName(mapping))
+            .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+            .addParameter(PreparedStatement.class, STATEMENT_VAR)
+            .addParameter(ClassName.bestGuess(mapping.getEntityClassName()), ENTITY_VAR)
+            .addException(SQLException.class);
+    int index = 1;
+    for (ColumnBean column : getColumns(mapping)) {
+      method.addStatement(
+          "$T.set($L, $L, $L)",
+          JdbcParameters.class,
+          STATEMENT_VAR,
+          index,
+          createGetterCall(mapping, column));
+      index += 1;
+    }
+    return method.build();
+  }
+
+  /**
+   * Creates an expression that reads the value of a column from the {@code entity} variable.
+   * Database only columns are read using the join property of the same name.
+   *
+   * @param mapping the {@link MappingBean} containing the column
+   * @param column the {@link ColumnBean}
+   * @return the expression
+   * @throws MojoExecutionException if the value cannot be read from the entity
+   */
+  private CodeBlock createGetterCall(MappingBean mapping, ColumnBean column)
+      throws MojoExecutionException {
+    if (column.isIdentity() || column.hasSequence()) {
+      throw MojoUtil.createException(
+          "writers do not support generated column values: mapping=%s column=%s",
+          mapping.getId(), column.getName());
+    }
+    if (column.hasDefinedAccessorType()) {
+      throw MojoUtil.createException(
+          "writers do not support columns with an accessor type: mapping=%s column=%s",
+          mapping.getId(), column.getName());
+    }
+    if (column.isDbOnly()) {
+      final boolean hasJoinProperty =
+          mapping.getNonArrayJoins().stream()
+              .filter(join -> join.getJoinType().isSingleValue())
+              .flatMap(join -> join.getProperties().stream())
+              .anyMatch(property -> property.getName().equals(column.getName()));
+      if (!hasJoinProperty) {
+        throw MojoUtil.createException(
+            "writers require a join property for database only columns: mapping=%s column=%s",
+            mapping.getId(), column.getName());
+      }
+      return CodeBlock.of(
+          "$L.$L()", ENTITY_VAR, PoetUtil.fieldToMethodName("get", column.getName()));
+    }
+    if (column.isNullable()
+        && mapping.getNullableFieldAccessorType()
+            == MappingBean.NullableFieldAccessorType.Optional) {
+      return CodeBlock.of(
+          "$L.$L().orElse(null)", ENTITY_VAR, PoetUtil.fieldToMethodName("get", column.getName()));
+    }
+    return CodeBlock.of("$L.$L()", ENTITY_VAR, PoetUtil.fieldToMethodName("get", column.getName()));
+  }
+
+  /**
+   * Returns the columns written for a mapping. Transient fields are not stored in the table.
+   *
+   * @param mapping the {@link MappingBean}
+   * @return the columns
+   */
+  private List<ColumnBean> getColumns(MappingBean mapping) {
+    return mapping.getTable().getColumns().stream()
+        .filter(column -> column.getFieldType() == ColumnBean.FieldType.Column)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Creates the SQL to insert a row of the mapping's table or update it if a row with the same
+   * primary key already exists. Columns that are not updatable are only set by the insert.
+   *
+   * @param mapping the {@link MappingBean}
+   * @return the SQL
+   */
+  private String createUpsertSql(MappingBean mapping) {
+    final TableBean table = mapping.getTable();
+    final List<ColumnBean> columns = getColumns(mapping);
+    final List<ColumnBean> updated =
+        columns.stream()
+            .filter(ColumnBean::isUpdatable)
+            .filter(column -> !table.isPrimaryKey(column.getName()))
+            .collect(Collectors.toList());
+    final StringBuilder sql = new StringBuilder(createInsertSql(mapping, columns));
+    sql.append(" ON CONFLICT (")
+        .append(columnNames(table, table.getPrimaryKeyColumnBeans()))
+        .append(")");
+    if (updated.isEmpty()) {
+      sql.append(" DO NOTHING");
+    } else {
+      sql.append(" DO UPDATE SET ");
+      for (int i = 0; i < updated.size(); ++i) {
+        final String name = name(table, updated.get(i).getColumnName());
+        if (i > 0) {
+          sql.append(", ");
+        }
+        sql.append(name).append(" = EXCLUDED.").append(name);
+      }
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Creates the SQL to insert a row of the mapping's table.
+   *
+   * @param mapping the {@link MappingBean}
+   * @param columns the columns to insert
+   * @return the SQL
+   */
+  private String createInsertSql(MappingBean mapping, List<ColumnBean> columns) {
+    final TableBean table = mapping.getTable();
+    return "INSERT INTO "
+        + tableName(table)
+        + " ("
+        + columnNames(table, columns)
+        + ") VALUES ("
+        + columns.stream().map(column -> "?").collect(Collectors.joining(", "))
+        + ")";
+  }
+
+  /**
+   * Creates the SQL to delete all rows of the mapping's table whose key column matches any value in
+   * an array parameter.
+   *
+   * @param mapping the {@link MappingBean}
+   * @param keyColumn the column referencing the parent's primary key
+   * @return the SQL
+   */
+  private String createDeleteSql(MappingBean mapping, ColumnBean keyColumn) {
+    final TableBean table = mapping.getTable();
+    return "DELETE FROM "
+        + tableName(table)
+        + " WHERE "
+        + name(table, keyColumn.getColumnName())
+        + " = ANY (?)";
+  }
+
+  /**
+   * Creates a private static final field holding a SQL string.
+   *
+   * @param fieldName name of the field
+   * @param sql the SQL
+   * @return the {@link FieldSpec}
+   */
+  private FieldSpec createSqlField(String fieldName, String sql) {
+    return FieldSpec.builder(String.class, fieldName)
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+        .initializer("$S", sql)
+        .build();
+  }
+
+  /**
+   * Removes any length or precision from a column's SQL type so that it can be used as the element
+   * type of a JDBC {@link Array}.
+   *
+   * @param column the {@link ColumnBean}
+   * @return the base SQL type
+   */
+  private String baseSqlType(ColumnBean column) {
+    final String sqlType = column.getSqlType();
+    final int paren = sqlType.indexOf('(');
+    return (paren < 0 ? sqlType : sqlType.substring(0, paren)).trim();
+  }
+
+  /**
+   * Creates the name of the table (including schema name if any).
+   *
+   * @param table the {@link TableBean}
+   * @return the name
+   */
+  private String tableName(TableBean table) {
+    final String name = name(table, table.getName());
+    return table.hasSchema() ? name(table, table.getSchema()) + "." + name : name;
+  }
+
+  /**
+   * Creates the names of the specified columns separated by commas.
+   *
+   * @param table the {@link TableBean} containing the columns
+   * @param columns the columns
+   * @return the names
+   */
+  private String columnNames(TableBean table, List<ColumnBean> columns) {
+    return columns.stream()
+        .map(column -> name(table, column.getColumnName()))
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Wraps the provided name in quotes if the table requires quoted names. Otherwise returns the
+   * name unchanged.
+   *
+   * @param table the {@link TableBean}
+   * @param value name to wrap
+   * @return the (possibly quoted) name
+   */
+  private String name(TableBean table, String value) {
+    return table.isQuoteNames() ? "\"" + value + "\"" : value;
+  }
+
+  /**
+   * Creates the name of the upsert SQL field for a mapping.
+   *
+   * @param mapping the {@link MappingBean}
+   * @return the field name
+   */
+  private String upsertSqlName(MappingBean mapping) {
+    return "UPSERT_" + constantName(mapping.getId()) + "_SQL";
+  }
+
+  /**
+   * Creates the name of the delete SQL field for a child table.
+   *
+   * @param child the {@link ChildTable}
+   * @return the field name
+   */
+  private String deleteSqlName(ChildTable child) {
+    return "DELETE_" + constantName(child.join.getFieldName()) + "_SQL";
+  }
+
+  /**
+   * Creates the name of the insert SQL field for a child table.
+   *
+   * @param child the {@link ChildTable}
+   * @return the field name
+   */
+  private String insertSqlName(ChildTable child) {
+    return "INSERT_" + constantName(child.join.getFieldName()) + "_SQL";
+  }
+
+  /**
+   * Creates the name of the bind method for a mapping.
+   *
+   * @param mapping the {@link MappingBean}
+   * @return the method name
+   */
+  private String bindMethodName(MappingBean mapping) {
+    return BIND_METHOD_NAME_BASE + mapping.getId();
+  }
+
+  /**
+   * Creates the name of the replace method for a child table.
+   *
+   * @param child the {@link ChildTable}
+   * @return the method name
+   */
+  private String replaceMethodName(ChildTable child) {
+    return PoetUtil.fieldToMethodName(REPLACE_METHOD_NAME_BASE, child.join.getFieldName());
+  }
+
+  /**
+   * Converts a camel case java name into an upper case constant name.
+   *
+   * @param javaName the java name
+   * @return the constant name
+   */
+  private String constantName(String javaName) {
+    return javaName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+  }
+
+  /** Holds the information needed to replace the rows of one child table. */
+  private static class ChildTable {
+    /** The array join in the root mapping. */
+    private final JoinBean join;
+
+    /** The mapping of the child table. */
+    private final MappingBean mapping;
+
+    /** The child column referencing the primary key of the root mapping. */
+    private final ColumnBean keyColumn;
+
+    /**
+     * Initializes an instance.
+     *
+     * @param join the array join in the root mapping
+     * @param mapping the mapping of the child table
+     * @param keyColumn the child column referencing the primary key of the root mapping
+     */
+    private ChildTable(JoinBean join, MappingBean mapping, ColumnBean keyColumn) {
+      this.join = join;
+      this.mapping = mapping;
+      this.keyColumn = keyColumn;
+    }
+  }
+}
@@ -6,6 +6,7 @@ import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.lang.model.element.Modifier;
@@ -231,6 +232,36 @@ public class PoetUtil {
     return methodSpecBuilder.build();
   }
 
+  /**
+   * Generates a getter method that returns the value of one of a numbered family of fields (such as
+   * {@code procedure1Code} through {@code procedure25Code}) given its number. The field's value is
+   * returned as is, without being wrapped in an {@link Optional}, so that callers can iterate over
+   * the family without allocating a map or formatting property names. Numbers that have no field
+   * return null.
+   *
+   * @param indexedPropertyName the java property name used to name the getter method
+   * @param propertyNamesByNumber the fields in the family keyed by their number
+   * @param getterResultType the type of the fields in the family
+   * @return a {@link MethodSpec} that generates the getter method
+   */
+  public static MethodSpec createIndexedPropertyGetter(
+      String indexedPropertyName,
+      Map<Integer, String> propertyNamesByNumber,
+      TypeName getterResultType) {
+    MethodSpec.Builder methodSpecBuilder =
+        MethodSpec.methodBuilder(fieldToMethodName("get", indexedPropertyName))
+            .addModifiers(Modifier.PUBLIC)
+            .returns(getterResultType)
+            .addParameter(TypeName.INT, "number")
+            .beginControlFlow("switch (number)");
+    propertyNamesByNumber.forEach(
+        (number, property) ->
+            methodSpecBuilder.addCode("case $L:\n$>return $N;\n$<", number, property));
+    methodSpecBuilder.addCode("default:\n$>return null;\n$<");
+    methodSpecBuilder.endControlFlow();
+    return methodSpecBuilder.build();
+  }
+
   /**
    * Creates a setter/getter name by adding the capitalized field name to a prefix (set or get).
    *
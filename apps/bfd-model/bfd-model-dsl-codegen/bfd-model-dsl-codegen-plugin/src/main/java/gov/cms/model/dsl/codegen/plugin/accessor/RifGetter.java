@@ -1,19 +1,42 @@
 package gov.cms.model.dsl.codegen.plugin.accessor;
 
 import com.squareup.javapoet.CodeBlock;
+import gov.cms.model.dsl.codegen.library.RifColumnLayout;
 import gov.cms.model.dsl.codegen.library.RifObjectWrapper;
 import gov.cms.model.dsl.codegen.plugin.model.TransformationBean;
 import gov.cms.model.dsl.codegen.plugin.transformer.FieldTransformer;
+import java.util.List;
 import java.util.function.Function;
 
 /**
  * Implementation of {@link Getter} that requires the message objects to be {@link RifObjectWrapper}
  * objects. Also requires that the RIF header label must be specified as the {@code from} in the
  * transformation.
+ *
+ * <p>The shared {@link #Instance} generates code that reads fields by header label. Instances
+ * created with a list of column labels instead generate code that reads fields by their position in
+ * a {@link RifColumnLayout} held in the {@link FieldTransformer#RIF_COLUMNS_VAR} field, which saves
+ * a header lookup for every field of every record.
  */
 public class RifGetter implements Getter {
   /** Sharable singleton instance. */
-  public static final Getter Instance = new RifGetter();
+  public static final Getter Instance = new RifGetter(null);
+
+  /**
+   * The labels of the columns in the {@link RifColumnLayout}, in order, or null to read fields by
+   * label.
+   */
+  private final List<String> columnLabels;
+
+  /**
+   * Creates an instance that reads fields by their position in a {@link RifColumnLayout} with the
+   * given labels.
+   *
+   * @param columnLabels the labels of the layout's columns, in order
+   */
+  public RifGetter(List<String> columnLabels) {
+    this.columnLabels = columnLabels == null ? null : List.copyOf(columnLabels);
+  }
 
   /**
    * {@inheritDoc}
@@ -24,8 +47,7 @@ public class RifGetter implements Getter {
   @Override
   public CodeBlock createHasRef(TransformationBean transformation) {
     return transformationPropertyCodeBlock(
-        transformation,
-        fieldName -> CodeBlock.of("() -> $L.hasValue($S)", FieldTransformer.SOURCE_VAR, fieldName));
+        transformation, column -> CodeBlock.of("() -> $L", createHasCode(column)));
   }
 
   /**
@@ -36,9 +58,7 @@ public class RifGetter implements Getter {
    */
   @Override
   public CodeBlock createHasCall(TransformationBean transformation) {
-    return transformationPropertyCodeBlock(
-        transformation,
-        fieldName -> CodeBlock.of("$L.hasValue($S)", FieldTransformer.SOURCE_VAR, fieldName));
+    return transformationPropertyCodeBlock(transformation, this::createHasCode);
   }
 
   /**
@@ -51,12 +71,8 @@ public class RifGetter implements Getter {
   public CodeBlock createGetRef(TransformationBean transformation) {
     return transformationPropertyCodeBlock(
         transformation,
-        fieldName ->
-            CodeBlock.of(
-                "() -> $L.getValue($S, $S)",
-                FieldTransformer.SOURCE_VAR,
-                fieldName,
-                transformation.getDefaultValue()));
+        column ->
+            CodeBlock.of("() -> $L", createGetCode(column, transformation.getDefaultValue())));
   }
 
   /**
@@ -68,13 +84,58 @@ public class RifGetter implements Getter {
   @Override
   public CodeBlock createGetCall(TransformationBean transformation) {
     return transformationPropertyCodeBlock(
-        transformation,
-        fieldName ->
-            CodeBlock.of(
-                "$L.getValue($S, $S)",
-                FieldTransformer.SOURCE_VAR,
-                fieldName,
-                transformation.getDefaultValue()));
+        transformation, column -> createGetCode(column, transformation.getDefaultValue()));
+  }
+
+  /**
+   * Generates an expression that tests whether a column has a value.
+   *
+   * @param label the column label
+   * @return {@link CodeBlock} for the expression
+   */
+  private CodeBlock createHasCode(String label) {
+    if (columnLabels == null) {
+      return CodeBlock.of("$L.hasValue($S)", FieldTransformer.SOURCE_VAR, label);
+    }
+    return CodeBlock.of(
+        "$L.hasValue($L, $L)",
+        FieldTransformer.SOURCE_VAR,
+        FieldTransformer.RIF_COLUMNS_VAR,
+        columnIndex(label));
+  }
+
+  /**
+   * Generates an expression that gets the value of a column.
+   *
+   * @param label the column label
+   * @param defaultValue the value used when the column is empty, possibly null
+   * @return {@link CodeBlock} for the expression
+   */
+  private CodeBlock createGetCode(String label, String defaultValue) {
+    if (columnLabels == null) {
+      return CodeBlock.of("$L.getValue($S, $S)", FieldTransformer.SOURCE_VAR, label, defaultValue);
+    }
+    return CodeBlock.of(
+        "$L.getValue($L, $L, $S)",
+        FieldTransformer.SOURCE_VAR,
+        FieldTransformer.RIF_COLUMNS_VAR,
+        columnIndex(label),
+        defaultValue);
+  }
+
+  /**
+   * Finds the position of a column in the {@link RifColumnLayout}.
+   *
+   * @param label the column label
+   * @return the position of the column
+   * @throws IllegalArgumentException if the label is not one of the layout's columns
+   */
+  private int columnIndex(String label) {
+    final int index = columnLabels.indexOf(label);
+    if (index < 0) {
+      throw new IllegalArgumentException("RIF column is not in the column layout: " + label);
+    }
+    return index;
   }
 
   /**
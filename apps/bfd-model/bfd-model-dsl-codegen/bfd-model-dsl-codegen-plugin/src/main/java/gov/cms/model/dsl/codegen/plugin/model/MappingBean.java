@@ -47,6 +47,10 @@ public class MappingBean implements ModelBean {
   @JavaName(type = JavaNameType.Compound)
   private String transformerClassName;
 
+  /** Full class name for bulk JDBC writer object to be generated. */
+  @JavaName(type = JavaNameType.Compound)
+  private String writerClassName;
+
   /** Defines the type of objects being transformed (either GRPC or CSV). */
   @NotNull private SourceType sourceType = SourceType.Grpc;
 
@@ -110,6 +114,15 @@ public class MappingBean implements ModelBean {
     return !Strings.isNullOrEmpty(transformerClassName);
   }
 
+  /**
+   * Determines if a {@code writerClassName} has been defined.
+   *
+   * @return true if a non-empty {code writerClassName} has been defined
+   */
+  public boolean hasWriter() {
+    return !Strings.isNullOrEmpty(writerClassName);
+  }
+
   /**
    * Determines if any array transformations have been defined.
    *
@@ -164,6 +177,24 @@ public class MappingBean implements ModelBean {
     return ModelUtil.className(transformerClassName);
   }
 
+  /**
+   * Extract the java package name for the writer.
+   *
+   * @return the java package name for the writer.
+   */
+  public String writerPackage() {
+    return ModelUtil.packageName(writerClassName);
+  }
+
+  /**
+   * Extract the java class name for the writer.
+   *
+   * @return the java class name for the writer.
+   */
+  public String writerSimpleName() {
+    return ModelUtil.className(writerClassName);
+  }
+
   /**
    * Determines if any {@code entityInterfaces} have been defined.
    *
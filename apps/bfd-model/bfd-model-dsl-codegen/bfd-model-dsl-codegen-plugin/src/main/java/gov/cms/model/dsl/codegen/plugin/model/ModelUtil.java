@@ -187,6 +187,9 @@ public class ModelUtil {
     if (sqlType.contains("timestamp")) {
       return Optional.of(ClassName.get(Instant.class));
     }
+    if (sqlType.equals("boolean")) {
+      return Optional.of(ClassName.get(Boolean.class));
+    }
     return Optional.empty();
   }
 }
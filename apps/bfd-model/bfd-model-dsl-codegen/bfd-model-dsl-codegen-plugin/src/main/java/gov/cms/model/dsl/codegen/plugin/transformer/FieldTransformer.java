@@ -49,6 +49,12 @@ public interface FieldTransformer {
    */
   String NAME_PREFIX_VAR = "namePrefix";
 
+  /**
+   * Field name used for holding the {@link gov.cms.model.dsl.codegen.library.RifColumnLayout} of a
+   * RIF parser.
+   */
+  String RIF_COLUMNS_VAR = "rifColumns";
+
   /** A {@link CodeBlock} containing code to read the current timestamp. */
   CodeBlock NOW_VALUE = CodeBlock.of("$L", NOW_VAR);
 
@@ -28,7 +28,9 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.lang.model.element.Modifier;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -904,4 +906,76 @@ public class GenerateEntitiesFromDslMojoTest {
                 ParameterizedTypeName.get(PoetUtil.OptionalClassName, PoetUtil.StringClassName))),
         mojo.createMethodSpecsForGroupedProperties(mappingBean));
   }
+
+  /** Test for {@link GenerateEntitiesFromDslMojo#createMethodSpecsForIndexedProperties}. */
+  @Test
+  public void testCreateMethodSpecsForIndexedProperties() throws MojoExecutionException {
+    TableBean table =
+        TableBean.builder()
+            .quoteNames(false)
+            .name("records")
+            .column(
+                ColumnBean.builder()
+                    .name("diagnosisPrincipalCode")
+                    .groupName("diagnosisCodes")
+                    .javaType("String")
+                    .build())
+            .column(
+                ColumnBean.builder()
+                    .name("diagnosis2Code")
+                    .groupName("diagnosisCodes")
+                    .javaType("String")
+                    .build())
+            .column(
+                ColumnBean.builder()
+                    .name("diagnosis1Code")
+                    .groupName("diagnosisCodes")
+                    .javaType("String")
+                    .build())
+            .column(
+                ColumnBean.builder()
+                    .name("diagnosis1CodeVersion")
+                    .groupName("diagnosisCodeVersions")
+                    .javaType("Character")
+                    .build())
+            .column(ColumnBean.builder().name("line1Amount").javaType("String").build())
+            .build();
+
+    MappingBean mappingBean = MappingBean.builder().table(table).build();
+    assertEquals(
+        List.of(
+            PoetUtil.createIndexedPropertyGetter(
+                "diagnosisCode",
+                new TreeMap<>(Map.of(1, "diagnosis1Code", 2, "diagnosis2Code")),
+                PoetUtil.StringClassName),
+            PoetUtil.createIndexedPropertyGetter(
+                "diagnosisCodeVersion",
+                new TreeMap<>(Map.of(1, "diagnosis1CodeVersion")),
+                ClassName.get(Character.class))),
+        mojo.createMethodSpecsForIndexedProperties(mappingBean));
+
+    // all fields of a family must have the same type
+    TableBean mixedTable =
+        TableBean.builder()
+            .quoteNames(false)
+            .name("records")
+            .column(
+                ColumnBean.builder()
+                    .name("diagnosis1Code")
+                    .groupName("diagnosisCodes")
+                    .javaType("String")
+                    .build())
+            .column(
+                ColumnBean.builder()
+                    .name("diagnosis2Code")
+                    .groupName("diagnosisCodes")
+                    .javaType("Character")
+                    .build())
+            .build();
+    assertThrows(
+        MojoExecutionException.class,
+        () ->
+            mojo.createMethodSpecsForIndexedProperties(
+                MappingBean.builder().id("mixed").table(mixedTable).build()));
+  }
 }
@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link PoetUtil}. */
@@ -174,4 +176,27 @@ public java.util.Map<java.lang.String, java.util.Optional<java.lang.String>> get
                 ParameterizedTypeName.get(PoetUtil.OptionalClassName, PoetUtil.StringClassName))
             .toString());
   }
+
+  /** Unit test for {@link PoetUtil#createIndexedPropertyGetter}. */
+  @Test
+  public void testCreateIndexedPropertyGetter() {
+    assertEquals(
+        """
+public java.lang.String getProcedureCode(int number) {
+  switch (number) {
+    case 1:
+      return procedure1Code;
+    case 2:
+      return procedure2Code;
+    default:
+      return null;
+  }
+}
+""",
+        PoetUtil.createIndexedPropertyGetter(
+                "procedureCode",
+                new TreeMap<>(Map.of(1, "procedure1Code", 2, "procedure2Code")),
+                PoetUtil.StringClassName)
+            .toString());
+  }
 }
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import gov.cms.model.dsl.codegen.plugin.model.TransformationBean;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link RifGetter}. */
@@ -44,4 +45,21 @@ public class RifGetterTest {
     assertEquals("from.getValue(\"x\", null)", RifGetter.Instance.createGetCall(simple).toString());
     assertThrows(IllegalArgumentException.class, () -> RifGetter.Instance.createGetCall(nested));
   }
+
+  /**
+   * Verifies that an instance created with column labels generates code that reads columns by their
+   * position in the {@link gov.cms.model.dsl.codegen.library.RifColumnLayout}.
+   */
+  @Test
+  public void testIndexedColumns() {
+    final var getter = new RifGetter(List.of("a", "x"));
+    final var simple = TransformationBean.builder().from("x").defaultValue("0").build();
+    final var unknown = TransformationBean.builder().from("y").build();
+    assertEquals("() -> from.hasValue(rifColumns, 1)", getter.createHasRef(simple).toString());
+    assertEquals("from.hasValue(rifColumns, 1)", getter.createHasCall(simple).toString());
+    assertEquals(
+        "() -> from.getValue(rifColumns, 1, \"0\")", getter.createGetRef(simple).toString());
+    assertEquals("from.getValue(rifColumns, 1, \"0\")", getter.createGetCall(simple).toString());
+    assertThrows(IllegalArgumentException.class, () -> getter.createGetCall(unknown));
+  }
 }
@@ -106,6 +106,7 @@ public class ModelUtilTest {
     assertEquals(Optional.of(ClassName.get(Instant.class)), mapSqlTypeToTypeName("timestamp"));
     assertEquals(
         Optional.of(ClassName.get(Instant.class)), mapSqlTypeToTypeName("timestamp with timezone"));
+    assertEquals(Optional.of(ClassName.get(Boolean.class)), mapSqlTypeToTypeName("boolean"));
     assertEquals(Optional.empty(), mapSqlTypeToTypeName("undefined"));
   }
 }
@@ -0,0 +1,93 @@
+package gov.cms.test;
+
+import gov.cms.model.dsl.codegen.library.BulkEntityWriter;
+import gov.cms.model.dsl.codegen.library.JdbcParameters;
+import java.lang.Override;
+import java.lang.String;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes batches of {@link Claim} to the database using JDBC batches.
+ */
+public class ClaimWriter implements BulkEntityWriter<Claim> {
+  private static final String UPSERT_CLAIM_SQL = "INSERT INTO pre_adj.claims (claim_id, sequence_number, curr_status, total_charge_amount, received_date, serv_typ_cd_mapping, mbi_id, first_loaded, last_updated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (claim_id) DO UPDATE SET sequence_number = EXCLUDED.sequence_number, curr_status = EXCLUDED.curr_status, total_charge_amount = EXCLUDED.total_charge_amount, received_date = EXCLUDED.received_date, serv_typ_cd_mapping = EXCLUDED.serv_typ_cd_mapping, mbi_id = EXCLUDED.mbi_id, last_updated = EXCLUDED.last_updated";
+
+  private static final String DELETE_DIAG_CODES_SQL = "DELETE FROM pre_adj.diagnosis_codes WHERE claim_id = ANY (?)";
+
+  private static final String INSERT_DIAG_CODES_SQL = "INSERT INTO pre_adj.diagnosis_codes (claim_id, rda_position, diag_cd, diag_poa_ind) VALUES (?, ?, ?, ?)";
+
+  @Override
+  public int writeEntities(Connection connection, Collection<Claim> entities) throws SQLException {
+    final Map<String, Claim> unique = new LinkedHashMap<>();
+    for (Claim entity : entities) {
+      unique.put(entity.getClaimId(), entity);
+    }
+    if (unique.isEmpty()) {
+      return 0;
+    }
+    int count = 0;
+    try (PreparedStatement statement = connection.prepareStatement(UPSERT_CLAIM_SQL)) {
+      for (Claim entity : unique.values()) {
+        bindClaim(statement, entity);
+        statement.addBatch();
+      }
+      statement.executeBatch();
+      count += unique.size();
+    }
+    final Array keys = connection.createArrayOf("varchar", unique.keySet().toArray());
+    try {
+      count += replaceDiagCodes(connection, unique.values(), keys);
+    } finally {
+      keys.free();
+    }
+    return count;
+  }
+
+  private int replaceDiagCodes(Connection connection, Collection<Claim> entities, Array keys) throws
+      SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(DELETE_DIAG_CODES_SQL)) {
+      statement.setArray(1, keys);
+      statement.executeUpdate();
+    }
+    int count = 0;
+    try (PreparedStatement statement = connection.prepareStatement(INSERT_DIAG_CODES_SQL)) {
+      for (Claim entity : entities) {
+        for (DiagnosisCode child : entity.getDiagCodes()) {
+          bindDiagnosisCode(statement, child);
+          statement.addBatch();
+          count += 1;
+        }
+      }
+      if (count > 0) {
+        statement.executeBatch();
+      }
+    }
+    return count;
+  }
+
+  private static void bindClaim(PreparedStatement statement, Claim entity) throws SQLException {
+    JdbcParameters.set(statement, 1, entity.getClaimId());
+    JdbcParameters.set(statement, 2, entity.getSequenceNumber());
+    JdbcParameters.set(statement, 3, entity.getCurrStatus());
+    JdbcParameters.set(statement, 4, entity.getTotalChargeAmount());
+    JdbcParameters.set(statement, 5, entity.getReceivedDate());
+    JdbcParameters.set(statement, 6, entity.getServTypeCdMapping());
+    JdbcParameters.set(statement, 7, entity.getMbiId());
+    JdbcParameters.set(statement, 8, entity.getFirstLoaded());
+    JdbcParameters.set(statement, 9, entity.getLastUpdated());
+  }
+
+  private static void bindDiagnosisCode(PreparedStatement statement, DiagnosisCode entity) throws
+      SQLException {
+    JdbcParameters.set(statement, 1, entity.getClaimId());
+    JdbcParameters.set(statement, 2, entity.getRdaPosition());
+    JdbcParameters.set(statement, 3, entity.getDiagCd());
+    JdbcParameters.set(statement, 4, entity.getDiagPoaInd().orElse(null));
+  }
+}
@@ -0,0 +1,178 @@
+package gov.cms.bfd.model.rif;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Common interface for claim entities with diagnosis and procedure columns. The numbered columns
+ * (such as {@code diagnosis1Code} through {@code diagnosis25Code}) are read through the indexed
+ * accessors generated for each numbered column family, which return the raw column value without
+ * building a map or wrapping it in an {@link Optional}. Every method has a default implementation
+ * returning null or empty so that claim types without a given column family can share the same
+ * extraction code.
+ */
+public interface ClaimDiagnosesAndProcedures {
+  /**
+   * Gets the admitting diagnosis code.
+   *
+   * @return the code, or empty if the claim has none
+   */
+  default Optional<String> getDiagnosisAdmittingCode() {
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the admitting diagnosis code version.
+   *
+   * @return the code version, or empty if the claim has none
+   */
+  default Optional<Character> getDiagnosisAdmittingCodeVersion() {
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the principal diagnosis code.
+   *
+   * @return the code, or empty if the claim has none
+   */
+  default Optional<String> getDiagnosisPrincipalCode() {
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the principal diagnosis code version.
+   *
+   * @return the code version, or empty if the claim has none
+   */
+  default Optional<Character> getDiagnosisPrincipalCodeVersion() {
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the first external cause of injury diagnosis code.
+   *
+   * @return the code, or empty if the claim has none
+   */
+  default Optional<String> getDiagnosisExternalFirstCode() {
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the first external cause of injury diagnosis code version.
+   *
+   * @return the code version, or empty if the claim has none
+   */
+  default Optional<Character> getDiagnosisExternalFirstCodeVersion() {
+    return Optional.empty();
+  }
+
+  /**
+   * Gets one of the numbered diagnosis codes.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the code, or null if the claim has none
+   */
+  default String getDiagnosisCode(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered diagnosis code versions.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the code version, or null if the claim has none
+   */
+  default Character getDiagnosisCodeVersion(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered diagnosis present on admission codes.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the present on admission code, or null if the claim has none
+   */
+  default Character getDiagnosisPresentOnAdmissionCode(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered external cause of injury diagnosis codes.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the code, or null if the claim has none
+   */
+  default String getDiagnosisExternalCode(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered external cause of injury diagnosis code versions.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the code version, or null if the claim has none
+   */
+  default Character getDiagnosisExternalCodeVersion(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered external cause of injury diagnosis present on admission codes.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the present on admission code, or null if the claim has none
+   */
+  default Character getDiagnosisExternalPresentOnAdmissionCode(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered reason for visit diagnosis codes.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the code, or null if the claim has none
+   */
+  default String getDiagnosisAdmissionCode(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered reason for visit diagnosis code versions.
+   *
+   * @param number the diagnosis number, starting at 1
+   * @return the code version, or null if the claim has none
+   */
+  default Character getDiagnosisAdmissionCodeVersion(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered procedure codes.
+   *
+   * @param number the procedure number, starting at 1
+   * @return the code, or null if the claim has none
+   */
+  default String getProcedureCode(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered procedure code versions.
+   *
+   * @param number the procedure number, starting at 1
+   * @return the code version, or null if the claim has none
+   */
+  default Character getProcedureCodeVersion(int number) {
+    return null;
+  }
+
+  /**
+   * Gets one of the numbered procedure dates.
+   *
+   * @param number the procedure number, starting at 1
+   * @return the date, or null if the claim has none
+   */
+  default LocalDate getProcedureDate(int number) {
+    return null;
+  }
+}
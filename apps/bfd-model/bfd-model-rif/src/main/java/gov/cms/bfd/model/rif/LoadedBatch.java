@@ -3,15 +3,23 @@ package gov.cms.bfd.model.rif;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.LongConsumer;
 import javax.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-/** JPA class for the loaded_batches table. */
+/**
+ * JPA class for the loaded_batches table.
+ *
+ * <p>Batches written by current pipelines store their beneficiaries in {@link #beneficiariesPacked}
+ * using the compact binary format of {@link PackedBeneficiaryIds}, and also in {@link
+ * #beneficiaries} as a {@link #SEPARATOR} delimited string so that servers from the previous
+ * release can still read them during a rolling deploy. Batches written before the packed column
+ * existed only have the string. Readers should use {@link #forEachBeneficiary}, {@link
+ * #getBeneficiaryCount}, or {@link #getBeneficiariesAsList} which prefer the packed format.
+ */
 @Entity
 @Getter
 @Setter
@@ -36,10 +44,21 @@ public class LoadedBatch {
   @Column(name = "loaded_file_id", nullable = false)
   private long loadedFileId;
 
-  /** The beneficiaries in this batch. */
+  /**
+   * The beneficiaries in this batch in the legacy {@link #SEPARATOR} delimited format. Still
+   * written alongside {@link #beneficiariesPacked} for servers that do not read that column. The
+   * V119 migration describes how this column is removed once no deployed server reads it.
+   */
   @Column(name = "beneficiaries", columnDefinition = "varchar", nullable = false)
   private String beneficiaries;
 
+  /**
+   * The beneficiaries in this batch encoded by {@link PackedBeneficiaryIds}. Null for batches
+   * written before this column existed.
+   */
+  @Column(name = "beneficiaries_packed", columnDefinition = "bytea")
+  private byte[] beneficiariesPacked;
+
   /** The batch creation timestamp. */
   @Column(name = "created", nullable = false)
   private Instant created;
@@ -57,26 +76,88 @@ public class LoadedBatch {
     this();
     this.loadedBatchId = loadedBatchId;
     this.loadedFileId = loadedFileId;
-    this.beneficiaries = convertToString(beneficiaries);
+    setBeneficiaries(beneficiaries);
     this.created = created;
   }
 
   /**
-   * Set the {@link #beneficiaries} from a list.
+   * Set the {@link #beneficiariesPacked} and {@link #beneficiaries} from a list.
    *
    * @param beneficiaries list to convert
    */
   public void setBeneficiaries(List<Long> beneficiaries) {
-    this.beneficiaries = convertToString(beneficiaries);
+    final long[] ids =
+        beneficiaries == null
+            ? new long[0]
+            : beneficiaries.stream().mapToLong(Long::longValue).toArray();
+    setBeneficiaries(ids, ids.length);
+  }
+
+  /**
+   * Set the {@link #beneficiariesPacked} and {@link #beneficiaries} from the first {@code count}
+   * values of an array. The array is not modified.
+   *
+   * @param beneficiaries array containing the beneficiary ids
+   * @param count number of ids in the array
+   */
+  public void setBeneficiaries(long[] beneficiaries, int count) {
+    final StringBuilder joined = new StringBuilder();
+    for (int i = 0; i < count; ++i) {
+      if (i > 0) {
+        joined.append(SEPARATOR);
+      }
+      joined.append(beneficiaries[i]);
+    }
+    this.beneficiaries = joined.toString();
+    this.beneficiariesPacked = PackedBeneficiaryIds.pack(beneficiaries, count);
+  }
+
+  /**
+   * Get the number of beneficiaries in this batch without decoding them.
+   *
+   * @return number of beneficiaries
+   */
+  public int getBeneficiaryCount() {
+    if (beneficiariesPacked != null) {
+      return PackedBeneficiaryIds.count(beneficiariesPacked);
+    }
+    if (beneficiaries == null || beneficiaries.isEmpty()) {
+      return 0;
+    }
+    int count = 1;
+    for (int i = beneficiaries.indexOf(SEPARATOR);
+        i >= 0;
+        i = beneficiaries.indexOf(SEPARATOR, i + 1)) {
+      ++count;
+    }
+    return count;
   }
 
   /**
-   * Get the {@link #beneficiaries} as a list.
+   * Pass every beneficiary in this batch to a consumer without boxing them.
+   *
+   * @param consumer receives each beneficiary id
+   */
+  public void forEachBeneficiary(LongConsumer consumer) {
+    if (beneficiariesPacked != null) {
+      PackedBeneficiaryIds.forEach(beneficiariesPacked, consumer);
+    } else if (beneficiaries != null && !beneficiaries.isEmpty()) {
+      for (String beneficiary : beneficiaries.split(SEPARATOR)) {
+        consumer.accept(Long.parseLong(beneficiary));
+      }
+    }
+  }
+
+  /**
+   * Get the beneficiaries as a list. Beneficiaries of packed batches are in ascending order with no
+   * duplicates.
    *
    * @return beneficiaries as list
    */
   public List<Long> getBeneficiariesAsList() {
-    return convertToList(this.beneficiaries);
+    final List<Long> list = new ArrayList<>(getBeneficiaryCount());
+    forEachBeneficiary(list::add);
+    return list;
   }
 
   /**
@@ -89,49 +170,16 @@ public class LoadedBatch {
   public static LoadedBatch combine(LoadedBatch a, LoadedBatch b) {
     if (a == null) return b;
     if (b == null) return a;
+    final long[] ids = new long[a.getBeneficiaryCount() + b.getBeneficiaryCount()];
+    final int[] count = new int[1];
+    final LongConsumer collector = id -> ids[count[0]++] = id;
+    a.forEachBeneficiary(collector);
+    b.forEachBeneficiary(collector);
     LoadedBatch sum = new LoadedBatch();
     sum.loadedBatchId = a.loadedBatchId;
     sum.loadedFileId = a.loadedFileId;
-    sum.beneficiaries =
-        a.beneficiaries.isEmpty()
-            ? b.beneficiaries
-            : b.beneficiaries.isEmpty()
-                ? a.beneficiaries
-                : a.beneficiaries + SEPARATOR + b.beneficiaries;
+    sum.setBeneficiaries(ids, count[0]);
     sum.created = (a.created.isAfter(b.created)) ? a.created : b.created;
     return sum;
   }
-
-  /*
-   * Dev Note: A JPA AttributeConverter could be created instead of these static methods. This is
-   * slightly simpler and, since conversion is done once, just as efficient.
-   */
-
-  /**
-   * Converts a string list to a single string, delimited by {@link #SEPARATOR}.
-   *
-   * @param list the list to convert
-   * @return the string containing the values of the string list delimited by {@link #SEPARATOR}
-   */
-  private static String convertToString(List<Long> list) {
-    if (list == null || list.isEmpty()) {
-      return "";
-    }
-    return list.stream().map(String::valueOf).collect(Collectors.joining(SEPARATOR));
-  }
-
-  /**
-   * Converts a {@link #SEPARATOR} delimited string to a list of strings.
-   *
-   * @param commaSeparated the {@link #SEPARATOR} separated string
-   * @return the list of string values
-   */
-  private static List<Long> convertToList(String commaSeparated) {
-    if (commaSeparated == null || commaSeparated.isEmpty()) {
-      return new ArrayList<Long>();
-    }
-    return Stream.of(commaSeparated.split(SEPARATOR))
-        .map(Long::parseLong)
-        .collect(Collectors.toList());
-  }
 }
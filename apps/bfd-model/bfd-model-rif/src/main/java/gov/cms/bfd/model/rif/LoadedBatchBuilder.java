@@ -1,14 +1,16 @@
 package gov.cms.bfd.model.rif;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import lombok.Getter;
 
 /** Class to build a LoadedBatch. Thread safe. */
 public class LoadedBatchBuilder {
-  /** The beneficiaries in this batch. */
-  private final List<Long> beneficiaries;
+  /** The beneficiaries in this batch. Unboxed so that a large batch allocates only one array. */
+  private long[] beneficiaries;
+
+  /** The number of values in {@link #beneficiaries} that have been set. */
+  private int beneficiaryCount;
 
   /** The loaded file's identifier. */
   private final long loadedFileId;
@@ -24,7 +26,7 @@ public class LoadedBatchBuilder {
    */
   public LoadedBatchBuilder(long loadedFileId, int capacityIncrement) {
     this.loadedFileId = loadedFileId;
-    this.beneficiaries = new ArrayList<>(capacityIncrement);
+    this.beneficiaries = new long[Math.max(capacityIncrement, 1)];
     this.timestamp = Instant.now();
   }
 
@@ -37,7 +39,10 @@ public class LoadedBatchBuilder {
     if (beneficiaryId == null) {
       throw new IllegalArgumentException("Null or empty beneficiary");
     }
-    beneficiaries.add(beneficiaryId);
+    if (beneficiaryCount == beneficiaries.length) {
+      beneficiaries = Arrays.copyOf(beneficiaries, beneficiaries.length * 2);
+    }
+    beneficiaries[beneficiaryCount++] = beneficiaryId;
   }
 
   /**
@@ -48,7 +53,7 @@ public class LoadedBatchBuilder {
   public synchronized LoadedBatch build() {
     final LoadedBatch loadedBatch = new LoadedBatch();
     loadedBatch.setLoadedFileId(loadedFileId);
-    loadedBatch.setBeneficiaries(beneficiaries);
+    loadedBatch.setBeneficiaries(beneficiaries, beneficiaryCount);
     loadedBatch.setCreated(timestamp);
     return loadedBatch;
   }
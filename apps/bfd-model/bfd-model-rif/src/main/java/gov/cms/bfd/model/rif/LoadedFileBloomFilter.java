@@ -0,0 +1,49 @@
+package gov.cms.bfd.model.rif;
+
+import java.time.Instant;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA class for the loaded_file_filters table. Holds the serialized Bloom filter of the
+ * beneficiaries updated by a {@link LoadedFile}. The pipeline writes one once every batch of the
+ * file has been loaded so that servers can read it instead of rebuilding it from the file's {@link
+ * LoadedBatch} rows.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "loaded_file_filters")
+public class LoadedFileBloomFilter {
+  /** False positive probability that filters are created with. */
+  public static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+  /** The loaded file identifier. */
+  @Id
+  @Column(name = "loaded_file_id", nullable = false)
+  private long loadedFileId;
+
+  /** The number of batches whose beneficiaries are in the filter. */
+  @Column(name = "batches_count", nullable = false)
+  private int batchesCount;
+
+  /** The latest {@link LoadedBatch#getCreated} of the batches in the filter. */
+  @Column(name = "last_updated", nullable = false)
+  private Instant lastUpdated;
+
+  /** The Bloom filter in the serialized form of the spark-sketch library. */
+  @Column(name = "bloom_filter", columnDefinition = "bytea", nullable = false)
+  private byte[] bloomFilter;
+
+  /** The filter creation timestamp. */
+  @Column(name = "created", nullable = false)
+  private Instant created;
+}
@@ -0,0 +1,196 @@
+package gov.cms.bfd.model.rif;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Encodes and decodes the compact binary form of the beneficiary ids in a {@link LoadedBatch}.
+ *
+ * <p>The ids are sorted and de-duplicated, then written as:
+ *
+ * <ol>
+ *   <li>a format version byte,
+ *   <li>the number of ids as an unsigned varint,
+ *   <li>the first id as a zig-zag varint (bene ids can be negative in synthetic data),
+ *   <li>the difference between each following id and its predecessor as an unsigned varint.
+ * </ol>
+ *
+ * <p>Bene ids within a batch are usually close together, so most differences fit in one or two
+ * bytes instead of the ten or more characters each id takes in the comma separated format.
+ */
+final class PackedBeneficiaryIds {
+  /** Version byte written at the start of every encoded value. */
+  private static final byte FORMAT_VERSION = 1;
+
+  /** Maximum number of bytes a single varint encoded long can occupy. */
+  private static final int MAX_VARINT_BYTES = 10;
+
+  /** Prevents instantiation of utility class. */
+  private PackedBeneficiaryIds() {}
+
+  /**
+   * Encodes the first {@code count} values of an array. The array is not modified.
+   *
+   * @param ids the beneficiary ids, in any order and possibly containing duplicates
+   * @param count number of values in {@code ids} to encode
+   * @return the encoded bytes
+   */
+  static byte[] pack(long[] ids, int count) {
+    final long[] sorted = Arrays.copyOf(ids, count);
+    Arrays.sort(sorted);
+    int uniqueCount = 0;
+    for (int i = 0; i < sorted.length; ++i) {
+      if (i == 0 || sorted[i] != sorted[uniqueCount - 1]) {
+        sorted[uniqueCount++] = sorted[i];
+      }
+    }
+
+    final byte[] buffer = new byte[1 + MAX_VARINT_BYTES * (uniqueCount + 1)];
+    buffer[0] = FORMAT_VERSION;
+    int offset = writeVarint(buffer, 1, uniqueCount);
+    if (uniqueCount > 0) {
+      offset = writeVarint(buffer, offset, zigZagEncode(sorted[0]));
+      for (int i = 1; i < uniqueCount; ++i) {
+        // Subtraction can overflow for extreme values but wraps back when decoded.
+        offset = writeVarint(buffer, offset, sorted[i] - sorted[i - 1]);
+      }
+    }
+    return Arrays.copyOf(buffer, offset);
+  }
+
+  /**
+   * Gets the number of ids in an encoded value without decoding them.
+   *
+   * @param packed the encoded bytes
+   * @return the number of ids
+   */
+  static int count(byte[] packed) {
+    checkVersion(packed);
+    return (int) new Reader(packed, 1).readVarint();
+  }
+
+  /**
+   * Passes every id in an encoded value to a consumer, in ascending order, without boxing them.
+   *
+   * @param packed the encoded bytes
+   * @param consumer receives each id
+   */
+  static void forEach(byte[] packed, LongConsumer consumer) {
+    checkVersion(packed);
+    final Reader reader = new Reader(packed, 1);
+    final long count = reader.readVarint();
+    if (count == 0) {
+      return;
+    }
+    long id = zigZagDecode(reader.readVarint());
+    consumer.accept(id);
+    for (long i = 1; i < count; ++i) {
+      id += reader.readVarint();
+      consumer.accept(id);
+    }
+  }
+
+  /**
+   * Decodes all of the ids in an encoded value.
+   *
+   * @param packed the encoded bytes
+   * @return the ids in ascending order
+   */
+  static long[] unpack(byte[] packed) {
+    final long[] ids = new long[count(packed)];
+    final int[] index = new int[1];
+    forEach(packed, id -> ids[index[0]++] = id);
+    return ids;
+  }
+
+  /**
+   * Verifies that an encoded value starts with the expected version byte.
+   *
+   * @param packed the encoded bytes
+   * @throws IllegalArgumentException if the value is empty or has an unknown version
+   */
+  private static void checkVersion(byte[] packed) {
+    if (packed.length == 0 || packed[0] != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported packed beneficiaries format");
+    }
+  }
+
+  /**
+   * Writes a value as an unsigned varint: seven bits per byte, least significant group first, with
+   * the high bit set on every byte except the last.
+   *
+   * @param buffer the buffer to write to
+   * @param offset where to start writing
+   * @param value the value to write
+   * @return the offset following the last byte written
+   */
+  private static int writeVarint(byte[] buffer, int offset, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[offset++] = (byte) value;
+    return offset;
+  }
+
+  /**
+   * Maps a signed value to an unsigned one so that small negative values encode in few bytes.
+   *
+   * @param value the signed value
+   * @return the zig-zag encoded value
+   */
+  private static long zigZagEncode(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /**
+   * Reverses {@link #zigZagEncode}.
+   *
+   * @param value the zig-zag encoded value
+   * @return the signed value
+   */
+  private static long zigZagDecode(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /** Reads varints sequentially from an encoded value. */
+  private static final class Reader {
+    /** The encoded bytes. */
+    private final byte[] bytes;
+
+    /** Offset of the next byte to read. */
+    private int offset;
+
+    /**
+     * Initializes an instance.
+     *
+     * @param bytes the encoded bytes
+     * @param offset offset of the first byte to read
+     */
+    private Reader(byte[] bytes, int offset) {
+      this.bytes = bytes;
+      this.offset = offset;
+    }
+
+    /**
+     * Reads the next unsigned varint.
+     *
+     * @return the value
+     * @throws IllegalArgumentException if the value is truncated or too long
+     */
+    private long readVarint() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        if (offset >= bytes.length) {
+          throw new IllegalArgumentException("Truncated packed beneficiaries value");
+        }
+        final byte b = bytes[offset++];
+        value |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint in packed beneficiaries value");
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package gov.cms.bfd.model.rif;
 
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import javax.annotation.Nullable;
 
@@ -34,6 +36,17 @@ public interface RifFile {
    */
   InputStream open();
 
+  /**
+   * Gets a new {@link ReadableByteChannel} to the RIF file's contents. The default implementation
+   * adapts {@link #open()}; implementations backed by a local file should return a {@link
+   * java.nio.channels.FileChannel} instead.
+   *
+   * @return a new {@link ReadableByteChannel}
+   */
+  default ReadableByteChannel openChannel() {
+    return Channels.newChannel(open());
+  }
+
   /**
    * Returns true if the file has not been fully processed yet.
    *
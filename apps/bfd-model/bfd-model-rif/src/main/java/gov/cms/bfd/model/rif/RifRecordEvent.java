@@ -1,8 +1,8 @@
 package gov.cms.bfd.model.rif;
 
+import gov.cms.model.dsl.codegen.library.RifRow;
 import java.util.List;
 import lombok.Getter;
-import org.apache.commons.csv.CSVRecord;
 
 /**
  * Models a single beneficiary/claim/drug event that was contained in a {@link RifFile}. Please note
@@ -16,8 +16,8 @@ public final class RifRecordEvent<R extends RifRecordBase> {
   /** The {@link RifFileEvent} that this is a child of. */
   private final RifFileEvent fileEvent;
 
-  /** The {@link CSVRecord}s that this was built from / represents. */
-  private final List<CSVRecord> rawCsvRecords;
+  /** The {@link RifRow}s that this was built from / represents. */
+  private final List<RifRow> rawCsvRecords;
 
   /** The RIF {@link RecordAction} indicated for the getRecord(). */
   private final RecordAction recordAction;
@@ -39,7 +39,7 @@ public final class RifRecordEvent<R extends RifRecordBase> {
    */
   public RifRecordEvent(
       RifFileEvent fileEvent,
-      List<CSVRecord> rawCsvRecords,
+      List<RifRow> rawCsvRecords,
       RecordAction recordAction,
       Long beneficiaryId,
       R record) {
@@ -0,0 +1,366 @@
+package gov.cms.bfd.model.rif.samhsa;
+
+import gov.cms.bfd.model.rda.entities.RdaFissClaim;
+import gov.cms.bfd.model.rda.entities.RdaFissDiagnosisCode;
+import gov.cms.bfd.model.rda.entities.RdaFissProcCode;
+import gov.cms.bfd.model.rda.entities.RdaFissRevenueLine;
+import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
+import gov.cms.bfd.model.rda.entities.RdaMcsDetail;
+import gov.cms.bfd.model.rda.entities.RdaMcsDiagnosisCode;
+import gov.cms.bfd.model.rif.entities.CarrierClaim;
+import gov.cms.bfd.model.rif.entities.DMEClaim;
+import gov.cms.bfd.model.rif.entities.HHAClaim;
+import gov.cms.bfd.model.rif.entities.HospiceClaim;
+import gov.cms.bfd.model.rif.entities.InpatientClaim;
+import gov.cms.bfd.model.rif.entities.OutpatientClaim;
+import gov.cms.bfd.model.rif.entities.PartDEvent;
+import gov.cms.bfd.model.rif.entities.SNFClaim;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Determines whether CCW and RDA claim entities contain SAMHSA-related codes. This is the only
+ * implementation of the entity level SAMHSA rules: the pipeline uses it to compute the flag stored
+ * on each claim, and the server's SAMHSA matchers use it to screen claim entities before they are
+ * transformed. The rules are the same ones the server applies to the FHIR resources transformed
+ * from these entities:
+ *
+ * <ul>
+ *   <li>Inpatient, outpatient and SNF claims are checked for ICD procedure codes, and inpatient and
+ *       SNF claims for their DRG code.
+ *   <li>All CCW claims except Part D events are checked for ICD diagnosis codes (including carrier
+ *       and DME line diagnoses) and line HCPCS codes.
+ *   <li>CCW ICD codes with a version other than blank, <code>9</code> or <code>0</code> are always
+ *       treated as SAMHSA-related, since their code system is unknown.
+ *   <li>FISS procedure and diagnosis codes are ICD-9 codes when the claim's statement covers a
+ *       period ending before the ICD-10 cutover date, and ICD-10 codes otherwise.
+ *   <li>FISS revenue lines with a HCPCS code are always treated as SAMHSA-related, since the server
+ *       does not recognize the coding system they are transformed with.
+ *   <li>MCS diagnosis codes with an ICD type other than <code>9</code> or <code>0</code> are always
+ *       treated as SAMHSA-related, and MCS detail procedure codes are checked as CPT codes.
+ * </ul>
+ *
+ * <p>Any change to these rules must increment {@link SamhsaCodeSet#CODE_LIST_VERSION} so that
+ * stored flags computed with the old rules are recomputed.
+ *
+ * <p>Instances are thread-safe.
+ */
+public final class SamhsaClaimClassifier {
+  /** The ICD version code used for ICD-9 codes. A missing version also means ICD-9. */
+  private static final char ICD_9_VERSION = '9';
+
+  /** The ICD version code used for ICD-10 codes. */
+  private static final char ICD_10_VERSION = '0';
+
+  /** FISS claims with a statement end date before this date use ICD-9 codes. */
+  private static final LocalDate FISS_ICD_9_CUTOFF_DATE = LocalDate.of(2015, 10, 1);
+
+  /** The MCS ICD type used for ICD-9 codes. */
+  private static final String MCS_ICD_9_TYPE = "9";
+
+  /** The MCS ICD type used for ICD-10 codes. */
+  private static final String MCS_ICD_10_TYPE = "0";
+
+  /** The SAMHSA-related codes. */
+  private final SamhsaCodeSet codeSet;
+
+  /**
+   * Creates an instance that uses the given codes.
+   *
+   * @param codeSet the SAMHSA-related codes
+   */
+  public SamhsaClaimClassifier(SamhsaCodeSet codeSet) {
+    this.codeSet = codeSet;
+  }
+
+  /**
+   * Determines whether the given claim entity contains SAMHSA-related codes. Any stored SAMHSA flag
+   * on the claim is ignored.
+   *
+   * @param claim the claim entity, which must be one of the CCW claim entity classes, a {@link
+   *     RdaFissClaim} or a {@link RdaMcsClaim}
+   * @return <code>true</code> if the claim is SAMHSA-related
+   * @throws IllegalArgumentException if the claim is not a supported claim entity
+   */
+  public boolean isSamhsaClaim(Object claim) {
+    if (claim instanceof InpatientClaim c) {
+      return containsSamhsaProcedureCode(c.getProcedureCodes(), c.getProcedureCodeVersions())
+          || c.getDiagnosisRelatedGroupCd().filter(codeSet::isSamhsaDrgCode).isPresent()
+          || containsSamhsaDiagnosisCode(c.getDiagnosisCodes(), c.getDiagnosisCodeVersions())
+          || c.getLines().stream().anyMatch(l -> isSamhsaHcpcsCode(l.getHcpcsCode()));
+    } else if (claim instanceof OutpatientClaim c) {
+      return containsSamhsaProcedureCode(c.getProcedureCodes(), c.getProcedureCodeVersions())
+          || containsSamhsaDiagnosisCode(c.getDiagnosisCodes(), c.getDiagnosisCodeVersions())
+          || c.getLines().stream().anyMatch(l -> isSamhsaHcpcsCode(l.getHcpcsCode()));
+    } else if (claim instanceof SNFClaim c) {
+      return containsSamhsaProcedureCode(c.getProcedureCodes(), c.getProcedureCodeVersions())
+          || c.getDiagnosisRelatedGroupCd().filter(codeSet::isSamhsaDrgCode).isPresent()
+          || containsSamhsaDiagnosisCode(c.getDiagnosisCodes(), c.getDiagnosisCodeVersions())
+          || c.getLines().stream().anyMatch(l -> isSamhsaHcpcsCode(l.getHcpcsCode()));
+    } else if (claim instanceof CarrierClaim c) {
+      return containsSamhsaDiagnosisCode(c.getDiagnosisCodes(), c.getDiagnosisCodeVersions())
+          || c.getLines().stream()
+              .anyMatch(
+                  l ->
+                      isSamhsaDiagnosisCode(l.getDiagnosisCode(), l.getDiagnosisCodeVersion())
+                          || isSamhsaHcpcsCode(l.getHcpcsCode()));
+    } else if (claim instanceof DMEClaim c) {
+      return containsSamhsaDiagnosisCode(c.getDiagnosisCodes(), c.getDiagnosisCodeVersions())
+          || c.getLines().stream()
+              .anyMatch(
+                  l ->
+                      isSamhsaDiagnosisCode(l.getDiagnosisCode(), l.getDiagnosisCodeVersion())
+                          || isSamhsaHcpcsCode(l.getHcpcsCode()));
+    } else if (claim instanceof HHAClaim c) {
+      return containsSamhsaDiagnosisCode(c.getDiagnosisCodes(), c.getDiagnosisCodeVersions())
+          || c.getLines().stream().anyMatch(l -> isSamhsaHcpcsCode(l.getHcpcsCode()));
+    } else if (claim instanceof HospiceClaim c) {
+      return containsSamhsaDiagnosisCode(c.getDiagnosisCodes(), c.getDiagnosisCodeVersions())
+          || c.getLines().stream().anyMatch(l -> isSamhsaHcpcsCode(l.getHcpcsCode()));
+    } else if (claim instanceof PartDEvent) {
+      // There are no SAMHSA fields in PDE claims
+      return false;
+    } else if (claim instanceof RdaFissClaim fissClaim) {
+      return isSamhsaFissClaim(fissClaim);
+    } else if (claim instanceof RdaMcsClaim mcsClaim) {
+      return isSamhsaMcsClaim(mcsClaim);
+    }
+
+    throw new IllegalArgumentException(
+        "Unsupported claim entity: " + claim.getClass().getCanonicalName());
+  }
+
+  /**
+   * Computes and stores the SAMHSA flag of the given CCW claim, tagged with the current {@link
+   * SamhsaCodeSet#CODE_LIST_VERSION}.
+   *
+   * @param claim the claim to update
+   * @return the computed flag
+   */
+  public boolean updateSamhsaFlag(SamhsaFlaggedClaim claim) {
+    final boolean samhsa = isSamhsaClaim(claim);
+    claim.setSamhsaFlag(Optional.of(samhsa));
+    claim.setSamhsaCodeListVersion(Optional.of(SamhsaCodeSet.CODE_LIST_VERSION));
+    return samhsa;
+  }
+
+  /**
+   * Computes and stores the SAMHSA flag of the given claim, tagged with the current {@link
+   * SamhsaCodeSet#CODE_LIST_VERSION}.
+   *
+   * @param claim the claim to update
+   * @return the computed flag
+   */
+  public boolean updateSamhsaFlag(RdaFissClaim claim) {
+    final boolean samhsa = isSamhsaFissClaim(claim);
+    claim.setSamhsaFlag(samhsa);
+    claim.setSamhsaCodeListVersion(SamhsaCodeSet.CODE_LIST_VERSION);
+    return samhsa;
+  }
+
+  /**
+   * Computes and stores the SAMHSA flag of the given claim, tagged with the current {@link
+   * SamhsaCodeSet#CODE_LIST_VERSION}.
+   *
+   * @param claim the claim to update
+   * @return the computed flag
+   */
+  public boolean updateSamhsaFlag(RdaMcsClaim claim) {
+    final boolean samhsa = isSamhsaMcsClaim(claim);
+    claim.setSamhsaFlag(samhsa);
+    claim.setSamhsaCodeListVersion(SamhsaCodeSet.CODE_LIST_VERSION);
+    return samhsa;
+  }
+
+  /**
+   * Checks if any of the given ICD procedure codes are SAMHSA-related. The codes and versions are
+   * keyed by the entity property names, as produced by the generated claim entity accessors.
+   *
+   * @param codes the procedure codes, keyed by property name (e.g. <code>procedure1Code</code>)
+   * @param codeVersions the procedure code versions, keyed by property name (e.g. <code>
+   *     procedure1CodeVersion</code>)
+   * @return <code>true</code> if any present procedure code is SAMHSA-related
+   */
+  private boolean containsSamhsaProcedureCode(
+      Map<String, Optional<String>> codes, Map<String, Optional<Character>> codeVersions) {
+    return codes.entrySet().stream()
+        .filter(e -> e.getValue().isPresent())
+        .anyMatch(
+            e -> isSamhsaProcedureCode(e.getValue().get(), versionFor(e.getKey(), codeVersions)));
+  }
+
+  /**
+   * Checks if any of the given ICD diagnosis codes are SAMHSA-related. The codes and versions are
+   * keyed by the entity property names, as produced by the generated claim entity accessors.
+   *
+   * @param codes the diagnosis codes, keyed by property name (e.g. <code>diagnosis1Code</code>)
+   * @param codeVersions the diagnosis code versions, keyed by property name (e.g. <code>
+   *     diagnosis1CodeVersion</code>)
+   * @return <code>true</code> if any present diagnosis code is SAMHSA-related
+   */
+  private boolean containsSamhsaDiagnosisCode(
+      Map<String, Optional<String>> codes, Map<String, Optional<Character>> codeVersions) {
+    return codes.entrySet().stream()
+        .filter(e -> e.getValue().isPresent())
+        .anyMatch(
+            e -> isSamhsaDiagnosisCode(e.getValue().get(), versionFor(e.getKey(), codeVersions)));
+  }
+
+  /**
+   * Checks if the given optional ICD diagnosis code is SAMHSA-related.
+   *
+   * @param code the diagnosis code, if any
+   * @param codeVersion the diagnosis code version, if any
+   * @return <code>true</code> if the code is present and SAMHSA-related
+   */
+  private boolean isSamhsaDiagnosisCode(Optional<String> code, Optional<Character> codeVersion) {
+    return code.isPresent() && isSamhsaDiagnosisCode(code.get(), codeVersion.orElse(null));
+  }
+
+  /**
+   * Checks if the given ICD diagnosis code is SAMHSA-related.
+   *
+   * @param code the diagnosis code
+   * @param version the ICD version of the code, or <code>null</code> if it has none
+   * @return <code>true</code> if the code is SAMHSA-related or its version is unknown
+   */
+  private boolean isSamhsaDiagnosisCode(String code, Character version) {
+    if (version == null || version == ICD_9_VERSION) {
+      return codeSet.isSamhsaIcd9DiagnosisCode(code);
+    } else if (version == ICD_10_VERSION) {
+      return codeSet.isSamhsaIcd10DiagnosisCode(code);
+    } else {
+      // Fail safe: if we don't know the ICD version, assume the code is SAMHSA.
+      return true;
+    }
+  }
+
+  /**
+   * Checks if the given ICD procedure code is SAMHSA-related.
+   *
+   * @param code the procedure code
+   * @param version the ICD version of the code, or <code>null</code> if it has none
+   * @return <code>true</code> if the code is SAMHSA-related or its version is unknown
+   */
+  private boolean isSamhsaProcedureCode(String code, Character version) {
+    if (version == null || version == ICD_9_VERSION) {
+      return codeSet.isSamhsaIcd9ProcedureCode(code);
+    } else if (version == ICD_10_VERSION) {
+      return codeSet.isSamhsaIcd10ProcedureCode(code);
+    } else {
+      // Fail safe: if we don't know the ICD version, assume the code is SAMHSA.
+      return true;
+    }
+  }
+
+  /**
+   * Checks if the given optional line HCPCS code is a SAMHSA CPT code.
+   *
+   * @param hcpcsCode the line HCPCS code, if any
+   * @return <code>true</code> if the code is present and SAMHSA-related
+   */
+  private boolean isSamhsaHcpcsCode(Optional<String> hcpcsCode) {
+    return hcpcsCode.filter(codeSet::isSamhsaCptCode).isPresent();
+  }
+
+  /**
+   * Checks the procedure, diagnosis and revenue line codes of a {@link RdaFissClaim}.
+   *
+   * @param claim the claim to check
+   * @return <code>true</code> if the claim is SAMHSA-related
+   */
+  private boolean isSamhsaFissClaim(RdaFissClaim claim) {
+    final boolean isIcd9 =
+        claim.getStmtCovToDate() != null
+            && claim.getStmtCovToDate().isBefore(FISS_ICD_9_CUTOFF_DATE);
+
+    return streamOf(claim.getProcCodes())
+            .map(RdaFissProcCode::getProcCode)
+            .anyMatch(
+                code ->
+                    isIcd9
+                        ? codeSet.isSamhsaIcd9ProcedureCode(code)
+                        : codeSet.isSamhsaIcd10ProcedureCode(code))
+        || streamOf(claim.getDiagCodes())
+            .map(RdaFissDiagnosisCode::getDiagCd2)
+            .filter(SamhsaClaimClassifier::isNotBlank)
+            .anyMatch(
+                code ->
+                    isIcd9
+                        ? codeSet.isSamhsaIcd9DiagnosisCode(code)
+                        : codeSet.isSamhsaIcd10DiagnosisCode(code))
+        || streamOf(claim.getRevenueLines())
+            .map(RdaFissRevenueLine::getHcpcCd)
+            .anyMatch(SamhsaClaimClassifier::isNotBlank);
+  }
+
+  /**
+   * Checks the diagnosis and detail codes of a {@link RdaMcsClaim}.
+   *
+   * @param claim the claim to check
+   * @return <code>true</code> if the claim is SAMHSA-related
+   */
+  private boolean isSamhsaMcsClaim(RdaMcsClaim claim) {
+    return streamOf(claim.getDiagCodes())
+            .filter(d -> isNotBlank(d.getIdrDiagCode()))
+            .anyMatch(this::isSamhsaMcsDiagnosisCode)
+        || streamOf(claim.getDetails())
+            .map(RdaMcsDetail::getIdrProcCode)
+            .filter(SamhsaClaimClassifier::isNotBlank)
+            .anyMatch(codeSet::isSamhsaCptCode);
+  }
+
+  /**
+   * Checks if the given MCS diagnosis code is SAMHSA-related.
+   *
+   * @param diagnosisCode the diagnosis code to check
+   * @return <code>true</code> if the code is SAMHSA-related or its ICD type is unknown
+   */
+  private boolean isSamhsaMcsDiagnosisCode(RdaMcsDiagnosisCode diagnosisCode) {
+    final String icdType = diagnosisCode.getIdrDiagIcdType();
+    if (MCS_ICD_9_TYPE.equals(icdType)) {
+      return codeSet.isSamhsaIcd9DiagnosisCode(diagnosisCode.getIdrDiagCode());
+    } else if (MCS_ICD_10_TYPE.equals(icdType)) {
+      return codeSet.isSamhsaIcd10DiagnosisCode(diagnosisCode.getIdrDiagCode());
+    } else {
+      // Fail safe: if we don't know the ICD version, assume the code is SAMHSA.
+      return true;
+    }
+  }
+
+  /**
+   * Looks up the version of an ICD code using the property name of the code.
+   *
+   * @param codeKey the property name of the code (e.g. <code>diagnosis1Code</code>)
+   * @param codeVersions the code versions, keyed by property name
+   * @return the code's version, or <code>null</code> if it has none
+   */
+  private static Character versionFor(
+      String codeKey, Map<String, Optional<Character>> codeVersions) {
+    return codeVersions.getOrDefault(codeKey + "Version", Optional.empty()).orElse(null);
+  }
+
+  /**
+   * Streams the given collection, treating <code>null</code> as empty.
+   *
+   * @param values the collection, possibly <code>null</code>
+   * @param <T> the element type
+   * @return the stream
+   */
+  private static <T> Stream<T> streamOf(Collection<T> values) {
+    return values == null ? Stream.empty() : values.stream();
+  }
+
+  /**
+   * Checks if the given string is neither <code>null</code> nor blank.
+   *
+   * @param value the value to check
+   * @return <code>true</code> if the value has a non-whitespace character
+   */
+  private static boolean isNotBlank(String value) {
+    return value != null && !value.isBlank();
+  }
+}
@@ -0,0 +1,269 @@
+package gov.cms.bfd.model.rif.samhsa;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+
+/**
+ * The lists of SAMHSA-related codes, loaded from the <code>samhsa-related-codes/codes-*.csv</code>
+ * classpath resources. The codes are normalized as they are loaded, and the lookup methods
+ * normalize their input the same way.
+ *
+ * <p>This class is shared by the pipeline, which stores a SAMHSA flag on each claim as it is
+ * loaded, and the server, which filters claims using that flag. Each stored flag is tagged with the
+ * {@link #CODE_LIST_VERSION} it was computed with so that it can be trusted only while the code
+ * lists (and the rules in {@link SamhsaClaimClassifier}) are unchanged.
+ *
+ * <p>Instances are immutable and thread-safe.
+ */
+public final class SamhsaCodeSet {
+  /**
+   * The version of the code lists and classification rules. This <strong>must</strong> be
+   * incremented whenever any of the <code>samhsa-related-codes/codes-*.csv</code> files or the
+   * classification rules change, so that previously stored SAMHSA flags are recomputed by the
+   * backfill job and ignored by the server in the meantime. The partial indexes the backfill job
+   * pages through name this version in their predicate (see <code>V117__add_claim_samhsa_flag.sql
+   * </code>), so the migration that accompanies an increment must recreate them.
+   */
+  public static final short CODE_LIST_VERSION = 1;
+
+  /** The classpath directory containing the SAMHSA-related code CSV files. */
+  private static final String CODES_RESOURCE_DIR = "samhsa-related-codes/";
+
+  /** The {@link CSVFormat} used to parse the SAMHSA-related code CSV files. */
+  private static final CSVFormat CSV_FORMAT = CSVFormat.EXCEL.withHeader();
+
+  /** The normalized DRG codes. */
+  @Getter private final Set<String> drgCodes;
+
+  /** The normalized CPT codes. */
+  @Getter private final Set<String> cptCodes;
+
+  /** The normalized ICD9 procedure codes. */
+  @Getter private final Set<String> icd9ProcedureCodes;
+
+  /** The normalized ICD9 diagnosis codes. */
+  @Getter private final Set<String> icd9DiagnosisCodes;
+
+  /** The normalized ICD10 procedure codes. */
+  @Getter private final Set<String> icd10ProcedureCodes;
+
+  /** The normalized ICD10 diagnosis codes. */
+  @Getter private final Set<String> icd10DiagnosisCodes;
+
+  /**
+   * Creates an instance using the given sets of codes, which must already be normalized.
+   *
+   * @param drgCodes the DRG codes
+   * @param cptCodes the CPT codes
+   * @param icd9ProcedureCodes the ICD9 procedure codes
+   * @param icd9DiagnosisCodes the ICD9 diagnosis codes
+   * @param icd10ProcedureCodes the ICD10 procedure codes
+   * @param icd10DiagnosisCodes the ICD10 diagnosis codes
+   */
+  public SamhsaCodeSet(
+      Set<String> drgCodes,
+      Set<String> cptCodes,
+      Set<String> icd9ProcedureCodes,
+      Set<String> icd9DiagnosisCodes,
+      Set<String> icd10ProcedureCodes,
+      Set<String> icd10DiagnosisCodes) {
+    this.drgCodes = drgCodes;
+    this.cptCodes = cptCodes;
+    this.icd9ProcedureCodes = icd9ProcedureCodes;
+    this.icd9DiagnosisCodes = icd9DiagnosisCodes;
+    this.icd10ProcedureCodes = icd10ProcedureCodes;
+    this.icd10DiagnosisCodes = icd10DiagnosisCodes;
+  }
+
+  /**
+   * Gets the shared instance containing the codes loaded from the classpath. The files are only
+   * loaded the first time this is called.
+   *
+   * @return the shared instance
+   */
+  public static SamhsaCodeSet getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * Checks if the given DRG code is SAMHSA-related.
+   *
+   * @param drgCode the DRG code to check
+   * @return <code>true</code> if the code is not null and is one of the {@link #drgCodes}
+   */
+  public boolean isSamhsaDrgCode(String drgCode) {
+    return drgCode != null && drgCodes.contains(normalizeIcdCode(drgCode));
+  }
+
+  /**
+   * Checks if the given HCPCS code is a SAMHSA-related CPT code.
+   *
+   * @param hcpcsCode the HCPCS code to check
+   * @return <code>true</code> if the code is not null and is one of the {@link #cptCodes}
+   */
+  public boolean isSamhsaCptCode(String hcpcsCode) {
+    return hcpcsCode != null && cptCodes.contains(normalizeHcpcsCode(hcpcsCode));
+  }
+
+  /**
+   * Checks if the given ICD9 diagnosis code is SAMHSA-related.
+   *
+   * @param icdCode the code to check
+   * @return <code>true</code> if the code is not null and is one of the {@link #icd9DiagnosisCodes}
+   */
+  public boolean isSamhsaIcd9DiagnosisCode(String icdCode) {
+    return isSamhsaIcdCode(icdCode, icd9DiagnosisCodes);
+  }
+
+  /**
+   * Checks if the given ICD10 diagnosis code is SAMHSA-related.
+   *
+   * @param icdCode the code to check
+   * @return <code>true</code> if the code is not null and is one of the {@link
+   *     #icd10DiagnosisCodes}
+   */
+  public boolean isSamhsaIcd10DiagnosisCode(String icdCode) {
+    return isSamhsaIcdCode(icdCode, icd10DiagnosisCodes);
+  }
+
+  /**
+   * Checks if the given ICD9 procedure code is SAMHSA-related.
+   *
+   * @param icdCode the code to check
+   * @return <code>true</code> if the code is not null and is one of the {@link #icd9ProcedureCodes}
+   */
+  public boolean isSamhsaIcd9ProcedureCode(String icdCode) {
+    return isSamhsaIcdCode(icdCode, icd9ProcedureCodes);
+  }
+
+  /**
+   * Checks if the given ICD10 procedure code is SAMHSA-related.
+   *
+   * @param icdCode the code to check
+   * @return <code>true</code> if the code is not null and is one of the {@link
+   *     #icd10ProcedureCodes}
+   */
+  public boolean isSamhsaIcd10ProcedureCode(String icdCode) {
+    return isSamhsaIcdCode(icdCode, icd10ProcedureCodes);
+  }
+
+  /**
+   * Checks if the given ICD code is in the given set of normalized codes.
+   *
+   * @param icdCode the code to check
+   * @param samhsaCodes the normalized codes
+   * @return <code>true</code> if the code is not null and its normalized form is in the set
+   */
+  private static boolean isSamhsaIcdCode(String icdCode, Set<String> samhsaCodes) {
+    return icdCode != null && samhsaCodes.contains(normalizeIcdCode(icdCode));
+  }
+
+  /**
+   * Normalizes the DRG code to make for easier and more consistent comparisons.
+   *
+   * <p>Example input: MS-DRG 522 Example output: 522
+   *
+   * @param code The drg code to normalize.
+   * @return the specified DRG code, but with the "MS-DRG" prefix and space removed.
+   */
+  public static String normalizeDrgCode(String code) {
+    code = code.trim();
+    code = code.replace("MS-DRG ", "");
+    return code;
+  }
+
+  /**
+   * Normalizes the ICD code to make for easier and more consistent comparisons.
+   *
+   * @param icdCode the ICD-9 or ICD-10 diagnosis code to normalize
+   * @return the specified ICD-9 or ICD-10 code, but with whitespace trimmed, the first (if any)
+   *     decimal point removed, and converted to all-caps
+   */
+  public static String normalizeIcdCode(String icdCode) {
+    icdCode = icdCode.trim();
+    icdCode = icdCode.replaceFirst("\\.", "");
+    icdCode = icdCode.toUpperCase();
+
+    return icdCode;
+  }
+
+  /**
+   * Normalizes the HCPCS code to make for easier and more consistent comparisons.
+   *
+   * @param hcpcsCode the HCPCS code to normalize
+   * @return the specified HCPCS code, but with whitespace trimmed and converted to all-caps
+   */
+  public static String normalizeHcpcsCode(String hcpcsCode) {
+    hcpcsCode = hcpcsCode.trim();
+    hcpcsCode = hcpcsCode.toUpperCase();
+
+    return hcpcsCode;
+  }
+
+  /**
+   * Pulls codes from the given column of the given file, returning them as a list.
+   *
+   * @param csvResourceName the classpath resource name of the CSV file to parse
+   * @param columnToReturn the name of the column to return from the CSV file
+   * @return a {@link List} of values from the specified column of the specified CSV file
+   */
+  public static List<String> resourceCsvColumnToList(
+      String csvResourceName, String columnToReturn) {
+    try (InputStream csvStream =
+            Thread.currentThread().getContextClassLoader().getResourceAsStream(csvResourceName);
+        InputStreamReader csvReader = new InputStreamReader(csvStream, StandardCharsets.UTF_8);
+        CSVParser csvParser = new CSVParser(csvReader, CSV_FORMAT)) {
+      List<String> columnValues = new ArrayList<>();
+      csvParser.forEach(r -> columnValues.add(r.get(columnToReturn)));
+      return columnValues;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Loads and normalizes the codes from the given column of one of the SAMHSA-related code files.
+   *
+   * @param fileName the name of the file within the {@link #CODES_RESOURCE_DIR}
+   * @param columnName the name of the column containing the codes
+   * @param normalizer the normalization to apply to each code
+   * @return the normalized codes
+   */
+  private static Set<String> loadCodes(
+      String fileName, String columnName, UnaryOperator<String> normalizer) {
+    return resourceCsvColumnToList(CODES_RESOURCE_DIR + fileName, columnName).stream()
+        .map(normalizer)
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /** Lazily loads the shared instance the first time it is needed. */
+  private static final class InstanceHolder {
+    /** The shared instance. */
+    private static final SamhsaCodeSet INSTANCE =
+        new SamhsaCodeSet(
+            loadCodes("codes-drg.csv", "MS-DRGs", SamhsaCodeSet::normalizeDrgCode),
+            loadCodes("codes-cpt.csv", "CPT Code", SamhsaCodeSet::normalizeHcpcsCode),
+            loadCodes("codes-icd-9-procedure.csv", "ICD-9-CM", SamhsaCodeSet::normalizeIcdCode),
+            loadCodes(
+                "codes-icd-9-diagnosis.csv",
+                "ICD-9-CM Diagnosis Code",
+                SamhsaCodeSet::normalizeIcdCode),
+            loadCodes(
+                "codes-icd-10-procedure.csv", "ICD-10-PCS Code", SamhsaCodeSet::normalizeIcdCode),
+            loadCodes(
+                "codes-icd-10-diagnosis.csv",
+                "ICD-10-CM Diagnosis Code",
+                SamhsaCodeSet::normalizeIcdCode));
+  }
+}
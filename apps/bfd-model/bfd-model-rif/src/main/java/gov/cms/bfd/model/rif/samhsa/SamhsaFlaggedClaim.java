@@ -0,0 +1,50 @@
+package gov.cms.bfd.model.rif.samhsa;
+
+import java.util.Optional;
+
+/**
+ * Common interface for claim entities that store a SAMHSA flag computed when they are loaded. The
+ * flag is only meaningful when its {@link #getSamhsaCodeListVersion()} is the current {@link
+ * SamhsaCodeSet#CODE_LIST_VERSION}.
+ */
+public interface SamhsaFlaggedClaim {
+  /**
+   * Gets whether the claim contains SAMHSA-related codes.
+   *
+   * @return the SAMHSA flag, or empty if it has not been computed
+   */
+  Optional<Boolean> getSamhsaFlag();
+
+  /**
+   * Sets whether the claim contains SAMHSA-related codes.
+   *
+   * @param samhsaFlag the SAMHSA flag
+   */
+  void setSamhsaFlag(Optional<Boolean> samhsaFlag);
+
+  /**
+   * Gets the {@link SamhsaCodeSet#CODE_LIST_VERSION} that the SAMHSA flag was computed with.
+   *
+   * @return the code list version, or empty if the flag has not been computed
+   */
+  Optional<Short> getSamhsaCodeListVersion();
+
+  /**
+   * Sets the {@link SamhsaCodeSet#CODE_LIST_VERSION} that the SAMHSA flag was computed with.
+   *
+   * @param samhsaCodeListVersion the code list version
+   */
+  void setSamhsaCodeListVersion(Optional<Short> samhsaCodeListVersion);
+
+  /**
+   * Gets the stored SAMHSA flag if it was computed with the current {@link
+   * SamhsaCodeSet#CODE_LIST_VERSION}.
+   *
+   * @return the SAMHSA flag, or empty if it is missing or stale
+   */
+  default Optional<Boolean> getCurrentSamhsaFlag() {
+    return getSamhsaCodeListVersion().filter(v -> v == SamhsaCodeSet.CODE_LIST_VERSION).isPresent()
+        ? getSamhsaFlag()
+        : Optional.empty();
+  }
+}
@@ -0,0 +1,2 @@
+/** Contains the SAMHSA-related code lists and the logic used to flag SAMHSA-related claims. */
+package gov.cms.bfd.model.rif.samhsa;
@@ -0,0 +1,36 @@
+-- Adds a SAMHSA flag to each claim table, computed by the pipeline when the claim is written so
+-- that the server does not have to re-scan a claim's codes on every excludeSAMHSA=true request.
+--
+-- samhsa_code_list_version records the version of the samhsa-related-codes lists (and rules) the
+-- flag was computed with. The server only trusts a flag whose version matches its own, and the
+-- SAMHSA backfill job recomputes rows whose version is missing or stale. Both columns are nullable
+-- with no default so that adding them does not rewrite the existing tables.
+--
+-- The partial indexes the SAMHSA backfill job pages through are created concurrently by V121.
+
+alter table carrier_claims add column samhsa_flag boolean;
+alter table carrier_claims add column samhsa_code_list_version smallint;
+
+alter table dme_claims add column samhsa_flag boolean;
+alter table dme_claims add column samhsa_code_list_version smallint;
+
+alter table hha_claims add column samhsa_flag boolean;
+alter table hha_claims add column samhsa_code_list_version smallint;
+
+alter table hospice_claims add column samhsa_flag boolean;
+alter table hospice_claims add column samhsa_code_list_version smallint;
+
+alter table inpatient_claims add column samhsa_flag boolean;
+alter table inpatient_claims add column samhsa_code_list_version smallint;
+
+alter table outpatient_claims add column samhsa_flag boolean;
+alter table outpatient_claims add column samhsa_code_list_version smallint;
+
+alter table snf_claims add column samhsa_flag boolean;
+alter table snf_claims add column samhsa_code_list_version smallint;
+
+alter table rda.fiss_claims add column samhsa_flag boolean;
+alter table rda.fiss_claims add column samhsa_code_list_version smallint;
+
+alter table rda.mcs_claims add column samhsa_flag boolean;
+alter table rda.mcs_claims add column samhsa_code_list_version smallint;
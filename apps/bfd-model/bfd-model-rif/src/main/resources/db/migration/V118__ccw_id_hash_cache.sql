@@ -0,0 +1,17 @@
+-- Adds a lookup table of previously computed HICN and MBI hashes, used by the CCW RIF pipeline so
+-- that identifiers seen in earlier loads never have to be re-hashed.
+--
+-- Rows are keyed by identifier_digest, an HMAC-SHA256 of the HICN or MBI keyed with the hash pepper,
+-- so the table never holds a plaintext identifier and its keys can't be reproduced without the
+-- pepper.
+--
+-- hasher_fingerprint identifies the hashing settings (pepper and iterations) a hash was computed
+-- with. The pipeline only trusts rows whose fingerprint matches its own settings and replaces the
+-- others as it encounters them, so changing the settings never yields stale hashes.
+
+create table ccw_id_hashes (
+    identifier_digest varchar(64) not null,
+    hash varchar(64) not null,
+    hasher_fingerprint varchar(16) not null,
+    constraint ccw_id_hashes_pkey primary key (identifier_digest)
+);
@@ -0,0 +1,16 @@
+-- Adds a compact binary column for the beneficiaries of each loaded batch. The pipeline writes the
+-- bene ids of a batch sorted and delta/varint encoded into beneficiaries_packed (see LoadedBatch and
+-- PackedBeneficiaryIds), which lets the server rebuild its Bloom filters without splitting and
+-- parsing strings.
+--
+-- The comma separated beneficiaries column is still written for every new row, so that servers from
+-- the previous release keep working during a rolling deploy. Until it is removed, new rows take a
+-- few more bytes per bene id than they did before this migration. It is removed in two steps:
+--
+--   1. In the release after this one, once every server reads beneficiaries_packed, a migration
+--      drops the not null constraint on beneficiaries and the pipeline stops writing it.
+--   2. Loaded batches are deleted along with their files after 40 days (RifLoader
+--      MAX_FILE_AGE_DAYS). Once that long has passed since step 1, no row still depends on the
+--      string, so a migration drops the column and LoadedBatch loses its fallback for it.
+
+alter table loaded_batches add column beneficiaries_packed bytea;
@@ -0,0 +1,19 @@
+-- Adds a table of prebuilt Bloom filters, one per completely loaded file. The CCW pipeline writes a
+-- file's filter of updated bene ids once all of its batches have been loaded, and the server reads
+-- these filters directly instead of rebuilding them from loaded_batches on every node. Files that
+-- are still being loaded (or whose load was interrupted) have no row here, and the server keeps
+-- building their filters from loaded_batches.
+--
+-- last_updated is the latest loaded_batches.created included in the filter, which lets the server
+-- verify that a filter covers every batch of its file.
+
+create table loaded_file_filters (
+    loaded_file_id bigint not null,
+    batches_count int not null,
+    last_updated timestamp with time zone not null,
+    bloom_filter bytea not null,
+    created timestamp with time zone not null,
+    constraint loaded_file_filters_pkey primary key (loaded_file_id),
+    constraint loaded_file_filters_loaded_file_id foreign key (loaded_file_id)
+        references loaded_files (loaded_file_id)
+);
@@ -0,0 +1,39 @@
+-- Adds a partial index on each claim table's rows that have no SAMHSA flag yet, which is what the
+-- SAMHSA backfill job pages through (by claim id) on every run. Once the backfill has caught up the
+-- indexes are nearly empty, since the pipeline flags every claim it writes, so the periodic runs
+-- stay cheap instead of rescanning the whole table.
+--
+-- The predicate does not name a code list version. Rows with a stale flag only exist right after
+-- SamhsaCodeSet.CODE_LIST_VERSION is raised, when nearly every row is stale, and the backfill job
+-- pages through those by primary key instead.
+--
+-- The indexes are built concurrently so that loads and reads of these very large tables are not
+-- blocked while they are created, which means this migration cannot run in a transaction (see the
+-- matching .conf file).
+
+create index ${logic.index-create-concurrently} if not exists carrier_claims_samhsa_unflagged_idx
+    on carrier_claims (clm_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists dme_claims_samhsa_unflagged_idx
+    on dme_claims (clm_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists hha_claims_samhsa_unflagged_idx
+    on hha_claims (clm_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists hospice_claims_samhsa_unflagged_idx
+    on hospice_claims (clm_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists inpatient_claims_samhsa_unflagged_idx
+    on inpatient_claims (clm_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists outpatient_claims_samhsa_unflagged_idx
+    on outpatient_claims (clm_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists snf_claims_samhsa_unflagged_idx
+    on snf_claims (clm_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists fiss_claims_samhsa_unflagged_idx
+    on rda.fiss_claims (claim_id) where samhsa_code_list_version is null;
+
+create index ${logic.index-create-concurrently} if not exists mcs_claims_samhsa_unflagged_idx
+    on rda.mcs_claims (idr_clm_hd_icn) where samhsa_code_list_version is null;
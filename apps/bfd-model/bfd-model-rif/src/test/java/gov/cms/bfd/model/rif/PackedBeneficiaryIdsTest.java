@@ -0,0 +1,119 @@
+package gov.cms.bfd.model.rif;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link PackedBeneficiaryIds}. */
+public class PackedBeneficiaryIdsTest {
+  /** Verifies that an empty set of ids round trips and takes only the version and count bytes. */
+  @Test
+  public void testPackWhenEmptyExpectNoIds() {
+    final byte[] packed = PackedBeneficiaryIds.pack(new long[0], 0);
+
+    assertEquals(2, packed.length);
+    assertEquals(0, PackedBeneficiaryIds.count(packed));
+    assertArrayEquals(new long[0], PackedBeneficiaryIds.unpack(packed));
+  }
+
+  /** Verifies that ids come back sorted and that the input array is not modified. */
+  @Test
+  public void testPackWhenUnsortedExpectSortedIds() {
+    final long[] ids = {567834L, 3L, 1000L, 42L};
+
+    final byte[] packed = PackedBeneficiaryIds.pack(ids, ids.length);
+
+    assertArrayEquals(new long[] {3L, 42L, 1000L, 567834L}, PackedBeneficiaryIds.unpack(packed));
+    assertArrayEquals(new long[] {567834L, 3L, 1000L, 42L}, ids);
+  }
+
+  /** Verifies that duplicate ids are stored and counted once. */
+  @Test
+  public void testPackWhenDuplicatesExpectEachIdOnce() {
+    final long[] ids = {5L, 7L, 5L, 5L, 7L};
+
+    final byte[] packed = PackedBeneficiaryIds.pack(ids, ids.length);
+
+    assertEquals(2, PackedBeneficiaryIds.count(packed));
+    assertArrayEquals(new long[] {5L, 7L}, PackedBeneficiaryIds.unpack(packed));
+  }
+
+  /** Verifies that negative ids, as found in synthetic data, round trip in order. */
+  @Test
+  public void testPackWhenNegativeIdsExpectSameIds() {
+    final long[] ids = {-88888888888888L, -1L, 0L, -201L, 12345L};
+
+    final byte[] packed = PackedBeneficiaryIds.pack(ids, ids.length);
+
+    assertArrayEquals(
+        new long[] {-88888888888888L, -201L, -1L, 0L, 12345L}, PackedBeneficiaryIds.unpack(packed));
+  }
+
+  /**
+   * Verifies that the extreme ids round trip, including differences between neighbours that
+   * overflow a long.
+   */
+  @Test
+  public void testPackWhenExtremeIdsExpectSameIds() {
+    final long[] ids = {Long.MAX_VALUE, Long.MIN_VALUE, 0L, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1};
+
+    final byte[] packed = PackedBeneficiaryIds.pack(ids, ids.length);
+
+    assertArrayEquals(
+        new long[] {Long.MIN_VALUE, Long.MIN_VALUE + 1, 0L, Long.MAX_VALUE - 1, Long.MAX_VALUE},
+        PackedBeneficiaryIds.unpack(packed));
+  }
+
+  /** Verifies that close together ids take far less space than their text form. */
+  @Test
+  public void testPackWhenLargeCloseIdsExpectCompactEncoding() {
+    final long[] ids = new long[1000];
+    for (int i = 0; i < ids.length; ++i) {
+      ids[i] = -10_000_000_000L + 3L * i;
+    }
+
+    final byte[] packed = PackedBeneficiaryIds.pack(ids, ids.length);
+
+    assertArrayEquals(ids, PackedBeneficiaryIds.unpack(packed));
+    // version + count (2 bytes) + first id (5 bytes) + one byte per following difference
+    assertEquals(1 + 2 + 5 + (ids.length - 1), packed.length);
+  }
+
+  /** Verifies that only the first count values of the array are encoded. */
+  @Test
+  public void testPackWhenCountSmallerThanArrayExpectOnlyLeadingIds() {
+    final byte[] packed = PackedBeneficiaryIds.pack(new long[] {9L, 2L, 4L, 1L}, 2);
+
+    assertArrayEquals(new long[] {2L, 9L}, PackedBeneficiaryIds.unpack(packed));
+  }
+
+  /** Verifies that {@link PackedBeneficiaryIds#forEach} visits the ids in ascending order. */
+  @Test
+  public void testForEachExpectAscendingIds() {
+    final byte[] packed = PackedBeneficiaryIds.pack(new long[] {30L, -10L, 20L}, 3);
+    final List<Long> visited = new ArrayList<>();
+
+    PackedBeneficiaryIds.forEach(packed, visited::add);
+
+    assertEquals(List.of(-10L, 20L, 30L), visited);
+  }
+
+  /** Verifies that empty, unknown version and truncated values are rejected. */
+  @Test
+  public void testUnpackWhenMalformedExpectException() {
+    final byte[] packed = PackedBeneficiaryIds.pack(new long[] {1L, 1_000_000L}, 2);
+    final byte[] unknownVersion = packed.clone();
+    unknownVersion[0] = 2;
+
+    assertThrows(IllegalArgumentException.class, () -> PackedBeneficiaryIds.unpack(new byte[0]));
+    assertThrows(IllegalArgumentException.class, () -> PackedBeneficiaryIds.unpack(unknownVersion));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PackedBeneficiaryIds.unpack(Arrays.copyOf(packed, packed.length - 1)));
+  }
+}
@@ -0,0 +1,178 @@
+package gov.cms.bfd.model.rif.samhsa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.cms.bfd.model.rda.entities.RdaFissClaim;
+import gov.cms.bfd.model.rda.entities.RdaFissDiagnosisCode;
+import gov.cms.bfd.model.rda.entities.RdaFissProcCode;
+import gov.cms.bfd.model.rda.entities.RdaFissRevenueLine;
+import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
+import gov.cms.bfd.model.rda.entities.RdaMcsDetail;
+import gov.cms.bfd.model.rda.entities.RdaMcsDiagnosisCode;
+import java.time.LocalDate;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SamhsaClaimClassifier}. */
+public class SamhsaClaimClassifierTest {
+  /** A SAMHSA ICD-9 diagnosis code. */
+  private static final String ICD_9_DIAGNOSIS = "2910";
+
+  /** A SAMHSA ICD-10 diagnosis code. */
+  private static final String ICD_10_DIAGNOSIS = "F1010";
+
+  /** A SAMHSA ICD-9 procedure code. */
+  private static final String ICD_9_PROCEDURE = "9461";
+
+  /** A SAMHSA ICD-10 procedure code. */
+  private static final String ICD_10_PROCEDURE = "HZ2ZZZZ";
+
+  /** A SAMHSA CPT code. */
+  private static final String CPT = "G2215";
+
+  /** A code that is not in any of the code lists. */
+  private static final String OTHER_CODE = "1111";
+
+  /** A statement end date that means the claim uses ICD-9 codes. */
+  private static final LocalDate ICD_9_DATE = LocalDate.of(2015, 9, 30);
+
+  /** A statement end date that means the claim uses ICD-10 codes. */
+  private static final LocalDate ICD_10_DATE = LocalDate.of(2015, 10, 1);
+
+  /** The classifier being tested, using small code lists so the tests don't depend on the CSVs. */
+  private final SamhsaClaimClassifier classifier =
+      new SamhsaClaimClassifier(
+          new SamhsaCodeSet(
+              Set.of(),
+              Set.of(CPT),
+              Set.of(ICD_9_PROCEDURE),
+              Set.of(ICD_9_DIAGNOSIS),
+              Set.of(ICD_10_PROCEDURE),
+              Set.of(ICD_10_DIAGNOSIS)));
+
+  /** Verifies that FISS codes are checked against the code lists for the claim's ICD version. */
+  @Test
+  void shouldCheckFissCodesUsingStatementDateIcdVersion() {
+    assertFalse(classifier.isSamhsaClaim(fissClaim(ICD_10_DATE, null, null, null)));
+    assertFalse(classifier.isSamhsaClaim(fissClaim(ICD_10_DATE, OTHER_CODE, OTHER_CODE, null)));
+
+    assertTrue(classifier.isSamhsaClaim(fissClaim(ICD_10_DATE, ICD_10_DIAGNOSIS, null, null)));
+    assertFalse(classifier.isSamhsaClaim(fissClaim(ICD_9_DATE, ICD_10_DIAGNOSIS, null, null)));
+    assertTrue(classifier.isSamhsaClaim(fissClaim(ICD_9_DATE, ICD_9_DIAGNOSIS, null, null)));
+
+    assertTrue(classifier.isSamhsaClaim(fissClaim(ICD_10_DATE, null, ICD_10_PROCEDURE, null)));
+    assertFalse(classifier.isSamhsaClaim(fissClaim(ICD_10_DATE, null, ICD_9_PROCEDURE, null)));
+    assertTrue(classifier.isSamhsaClaim(fissClaim(ICD_9_DATE, null, ICD_9_PROCEDURE, null)));
+
+    // claims without a statement date use ICD-10
+    assertTrue(classifier.isSamhsaClaim(fissClaim(null, ICD_10_DIAGNOSIS, null, null)));
+  }
+
+  /**
+   * Verifies that any FISS revenue line HCPCS code makes the claim SAMHSA-related, since the server
+   * does not recognize the coding system those codes are transformed with.
+   */
+  @Test
+  void shouldTreatAnyFissRevenueLineHcpcsCodeAsSamhsa() {
+    assertTrue(classifier.isSamhsaClaim(fissClaim(ICD_10_DATE, null, null, OTHER_CODE)));
+    assertFalse(classifier.isSamhsaClaim(fissClaim(ICD_10_DATE, null, null, " ")));
+  }
+
+  /** Verifies that MCS diagnosis codes are checked using their ICD type. */
+  @Test
+  void shouldCheckMcsDiagnosisCodesUsingIcdType() {
+    assertFalse(classifier.isSamhsaClaim(mcsClaim("0", OTHER_CODE, null)));
+    assertTrue(classifier.isSamhsaClaim(mcsClaim("0", ICD_10_DIAGNOSIS, null)));
+    assertFalse(classifier.isSamhsaClaim(mcsClaim("9", ICD_10_DIAGNOSIS, null)));
+    assertTrue(classifier.isSamhsaClaim(mcsClaim("9", ICD_9_DIAGNOSIS, null)));
+
+    // unknown ICD types are assumed to be SAMHSA-related, but only for non-blank codes
+    assertTrue(classifier.isSamhsaClaim(mcsClaim("X", OTHER_CODE, null)));
+    assertFalse(classifier.isSamhsaClaim(mcsClaim("X", "", null)));
+  }
+
+  /** Verifies that MCS detail procedure codes are checked as CPT codes. */
+  @Test
+  void shouldCheckMcsDetailProcedureCodes() {
+    assertFalse(classifier.isSamhsaClaim(mcsClaim(null, null, OTHER_CODE)));
+    assertTrue(classifier.isSamhsaClaim(mcsClaim(null, null, CPT.toLowerCase())));
+  }
+
+  /** Verifies that the computed flag is stored along with the current code list version. */
+  @Test
+  void shouldStoreFlagAndCodeListVersion() {
+    RdaFissClaim fissClaim = fissClaim(ICD_10_DATE, ICD_10_DIAGNOSIS, null, null);
+    assertTrue(classifier.updateSamhsaFlag(fissClaim));
+    assertEquals(Boolean.TRUE, fissClaim.getSamhsaFlag());
+    assertEquals(SamhsaCodeSet.CODE_LIST_VERSION, fissClaim.getSamhsaCodeListVersion());
+
+    RdaMcsClaim mcsClaim = mcsClaim(null, null, OTHER_CODE);
+    assertFalse(classifier.updateSamhsaFlag(mcsClaim));
+    assertEquals(Boolean.FALSE, mcsClaim.getSamhsaFlag());
+    assertEquals(SamhsaCodeSet.CODE_LIST_VERSION, mcsClaim.getSamhsaCodeListVersion());
+  }
+
+  /** Verifies that claims other than the RDA claim entities are rejected. */
+  @Test
+  void shouldRejectUnsupportedClaims() {
+    assertThrows(IllegalArgumentException.class, () -> classifier.isSamhsaClaim("not a claim"));
+  }
+
+  /**
+   * Creates a FISS claim with at most one of each kind of code.
+   *
+   * @param stmtCovToDate the statement end date
+   * @param diagnosisCode the diagnosis code, or null for none
+   * @param procedureCode the procedure code, or null for none
+   * @param hcpcsCode the revenue line HCPCS code, or null for no revenue line
+   * @return the claim
+   */
+  private static RdaFissClaim fissClaim(
+      LocalDate stmtCovToDate, String diagnosisCode, String procedureCode, String hcpcsCode) {
+    return RdaFissClaim.builder()
+        .claimId("claim")
+        .stmtCovToDate(stmtCovToDate)
+        .diagCodes(
+            diagnosisCode == null
+                ? Set.of()
+                : Set.of(RdaFissDiagnosisCode.builder().diagCd2(diagnosisCode).build()))
+        .procCodes(
+            procedureCode == null
+                ? Set.of()
+                : Set.of(RdaFissProcCode.builder().procCode(procedureCode).build()))
+        .revenueLines(
+            hcpcsCode == null
+                ? Set.of()
+                : Set.of(RdaFissRevenueLine.builder().hcpcCd(hcpcsCode).build()))
+        .build();
+  }
+
+  /**
+   * Creates a MCS claim with at most one diagnosis code and one detail.
+   *
+   * @param icdType the diagnosis code ICD type
+   * @param diagnosisCode the diagnosis code, or null for none
+   * @param procedureCode the detail procedure code, or null for no detail
+   * @return the claim
+   */
+  private static RdaMcsClaim mcsClaim(String icdType, String diagnosisCode, String procedureCode) {
+    return RdaMcsClaim.builder()
+        .idrClmHdIcn("claim")
+        .diagCodes(
+            diagnosisCode == null
+                ? Set.of()
+                : Set.of(
+                    RdaMcsDiagnosisCode.builder()
+                        .idrDiagIcdType(icdType)
+                        .idrDiagCode(diagnosisCode)
+                        .build()))
+        .details(
+            procedureCode == null
+                ? Set.of()
+                : Set.of(RdaMcsDetail.builder().idrProcCode(procedureCode).build()))
+        .build();
+  }
+}
@@ -19,6 +19,7 @@ import gov.cms.bfd.pipeline.rda.grpc.source.RdaVersion;
 import gov.cms.bfd.pipeline.rda.grpc.source.StandardGrpcRdaSource;
 import gov.cms.bfd.pipeline.sharedutils.IdHasher;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3ClientConfig;
+import gov.cms.bfd.pipeline.sharedutils.samhsa.SamhsaBackfillJob;
 import gov.cms.bfd.sharedutils.config.AppConfigurationException;
 import gov.cms.bfd.sharedutils.config.AwsClientConfig;
 import gov.cms.bfd.sharedutils.config.BaseAppConfiguration;
@@ -167,6 +168,71 @@ public final class AppConfiguration extends BaseAppConfiguration {
   public static final String SSM_PATH_RIF_JOB_QUEUE_SIZE_MULTIPLE_CLAIMS =
       "ccw/job/claims/queue_size_multiple";
 
+  /**
+   * The path of the SSM parameter that should be used to provide the maximum number of non
+   * beneficiary RIF files from a single manifest that can be loaded at the same time. Defaults to
+   * one, which loads the files one after another.
+   *
+   * <p>Each file being loaded uses its own set of claim loader threads, so this is also limited to
+   * the number of files whose loader threads fit into the database connection pool.
+   */
+  public static final String SSM_PATH_RIF_JOB_CONCURRENT_FILES_CLAIMS =
+      "ccw/job/claims/concurrent_file_count";
+
+  /**
+   * The path of the SSM parameter that should be used to enable writing newly inserted claims to
+   * the database using PostgreSQL's {@code COPY} command rather than individual JPA inserts. Only
+   * applies when idempotency is not required. Defaults to false.
+   */
+  public static final String SSM_PATH_RIF_JOB_COPY_INSERTS_CLAIMS =
+      "ccw/job/claims/copy_inserts_enabled";
+
+  /**
+   * The path of the SSM parameter that should be used to enable loading the current versions of the
+   * beneficiaries updated by a batch with one query per batch, rather than one query per record.
+   * Defaults to true.
+   */
+  public static final String SSM_PATH_RIF_JOB_BENEFICIARY_PREFETCH_ENABLED =
+      "ccw/job/beneficiary_prefetch_enabled";
+
+  /**
+   * The path of the SSM parameter that should be used to enable looking up and storing the HICN and
+   * MBI hashes of CCW beneficiaries in the {@code ccw_id_hashes} table, rather than only caching
+   * them in memory. Defaults to false.
+   */
+  public static final String SSM_PATH_RIF_JOB_ID_HASH_DATABASE_CACHE_ENABLED =
+      "ccw/job/id_hash_database_cache_enabled";
+
+  /**
+   * The path of the SSM parameter that should be used to enable reading RIF files with the
+   * allocation-light {@link gov.cms.bfd.pipeline.ccw.rif.extract.RifRecordReader} rather than
+   * commons-csv. Defaults to false.
+   */
+  public static final String SSM_PATH_RIF_JOB_RECORD_READER_ENABLED =
+      "ccw/job/record_reader_enabled";
+
+  /**
+   * The path of the SSM parameter that should be used to enable parsing RIF files while they are
+   * streamed from S3 using parallel ranged GETs, rather than after they have been downloaded.
+   * Defaults to false.
+   */
+  public static final String SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_ENABLED =
+      "ccw/job/streaming_download/enabled";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the number of bytes requested by
+   * each ranged GET when streaming downloads are enabled.
+   */
+  public static final String SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_CHUNK_SIZE_BYTES =
+      "ccw/job/streaming_download/chunk_size_bytes";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the maximum number of ranged GETs
+   * in flight per file when streaming downloads are enabled.
+   */
+  public static final String SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_PARALLELISM =
+      "ccw/job/streaming_download/parallelism";
+
   /**
    * Path of the SSM parameter containing name of SQS queue to which progress messages can be sent.
    */
@@ -197,6 +263,18 @@ public final class AppConfiguration extends BaseAppConfiguration {
    */
   public static final String SSM_PATH_RDA_JOB_WRITE_THREADS = "rda/job/write_thread_count";
 
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link #getRdaLoadOptions()}
+   * {@link AbstractRdaLoadJob.Config#getTransformThreads()} value.
+   */
+  public static final String SSM_PATH_RDA_JOB_TRANSFORM_THREADS = "rda/job/transform_thread_count";
+
+  /**
+   * The path of the SSM parameter that should be used to provide the {@link #getRdaLoadOptions()}
+   * {@link AbstractRdaLoadJob.Config#shouldUseBulkWrites()} value.
+   */
+  public static final String SSM_PATH_RDA_JOB_BULK_WRITES_ENABLED = "rda/job/bulk_writes_enabled";
+
   /**
    * The path of the SSM parameter that specifies which type of RDA API server to connect to. {@link
    * RdaSourceConfig#getServerType()}
@@ -255,6 +333,13 @@ public final class AppConfiguration extends BaseAppConfiguration {
    */
   public static final String SSM_PATH_RDA_JOB_ERROR_EXPIRE_DAYS = "rda/job/error_expire_days";
 
+  /**
+   * The path of the SSM parameter that should be used to indicate the maximum gap between sequence
+   * numbers of {@link MessageError} records that are replayed using a single stream. When not set
+   * each record is replayed using its own stream.
+   */
+  public static final String SSM_PATH_RDA_JOB_DLQ_REPLAY_MAX_GAP = "rda/job/dlq_replay_max_gap";
+
   /**
    * The path of the SSM parameter that should be used to provide the {@link #getRdaLoadOptions()}
    * {@link AbstractRdaLoadJob.Config#getStartingFissSeqNum()} ()} value.
@@ -287,6 +372,20 @@ public final class AppConfiguration extends BaseAppConfiguration {
   /** The number of claims to remove as part of a single transaction during a cleanup task run. */
   public static final String SSM_PATH_CLEANUP_TRANSACTION_SIZE = "rda/cleanup/transaction_size";
 
+  /**
+   * The path of the SSM parameter that should be used to determine if the job that computes the
+   * stored SAMHSA flag of claims loaded before the flag existed (or with an older code list
+   * version) should be run.
+   */
+  public static final String SSM_PATH_SAMHSA_BACKFILL_ENABLED = "samhsa_backfill/enabled";
+
+  /** The number of claims to classify as part of a single SAMHSA backfill transaction. */
+  public static final String SSM_PATH_SAMHSA_BACKFILL_BATCH_SIZE = "samhsa_backfill/batch_size";
+
+  /** The number of seconds between runs of the SAMHSA backfill job. */
+  public static final String SSM_PATH_SAMHSA_BACKFILL_INTERVAL_SECONDS =
+      "samhsa_backfill/interval_seconds";
+
   /**
    * The path of the SSM parameter that can be set to override the RDA API Version that the running
    * job should be configured to ingest data for. The job will normally use the default value
@@ -387,6 +486,12 @@ public final class AppConfiguration extends BaseAppConfiguration {
    */
   @Nullable private final RdaLoadOptions rdaLoadOptions;
 
+  /**
+   * The SAMHSA backfill job settings. This can be null if the job is not enabled, Optional is not
+   * Serializable.
+   */
+  @Nullable private final SamhsaBackfillJob.Config samhsaBackfillConfig;
+
   /** All of the default configuration values. These will be used as the last layer in config. */
   private static final Map<String, String> DEFAULT_CONFIG_VALUES =
       ImmutableMap.<String, String>builder()
@@ -405,6 +510,8 @@ public final class AppConfiguration extends BaseAppConfiguration {
           .put(
               SSM_PATH_RDA_GRPC_SECONDS_BEFORE_CONNECTION_DROP,
               String.valueOf(Duration.ofMinutes(4).toSeconds()))
+          .put(SSM_PATH_SAMHSA_BACKFILL_BATCH_SIZE, "1000")
+          .put(SSM_PATH_SAMHSA_BACKFILL_INTERVAL_SECONDS, "3600")
           .build();
 
   /**
@@ -415,16 +522,19 @@ public final class AppConfiguration extends BaseAppConfiguration {
    * @param awsClientConfig used to configure AWS services
    * @param ccwRifLoadOptions the value to use for {@link #getCcwRifLoadOptions()}
    * @param rdaLoadOptions the value to use for {@link #getRdaLoadOptions()}
+   * @param samhsaBackfillConfig the value to use for {@link #getSamhsaBackfillConfig()}
    */
   private AppConfiguration(
       MetricOptions metricOptions,
       DatabaseOptions databaseOptions,
       AwsClientConfig awsClientConfig,
       @Nullable CcwRifLoadOptions ccwRifLoadOptions,
-      @Nullable RdaLoadOptions rdaLoadOptions) {
+      @Nullable RdaLoadOptions rdaLoadOptions,
+      @Nullable SamhsaBackfillJob.Config samhsaBackfillConfig) {
     super(metricOptions, databaseOptions, awsClientConfig);
     this.ccwRifLoadOptions = ccwRifLoadOptions;
     this.rdaLoadOptions = rdaLoadOptions;
+    this.samhsaBackfillConfig = samhsaBackfillConfig;
   }
 
   /**
@@ -445,6 +555,16 @@ public final class AppConfiguration extends BaseAppConfiguration {
     return Optional.ofNullable(rdaLoadOptions);
   }
 
+  /**
+   * Gets the {@link #samhsaBackfillConfig}.
+   *
+   * @return the {@link SamhsaBackfillJob.Config} that the application will use, or empty if the
+   *     SAMHSA backfill job is not enabled
+   */
+  public Optional<SamhsaBackfillJob.Config> getSamhsaBackfillConfig() {
+    return Optional.ofNullable(samhsaBackfillConfig);
+  }
+
   @Override
   public String toString() {
     StringBuilder builder = new StringBuilder(super.toString());
@@ -453,6 +573,8 @@ public final class AppConfiguration extends BaseAppConfiguration {
     builder.append(ccwRifLoadOptions);
     builder.append(", rdaLoadOptions=");
     builder.append(rdaLoadOptions);
+    builder.append(", samhsaBackfillConfig=");
+    builder.append(samhsaBackfillConfig);
     builder.append("]");
     return builder.toString();
   }
@@ -507,13 +629,20 @@ public final class AppConfiguration extends BaseAppConfiguration {
     final var benePerformanceSettings = loadBeneficiaryPerformanceSettings(config);
     final var claimPerformanceSettings =
         loadClaimPerformanceSettings(config, benePerformanceSettings);
+    final int requestedConcurrentClaimFiles =
+        config.positiveIntValue(SSM_PATH_RIF_JOB_CONCURRENT_FILES_CLAIMS, 1);
     final int maxLoaderThreads =
         Math.max(
             benePerformanceSettings.getLoaderThreads(),
-            claimPerformanceSettings.getLoaderThreads());
+            claimPerformanceSettings.getLoaderThreads() * requestedConcurrentClaimFiles);
 
     MetricOptions metricOptions = loadMetricOptions(config);
     DatabaseOptions databaseOptions = loadDatabaseOptions(config, maxLoaderThreads);
+    final int maxConcurrentClaimFiles =
+        computeMaxConcurrentClaimFiles(
+            requestedConcurrentClaimFiles,
+            claimPerformanceSettings.getLoaderThreads(),
+            databaseOptions.getMaxPoolSize());
 
     LoadAppOptions loadOptions =
         new LoadAppOptions(
@@ -524,14 +653,23 @@ public final class AppConfiguration extends BaseAppConfiguration {
                 .build(),
             idempotencyRequired,
             benePerformanceSettings,
-            claimPerformanceSettings);
+            claimPerformanceSettings,
+            config.booleanValue(SSM_PATH_RIF_JOB_BENEFICIARY_PREFETCH_ENABLED, true),
+            config.booleanValue(SSM_PATH_RIF_JOB_ID_HASH_DATABASE_CACHE_ENABLED, false));
 
-    CcwRifLoadOptions ccwRifLoadOptions = loadCcwRifLoadOptions(config, loadOptions);
+    CcwRifLoadOptions ccwRifLoadOptions =
+        loadCcwRifLoadOptions(config, loadOptions, maxConcurrentClaimFiles);
 
     RdaLoadOptions rdaLoadOptions = loadRdaLoadOptions(config, loadOptions.getIdHasherConfig());
+    SamhsaBackfillJob.Config samhsaBackfillConfig = loadSamhsaBackfillConfig(config);
     AwsClientConfig awsClientConfig = BaseAppConfiguration.loadAwsClientConfig(config);
     return new AppConfiguration(
-        metricOptions, databaseOptions, awsClientConfig, ccwRifLoadOptions, rdaLoadOptions);
+        metricOptions,
+        databaseOptions,
+        awsClientConfig,
+        ccwRifLoadOptions,
+        rdaLoadOptions,
+        samhsaBackfillConfig);
   }
 
   /**
@@ -566,7 +704,8 @@ public final class AppConfiguration extends BaseAppConfiguration {
             SSM_PATH_RIF_JOB_BATCH_SIZE_CLAIMS, benePerformanceSettings.getRecordBatchSize()),
         config.positiveIntValue(
             SSM_PATH_RIF_JOB_QUEUE_SIZE_MULTIPLE_CLAIMS,
-            benePerformanceSettings.getTaskQueueSizeMultiple()));
+            benePerformanceSettings.getTaskQueueSizeMultiple()),
+        config.booleanValue(SSM_PATH_RIF_JOB_COPY_INSERTS_CLAIMS, false));
   }
 
   /**
@@ -600,6 +739,21 @@ public final class AppConfiguration extends BaseAppConfiguration {
     return databaseOptions.toBuilder().maxPoolSize(databaseMaxPoolSize.orElse(1)).build();
   }
 
+  /**
+   * Limits the requested number of concurrently loaded claim files to the number of files whose
+   * loader threads can all hold a database connection at the same time. At least one file is always
+   * allowed.
+   *
+   * @param requestedFiles the configured maximum number of concurrently loaded claim files
+   * @param claimLoaderThreads the number of loader threads used by each claim file
+   * @param databaseMaxPoolSize the maximum size of the database connection pool
+   * @return the number of claim files that can be loaded at the same time
+   */
+  static int computeMaxConcurrentClaimFiles(
+      int requestedFiles, int claimLoaderThreads, int databaseMaxPoolSize) {
+    return Math.max(1, Math.min(requestedFiles, databaseMaxPoolSize / claimLoaderThreads));
+  }
+
   /**
    * Loads {@link S3ClientConfig} for use in configuring S3 clients. These settings are generally
    * only changed from defaults during localstack based tests.
@@ -616,10 +770,12 @@ public final class AppConfiguration extends BaseAppConfiguration {
    *
    * @param config used to load configuration values
    * @param loadOptions the load options to use when creating the {link CcwRifLoadOptions}
+   * @param maxConcurrentClaimFiles the maximum number of claim files to load at the same time
    * @return the ccw rif load options
    */
   @Nullable
-  static CcwRifLoadOptions loadCcwRifLoadOptions(ConfigLoader config, LoadAppOptions loadOptions) {
+  static CcwRifLoadOptions loadCcwRifLoadOptions(
+      ConfigLoader config, LoadAppOptions loadOptions, int maxConcurrentClaimFiles) {
     final boolean enabled = config.booleanOption(SSM_PATH_CCW_RIF_JOB_ENABLED).orElse(true);
     if (!enabled) {
       return null;
@@ -646,13 +802,52 @@ public final class AppConfiguration extends BaseAppConfiguration {
       LayeredConfiguration.ensureAwsCredentialsConfiguredCorrectly();
     }
     final ExtractionOptions extractionOptions =
-        new ExtractionOptions(s3BucketName, allowedRifFileType, Optional.empty(), s3ClientConfig);
+        new ExtractionOptions(
+            s3BucketName,
+            allowedRifFileType,
+            Optional.empty(),
+            s3ClientConfig,
+            config.booleanValue(SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_ENABLED, false),
+            config.positiveIntValue(
+                SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_CHUNK_SIZE_BYTES,
+                ExtractionOptions.DEFAULT_STREAMING_CHUNK_SIZE_BYTES),
+            config.positiveIntValue(
+                SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_PARALLELISM,
+                ExtractionOptions.DEFAULT_STREAMING_PARALLELISM));
     final Optional<Duration> runInterval =
         config
             .positiveIntOptionZeroOK(SSM_PATH_CCW_RIF_JOB_INTERVAL_SECONDS)
             .map(Duration::ofSeconds);
     final Optional<String> sqsQueueName = config.stringOption(CCW_JOB_SQS_STATUS_QUEUE_NAME);
-    return new CcwRifLoadOptions(extractionOptions, loadOptions, runInterval, sqsQueueName);
+    final boolean recordReaderEnabled =
+        config.booleanValue(SSM_PATH_RIF_JOB_RECORD_READER_ENABLED, false);
+    return new CcwRifLoadOptions(
+        extractionOptions,
+        loadOptions,
+        runInterval,
+        sqsQueueName,
+        maxConcurrentClaimFiles,
+        recordReaderEnabled);
+  }
+
+  /**
+   * Reads the SAMHSA backfill job settings from the {@link ConfigLoader}.
+   *
+   * @param config used to load configuration values
+   * @return the job settings, or null if the job is not enabled
+   */
+  @Nullable
+  static SamhsaBackfillJob.Config loadSamhsaBackfillConfig(ConfigLoader config) {
+    final boolean enabled = config.booleanOption(SSM_PATH_SAMHSA_BACKFILL_ENABLED).orElse(false);
+    if (!enabled) {
+      return null;
+    }
+
+    return SamhsaBackfillJob.Config.builder()
+        .batchSize(config.positiveIntValue(SSM_PATH_SAMHSA_BACKFILL_BATCH_SIZE))
+        .runInterval(
+            Duration.ofSeconds(config.positiveIntValue(SSM_PATH_SAMHSA_BACKFILL_INTERVAL_SECONDS)))
+        .build();
   }
 
   /**
@@ -678,6 +873,8 @@ public final class AppConfiguration extends BaseAppConfiguration {
         .map(seq -> Math.max(1L, seq))
         .ifPresent(jobConfig::startingMcsSeqNum);
     config.booleanOption(SSM_PATH_PROCESS_DLQ).ifPresent(jobConfig::processDLQ);
+    config.booleanOption(SSM_PATH_RDA_JOB_BULK_WRITES_ENABLED).ifPresent(jobConfig::bulkWrites);
+    config.intOption(SSM_PATH_RDA_JOB_TRANSFORM_THREADS).ifPresent(jobConfig::transformThreads);
     config.booleanOption(SSM_PATH_CLEANUP_ENABLED).ifPresent(jobConfig::runCleanup);
     config.intOption(SSM_PATH_CLEANUP_RUN_SIZE).ifPresent(jobConfig::cleanupRunSize);
     config
@@ -716,6 +913,7 @@ public final class AppConfiguration extends BaseAppConfiguration {
         .authenticationToken(config.stringOptionEmptyOK(SSM_PATH_RDA_GRPC_AUTH_TOKEN).orElse(null))
         .messageErrorExpirationDays(
             config.intOption(SSM_PATH_RDA_JOB_ERROR_EXPIRE_DAYS).orElse(null))
+        .dlqReplayMaxGap(config.intOption(SSM_PATH_RDA_JOB_DLQ_REPLAY_MAX_GAP).orElse(null))
         .build();
   }
 
@@ -5,20 +5,40 @@ import com.codahale.metrics.Slf4jReporter;
 import com.codahale.metrics.Timer;
 import gov.cms.bfd.model.rif.RifFile;
 import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFileType;
 import gov.cms.bfd.model.rif.RifFilesEvent;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadJob;
 import gov.cms.bfd.pipeline.ccw.rif.extract.RifFileRecords;
 import gov.cms.bfd.pipeline.ccw.rif.extract.RifFilesProcessor;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetMonitorListener;
 import gov.cms.bfd.pipeline.ccw.rif.load.RifLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.utils.ThreadFactoryBuilder;
 
 /**
  * This {@link DataSetMonitorListener} implementation "glues together" the {@link CcwRifLoadJob}
  * with the {@link RifFilesProcessor} and the {@link RifLoader}: pulling all of the data sets out of
  * S3, parsing them, and then loading them into the BFD database.
+ *
+ * <p>By default the files are loaded one after another in exactly the order they appear in the data
+ * set's manifest. When more than one file may be loaded at once, {@link RifFileType#BENEFICIARY}
+ * files are loaded first, one after another, since the claims in the other files reference them.
+ * The remaining files are then loaded concurrently, up to the configured maximum number of files at
+ * once. Files of the same type are still loaded one after another in the order they appear in the
+ * data set, so that an update to a record is never applied before the file that inserted it.
  */
 public final class DefaultDataSetMonitorListener implements DataSetMonitorListener {
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultDataSetMonitorListener.class);
@@ -27,6 +47,12 @@ public final class DefaultDataSetMonitorListener implements DataSetMonitorListen
   public static final String TIMER_PROCESSING =
       MetricRegistry.name(PipelineApplication.class.getSimpleName(), "dataSet", "processed");
 
+  /**
+   * The maximum amount of time we will wait for files that are still being loaded to stop after
+   * another file failed or an interrupt has been received.
+   */
+  private static final long MAX_STOP_WAIT_MINUTES = 10;
+
   /** Metrics for this class. */
   private final MetricRegistry appMetrics;
 
@@ -36,67 +62,208 @@ public final class DefaultDataSetMonitorListener implements DataSetMonitorListen
   /** Loads RIF files into the database. */
   private final RifLoader rifLoader;
 
+  /** The maximum number of non beneficiary files that are loaded at the same time. */
+  private final int maxConcurrentClaimFiles;
+
   /**
    * Initializes the instance.
    *
    * @param appMetrics the {@link MetricRegistry} for the application
    * @param rifProcessor the {@link RifFilesProcessor} for the application
    * @param rifLoader the {@link RifLoader} for the application
+   * @param maxConcurrentClaimFiles the maximum number of non beneficiary files that are loaded at
+   *     the same time
    */
   DefaultDataSetMonitorListener(
-      MetricRegistry appMetrics, RifFilesProcessor rifProcessor, RifLoader rifLoader) {
+      MetricRegistry appMetrics,
+      RifFilesProcessor rifProcessor,
+      RifLoader rifLoader,
+      int maxConcurrentClaimFiles) {
+    if (maxConcurrentClaimFiles < 1) {
+      throw new IllegalArgumentException("maxConcurrentClaimFiles must be positive");
+    }
     this.appMetrics = appMetrics;
     this.rifProcessor = rifProcessor;
     this.rifLoader = rifLoader;
+    this.maxConcurrentClaimFiles = maxConcurrentClaimFiles;
   }
 
   @Override
   public void dataAvailable(RifFilesEvent rifFilesEvent) throws Exception {
     Timer.Context timerDataSet = appMetrics.timer(TIMER_PROCESSING).time();
 
-    Exception failure = null;
-    for (RifFileEvent rifFileEvent : rifFilesEvent.getFileEvents()) {
-      final RifFile rifFile = rifFileEvent.getFile();
-      if (!rifFile.requiresProcessing()) {
-        LOGGER.info("Skipping previously processed file {}", rifFile.getDisplayName());
-        continue;
+    final Exception failure;
+    if (maxConcurrentClaimFiles == 1) {
+      failure = processFiles(rifFilesEvent.getFileEvents());
+    } else {
+      failure = processFilesGroupedByType(rifFilesEvent.getFileEvents());
+    }
+
+    if (failure != null) {
+      if (failure instanceof InterruptedException) {
+        LOGGER.info("Stopping due to interrupt.");
+      } else {
+        LOGGER.info("Stopping due to error.");
       }
+    }
+    timerDataSet.stop();
+    if (failure != null) {
+      throw failure;
+    }
+  }
 
-      Slf4jReporter dataSetFileMetricsReporter =
-          Slf4jReporter.forRegistry(rifFileEvent.getEventMetrics()).outputTo(LOGGER).build();
-      dataSetFileMetricsReporter.start(2, TimeUnit.MINUTES);
+  /**
+   * Processes the beneficiary files one after another, then the remaining files concurrently with
+   * the files of each type in their own group. Beneficiary files must be complete before any claims
+   * can be loaded.
+   *
+   * @param rifFileEvents the files to process, in manifest order
+   * @return the exception that stopped processing, or null if all files were processed
+   */
+  private Exception processFilesGroupedByType(List<RifFileEvent> rifFileEvents) {
+    final List<RifFileEvent> beneficiaryFileEvents = new ArrayList<>();
+    final Map<RifFileType, List<RifFileEvent>> otherFileEvents = new LinkedHashMap<>();
+    for (RifFileEvent rifFileEvent : rifFileEvents) {
+      final RifFileType fileType = rifFileEvent.getFile().getFileType();
+      if (fileType == RifFileType.BENEFICIARY) {
+        beneficiaryFileEvents.add(rifFileEvent);
+      } else {
+        otherFileEvents.computeIfAbsent(fileType, ignored -> new ArrayList<>()).add(rifFileEvent);
+      }
+    }
 
+    final Exception failure = processFiles(beneficiaryFileEvents);
+    if (failure != null) {
+      return failure;
+    } else if (otherFileEvents.size() <= 1) {
+      return processFiles(otherFileEvents.values().stream().flatMap(List::stream).toList());
+    } else {
+      return processFilesConcurrently(otherFileEvents.values());
+    }
+  }
+
+  /**
+   * Processes the given files one after another on the calling thread, stopping at the first
+   * failure.
+   *
+   * @param rifFileEvents the files to process
+   * @return the exception that stopped processing, or null if all files were processed
+   */
+  private Exception processFiles(List<RifFileEvent> rifFileEvents) {
+    for (RifFileEvent rifFileEvent : rifFileEvents) {
       try {
-        LOGGER.info("Processing file {}", rifFile.getDisplayName());
-        rifFile.markAsStarted();
-
-        final RifFileRecords rifFileRecords = rifProcessor.produceRecords(rifFileEvent);
-        final long processedCount = rifLoader.processBlocking(rifFileRecords);
-        rifFile.markAsProcessed();
-        LOGGER.info(
-            "Successfully processed {} records in file {}",
-            processedCount,
-            rifFile.getDisplayName());
+        processFile(rifFileEvent);
       } catch (Exception e) {
-        LOGGER.error("Exception while processing file {}", rifFile.getDisplayName());
-        failure = e;
+        return e;
       }
+    }
+    return null;
+  }
 
-      dataSetFileMetricsReporter.stop();
-      dataSetFileMetricsReporter.report();
+  /**
+   * Processes each group of files on its own thread, with at most {@link #maxConcurrentClaimFiles}
+   * groups being processed at the same time. The files within a group are processed one after
+   * another. Once any file fails no further files are started, but files that are already being
+   * loaded are allowed to finish. An interrupt of the calling thread is passed on to the files that
+   * are being loaded, which stop at the next batch boundary.
+   *
+   * @param rifFileEventGroups the groups of files to process
+   * @return the first exception that stopped processing, or null if all files were processed
+   */
+  private Exception processFilesConcurrently(Collection<List<RifFileEvent>> rifFileEventGroups) {
+    final int threadCount = Math.min(maxConcurrentClaimFiles, rifFileEventGroups.size());
+    LOGGER.info(
+        "Processing {} file types using up to {} concurrent files",
+        rifFileEventGroups.size(),
+        threadCount);
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threadCount,
+            new ThreadFactoryBuilder()
+                .threadNamePrefix(getClass().getSimpleName())
+                .daemonThreads(false)
+                .build());
+    final CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+    final AtomicBoolean stopping = new AtomicBoolean();
+    for (List<RifFileEvent> rifFileEvents : rifFileEventGroups) {
+      completionService.submit(
+          () -> {
+            for (RifFileEvent rifFileEvent : rifFileEvents) {
+              if (stopping.get()) {
+                break;
+              }
+              try {
+                processFile(rifFileEvent);
+              } catch (Exception e) {
+                stopping.set(true);
+                throw e;
+              }
+            }
+            return null;
+          });
+    }
 
-      if (failure != null) {
-        if (failure instanceof InterruptedException) {
-          LOGGER.info("Stopping due to interrupt.");
-        } else {
-          LOGGER.info("Stopping due to error.");
+    Exception failure = null;
+    try {
+      for (int i = 0; i < rifFileEventGroups.size(); ++i) {
+        try {
+          completionService.take().get();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause() instanceof Exception ex ? ex : e;
+          }
         }
-        break;
       }
+    } catch (InterruptedException e) {
+      stopping.set(true);
+      failure = e;
+      executor.shutdownNow();
+    } finally {
+      executor.shutdown();
     }
-    timerDataSet.stop();
-    if (failure != null) {
-      throw failure;
+
+    try {
+      if (!executor.awaitTermination(MAX_STOP_WAIT_MINUTES, TimeUnit.MINUTES)) {
+        LOGGER.warn("Timed out waiting for concurrently loaded files to stop");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return failure;
+  }
+
+  /**
+   * Loads a single file, unless it has already been processed, and marks it as processed.
+   *
+   * @param rifFileEvent the file to load
+   * @throws Exception if the file could not be loaded
+   */
+  private void processFile(RifFileEvent rifFileEvent) throws Exception {
+    final RifFile rifFile = rifFileEvent.getFile();
+    if (!rifFile.requiresProcessing()) {
+      LOGGER.info("Skipping previously processed file {}", rifFile.getDisplayName());
+      return;
+    }
+
+    Slf4jReporter dataSetFileMetricsReporter =
+        Slf4jReporter.forRegistry(rifFileEvent.getEventMetrics()).outputTo(LOGGER).build();
+    dataSetFileMetricsReporter.start(2, TimeUnit.MINUTES);
+
+    try {
+      LOGGER.info("Processing file {}", rifFile.getDisplayName());
+      rifFile.markAsStarted();
+
+      final RifFileRecords rifFileRecords = rifProcessor.produceRecords(rifFileEvent);
+      final long processedCount = rifLoader.processBlocking(rifFileRecords);
+      rifFile.markAsProcessed();
+      LOGGER.info(
+          "Successfully processed {} records in file {}", processedCount, rifFile.getDisplayName());
+    } catch (Exception e) {
+      LOGGER.error("Exception while processing file {}", rifFile.getDisplayName());
+      throw e;
+    } finally {
+      dataSetFileMetricsReporter.stop();
+      dataSetFileMetricsReporter.report();
     }
   }
 
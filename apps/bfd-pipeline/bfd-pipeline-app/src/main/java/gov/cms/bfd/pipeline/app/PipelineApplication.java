@@ -15,6 +15,17 @@ import com.newrelic.telemetry.SenderConfiguration;
 import com.newrelic.telemetry.metrics.MetricBatchSender;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.pool.HikariProxyConnection;
+import gov.cms.bfd.model.rda.entities.RdaFissClaim;
+import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
+import gov.cms.bfd.model.rif.entities.CarrierClaim;
+import gov.cms.bfd.model.rif.entities.DMEClaim;
+import gov.cms.bfd.model.rif.entities.HHAClaim;
+import gov.cms.bfd.model.rif.entities.HospiceClaim;
+import gov.cms.bfd.model.rif.entities.InpatientClaim;
+import gov.cms.bfd.model.rif.entities.OutpatientClaim;
+import gov.cms.bfd.model.rif.entities.SNFClaim;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadJob;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadJobStatusReporter;
 import gov.cms.bfd.pipeline.ccw.rif.CcwRifLoadOptions;
@@ -29,7 +40,9 @@ import gov.cms.bfd.pipeline.rda.grpc.RdaLoadOptions;
 import gov.cms.bfd.pipeline.rda.grpc.RdaServerJob;
 import gov.cms.bfd.pipeline.sharedutils.PipelineApplicationState;
 import gov.cms.bfd.pipeline.sharedutils.PipelineJob;
+import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
 import gov.cms.bfd.pipeline.sharedutils.s3.AwsS3ClientFactory;
+import gov.cms.bfd.pipeline.sharedutils.samhsa.SamhsaBackfillJob;
 import gov.cms.bfd.sharedutils.config.AppConfigurationException;
 import gov.cms.bfd.sharedutils.config.AwsClientConfig;
 import gov.cms.bfd.sharedutils.config.ConfigException;
@@ -465,6 +478,11 @@ public final class PipelineApplication {
       final var job = createCcwRifLoadJob(loadOptions, appState, awsClientConfig, clock);
       jobs.add(job);
       LOGGER.info("Registered CcwRifLoadJob.");
+
+      if (appConfig.getSamhsaBackfillConfig().isPresent()) {
+        jobs.add(createCcwSamhsaBackfillJob(appState, appConfig.getSamhsaBackfillConfig().get()));
+        LOGGER.info("Registered CCW SamhsaBackfillJob.");
+      }
     } else {
       LOGGER.warn("CcwRifLoadJob is disabled in app configuration.");
     }
@@ -497,12 +515,100 @@ public final class PipelineApplication {
 
       jobs.add(rdaLoadOptions.createMcsClaimsLoadJob(rdaAppState, mbiCache));
       LOGGER.info("Registered RdaMcsClaimLoadJob.");
+
+      if (appConfig.getSamhsaBackfillConfig().isPresent()) {
+        jobs.add(
+            createRdaSamhsaBackfillJob(rdaAppState, appConfig.getSamhsaBackfillConfig().get()));
+        LOGGER.info("Registered RDA SamhsaBackfillJob.");
+      }
     } else {
       LOGGER.info("RDA API jobs are not enabled in app configuration.");
     }
     return jobs;
   }
 
+  /**
+   * Creates the job that computes the stored SAMHSA flag of CCW claims that do not have a current
+   * one.
+   *
+   * @param appState the {@link PipelineApplicationState} for the CCW persistence unit
+   * @param config the job settings
+   * @return the job
+   */
+  private PipelineJob createCcwSamhsaBackfillJob(
+      PipelineApplicationState appState, SamhsaBackfillJob.Config config) {
+    final var classifier = new SamhsaClaimClassifier(SamhsaCodeSet.getInstance());
+    // The only collection of a CCW claim that the classifier reads is its lines.
+    final var lines = List.of("lines");
+    return new SamhsaBackfillJob(
+        new TransactionManager(appState.getEntityManagerFactory()),
+        config,
+        List.of(
+            new SamhsaBackfillJob.ClaimTable<>(
+                CarrierClaim.class,
+                "claimId",
+                CarrierClaim::getClaimId,
+                lines,
+                classifier::isSamhsaClaim),
+            new SamhsaBackfillJob.ClaimTable<>(
+                DMEClaim.class, "claimId", DMEClaim::getClaimId, lines, classifier::isSamhsaClaim),
+            new SamhsaBackfillJob.ClaimTable<>(
+                HHAClaim.class, "claimId", HHAClaim::getClaimId, lines, classifier::isSamhsaClaim),
+            new SamhsaBackfillJob.ClaimTable<>(
+                HospiceClaim.class,
+                "claimId",
+                HospiceClaim::getClaimId,
+                lines,
+                classifier::isSamhsaClaim),
+            new SamhsaBackfillJob.ClaimTable<>(
+                InpatientClaim.class,
+                "claimId",
+                InpatientClaim::getClaimId,
+                lines,
+                classifier::isSamhsaClaim),
+            new SamhsaBackfillJob.ClaimTable<>(
+                OutpatientClaim.class,
+                "claimId",
+                OutpatientClaim::getClaimId,
+                lines,
+                classifier::isSamhsaClaim),
+            new SamhsaBackfillJob.ClaimTable<>(
+                SNFClaim.class,
+                "claimId",
+                SNFClaim::getClaimId,
+                lines,
+                classifier::isSamhsaClaim)));
+  }
+
+  /**
+   * Creates the job that computes the stored SAMHSA flag of RDA claims that do not have a current
+   * one.
+   *
+   * @param rdaAppState the {@link PipelineApplicationState} for the RDA persistence unit
+   * @param config the job settings
+   * @return the job
+   */
+  private PipelineJob createRdaSamhsaBackfillJob(
+      PipelineApplicationState rdaAppState, SamhsaBackfillJob.Config config) {
+    final var classifier = new SamhsaClaimClassifier(SamhsaCodeSet.getInstance());
+    return new SamhsaBackfillJob(
+        new TransactionManager(rdaAppState.getEntityManagerFactory()),
+        config,
+        List.of(
+            new SamhsaBackfillJob.ClaimTable<>(
+                RdaFissClaim.class,
+                "claimId",
+                RdaFissClaim::getClaimId,
+                List.of("procCodes", "diagCodes", "revenueLines"),
+                classifier::isSamhsaClaim),
+            new SamhsaBackfillJob.ClaimTable<>(
+                RdaMcsClaim.class,
+                "idrClmHdIcn",
+                RdaMcsClaim::getIdrClmHdIcn,
+                List.of("diagCodes", "details"),
+                classifier::isSamhsaClaim)));
+  }
+
   /**
    * Creates the CCW RIF loader job and returns it.
    *
@@ -529,7 +635,7 @@ public final class PipelineApplication {
         new S3TaskManager(
             loadOptions.getExtractionOptions(),
             new AwsS3ClientFactory(loadOptions.getExtractionOptions().getS3ClientConfig()));
-    RifFilesProcessor rifProcessor = new RifFilesProcessor();
+    RifFilesProcessor rifProcessor = new RifFilesProcessor(loadOptions.isRecordReaderEnabled());
     RifLoader rifLoader = new RifLoader(loadOptions.getLoadOptions(), appState);
 
     /*
@@ -537,7 +643,11 @@ public final class PipelineApplication {
      * each data set that is found.
      */
     DataSetMonitorListener dataSetMonitorListener =
-        new DefaultDataSetMonitorListener(appState.getMetrics(), rifProcessor, rifLoader);
+        new DefaultDataSetMonitorListener(
+            appState.getMetrics(),
+            rifProcessor,
+            rifLoader,
+            loadOptions.getMaxConcurrentClaimFiles());
     var s3Factory = new AwsS3ClientFactory(loadOptions.getExtractionOptions().getS3ClientConfig());
     // Tell SQ it's ok not to use try-finally here since this will be closed by the CcwRifLoadJob.
     @SuppressWarnings("java:S2095")
@@ -17,10 +17,13 @@ import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_GRPC_PORT;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_GRPC_SECONDS_BEFORE_CONNECTION_DROP;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_GRPC_SERVER_TYPE;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_BATCH_SIZE;
+import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_BULK_WRITES_ENABLED;
+import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_DLQ_REPLAY_MAX_GAP;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_ERROR_EXPIRE_DAYS;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_INTERVAL_SECONDS;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_STARTING_FISS_SEQ_NUM;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_STARTING_MCS_SEQ_NUM;
+import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_TRANSFORM_THREADS;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_JOB_WRITE_THREADS;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.SSM_PATH_RDA_VERSION;
 import static gov.cms.bfd.pipeline.app.AppConfiguration.loadBeneficiaryPerformanceSettings;
@@ -40,6 +43,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import gov.cms.bfd.model.rif.RifFileType;
+import gov.cms.bfd.pipeline.ccw.rif.extract.ExtractionOptions;
 import gov.cms.bfd.pipeline.ccw.rif.load.CcwRifLoadTestUtils;
 import gov.cms.bfd.pipeline.ccw.rif.load.LoadAppOptions;
 import gov.cms.bfd.pipeline.rda.grpc.AbstractRdaLoadJob;
@@ -48,6 +52,7 @@ import gov.cms.bfd.pipeline.rda.grpc.server.RdaService;
 import gov.cms.bfd.pipeline.rda.grpc.source.RdaSourceConfig;
 import gov.cms.bfd.pipeline.rda.grpc.source.RdaVersion;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3ClientConfig;
+import gov.cms.bfd.pipeline.sharedutils.samhsa.SamhsaBackfillJob;
 import gov.cms.bfd.sharedutils.config.AwsClientConfig;
 import gov.cms.bfd.sharedutils.config.ConfigException;
 import gov.cms.bfd.sharedutils.config.ConfigLoader;
@@ -190,6 +195,29 @@ public class AppConfigurationTest {
         .isExactlyInstanceOf(RdsDataSourceFactory.class);
   }
 
+  /** Verify that the SAMHSA backfill job is disabled by default and loads its settings. */
+  @Test
+  void testSamhsaBackfillSettings() {
+    final var envVars = new HashMap<String, String>();
+    addRequiredSettingsForTest(envVars);
+
+    AppConfiguration testAppConfig =
+        AppConfiguration.loadConfig(AppConfiguration.createConfigLoaderForTesting(envVars));
+    assertEquals(Optional.empty(), testAppConfig.getSamhsaBackfillConfig());
+
+    envVars.put(AppConfiguration.SSM_PATH_SAMHSA_BACKFILL_ENABLED, "true");
+    envVars.put(AppConfiguration.SSM_PATH_SAMHSA_BACKFILL_BATCH_SIZE, "250");
+    testAppConfig =
+        AppConfiguration.loadConfig(AppConfiguration.createConfigLoaderForTesting(envVars));
+    assertEquals(
+        Optional.of(
+            SamhsaBackfillJob.Config.builder()
+                .batchSize(250)
+                .runInterval(Duration.ofHours(1))
+                .build()),
+        testAppConfig.getSamhsaBackfillConfig());
+  }
+
   /** Verify that AWS settings are loaded as expected. */
   @Test
   void testAwsSettings() {
@@ -293,6 +321,157 @@ public class AppConfigurationTest {
     assertEquals(
         new LoadAppOptions.PerformanceSettings(20, 21, 22),
         loadClaimPerformanceSettings(configLoader, benePerformanceSettings));
+
+    envVars.put(AppConfiguration.SSM_PATH_RIF_JOB_COPY_INSERTS_CLAIMS, "true");
+    assertEquals(
+        new LoadAppOptions.PerformanceSettings(20, 21, 22, true),
+        loadClaimPerformanceSettings(configLoader, benePerformanceSettings));
+  }
+
+  /** Verifies that streaming downloads are disabled by default and can be configured. */
+  @Test
+  void testStreamingDownloadSettings() {
+    final var envVars = new HashMap<String, String>();
+    envVars.put(AppConfiguration.SSM_PATH_BUCKET, "foo");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_ITERATIONS, "1");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_PEPPER, "abcd");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_URL, "some_url");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_USERNAME, "some_user");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_PASSWORD, "some_password");
+    envVars.put(AppConfiguration.SSM_PATH_LOADER_THREADS, "4");
+    envVars.put(AppConfiguration.SSM_PATH_IDEMPOTENCY_REQUIRED, "false");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_ACCESS_KEY, "unreal-access-key");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_SECRET_KEY, "unreal-secret-key");
+    final var configLoader = AppConfiguration.createConfigLoaderForTesting(envVars);
+
+    var extractionOptions =
+        AppConfiguration.loadConfig(configLoader)
+            .getCcwRifLoadOptions()
+            .get()
+            .getExtractionOptions();
+    assertFalse(extractionOptions.isStreamingDownloadEnabled());
+    assertEquals(
+        ExtractionOptions.DEFAULT_STREAMING_CHUNK_SIZE_BYTES,
+        extractionOptions.getStreamingChunkSizeBytes());
+    assertEquals(
+        ExtractionOptions.DEFAULT_STREAMING_PARALLELISM,
+        extractionOptions.getStreamingParallelism());
+
+    envVars.put(AppConfiguration.SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_ENABLED, "true");
+    envVars.put(AppConfiguration.SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_CHUNK_SIZE_BYTES, "1048576");
+    envVars.put(AppConfiguration.SSM_PATH_RIF_JOB_STREAMING_DOWNLOAD_PARALLELISM, "12");
+    extractionOptions =
+        AppConfiguration.loadConfig(configLoader)
+            .getCcwRifLoadOptions()
+            .get()
+            .getExtractionOptions();
+    assertTrue(extractionOptions.isStreamingDownloadEnabled());
+    assertEquals(1048576, extractionOptions.getStreamingChunkSizeBytes());
+    assertEquals(12, extractionOptions.getStreamingParallelism());
+  }
+
+  /** Verifies that the beneficiary prefetch is enabled by default and can be turned off. */
+  @Test
+  void testBeneficiaryPrefetchSetting() {
+    final var envVars = new HashMap<String, String>();
+    envVars.put(AppConfiguration.SSM_PATH_BUCKET, "foo");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_ITERATIONS, "1");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_PEPPER, "abcd");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_URL, "some_url");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_USERNAME, "some_user");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_PASSWORD, "some_password");
+    envVars.put(AppConfiguration.SSM_PATH_LOADER_THREADS, "4");
+    envVars.put(AppConfiguration.SSM_PATH_IDEMPOTENCY_REQUIRED, "false");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_ACCESS_KEY, "unreal-access-key");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_SECRET_KEY, "unreal-secret-key");
+    final var configLoader = AppConfiguration.createConfigLoaderForTesting(envVars);
+
+    assertTrue(
+        AppConfiguration.loadConfig(configLoader)
+            .getCcwRifLoadOptions()
+            .get()
+            .getLoadOptions()
+            .isBeneficiaryPrefetchEnabled());
+
+    envVars.put(AppConfiguration.SSM_PATH_RIF_JOB_BENEFICIARY_PREFETCH_ENABLED, "false");
+    assertFalse(
+        AppConfiguration.loadConfig(configLoader)
+            .getCcwRifLoadOptions()
+            .get()
+            .getLoadOptions()
+            .isBeneficiaryPrefetchEnabled());
+  }
+
+  /** Verifies that the database cache of identifier hashes is disabled by default. */
+  @Test
+  void testIdHashDatabaseCacheSetting() {
+    final var envVars = new HashMap<String, String>();
+    envVars.put(AppConfiguration.SSM_PATH_BUCKET, "foo");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_ITERATIONS, "1");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_PEPPER, "abcd");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_URL, "some_url");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_USERNAME, "some_user");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_PASSWORD, "some_password");
+    envVars.put(AppConfiguration.SSM_PATH_LOADER_THREADS, "4");
+    envVars.put(AppConfiguration.SSM_PATH_IDEMPOTENCY_REQUIRED, "false");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_ACCESS_KEY, "unreal-access-key");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_SECRET_KEY, "unreal-secret-key");
+    final var configLoader = AppConfiguration.createConfigLoaderForTesting(envVars);
+
+    assertFalse(
+        AppConfiguration.loadConfig(configLoader)
+            .getCcwRifLoadOptions()
+            .get()
+            .getLoadOptions()
+            .isIdHashDatabaseCacheEnabled());
+
+    envVars.put(AppConfiguration.SSM_PATH_RIF_JOB_ID_HASH_DATABASE_CACHE_ENABLED, "true");
+    assertTrue(
+        AppConfiguration.loadConfig(configLoader)
+            .getCcwRifLoadOptions()
+            .get()
+            .getLoadOptions()
+            .isIdHashDatabaseCacheEnabled());
+  }
+
+  /**
+   * Verifies that the number of concurrently loaded claim files defaults to one, sizes the default
+   * database connection pool, and is limited by an explicitly configured pool size.
+   */
+  @Test
+  void testMaxConcurrentClaimFiles() {
+    final var envVars = new HashMap<String, String>();
+    envVars.put(AppConfiguration.SSM_PATH_BUCKET, "foo");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_ITERATIONS, "1");
+    envVars.put(AppConfiguration.SSM_PATH_HICN_HASH_PEPPER, "abcd");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_URL, "some_url");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_USERNAME, "some_user");
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_PASSWORD, "some_password");
+    envVars.put(AppConfiguration.SSM_PATH_LOADER_THREADS, "4");
+    envVars.put(AppConfiguration.SSM_PATH_IDEMPOTENCY_REQUIRED, "false");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_ACCESS_KEY, "unreal-access-key");
+    envVars.put(AppConfiguration.ENV_VAR_AWS_SECRET_KEY, "unreal-secret-key");
+    final var configLoader = AppConfiguration.createConfigLoaderForTesting(envVars);
+
+    // loads one file at a time by default
+    var appConfig = AppConfiguration.loadConfig(configLoader);
+    assertEquals(1, appConfig.getCcwRifLoadOptions().get().getMaxConcurrentClaimFiles());
+    assertEquals(8, appConfig.getDatabaseOptions().getMaxPoolSize());
+
+    // the default pool is big enough for every concurrent file
+    envVars.put(AppConfiguration.SSM_PATH_RIF_JOB_CONCURRENT_FILES_CLAIMS, "3");
+    appConfig = AppConfiguration.loadConfig(configLoader);
+    assertEquals(3, appConfig.getCcwRifLoadOptions().get().getMaxConcurrentClaimFiles());
+    assertEquals(24, appConfig.getDatabaseOptions().getMaxPoolSize());
+
+    // an explicit pool size limits the number of concurrent files
+    envVars.put(AppConfiguration.SSM_PATH_DATABASE_MAX_POOL_SIZE, "9");
+    appConfig = AppConfiguration.loadConfig(configLoader);
+    assertEquals(2, appConfig.getCcwRifLoadOptions().get().getMaxConcurrentClaimFiles());
+    assertEquals(9, appConfig.getDatabaseOptions().getMaxPoolSize());
+
+    // but at least one file is always allowed
+    assertEquals(1, AppConfiguration.computeMaxConcurrentClaimFiles(3, 10, 5));
   }
 
   /**
@@ -347,9 +526,11 @@ public class AppConfigurationTest {
     assertEquals(Duration.ofSeconds(42), jobConfig.getRunInterval());
     assertEquals(5, jobConfig.getBatchSize());
     assertEquals(11, jobConfig.getWriteThreads());
+    assertEquals(0, jobConfig.getTransformThreads());
     assertEquals(Optional.empty(), jobConfig.getStartingFissSeqNum());
     assertEquals(Optional.empty(), jobConfig.getStartingFissSeqNum());
     assertEquals(false, jobConfig.shouldProcessDLQ());
+    assertFalse(jobConfig.shouldUseBulkWrites());
     assertEquals(
         RdaVersion.builder().versionString("^" + RdaService.RDA_PROTO_VERSION).build(),
         jobConfig.getRdaVersion());
@@ -387,6 +568,16 @@ public class AppConfigurationTest {
     assertTrue(jobConfig.shouldRunCleanup());
     assertEquals(100000, jobConfig.getCleanupRunSize());
     assertEquals(5000, jobConfig.getCleanupTransactionSize());
+
+    // verify bulk writes can be enabled
+    settingsMap.put(SSM_PATH_RDA_JOB_BULK_WRITES_ENABLED, "true");
+    jobConfig = AppConfiguration.loadRdaLoadJobConfigOptions(configLoader);
+    assertTrue(jobConfig.shouldUseBulkWrites());
+
+    // verify transform threads can be configured
+    settingsMap.put(SSM_PATH_RDA_JOB_TRANSFORM_THREADS, "4");
+    jobConfig = AppConfiguration.loadRdaLoadJobConfigOptions(configLoader);
+    assertEquals(4, jobConfig.getTransformThreads());
   }
 
   /**
@@ -415,6 +606,7 @@ public class AppConfigurationTest {
     assertNull(sourceConfig.getAuthenticationToken());
     assertNull(sourceConfig.getExpirationDate());
     assertEquals(Optional.empty(), sourceConfig.getMessageErrorExpirationDays());
+    assertEquals(Optional.empty(), sourceConfig.getDlqReplayMaxGap());
 
     // verify empty string token is ignored properly
     settingsMap.put(SSM_PATH_RDA_GRPC_AUTH_TOKEN, "");
@@ -428,10 +620,12 @@ public class AppConfigurationTest {
     String token = String.format("NotAReal.%s.Token", expiration);
     settingsMap.put(SSM_PATH_RDA_GRPC_AUTH_TOKEN, token);
     settingsMap.put(SSM_PATH_RDA_JOB_ERROR_EXPIRE_DAYS, "42");
+    settingsMap.put(SSM_PATH_RDA_JOB_DLQ_REPLAY_MAX_GAP, "1000");
     sourceConfig = AppConfiguration.loadRdaSourceConfig(configLoader);
     assertEquals(token, sourceConfig.getAuthenticationToken());
     assertEquals(expiresMillis, sourceConfig.getExpirationDate());
     assertEquals(Optional.of(42), sourceConfig.getMessageErrorExpirationDays());
+    assertEquals(Optional.of(1000), sourceConfig.getDlqReplayMaxGap());
   }
 
   /**
@@ -0,0 +1,301 @@
+package gov.cms.bfd.pipeline.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.codahale.metrics.MetricRegistry;
+import gov.cms.bfd.model.rif.RifFile;
+import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFileType;
+import gov.cms.bfd.model.rif.RifFilesEvent;
+import gov.cms.bfd.pipeline.ccw.rif.extract.RifFileRecords;
+import gov.cms.bfd.pipeline.ccw.rif.extract.RifFilesProcessor;
+import gov.cms.bfd.pipeline.ccw.rif.load.RifLoader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+/** Unit tests for {@link DefaultDataSetMonitorListener}. */
+public class DefaultDataSetMonitorListenerTest {
+  /** Produces the records of each file; the records are never read by the mock loader. */
+  private RifFilesProcessor rifProcessor;
+
+  /** The mock loader, which records the order in which it loaded the files. */
+  private RifLoader rifLoader;
+
+  /** The display names of the files the loader started, in the order they were started. */
+  private List<String> startedFiles;
+
+  /** The display names of the files the loader completed, in the order they were completed. */
+  private List<String> completedFiles;
+
+  /**
+   * Creates the mocks.
+   *
+   * @throws Exception required by the mock setup
+   */
+  @BeforeEach
+  public void setUp() throws Exception {
+    rifProcessor = mock(RifFilesProcessor.class);
+    rifLoader = mock(RifLoader.class);
+    startedFiles = Collections.synchronizedList(new ArrayList<>());
+    completedFiles = Collections.synchronizedList(new ArrayList<>());
+    doAnswer(
+            invocation ->
+                new RifFileRecords(invocation.getArgument(0, RifFileEvent.class), Flux.empty()))
+        .when(rifProcessor)
+        .produceRecords(any());
+  }
+
+  /**
+   * Verifies that beneficiary files are loaded before any other file, that files of the same type
+   * are loaded in order, and that files of different types are loaded concurrently, but never more
+   * of them than the limit.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  void testDataAvailableWhenConcurrentExpectBeneficiariesFirstAndLimitRespected() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    // each claim file waits until a second one is running, which proves they are concurrent
+    final CountDownLatch concurrent = new CountDownLatch(2);
+    doAnswer(
+            invocation -> {
+              final RifFile file =
+                  invocation.getArgument(0, RifFileRecords.class).getSourceEvent().getFile();
+              startedFiles.add(file.getDisplayName());
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              try {
+                if (file.getFileType() != RifFileType.BENEFICIARY) {
+                  concurrent.countDown();
+                  concurrent.await(10, TimeUnit.SECONDS);
+                }
+                Thread.sleep(10);
+              } finally {
+                running.decrementAndGet();
+              }
+              completedFiles.add(file.getDisplayName());
+              return 1L;
+            })
+        .when(rifLoader)
+        .processBlocking(any());
+
+    final var listener =
+        new DefaultDataSetMonitorListener(new MetricRegistry(), rifProcessor, rifLoader, 2);
+    listener.dataAvailable(
+        new RifFilesEvent(
+            Instant.now(),
+            false,
+            new TestRifFile("carrier-1", RifFileType.CARRIER),
+            new TestRifFile("bene-1", RifFileType.BENEFICIARY),
+            new TestRifFile("pde-1", RifFileType.PDE),
+            new TestRifFile("carrier-2", RifFileType.CARRIER),
+            new TestRifFile("bene-2", RifFileType.BENEFICIARY),
+            new TestRifFile("outpatient-1", RifFileType.OUTPATIENT)));
+
+    assertThat(completedFiles).hasSize(6);
+    assertThat(completedFiles.subList(0, 2)).containsExactly("bene-1", "bene-2");
+    assertThat(startedFiles.subList(0, 2)).containsExactly("bene-1", "bene-2");
+    assertThat(completedFiles).containsSubsequence("carrier-1", "carrier-2");
+    assertThat(startedFiles.indexOf("carrier-2"))
+        .isGreaterThan(completedFiles.indexOf("carrier-1"));
+    assertThat(maxRunning.get()).isEqualTo(2);
+  }
+
+  /**
+   * Verifies that with a limit of one file the files are loaded one at a time in exactly the order
+   * of the data set, as they were before concurrent loading was added.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  void testDataAvailableWhenNotConcurrentExpectDataSetOrder() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    doAnswer(
+            invocation -> {
+              final RifFile file =
+                  invocation.getArgument(0, RifFileRecords.class).getSourceEvent().getFile();
+              startedFiles.add(file.getDisplayName());
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              running.decrementAndGet();
+              return 1L;
+            })
+        .when(rifLoader)
+        .processBlocking(any());
+    final var rifFilesEvent =
+        new RifFilesEvent(
+            Instant.now(),
+            false,
+            new TestRifFile("carrier-1", RifFileType.CARRIER),
+            new TestRifFile("bene-1", RifFileType.BENEFICIARY),
+            new TestRifFile("pde-1", RifFileType.PDE),
+            new TestRifFile("carrier-2", RifFileType.CARRIER),
+            new TestRifFile("bene-2", RifFileType.BENEFICIARY),
+            new TestRifFile("outpatient-1", RifFileType.OUTPATIENT));
+
+    final var listener =
+        new DefaultDataSetMonitorListener(new MetricRegistry(), rifProcessor, rifLoader, 1);
+    listener.dataAvailable(rifFilesEvent);
+
+    assertThat(startedFiles)
+        .containsExactlyElementsOf(
+            rifFilesEvent.getFileEvents().stream()
+                .map(fileEvent -> fileEvent.getFile().getDisplayName())
+                .toList());
+    assertThat(maxRunning.get()).isEqualTo(1);
+  }
+
+  /**
+   * Verifies that a failing beneficiary file stops the data set before any claim file is started,
+   * and that its exception is passed through to the caller.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  void testDataAvailableWhenBeneficiaryFailsExpectNoClaimsLoaded() throws Exception {
+    final var failure = new IOException("boom");
+    doAnswer(
+            invocation -> {
+              throw failure;
+            })
+        .when(rifLoader)
+        .processBlocking(any());
+    final var claimFile = new TestRifFile("carrier-1", RifFileType.CARRIER);
+
+    final var listener =
+        new DefaultDataSetMonitorListener(new MetricRegistry(), rifProcessor, rifLoader, 4);
+    assertThatThrownBy(
+            () ->
+                listener.dataAvailable(
+                    new RifFilesEvent(
+                        Instant.now(),
+                        false,
+                        new TestRifFile("bene-1", RifFileType.BENEFICIARY),
+                        claimFile,
+                        new TestRifFile("pde-1", RifFileType.PDE))))
+        .isSameAs(failure);
+
+    assertThat(claimFile.started).isFalse();
+    verify(rifLoader).processBlocking(any());
+  }
+
+  /**
+   * Verifies that once a claim file fails no more files are started, files that were already
+   * running are completed and marked as processed, and the failure is passed through to the caller.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  void testDataAvailableWhenClaimFileFailsExpectRemainingFilesNotStarted() throws Exception {
+    final var failure = new IOException("boom");
+    final CountDownLatch pdeStarted = new CountDownLatch(1);
+    final CountDownLatch failed = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              final RifFile file =
+                  invocation.getArgument(0, RifFileRecords.class).getSourceEvent().getFile();
+              if (file.getDisplayName().equals("carrier-1")) {
+                pdeStarted.await(10, TimeUnit.SECONDS);
+                failed.countDown();
+                throw failure;
+              }
+              // the pde file is running when the carrier file fails
+              pdeStarted.countDown();
+              failed.await(10, TimeUnit.SECONDS);
+              return 1L;
+            })
+        .when(rifLoader)
+        .processBlocking(any());
+    final var pdeFile = new TestRifFile("pde-1", RifFileType.PDE);
+    final var secondCarrierFile = new TestRifFile("carrier-2", RifFileType.CARRIER);
+
+    final var listener =
+        new DefaultDataSetMonitorListener(new MetricRegistry(), rifProcessor, rifLoader, 2);
+    assertThatThrownBy(
+            () ->
+                listener.dataAvailable(
+                    new RifFilesEvent(
+                        Instant.now(),
+                        false,
+                        new TestRifFile("carrier-1", RifFileType.CARRIER),
+                        secondCarrierFile,
+                        pdeFile)))
+        .isSameAs(failure);
+
+    assertThat(pdeFile.processed).isTrue();
+    assertThat(secondCarrierFile.started).isFalse();
+  }
+
+  /** A {@link RifFile} that records its status changes. */
+  private static final class TestRifFile implements RifFile {
+    /** The file's name. */
+    private final String name;
+
+    /** The file's type. */
+    private final RifFileType fileType;
+
+    /** Set when the file has been marked as started. */
+    private volatile boolean started;
+
+    /** Set when the file has been marked as processed. */
+    private volatile boolean processed;
+
+    /**
+     * Creates a file.
+     *
+     * @param name the file's name
+     * @param fileType the file's type
+     */
+    private TestRifFile(String name, RifFileType fileType) {
+      this.name = name;
+      this.fileType = fileType;
+    }
+
+    @Override
+    public String getDisplayName() {
+      return name;
+    }
+
+    @Override
+    public RifFileType getFileType() {
+      return fileType;
+    }
+
+    @Override
+    public Charset getCharset() {
+      return StandardCharsets.UTF_8;
+    }
+
+    @Override
+    public InputStream open() {
+      return InputStream.nullInputStream();
+    }
+
+    @Override
+    public void markAsStarted() {
+      started = true;
+    }
+
+    @Override
+    public void markAsProcessed() {
+      processed = true;
+    }
+  }
+}
@@ -326,9 +326,10 @@ public final class CcwRifLoadJob implements PipelineJob {
       /*
        * To save time for the next data set, peek ahead at it. If it's available and
        * it looks like there's enough disk space, start downloading it early in the
-       * background.
+       * background. Streamed files are never cached locally so there is nothing to
+       * download ahead of time when streaming is enabled.
        */
-      if (eligibleManifests.size() > 1) {
+      if (eligibleManifests.size() > 1 && !options.isStreamingDownloadEnabled()) {
         DataSetQueue.Manifest secondManifestToProcess = eligibleManifests.get(1);
         final long usableFreeTempSpace = dataSetQueue.getAvailableDiskSpaceInBytes();
         if (usableFreeTempSpace >= MIN_BYTES_FOR_SECOND_DATA_SET_DOWNLOAD) {
@@ -491,7 +492,9 @@ public final class CcwRifLoadJob implements PipelineJob {
 
   /**
    * Adds a task to the download queue to download the data file from S3 and returns a {@link
-   * S3RifFile} containing a {@link Future} to access the result.
+   * S3RifFile} containing a {@link Future} to access the result. When streaming downloads are
+   * enabled the task only reads the file's meta data and the file is streamed from S3 as it is
+   * parsed.
    *
    * @param manifestRecord database record for the manifest
    * @param manifestEntry manifest entry for the data file
@@ -504,8 +507,19 @@ public final class CcwRifLoadJob implements PipelineJob {
       return Optional.empty();
     }
 
-    final Future<DataSetQueue.ManifestEntry> downloadResult =
-        downloadService.submit(() -> dataSetQueue.downloadManifestEntry(dataFileRecord));
+    final Future<DataSetQueue.ManifestEntry> downloadResult;
+    if (options.isStreamingDownloadEnabled()) {
+      downloadResult =
+          downloadService.submit(
+              () ->
+                  dataSetQueue.streamManifestEntry(
+                      dataFileRecord,
+                      options.getStreamingChunkSizeBytes(),
+                      options.getStreamingParallelism()));
+    } else {
+      downloadResult =
+          downloadService.submit(() -> dataSetQueue.downloadManifestEntry(dataFileRecord));
+    }
     return Optional.of(new S3RifFile(appMetrics, manifestEntry, downloadResult));
   }
 
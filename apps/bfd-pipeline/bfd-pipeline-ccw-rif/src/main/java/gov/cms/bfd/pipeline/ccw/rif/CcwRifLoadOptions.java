@@ -22,6 +22,18 @@ public final class CcwRifLoadOptions {
   /** Optional SQS queue to receive progress messages. */
   private final Optional<String> sqsQueueUrl;
 
+  /**
+   * The maximum number of non beneficiary files from a single data set that are loaded at the same
+   * time. One means that files are loaded one after another.
+   */
+  private final int maxConcurrentClaimFiles;
+
+  /**
+   * When true the RIF files are read using the allocation-light {@link
+   * gov.cms.bfd.pipeline.ccw.rif.extract.RifRecordReader} rather than commons-csv.
+   */
+  private final boolean recordReaderEnabled;
+
   /**
    * Constructs a new {@link CcwRifLoadOptions} instance.
    *
@@ -29,16 +41,22 @@ public final class CcwRifLoadOptions {
    * @param loadOptions the value to use for {@link #loadOptions}
    * @param runInterval used to construct the job schedule
    * @param sqsQueueUrl SQS queue to receive progress messages
+   * @param maxConcurrentClaimFiles the value to use for {@link #maxConcurrentClaimFiles}
+   * @param recordReaderEnabled the value to use for {@link #recordReaderEnabled}
    */
   public CcwRifLoadOptions(
       ExtractionOptions extractionOptions,
       LoadAppOptions loadOptions,
       Optional<Duration> runInterval,
-      Optional<String> sqsQueueUrl) {
+      Optional<String> sqsQueueUrl,
+      int maxConcurrentClaimFiles,
+      boolean recordReaderEnabled) {
     this.extractionOptions = extractionOptions;
     this.loadOptions = loadOptions;
     this.runInterval = runInterval;
     this.sqsQueueUrl = sqsQueueUrl;
+    this.maxConcurrentClaimFiles = maxConcurrentClaimFiles;
+    this.recordReaderEnabled = recordReaderEnabled;
   }
 
   @Override
@@ -52,6 +70,10 @@ public final class CcwRifLoadOptions {
     builder.append(runInterval);
     builder.append(", sqsQueueUrl=");
     builder.append(sqsQueueUrl);
+    builder.append(", maxConcurrentClaimFiles=");
+    builder.append(maxConcurrentClaimFiles);
+    builder.append(", recordReaderEnabled=");
+    builder.append(recordReaderEnabled);
     builder.append("]");
     return builder.toString();
   }
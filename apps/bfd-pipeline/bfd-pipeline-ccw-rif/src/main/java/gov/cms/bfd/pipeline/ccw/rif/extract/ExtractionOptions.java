@@ -10,6 +10,11 @@ import lombok.Getter;
 
 /** Models the user-configurable options for extraction of RIF data from S3. */
 public final class ExtractionOptions {
+  /** Default number of bytes requested by each ranged GET when streaming downloads are enabled. */
+  public static final int DEFAULT_STREAMING_CHUNK_SIZE_BYTES = 8 * 1024 * 1024;
+
+  /** Default number of ranged GETs in flight per file when streaming downloads are enabled. */
+  public static final int DEFAULT_STREAMING_PARALLELISM = 4;
 
   /** The S3 bucket name. */
   @Getter private final String s3BucketName;
@@ -23,6 +28,18 @@ public final class ExtractionOptions {
   /** Common config settings used to configure S3 clients. */
   @Getter private final S3ClientConfig s3ClientConfig;
 
+  /**
+   * When true RIF files are parsed while they are streamed from S3 using parallel ranged GETs
+   * rather than after they have been downloaded to a local file.
+   */
+  @Getter private final boolean streamingDownloadEnabled;
+
+  /** Number of bytes requested by each ranged GET when streaming downloads are enabled. */
+  @Getter private final int streamingChunkSizeBytes;
+
+  /** Maximum number of ranged GETs in flight per file when streaming downloads are enabled. */
+  @Getter private final int streamingParallelism;
+
   /**
    * Initializes an instance.
    *
@@ -30,16 +47,48 @@ public final class ExtractionOptions {
    * @param allowedRifFileType the value to use for {@link #getDataSetFilter()}
    * @param s3ListMaxKeys the value to use for {@link #getS3ListMaxKeys()}
    * @param s3ClientConfig used to configure S3 clients
+   * @param streamingDownloadEnabled the value to use for {@link #streamingDownloadEnabled}
+   * @param streamingChunkSizeBytes the value to use for {@link #streamingChunkSizeBytes}
+   * @param streamingParallelism the value to use for {@link #streamingParallelism}
    */
   public ExtractionOptions(
       String s3BucketName,
       Optional<RifFileType> allowedRifFileType,
       Optional<Integer> s3ListMaxKeys,
-      S3ClientConfig s3ClientConfig) {
+      S3ClientConfig s3ClientConfig,
+      boolean streamingDownloadEnabled,
+      int streamingChunkSizeBytes,
+      int streamingParallelism) {
     this.s3BucketName = s3BucketName;
     this.allowedRifFileType = allowedRifFileType.orElse(null);
     this.s3ListMaxKeys = s3ListMaxKeys.orElse(null);
     this.s3ClientConfig = s3ClientConfig;
+    this.streamingDownloadEnabled = streamingDownloadEnabled;
+    this.streamingChunkSizeBytes = streamingChunkSizeBytes;
+    this.streamingParallelism = streamingParallelism;
+  }
+
+  /**
+   * Initializes an instance that downloads RIF files before parsing them.
+   *
+   * @param s3BucketName the value to use for {@link #s3BucketName}
+   * @param allowedRifFileType the value to use for {@link #getDataSetFilter()}
+   * @param s3ListMaxKeys the value to use for {@link #getS3ListMaxKeys()}
+   * @param s3ClientConfig used to configure S3 clients
+   */
+  public ExtractionOptions(
+      String s3BucketName,
+      Optional<RifFileType> allowedRifFileType,
+      Optional<Integer> s3ListMaxKeys,
+      S3ClientConfig s3ClientConfig) {
+    this(
+        s3BucketName,
+        allowedRifFileType,
+        s3ListMaxKeys,
+        s3ClientConfig,
+        false,
+        DEFAULT_STREAMING_CHUNK_SIZE_BYTES,
+        DEFAULT_STREAMING_PARALLELISM);
   }
 
   /**
@@ -95,6 +144,12 @@ public final class ExtractionOptions {
     builder.append(s3BucketName);
     builder.append(", allowedRifFileType=");
     builder.append(allowedRifFileType);
+    builder.append(", streamingDownloadEnabled=");
+    builder.append(streamingDownloadEnabled);
+    builder.append(", streamingChunkSizeBytes=");
+    builder.append(streamingChunkSizeBytes);
+    builder.append(", streamingParallelism=");
+    builder.append(streamingParallelism);
     builder.append("]");
     return builder.toString();
   }
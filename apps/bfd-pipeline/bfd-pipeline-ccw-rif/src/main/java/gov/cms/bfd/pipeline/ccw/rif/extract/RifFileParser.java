@@ -5,11 +5,11 @@ import gov.cms.bfd.model.rif.RifRecordEvent;
 import gov.cms.bfd.model.rif.parse.RifParsingUtils;
 import gov.cms.bfd.pipeline.sharedutils.FluxUtils;
 import gov.cms.bfd.sharedutils.interfaces.ThrowingFunction;
+import gov.cms.model.dsl.codegen.library.CsvRifRow;
+import gov.cms.model.dsl.codegen.library.RifRow;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.concurrent.ThreadSafe;
-import lombok.AllArgsConstructor;
-import lombok.RequiredArgsConstructor;
-import org.apache.commons.csv.CSVRecord;
 import reactor.core.publisher.Flux;
 import reactor.util.function.Tuple2;
 
@@ -19,6 +19,22 @@ import reactor.util.function.Tuple2;
  */
 @ThreadSafe
 public abstract class RifFileParser {
+  /**
+   * When true the rows of a file are read using a {@link RifRecordReader} rather than a {@link
+   * org.apache.commons.csv.CSVParser}. Files using a charset that the {@link RifRecordReader} does
+   * not support are always read with a {@link org.apache.commons.csv.CSVParser}.
+   */
+  private final boolean recordReaderEnabled;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
+   */
+  protected RifFileParser(boolean recordReaderEnabled) {
+    this.recordReaderEnabled = recordReaderEnabled;
+  }
+
   /**
    * Creates a new {@link Flux} that, when subscribed to, opens the file, parses RIF data, and
    * publishes the resulting {@link RifRecordEvent} objects.
@@ -28,31 +44,76 @@ public abstract class RifFileParser {
    */
   public abstract Flux<RifRecordEvent<?>> parseRifFile(RifFile rifFile);
 
+  /**
+   * Creates a new {@link Flux} that, when subscribed to, opens the file and publishes its rows. The
+   * file is closed when the subscription ends.
+   *
+   * @param rifFile the file to read
+   * @return flux that publishes the rows of the file
+   */
+  protected Flux<RifRow> readRows(RifFile rifFile) {
+    if (recordReaderEnabled && RifRecordReader.isSupported(rifFile.getCharset())) {
+      return FluxUtils.fromAutoCloseable(
+          // creates a RifRecordReader for new subscriber
+          () -> RifRecordReader.open(rifFile),
+          // creates flux for subscriber to receive rows
+          Flux::fromIterable,
+          // used in log message if closing the RifRecordReader fails
+          rifFile.getDisplayName());
+    }
+    return FluxUtils.fromAutoCloseable(
+        // creates a CSVParser for new subscriber
+        () -> RifParsingUtils.createCsvParser(rifFile),
+        // creates flux for subscriber to receive rows
+        csvParser -> {
+          // CSVParser copies its header map on every call so we capture it once for all rows
+          final Map<String, Integer> headerMap = csvParser.getHeaderMap();
+          return Flux.fromIterable(csvParser)
+              .map(csvRecord -> (RifRow) new CsvRifRow(csvRecord, headerMap));
+        },
+        // used in log message if closing the CSVParser fails
+        rifFile.getDisplayName());
+  }
+
   /**
    * Implementation that parses each individual record into a {@link RifRecordEvent} using a lambda
    * function.
    */
-  @AllArgsConstructor
   public static class Simple extends RifFileParser {
-    /** Lambda used to parse a single {@link CSVRecord} into a {@link RifRecordEvent}. */
-    private final ThrowingFunction<RifRecordEvent<?>, CSVRecord, Exception> parser;
+    /** Lambda used to parse a single {@link RifRow} into a {@link RifRecordEvent}. */
+    private final ThrowingFunction<RifRecordEvent<?>, RifRow, Exception> parser;
+
+    /**
+     * Initializes an instance that reads rows using a {@link org.apache.commons.csv.CSVParser}.
+     *
+     * @param parser lambda used to parse each row
+     */
+    public Simple(ThrowingFunction<RifRecordEvent<?>, RifRow, Exception> parser) {
+      this(false, parser);
+    }
+
+    /**
+     * Initializes an instance.
+     *
+     * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
+     * @param parser lambda used to parse each row
+     */
+    public Simple(
+        boolean recordReaderEnabled,
+        ThrowingFunction<RifRecordEvent<?>, RifRow, Exception> parser) {
+      super(recordReaderEnabled);
+      this.parser = parser;
+    }
 
     @Override
     public Flux<RifRecordEvent<?>> parseRifFile(RifFile rifFile) {
-      return FluxUtils.fromAutoCloseable(
-          // creates a CSVParser for new subscriber
-          () -> RifParsingUtils.createCsvParser(rifFile),
-          // creates flux for subscriber to receive parsed events
-          csvParser ->
-              Flux.fromIterable(csvParser)
-                  .map(FluxUtils.wrapFunction(parser))
-                  // The index operator wraps each record in a tuple containing the index and the
-                  // record.  Then we map with addRecordNumber to set the record number in the
-                  // record and return the record itself.
-                  .index()
-                  .map(RifFileParser::addRecordNumber),
-          // used in log message if closing the CSVParser fails
-          rifFile.getDisplayName());
+      return readRows(rifFile)
+          .map(FluxUtils.wrapFunction(parser))
+          // The index operator wraps each record in a tuple containing the index and the
+          // record.  Then we map with addRecordNumber to set the record number in the
+          // record and return the record itself.
+          .index()
+          .map(RifFileParser::addRecordNumber);
     }
   }
 
@@ -60,42 +121,62 @@ public abstract class RifFileParser {
    * Implementation that parses groups of consecutive records that have the same value in a given
    * column into a {@link RifRecordEvent} using a lambda function.
    */
-  @RequiredArgsConstructor
   public static class Grouping extends RifFileParser {
     /** The name of the column to group by. */
     private final String groupingColumn;
 
-    /** Lambda used to parse one or more {@link CSVRecord}s into a {@link RifRecordEvent}. */
-    private final ThrowingFunction<RifRecordEvent<?>, List<CSVRecord>, Exception> parser;
+    /** Lambda used to parse one or more {@link RifRow}s into a {@link RifRecordEvent}. */
+    private final ThrowingFunction<RifRecordEvent<?>, List<RifRow>, Exception> parser;
+
+    /**
+     * Initializes an instance that reads rows using a {@link org.apache.commons.csv.CSVParser}.
+     *
+     * @param groupingColumn the name of the column to group by
+     * @param parser lambda used to parse each group of rows
+     */
+    public Grouping(
+        String groupingColumn,
+        ThrowingFunction<RifRecordEvent<?>, List<RifRow>, Exception> parser) {
+      this(false, groupingColumn, parser);
+    }
+
+    /**
+     * Initializes an instance.
+     *
+     * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
+     * @param groupingColumn the name of the column to group by
+     * @param parser lambda used to parse each group of rows
+     */
+    public Grouping(
+        boolean recordReaderEnabled,
+        String groupingColumn,
+        ThrowingFunction<RifRecordEvent<?>, List<RifRow>, Exception> parser) {
+      super(recordReaderEnabled);
+      this.groupingColumn = groupingColumn;
+      this.parser = parser;
+    }
 
     @Override
     public Flux<RifRecordEvent<?>> parseRifFile(RifFile rifFile) {
-      return FluxUtils.fromAutoCloseable(
-          // creates a CSVParser for new subscriber
-          () -> RifParsingUtils.createCsvParser(rifFile),
-          // creates flux for subscriber to receive parsed events
-          csvParser ->
-              Flux.fromIterable(csvParser)
-                  // joins consecutive records with same grouping column value
-                  .bufferUntilChanged(csvRecord -> csvRecord.get(groupingColumn))
-                  // parses the list of records
-                  .flatMap(this::parse)
-                  // The index operator wraps each record in a tuple containing the index and the
-                  // record.  Then we map with addRecordNumber to set the record number in the
-                  // record and return the record itself.
-                  .index()
-                  .map(RifFileParser::addRecordNumber),
-          // used in log message if closing the CSVParser fails
-          rifFile.getDisplayName());
+      return readRows(rifFile)
+          // joins consecutive records with same grouping column value
+          .bufferUntilChanged(row -> row.get(groupingColumn))
+          // parses the list of records
+          .flatMap(this::parse)
+          // The index operator wraps each record in a tuple containing the index and the
+          // record.  Then we map with addRecordNumber to set the record number in the
+          // record and return the record itself.
+          .index()
+          .map(RifFileParser::addRecordNumber);
     }
 
     /**
-     * Calls the lambda to produce a new {@link RifRecordEvent} from a list of {@link CSVRecord}s.
+     * Calls the lambda to produce a new {@link RifRecordEvent} from a list of {@link RifRow}s.
      *
      * @param records group of records to parse (may be empty)
      * @return flux containing the resulting object or an empty flux if the list was empty
      */
-    private Flux<RifRecordEvent<?>> parse(List<CSVRecord> records) {
+    private Flux<RifRecordEvent<?>> parse(List<RifRow> records) {
       try {
         return records.isEmpty() ? Flux.empty() : Flux.just(parser.apply(records));
       } catch (Exception ex) {
@@ -28,12 +28,12 @@ import gov.cms.bfd.model.rif.entities.SNFClaimParser;
 import gov.cms.bfd.model.rif.parse.InvalidRifValueException;
 import gov.cms.model.dsl.codegen.library.DataTransformer.TransformationException;
 import gov.cms.model.dsl.codegen.library.RifObjectWrapper;
+import gov.cms.model.dsl.codegen.library.RifRow;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVRecord;
 import reactor.core.publisher.Flux;
 
 /** Contains services responsible for handling new RIF files. */
@@ -42,6 +42,26 @@ public class RifFilesProcessor {
   /** Column ID for the column that contains the action value in each CSV record. */
   private static final String RECORD_ACTION_COLUMN = "DML_IND";
 
+  /**
+   * When true the rows of each file are read using a {@link RifRecordReader} rather than a {@link
+   * org.apache.commons.csv.CSVParser}.
+   */
+  private final boolean recordReaderEnabled;
+
+  /** Initializes an instance that reads rows using a {@link org.apache.commons.csv.CSVParser}. */
+  public RifFilesProcessor() {
+    this(false);
+  }
+
+  /**
+   * Initializes an instance.
+   *
+   * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
+   */
+  public RifFilesProcessor(boolean recordReaderEnabled) {
+    this.recordReaderEnabled = recordReaderEnabled;
+  }
+
   /**
    * Produces a {@link RifFileRecords} with the {@link RifRecordEvent}s produced from the specified
    * {@link RifFileEvent}.
@@ -74,12 +94,13 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser beneficiaryEventParser(RifFileEvent fileEvent) {
+  private RifFileParser beneficiaryEventParser(RifFileEvent fileEvent) {
     final var parser = new BeneficiaryParser();
     return new RifFileParser.Simple(
+        recordReaderEnabled,
         csvRecord -> {
           trace(csvRecord);
-          final List<CSVRecord> csvRecords = List.of(csvRecord);
+          final List<RifRow> csvRecords = List.of(csvRecord);
           final RecordAction recordAction = parseRecordAction(csvRecord);
           final Beneficiary beneficiaryRow = parse(csvRecords, parser::transformMessage);
 
@@ -102,12 +123,13 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser beneficiaryHistoryEventParser(RifFileEvent fileEvent) {
+  private RifFileParser beneficiaryHistoryEventParser(RifFileEvent fileEvent) {
     final var parser = new BeneficiaryHistoryParser();
     return new RifFileParser.Simple(
+        recordReaderEnabled,
         csvRecord -> {
           trace(csvRecord);
-          final List<CSVRecord> csvRecords = List.of(csvRecord);
+          final List<RifRow> csvRecords = List.of(csvRecord);
           final RecordAction recordAction = parseRecordAction(csvRecord);
           final BeneficiaryHistory beneHistoryRow = parse(csvRecords, parser::transformMessage);
           return new RifRecordEvent<>(
@@ -125,12 +147,13 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser partDEventParser(RifFileEvent fileEvent) {
+  private RifFileParser partDEventParser(RifFileEvent fileEvent) {
     final var parser = new PartDEventParser();
     return new RifFileParser.Simple(
+        recordReaderEnabled,
         csvRecord -> {
           trace(csvRecord);
-          final List<CSVRecord> csvRecords = List.of(csvRecord);
+          final List<RifRow> csvRecords = List.of(csvRecord);
           final RecordAction recordAction = parseRecordAction(csvRecord);
           final PartDEvent partDEvent = parse(csvRecords, parser::transformMessage);
           return new RifRecordEvent<>(
@@ -144,9 +167,10 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser inpatientClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser inpatientClaimParser(RifFileEvent fileEvent) {
     final var parser = new InpatientClaimParser();
     return new RifFileParser.Grouping(
+        recordReaderEnabled,
         RifFileType.INPATIENT.getIdColumn().name(),
         csvRecords -> {
           trace(csvRecords);
@@ -163,9 +187,10 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser outpatientClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser outpatientClaimParser(RifFileEvent fileEvent) {
     final var parser = new OutpatientClaimParser();
     return new RifFileParser.Grouping(
+        recordReaderEnabled,
         RifFileType.OUTPATIENT.getIdColumn().name(),
         csvRecords -> {
           trace(csvRecords);
@@ -182,9 +207,10 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser carrierClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser carrierClaimParser(RifFileEvent fileEvent) {
     final var parser = new CarrierClaimParser();
     return new RifFileParser.Grouping(
+        recordReaderEnabled,
         RifFileType.CARRIER.getIdColumn().name(),
         csvRecords -> {
           trace(csvRecords);
@@ -201,9 +227,10 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser snfClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser snfClaimParser(RifFileEvent fileEvent) {
     final var parser = new SNFClaimParser();
     return new RifFileParser.Grouping(
+        recordReaderEnabled,
         RifFileType.SNF.getIdColumn().name(),
         csvRecords -> {
           trace(csvRecords);
@@ -220,9 +247,10 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser hospiceClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser hospiceClaimParser(RifFileEvent fileEvent) {
     final var parser = new HospiceClaimParser();
     return new RifFileParser.Grouping(
+        recordReaderEnabled,
         RifFileType.HOSPICE.getIdColumn().name(),
         csvRecords -> {
           trace(csvRecords);
@@ -239,9 +267,10 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser hhaClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser hhaClaimParser(RifFileEvent fileEvent) {
     final var parser = new HHAClaimParser();
     return new RifFileParser.Grouping(
+        recordReaderEnabled,
         RifFileType.HHA.getIdColumn().name(),
         csvRecords -> {
           trace(csvRecords);
@@ -258,9 +287,10 @@ public class RifFilesProcessor {
    * @param fileEvent the {@link RifFileEvent} being processed
    * @return the parser
    */
-  private static RifFileParser dmeClaimParser(RifFileEvent fileEvent) {
+  private RifFileParser dmeClaimParser(RifFileEvent fileEvent) {
     final var parser = new DMEClaimParser();
     return new RifFileParser.Grouping(
+        recordReaderEnabled,
         RifFileType.DME.getIdColumn().name(),
         csvRecords -> {
           trace(csvRecords);
@@ -272,16 +302,15 @@ public class RifFilesProcessor {
   }
 
   /**
-   * Calls the provided parser lambda function with the given list of {@link CSVRecord}s to produce
-   * an object. {@link TransformationException}s are converted into {@link
-   * InvalidRifValueException}s.
+   * Calls the provided parser lambda function with the given list of {@link RifRow}s to produce an
+   * object. {@link TransformationException}s are converted into {@link InvalidRifValueException}s.
    *
    * @param csvRecords records to pass to the lambda function
    * @param parser the lambda function that does the parsing
    * @return the object returned by the lambda function
    * @param <T> the type of object returned by the lambda function
    */
-  private static <T> T parse(List<CSVRecord> csvRecords, Function<RifObjectWrapper, T> parser) {
+  private static <T> T parse(List<RifRow> csvRecords, Function<RifObjectWrapper, T> parser) {
     try {
       return parser.apply(new RifObjectWrapper(csvRecords));
     } catch (TransformationException error) {
@@ -302,7 +331,7 @@ public class RifFilesProcessor {
    * @return the action
    */
   @Nonnull
-  private static RecordAction parseRecordAction(CSVRecord csvRecord) {
+  private static RecordAction parseRecordAction(RifRow csvRecord) {
     return RecordAction.match(csvRecord.get(RECORD_ACTION_COLUMN));
   }
 
@@ -313,7 +342,7 @@ public class RifFilesProcessor {
    * @return the action
    */
   @Nonnull
-  private static RecordAction parseRecordAction(List<CSVRecord> csvRecords) {
+  private static RecordAction parseRecordAction(List<RifRow> csvRecords) {
     return parseRecordAction(csvRecords.get(0));
   }
 
@@ -322,7 +351,7 @@ public class RifFilesProcessor {
    *
    * @param csvRecords the records
    */
-  private static void trace(List<CSVRecord> csvRecords) {
+  private static void trace(List<RifRow> csvRecords) {
     if (log.isTraceEnabled()) {
       log.trace(csvRecords.toString());
     }
@@ -333,7 +362,7 @@ public class RifFilesProcessor {
    *
    * @param csvRecord the record
    */
-  private static void trace(CSVRecord csvRecord) {
+  private static void trace(RifRow csvRecord) {
     if (log.isTraceEnabled()) {
       log.trace(csvRecord.toString());
     }
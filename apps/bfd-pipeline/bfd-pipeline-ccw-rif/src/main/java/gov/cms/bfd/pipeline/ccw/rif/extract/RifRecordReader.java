@@ -0,0 +1,663 @@
+package gov.cms.bfd.pipeline.ccw.rif.extract;
+
+import com.google.common.annotations.VisibleForTesting;
+import gov.cms.bfd.model.rif.RifFile;
+import gov.cms.bfd.model.rif.parse.InvalidRifFileFormatException;
+import gov.cms.bfd.model.rif.parse.RifParsingUtils;
+import gov.cms.model.dsl.codegen.library.RifRow;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Reads the rows of a pipe-delimited RIF file directly from a {@link ReadableByteChannel}. This is
+ * an alternative to the commons-csv parser returned by {@link
+ * RifParsingUtils#createCsvParser(RifFile)} that produces exactly the same values but allocates far
+ * less: each row holds its raw bytes and the end offset of every field, and a {@link String} is
+ * only created when a non-empty field is read. Empty fields, which are the majority in most RIF
+ * files, never allocate anything.
+ *
+ * <p>The bytes are interpreted the same way as by the commons-csv path:
+ *
+ * <ul>
+ *   <li>A leading UTF-8 byte order mark is skipped.
+ *   <li>A {@code \|} in the raw file is treated as a plain delimiter, as done by the {@code
+ *       ReplacingInputStream} used by {@link RifParsingUtils}. Like that stream, a backslash always
+ *       consumes the byte following it, so in {@code \\|} only the first backslash is examined and
+ *       the delimiter is left escaped.
+ *   <li>The remaining content is parsed using the rules of {@link RifParsingUtils#CSV_FORMAT}:
+ *       {@code |} delimiters, {@code \} escapes, {@code "} quotes, and CR, LF, or CRLF line
+ *       endings.
+ * </ul>
+ *
+ * <p>Since every character with a special meaning is ASCII the parsing is done on bytes, which
+ * requires a charset in which ASCII characters are always encoded as single bytes that cannot
+ * appear within any other character. {@link #isSupported} tests for this. Only ASCII whitespace is
+ * tolerated between a closing quote and the following delimiter.
+ *
+ * <p>Instances are not thread safe and can only be iterated once.
+ */
+public final class RifRecordReader implements Iterable<RifRow>, Closeable {
+  /** The charsets that can be decoded by this reader. */
+  private static final Set<Charset> SUPPORTED_CHARSETS =
+      Set.of(StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.US_ASCII);
+
+  /** The default size of the read buffer. */
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  /** Initial capacity of the buffers used to accumulate a row. */
+  private static final int INITIAL_ROW_CAPACITY = 1024;
+
+  /** The UTF-8 byte order mark. */
+  private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+  /** Value returned by read methods at the end of the input. */
+  private static final int END_OF_INPUT = -1;
+
+  /** Value used when no character has been read or pushed back. */
+  private static final int NO_CHARACTER = -2;
+
+  /** Separates fields. */
+  private static final int DELIMITER = '|';
+
+  /** Escapes the following character. */
+  private static final int ESCAPE = '\\';
+
+  /** Encloses a quoted field. */
+  private static final int QUOTE = '"';
+
+  /** Carriage return. */
+  private static final int CR = '\r';
+
+  /** Line feed. */
+  private static final int LF = '\n';
+
+  /** The channel being read. */
+  private final ReadableByteChannel channel;
+
+  /** The charset of the file. */
+  private final Charset charset;
+
+  /** Bytes read from {@link #channel}. */
+  private final byte[] buffer;
+
+  /** Wraps {@link #buffer} for channel reads. */
+  private final ByteBuffer byteBuffer;
+
+  /** Index of the next unread byte in {@link #buffer}. */
+  private int position;
+
+  /** Number of valid bytes in {@link #buffer}. */
+  private int limit;
+
+  /** Set once {@link #channel} has reached the end of its data. */
+  private boolean endOfChannel;
+
+  /** A character that has been looked ahead at but not consumed, or {@link #NO_CHARACTER}. */
+  private int pushedBack = NO_CHARACTER;
+
+  /**
+   * A raw byte that followed a backslash and must be returned without being examined, or {@link
+   * #NO_CHARACTER}.
+   */
+  private int pendingRawByte = NO_CHARACTER;
+
+  /** The last character consumed, or {@link #NO_CHARACTER}. */
+  private int lastChar = NO_CHARACTER;
+
+  /** Content of the fields of the row being read. */
+  private byte[] content = new byte[INITIAL_ROW_CAPACITY];
+
+  /** Number of bytes in {@link #content}. */
+  private int contentLength;
+
+  /** End offset in {@link #content} of each field of the row being read. */
+  private int[] fieldEnds = new int[INITIAL_ROW_CAPACITY / 8];
+
+  /** Number of fields in the row being read. */
+  private int fieldCount;
+
+  /** Set by a token that ends at the end of the input but still contributes a value. */
+  private boolean tokenReady;
+
+  /** Number of the last row read, not counting the header. */
+  private long recordNumber;
+
+  /** Maps each header label to its column index. Shared by all rows. */
+  private final Map<String, Integer> headerMap;
+
+  /** Set once {@link #iterator()} has been called. */
+  private boolean iterated;
+
+  /**
+   * Tests whether files in the given charset can be read.
+   *
+   * @param charset the charset of a file
+   * @return true if the charset is supported
+   */
+  public static boolean isSupported(Charset charset) {
+    return SUPPORTED_CHARSETS.contains(charset);
+  }
+
+  /**
+   * Opens the given file and reads its header.
+   *
+   * @param rifFile the file to read
+   * @return the reader
+   * @throws IllegalArgumentException if the charset of the file is not supported
+   * @throws InvalidRifFileFormatException if the header cannot be read
+   */
+  public static RifRecordReader open(RifFile rifFile) {
+    if (!isSupported(rifFile.getCharset())) {
+      throw new IllegalArgumentException("Unsupported charset: " + rifFile.getCharset());
+    }
+    final ReadableByteChannel channel = rifFile.openChannel();
+    try {
+      return new RifRecordReader(channel, rifFile.getCharset());
+    } catch (RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException closeError) {
+        e.addSuppressed(closeError);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Constructs a reader for the given channel and reads the header.
+   *
+   * @param channel the channel to read
+   * @param charset the charset of the data
+   * @throws InvalidRifFileFormatException if the header cannot be read
+   */
+  public RifRecordReader(ReadableByteChannel channel, Charset charset) {
+    this(channel, charset, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Constructs a reader for the given channel using a buffer of the given size and reads the
+   * header.
+   *
+   * @param channel the channel to read
+   * @param charset the charset of the data
+   * @param bufferSize the size of the read buffer, which must be at least 3
+   * @throws InvalidRifFileFormatException if the header cannot be read
+   */
+  @VisibleForTesting
+  RifRecordReader(ReadableByteChannel channel, Charset charset, int bufferSize) {
+    this.channel = channel;
+    this.charset = charset;
+    buffer = new byte[bufferSize];
+    byteBuffer = ByteBuffer.wrap(buffer);
+    try {
+      skipByteOrderMark();
+      headerMap = readHeader();
+    } catch (IOException e) {
+      throw new InvalidRifFileFormatException("Invalid RIF header record", e);
+    }
+  }
+
+  /**
+   * Accessor for the header of the file.
+   *
+   * @return unmodifiable map of column label to column index
+   */
+  public Map<String, Integer> getHeaderMap() {
+    return headerMap;
+  }
+
+  /**
+   * Returns an iterator over the rows following the header. {@link IOException}s and parse errors
+   * are thrown from the iterator as {@link UncheckedIOException}s.
+   *
+   * @return the iterator
+   * @throws IllegalStateException if called more than once
+   */
+  @Override
+  public Iterator<RifRow> iterator() {
+    if (iterated) {
+      throw new IllegalStateException("rows can only be iterated once");
+    }
+    iterated = true;
+    return new Iterator<>() {
+      /** The next row, or null if it has not been read yet. */
+      private RifRow next;
+
+      /** Set once the last row has been read. */
+      private boolean done;
+
+      @Override
+      public boolean hasNext() {
+        if (next == null && !done) {
+          try {
+            next = readRow();
+          } catch (IOException e) {
+            throw new UncheckedIOException("IOException reading next record: " + e.getMessage(), e);
+          }
+          done = next == null;
+        }
+        return next != null;
+      }
+
+      @Override
+      public RifRow next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final RifRow row = next;
+        next = null;
+        return row;
+      }
+    };
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Skips the UTF-8 byte order mark if the data starts with one.
+   *
+   * @throws IOException pass through from reading the channel
+   */
+  private void skipByteOrderMark() throws IOException {
+    while (limit < BYTE_ORDER_MARK.length && fill()) {
+      // keep reading until there are enough bytes to compare
+    }
+    if (limit >= BYTE_ORDER_MARK.length
+        && Arrays.equals(buffer, 0, BYTE_ORDER_MARK.length, BYTE_ORDER_MARK, 0, 3)) {
+      position = BYTE_ORDER_MARK.length;
+    }
+  }
+
+  /**
+   * Reads the first record and maps each of its values to its column index.
+   *
+   * @return the header map
+   * @throws IOException if the header cannot be parsed
+   */
+  private Map<String, Integer> readHeader() throws IOException {
+    final Map<String, Integer> header = new LinkedHashMap<>();
+    if (readRecord()) {
+      for (int i = 0; i < fieldCount; ++i) {
+        header.put(decode(content, fieldStart(fieldEnds, i), fieldEnds[i]), i);
+      }
+    }
+    return Collections.unmodifiableMap(header);
+  }
+
+  /**
+   * Reads the next row.
+   *
+   * @return the row, or null at the end of the data
+   * @throws IOException if the data cannot be read or parsed
+   */
+  private RifRow readRow() throws IOException {
+    if (!readRecord()) {
+      return null;
+    }
+    recordNumber += 1;
+    return new Row(
+        Arrays.copyOf(content, contentLength), Arrays.copyOf(fieldEnds, fieldCount), recordNumber);
+  }
+
+  /**
+   * Reads the next record into {@link #content} and {@link #fieldEnds}.
+   *
+   * @return false if the end of the data was reached before any value was read
+   * @throws IOException if the data cannot be read or parsed
+   */
+  private boolean readRecord() throws IOException {
+    contentLength = 0;
+    fieldCount = 0;
+    Token token;
+    do {
+      tokenReady = false;
+      final int fieldStart = contentLength;
+      token = nextToken();
+      if (token != Token.END_OF_INPUT || tokenReady) {
+        endField();
+      } else {
+        contentLength = fieldStart;
+      }
+    } while (token == Token.FIELD);
+    return fieldCount > 0;
+  }
+
+  /**
+   * Reads the next field, appending its content to {@link #content}.
+   *
+   * @return what ended the field
+   * @throws IOException if the data cannot be read or parsed
+   */
+  private Token nextToken() throws IOException {
+    final int previous = lastChar;
+    int c = read();
+    final boolean endOfLine = readEndOfLine(c);
+    if (previous == END_OF_INPUT || (previous != DELIMITER && c == END_OF_INPUT)) {
+      return Token.END_OF_INPUT;
+    }
+    if (c == DELIMITER) {
+      return Token.FIELD;
+    }
+    if (endOfLine) {
+      return Token.END_OF_RECORD;
+    }
+    if (c == QUOTE) {
+      return parseQuotedField();
+    }
+    while (true) {
+      if (readEndOfLine(c)) {
+        return Token.END_OF_RECORD;
+      }
+      if (c == END_OF_INPUT) {
+        tokenReady = true;
+        return Token.END_OF_INPUT;
+      }
+      if (c == DELIMITER) {
+        return Token.FIELD;
+      }
+      if (c == ESCAPE) {
+        appendEscape();
+      } else {
+        append(c);
+      }
+      c = read();
+    }
+  }
+
+  /**
+   * Reads the remainder of a field that started with a quote.
+   *
+   * @return what ended the field
+   * @throws IOException if the data cannot be read or the quotes are not balanced
+   */
+  private Token parseQuotedField() throws IOException {
+    while (true) {
+      int c = read();
+      if (c == ESCAPE) {
+        appendEscape();
+      } else if (c == QUOTE) {
+        if (peek() == QUOTE) {
+          append(read());
+        } else {
+          while (true) {
+            c = read();
+            if (c == DELIMITER) {
+              return Token.FIELD;
+            }
+            if (c == END_OF_INPUT) {
+              tokenReady = true;
+              return Token.END_OF_INPUT;
+            }
+            if (readEndOfLine(c)) {
+              return Token.END_OF_RECORD;
+            }
+            if (!Character.isWhitespace(c)) {
+              throw new IOException(
+                  String.format(
+                      "(record %d) invalid char between encapsulated token and delimiter",
+                      recordNumber + 1));
+            }
+          }
+        }
+      } else if (c == END_OF_INPUT) {
+        throw new IOException(
+            String.format(
+                "(record %d) EOF reached before encapsulated token finished", recordNumber + 1));
+      } else {
+        append(c);
+      }
+    }
+  }
+
+  /**
+   * Appends the character(s) represented by an escape sequence, the escape character having just
+   * been read.
+   *
+   * @throws IOException if the data ends within the escape sequence
+   */
+  private void appendEscape() throws IOException {
+    final int c = read();
+    switch (c) {
+      case 'r' -> append(CR);
+      case 'n' -> append(LF);
+      case 't' -> append('\t');
+      case 'b' -> append('\b');
+      case 'f' -> append('\f');
+      case CR, LF, '\t', '\b', '\f', DELIMITER, ESCAPE, QUOTE -> append(c);
+      case END_OF_INPUT -> throw new IOException("EOF whilst processing escape sequence");
+      default -> {
+        append(ESCAPE);
+        append(c);
+      }
+    }
+  }
+
+  /**
+   * Tests whether a character ends a line, consuming the LF of a CRLF pair.
+   *
+   * @param c the character just read
+   * @return true if the character ends a line
+   * @throws IOException pass through from reading the channel
+   */
+  private boolean readEndOfLine(int c) throws IOException {
+    if (c == CR && peek() == LF) {
+      read();
+    }
+    return c == CR || c == LF;
+  }
+
+  /** Records the end of the current field. */
+  private void endField() {
+    if (fieldCount == fieldEnds.length) {
+      fieldEnds = Arrays.copyOf(fieldEnds, fieldEnds.length * 2);
+    }
+    fieldEnds[fieldCount++] = contentLength;
+  }
+
+  /**
+   * Appends a byte to the current field.
+   *
+   * @param c the byte
+   */
+  private void append(int c) {
+    if (contentLength == content.length) {
+      content = Arrays.copyOf(content, content.length * 2);
+    }
+    content[contentLength++] = (byte) c;
+  }
+
+  /**
+   * Consumes the next character.
+   *
+   * @return the character, or {@link #END_OF_INPUT}
+   * @throws IOException pass through from reading the channel
+   */
+  private int read() throws IOException {
+    final int c;
+    if (pushedBack != NO_CHARACTER) {
+      c = pushedBack;
+      pushedBack = NO_CHARACTER;
+    } else {
+      c = readUnescapedDelimiter();
+    }
+    lastChar = c;
+    return c;
+  }
+
+  /**
+   * Returns the next character without consuming it.
+   *
+   * @return the character, or {@link #END_OF_INPUT}
+   * @throws IOException pass through from reading the channel
+   */
+  private int peek() throws IOException {
+    if (pushedBack == NO_CHARACTER) {
+      pushedBack = readUnescapedDelimiter();
+    }
+    return pushedBack;
+  }
+
+  /**
+   * Consumes the next byte, replacing a raw {@code \|} with a plain delimiter. The byte following
+   * any other backslash is held in {@link #pendingRawByte} so that it cannot start a match itself.
+   *
+   * @return the byte, or {@link #END_OF_INPUT}
+   * @throws IOException pass through from reading the channel
+   */
+  private int readUnescapedDelimiter() throws IOException {
+    if (pendingRawByte != NO_CHARACTER) {
+      final int c = pendingRawByte;
+      pendingRawByte = NO_CHARACTER;
+      return c;
+    }
+    if (position == limit && !fill()) {
+      return END_OF_INPUT;
+    }
+    final int c = buffer[position++] & 0xFF;
+    if (c == ESCAPE && (position < limit || fill())) {
+      final int next = buffer[position++] & 0xFF;
+      if (next == DELIMITER) {
+        return DELIMITER;
+      }
+      pendingRawByte = next;
+    }
+    return c;
+  }
+
+  /**
+   * Moves any unread bytes to the start of {@link #buffer} and reads more data after them.
+   *
+   * @return true if at least one byte was read
+   * @throws IOException pass through from reading the channel
+   */
+  private boolean fill() throws IOException {
+    if (endOfChannel) {
+      return false;
+    }
+    final int remaining = limit - position;
+    System.arraycopy(buffer, position, buffer, 0, remaining);
+    position = 0;
+    limit = remaining;
+    byteBuffer.clear().position(limit);
+    int count;
+    do {
+      count = channel.read(byteBuffer);
+    } while (count == 0);
+    if (count < 0) {
+      endOfChannel = true;
+      return false;
+    }
+    limit += count;
+    return true;
+  }
+
+  /**
+   * Decodes a slice of bytes.
+   *
+   * @param bytes the bytes
+   * @param start offset of the first byte
+   * @param end offset following the last byte
+   * @return the decoded string
+   */
+  private String decode(byte[] bytes, int start, int end) {
+    return start == end ? "" : new String(bytes, start, end - start, charset);
+  }
+
+  /**
+   * Computes the start offset of a field.
+   *
+   * @param ends the end offset of every field
+   * @param index the index of the field
+   * @return the offset of the first byte of the field
+   */
+  private static int fieldStart(int[] ends, int index) {
+    return index == 0 ? 0 : ends[index - 1];
+  }
+
+  /** The ways a field can end. */
+  private enum Token {
+    /** Ended by a delimiter, so another field follows in the same record. */
+    FIELD,
+    /** Ended by the end of a line. */
+    END_OF_RECORD,
+    /** Ended by the end of the data. */
+    END_OF_INPUT
+  }
+
+  /** A row holding the raw bytes of its fields. */
+  private final class Row implements RifRow {
+    /** The bytes of every field. */
+    private final byte[] bytes;
+
+    /** The end offset in {@link #bytes} of every field. */
+    private final int[] ends;
+
+    /** The number of this row. */
+    private final long number;
+
+    /**
+     * Constructs a new row.
+     *
+     * @param bytes the bytes of every field
+     * @param ends the end offset of every field
+     * @param number the number of this row
+     */
+    private Row(byte[] bytes, int[] ends, long number) {
+      this.bytes = bytes;
+      this.ends = ends;
+      this.number = number;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, Integer> getHeaderMap() {
+      return headerMap;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int size() {
+      return ends.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String get(int index) {
+      return decode(bytes, fieldStart(ends, index), ends[index]);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean isEmpty(int index) {
+      return fieldStart(ends, index) == ends[index];
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getRecordNumber() {
+      return number;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+      return "RifRow [recordNumber=" + number + ", values=" + toList() + "]";
+    }
+  }
+}
@@ -17,6 +17,8 @@ import gov.cms.bfd.pipeline.sharedutils.s3.S3DirectoryDao.DownloadedFile;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -159,10 +161,28 @@ public class DataSetQueue implements AutoCloseable {
     try (var ignored = appMetrics.timer(TIMER_DOWNLOAD_ENTRY).time()) {
       final var s3Key = entryRecord.getS3Key();
       final var downloadedFile = downloadFileAndCheckMD5(s3Key);
-      return new ManifestEntry(entryRecord, downloadedFile);
+      return new ManifestEntry(entryRecord, new CachedEntryData(downloadedFile));
     }
   }
 
+  /**
+   * Reads the meta data of the data file from S3 without downloading it. Every time the returned
+   * entry is opened the file is streamed directly from S3 using parallel ranged GETs, so parsing
+   * can start as soon as the first chunk arrives. The MD5 checksum is computed as the file is read
+   * and is verified before the end of the file is returned to the reader, which makes a mismatch
+   * fail the load before its last batch of records can be written.
+   *
+   * @param entryRecord database record corresponding to the entry
+   * @param chunkSize number of bytes requested by each ranged GET
+   * @param parallelism maximum number of ranged GETs in flight at one time
+   * @return object containing information about the streamed file
+   */
+  public ManifestEntry streamManifestEntry(S3DataFile entryRecord, int chunkSize, int parallelism) {
+    final var fileDetails = s3Files.readFileDetails(entryRecord.getS3Key());
+    return new ManifestEntry(
+        entryRecord, new StreamedEntryData(s3Files, fileDetails, chunkSize, parallelism));
+  }
+
   /**
    * Checks the S3 bucket to see if all of the files corresponding to the manifest's entries exist
    * in the bucket. Does not download any files.
@@ -221,31 +241,42 @@ public class DataSetQueue implements AutoCloseable {
   /**
    * Updates the entry's record in the database to mark it as started.
    *
+   * <p>The files of a manifest can be loaded concurrently, and this writes the records of all of
+   * them, so updates to the files of a manifest are serialized by locking the manifest record. This
+   * ensures the last record number written for a file never goes backwards.
+   *
    * @param dataFileRecord database record corresponding to the data file
    * @throws BadCodeMonkeyException if the entry has already been completely processed
    */
   public void markAsStarted(S3DataFile dataFileRecord) {
-    if (!STARTABLE_ENTRY_STATUSES.contains(dataFileRecord.getStatus())) {
-      throw new BadCodeMonkeyException("Attempting to start processing a completed data file.");
+    final S3ManifestFile manifestRecord = dataFileRecord.getParentManifest();
+    synchronized (manifestRecord) {
+      if (!STARTABLE_ENTRY_STATUSES.contains(dataFileRecord.getStatus())) {
+        throw new BadCodeMonkeyException("Attempting to start processing a completed data file.");
+      }
+      dataFileRecord.setStatus(S3DataFile.FileStatus.STARTED);
+      dataFileRecord.setStatusTimestamp(clock.instant());
+      s3Records.updateS3ManifestAndDataFiles(manifestRecord);
     }
-    dataFileRecord.setStatus(S3DataFile.FileStatus.STARTED);
-    dataFileRecord.setStatusTimestamp(clock.instant());
-    s3Records.updateS3ManifestAndDataFiles(dataFileRecord.getParentManifest());
   }
 
   /**
-   * Updates the entry's record in the database to mark it as completed.
+   * Updates the entry's record in the database to mark it as completed. Locks the manifest record
+   * the same way as {@link #markAsStarted(S3DataFile)}.
    *
    * @param dataFileRecord database record corresponding to the data file
    * @throws BadCodeMonkeyException if the entry has already been completely processed
    */
   public void markAsCompleted(S3DataFile dataFileRecord) {
-    if (!STARTABLE_ENTRY_STATUSES.contains(dataFileRecord.getStatus())) {
-      throw new BadCodeMonkeyException("Attempting to mark a completed data file as completed.");
+    final S3ManifestFile manifestRecord = dataFileRecord.getParentManifest();
+    synchronized (manifestRecord) {
+      if (!STARTABLE_ENTRY_STATUSES.contains(dataFileRecord.getStatus())) {
+        throw new BadCodeMonkeyException("Attempting to mark a completed data file as completed.");
+      }
+      dataFileRecord.setStatus(S3DataFile.FileStatus.COMPLETED);
+      dataFileRecord.setStatusTimestamp(clock.instant());
+      s3Records.updateS3ManifestAndDataFiles(manifestRecord);
     }
-    dataFileRecord.setStatus(S3DataFile.FileStatus.COMPLETED);
-    dataFileRecord.setStatusTimestamp(clock.instant());
-    s3Records.updateS3ManifestAndDataFiles(dataFileRecord.getParentManifest());
   }
 
   /**
@@ -391,18 +422,117 @@ public class DataSetQueue implements AutoCloseable {
    */
   public record Manifest(DataSetManifest manifest, S3ManifestFile manifestRecord) {}
 
+  /** Provides access to the contents of a {@link ManifestEntry}'s data file. */
+  private interface EntryData {
+    /**
+     * Returns a {@link ByteSource} that can be used to read the data.
+     *
+     * @return the byte source
+     */
+    ByteSource getBytes();
+
+    /**
+     * Opens a {@link ReadableByteChannel} that can be used to read the data.
+     *
+     * @return the channel
+     * @throws IOException pass through if the data cannot be opened
+     */
+    ReadableByteChannel openChannel() throws IOException;
+
+    /**
+     * Deletes any local copy of the data.
+     *
+     * @throws IOException pass through if delete fails
+     */
+    void delete() throws IOException;
+
+    /**
+     * Returns a description of where the data is read from for use in logging.
+     *
+     * @return the description
+     */
+    String getCachedFilePath();
+  }
+
+  /**
+   * {@link EntryData} for a data file that has been downloaded to the local cache.
+   *
+   * @param fileData the cached file
+   */
+  private record CachedEntryData(DownloadedFile fileData) implements EntryData {
+    @Override
+    public ByteSource getBytes() {
+      return fileData.getBytes();
+    }
+
+    @Override
+    public ReadableByteChannel openChannel() throws IOException {
+      return fileData.openChannel();
+    }
+
+    @Override
+    public void delete() throws IOException {
+      fileData.delete();
+    }
+
+    @Override
+    public String getCachedFilePath() {
+      return fileData.getAbsolutePath();
+    }
+  }
+
+  /**
+   * {@link EntryData} for a data file that is streamed directly from S3 each time it is opened.
+   * Nothing is stored locally so {@link #delete} does nothing.
+   *
+   * @param s3Files used to open the streams
+   * @param fileDetails meta data of the file in S3
+   * @param chunkSize number of bytes requested by each ranged GET
+   * @param parallelism maximum number of ranged GETs in flight at one time
+   */
+  private record StreamedEntryData(
+      S3FileManager s3Files, S3Dao.S3ObjectDetails fileDetails, int chunkSize, int parallelism)
+      implements EntryData {
+    @Override
+    public ByteSource getBytes() {
+      return new ByteSource() {
+        @Nonnull
+        @Override
+        public InputStream openStream() throws IOException {
+          return Channels.newInputStream(openChannel());
+        }
+      };
+    }
+
+    @Override
+    public ReadableByteChannel openChannel() throws IOException {
+      return s3Files.openStreamingChannel(
+          fileDetails, MD5_CHECKSUM_META_DATA_FIELD, chunkSize, parallelism);
+    }
+
+    @Override
+    public void delete() {
+      // nothing is cached locally
+    }
+
+    @Override
+    public String getCachedFilePath() {
+      return "(streamed from S3)";
+    }
+  }
+
   /**
-   * Representation of a manifest entry (data file) that has been downloaded from S3 and tracked in
-   * the database. Provides helper methods to interact with the file and its contents without
-   * exposing them to other classes.
+   * Representation of a manifest entry (data file) that has been downloaded from S3, or that will
+   * be streamed from S3, and tracked in the database. Provides helper methods to interact with the
+   * file and its contents without exposing them to other classes.
    */
   @AllArgsConstructor
   public class ManifestEntry {
     /** The database record for the data file itself. */
     private final S3DataFile dataFileRecord;
 
-    /** The cached file. */
-    private final DownloadedFile fileData;
+    /** The cached or streamed file. */
+    private final EntryData fileData;
 
     /**
      * Extracts the manifest id and index in the form of a {@link RifFile.RecordId}.
@@ -423,6 +553,16 @@ public class DataSetQueue implements AutoCloseable {
       return fileData.getBytes();
     }
 
+    /**
+     * Opens a {@link ReadableByteChannel} that can be used to read the cached data.
+     *
+     * @return the channel
+     * @throws IOException pass through if the file cannot be opened
+     */
+    public ReadableByteChannel openChannel() throws IOException {
+      return fileData.openChannel();
+    }
+
     /**
      * Deletes the data file from the cache.
      *
@@ -433,12 +573,13 @@ public class DataSetQueue implements AutoCloseable {
     }
 
     /**
-     * Returns the absolute path of the cached file for use in logging.
+     * Returns the absolute path of the cached file, or a description of where a streamed file is
+     * read from, for use in logging.
      *
      * @return the path
      */
     public String getCachedFilePath() {
-      return fileData.getAbsolutePath();
+      return fileData.getCachedFilePath();
     }
 
     /**
@@ -479,13 +620,16 @@ public class DataSetQueue implements AutoCloseable {
 
     /**
      * Used to implement {@link RifFile#updateLastRecordNumber}. Sets the new record number value
-     * and updates the record in the database.
+     * and updates the record in the database. Locks the manifest record the same way as {@link
+     * DataSetQueue#markAsStarted(S3DataFile)}.
      *
      * @param recordNumber the new value
      */
     public void updateLastRecordNumber(long recordNumber) {
-      dataFileRecord.setLastRecordNumber(recordNumber);
-      s3Records.updateS3DataFile(dataFileRecord);
+      synchronized (dataFileRecord.getParentManifest()) {
+        dataFileRecord.setLastRecordNumber(recordNumber);
+        s3Records.updateS3DataFile(dataFileRecord);
+      }
     }
   }
 }
@@ -3,12 +3,15 @@ package gov.cms.bfd.pipeline.ccw.rif.extract.s3;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Strings;
 import com.google.common.io.ByteSource;
+import gov.cms.bfd.pipeline.sharedutils.s3.S3ChunkedObjectChannel;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3Dao;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3DirectoryDao;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3DirectoryDao.DownloadedFile;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
@@ -17,6 +20,7 @@ import java.util.Base64;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Manages the interactions between S3 and a local disk cache of files. Internally uses a {@link
@@ -105,6 +109,53 @@ public class S3FileManager implements AutoCloseable {
     }
   }
 
+  /**
+   * Reads the meta data of the file with the given key without downloading it.
+   *
+   * @param s3Key identifies the file
+   * @return the meta data
+   */
+  public S3Dao.S3ObjectDetails readFileDetails(String s3Key) {
+    return s3Dao.readObjectMetaData(s3BucketName, s3Key);
+  }
+
+  /**
+   * Opens a {@link ReadableByteChannel} that streams a file directly from S3 using parallel ranged
+   * GETs instead of downloading it to the cache first. If the given meta data field contains a
+   * checksum the channel computes the MD5 checksum as the file is read and fails before returning
+   * the end of the file if it does not match. Files with a {@code .gz} suffix are decompressed as
+   * they are read, just as they are by {@link DownloadedFile#getBytes}.
+   *
+   * @param fileDetails meta data of the file returned by {@link #readFileDetails}
+   * @param md5MetaDataField field that might contain a checksum
+   * @param chunkSize number of bytes requested by each ranged GET
+   * @param parallelism maximum number of ranged GETs in flight at one time
+   * @return the channel
+   * @throws IOException pass through if a compressed file's header cannot be read
+   */
+  public ReadableByteChannel openStreamingChannel(
+      S3Dao.S3ObjectDetails fileDetails, String md5MetaDataField, int chunkSize, int parallelism)
+      throws IOException {
+    final String metaDataMD5Checksum = fileDetails.getMetaData().get(md5MetaDataField);
+    final ReadableByteChannel channel =
+        new S3ChunkedObjectChannel(
+            s3Dao,
+            s3BucketName,
+            fileDetails,
+            chunkSize,
+            parallelism,
+            Strings.emptyToNull(metaDataMD5Checksum));
+    if (fileDetails.getKey().endsWith(".gz")) {
+      try {
+        return Channels.newChannel(new GZIPInputStream(Channels.newInputStream(channel)));
+      } catch (IOException ex) {
+        channel.close();
+        throw ex;
+      }
+    }
+    return channel;
+  }
+
   /**
    * Gets the number of bytes of usable disk space from the file system containing our cache
    * directory.
@@ -10,6 +10,7 @@ import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
@@ -93,6 +94,22 @@ public final class S3RifFile implements RifFile {
     return fileDownloadStream;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Uncompressed files are read directly from the downloaded file with a {@link
+   * java.nio.channels.FileChannel}.
+   */
+  @Override
+  public ReadableByteChannel openChannel() {
+    DataSetQueue.ManifestEntry fileDownloadResult = waitForDownload();
+    try {
+      return fileDownloadResult.openChannel();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   /**
    * Downloads the manifest entry and waits for its completion before returning.
    *
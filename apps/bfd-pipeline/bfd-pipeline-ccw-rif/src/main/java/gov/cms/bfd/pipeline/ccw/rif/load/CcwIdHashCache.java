@@ -0,0 +1,333 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import gov.cms.bfd.pipeline.sharedutils.IdHasher;
+import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the hashes of the HICNs and MBIs in the CCW RIF beneficiary files. Hashes are computed
+ * with an {@link IdHasher}, which is slow by design, so every hash is computed only once. Hashes
+ * that have been looked up recently are kept in an in-memory LRU cache sized by {@link
+ * IdHasher.Config#getCacheSize()}. Two implementations are provided, in the same way as the RDA
+ * pipeline's MBI cache: one that simply computes the hashes that are not in memory, and one that
+ * first looks them up in the {@code ccw_id_hashes} table and adds the ones it had to compute, so
+ * that identifiers seen in earlier loads are never re-hashed. That table is keyed by a digest of
+ * each identifier rather than the identifier itself, so it never contains a HICN or MBI.
+ *
+ * <p>Lookups are done for a whole batch of identifiers at a time and are safe to make from several
+ * threads at once.
+ */
+public abstract class CcwIdHashCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CcwIdHashCache.class);
+
+  /** Name of the meter counting the hashes that were computed. */
+  static final String METRIC_COMPUTED =
+      MetricRegistry.name(RifLoader.class.getSimpleName(), "idHashes", "computed");
+
+  /** Name of the meter counting the hashes that were found in memory. */
+  static final String METRIC_MEMORY_HITS =
+      MetricRegistry.name(RifLoader.class.getSimpleName(), "idHashes", "memoryHits");
+
+  /** Name of the meter counting the hashes that were found in the database. */
+  static final String METRIC_DATABASE_HITS =
+      MetricRegistry.name(RifLoader.class.getSimpleName(), "idHashes", "databaseHits");
+
+  /** Name of the counter accumulating the CPU time spent computing hashes, in nanoseconds. */
+  static final String METRIC_CPU_NANOS =
+      MetricRegistry.name(RifLoader.class.getSimpleName(), "idHashes", "cpuNanos");
+
+  /** Used to measure the CPU time spent computing hashes. */
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  /** Used to compute hash values. */
+  protected final IdHasher hasher;
+
+  /** In-memory cache used to prevent re-calculation of recently used hashes. */
+  private final Cache<String, String> cache;
+
+  /**
+   * Initializes an instance.
+   *
+   * @param hasher used to compute hash values
+   */
+  protected CcwIdHashCache(IdHasher hasher) {
+    this.hasher = hasher;
+    cache = CacheBuilder.newBuilder().maximumSize(hasher.getConfig().getCacheSize()).build();
+  }
+
+  /**
+   * Produces an instance that computes any hash that is not in memory.
+   *
+   * @param hasher used to compute hash values
+   * @return the cache
+   */
+  public static CcwIdHashCache computedCache(IdHasher hasher) {
+    return new Computed(hasher);
+  }
+
+  /**
+   * Produces an instance that looks up any hash that is not in memory in the {@code ccw_id_hashes}
+   * table, and adds any hash it has to compute to that table.
+   *
+   * @param hasher used to compute hash values
+   * @param entityManagerFactory used to access the database
+   * @return the cache
+   */
+  public static CcwIdHashCache databaseCache(
+      IdHasher hasher, EntityManagerFactory entityManagerFactory) {
+    return new DatabaseBacked(hasher, entityManagerFactory);
+  }
+
+  /**
+   * Gets the hashes of the given identifiers, computing only the ones that are not cached.
+   *
+   * @param identifiers the identifiers to hash, which may contain duplicates
+   * @param fileMetrics the {@link MetricRegistry} of the file being loaded, which receives the
+   *     hits, computed hashes and CPU time
+   * @return the hash of every identifier, by identifier
+   */
+  public Map<String, String> lookupHashes(
+      Collection<String> identifiers, MetricRegistry fileMetrics) {
+    final Map<String, String> hashes = new HashMap<>();
+    final Set<String> missing = new LinkedHashSet<>();
+    for (String identifier : identifiers) {
+      if (!hashes.containsKey(identifier)) {
+        final String hash = cache.getIfPresent(identifier);
+        if (hash != null) {
+          hashes.put(identifier, hash);
+        } else {
+          missing.add(identifier);
+        }
+      }
+    }
+    fileMetrics.meter(METRIC_MEMORY_HITS).mark(hashes.size());
+    if (missing.isEmpty()) {
+      return hashes;
+    }
+
+    final Map<String, String> stored = readStoredHashes(missing);
+    fileMetrics.meter(METRIC_DATABASE_HITS).mark(stored.size());
+    hashes.putAll(stored);
+    missing.removeAll(stored.keySet());
+
+    final Map<String, String> computed = new HashMap<>();
+    if (!missing.isEmpty()) {
+      final long startCpuNanos = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+      for (String identifier : missing) {
+        computed.put(identifier, hasher.computeIdentifierHash(identifier));
+      }
+      fileMetrics
+          .counter(METRIC_CPU_NANOS)
+          .inc(THREAD_MX_BEAN.getCurrentThreadCpuTime() - startCpuNanos);
+      fileMetrics.meter(METRIC_COMPUTED).mark(computed.size());
+      storeHashes(computed);
+      hashes.putAll(computed);
+    }
+
+    cache.putAll(stored);
+    cache.putAll(computed);
+    return hashes;
+  }
+
+  /**
+   * Looks up previously stored hashes.
+   *
+   * @param identifiers the identifiers to look up
+   * @return the hashes that were found, by identifier
+   */
+  protected abstract Map<String, String> readStoredHashes(Set<String> identifiers);
+
+  /**
+   * Stores newly computed hashes.
+   *
+   * @param hashes the hashes, by identifier
+   */
+  protected abstract void storeHashes(Map<String, String> hashes);
+
+  /** Concrete class that computes new hashes on demand. */
+  static class Computed extends CcwIdHashCache {
+    /**
+     * Initializes an instance.
+     *
+     * @param hasher used to compute hash values
+     */
+    Computed(IdHasher hasher) {
+      super(hasher);
+    }
+
+    @Override
+    protected Map<String, String> readStoredHashes(Set<String> identifiers) {
+      return Map.of();
+    }
+
+    @Override
+    protected void storeHashes(Map<String, String> hashes) {
+      // Nothing to do here.
+    }
+  }
+
+  /**
+   * {@link CcwIdHashCache} implementation that maintains a table in the database containing
+   * previously computed hashes. Each row records a fingerprint of the {@link IdHasher.Config} it
+   * was computed with, and rows with any other fingerprint are ignored and eventually replaced, so
+   * a change of the pepper or iterations never produces a stale hash.
+   *
+   * <p>Rows are keyed by an HMAC-SHA256 of the identifier, keyed with the hash pepper, so the table
+   * holds no plaintext identifiers and its keys cannot be reproduced without the pepper. The HMAC
+   * is only used to find rows; the stored hashes are still the slow {@link IdHasher} ones.
+   */
+  @VisibleForTesting
+  static class DatabaseBacked extends CcwIdHashCache {
+    /**
+     * The maximum number of identifiers included in each lookup query, which keeps the number of
+     * bind parameters well below the driver's limit.
+     */
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    /** The identifier whose hash is used as the fingerprint of the hashing settings. */
+    private static final String FINGERPRINT_IDENTIFIER = "ccw_id_hashes";
+
+    /** The length of the fingerprint stored with each hash. */
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    /** The algorithm used to compute the digest that keys each row. */
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+
+    /** Inserts a hash, or replaces one computed with different settings. */
+    private static final String UPSERT_SQL =
+        "insert into ccw_id_hashes (identifier_digest, hash, hasher_fingerprint) values (?, ?, ?)"
+            + " on conflict (identifier_digest) do update"
+            + " set hash = excluded.hash, hasher_fingerprint = excluded.hasher_fingerprint";
+
+    /** Used to access the database. */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /** The key used to compute the digest of each identifier. */
+    private final SecretKeySpec digestKey;
+
+    /** Identifies the hashing settings of {@link #hasher}. */
+    @VisibleForTesting final String fingerprint;
+
+    /**
+     * Initializes an instance.
+     *
+     * @param hasher used to compute hash values
+     * @param entityManagerFactory used to access the database
+     */
+    DatabaseBacked(IdHasher hasher, EntityManagerFactory entityManagerFactory) {
+      super(hasher);
+      this.entityManagerFactory = entityManagerFactory;
+      digestKey = new SecretKeySpec(hasher.getConfig().getHashPepper(), DIGEST_ALGORITHM);
+      fingerprint =
+          hasher.computeIdentifierHash(FINGERPRINT_IDENTIFIER).substring(0, FINGERPRINT_LENGTH);
+    }
+
+    /**
+     * Computes the digest that keys the row of an identifier.
+     *
+     * @param identifier the identifier
+     * @return the hex encoded digest, exactly 64 characters long
+     */
+    @VisibleForTesting
+    String computeIdentifierDigest(String identifier) {
+      try {
+        final Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+        mac.init(digestKey);
+        return HexFormat.of().formatHex(mac.doFinal(identifier.getBytes(StandardCharsets.UTF_8)));
+      } catch (GeneralSecurityException e) {
+        throw new BadCodeMonkeyException(e);
+      }
+    }
+
+    @Override
+    protected Map<String, String> readStoredHashes(Set<String> identifiers) {
+      final Map<String, String> identifiersByDigest = new HashMap<>();
+      for (String identifier : identifiers) {
+        identifiersByDigest.put(computeIdentifierDigest(identifier), identifier);
+      }
+      final Map<String, String> hashes = new HashMap<>();
+      try (TransactionManager transactionManager = new TransactionManager(entityManagerFactory)) {
+        for (List<String> digests :
+            Lists.partition(List.copyOf(identifiersByDigest.keySet()), MAX_IDS_PER_QUERY)) {
+          final List<?> rows =
+              transactionManager.executeFunction(
+                  entityManager ->
+                      entityManager
+                          .createNativeQuery(
+                              "select identifier_digest, hash from ccw_id_hashes"
+                                  + " where hasher_fingerprint = :fingerprint"
+                                  + " and identifier_digest in (:digests)")
+                          .setParameter("fingerprint", fingerprint)
+                          .setParameter("digests", digests)
+                          .getResultList());
+          for (Object row : rows) {
+            final Object[] columns = (Object[]) row;
+            hashes.put(identifiersByDigest.get((String) columns[0]), (String) columns[1]);
+          }
+        }
+      }
+      return hashes;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Another thread may be storing the same identifier at the same time, which the upsert
+     * tolerates since both compute the same hash. The rows are written in digest order so that
+     * concurrent batches always lock them in the same order. The table is only an optimization, so
+     * a failure to write it is logged rather than failing the load.
+     */
+    @Override
+    protected void storeHashes(Map<String, String> hashes) {
+      final Map<String, String> sortedHashes = new TreeMap<>();
+      for (Map.Entry<String, String> entry : hashes.entrySet()) {
+        sortedHashes.put(computeIdentifierDigest(entry.getKey()), entry.getValue());
+      }
+      try (TransactionManager transactionManager = new TransactionManager(entityManagerFactory)) {
+        transactionManager.executeProcedure(
+            entityManager ->
+                entityManager
+                    .unwrap(Session.class)
+                    .doWork(
+                        connection -> {
+                          try (PreparedStatement statement =
+                              connection.prepareStatement(UPSERT_SQL)) {
+                            for (Map.Entry<String, String> entry : sortedHashes.entrySet()) {
+                              statement.setString(1, entry.getKey());
+                              statement.setString(2, entry.getValue());
+                              statement.setString(3, fingerprint);
+                              statement.addBatch();
+                            }
+                            statement.executeBatch();
+                          }
+                        }));
+      } catch (RuntimeException e) {
+        LOGGER.warn("Unable to store {} identifier hashes: {}", hashes.size(), e.getMessage());
+      }
+    }
+  }
+}
@@ -67,6 +67,49 @@ public final class CcwRifLoadTestUtils {
             DEFAULT_QUEUE_SIZE_MULTIPLE));
   }
 
+  /**
+   * Gets the non-idempotent load options with {@link
+   * LoadAppOptions.PerformanceSettings#copyInsertsEnabled} turned on for claims.
+   *
+   * @return the {@link LoadAppOptions} that should be used in tests of COPY inserts
+   */
+  public static LoadAppOptions getLoadOptionsWithCopyInserts() {
+    return new LoadAppOptions(
+        new IdHasher.Config(HICN_HASH_ITERATIONS, HICN_HASH_PEPPER),
+        false,
+        new LoadAppOptions.PerformanceSettings(
+            LoadAppOptions.DEFAULT_LOADER_THREADS,
+            DEFAULT_LOAD_BATCH_SIZE,
+            DEFAULT_QUEUE_SIZE_MULTIPLE),
+        new LoadAppOptions.PerformanceSettings(
+            LoadAppOptions.DEFAULT_LOADER_THREADS,
+            DEFAULT_LOAD_BATCH_SIZE,
+            DEFAULT_QUEUE_SIZE_MULTIPLE,
+            true));
+  }
+
+  /**
+   * Gets the load options with {@link LoadAppOptions#idHashDatabaseCacheEnabled} turned on.
+   *
+   * @return the {@link LoadAppOptions} that should be used in tests of the {@code ccw_id_hashes}
+   *     table
+   */
+  public static LoadAppOptions getLoadOptionsWithIdHashDatabaseCache() {
+    return new LoadAppOptions(
+        new IdHasher.Config(HICN_HASH_ITERATIONS, HICN_HASH_PEPPER),
+        IDEMPOTENCY_REQUIRED,
+        new LoadAppOptions.PerformanceSettings(
+            LoadAppOptions.DEFAULT_LOADER_THREADS,
+            DEFAULT_LOAD_BATCH_SIZE,
+            DEFAULT_QUEUE_SIZE_MULTIPLE),
+        new LoadAppOptions.PerformanceSettings(
+            LoadAppOptions.DEFAULT_LOADER_THREADS,
+            DEFAULT_LOAD_BATCH_SIZE,
+            DEFAULT_QUEUE_SIZE_MULTIPLE),
+        true,
+        true);
+  }
+
   /**
    * Gets the load options with the specified batch size.
    *
@@ -0,0 +1,300 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import com.google.common.annotations.VisibleForTesting;
+import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.persistence.Column;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import lombok.Getter;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Inserts claims and their lines using PostgreSQL's {@code COPY ... FROM STDIN} command rather than
+ * one JPA {@link EntityManager#persist} per entity. Claims are collected with {@link #add} and
+ * written by {@link #flush}, which streams one {@code COPY} per table (claims before their lines)
+ * over the JDBC connection of the current transaction.
+ *
+ * <p>The columns of each table are discovered from the JPA annotations of the generated entity
+ * classes, so the rows written here always match what Hibernate would have inserted. Only plain
+ * inserts are supported: the caller has to {@link #flush} before applying any update through JPA
+ * that could touch a claim collected here. If the connection is not a PostgreSQL connection the
+ * collected claims are persisted through JPA instead.
+ *
+ * <p>Instances are not thread safe and are meant to be used for a single batch.
+ */
+final class ClaimCopyWriter {
+  /** The {@code COPY} text format representation of a null value. */
+  private static final String NULL_VALUE = "\\N";
+
+  /** The table mapping of each entity class, built on first use. */
+  private static final Map<Class<?>, CopyTable> TABLES = new ConcurrentHashMap<>();
+
+  /** The rows waiting to be written, by table, in the order the tables have to be written. */
+  private final Map<CopyTable, List<Object>> pendingRows = new LinkedHashMap<>();
+
+  /** The claims waiting to be written, in case we need to fall back to JPA. */
+  private final List<Object> pendingClaims = new ArrayList<>();
+
+  /**
+   * Adds a claim, and all of its lines, to the rows written by the next {@link #flush}.
+   *
+   * @param claim the claim entity to insert
+   */
+  void add(Object claim) {
+    pendingClaims.add(claim);
+    addRows(tableFor(claim.getClass()), claim);
+  }
+
+  /**
+   * Adds the rows of an entity and, recursively, of its children.
+   *
+   * @param table the table of the entity
+   * @param entity the entity
+   */
+  private void addRows(CopyTable table, Object entity) {
+    pendingRows.computeIfAbsent(table, ignored -> new ArrayList<>()).add(entity);
+    if (table.getChildren() != null) {
+      final CopyTable childTable = tableFor(table.getChildClass());
+      for (Object child : table.getChildren(entity)) {
+        addRows(childTable, child);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of claims waiting to be written.
+   *
+   * @return the number of claims
+   */
+  int getPendingCount() {
+    return pendingClaims.size();
+  }
+
+  /**
+   * Writes all of the collected claims to the database as part of the current transaction of the
+   * {@link EntityManager}.
+   *
+   * @param entityManager the {@link EntityManager} of the current transaction
+   */
+  void flush(EntityManager entityManager) {
+    if (pendingClaims.isEmpty()) {
+      return;
+    }
+    final boolean copied =
+        entityManager
+            .unwrap(Session.class)
+            .doReturningWork(
+                connection -> {
+                  if (!connection.isWrapperFor(PGConnection.class)) {
+                    return false;
+                  }
+                  final CopyManager copyManager =
+                      connection.unwrap(PGConnection.class).getCopyAPI();
+                  for (Map.Entry<CopyTable, List<Object>> entry : pendingRows.entrySet()) {
+                    final CopyTable table = entry.getKey();
+                    final StringBuilder rows = new StringBuilder();
+                    for (Object entity : entry.getValue()) {
+                      table.appendRow(entity, rows);
+                    }
+                    try {
+                      copyManager.copyIn(table.getCopySql(), new StringReader(rows.toString()));
+                    } catch (IOException e) {
+                      throw new UncheckedIOException(e);
+                    }
+                  }
+                  return true;
+                });
+    if (!copied) {
+      pendingClaims.forEach(entityManager::persist);
+    }
+    pendingClaims.clear();
+    pendingRows.clear();
+  }
+
+  /**
+   * Gets the table mapping of an entity class.
+   *
+   * @param entityClass the JPA entity class
+   * @return the table mapping
+   */
+  @VisibleForTesting
+  static CopyTable tableFor(Class<?> entityClass) {
+    return TABLES.computeIfAbsent(entityClass, CopyTable::new);
+  }
+
+  /**
+   * Appends a value to a row in the {@code COPY} text format.
+   *
+   * @param value the value, which may be null
+   * @param out the row
+   */
+  @VisibleForTesting
+  static void appendValue(Object value, StringBuilder out) {
+    if (value == null) {
+      out.append(NULL_VALUE);
+    } else if (value instanceof String || value instanceof Character) {
+      final String text = value.toString();
+      for (int i = 0; i < text.length(); ++i) {
+        final char c = text.charAt(i);
+        switch (c) {
+          case '\\' -> out.append("\\\\");
+          case '\t' -> out.append("\\t");
+          case '\n' -> out.append("\\n");
+          case '\r' -> out.append("\\r");
+          default -> out.append(c);
+        }
+      }
+    } else if (value instanceof Boolean b) {
+      out.append(b ? 't' : 'f');
+    } else if (value instanceof BigDecimal decimal) {
+      out.append(decimal.toPlainString());
+    } else if (value instanceof Number || value instanceof LocalDate || value instanceof Instant) {
+      // ISO-8601 dates and instants are accepted by both date and timestamptz columns
+      out.append(value);
+    } else {
+      throw new BadCodeMonkeyException(
+          String.format("Unsupported COPY column type: %s", value.getClass()));
+    }
+  }
+
+  /** The columns of a table, and the entity fields that provide their values. */
+  @VisibleForTesting
+  static final class CopyTable {
+    /** The {@code COPY} statement for the table. */
+    @Getter private final String copySql;
+
+    /** The fields of the columns, in the order they appear in {@link #copySql}. */
+    private final List<Field> columns = new ArrayList<>();
+
+    /**
+     * For each field in {@link #columns} that references a parent entity, the id field of that
+     * parent; null for plain columns.
+     */
+    private final List<Field> parentIds = new ArrayList<>();
+
+    /** The field holding the entity's child entities, if there is one. */
+    @Getter private final Field children;
+
+    /**
+     * Builds the mapping from the JPA annotations of the entity class.
+     *
+     * @param entityClass the JPA entity class
+     */
+    private CopyTable(Class<?> entityClass) {
+      final Table table = entityClass.getAnnotation(Table.class);
+      if (table == null) {
+        throw new BadCodeMonkeyException("Not a JPA table entity: " + entityClass);
+      }
+      final List<String> columnNames = new ArrayList<>();
+      Field childrenField = null;
+      for (Field field : entityClass.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(Transient.class)) {
+          continue;
+        }
+        field.setAccessible(true);
+        if (field.isAnnotationPresent(OneToMany.class)) {
+          childrenField = field;
+        } else if (field.isAnnotationPresent(ManyToOne.class)) {
+          columnNames.add(field.getAnnotation(JoinColumn.class).name());
+          columns.add(field);
+          parentIds.add(findIdField(field.getType()));
+        } else if (field.isAnnotationPresent(Column.class)) {
+          columnNames.add(field.getAnnotation(Column.class).name());
+          columns.add(field);
+          parentIds.add(null);
+        }
+      }
+      this.children = childrenField;
+      final String tableName =
+          table.schema().isEmpty() ? table.name() : table.schema() + "." + table.name();
+      this.copySql =
+          String.format("COPY %s (%s) FROM STDIN", tableName, String.join(", ", columnNames));
+    }
+
+    /**
+     * Finds the (first) id field of an entity class.
+     *
+     * @param entityClass the JPA entity class
+     * @return the id field
+     */
+    private static Field findIdField(Class<?> entityClass) {
+      for (Field field : entityClass.getDeclaredFields()) {
+        if (field.isAnnotationPresent(Id.class) && field.isAnnotationPresent(Column.class)) {
+          field.setAccessible(true);
+          return field;
+        }
+      }
+      throw new BadCodeMonkeyException("No id column in entity: " + entityClass);
+    }
+
+    /**
+     * Gets the entity class of the children in {@link #children}.
+     *
+     * @return the child entity class
+     */
+    Class<?> getChildClass() {
+      return (Class<?>) ((ParameterizedType) children.getGenericType()).getActualTypeArguments()[0];
+    }
+
+    /**
+     * Gets the child entities of an entity.
+     *
+     * @param entity the entity, whose table must have {@link #children}
+     * @return the child entities
+     */
+    Collection<?> getChildren(Object entity) {
+      try {
+        return (Collection<?>) children.get(entity);
+      } catch (IllegalAccessException e) {
+        throw new BadCodeMonkeyException(e);
+      }
+    }
+
+    /**
+     * Appends the row for an entity, terminated by a newline.
+     *
+     * @param entity the entity
+     * @param out the text to append to
+     */
+    void appendRow(Object entity, StringBuilder out) {
+      try {
+        for (int i = 0; i < columns.size(); ++i) {
+          if (i > 0) {
+            out.append('\t');
+          }
+          Object value = columns.get(i).get(entity);
+          final Field parentId = parentIds.get(i);
+          if (parentId != null && value != null) {
+            value = parentId.get(value);
+          }
+          appendValue(value, out);
+        }
+      } catch (IllegalAccessException e) {
+        throw new BadCodeMonkeyException(e);
+      }
+      out.append('\n');
+    }
+  }
+}
@@ -3,6 +3,7 @@ package gov.cms.bfd.pipeline.ccw.rif.load;
 import gov.cms.bfd.model.rif.RifFileType;
 import gov.cms.bfd.model.rif.RifRecordEvent;
 import gov.cms.bfd.pipeline.sharedutils.IdHasher;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 
@@ -28,6 +29,19 @@ public final class LoadAppOptions {
   /** Settings used for loading claims data. */
   @Getter private final PerformanceSettings claimPerformanceSettings;
 
+  /**
+   * When true, the current versions of the beneficiaries updated by a batch are loaded with one
+   * query per batch. When false, each one is loaded by its own query as its record is processed.
+   */
+  @Getter private final boolean beneficiaryPrefetchEnabled;
+
+  /**
+   * When true, the HICN and MBI hashes are also looked up in and added to the {@code ccw_id_hashes}
+   * table, so that identifiers seen in earlier loads are not hashed again. When false, they are
+   * only cached in memory.
+   */
+  @Getter private final boolean idHashDatabaseCacheEnabled;
+
   /**
    * Initializes an instance.
    *
@@ -41,11 +55,39 @@ public final class LoadAppOptions {
       boolean idempotencyRequired,
       PerformanceSettings beneficiaryPerformanceSettings,
       PerformanceSettings claimPerformanceSettings) {
+    this(
+        idHasherConfig,
+        idempotencyRequired,
+        beneficiaryPerformanceSettings,
+        claimPerformanceSettings,
+        true,
+        false);
+  }
+
+  /**
+   * Initializes an instance.
+   *
+   * @param idHasherConfig the value to use for {@link #idHasherConfig}
+   * @param idempotencyRequired the value to use for {@link #idempotencyRequired}
+   * @param beneficiaryPerformanceSettings performance settings used for beneficiary records
+   * @param claimPerformanceSettings performance settings used for claim records
+   * @param beneficiaryPrefetchEnabled the value to use for {@link #beneficiaryPrefetchEnabled}
+   * @param idHashDatabaseCacheEnabled the value to use for {@link #idHashDatabaseCacheEnabled}
+   */
+  public LoadAppOptions(
+      IdHasher.Config idHasherConfig,
+      boolean idempotencyRequired,
+      PerformanceSettings beneficiaryPerformanceSettings,
+      PerformanceSettings claimPerformanceSettings,
+      boolean beneficiaryPrefetchEnabled,
+      boolean idHashDatabaseCacheEnabled) {
 
     this.idHasherConfig = idHasherConfig;
     this.idempotencyRequired = idempotencyRequired;
     this.beneficiaryPerformanceSettings = beneficiaryPerformanceSettings;
     this.claimPerformanceSettings = claimPerformanceSettings;
+    this.beneficiaryPrefetchEnabled = beneficiaryPrefetchEnabled;
+    this.idHashDatabaseCacheEnabled = idHashDatabaseCacheEnabled;
   }
 
   @Override
@@ -61,6 +103,10 @@ public final class LoadAppOptions {
     builder.append(beneficiaryPerformanceSettings);
     builder.append(", claimPerformanceSettings=");
     builder.append(claimPerformanceSettings);
+    builder.append(", beneficiaryPrefetchEnabled=");
+    builder.append(beneficiaryPrefetchEnabled);
+    builder.append(", idHashDatabaseCacheEnabled=");
+    builder.append(idHashDatabaseCacheEnabled);
     builder.append("]");
     return builder.toString();
   }
@@ -80,6 +126,7 @@ public final class LoadAppOptions {
 
   /** Settings used for performance tuning of the {@link RifLoader}. */
   @Data
+  @AllArgsConstructor
   public static class PerformanceSettings {
     /** The number of loader threads. */
     private final int loaderThreads;
@@ -93,5 +140,23 @@ public final class LoadAppOptions {
 
     /** The maximum size (per thread) of the task queue used to process batches. */
     private final int taskQueueSizeMultiple;
+
+    /**
+     * When true, non-idempotent inserts of claims (and their lines) are streamed to the database
+     * using PostgreSQL's {@code COPY} command instead of being persisted individually through JPA.
+     * Updates are always applied through JPA.
+     */
+    private final boolean copyInsertsEnabled;
+
+    /**
+     * Initializes an instance with {@link #copyInsertsEnabled} turned off.
+     *
+     * @param loaderThreads the value to use for {@link #loaderThreads}
+     * @param recordBatchSize the value to use for {@link #recordBatchSize}
+     * @param taskQueueSizeMultiple the value to use for {@link #taskQueueSizeMultiple}
+     */
+    public PerformanceSettings(int loaderThreads, int recordBatchSize, int taskQueueSizeMultiple) {
+      this(loaderThreads, recordBatchSize, taskQueueSizeMultiple, false);
+    }
   }
 }
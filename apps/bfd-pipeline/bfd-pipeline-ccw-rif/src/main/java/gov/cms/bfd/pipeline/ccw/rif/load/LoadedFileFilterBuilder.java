@@ -0,0 +1,60 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import gov.cms.bfd.model.rif.LoadedBatch;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import org.apache.spark.util.sketch.BloomFilter;
+
+/**
+ * Builds the {@link LoadedFileBloomFilter} of a completely loaded file from its {@link
+ * LoadedBatch}es. The filter is built exactly as the server would build it from the same batches,
+ * so a server can use it in place of its own.
+ */
+final class LoadedFileFilterBuilder {
+  /** Prevents instantiation of utility class. */
+  private LoadedFileFilterBuilder() {}
+
+  /**
+   * Builds and serializes a filter containing the beneficiaries of every batch.
+   *
+   * @param loadedFileId the file the batches belong to
+   * @param batches all of the file's batches
+   * @param created the creation timestamp to record
+   * @return the filter entity
+   * @throws IllegalArgumentException if there are no batches
+   */
+  static LoadedFileBloomFilter build(
+      long loadedFileId, List<LoadedBatch> batches, Instant created) {
+    if (batches.isEmpty()) {
+      throw new IllegalArgumentException("Batches cannot be empty for a filter");
+    }
+    int beneficiaryCount = 0;
+    for (LoadedBatch batch : batches) {
+      beneficiaryCount += batch.getBeneficiaryCount();
+    }
+    final BloomFilter bloomFilter =
+        BloomFilter.create(
+            Math.max(beneficiaryCount, 1), LoadedFileBloomFilter.FALSE_POSITIVE_PROBABILITY);
+    Instant lastUpdated = batches.get(0).getCreated();
+    for (LoadedBatch batch : batches) {
+      batch.forEachBeneficiary(bloomFilter::putLong);
+      if (batch.getCreated().isAfter(lastUpdated)) {
+        lastUpdated = batch.getCreated();
+      }
+    }
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      bloomFilter.writeTo(bytes);
+    } catch (IOException ex) {
+      // writing to memory never fails
+      throw new UncheckedIOException(ex);
+    }
+    return new LoadedFileBloomFilter(
+        loadedFileId, batches.size(), lastUpdated, bytes.toByteArray(), created);
+  }
+}
@@ -2,9 +2,11 @@ package gov.cms.bfd.pipeline.ccw.rif.load;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.google.common.collect.Lists;
 import gov.cms.bfd.model.rif.LoadedBatch;
 import gov.cms.bfd.model.rif.LoadedBatchBuilder;
 import gov.cms.bfd.model.rif.LoadedFile;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
 import gov.cms.bfd.model.rif.RecordAction;
 import gov.cms.bfd.model.rif.RifFile;
 import gov.cms.bfd.model.rif.RifFileEvent;
@@ -15,6 +17,9 @@ import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.BeneficiaryHistory;
 import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
 import gov.cms.bfd.model.rif.entities.Beneficiary_;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
+import gov.cms.bfd.model.rif.samhsa.SamhsaFlaggedClaim;
 import gov.cms.bfd.pipeline.ccw.rif.extract.RifFileRecords;
 import gov.cms.bfd.pipeline.ccw.rif.load.RifRecordLoadResult.LoadAction;
 import gov.cms.bfd.pipeline.sharedutils.FluxUtils;
@@ -30,8 +35,10 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -44,9 +51,11 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.JoinType;
 import javax.persistence.criteria.Root;
+import org.hibernate.jpa.QueryHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
@@ -81,6 +90,25 @@ public final class RifLoader {
   /** Used to wait for flux completion. */
   private final FluxWaiter fluxWaiter;
 
+  /** Computes the SAMHSA flag stored on each claim. */
+  private final SamhsaClaimClassifier samhsaClassifier;
+
+  /** Provides the HICN and MBI hashes, computing each one only once. */
+  private final CcwIdHashCache idHashCache;
+
+  /**
+   * The number of threads used to look up and compute HICN and MBI hashes. Computing them is CPU
+   * bound work, but looking them up in the database is not.
+   */
+  private static final int HASHING_THREADS = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The maximum number of beneficiary ids included in each query run by {@link
+   * #prefetchBeneficiaries}, which keeps the number of bind parameters well below the driver's
+   * limit regardless of the configured batch size.
+   */
+  private static final int MAX_PREFETCH_IDS_PER_QUERY = 1000;
+
   /** The maximum amount of time we will wait for a job to complete loading its batches. */
   private static final Duration MAX_FILE_WAIT_TIME = Duration.ofHours(72);
 
@@ -101,6 +129,11 @@ public final class RifLoader {
 
     idHasher = new IdHasher(options.getIdHasherConfig());
     fluxWaiter = new FluxWaiter(MAX_FILE_WAIT_TIME, MAX_INTERRUPTED_WAIT_TIME);
+    samhsaClassifier = new SamhsaClaimClassifier(SamhsaCodeSet.getInstance());
+    idHashCache =
+        options.isIdHashDatabaseCacheEnabled()
+            ? CcwIdHashCache.databaseCache(idHasher, appState.getEntityManagerFactory())
+            : CcwIdHashCache.computedCache(idHasher);
   }
 
   /**
@@ -199,6 +232,16 @@ public final class RifLoader {
           // Create and return a flux that asynchronously loads records in batches using a custom
           // scheduler.
           final Scheduler scheduler = createScheduler(performanceSettings);
+          // Beneficiary identifiers are hashed by a dedicated stage, ahead of the writers. Its
+          // threads may block on database reads, so they come from a bounded elastic scheduler.
+          final Scheduler hashingScheduler =
+              hashesIdentifiers(fileType)
+                  ? Schedulers.newBoundedElastic(
+                      HASHING_THREADS,
+                      Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+                      "RifLoaderHashing",
+                      60)
+                  : null;
           final var progressTracker = new RifFileProgressTracker(rifFile);
           final long startingRecordNumber = progressTracker.getStartingRecordNumber();
           if (startingRecordNumber > 0) {
@@ -218,6 +261,14 @@ public final class RifLoader {
               .subscribeOn(scheduler)
               // collect records into batches
               .buffer(performanceSettings.getRecordBatchSize())
+              // look up (or compute) the hashes of the batch's identifiers, if it has any
+              .flatMapSequential(
+                  batch ->
+                      hashingScheduler == null
+                          ? Mono.just(new HashedBatch(batch, Map.of()))
+                          : Mono.fromCallable(() -> hashIdentifiers(batch))
+                              .subscribeOn(hashingScheduler),
+                  HASHING_THREADS)
               // Set the number of batches we want to keep ready for processing.  The actual amount
               // will vary between 75% and 100% of the requested value as the flux manages the
               // queue.
@@ -227,7 +278,7 @@ public final class RifLoader {
               // process batches in parallel using threads from our scheduler
               .flatMap(
                   batch ->
-                      processBatch(batch, loadedFileId)
+                      processBatch(batch.records(), batch.idHashes(), loadedFileId)
                           .subscribeOn(scheduler)
                           // Stop processing if we have received an interrupt
                           .takeUntil(ignored -> interrupted.get()),
@@ -236,6 +287,13 @@ public final class RifLoader {
               .doOnNext(result -> progressTracker.recordComplete(result.getRecordNumber()))
               // Update progress with final result when all records have been processed
               .doOnComplete(() -> progressTracker.writeProgress())
+              // Publish the file's Bloom filter for the servers once all of its records are loaded
+              .doOnComplete(
+                  () -> {
+                    if (!interrupted.get()) {
+                      writeLoadedFileFilter(loadedFileId);
+                    }
+                  })
               // clean up when the flux terminates (either by error or completion)
               .doFinally(
                   ignored -> {
@@ -243,6 +301,9 @@ public final class RifLoader {
                     timerDataSetFile.stop();
                     logRecordCounts();
                     scheduler.dispose();
+                    if (hashingScheduler != null) {
+                      hashingScheduler.dispose();
+                    }
                   })
               // log success or failure events before they are published to subscriber
               .doOnComplete(() -> LOGGER.info("Processed '{}'.", dataToLoad))
@@ -256,11 +317,12 @@ public final class RifLoader {
    * and publishes the result for each record.
    *
    * @param recordsBatch the {@link RifRecordEvent}s to process
+   * @param idHashes the hashes of the batch's HICNs and MBIs, by identifier
    * @param loadedFileId the loaded file id
    * @return the flux
    */
   private Flux<RifRecordLoadResult> processBatch(
-      List<RifRecordEvent<?>> recordsBatch, long loadedFileId) {
+      List<RifRecordEvent<?>> recordsBatch, Map<String, String> idHashes, long loadedFileId) {
     return FluxUtils.fromIterableFunction(
         () -> {
           final RifFileEvent fileEvent = recordsBatch.get(0).getFileEvent();
@@ -293,7 +355,8 @@ public final class RifLoader {
               new TransactionManager(appState.getEntityManagerFactory())) {
             processResults =
                 transactionManager.executeFunction(
-                    entityManager -> processBatchImpl(recordsBatch, loadedFileId, entityManager));
+                    entityManager ->
+                        processBatchImpl(recordsBatch, idHashes, loadedFileId, entityManager));
           } catch (Exception e) {
             LOGGER.warn("Failed to load '{}' batch.", rifFileType, e);
             failure = new RifLoadFailure(recordsBatch, e);
@@ -321,13 +384,17 @@ public final class RifLoader {
    * Loads a batch of records into the database and returns the load result for each record.
    *
    * @param recordsBatch the {@link RifRecordEvent}s to process
+   * @param idHashes the hashes of the batch's HICNs and MBIs, by identifier
    * @param loadedFileId the loaded file id
    * @param entityManager the {@link EntityManager} for the current transaction
    * @return the {@link RifRecordLoadResult}s that model the results of the operation
    * @throws IOException can be thrown by {@link org.apache.commons.csv.CSVPrinter}
    */
   private List<RifRecordLoadResult> processBatchImpl(
-      List<RifRecordEvent<?>> recordsBatch, long loadedFileId, EntityManager entityManager)
+      List<RifRecordEvent<?>> recordsBatch,
+      Map<String, String> idHashes,
+      long loadedFileId,
+      EntityManager entityManager)
       throws IOException {
     RifFileEvent fileEvent = recordsBatch.get(0).getFileEvent();
     MetricRegistry fileEventMetrics = fileEvent.getEventMetrics();
@@ -335,8 +402,8 @@ public final class RifLoader {
 
     if (rifFileType == RifFileType.BENEFICIARY_HISTORY) {
       for (RifRecordEvent<?> rifRecordEvent : recordsBatch) {
-        hashBeneficiaryHistoryHicn(rifRecordEvent);
-        hashBeneficiaryHistoryMbi(rifRecordEvent);
+        hashBeneficiaryHistoryHicn(rifRecordEvent, idHashes);
+        hashBeneficiaryHistoryMbi(rifRecordEvent, idHashes);
       }
     }
 
@@ -349,6 +416,19 @@ public final class RifLoader {
     LoadedBatchBuilder loadedBatchBuilder =
         new LoadedBatchBuilder(loadedFileId, recordsBatch.size());
 
+    // Claim inserts can be streamed with COPY instead of being persisted one at a time.
+    final ClaimCopyWriter copyWriter =
+        isClaimFileType(rifFileType)
+                && options.selectPerformanceSettingsForFileType(rifFileType).isCopyInsertsEnabled()
+            ? new ClaimCopyWriter()
+            : null;
+
+    // Look up the current version of every beneficiary updated by this batch at once.
+    final Map<Long, Beneficiary> prefetchedBeneficiaries =
+        rifFileType == RifFileType.BENEFICIARY && options.isBeneficiaryPrefetchEnabled()
+            ? prefetchBeneficiaries(recordsBatch, entityManager, fileEventMetrics)
+            : new HashMap<>();
+
     for (RifRecordEvent<?> rifRecordEvent : recordsBatch) {
       RecordAction recordAction = rifRecordEvent.getRecordAction();
       RifRecordBase record = rifRecordEvent.getRecord();
@@ -358,6 +438,11 @@ public final class RifLoader {
       // Set lastUpdated to the same value for the whole batch
       record.setLastUpdated(Optional.of(loadedBatchBuilder.getTimestamp()));
 
+      // Store the SAMHSA flag so the server doesn't need to scan the claim's codes on every read
+      if (record instanceof SamhsaFlaggedClaim claim) {
+        samhsaClassifier.updateSamhsaFlag(claim);
+      }
+
       // Associate the beneficiary with this file loaded
       loadedBatchBuilder.associateBeneficiary(rifRecordEvent.getBeneficiaryId());
 
@@ -378,7 +463,8 @@ public final class RifLoader {
 
         if (recordInDb == null) {
           loadAction = LoadAction.INSERTED;
-          tweakIfBeneficiary(entityManager, loadedBatchBuilder, rifRecordEvent);
+          tweakIfBeneficiary(
+              entityManager, loadedBatchBuilder, rifRecordEvent, prefetchedBeneficiaries, idHashes);
           entityManager.persist(record);
           // FIXME Object recordInDbAfterUpdate = entityManager.find(record.getClass(), recordId);
         } else {
@@ -387,11 +473,19 @@ public final class RifLoader {
       } else if (strategy == LoadStrategy.INSERT_UPDATE_NON_IDEMPOTENT) {
         if (rifRecordEvent.getRecordAction().equals(RecordAction.INSERT)) {
           loadAction = LoadAction.INSERTED;
-          tweakIfBeneficiary(entityManager, loadedBatchBuilder, rifRecordEvent);
-          entityManager.persist(record);
+          tweakIfBeneficiary(
+              entityManager, loadedBatchBuilder, rifRecordEvent, prefetchedBeneficiaries, idHashes);
+          if (copyWriter != null) {
+            copyWriter.add(record);
+          } else {
+            entityManager.persist(record);
+          }
         } else if (rifRecordEvent.getRecordAction().equals(RecordAction.UPDATE)) {
           loadAction = LoadAction.UPDATED;
-          tweakIfBeneficiary(entityManager, loadedBatchBuilder, rifRecordEvent);
+          tweakIfBeneficiary(
+              entityManager, loadedBatchBuilder, rifRecordEvent, prefetchedBeneficiaries, idHashes);
+          // The update might be for a claim inserted earlier in this batch.
+          flushCopyWriter(copyWriter, entityManager, fileEventMetrics);
           entityManager.merge(record);
         } else {
           throw new BadCodeMonkeyException(
@@ -408,12 +502,95 @@ public final class RifLoader {
 
       loadResults.add(new RifRecordLoadResult(rifRecordEvent, loadAction));
     }
+    flushCopyWriter(copyWriter, entityManager, fileEventMetrics);
     LoadedBatch loadedBatch = loadedBatchBuilder.build();
     entityManager.persist(loadedBatch);
 
     return loadResults;
   }
 
+  /**
+   * Determines whether the records of a file type are claims, whose inserts can be written by a
+   * {@link ClaimCopyWriter}.
+   *
+   * @param rifFileType the type of file being loaded
+   * @return true if the file contains claims
+   */
+  private static boolean isClaimFileType(RifFileType rifFileType) {
+    return rifFileType != RifFileType.BENEFICIARY && rifFileType != RifFileType.BENEFICIARY_HISTORY;
+  }
+
+  /**
+   * Writes any claims collected by a {@link ClaimCopyWriter} to the database.
+   *
+   * @param copyWriter the {@link ClaimCopyWriter}, or null if COPY inserts are not being used
+   * @param entityManager the {@link EntityManager} for the current transaction
+   * @param fileEventMetrics the {@link MetricRegistry} of the file being loaded
+   */
+  private void flushCopyWriter(
+      ClaimCopyWriter copyWriter, EntityManager entityManager, MetricRegistry fileEventMetrics) {
+    if (copyWriter == null || copyWriter.getPendingCount() == 0) {
+      return;
+    }
+    try (Timer.Context ignored =
+        fileEventMetrics
+            .timer(MetricRegistry.name(getClass().getSimpleName(), "copyInserts"))
+            .time()) {
+      copyWriter.flush(entityManager);
+    }
+  }
+
+  /**
+   * Loads the current version of every {@link Beneficiary} that is updated by a batch, along with
+   * its {@link Beneficiary#getBeneficiaryMonthlys()}, using one query per {@link
+   * #MAX_PREFETCH_IDS_PER_QUERY} beneficiaries rather than one query per record. Beneficiaries
+   * updated more than once in the batch are left out, as only their first update could use the
+   * prefetched version; those are queried individually by {@link #tweakIfBeneficiary} instead.
+   *
+   * @param recordsBatch the {@link RifRecordEvent}s of the batch
+   * @param entityManager the {@link EntityManager} for the current transaction
+   * @param fileEventMetrics the {@link MetricRegistry} of the file being loaded
+   * @return the beneficiaries that were found, by beneficiary id
+   */
+  private Map<Long, Beneficiary> prefetchBeneficiaries(
+      List<RifRecordEvent<?>> recordsBatch,
+      EntityManager entityManager,
+      MetricRegistry fileEventMetrics) {
+    final Map<Long, Integer> recordCounts = new HashMap<>();
+    for (RifRecordEvent<?> rifRecordEvent : recordsBatch) {
+      recordCounts.merge(rifRecordEvent.getBeneficiaryId(), 1, Integer::sum);
+    }
+    final List<Long> beneficiaryIds =
+        recordsBatch.stream()
+            .filter(rifRecordEvent -> rifRecordEvent.getRecordAction() == RecordAction.UPDATE)
+            .map(RifRecordEvent::getBeneficiaryId)
+            .filter(beneficiaryId -> recordCounts.get(beneficiaryId) == 1)
+            .toList();
+    final Map<Long, Beneficiary> beneficiaries = new HashMap<>();
+    if (beneficiaryIds.isEmpty()) {
+      return beneficiaries;
+    }
+
+    try (Timer.Context ignored =
+        fileEventMetrics
+            .timer(MetricRegistry.name(getClass().getSimpleName(), "beneficiaryLookups", "batch"))
+            .time()) {
+      for (List<Long> ids : Lists.partition(beneficiaryIds, MAX_PREFETCH_IDS_PER_QUERY)) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Beneficiary> criteria = builder.createQuery(Beneficiary.class);
+        Root<Beneficiary> root = criteria.from(Beneficiary.class);
+        root.fetch(Beneficiary_.beneficiaryMonthlys, JoinType.LEFT);
+        criteria.select(root);
+        criteria.where(root.get(Beneficiary_.beneficiaryId).in(ids));
+        // The fetch join repeats each beneficiary once per monthly row; the map keeps one of each.
+        for (Beneficiary beneficiary : entityManager.createQuery(criteria).getResultList()) {
+          beneficiaries.put(beneficiary.getBeneficiaryId(), beneficiary);
+        }
+      }
+    }
+    return beneficiaries;
+  }
+
   /**
    * Applies various "tweaks" to the {@link Beneficiary} (if any) in the specified {@link
    * RifRecordEvent}:
@@ -427,11 +604,16 @@ public final class RifLoader {
    * @param entityManager the {@link EntityManager} to use
    * @param loadedBatchBuilder the {@link LoadedBatchBuilder} to use
    * @param rifRecordEvent the {@link RifRecordEvent} to handle the {@link Beneficiary} (if any) for
+   * @param prefetchedBeneficiaries the current versions of the beneficiaries updated by the batch,
+   *     as returned by {@link #prefetchBeneficiaries}; the entry used is removed
+   * @param idHashes the hashes of the batch's HICNs and MBIs, by identifier
    */
   private void tweakIfBeneficiary(
       EntityManager entityManager,
       LoadedBatchBuilder loadedBatchBuilder,
-      RifRecordEvent<?> rifRecordEvent) {
+      RifRecordEvent<?> rifRecordEvent,
+      Map<Long, Beneficiary> prefetchedBeneficiaries,
+      Map<String, String> idHashes) {
     RifRecordBase record = rifRecordEvent.getRecord();
 
     // Nothing to do here unless it's a Beneficiary record.
@@ -452,17 +634,32 @@ public final class RifLoader {
        * record/PK in same RIF file allowed. Otherwise, we're running the risk of data race bugs and
        * out-of-order application due to the asynchronous nature of this processing.
        */
-      CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-      CriteriaQuery<Beneficiary> criteria = builder.createQuery(Beneficiary.class);
-      Root<Beneficiary> root = criteria.from(Beneficiary.class);
-      root.fetch(Beneficiary_.beneficiaryMonthlys, JoinType.LEFT);
-      criteria.select(root);
-      criteria.where(
-          builder.equal(
-              root.get(Beneficiary_.beneficiaryId), newBeneficiaryRecord.getBeneficiaryId()));
-
-      oldBeneficiaryRecord =
-          Optional.ofNullable(entityManager.createQuery(criteria).getSingleResult());
+      Beneficiary prefetchedBeneficiary =
+          prefetchedBeneficiaries.remove(newBeneficiaryRecord.getBeneficiaryId());
+      if (prefetchedBeneficiary != null) {
+        oldBeneficiaryRecord = Optional.of(prefetchedBeneficiary);
+      } else {
+        // Not prefetched (or already changed by an earlier record in this batch), so query it.
+        try (Timer.Context ignored =
+            rifRecordEvent
+                .getFileEvent()
+                .getEventMetrics()
+                .timer(
+                    MetricRegistry.name(getClass().getSimpleName(), "beneficiaryLookups", "single"))
+                .time()) {
+          CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+          CriteriaQuery<Beneficiary> criteria = builder.createQuery(Beneficiary.class);
+          Root<Beneficiary> root = criteria.from(Beneficiary.class);
+          root.fetch(Beneficiary_.beneficiaryMonthlys, JoinType.LEFT);
+          criteria.select(root);
+          criteria.where(
+              builder.equal(
+                  root.get(Beneficiary_.beneficiaryId), newBeneficiaryRecord.getBeneficiaryId()));
+
+          oldBeneficiaryRecord =
+              Optional.ofNullable(entityManager.createQuery(criteria).getSingleResult());
+        }
+      }
     }
 
     /*
@@ -476,7 +673,7 @@ public final class RifLoader {
             newBeneficiaryRecord.getHicnUnhashed(), oldBeneficiaryRecord.get().getHicnUnhashed())) {
       newBeneficiaryRecord.setHicn(oldBeneficiaryRecord.get().getHicn());
     } else {
-      hashBeneficiaryHicn(rifRecordEvent);
+      hashBeneficiaryHicn(rifRecordEvent, idHashes);
     }
     if (oldBeneficiaryRecord.isPresent()
         && Objects.equals(
@@ -484,7 +681,7 @@ public final class RifLoader {
             oldBeneficiaryRecord.get().getMedicareBeneficiaryId())) {
       newBeneficiaryRecord.setMbiHash(oldBeneficiaryRecord.get().getMbiHash());
     } else {
-      hashBeneficiaryMbi(rifRecordEvent);
+      hashBeneficiaryMbi(rifRecordEvent, idHashes);
     }
 
     if (rifRecordEvent.getRecordAction() == RecordAction.UPDATE) {
@@ -992,7 +1189,51 @@ public final class RifLoader {
     }
   }
 
-  /** Trim the LoadedFiles and LoadedBatches tables if necessary. */
+  /**
+   * Builds the Bloom filter of a completely loaded file from its LoadedBatches and saves it so that
+   * servers can read it instead of each building it themselves. A failure is only logged because
+   * servers fall back to building the filter from the batches when none has been saved.
+   *
+   * @param loadedFileId the loadedFileId of the completely loaded file
+   */
+  private void writeLoadedFileFilter(long loadedFileId) {
+    try (Timer.Context ignored =
+            appState
+                .getMetrics()
+                .timer(MetricRegistry.name(getClass().getSimpleName(), "loadedFileFilter", "write"))
+                .time();
+        TransactionManager transactionManager =
+            new TransactionManager(appState.getEntityManagerFactory())) {
+      transactionManager.executeProcedure(
+          entityManager -> {
+            final List<LoadedBatch> batches =
+                entityManager
+                    .createQuery(
+                        "select b from LoadedBatch b where b.loadedFileId = :loadedFileId",
+                        LoadedBatch.class)
+                    .setParameter("loadedFileId", loadedFileId)
+                    .setHint(QueryHints.HINT_READONLY, true)
+                    .getResultList();
+            if (!batches.isEmpty()) {
+              final LoadedFileBloomFilter filter =
+                  LoadedFileFilterBuilder.build(loadedFileId, batches, Instant.now());
+              entityManager.persist(filter);
+              LOGGER.info(
+                  "Saved filter of LoadedFile {} with {} batches in {} bytes",
+                  loadedFileId,
+                  filter.getBatchesCount(),
+                  filter.getBloomFilter().length);
+            }
+          });
+    } catch (RuntimeException ex) {
+      LOGGER.warn(
+          "Unable to save filter of LoadedFile {}, servers will build it from its batches",
+          loadedFileId,
+          ex);
+    }
+  }
+
+  /** Trim the LoadedFiles, LoadedFileBloomFilters, and LoadedBatches tables if necessary. */
   private void trimLoadedFiles() {
     EntityManager em = appState.getEntityManagerFactory().createEntityManager();
     EntityTransaction txn = null;
@@ -1011,6 +1252,9 @@ public final class RifLoader {
 
       if (oldIds.size() > 0) {
         LOGGER.info("Deleting old files: {}", oldIds.size());
+        em.createQuery("delete from LoadedFileBloomFilter where loadedFileId in :ids")
+            .setParameter("ids", oldIds)
+            .executeUpdate();
         em.createQuery("delete from LoadedBatch where loadedFileId in :ids")
             .setParameter("ids", oldIds)
             .executeUpdate();
@@ -1086,8 +1330,9 @@ public final class RifLoader {
    * <p>All other {@link RifRecordEvent}s are left unmodified.
    *
    * @param rifRecordEvent the {@link RifRecordEvent} to (possibly) modify
+   * @param idHashes the hashes computed ahead of time by {@link #hashIdentifiers}, by identifier
    */
-  private void hashBeneficiaryHicn(RifRecordEvent<?> rifRecordEvent) {
+  private void hashBeneficiaryHicn(RifRecordEvent<?> rifRecordEvent, Map<String, String> idHashes) {
     if (rifRecordEvent.getFileEvent().getFile().getFileType() != RifFileType.BENEFICIARY) return;
 
     Timer.Context timerHashing =
@@ -1099,7 +1344,7 @@ public final class RifLoader {
 
     Beneficiary beneficiary = (Beneficiary) rifRecordEvent.getRecord();
     if (beneficiary.getHicnUnhashed().isPresent()) {
-      String hicnHash = computeHicnHash(idHasher, beneficiary.getHicnUnhashed().get());
+      String hicnHash = lookupHash(idHashes, beneficiary.getHicnUnhashed().get());
       beneficiary.setHicn(hicnHash);
     } else {
       beneficiary.setHicn(null);
@@ -1118,8 +1363,9 @@ public final class RifLoader {
    * <p>All other {@link RifRecordEvent}s are left unmodified.
    *
    * @param rifRecordEvent the {@link RifRecordEvent} to (possibly) modify
+   * @param idHashes the hashes computed ahead of time by {@link #hashIdentifiers}, by identifier
    */
-  private void hashBeneficiaryMbi(RifRecordEvent<?> rifRecordEvent) {
+  private void hashBeneficiaryMbi(RifRecordEvent<?> rifRecordEvent, Map<String, String> idHashes) {
     if (rifRecordEvent.getFileEvent().getFile().getFileType() != RifFileType.BENEFICIARY) return;
 
     Timer.Context timerHashing =
@@ -1131,7 +1377,7 @@ public final class RifLoader {
 
     Beneficiary beneficiary = (Beneficiary) rifRecordEvent.getRecord();
     if (beneficiary.getMedicareBeneficiaryId().isPresent()) {
-      String mbiHash = computeMbiHash(idHasher, beneficiary.getMedicareBeneficiaryId().get());
+      String mbiHash = lookupHash(idHashes, beneficiary.getMedicareBeneficiaryId().get());
       beneficiary.setMbiHash(Optional.of(mbiHash));
     } else {
       beneficiary.setMbiHash(Optional.empty());
@@ -1150,8 +1396,10 @@ public final class RifLoader {
    * <p>All other {@link RifRecordEvent}s are left unmodified.
    *
    * @param rifRecordEvent the {@link RifRecordEvent} to (possibly) modify
+   * @param idHashes the hashes computed ahead of time by {@link #hashIdentifiers}, by identifier
    */
-  private void hashBeneficiaryHistoryHicn(RifRecordEvent<?> rifRecordEvent) {
+  private void hashBeneficiaryHistoryHicn(
+      RifRecordEvent<?> rifRecordEvent, Map<String, String> idHashes) {
     if (rifRecordEvent.getFileEvent().getFile().getFileType() != RifFileType.BENEFICIARY_HISTORY)
       return;
 
@@ -1168,7 +1416,7 @@ public final class RifLoader {
     beneficiaryHistory.setHicnUnhashed(Optional.of(beneficiaryHistory.getHicn()));
 
     // set the hashed Hicn
-    beneficiaryHistory.setHicn(computeHicnHash(idHasher, beneficiaryHistory.getHicn()));
+    beneficiaryHistory.setHicn(lookupHash(idHashes, beneficiaryHistory.getHicn()));
 
     timerHashing.stop();
   }
@@ -1183,8 +1431,10 @@ public final class RifLoader {
    * <p>All other {@link RifRecordEvent}s are left unmodified.
    *
    * @param rifRecordEvent the {@link RifRecordEvent} to (possibly) modify
+   * @param idHashes the hashes computed ahead of time by {@link #hashIdentifiers}, by identifier
    */
-  private void hashBeneficiaryHistoryMbi(RifRecordEvent<?> rifRecordEvent) {
+  private void hashBeneficiaryHistoryMbi(
+      RifRecordEvent<?> rifRecordEvent, Map<String, String> idHashes) {
     if (rifRecordEvent.getFileEvent().getFile().getFileType() != RifFileType.BENEFICIARY_HISTORY)
       return;
 
@@ -1202,13 +1452,76 @@ public final class RifLoader {
         .getMedicareBeneficiaryId()
         .ifPresent(
             mbi -> {
-              String mbiHash = computeMbiHash(idHasher, mbi);
+              String mbiHash = lookupHash(idHashes, mbi);
               beneficiaryHistory.setMbiHash(Optional.of(mbiHash));
             });
 
     timerHashing.stop();
   }
 
+  /**
+   * Gets the hash of an identifier from the hashes computed ahead of time by {@link
+   * #hashIdentifiers}, or computes it if it was not, as for a changed identifier of an updated
+   * {@link Beneficiary}.
+   *
+   * @param idHashes the hashes, by identifier
+   * @param identifier the HICN or MBI to get the hash of
+   * @return the hash
+   */
+  private String lookupHash(Map<String, String> idHashes, String identifier) {
+    final String hash = idHashes.get(identifier);
+    return hash != null ? hash : idHasher.computeIdentifierHash(identifier);
+  }
+
+  /**
+   * Determines whether the records of a file type have HICNs or MBIs that need to be hashed.
+   *
+   * @param rifFileType the type of file being loaded
+   * @return true if the records have identifiers to hash
+   */
+  private static boolean hashesIdentifiers(RifFileType rifFileType) {
+    return rifFileType == RifFileType.BENEFICIARY || rifFileType == RifFileType.BENEFICIARY_HISTORY;
+  }
+
+  /**
+   * Gets the hashes of all HICNs and MBIs in a batch of {@link Beneficiary} or {@link
+   * BeneficiaryHistory} records from the {@link #idHashCache}. Called by the hashing stage of
+   * {@link #processAsync}, so that the expensive hashing happens on its own threads rather than
+   * while a database transaction is open. Updated {@link Beneficiary} records are skipped, since
+   * {@link #tweakIfBeneficiary} reuses the existing hashes of their unchanged identifiers and only
+   * computes the ones that changed.
+   *
+   * @param recordsBatch the {@link RifRecordEvent}s of the batch
+   * @return the batch with its hashes
+   */
+  private HashedBatch hashIdentifiers(List<RifRecordEvent<?>> recordsBatch) {
+    final List<String> identifiers = new ArrayList<>();
+    for (RifRecordEvent<?> rifRecordEvent : recordsBatch) {
+      if (rifRecordEvent.getRecord() instanceof Beneficiary beneficiary) {
+        if (rifRecordEvent.getRecordAction() == RecordAction.UPDATE) {
+          continue;
+        }
+        beneficiary.getHicnUnhashed().ifPresent(identifiers::add);
+        beneficiary.getMedicareBeneficiaryId().ifPresent(identifiers::add);
+      } else if (rifRecordEvent.getRecord() instanceof BeneficiaryHistory beneficiaryHistory) {
+        if (beneficiaryHistory.getHicn() != null) {
+          identifiers.add(beneficiaryHistory.getHicn());
+        }
+        beneficiaryHistory.getMedicareBeneficiaryId().ifPresent(identifiers::add);
+      }
+    }
+    final MetricRegistry fileEventMetrics = recordsBatch.get(0).getFileEvent().getEventMetrics();
+    return new HashedBatch(recordsBatch, idHashCache.lookupHashes(identifiers, fileEventMetrics));
+  }
+
+  /**
+   * A batch of records along with the hashes of their HICNs and MBIs.
+   *
+   * @param records the {@link RifRecordEvent}s of the batch
+   * @param idHashes the hashes, by identifier
+   */
+  private record HashedBatch(List<RifRecordEvent<?>> records, Map<String, String> idHashes) {}
+
   /**
    * Computes a one-way cryptographic hash of the specified HICN value. This is used as a secure
    * means of identifying Medicare beneficiaries between the Blue Button API frontend and backend
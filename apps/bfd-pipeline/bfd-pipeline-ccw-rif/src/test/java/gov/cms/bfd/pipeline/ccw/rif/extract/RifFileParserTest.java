@@ -9,20 +9,20 @@ import gov.cms.bfd.model.rif.RifFileEvent;
 import gov.cms.bfd.model.rif.RifFileType;
 import gov.cms.bfd.model.rif.RifRecordEvent;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
+import gov.cms.model.dsl.codegen.library.RifRow;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -67,11 +67,13 @@ public class RifFileParserTest {
   /**
    * Verifies edge conditions for {@link RifFileParser.Simple}.
    *
+   * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
    * @throws IOException pass through from writing string to temp file
    */
-  @Test
-  void simpleAlwaysUsesOneRecordPerEvent() throws IOException {
-    final var parser = new RifFileParser.Simple(this::parseSingle);
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void simpleAlwaysUsesOneRecordPerEvent(boolean recordReaderEnabled) throws IOException {
+    final var parser = new RifFileParser.Simple(recordReaderEnabled, this::parseSingle);
     // empty file should produce no records
     assertEquals(List.of(), parseString("", parser));
 
@@ -91,11 +93,13 @@ public class RifFileParserTest {
   /**
    * Verifies edge conditions for {@link RifFileParser.Grouping}.
    *
+   * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
    * @throws IOException pass through from writing string to temp file
    */
-  @Test
-  void groupingHonorsIdColumn() throws IOException {
-    final var parser = new RifFileParser.Grouping("id", this::parseGroup);
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void groupingHonorsIdColumn(boolean recordReaderEnabled) throws IOException {
+    final var parser = new RifFileParser.Grouping(recordReaderEnabled, "id", this::parseGroup);
     // empty file should produce no records
     assertEquals(List.of(), parseString("", parser));
 
@@ -119,11 +123,13 @@ public class RifFileParserTest {
    * Similar to {@link #groupingHonorsIdColumn} but uses randomly generated rif data to test wider
    * variety of scenarios {@link RifFileParser.Grouping}.
    *
+   * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
    * @throws IOException pass through from writing string to temp file
    */
-  @Test
-  void groupingHonorsIdColumnRandomScenarios() throws IOException {
-    final var parser = new RifFileParser.Grouping("id", this::parseGroup);
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void groupingHonorsIdColumnRandomScenarios(boolean recordReaderEnabled) throws IOException {
+    final var parser = new RifFileParser.Grouping(recordReaderEnabled, "id", this::parseGroup);
     final var random = new Random(42);
     for (int trial = 1; trial <= 100; ++trial) {
       // This will contain the unparsed RIF data
@@ -156,9 +162,9 @@ public class RifFileParserTest {
    * passed to it so it can be checked for correctness.
    *
    * @param csvRecord record selected by the parser for this event
-   * @return a {@link RifRecordEvent} holding the provided {@link CSVRecord}
+   * @return a {@link RifRecordEvent} holding the provided {@link RifRow}
    */
-  private RifRecordEvent<Beneficiary> parseSingle(CSVRecord csvRecord) {
+  private RifRecordEvent<Beneficiary> parseSingle(RifRow csvRecord) {
     return new RifRecordEvent<>(
         rifFileEventMock, List.of(csvRecord), RecordAction.INSERT, 1L, new Beneficiary());
   }
@@ -168,9 +174,9 @@ public class RifFileParserTest {
    * records passed to it so they can be checked to see if groups are correct.
    *
    * @param csvRecords records selected by the parser for this event
-   * @return a {@link RifRecordEvent} holding the provided {@link CSVRecord}s
+   * @return a {@link RifRecordEvent} holding the provided {@link RifRow}s
    */
-  private RifRecordEvent<Beneficiary> parseGroup(List<CSVRecord> csvRecords) {
+  private RifRecordEvent<Beneficiary> parseGroup(List<RifRow> csvRecords) {
     return new RifRecordEvent<>(
         rifFileEventMock, csvRecords, RecordAction.INSERT, 1L, new Beneficiary());
   }
@@ -199,19 +205,17 @@ public class RifFileParserTest {
   }
 
   /**
-   * Convert a list of {@link CSVRecord} into a single string with fields within each record
-   * separated by {@code -} and individual records separated by {@code ;}. The record number is
-   * added to the beginning of the string followed by {@code ->}.
+   * Convert a list of {@link RifRow} into a single string with fields within each record separated
+   * by {@code -} and individual records separated by {@code ;}. The record number is added to the
+   * beginning of the string followed by {@code ->}.
    *
    * @param recordNumber the record number of the parsed object
    * @param csvRecords the records to convert
    * @return the resulting string
    */
-  private String convertRecordsIntoStrings(long recordNumber, List<CSVRecord> csvRecords) {
+  private String convertRecordsIntoStrings(long recordNumber, List<RifRow> csvRecords) {
     List<String> recordStrings =
-        csvRecords.stream()
-            .map(csvRecord -> csvRecord.stream().collect(Collectors.joining("-")))
-            .toList();
+        csvRecords.stream().map(csvRecord -> String.join("-", csvRecord.toList())).toList();
     return recordNumber + "->" + String.join(";", recordStrings);
   }
 }
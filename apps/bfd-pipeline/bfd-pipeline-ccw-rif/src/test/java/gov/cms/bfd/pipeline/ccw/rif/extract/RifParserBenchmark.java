@@ -0,0 +1,164 @@
+package gov.cms.bfd.pipeline.ccw.rif.extract;
+
+import gov.cms.bfd.BenchmarkUtils;
+import gov.cms.bfd.model.rif.RifFileType;
+import gov.cms.bfd.model.rif.entities.CarrierClaimParser;
+import gov.cms.bfd.model.rif.entities.InpatientClaimParser;
+import gov.cms.bfd.model.rif.parse.RifParsingUtils;
+import gov.cms.bfd.model.rif.samples.StaticRifResource;
+import gov.cms.model.dsl.codegen.library.CsvRifRow;
+import gov.cms.model.dsl.codegen.library.RifColumnLayout;
+import gov.cms.model.dsl.codegen.library.RifObjectWrapper;
+import gov.cms.model.dsl.codegen.library.RifRow;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.commons.csv.CSVParser;
+
+/**
+ * Compares the time taken by the generated RIF parsers to read the carrier and inpatient samples
+ * when columns are read by index (the generated code's {@link RifColumnLayout} path) with the time
+ * taken when every column is looked up by header label (the previous behavior). The label path is
+ * simulated by a {@link RifObjectWrapper} subclass that maps each indexed read back to its label,
+ * so both paths run the same generated parser.
+ *
+ * <p>Run it from {@code bfd-pipeline-ccw-rif} with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.pipeline.ccw.rif.extract.RifParserBenchmark \
+ *   -Dexec.args="20000 5"
+ * </pre>
+ *
+ * <p>The arguments are the number of times each sample is parsed per iteration and the number of
+ * measured iterations. For each sample and path it reports the median time per parsed claim.
+ */
+public final class RifParserBenchmark {
+  /** The number of untimed iterations run first to warm up the JIT. */
+  private static final int WARMUP_ITERATIONS = 2;
+
+  /** Prevents instantiation of this class. */
+  private RifParserBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of passes over each sample per iteration and the number of measured
+   *     iterations
+   * @throws Exception if a sample cannot be parsed
+   */
+  public static void main(String[] args) throws Exception {
+    final int passes = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+    final int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    final CarrierClaimParser carrierParser = new CarrierClaimParser();
+    final InpatientClaimParser inpatientParser = new InpatientClaimParser();
+    run(StaticRifResource.SAMPLE_A_CARRIER, carrierParser::transformMessage, passes, iterations);
+    run(
+        StaticRifResource.SAMPLE_A_INPATIENT,
+        inpatientParser::transformMessage,
+        passes,
+        iterations);
+  }
+
+  /**
+   * Parses one sample repeatedly using both paths and prints the results.
+   *
+   * @param sample the sample RIF file
+   * @param parser the generated parser's transform method
+   * @param passes the number of passes over the sample per iteration
+   * @param iterations the number of measured iterations
+   * @throws Exception if the sample cannot be parsed
+   */
+  private static void run(
+      StaticRifResource sample, Function<RifObjectWrapper, ?> parser, int passes, int iterations)
+      throws Exception {
+    final List<List<RifRow>> claims = readClaims(sample);
+    for (boolean indexed : new boolean[] {false, true}) {
+      final long nanosPerClaim =
+          BenchmarkUtils.measure(
+                  WARMUP_ITERATIONS,
+                  iterations,
+                  () -> {
+                    final long start = System.nanoTime();
+                    for (int pass = 0; pass < passes; ++pass) {
+                      for (List<RifRow> claim : claims) {
+                        parser.apply(
+                            indexed ? new RifObjectWrapper(claim) : new LabelLookupWrapper(claim));
+                      }
+                    }
+                    return new long[] {
+                      (System.nanoTime() - start) / ((long) passes * claims.size())
+                    };
+                  })
+              .median();
+      System.out.printf(
+          "%-10s %-8s claims=%d: %dns/claim%n",
+          sample.getRifFileType(),
+          indexed ? "indexed" : "label",
+          (long) passes * claims.size(),
+          nanosPerClaim);
+    }
+  }
+
+  /**
+   * Reads the records of a sample, grouped by claim.
+   *
+   * @param sample the sample RIF file
+   * @return the records of each claim
+   */
+  private static List<List<RifRow>> readClaims(StaticRifResource sample) {
+    final RifFileType fileType = sample.getRifFileType();
+    final Map<String, List<RifRow>> claims = new LinkedHashMap<>();
+    try (CSVParser csvParser = RifParsingUtils.createCsvParser(sample.toRifFile())) {
+      final Map<String, Integer> headerMap = csvParser.getHeaderMap();
+      for (var csvRecord : csvParser) {
+        final RifRow row = new CsvRifRow(csvRecord, headerMap);
+        claims
+            .computeIfAbsent(row.get(fileType.getIdColumn().name()), id -> new ArrayList<>())
+            .add(row);
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException("Unable to read sample " + sample, e);
+    }
+    return List.copyOf(claims.values());
+  }
+
+  /**
+   * A {@link RifObjectWrapper} that reads every column by its header label, as the generated
+   * parsers did before they read columns by index.
+   */
+  private static final class LabelLookupWrapper extends RifObjectWrapper {
+    /** The records of the claim. */
+    private final List<RifRow> lines;
+
+    /**
+     * Constructs a new wrapper.
+     *
+     * @param lines the records of the claim
+     */
+    private LabelLookupWrapper(List<RifRow> lines) {
+      super(lines);
+      this.lines = lines;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public RifObjectWrapper getLines(int index) {
+      return new LabelLookupWrapper(List.of(lines.get(index)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasValue(RifColumnLayout layout, int column) {
+      return hasValue(layout.getLabel(column));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getValue(RifColumnLayout layout, int column, String defaultValue) {
+      return getValue(layout.getLabel(column), defaultValue);
+    }
+  }
+}
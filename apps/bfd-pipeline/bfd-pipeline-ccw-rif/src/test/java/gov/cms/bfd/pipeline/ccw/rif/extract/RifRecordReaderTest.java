@@ -0,0 +1,256 @@
+package gov.cms.bfd.pipeline.ccw.rif.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFilesEvent;
+import gov.cms.bfd.model.rif.RifRecordEvent;
+import gov.cms.bfd.model.rif.parse.RifParsingUtils;
+import gov.cms.bfd.model.rif.samples.StaticRifResource;
+import gov.cms.model.dsl.codegen.library.CsvRifRow;
+import gov.cms.model.dsl.codegen.library.RifRow;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.csv.CSVParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Unit tests for {@link RifRecordReader}. Most of these are differential tests that verify that the
+ * reader produces exactly the same rows as the commons-csv parser used by {@link RifParsingUtils}.
+ */
+public final class RifRecordReaderTest {
+  /**
+   * Inputs covering the escape, quote, and line ending rules. Each is parsed with several buffer
+   * sizes so that every special sequence also spans a buffer boundary.
+   */
+  private static final List<String> EDGE_CASES =
+      List.of(
+          "",
+          "A|B\n",
+          "A|B",
+          "A|B\n1|2",
+          "A|B\r\n1|2\r\n3|4\r\n",
+          "A|B\r1|2\r3|4",
+          "A|B\n1|\n|2\n|\n",
+          "A|B\n1|",
+          "A|B\n\n1|2\n\n",
+          "\uFEFFA|B\n1|2\n",
+          "A|B\n1\\|2|3\n",
+          "A|B\n1\\\\|2\n",
+          "A|B\n1\\\\\\|2\\a\\\\\n",
+          "A|B\n\\r\\n\\t\\b\\f|\\\"\\\\\\x\\\n",
+          "A|B\n\\\r\nx|y\n",
+          "A|B\n\"q|1\"|\"a\"\"b\"\n",
+          "A|B\n\"q\"  |\"\" \n\"\"|x\"y\"\n",
+          "A|B\n\"multi\nline\"|\"cr\r\nlf\"\n",
+          "A|B\n\"esc\\\"aped\"|\"\\|\"\n",
+          "A|B\nd\u00e9j\u00e0 vu|\u65e5\u672c\n",
+          "A|B|A\n1|2|3\n");
+
+  /** Inputs that are not valid. */
+  private static final List<String> MALFORMED_CASES =
+      List.of("A|B\n1|\"2\n", "A|B\n1|2\\", "A|B\n\"1\"x|2\n");
+
+  /** Buffer sizes used to parse {@link #EDGE_CASES}. */
+  private static final int[] BUFFER_SIZES = {3, 4, 5, 7, 64 * 1024};
+
+  /**
+   * Verifies that every sample file is read into the same rows by both readers.
+   *
+   * @param sample the sample file
+   * @throws IOException pass through
+   */
+  @ParameterizedTest
+  @EnumSource(StaticRifResource.class)
+  void testSamplesMatchCsvParser(StaticRifResource sample) throws IOException {
+    final List<RifRow> expected;
+    try (CSVParser csvParser = RifParsingUtils.createCsvParser(sample.toRifFile())) {
+      expected = csvRows(csvParser);
+    }
+    final List<RifRow> actual;
+    try (RifRecordReader reader = RifRecordReader.open(sample.toRifFile())) {
+      actual = readerRows(reader);
+    }
+    assertThat(expected).isNotEmpty();
+    assertSameRows(expected, actual);
+  }
+
+  /**
+   * Verifies that every sample file is parsed into the same records by a {@link RifFilesProcessor}
+   * using either reader.
+   *
+   * @param sample the sample file
+   */
+  @ParameterizedTest
+  @EnumSource(StaticRifResource.class)
+  void testSamplesParseToSameRecords(StaticRifResource sample) {
+    final List<RifRecordEvent<?>> expected = parseSample(sample, false);
+    final List<RifRecordEvent<?>> actual = parseSample(sample, true);
+    assertThat(actual).hasSameSizeAs(expected);
+    for (int i = 0; i < expected.size(); ++i) {
+      assertThat(actual.get(i).getRecordAction()).isEqualTo(expected.get(i).getRecordAction());
+      assertThat(actual.get(i).getBeneficiaryId()).isEqualTo(expected.get(i).getBeneficiaryId());
+      assertThat(actual.get(i).getRecordNumber()).isEqualTo(expected.get(i).getRecordNumber());
+      assertThat(actual.get(i).getRecord())
+          .usingRecursiveComparison()
+          .isEqualTo(expected.get(i).getRecord());
+    }
+  }
+
+  /**
+   * Verifies that escapes, quotes, line endings, empty lines, and trailing delimiters are handled
+   * the same way by both readers, whatever the size of the read buffer.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void testEdgeCasesMatchCsvParser() throws IOException {
+    for (String input : EDGE_CASES) {
+      final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+      final List<RifRow> expected;
+      try (CSVParser csvParser =
+          RifParsingUtils.createCsvParser(
+              RifParsingUtils.CSV_FORMAT,
+              new ByteArrayInputStream(bytes),
+              StandardCharsets.UTF_8)) {
+        expected = csvRows(csvParser);
+      }
+      for (int bufferSize : BUFFER_SIZES) {
+        try (RifRecordReader reader = createReader(bytes, bufferSize)) {
+          assertSameRows(expected, readerRows(reader));
+        }
+      }
+    }
+  }
+
+  /** Verifies that inputs rejected by the commons-csv parser are also rejected by the reader. */
+  @Test
+  void testMalformedInputFails() {
+    for (String input : MALFORMED_CASES) {
+      final byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+      assertThatThrownBy(
+              () ->
+                  RifParsingUtils.createCsvParser(
+                          RifParsingUtils.CSV_FORMAT,
+                          new ByteArrayInputStream(bytes),
+                          StandardCharsets.UTF_8)
+                      .getRecords())
+          .as(input)
+          .isInstanceOf(RuntimeException.class);
+      for (int bufferSize : BUFFER_SIZES) {
+        assertThatThrownBy(() -> readerRows(createReader(bytes, bufferSize)))
+            .as(input)
+            .isInstanceOf(UncheckedIOException.class);
+      }
+    }
+  }
+
+  /**
+   * Verifies that values are read by index and label with the same results and errors as a {@link
+   * org.apache.commons.csv.CSVRecord}, and that empty values are detected without decoding them.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void testRowAccessors() throws IOException {
+    final byte[] bytes = "A|B|C\n1||3\n4\n".getBytes(StandardCharsets.UTF_8);
+    try (RifRecordReader reader = createReader(bytes, 1024)) {
+      final List<RifRow> rows = readerRows(reader);
+      final RifRow row = rows.get(0);
+      assertThat(row.getHeaderMap()).isSameAs(rows.get(1).getHeaderMap());
+      assertThat(row.get("C")).isEqualTo("3");
+      assertThat(row.isEmpty(1)).isTrue();
+      assertThat(row.isEmpty(2)).isFalse();
+      assertThat(row.get(1)).isEmpty();
+      assertThat(row.toList()).containsExactly("1", "", "3");
+      assertThatThrownBy(() -> row.get("D")).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> rows.get(1).get("C")).isInstanceOf(IllegalArgumentException.class);
+      assertThatThrownBy(() -> row.get(3)).isInstanceOf(ArrayIndexOutOfBoundsException.class);
+    }
+  }
+
+  /**
+   * Parses a sample using a {@link RifFilesProcessor}.
+   *
+   * @param sample the sample file
+   * @param recordReaderEnabled true to read rows using a {@link RifRecordReader}
+   * @return the parsed events
+   */
+  private static List<RifRecordEvent<?>> parseSample(
+      StaticRifResource sample, boolean recordReaderEnabled) {
+    final RifFilesEvent filesEvent = new RifFilesEvent(Instant.now(), false, sample.toRifFile());
+    final RifFileEvent fileEvent = filesEvent.getFileEvents().get(0);
+    return new RifFilesProcessor(recordReaderEnabled)
+        .produceRecords(fileEvent)
+        .getRecords()
+        .collectList()
+        .block();
+  }
+
+  /**
+   * Creates a reader for the given bytes.
+   *
+   * @param bytes the file contents
+   * @param bufferSize the size of the reader's buffer
+   * @return the reader
+   */
+  private static RifRecordReader createReader(byte[] bytes, int bufferSize) {
+    return new RifRecordReader(
+        Channels.newChannel(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8, bufferSize);
+  }
+
+  /**
+   * Reads all rows from a commons-csv parser.
+   *
+   * @param csvParser the parser
+   * @return the rows
+   */
+  private static List<RifRow> csvRows(CSVParser csvParser) {
+    final Map<String, Integer> headerMap = csvParser.getHeaderMap();
+    final List<RifRow> rows = new ArrayList<>();
+    csvParser.forEach(csvRecord -> rows.add(new CsvRifRow(csvRecord, headerMap)));
+    return rows;
+  }
+
+  /**
+   * Reads all rows from a {@link RifRecordReader}.
+   *
+   * @param reader the reader
+   * @return the rows
+   */
+  private static List<RifRow> readerRows(RifRecordReader reader) {
+    final List<RifRow> rows = new ArrayList<>();
+    reader.forEach(rows::add);
+    return rows;
+  }
+
+  /**
+   * Verifies that two lists of rows have the same headers, values, and record numbers.
+   *
+   * @param expected rows read by commons-csv
+   * @param actual rows read by {@link RifRecordReader}
+   */
+  private static void assertSameRows(List<RifRow> expected, List<RifRow> actual) {
+    assertThat(actual).hasSameSizeAs(expected);
+    for (int i = 0; i < expected.size(); ++i) {
+      final RifRow expectedRow = expected.get(i);
+      final RifRow actualRow = actual.get(i);
+      assertThat(actualRow.getHeaderMap()).isEqualTo(expectedRow.getHeaderMap());
+      assertThat(actualRow.getRecordNumber()).isEqualTo(expectedRow.getRecordNumber());
+      assertThat(actualRow.toList()).isEqualTo(expectedRow.toList());
+      for (int column = 0; column < expectedRow.size(); ++column) {
+        assertThat(actualRow.isEmpty(column)).isEqualTo(expectedRow.isEmpty(column));
+      }
+    }
+  }
+}
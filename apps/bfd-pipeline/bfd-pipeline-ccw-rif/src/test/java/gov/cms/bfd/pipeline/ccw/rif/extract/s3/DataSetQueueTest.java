@@ -12,6 +12,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -25,12 +26,15 @@ import gov.cms.bfd.pipeline.ccw.rif.extract.s3.task.S3TaskManager;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3Dao;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3DirectoryDao;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -188,6 +192,34 @@ public class DataSetQueueTest {
     verify(appMetrics).timer(DataSetQueue.TIMER_DOWNLOAD_ENTRY);
   }
 
+  /**
+   * Verify that {@link DataSetQueue#streamManifestEntry} only reads the file's meta data and that
+   * each channel opened by the entry streams the file using the MD5 checksum meta data field.
+   */
+  @Test
+  void testStreamManifestEntry() throws IOException {
+    String s3Key =
+        createManifestS3Key(
+            CcwRifLoadJob.S3_PREFIX_PENDING_DATA_SETS, BASE_TIME_FOR_CLOCK.getEpochSecond(), 1);
+    var fileDetails = new S3Dao.S3ObjectDetails(s3Key, "etag", 3L, Map.of());
+    var channel = Channels.newChannel(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+    doReturn(fileDetails).when(s3Files).readFileDetails(s3Key);
+    doReturn(channel)
+        .when(s3Files)
+        .openStreamingChannel(fileDetails, MD5_CHECKSUM_META_DATA_FIELD, 100, 3);
+
+    var entryRecord = S3DataFile.builder().s3Key(s3Key).build();
+    var manifestEntry = dataSetQueue.streamManifestEntry(entryRecord, 100, 3);
+    verify(s3Files, never()).downloadFile(s3Key);
+    assertEquals("(streamed from S3)", manifestEntry.getCachedFilePath());
+
+    assertSame(channel, manifestEntry.openChannel());
+    verify(s3Files).openStreamingChannel(fileDetails, MD5_CHECKSUM_META_DATA_FIELD, 100, 3);
+
+    // nothing is cached so delete is harmless
+    manifestEntry.delete();
+  }
+
   /**
    * Verify that if any files are not in S3 {@link DataSetQueue#allEntriesExistInS3} returns false.
    */
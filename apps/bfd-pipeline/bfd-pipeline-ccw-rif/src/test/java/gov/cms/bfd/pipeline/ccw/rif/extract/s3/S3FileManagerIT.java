@@ -1,10 +1,12 @@
 package gov.cms.bfd.pipeline.ccw.rif.extract.s3;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Files;
 import com.google.common.io.Resources;
 import gov.cms.bfd.model.rif.samples.StaticRifResource;
@@ -12,6 +14,7 @@ import gov.cms.bfd.pipeline.AbstractLocalStackS3Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Map;
@@ -159,6 +162,35 @@ public class S3FileManagerIT extends AbstractLocalStackS3Test {
     assertEquals(S3FileManager.MD5Result.MATCH, md5result);
   }
 
+  /**
+   * Verify that {@link S3FileManager#openStreamingChannel} streams the same bytes as a download
+   * when the MD5 matches, and fails at the end of the file when it does not.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void testStreamingChannel() throws IOException {
+    final var sampleBytes =
+        Resources.asByteSource(StaticRifResource.SAMPLE_A_BENES.getResourceUrl());
+    final String realMD5 = S3FileManager.computeMD5CheckSum(sampleBytes);
+    s3Dao.putObject(bucketName, "good.dat", sampleBytes.read(), Map.of("md5-check", realMD5));
+    s3Dao.putObject(
+        bucketName, "bad.dat", sampleBytes.read(), Map.of("md5-check", "this is not an md5!"));
+
+    final var goodDetails = fileManager.readFileDetails("good.dat");
+    try (var channel = fileManager.openStreamingChannel(goodDetails, "md5-check", 1000, 3)) {
+      assertArrayEquals(
+          sampleBytes.read(), ByteStreams.toByteArray(Channels.newInputStream(channel)));
+    }
+
+    final var badDetails = fileManager.readFileDetails("bad.dat");
+    try (var channel = fileManager.openStreamingChannel(badDetails, "md5-check", 1000, 3)) {
+      assertThatThrownBy(() -> ByteStreams.toByteArray(Channels.newInputStream(channel)))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("MD5 checksum mismatch");
+    }
+  }
+
   /** Test that prefix is correctly extracted from various keys. */
   @Test
   void testExtractPrefixFromS3Key() {
@@ -0,0 +1,185 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import gov.cms.bfd.model.rif.RifFileEvent;
+import gov.cms.bfd.model.rif.RifFilesEvent;
+import gov.cms.bfd.model.rif.entities.Beneficiary;
+import gov.cms.bfd.model.rif.samples.StaticRifResource;
+import gov.cms.bfd.pipeline.PipelineTestUtils;
+import gov.cms.bfd.pipeline.ccw.rif.extract.RifFilesProcessor;
+import gov.cms.bfd.pipeline.sharedutils.IdHasher;
+import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Integration tests for {@link CcwIdHashCache.DatabaseBacked}. */
+public final class CcwIdHashCacheIT {
+  /** Used to compute the expected hashes. */
+  private final IdHasher hasher =
+      new IdHasher(
+          new IdHasher.Config(
+              CcwRifLoadTestUtils.HICN_HASH_ITERATIONS, CcwRifLoadTestUtils.HICN_HASH_PEPPER));
+
+  /** Used to access the test database. */
+  private EntityManagerFactory entityManagerFactory;
+
+  /** Ensures that each test case starts with empty claim, beneficiary and hash tables. */
+  @BeforeEach
+  public void prepareTestDatabase() {
+    PipelineTestUtils.get().truncateTablesInDataSource();
+    entityManagerFactory =
+        PipelineTestUtils.get().getPipelineApplicationState().getEntityManagerFactory();
+    try (TransactionManager transactionManager = new TransactionManager(entityManagerFactory)) {
+      transactionManager.executeProcedure(
+          entityManager ->
+              entityManager.createNativeQuery("delete from ccw_id_hashes").executeUpdate());
+    }
+  }
+
+  /**
+   * Verifies that a hash missing from the table is computed and stored under the digest of its
+   * identifier, and that a later cache finds it there rather than computing it again.
+   */
+  @Test
+  public void lookupHashesWhenNotStoredExpectComputedAndStored() {
+    final CcwIdHashCache.DatabaseBacked cache =
+        new CcwIdHashCache.DatabaseBacked(hasher, entityManagerFactory);
+    final MetricRegistry firstFileMetrics = new MetricRegistry();
+
+    assertThat(cache.lookupHashes(List.of("3456789"), firstFileMetrics))
+        .containsOnly(Map.entry("3456789", hasher.computeIdentifierHash("3456789")));
+    assertThat(firstFileMetrics.meter(CcwIdHashCache.METRIC_DATABASE_HITS).getCount()).isZero();
+    assertThat(firstFileMetrics.meter(CcwIdHashCache.METRIC_COMPUTED).getCount()).isEqualTo(1);
+    assertThat(readStoredRows())
+        .containsOnly(
+            Map.entry(
+                cache.computeIdentifierDigest("3456789"), hasher.computeIdentifierHash("3456789")));
+
+    final MetricRegistry secondFileMetrics = new MetricRegistry();
+    assertThat(
+            new CcwIdHashCache.DatabaseBacked(hasher, entityManagerFactory)
+                .lookupHashes(List.of("3456789"), secondFileMetrics))
+        .containsOnly(Map.entry("3456789", hasher.computeIdentifierHash("3456789")));
+    assertThat(secondFileMetrics.meter(CcwIdHashCache.METRIC_DATABASE_HITS).getCount())
+        .isEqualTo(1);
+    assertThat(secondFileMetrics.getMeters()).doesNotContainKey(CcwIdHashCache.METRIC_COMPUTED);
+  }
+
+  /**
+   * Verifies that a stored hash is used instead of a computed one, while one stored with other
+   * hashing settings is ignored and replaced.
+   */
+  @Test
+  public void lookupHashesWhenStoredExpectStoredHashUsed() {
+    final CcwIdHashCache.DatabaseBacked cache =
+        new CcwIdHashCache.DatabaseBacked(hasher, entityManagerFactory);
+    final String storedDigest = cache.computeIdentifierDigest("3456789");
+    final String staleDigest = cache.computeIdentifierDigest("2456689");
+    insertRow(storedDigest, "not-a-real-hash-but-loads-from-db", cache.fingerprint);
+    insertRow(staleDigest, "computed-with-other-settings", "0000000000000000");
+    final MetricRegistry fileMetrics = new MetricRegistry();
+
+    assertThat(cache.lookupHashes(List.of("3456789", "2456689"), fileMetrics))
+        .containsOnly(
+            Map.entry("3456789", "not-a-real-hash-but-loads-from-db"),
+            Map.entry("2456689", hasher.computeIdentifierHash("2456689")));
+    assertThat(fileMetrics.meter(CcwIdHashCache.METRIC_DATABASE_HITS).getCount()).isEqualTo(1);
+    assertThat(fileMetrics.meter(CcwIdHashCache.METRIC_COMPUTED).getCount()).isEqualTo(1);
+    assertThat(readStoredRows())
+        .containsOnly(
+            Map.entry(storedDigest, "not-a-real-hash-but-loads-from-db"),
+            Map.entry(staleDigest, hasher.computeIdentifierHash("2456689")));
+  }
+
+  /**
+   * Verifies that a load leaves the table untouched when {@link
+   * LoadAppOptions#isIdHashDatabaseCacheEnabled()} is off, and stores the beneficiary's hashes when
+   * it is on.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void loadBeneficiariesExpectHashesStoredOnlyWhenGateOn() throws Exception {
+    loadBeneficiaries(CcwRifLoadTestUtils.getLoadOptions());
+    assertThat(readStoredRows()).isEmpty();
+
+    PipelineTestUtils.get().truncateTablesInDataSource();
+    loadBeneficiaries(CcwRifLoadTestUtils.getLoadOptionsWithIdHashDatabaseCache());
+    final Beneficiary beneficiary;
+    try (TransactionManager transactionManager = new TransactionManager(entityManagerFactory)) {
+      beneficiary =
+          transactionManager.executeFunction(
+              entityManager -> entityManager.find(Beneficiary.class, 567834L));
+    }
+    final String mbiDigest =
+        new CcwIdHashCache.DatabaseBacked(hasher, entityManagerFactory)
+            .computeIdentifierDigest(beneficiary.getMedicareBeneficiaryId().orElseThrow());
+    assertThat(readStoredRows()).containsEntry(mbiDigest, beneficiary.getMbiHash().orElseThrow());
+  }
+
+  /**
+   * Loads the {@link StaticRifResource#SAMPLE_A_BENES} file.
+   *
+   * @param options the load options to use
+   * @throws Exception if the load fails
+   */
+  private void loadBeneficiaries(LoadAppOptions options) throws Exception {
+    final RifFilesEvent rifFilesEvent =
+        new RifFilesEvent(Instant.now(), false, StaticRifResource.SAMPLE_A_BENES.toRifFile());
+    final RifLoader loader =
+        new RifLoader(options, PipelineTestUtils.get().getPipelineApplicationState());
+    for (RifFileEvent rifFileEvent : rifFilesEvent.getFileEvents()) {
+      assertThat(loader.processBlocking(new RifFilesProcessor().produceRecords(rifFileEvent)))
+          .isEqualTo(StaticRifResource.SAMPLE_A_BENES.getRecordCount());
+    }
+  }
+
+  /**
+   * Adds a row to the {@code ccw_id_hashes} table.
+   *
+   * @param digest the identifier digest
+   * @param hash the hash
+   * @param fingerprint the hasher fingerprint
+   */
+  private void insertRow(String digest, String hash, String fingerprint) {
+    try (TransactionManager transactionManager = new TransactionManager(entityManagerFactory)) {
+      transactionManager.executeProcedure(
+          entityManager ->
+              entityManager
+                  .createNativeQuery(
+                      "insert into ccw_id_hashes (identifier_digest, hash, hasher_fingerprint)"
+                          + " values (:digest, :hash, :fingerprint)")
+                  .setParameter("digest", digest)
+                  .setParameter("hash", hash)
+                  .setParameter("fingerprint", fingerprint)
+                  .executeUpdate());
+    }
+  }
+
+  /**
+   * Reads every row of the {@code ccw_id_hashes} table.
+   *
+   * @return the hashes, by identifier digest
+   */
+  private Map<String, String> readStoredRows() {
+    try (TransactionManager transactionManager = new TransactionManager(entityManagerFactory)) {
+      final List<?> rows =
+          transactionManager.executeFunction(
+              entityManager ->
+                  entityManager
+                      .createNativeQuery("select identifier_digest, hash from ccw_id_hashes")
+                      .getResultList());
+      return rows.stream()
+          .map(row -> (Object[]) row)
+          .collect(
+              Collectors.toMap(columns -> (String) columns[0], columns -> (String) columns[1]));
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.MetricRegistry;
+import gov.cms.bfd.pipeline.sharedutils.IdHasher;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CcwIdHashCache}. */
+public final class CcwIdHashCacheTest {
+  /** Used to compute the expected hashes. */
+  private final IdHasher hasher = new IdHasher(new IdHasher.Config(1000, "nottherealpepper"));
+
+  /**
+   * Verifies that each distinct identifier is hashed once, that later lookups are served from
+   * memory, and that the hashes match those of the {@link IdHasher}.
+   */
+  @Test
+  void testLookupHashesWhenRepeatedIdentifiersExpectEachComputedOnce() {
+    final CcwIdHashCache cache = CcwIdHashCache.computedCache(hasher);
+    final MetricRegistry firstFileMetrics = new MetricRegistry();
+
+    Map<String, String> hashes =
+        cache.lookupHashes(List.of("123456789A", "3456789", "123456789A"), firstFileMetrics);
+    assertThat(hashes)
+        .containsOnly(
+            Map.entry("123456789A", hasher.computeIdentifierHash("123456789A")),
+            Map.entry("3456789", hasher.computeIdentifierHash("3456789")));
+    assertThat(firstFileMetrics.meter(CcwIdHashCache.METRIC_COMPUTED).getCount()).isEqualTo(2);
+    assertThat(firstFileMetrics.meter(CcwIdHashCache.METRIC_MEMORY_HITS).getCount()).isZero();
+    assertThat(firstFileMetrics.counter(CcwIdHashCache.METRIC_CPU_NANOS).getCount()).isPositive();
+
+    final MetricRegistry secondFileMetrics = new MetricRegistry();
+    hashes = cache.lookupHashes(List.of("3456789", "2456689"), secondFileMetrics);
+    assertThat(hashes)
+        .containsOnly(
+            Map.entry("3456789", hasher.computeIdentifierHash("3456789")),
+            Map.entry("2456689", hasher.computeIdentifierHash("2456689")));
+    assertThat(secondFileMetrics.meter(CcwIdHashCache.METRIC_COMPUTED).getCount()).isEqualTo(1);
+    assertThat(secondFileMetrics.meter(CcwIdHashCache.METRIC_MEMORY_HITS).getCount()).isEqualTo(1);
+    assertThat(secondFileMetrics.meter(CcwIdHashCache.METRIC_DATABASE_HITS).getCount()).isZero();
+  }
+
+  /** Verifies that no hashing time is recorded when every identifier is already in memory. */
+  @Test
+  void testLookupHashesWhenAllCachedExpectNothingComputed() {
+    final CcwIdHashCache cache = CcwIdHashCache.computedCache(hasher);
+    cache.lookupHashes(List.of("3456789"), new MetricRegistry());
+
+    final MetricRegistry fileMetrics = new MetricRegistry();
+    assertThat(cache.lookupHashes(List.of("3456789"), fileMetrics)).containsOnlyKeys("3456789");
+    assertThat(fileMetrics.meter(CcwIdHashCache.METRIC_MEMORY_HITS).getCount()).isEqualTo(1);
+    assertThat(fileMetrics.getMeters()).doesNotContainKey(CcwIdHashCache.METRIC_COMPUTED);
+    assertThat(fileMetrics.getCounters()).doesNotContainKey(CcwIdHashCache.METRIC_CPU_NANOS);
+  }
+}
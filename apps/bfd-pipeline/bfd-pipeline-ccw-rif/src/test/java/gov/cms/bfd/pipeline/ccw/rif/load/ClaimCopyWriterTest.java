@@ -0,0 +1,108 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import gov.cms.bfd.model.rif.entities.CarrierClaim;
+import gov.cms.bfd.model.rif.entities.CarrierClaimLine;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ClaimCopyWriter}. */
+public final class ClaimCopyWriterTest {
+  /** Verifies that values are written in the PostgreSQL {@code COPY} text format. */
+  @Test
+  void testAppendValueWhenSpecialValuesExpectCopyTextFormat() {
+    assertThat(format(null)).isEqualTo("\\N");
+    assertThat(format("a\tb\\c\nd\re")).isEqualTo("a\\tb\\\\c\\nd\\re");
+    assertThat(format('x')).isEqualTo("x");
+    assertThat(format(Boolean.TRUE)).isEqualTo("t");
+    assertThat(format(Boolean.FALSE)).isEqualTo("f");
+    assertThat(format(new BigDecimal("1E+3"))).isEqualTo("1000");
+    assertThat(format((short) 7)).isEqualTo("7");
+    assertThat(format(LocalDate.of(2024, 2, 29))).isEqualTo("2024-02-29");
+    assertThat(format(Instant.parse("2024-02-29T01:02:03.456Z")))
+        .isEqualTo("2024-02-29T01:02:03.456Z");
+  }
+
+  /**
+   * Verifies that the claim and line tables are mapped from the JPA annotations, with transient
+   * fields left out and the line's parent claim written as its claim id.
+   */
+  @Test
+  void testAppendRowWhenClaimWithLineExpectColumnsFromJpaMapping() {
+    final CarrierClaim claim = new CarrierClaim();
+    claim.setClaimId(9991831999L);
+    claim.setBeneficiaryId(567834L);
+    claim.setRecordNumber(12L);
+    claim.setSamhsaFlag(Optional.of(true));
+    claim.setLastUpdated(Optional.of(Instant.parse("2024-02-29T01:02:03Z")));
+    final CarrierClaimLine line = new CarrierClaimLine();
+    line.setParentClaim(claim);
+    line.setLineNumber((short) 6);
+    line.setHcpcsCode(Optional.of("92999"));
+    line.setServiceCount(new BigDecimal("1.0"));
+    claim.getLines().add(line);
+
+    final ClaimCopyWriter.CopyTable claimTable = ClaimCopyWriter.tableFor(CarrierClaim.class);
+    assertThat(claimTable.getCopySql()).startsWith("COPY carrier_claims (").endsWith(" FROM STDIN");
+    assertThat(claimTable.getChildClass()).isEqualTo(CarrierClaimLine.class);
+    final Map<String, String> claimRow = parseRow(claimTable, claim);
+    assertThat(claimRow)
+        .containsEntry("clm_id", "9991831999")
+        .containsEntry("bene_id", "567834")
+        .containsEntry("samhsa_flag", "t")
+        .containsEntry("last_updated", "2024-02-29T01:02:03Z")
+        .containsEntry("samhsa_code_list_version", "\\N")
+        .doesNotContainKey("record_number")
+        .doesNotContainValue("12");
+
+    final ClaimCopyWriter.CopyTable lineTable = ClaimCopyWriter.tableFor(CarrierClaimLine.class);
+    assertThat(lineTable.getCopySql()).startsWith("COPY carrier_claim_lines (");
+    assertThat(lineTable.getChildren()).isNull();
+    final Map<String, String> lineRow = parseRow(lineTable, line);
+    assertThat(lineRow)
+        .containsEntry("clm_id", "9991831999")
+        .containsEntry("line_num", "6")
+        .containsEntry("hcpcs_cd", "92999")
+        .containsEntry("line_srvc_cnt", "1.0");
+  }
+
+  /**
+   * Formats a single value.
+   *
+   * @param value the value to format
+   * @return the formatted value
+   */
+  private static String format(Object value) {
+    final StringBuilder out = new StringBuilder();
+    ClaimCopyWriter.appendValue(value, out);
+    return out.toString();
+  }
+
+  /**
+   * Formats the row of an entity and pairs its values with the column names of the table.
+   *
+   * @param table the table of the entity
+   * @param entity the entity
+   * @return the values of the row, by column name
+   */
+  private static Map<String, String> parseRow(ClaimCopyWriter.CopyTable table, Object entity) {
+    final StringBuilder out = new StringBuilder();
+    table.appendRow(entity, out);
+    assertThat(out).endsWith("\n");
+    final String sql = table.getCopySql();
+    final String[] columns = sql.substring(sql.indexOf('(') + 1, sql.indexOf(')')).split(", ");
+    final String[] values = out.substring(0, out.length() - 1).split("\t", -1);
+    assertThat(values).hasSameSizeAs(columns);
+    final Map<String, String> row = new HashMap<>();
+    for (int i = 0; i < columns.length; ++i) {
+      row.put(columns[i], values[i]);
+    }
+    return row;
+  }
+}
@@ -0,0 +1,72 @@
+package gov.cms.bfd.pipeline.ccw.rif.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import gov.cms.bfd.model.rif.LoadedBatch;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import org.apache.spark.util.sketch.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link LoadedFileFilterBuilder}. */
+class LoadedFileFilterBuilderTest {
+  /**
+   * Builds a filter from two batches and verifies that it deserializes to a filter containing the
+   * beneficiaries of both, with the latest batch creation time and the batch count.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void buildShouldSerializeFilterOfAllBatches() throws IOException {
+    final Instant first = Instant.parse("2023-01-01T00:00:00Z");
+    final Instant second = first.plusSeconds(60);
+    final Instant created = second.plusSeconds(60);
+    final LoadedBatch batch1 = createBatch(1, new long[] {1, 2, 3}, second);
+    final LoadedBatch batch2 = createBatch(2, new long[] {4, 5}, first);
+
+    final LoadedFileBloomFilter saved =
+        LoadedFileFilterBuilder.build(7, List.of(batch1, batch2), created);
+
+    assertEquals(7, saved.getLoadedFileId());
+    assertEquals(2, saved.getBatchesCount());
+    assertEquals(second, saved.getLastUpdated());
+    assertEquals(created, saved.getCreated());
+    final BloomFilter bloomFilter =
+        BloomFilter.readFrom(new ByteArrayInputStream(saved.getBloomFilter()));
+    for (long bene = 1; bene <= 5; ++bene) {
+      assertTrue(bloomFilter.mightContainLong(bene));
+    }
+    assertFalse(bloomFilter.mightContainLong(1000));
+  }
+
+  /** Verifies that a file without batches is rejected. */
+  @Test
+  void buildShouldRejectEmptyBatches() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> LoadedFileFilterBuilder.build(7, List.of(), Instant.now()));
+  }
+
+  /**
+   * Creates a batch of the test file.
+   *
+   * @param batchId the batch id
+   * @param beneficiaries the batch's beneficiaries
+   * @param created the batch creation time
+   * @return the batch
+   */
+  private static LoadedBatch createBatch(long batchId, long[] beneficiaries, Instant created) {
+    final LoadedBatch batch = new LoadedBatch();
+    batch.setLoadedBatchId(batchId);
+    batch.setLoadedFileId(7);
+    batch.setBeneficiaries(beneficiaries, beneficiaries.length);
+    batch.setCreated(created);
+    return batch;
+  }
+}
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 import com.codahale.metrics.Slf4jReporter;
 import gov.cms.bfd.model.rif.LoadedBatch;
 import gov.cms.bfd.model.rif.LoadedFile;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
 import gov.cms.bfd.model.rif.RifFile;
 import gov.cms.bfd.model.rif.RifFileEvent;
 import gov.cms.bfd.model.rif.RifFileType;
@@ -22,6 +23,19 @@ import gov.cms.bfd.model.rif.entities.BeneficiaryHistory_;
 import gov.cms.bfd.model.rif.entities.BeneficiaryMonthly;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
 import gov.cms.bfd.model.rif.entities.CarrierClaimLine;
+import gov.cms.bfd.model.rif.entities.DMEClaim;
+import gov.cms.bfd.model.rif.entities.DMEClaimLine;
+import gov.cms.bfd.model.rif.entities.HHAClaim;
+import gov.cms.bfd.model.rif.entities.HHAClaimLine;
+import gov.cms.bfd.model.rif.entities.HospiceClaim;
+import gov.cms.bfd.model.rif.entities.HospiceClaimLine;
+import gov.cms.bfd.model.rif.entities.InpatientClaim;
+import gov.cms.bfd.model.rif.entities.InpatientClaimLine;
+import gov.cms.bfd.model.rif.entities.OutpatientClaim;
+import gov.cms.bfd.model.rif.entities.OutpatientClaimLine;
+import gov.cms.bfd.model.rif.entities.PartDEvent;
+import gov.cms.bfd.model.rif.entities.SNFClaim;
+import gov.cms.bfd.model.rif.entities.SNFClaimLine;
 import gov.cms.bfd.model.rif.parse.RifParsingUtils;
 import gov.cms.bfd.model.rif.samples.StaticRifResource;
 import gov.cms.bfd.model.rif.samples.StaticRifResourceGroup;
@@ -35,6 +49,7 @@ import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetManifest;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetManifest.DataSetManifestEntry;
 import gov.cms.bfd.pipeline.ccw.rif.extract.s3.DataSetManifest.PreValidationProperties;
 import gov.cms.bfd.pipeline.sharedutils.IdHasher;
+import gov.cms.model.dsl.codegen.library.RifRow;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -44,6 +59,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -51,16 +67,15 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
+import javax.persistence.Table;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -248,9 +263,8 @@ public final class RifLoaderIT {
             StaticRifResourceGroup.SAMPLE_A.getResources());
     Function<RifRecordEvent<?>, List<List<String>>> recordEditor =
         rifRecordEvent -> {
-          CSVRecord beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
-          List<String> beneCsvValues =
-              StreamSupport.stream(beneCsvRow.spliterator(), false).collect(Collectors.toList());
+          RifRow beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
+          List<String> beneCsvValues = beneCsvRow.toList();
           beneCsvValues.set(0, "UPDATE");
           return List.of(beneCsvValues);
         };
@@ -294,6 +308,13 @@ public final class RifLoaderIT {
                   567834L,
                   allBatches.getBeneficiariesAsList().get(0),
                   "Expected to match the sample-a beneficiary");
+
+              // Verify that the file's filter was saved once it was completely loaded
+              final LoadedFileBloomFilter savedFilter =
+                  entityManager.find(LoadedFileBloomFilter.class, loadedFile.getLoadedFileId());
+              assertNotNull(savedFilter, "Expected the filter of a loaded file to be saved");
+              assertEquals(batches.size(), savedFilter.getBatchesCount());
+              assertTrue(savedFilter.getBloomFilter().length > 0);
             });
   }
 
@@ -745,6 +766,24 @@ public final class RifLoaderIT {
     validateBeneficiaryCountsInDatabase(1);
   }
 
+  /**
+   * Verifies that the previous versions of updated {@link Beneficiary} records are looked up once
+   * per batch, rather than with one query per record.
+   */
+  @Test
+  public void loadBeneficiaryWhenUpdateExpectBeneficiariesPrefetchedPerBatch() {
+    loadDefaultSampleABeneData(CcwRifLoadTestUtils.getLoadOptions());
+
+    RifFilesEvent updateEvent =
+        new RifFilesEvent(Instant.now(), false, getSampleABeneAsUpdate().toList());
+    loadSample("SAMPLE_A, bene only, UPDATE", CcwRifLoadTestUtils.getLoadOptions(), updateEvent);
+    validateBeneficiaryCountsInDatabase(1);
+
+    var metrics = updateEvent.getFileEvents().get(0).getEventMetrics();
+    assertEquals(1, metrics.timer("RifLoader.beneficiaryLookups.batch").getCount());
+    assertEquals(0, metrics.timer("RifLoader.beneficiaryLookups.single").getCount());
+  }
+
   /**
    * Runs {@link RifLoader} against the {@link StaticRifResourceGroup#SAMPLE_A} data when INSERT,
    * filter is on, and the LoadStrategy.INSERT_IDEMPOTENT is used with a non-Beneficiary type,
@@ -828,6 +867,122 @@ public final class RifLoaderIT {
     validateBeneficiaryCountsInDatabase(1);
   }
 
+  /**
+   * Runs {@link RifLoader} against the claims in the {@link StaticRifResourceGroup#SAMPLE_A} data
+   * once using JPA inserts and once using COPY inserts, and verifies that both loads produce
+   * exactly the same rows (other than their last updated timestamps). Then verifies that a claim
+   * loaded by COPY is changed by the {@link StaticRifResource#SAMPLE_U_CARRIER} update.
+   */
+  @Test
+  public void loadNonBeneficiaryWhenCopyInsertsEnabledExpectSameRowsAsJpaInserts() {
+    final Predicate<RifFile> isClaimFile =
+        r ->
+            r.getFileType() != RifFileType.BENEFICIARY
+                && r.getFileType() != RifFileType.BENEFICIARY_HISTORY;
+
+    loadDefaultSampleABeneData(CcwRifLoadTestUtils.getLoadOptions());
+    loadSample(
+        "claims using JPA inserts",
+        CcwRifLoadTestUtils.getLoadOptions(USE_INSERT_UPDATE_NON_IDEMPOTENT_STRATEGY),
+        filterSamples(isClaimFile, StaticRifResourceGroup.SAMPLE_A.getResources()));
+    final List<String> jpaRows = readClaimRows();
+
+    PipelineTestUtils.get().truncateTablesInDataSource();
+    loadDefaultSampleABeneData(CcwRifLoadTestUtils.getLoadOptions());
+    loadSample(
+        "claims using COPY inserts",
+        CcwRifLoadTestUtils.getLoadOptionsWithCopyInserts(),
+        filterSamples(isClaimFile, StaticRifResourceGroup.SAMPLE_A.getResources()));
+    final List<String> copyRows = readClaimRows();
+
+    assertFalse(jpaRows.isEmpty());
+    assertEquals(jpaRows, copyRows);
+
+    assertEquals('F', findCarrierClaim(9991831999L).getFinalAction());
+
+    loadSample(
+        "claims update after COPY inserts",
+        CcwRifLoadTestUtils.getLoadOptionsWithCopyInserts(),
+        Stream.of(StaticRifResource.SAMPLE_U_CARRIER.toRifFile()));
+    validateBeneficiaryCountsInDatabase(1);
+
+    CarrierClaim carrierRecordFromDb = findCarrierClaim(9991831999L);
+    assertEquals('N', carrierRecordFromDb.getFinalAction());
+    assertEquals(LocalDate.of(2000, Month.OCTOBER, 27), carrierRecordFromDb.getDateThrough());
+    assertEquals(1, carrierRecordFromDb.getLines().size());
+    assertEquals("GG443333HH", carrierRecordFromDb.getLines().get(0).getCliaLabNumber().get());
+  }
+
+  /**
+   * Reads a carrier claim and its lines from the database.
+   *
+   * @param claimId the id of the claim to read
+   * @return the claim
+   */
+  private CarrierClaim findCarrierClaim(long claimId) {
+    EntityManager entityManager =
+        PipelineTestUtils.get()
+            .getPipelineApplicationState()
+            .getEntityManagerFactory()
+            .createEntityManager();
+    try {
+      CarrierClaim claim = entityManager.find(CarrierClaim.class, claimId);
+      claim.getLines().size();
+      return claim;
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  /**
+   * Reads every row of every claim and claim line table as JSON, without the last updated
+   * timestamps, so that two loads of the same data can be compared.
+   *
+   * @return the rows of all claim tables, sorted within each table
+   */
+  private List<String> readClaimRows() {
+    final List<Class<?>> claimEntities =
+        List.of(
+            CarrierClaim.class,
+            CarrierClaimLine.class,
+            DMEClaim.class,
+            DMEClaimLine.class,
+            HHAClaim.class,
+            HHAClaimLine.class,
+            HospiceClaim.class,
+            HospiceClaimLine.class,
+            InpatientClaim.class,
+            InpatientClaimLine.class,
+            OutpatientClaim.class,
+            OutpatientClaimLine.class,
+            SNFClaim.class,
+            SNFClaimLine.class,
+            PartDEvent.class);
+    EntityManager entityManager =
+        PipelineTestUtils.get()
+            .getPipelineApplicationState()
+            .getEntityManagerFactory()
+            .createEntityManager();
+    try {
+      final List<String> rows = new ArrayList<>();
+      for (Class<?> claimEntity : claimEntities) {
+        final String tableName = claimEntity.getAnnotation(Table.class).name();
+        for (Object row :
+            entityManager
+                .createNativeQuery(
+                    String.format(
+                        "select cast(to_jsonb(t) - 'last_updated' as text) from %s t order by 1",
+                        tableName))
+                .getResultList()) {
+          rows.add(tableName + ": " + row);
+        }
+      }
+      return rows;
+    } finally {
+      entityManager.close();
+    }
+  }
+
   /**
    * Tests {@link CcwRifLoadPreValidateInterface} against Synthea data will not have a {@link
    * PreValidationProperties} object as part of the manifest, and a second time (same bucket) where
@@ -1027,9 +1182,8 @@ public final class RifLoaderIT {
             StaticRifResourceGroup.SAMPLE_A.getResources());
     Function<RifRecordEvent<?>, List<List<String>>> recordEditor =
         rifRecordEvent -> {
-          CSVRecord beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
-          List<String> beneCsvValues =
-              StreamSupport.stream(beneCsvRow.spliterator(), false).collect(Collectors.toList());
+          RifRow beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
+          List<String> beneCsvValues = beneCsvRow.toList();
           beneCsvValues.set(BeneficiaryColumn.RFRNC_YR.ordinal() + 1, refYear);
           if (isUpdate) {
             beneCsvValues.set(0, "UPDATE");
@@ -1065,9 +1219,8 @@ public final class RifLoaderIT {
   private Stream<RifFile> editStreamToBeUpdate(Stream<RifFile> samplesStream) {
     Function<RifRecordEvent<?>, List<List<String>>> recordEditor =
         rifRecordEvent -> {
-          CSVRecord beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
-          List<String> beneCsvValues =
-              StreamSupport.stream(beneCsvRow.spliterator(), false).collect(Collectors.toList());
+          RifRow beneCsvRow = rifRecordEvent.getRawCsvRecords().get(0);
+          List<String> beneCsvValues = beneCsvRow.toList();
           beneCsvValues.set(0, "UPDATE");
           return List.of(beneCsvValues);
         };
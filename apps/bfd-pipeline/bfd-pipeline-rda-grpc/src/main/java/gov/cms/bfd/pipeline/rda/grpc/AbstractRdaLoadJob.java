@@ -276,6 +276,13 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
      */
     @Getter private final int writeThreads;
 
+    /**
+     * transformThreads specifies the number of threads used to transform messages into claims
+     * before they are passed to the write threads. Zero (the default) transforms messages in the
+     * write threads.
+     */
+    @Getter private final int transformThreads;
+
     /**
      * batchSize specifies the number of records per batch sent to the RdaSink for processing. This
      * value will likely be tuned for a specific type of sink object and for performance tuning
@@ -313,12 +320,19 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
     /** Indicates the RDA Version (range) that the job is allows to process. */
     @Getter private final RdaVersion rdaVersion;
 
+    /**
+     * Determines if sinks write claims using generated JDBC batch upserts rather than {@code
+     * EntityManager.merge()}. Off unless explicitly enabled.
+     */
+    private final boolean bulkWrites;
+
     /**
      * Instantiates a new config.
      *
      * @param runInterval the run interval
      * @param batchSize the batch size
      * @param writeThreads the number of write threads
+     * @param transformThreads the number of transform threads
      * @param startingFissSeqNum the starting fiss seq num
      * @param startingMcsSeqNum the starting MCS seq num
      * @param processDLQ if the job should process the DLQ
@@ -327,12 +341,14 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
      * @param cleanupTransactionSize the number of claims to remove per cleanup db transaction
      * @param sinkTypePreference The {@link SinkTypePreference} to use for created jobs
      * @param rdaVersion The required {@link RdaVersion} in order to ingest data
+     * @param bulkWrites if sinks should write claims using JDBC batch upserts
      */
     @Builder
     private Config(
         Duration runInterval,
         int batchSize,
         int writeThreads,
+        int transformThreads,
         @Nullable Long startingFissSeqNum,
         @Nullable Long startingMcsSeqNum,
         boolean processDLQ,
@@ -340,10 +356,12 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
         int cleanupRunSize,
         int cleanupTransactionSize,
         SinkTypePreference sinkTypePreference,
-        RdaVersion rdaVersion) {
+        RdaVersion rdaVersion,
+        boolean bulkWrites) {
       this.runInterval = Preconditions.checkNotNull(runInterval);
       this.batchSize = batchSize;
       this.writeThreads = writeThreads == 0 ? 1 : writeThreads;
+      this.transformThreads = transformThreads;
       this.startingFissSeqNum = startingFissSeqNum;
       this.startingMcsSeqNum = startingMcsSeqNum;
       this.processDLQ = processDLQ;
@@ -352,6 +370,7 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
       this.cleanupTransactionSize = cleanupTransactionSize;
       this.sinkTypePreference = sinkTypePreference;
       this.rdaVersion = rdaVersion;
+      this.bulkWrites = bulkWrites;
       // zero is ok because that means the job should run exactly once
       Preconditions.checkArgument(
           runInterval.toMillis() == 0 || runInterval.toMillis() >= 1_000,
@@ -359,6 +378,8 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
           runInterval);
       Preconditions.checkArgument(
           this.writeThreads >= 1, "writeThreads less than 1: %s", writeThreads);
+      Preconditions.checkArgument(
+          transformThreads >= 0, "transformThreads less than 0: %s", transformThreads);
       Preconditions.checkArgument(batchSize >= 1, "batchSize less than 1: %s", batchSize);
 
       if (runCleanup) {
@@ -412,6 +433,16 @@ public abstract class AbstractRdaLoadJob<TResponse, TClaim> implements PipelineJ
     public boolean shouldRunCleanup() {
       return runCleanup;
     }
+
+    /**
+     * Returns true if sinks should write claims using JDBC batch upserts, false if they should use
+     * {@code EntityManager.merge()}.
+     *
+     * @return true if sinks should write claims using JDBC batch upserts
+     */
+    public boolean shouldUseBulkWrites() {
+      return bulkWrites;
+    }
   }
 
   /**
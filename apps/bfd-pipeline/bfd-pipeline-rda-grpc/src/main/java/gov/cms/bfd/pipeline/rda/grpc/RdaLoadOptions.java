@@ -181,19 +181,22 @@ public class RdaLoadOptions {
     return (AbstractRdaLoadJob.SinkTypePreference sinkTypePreference) -> {
       RdaSink<FissClaimChange, RdaChange<RdaFissClaim>> sink;
       FissClaimTransformer transformer = new FissClaimTransformer(appState.getClock(), mbiCache);
+      final boolean bulkWrites = jobConfig.shouldUseBulkWrites();
 
       if (sinkTypePreference == AbstractRdaLoadJob.SinkTypePreference.SYNCHRONOUS) {
-        sink = new FissClaimRdaSink(appState, transformer, true, errorLimit);
+        sink = new FissClaimRdaSink(appState, transformer, true, errorLimit, bulkWrites);
       } else if (sinkTypePreference == AbstractRdaLoadJob.SinkTypePreference.PRE_PROCESSOR) {
-        sink = new FissClaimRdaSink(appState, transformer, false, errorLimit);
+        sink = new FissClaimRdaSink(appState, transformer, false, errorLimit, bulkWrites);
       } else {
         sink =
             ConcurrentRdaSink.createSink(
                 jobConfig.getWriteThreads(),
+                jobConfig.getTransformThreads(),
                 jobConfig.getBatchSize(),
+                appState.getMeters(),
                 autoUpdateSequenceNumbers ->
                     new FissClaimRdaSink(
-                        appState, transformer, autoUpdateSequenceNumbers, errorLimit));
+                        appState, transformer, autoUpdateSequenceNumbers, errorLimit, bulkWrites));
       }
 
       return sink;
@@ -266,19 +269,22 @@ public class RdaLoadOptions {
     return (AbstractRdaLoadJob.SinkTypePreference sinkTypePreference) -> {
       RdaSink<McsClaimChange, RdaChange<RdaMcsClaim>> sink;
       McsClaimTransformer transformer = new McsClaimTransformer(appState.getClock(), mbiCache);
+      final boolean bulkWrites = jobConfig.shouldUseBulkWrites();
 
       if (sinkTypePreference == AbstractRdaLoadJob.SinkTypePreference.SYNCHRONOUS) {
-        sink = new McsClaimRdaSink(appState, transformer, true, errorLimit);
+        sink = new McsClaimRdaSink(appState, transformer, true, errorLimit, bulkWrites);
       } else if (sinkTypePreference == AbstractRdaLoadJob.SinkTypePreference.PRE_PROCESSOR) {
-        sink = new McsClaimRdaSink(appState, transformer, false, errorLimit);
+        sink = new McsClaimRdaSink(appState, transformer, false, errorLimit, bulkWrites);
       } else {
         sink =
             ConcurrentRdaSink.createSink(
                 jobConfig.getWriteThreads(),
+                jobConfig.getTransformThreads(),
                 jobConfig.getBatchSize(),
+                appState.getMeters(),
                 autoUpdateSequenceNumbers ->
                     new McsClaimRdaSink(
-                        appState, transformer, autoUpdateSequenceNumbers, errorLimit));
+                        appState, transformer, autoUpdateSequenceNumbers, errorLimit, bulkWrites));
       }
 
       return sink;
@@ -1,13 +1,14 @@
 package gov.cms.bfd.pipeline.rda.grpc.sink.concurrent;
 
 import com.google.common.annotations.VisibleForTesting;
-import gov.cms.bfd.pipeline.rda.grpc.ProcessingException;
 import gov.cms.bfd.pipeline.rda.grpc.RdaSink;
-import java.io.IOException;
+import io.micrometer.core.instrument.Timer;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -34,6 +35,9 @@ class ClaimWriter<TMessage, TClaim> {
   /** Number of claims per batch. */
   private final int batchSize;
 
+  /** Records the elapsed time of each batch write. Null if no timing is needed. */
+  @Nullable private final Timer writeTimer;
+
   /**
    * All {@link ApiMessage}s used to construct current batch of claims. This includes any duplicates
    * and/or transformation failures that are not written. Control messages are not included since
@@ -62,9 +66,22 @@ class ClaimWriter<TMessage, TClaim> {
    * @param batchSize number of claims per batch
    */
   ClaimWriter(int id, RdaSink<TMessage, TClaim> sink, int batchSize) {
+    this(id, sink, batchSize, null);
+  }
+
+  /**
+   * Create an instance that records the elapsed time of each batch write.
+   *
+   * @param id unique identifier for this object
+   * @param sink {@link RdaSink} used to transform and write claims
+   * @param batchSize number of claims per batch
+   * @param writeTimer records the elapsed time of each batch write, or null for no timing
+   */
+  ClaimWriter(int id, RdaSink<TMessage, TClaim> sink, int batchSize, @Nullable Timer writeTimer) {
     this.id = id;
     this.sink = sink;
     this.batchSize = batchSize;
+    this.writeTimer = writeTimer;
     messageBuffer = new ArrayList<>(batchSize);
     claimBuffer = new LinkedHashMap<>(batchSize);
   }
@@ -78,6 +95,20 @@ class ClaimWriter<TMessage, TClaim> {
    * @return {@link Mono} containing the result if batch written or nothing if nothing was written
    */
   synchronized Mono<BatchResult<TMessage>> processMessage(ApiMessage<TMessage> message) {
+    return processMessage(TransformedMessage.untransformed(message));
+  }
+
+  /**
+   * Process a {@link TransformedMessage}. Works the same as {@link #processMessage(ApiMessage)}
+   * except that messages already transformed by the transform stage of {@link ConcurrentRdaSink}
+   * are buffered using their existing claim rather than being transformed again. A message whose
+   * transformation failed produces a failed {@link BatchResult} containing its exception.
+   *
+   * @param message the {@link TransformedMessage} to process
+   * @return {@link Mono} containing the result if batch written or nothing if nothing was written
+   */
+  synchronized Mono<BatchResult<TMessage>> processMessage(
+      TransformedMessage<TMessage, TClaim> message) {
     Mono<BatchResult<TMessage>> result = Mono.empty();
     try {
       var writeNeeded = ingestApiMessage(message);
@@ -85,7 +116,7 @@ class ClaimWriter<TMessage, TClaim> {
         result = writeBatchToSink();
       }
     } catch (Exception ex) {
-      result = Mono.just(new BatchResult<>(List.of(message), ex));
+      result = Mono.just(new BatchResult<>(List.of(message.getMessage()), ex));
     }
     return result;
   }
@@ -135,13 +166,14 @@ class ClaimWriter<TMessage, TClaim> {
    *   <li>is a flush control message
    * </ul>
    *
-   * @param message {@link ApiMessage} to ingest
+   * @param transformedMessage {@link TransformedMessage} containing the {@link ApiMessage} to
+   *     ingest
    * @return true if a batch needs to be written
-   * @throws IOException pass through if thrown by sink
-   * @throws ProcessingException pass through if thrown by sink
+   * @throws Exception pass through if thrown by sink or by the transform stage
    */
-  private boolean ingestApiMessage(ApiMessage<TMessage> message)
-      throws IOException, ProcessingException {
+  private boolean ingestApiMessage(TransformedMessage<TMessage, TClaim> transformedMessage)
+      throws Exception {
+    final ApiMessage<TMessage> message = transformedMessage.getMessage();
     boolean writeNeeded;
     if (message.isIdleMessage()) {
       writeNeeded = idle && claimBuffer.size() > 0;
@@ -150,8 +182,14 @@ class ClaimWriter<TMessage, TClaim> {
       writeNeeded = claimBuffer.size() > 0;
       idle = false;
     } else {
-      final var claim =
-          sink.transformMessage(message.getApiVersion(), message.getMessage()).orElse(null);
+      final TClaim claim;
+      if (transformedMessage.getError() != null) {
+        throw transformedMessage.getError();
+      } else if (transformedMessage.isTransformed()) {
+        claim = transformedMessage.getClaim();
+      } else {
+        claim = sink.transformMessage(message.getApiVersion(), message.getMessage()).orElse(null);
+      }
       messageBuffer.add(message);
       if (claim != null) {
         claimBuffer.put(message.getClaimId(), claim);
@@ -174,11 +212,16 @@ class ClaimWriter<TMessage, TClaim> {
     claimBuffer.clear();
 
     Mono<BatchResult<TMessage>> result;
+    final long startNanos = System.nanoTime();
     try {
       final int processed = sink.writeClaims(claims);
       result = Mono.just(new BatchResult<>(messages, processed));
     } catch (Exception ex) {
       result = Mono.just(new BatchResult<>(messages, ex));
+    } finally {
+      if (writeTimer != null) {
+        writeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+      }
     }
     return result;
   }
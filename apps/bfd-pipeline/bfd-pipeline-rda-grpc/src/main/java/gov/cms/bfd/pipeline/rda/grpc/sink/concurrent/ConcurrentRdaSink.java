@@ -1,41 +1,64 @@
 package gov.cms.bfd.pipeline.rda.grpc.sink.concurrent;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import gov.cms.bfd.pipeline.rda.grpc.NumericGauges;
 import gov.cms.bfd.pipeline.rda.grpc.ProcessingException;
 import gov.cms.bfd.pipeline.rda.grpc.RdaSink;
 import gov.cms.bfd.pipeline.sharedutils.MultiCloser;
 import gov.cms.bfd.pipeline.sharedutils.SequenceNumberTracker;
 import gov.cms.model.dsl.codegen.library.DataTransformer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.Closeable;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.Disposable;
 import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 /**
  * A sink implementation that uses a thread pool to perform all writes asynchronously.
  *
+ * <p>Messages flow through three bounded stages: receive (messages passed to {@link #writeMessages}
+ * waiting to be picked up), transform (messages being converted into claims), and write (claims
+ * buffered by a {@link ClaimWriter} until their batch is written). When configured with transform
+ * threads the transformation runs on its own thread pool so that CPU bound transformation does not
+ * compete with database writes. Otherwise each {@link ClaimWriter} transforms its own messages.
+ * Each stage has a queue depth gauge and a timer so that the slowest stage can be identified from
+ * the metrics.
+ *
  * @param <TMessage> RDA API message class
  * @param <TClaim> JPA entity class
  */
 @Slf4j
 public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TClaim> {
+  /** Holds the underlying value of all gauges. */
+  private static final NumericGauges GAUGES = new NumericGauges();
+
   /**
    * Interval used to check if a claim worker is idle. Two consecutive checks when a worker is idle
    * will flush the worker's buffer to the database. Thus the period of time after which the flush
@@ -128,9 +151,31 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
    */
   private final Scheduler sequenceNumberWriterScheduler;
 
+  /** Number of threads used to transform messages. Zero if claim writers transform messages. */
+  private final int transformThreads;
+
+  /**
+   * Sinks used by the transform stage to transform messages. Each is used by only one thread at a
+   * time. Empty if claim writers transform messages.
+   */
+  private final List<RdaSink<TMessage, TClaim>> transformSinks;
+
+  /** Holds the {@link #transformSinks} not currently in use by a transform thread. */
+  private final BlockingQueue<RdaSink<TMessage, TClaim>> idleTransformSinks;
+
+  /**
+   * {@link Scheduler} used to run transformations. Null if claim writers transform messages.
+   * Schedulers are {@link Closeable} so this is closed in {@link #close}.
+   */
+  @Nullable private final Scheduler transformScheduler;
+
+  /** Queue depth and latency metrics for each stage. */
+  private final Metrics metrics;
+
   /**
    * Constructs a ConcurrentRdaSink with the specified configuration. Actual writes are delegated to
-   * single-threaded sink objects produced using the provided factory method.
+   * single-threaded sink objects produced using the provided factory method. Messages are
+   * transformed by the claim writers and metrics are not published.
    *
    * @param maxThreads number of writer threads used to write claims
    * @param batchSize number of messages per batch for database writes
@@ -138,12 +183,51 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
    */
   public ConcurrentRdaSink(
       int maxThreads, int batchSize, Supplier<RdaSink<TMessage, TClaim>> sinkFactory) {
+    this(maxThreads, 0, batchSize, new SimpleMeterRegistry(), sinkFactory);
+  }
+
+  /**
+   * Constructs a ConcurrentRdaSink with the specified configuration. Actual writes are delegated to
+   * single-threaded sink objects produced using the provided factory method. When {@code
+   * transformThreads} is positive messages are transformed using that many threads before being
+   * passed to the claim writers.
+   *
+   * @param maxThreads number of writer threads used to write claims
+   * @param transformThreads number of threads used to transform messages, zero to transform
+   *     messages in the writer threads
+   * @param batchSize number of messages per batch for database writes
+   * @param appMetrics the {@link MeterRegistry} used to publish stage metrics
+   * @param sinkFactory factory method to produce appropriate single threaded sinks
+   */
+  public ConcurrentRdaSink(
+      int maxThreads,
+      int transformThreads,
+      int batchSize,
+      MeterRegistry appMetrics,
+      Supplier<RdaSink<TMessage, TClaim>> sinkFactory) {
     sequenceNumbers = new SequenceNumberTracker(0);
     sink = sinkFactory.get();
+    metrics = new Metrics(sink.getClass(), appMetrics);
     claimWriters =
         IntStream.rangeClosed(1, maxThreads)
-            .mapToObj(writerId -> new ClaimWriter<>(writerId, sinkFactory.get(), batchSize))
+            .mapToObj(
+                writerId ->
+                    new ClaimWriter<>(writerId, sinkFactory.get(), batchSize, metrics.writeTime))
+            .collect(Collectors.toUnmodifiableList());
+    this.transformThreads = transformThreads;
+    transformSinks =
+        IntStream.range(0, transformThreads)
+            .mapToObj(i -> sinkFactory.get())
             .collect(Collectors.toUnmodifiableList());
+    idleTransformSinks =
+        new ArrayBlockingQueue<>(Math.max(1, transformThreads), false, transformSinks);
+    transformScheduler =
+        transformThreads > 0
+            ? Schedulers.newBoundedElastic(
+                transformThreads,
+                transformThreads,
+                sink.getClass().getSimpleName() + "-Transformer")
+            : null;
     sequenceNumberWriter = new SequenceNumberWriter<>(sinkFactory.get(), sequenceNumbers);
     running = new AtomicBoolean(true);
     unreportedProcessedCount = new AtomicInteger(0);
@@ -176,19 +260,30 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
    * This is needed because asynchronous sinks need to manage sequence numbers in a special way
    * while synchronous ones can just update the sequence numbers at same time they update claims.
    *
+   * <p>A ConcurrentRdaSink is also created when transformThreads is positive, even with a single
+   * writer thread, since transformation then happens on its own thread pool.
+   *
    * @param maxThreads number of writer threads used to write claims
+   * @param transformThreads number of threads used to transform messages, zero to transform
+   *     messages in the writer threads
    * @param batchSize number of messages per batch for database writes
+   * @param appMetrics the {@link MeterRegistry} used to publish stage metrics
    * @param sinkFactory factory method to produce appropriate single threaded sinks
    * @param <TMessage> RDA API message class
    * @param <TClaim> JPA entity class
    * @return either a simple sink or a ConcurrentRdaSink
    */
   public static <TMessage, TClaim> RdaSink<TMessage, TClaim> createSink(
-      int maxThreads, int batchSize, Function<Boolean, RdaSink<TMessage, TClaim>> sinkFactory) {
-    if (maxThreads == 1) {
+      int maxThreads,
+      int transformThreads,
+      int batchSize,
+      MeterRegistry appMetrics,
+      Function<Boolean, RdaSink<TMessage, TClaim>> sinkFactory) {
+    if (maxThreads == 1 && transformThreads == 0) {
       return sinkFactory.apply(true);
     } else {
-      return new ConcurrentRdaSink<>(maxThreads, batchSize, () -> sinkFactory.apply(false));
+      return new ConcurrentRdaSink<>(
+          maxThreads, transformThreads, batchSize, appMetrics, () -> sinkFactory.apply(false));
     }
   }
 
@@ -198,7 +293,9 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
    * batches during extended idle time. Such idle time can happen with RDA API calls when we are
    * storing claims faster than the API can send them to us.
    *
-   * <p>The database updates take place using a worker from the {@link #claimWriterScheduler}.
+   * <p>Messages pass through the transform stage (see {@link #createTransformFlux}) before being
+   * assigned to a writer. The database updates take place using a worker from the {@link
+   * #claimWriterScheduler}.
    *
    * @return {@link Flux} that emits a {@link BatchResult} each time a batch is processed
    */
@@ -215,7 +312,7 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
             // Drop any extra messages if the writer is currently busy.
             .onBackpressureLatest()
             // Replaces the time value with an idle message.
-            .map(time -> IdleMessage);
+            .map(time -> TransformedMessage.<TMessage, TClaim>untransformed(IdleMessage));
 
     // Creates the flux.  Each operator call in the chain decorates the original with some desired
     // behavior.  See https://projectreactor.io/docs for details on how these work.
@@ -223,14 +320,16 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
         .flux()
         // Ensures main thread is never tied down doing any processing.
         .publishOn(Schedulers.boundedElastic())
+        // Transforms the messages into claims while preserving their order.
+        .transform(this::createTransformFlux)
         // Assigns the message to its claim writer based on claim id.
-        .groupBy(message -> claimPartitioner.partitionFor(message.getClaimId()))
+        .groupBy(message -> claimPartitioner.partitionFor(message.getMessage().getClaimId()))
         // Processes claims in each writer's flux using a separate thread for each.
         .flatMap(
             claimWriterFlux ->
                 claimWriterFlux
                     // When all messages have been received this sends a flush message to finish up
-                    .concatWithValues(FlushMessage)
+                    .concatWithValues(TransformedMessage.untransformed(FlushMessage))
                     // Inserts idle messages when the timer fires
                     .mergeWith(idleTimerFlux)
                     // Ensures we process everything on writer's own thread
@@ -243,6 +342,70 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
         .publishOn(Schedulers.boundedElastic());
   }
 
+  /**
+   * Decorates a {@link Flux} of received messages with the transform stage. When {@link
+   * #transformThreads} is positive the messages are transformed concurrently using the {@link
+   * #transformScheduler} and emitted in their original order so that updates to the same claim
+   * still reach their writer in sequence. Otherwise the messages are passed through untransformed
+   * for the claim writers to transform.
+   *
+   * @param messages {@link Flux} of received messages
+   * @return {@link Flux} of messages ready to be passed to a claim writer
+   */
+  private Flux<TransformedMessage<TMessage, TClaim>> createTransformFlux(
+      Flux<ApiMessage<TMessage>> messages) {
+    final Flux<TransformedMessage<TMessage, TClaim>> transformed;
+    if (transformScheduler == null) {
+      transformed =
+          messages.map(
+              message -> {
+                metrics.receiveQueueSize.decrementAndGet();
+                return TransformedMessage.untransformed(message);
+              });
+    } else {
+      transformed =
+          messages
+              .flatMapSequential(
+                  message ->
+                      Mono.fromCallable(() -> transformMessage(message))
+                          .subscribeOn(transformScheduler),
+                  transformThreads)
+              .doOnNext(message -> metrics.transformQueueSize.decrementAndGet());
+    }
+    return transformed.doOnNext(message -> metrics.writeQueueSize.incrementAndGet());
+  }
+
+  /**
+   * Transforms a single message using one of the idle {@link #transformSinks}. Any exception is
+   * captured in the result so that it can be reported by the message's claim writer.
+   *
+   * @param message the message to transform
+   * @return the {@link TransformedMessage}
+   */
+  private TransformedMessage<TMessage, TClaim> transformMessage(ApiMessage<TMessage> message) {
+    metrics.receiveQueueSize.decrementAndGet();
+    metrics.transformQueueSize.incrementAndGet();
+    final long startNanos = System.nanoTime();
+    RdaSink<TMessage, TClaim> transformSink = null;
+    TransformedMessage<TMessage, TClaim> result;
+    try {
+      transformSink = idleTransformSinks.take();
+      final TClaim claim =
+          transformSink
+              .transformMessage(message.getApiVersion(), message.getMessage())
+              .orElse(null);
+      result = TransformedMessage.transformed(message, claim);
+    } catch (Exception ex) {
+      result = TransformedMessage.failed(message, ex);
+    } finally {
+      if (transformSink != null) {
+        idleTransformSinks.add(transformSink);
+      }
+      metrics.transformTime.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    return result;
+  }
+
   /**
    * Creates a {@link Flux} that periodically calls {@link
    * SequenceNumberWriter#updateSequenceNumberInDatabase} to ensure that the progress table has the
@@ -302,7 +465,11 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
         final var sequenceNumber = getSequenceNumberForObject(object);
         final var apiMessage = new ApiMessage<>(claimId, sequenceNumber, apiVersion, object);
         sequenceNumbers.addActiveSequenceNumber(sequenceNumber);
+        // Counted before emit since the transform stage can pick up the message immediately.
+        metrics.receiveQueueSize.incrementAndGet();
+        final long startNanos = System.nanoTime();
         publisher.emit(apiMessage);
+        metrics.receiveBlockedTime.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
       }
       return getProcessedCount();
     } catch (Exception ex) {
@@ -372,12 +539,19 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
           log.info("shutdown close claimWriter {}", claimWriter.getId());
           closer.close(claimWriter::close);
         }
+        for (RdaSink<TMessage, TClaim> transformSink : transformSinks) {
+          log.info("shutdown close transform sink");
+          closer.close(transformSink::close);
+        }
         log.info("shutdown close sequenceWriter");
         closer.close(sequenceNumberWriter::close);
         log.info("shutdown close sink");
         closer.close(sink::close);
         log.info("shutdown close schedulers");
         closer.close(claimWriterScheduler::dispose);
+        if (transformScheduler != null) {
+          closer.close(transformScheduler::dispose);
+        }
         closer.close(sequenceNumberWriterScheduler::dispose);
         log.info("shutdown check for errors");
         closer.close(this::throwIfErrorPresent);
@@ -404,6 +578,16 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
     log.info("close complete");
   }
 
+  /**
+   * Gets the {@link #metrics}.
+   *
+   * @return the metrics
+   */
+  @VisibleForTesting
+  Metrics getMetrics() {
+    return metrics;
+  }
+
   /**
    * Check to see if any exception has been reported by the writers. If one has this method will
    * throw that exception wrapped in a {@link ProcessingException}. Otherwise it will simply return.
@@ -433,6 +617,7 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
         sequenceNumbers.removeWrittenSequenceNumber(message.getSequenceNumber());
       }
     }
+    metrics.writeQueueSize.addAndGet(-result.getMessages().size());
     publisher.allow(result.getMessages().size());
   }
 
@@ -489,4 +674,53 @@ public class ConcurrentRdaSink<TMessage, TClaim> implements RdaSink<TMessage, TC
       log.warn("waitForLatch: wait time exceeded without reaching zero");
     }
   }
+
+  /**
+   * Queue depth gauges and latency timers for each stage. Metric names are prefixed with the class
+   * name of the underlying sink so that FISS and MCS jobs have distinct metrics.
+   */
+  @Getter
+  @VisibleForTesting
+  static class Metrics {
+    /** Number of messages received but not yet picked up by the transform stage. */
+    private final AtomicLong receiveQueueSize;
+
+    /** Tracks the time the receiver was blocked waiting for room in the pipeline. */
+    private final Timer receiveBlockedTime;
+
+    /** Number of messages being transformed or waiting for earlier messages to be transformed. */
+    private final AtomicLong transformQueueSize;
+
+    /** Tracks the time spent transforming each message in the transform stage. */
+    private final Timer transformTime;
+
+    /** Number of messages passed to a claim writer whose batch has not yet been written. */
+    private final AtomicLong writeQueueSize;
+
+    /** Tracks the time spent writing each batch of claims. */
+    private final Timer writeTime;
+
+    /**
+     * Initializes all the metrics. Gauges are shared by every instance for the same sink class so
+     * they are reset to zero for each new instance.
+     *
+     * @param klass used to derive metric names
+     * @param appMetrics where to store the metrics
+     */
+    private Metrics(Class<?> klass, MeterRegistry appMetrics) {
+      final String base = MetricRegistry.name(klass.getSimpleName(), "pipeline");
+      receiveQueueSize =
+          GAUGES.getGaugeForName(appMetrics, MetricRegistry.name(base, "receive", "queue"));
+      receiveBlockedTime = appMetrics.timer(MetricRegistry.name(base, "receive", "blocked"));
+      transformQueueSize =
+          GAUGES.getGaugeForName(appMetrics, MetricRegistry.name(base, "transform", "queue"));
+      transformTime = appMetrics.timer(MetricRegistry.name(base, "transform", "elapsed"));
+      writeQueueSize =
+          GAUGES.getGaugeForName(appMetrics, MetricRegistry.name(base, "write", "queue"));
+      writeTime = appMetrics.timer(MetricRegistry.name(base, "write", "elapsed"));
+      receiveQueueSize.set(0);
+      transformQueueSize.set(0);
+      writeQueueSize.set(0);
+    }
+  }
 }
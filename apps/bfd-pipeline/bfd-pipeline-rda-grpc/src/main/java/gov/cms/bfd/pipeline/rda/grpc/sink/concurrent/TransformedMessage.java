@@ -0,0 +1,76 @@
+package gov.cms.bfd.pipeline.rda.grpc.sink.concurrent;
+
+import javax.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Pairs an {@link ApiMessage} with the outcome of transforming it into a claim. Produced by the
+ * transform stage of {@link ConcurrentRdaSink} so that the transformation can be performed on a
+ * separate thread pool before the message reaches its {@link ClaimWriter}. Messages that have not
+ * been transformed (control messages or when no transform stage is configured) are transformed by
+ * the {@link ClaimWriter} itself.
+ *
+ * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+ * @param <TClaim> type of hibernate entity class corresponding to a claim
+ */
+@Data
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class TransformedMessage<TMessage, TClaim> {
+  /** The original message. */
+  private final ApiMessage<TMessage> message;
+
+  /** True if the transform stage has already attempted to transform the message. */
+  private final boolean transformed;
+
+  /**
+   * The claim produced by the transformation. Null if the message has not been transformed, if the
+   * transformation failed, or if the sink chose not to produce a claim for the message.
+   */
+  @Nullable private final TClaim claim;
+
+  /** The exception thrown by the transformation (if any). */
+  @Nullable private final Exception error;
+
+  /**
+   * Create an instance for a message that the {@link ClaimWriter} must transform itself.
+   *
+   * @param message the message
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   * @param <TClaim> type of hibernate entity class corresponding to a claim
+   * @return the instance
+   */
+  static <TMessage, TClaim> TransformedMessage<TMessage, TClaim> untransformed(
+      ApiMessage<TMessage> message) {
+    return new TransformedMessage<>(message, false, null, null);
+  }
+
+  /**
+   * Create an instance for a message that was successfully transformed.
+   *
+   * @param message the message
+   * @param claim the claim produced from the message or null if there is none
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   * @param <TClaim> type of hibernate entity class corresponding to a claim
+   * @return the instance
+   */
+  static <TMessage, TClaim> TransformedMessage<TMessage, TClaim> transformed(
+      ApiMessage<TMessage> message, @Nullable TClaim claim) {
+    return new TransformedMessage<>(message, true, claim, null);
+  }
+
+  /**
+   * Create an instance for a message whose transformation threw an exception.
+   *
+   * @param message the message
+   * @param error the exception that was thrown
+   * @param <TMessage> type of RDA API gRPC stub object corresponding to a message
+   * @param <TClaim> type of hibernate entity class corresponding to a claim
+   * @return the instance
+   */
+  static <TMessage, TClaim> TransformedMessage<TMessage, TClaim> failed(
+      ApiMessage<TMessage> message, Exception error) {
+    return new TransformedMessage<>(message, true, null, error);
+  }
+}
@@ -12,6 +12,7 @@ import gov.cms.bfd.pipeline.rda.grpc.RdaChange;
 import gov.cms.bfd.pipeline.rda.grpc.RdaSink;
 import gov.cms.bfd.pipeline.sharedutils.PipelineApplicationState;
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import gov.cms.model.dsl.codegen.library.BulkEntityWriter;
 import gov.cms.model.dsl.codegen.library.DataTransformer;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
@@ -30,8 +31,10 @@ import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import lombok.Getter;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +69,16 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
   /** The number of claim errors that can exist before the job will stop processing. */
   private final int errorLimit;
 
+  /**
+   * Writes claims using JDBC batch upserts when not null. Otherwise claims are written using {@link
+   * EntityManager#merge}.
+   */
+  @Nullable private final BulkEntityWriter<TClaim> bulkWriter;
+
+  /** Writes claim meta data when {@link #bulkWriter} is not null. */
+  private final ClaimMessageMetaDataBulkWriter metaDataWriter =
+      new ClaimMessageMetaDataBulkWriter();
+
   /** Holds the underlying value of our sequence number gauges. */
   private static final NumericGauges GAUGES = new NumericGauges();
 
@@ -84,12 +97,15 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
    * @param autoUpdateLastSeq controls whether sequence numbers are automatically written to the
    *     database
    * @param errorLimit the number of claim errors that can exist before the job will stop processing
+   * @param bulkWriter used to write claims with JDBC batch upserts, or null to use {@link
+   *     EntityManager#merge}
    */
   protected AbstractClaimRdaSink(
       PipelineApplicationState appState,
       RdaApiProgress.ClaimType claimType,
       boolean autoUpdateLastSeq,
-      int errorLimit) {
+      int errorLimit,
+      @Nullable BulkEntityWriter<TClaim> bulkWriter) {
     transactionManager = new TransactionManager(appState.getEntityManagerFactory());
     metrics = new Metrics(getClass(), appState.getMeters());
     clock = appState.getClock();
@@ -97,6 +113,7 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
     this.claimType = claimType;
     this.autoUpdateLastSeq = autoUpdateLastSeq;
     this.errorLimit = errorLimit;
+    this.bulkWriter = bulkWriter;
   }
 
   /** {@inheritDoc} */
@@ -220,9 +237,16 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
     try {
       metrics.calls.increment();
       updateLatencyMetrics(claims);
-      mergeBatch(maxSeq, claims);
-      metrics.objectsMerged.increment(claims.size());
-      logger.debug("writeBatch succeeded using merge: size={} maxSeq={} ", claims.size(), maxSeq);
+      if (bulkWriter != null) {
+        bulkWriteBatch(maxSeq, claims);
+        metrics.objectsBulkWritten.increment(claims.size());
+        logger.debug(
+            "writeBatch succeeded using bulk writer: size={} maxSeq={} ", claims.size(), maxSeq);
+      } else {
+        mergeBatch(maxSeq, claims);
+        metrics.objectsMerged.increment(claims.size());
+        logger.debug("writeBatch succeeded using merge: size={} maxSeq={} ", claims.size(), maxSeq);
+      }
     } catch (Exception error) {
       logger.error(
           "writeBatch failed: size={} maxSeq={} error={}",
@@ -427,6 +451,51 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
         });
   }
 
+  /**
+   * Uses {@link #bulkWriter} to write all the claims and {@link #metaDataWriter} to write their
+   * associated metadata to the database with JDBC batches. Claim rows are inserted or updated with
+   * a single batch and the rows of their child tables are replaced. Avoids the select and
+   * collection replacement statements that {@link EntityManager#merge} issues for every claim.
+   *
+   * @param maxSeq highest sequence number from claims in the collection
+   * @param changes collection of claims to write to the database
+   */
+  private void bulkWriteBatch(long maxSeq, Collection<RdaChange<TClaim>> changes) {
+    transactionManager.executeProcedure(
+        entityManager -> {
+          final Instant startTime = Instant.now();
+          int insertCount = 0;
+          try {
+            final List<TClaim> claims = new ArrayList<>(changes.size());
+            final List<RdaClaimMessageMetaData> metaData = new ArrayList<>(changes.size());
+            for (RdaChange<TClaim> change : changes) {
+              if (change.getType() == RdaChange.Type.DELETE) {
+                // We would expect this to have been filtered by the RdaSource so it is safe
+                // to stop processing with an exception here.
+                throw new IllegalArgumentException(
+                    "RDA API DELETE changes are not currently supported");
+              }
+              metaData.add(createMetaData(change));
+              claims.add(change.getClaim());
+            }
+            insertCount =
+                entityManager
+                    .unwrap(Session.class)
+                    .doReturningWork(
+                        connection ->
+                            metaDataWriter.writeEntities(connection, metaData)
+                                + bulkWriter.writeEntities(connection, claims));
+            if (autoUpdateLastSeq) {
+              updateLastSequenceNumberImpl(entityManager, maxSeq);
+            }
+          } finally {
+            metrics.dbUpdateTime.record(Duration.between(startTime, Instant.now()));
+            metrics.dbBatchSize.record(changes.size());
+            metrics.insertCount.record(insertCount);
+          }
+        });
+  }
+
   /**
    * Finds the highest sequence number in a collection of claims.
    *
@@ -501,6 +570,9 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
     /** Number of objects stored using {@code merge()}. */
     private final Counter objectsMerged;
 
+    /** Number of objects stored using JDBC batch upserts. */
+    private final Counter objectsBulkWritten;
+
     /** Number of objects successfully transformed. */
     private final Counter transformSuccesses;
 
@@ -548,6 +620,7 @@ abstract class AbstractClaimRdaSink<TMessage, TClaim>
       objectsWritten = appMetrics.counter(MetricRegistry.name(base, "writes", "total"));
       objectsPersisted = appMetrics.counter(MetricRegistry.name(base, "writes", "persisted"));
       objectsMerged = appMetrics.counter(MetricRegistry.name(base, "writes", "merged"));
+      objectsBulkWritten = appMetrics.counter(MetricRegistry.name(base, "writes", "bulk"));
       transformSuccesses = appMetrics.counter(MetricRegistry.name(base, "transform", "successes"));
       transformFailures = appMetrics.counter(MetricRegistry.name(base, "transform", "failures"));
       changeAgeMillis =
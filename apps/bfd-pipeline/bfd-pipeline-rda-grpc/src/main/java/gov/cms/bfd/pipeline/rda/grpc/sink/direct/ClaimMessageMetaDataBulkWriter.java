@@ -0,0 +1,63 @@
+package gov.cms.bfd.pipeline.rda.grpc.sink.direct;
+
+import gov.cms.bfd.model.rda.RdaClaimMessageMetaData;
+import gov.cms.bfd.model.rda.StringListConverter;
+import gov.cms.model.dsl.codegen.library.BulkEntityWriter;
+import gov.cms.model.dsl.codegen.library.JdbcParameters;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * Writes batches of {@link RdaClaimMessageMetaData} to the database using a JDBC batch of {@code
+ * INSERT ... ON CONFLICT DO UPDATE} statements. The meta data entity is not defined by the DSL so
+ * this is the hand written equivalent of the generated claim writers.
+ */
+class ClaimMessageMetaDataBulkWriter implements BulkEntityWriter<RdaClaimMessageMetaData> {
+  /** Inserts or updates a single meta data row. */
+  private static final String UPSERT_SQL =
+      "INSERT INTO rda.claim_message_meta_data (claim_type, sequence_number, claim_id, mbi_id,"
+          + " claim_state, transaction_date, claim_location, last_updated, phase, phase_seq_num,"
+          + " extract_date, transmission_timestamp)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?::json, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (claim_type, sequence_number) DO UPDATE SET"
+          + " claim_id = EXCLUDED.claim_id, mbi_id = EXCLUDED.mbi_id,"
+          + " claim_state = EXCLUDED.claim_state, transaction_date = EXCLUDED.transaction_date,"
+          + " claim_location = EXCLUDED.claim_location, last_updated = EXCLUDED.last_updated,"
+          + " phase = EXCLUDED.phase, phase_seq_num = EXCLUDED.phase_seq_num,"
+          + " extract_date = EXCLUDED.extract_date,"
+          + " transmission_timestamp = EXCLUDED.transmission_timestamp";
+
+  /** Converts the locations into the same JSON that JPA would write. */
+  private final StringListConverter locationsConverter = new StringListConverter();
+
+  @Override
+  public int writeEntities(Connection connection, Collection<RdaClaimMessageMetaData> entities)
+      throws SQLException {
+    if (entities.isEmpty()) {
+      return 0;
+    }
+    try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+      for (RdaClaimMessageMetaData entity : entities) {
+        JdbcParameters.set(statement, 1, entity.getClaimType());
+        JdbcParameters.set(statement, 2, entity.getSequenceNumber());
+        JdbcParameters.set(statement, 3, entity.getClaimId());
+        JdbcParameters.set(
+            statement, 4, entity.getMbiRecord() == null ? null : entity.getMbiRecord().getMbiId());
+        JdbcParameters.set(statement, 5, entity.getClaimState());
+        JdbcParameters.set(statement, 6, entity.getTransactionDate());
+        JdbcParameters.set(
+            statement, 7, locationsConverter.convertToDatabaseColumn(entity.getLocations()));
+        JdbcParameters.set(statement, 8, entity.getLastUpdated());
+        JdbcParameters.set(statement, 9, entity.getPhase());
+        JdbcParameters.set(statement, 10, entity.getPhaseSeqNum());
+        JdbcParameters.set(statement, 11, entity.getExtractDate());
+        JdbcParameters.set(statement, 12, entity.getTransmissionTimestamp());
+        statement.addBatch();
+      }
+      statement.executeBatch();
+    }
+    return entities.size();
+  }
+}
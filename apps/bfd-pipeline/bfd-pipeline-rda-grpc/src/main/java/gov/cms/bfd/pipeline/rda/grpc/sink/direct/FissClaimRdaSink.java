@@ -6,6 +6,8 @@ import gov.cms.bfd.model.rda.RdaApiProgress;
 import gov.cms.bfd.model.rda.RdaClaimMessageMetaData;
 import gov.cms.bfd.model.rda.StringList;
 import gov.cms.bfd.model.rda.entities.RdaFissClaim;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
 import gov.cms.bfd.pipeline.rda.grpc.RdaChange;
 import gov.cms.bfd.pipeline.rda.grpc.source.FissClaimTransformer;
 import gov.cms.bfd.pipeline.sharedutils.PipelineApplicationState;
@@ -30,8 +32,12 @@ public class FissClaimRdaSink extends AbstractClaimRdaSink<FissClaimChange, RdaF
   /** The claim transformer. */
   private final FissClaimTransformer transformer;
 
+  /** Computes the SAMHSA flag stored on each claim. */
+  private final SamhsaClaimClassifier samhsaClassifier =
+      new SamhsaClaimClassifier(SamhsaCodeSet.getInstance());
+
   /**
-   * Instantiates a new Fiss claim rda sink.
+   * Instantiates a new Fiss claim rda sink that writes claims using {@code EntityManager.merge()}.
    *
    * @param appState the app state
    * @param transformer the transformer
@@ -43,7 +49,30 @@ public class FissClaimRdaSink extends AbstractClaimRdaSink<FissClaimChange, RdaF
       FissClaimTransformer transformer,
       boolean autoUpdateLastSeq,
       int errorLimit) {
-    super(appState, RdaApiProgress.ClaimType.FISS, autoUpdateLastSeq, errorLimit);
+    this(appState, transformer, autoUpdateLastSeq, errorLimit, false);
+  }
+
+  /**
+   * Instantiates a new Fiss claim rda sink.
+   *
+   * @param appState the app state
+   * @param transformer the transformer
+   * @param autoUpdateLastSeq whether to automatically update the sequence number
+   * @param errorLimit the error limit
+   * @param bulkWrites whether to write claims using the generated {@link FissClaimBulkWriter}
+   */
+  public FissClaimRdaSink(
+      PipelineApplicationState appState,
+      FissClaimTransformer transformer,
+      boolean autoUpdateLastSeq,
+      int errorLimit,
+      boolean bulkWrites) {
+    super(
+        appState,
+        RdaApiProgress.ClaimType.FISS,
+        autoUpdateLastSeq,
+        errorLimit,
+        bulkWrites ? new FissClaimBulkWriter() : null);
     this.transformer =
         transformer.withMbiCache(transformer.getMbiCache().withDatabaseLookup(transactionManager));
   }
@@ -87,6 +116,7 @@ public class FissClaimRdaSink extends AbstractClaimRdaSink<FissClaimChange, RdaF
   RdaChange<RdaFissClaim> transformMessageImpl(String apiVersion, FissClaimChange message) {
     var change = transformer.transformClaim(message);
     change.getClaim().setApiSource(apiVersion);
+    samhsaClassifier.updateSamhsaFlag(change.getClaim());
     return change;
   }
 
@@ -7,6 +7,8 @@ import gov.cms.bfd.model.rda.RdaClaimMessageMetaData;
 import gov.cms.bfd.model.rda.StringList;
 import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
 import gov.cms.bfd.model.rda.entities.RdaMcsLocation;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
 import gov.cms.bfd.pipeline.rda.grpc.RdaChange;
 import gov.cms.bfd.pipeline.rda.grpc.source.McsClaimTransformer;
 import gov.cms.bfd.pipeline.sharedutils.PipelineApplicationState;
@@ -23,8 +25,12 @@ public class McsClaimRdaSink extends AbstractClaimRdaSink<McsClaimChange, RdaMcs
   /** The claim transformer. */
   private final McsClaimTransformer transformer;
 
+  /** Computes the SAMHSA flag stored on each claim. */
+  private final SamhsaClaimClassifier samhsaClassifier =
+      new SamhsaClaimClassifier(SamhsaCodeSet.getInstance());
+
   /**
-   * Instantiates a new Mcs claim rda sink.
+   * Instantiates a new Mcs claim rda sink that writes claims using {@code EntityManager.merge()}.
    *
    * @param appState the app state
    * @param transformer the transformer
@@ -36,7 +42,30 @@ public class McsClaimRdaSink extends AbstractClaimRdaSink<McsClaimChange, RdaMcs
       McsClaimTransformer transformer,
       boolean autoUpdateLastSeq,
       int errorLimit) {
-    super(appState, RdaApiProgress.ClaimType.MCS, autoUpdateLastSeq, errorLimit);
+    this(appState, transformer, autoUpdateLastSeq, errorLimit, false);
+  }
+
+  /**
+   * Instantiates a new Mcs claim rda sink.
+   *
+   * @param appState the app state
+   * @param transformer the transformer
+   * @param autoUpdateLastSeq whether to automatically update the sequence number
+   * @param errorLimit the error limit
+   * @param bulkWrites whether to write claims using the generated {@link McsClaimBulkWriter}
+   */
+  public McsClaimRdaSink(
+      PipelineApplicationState appState,
+      McsClaimTransformer transformer,
+      boolean autoUpdateLastSeq,
+      int errorLimit,
+      boolean bulkWrites) {
+    super(
+        appState,
+        RdaApiProgress.ClaimType.MCS,
+        autoUpdateLastSeq,
+        errorLimit,
+        bulkWrites ? new McsClaimBulkWriter() : null);
     this.transformer =
         transformer.withMbiCache(transformer.getMbiCache().withDatabaseLookup(transactionManager));
   }
@@ -69,6 +98,7 @@ public class McsClaimRdaSink extends AbstractClaimRdaSink<McsClaimChange, RdaMcs
   RdaChange<RdaMcsClaim> transformMessageImpl(String apiVersion, McsClaimChange message) {
     var change = transformer.transformClaim(message);
     change.getClaim().setApiSource(apiVersion);
+    samhsaClassifier.updateSamhsaFlag(change.getClaim());
     return change;
   }
 
@@ -1,11 +1,13 @@
 package gov.cms.bfd.pipeline.rda.grpc.source;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import gov.cms.bfd.model.rda.MessageError;
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
 import java.time.Clock;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +16,12 @@ import lombok.RequiredArgsConstructor;
 @VisibleForTesting
 @RequiredArgsConstructor
 class DLQDao implements AutoCloseable {
+  /**
+   * Maximum number of sequence numbers passed in a single update statement by {@link
+   * #updateState(Collection, MessageError.ClaimType, MessageError.Status)}. Keeps the number of
+   * bind parameters well below the limit imposed by the JDBC driver.
+   */
+  @VisibleForTesting static final int MAX_SEQUENCE_NUMBERS_PER_UPDATE = 1_000;
 
   /** Used for time calculation. */
   private final Clock clock;
@@ -71,6 +79,42 @@ class DLQDao implements AutoCloseable {
         });
   }
 
+  /**
+   * Updates the message error status for all of the entries with the specified sequence numbers and
+   * type using a single transaction. Sequence numbers with no matching entry are ignored.
+   *
+   * @param sequenceNumbers the sequence numbers to check for
+   * @param type the type to check for
+   * @param status the status to update with
+   * @return the number of entities affected by the update
+   */
+  public long updateState(
+      Collection<Long> sequenceNumbers, MessageError.ClaimType type, MessageError.Status status) {
+    if (sequenceNumbers.isEmpty()) {
+      return 0L;
+    }
+    return transactionManager.executeFunction(
+        entityManager -> {
+          long entitiesAffected = 0L;
+          for (List<Long> chunk :
+              Iterables.partition(sequenceNumbers, MAX_SEQUENCE_NUMBERS_PER_UPDATE)) {
+            entitiesAffected +=
+                entityManager
+                    .createQuery(
+                        "update MessageError error"
+                            + " set error.status = :status, error.updatedDate = :updatedDate"
+                            + " where error.claimType = :claimType"
+                            + " and error.sequenceNumber in (:sequenceNumbers)")
+                    .setParameter("status", status)
+                    .setParameter("updatedDate", clock.instant())
+                    .setParameter("claimType", type)
+                    .setParameter("sequenceNumbers", chunk)
+                    .executeUpdate();
+          }
+          return entitiesAffected;
+        });
+  }
+
   /**
    * Deletes any unprocessed message errors with the given type that have not been updated within
    * the given number of days. Unprocessed means having a status other than {@link
@@ -13,6 +13,9 @@ import io.grpc.ManagedChannel;
 import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -51,6 +54,12 @@ public class DLQGrpcRdaSource<TMessage, TClaim> extends AbstractGrpcRdaSource<TM
   /** Number of days after which processed messages should expire and be deleted from the DLQ. */
   private final Optional<Integer> messageErrorExpirationDays;
 
+  /**
+   * Max gap between sequence numbers that are replayed using a single stream. Empty if each
+   * sequence number should be replayed using its own stream.
+   */
+  private final Optional<Integer> replayMaxGap;
+
   /**
    * The primary constructor for this class. Constructs a GrpcRdaSource and opens a channel to the
    * gRPC service.
@@ -81,6 +90,7 @@ public class DLQGrpcRdaSource<TMessage, TClaim> extends AbstractGrpcRdaSource<TM
         claimType,
         rdaVersion,
         config.getMessageErrorExpirationDays(),
+        config.getDlqReplayMaxGap(),
         new DLQDao(Clock.systemUTC(), Preconditions.checkNotNull(transactionManager)));
   }
 
@@ -98,6 +108,7 @@ public class DLQGrpcRdaSource<TMessage, TClaim> extends AbstractGrpcRdaSource<TM
    * @param claimType string representation of the claim type
    * @param rdaVersion The required {@link RdaVersion} in order to ingest data
    * @param messageErrorExpirationDays value for messageErrorExpirationDays
+   * @param replayMaxGap value for replayMaxGap
    * @param dao {@link DLQDao} used for database transactions
    */
   @VisibleForTesting
@@ -111,6 +122,7 @@ public class DLQGrpcRdaSource<TMessage, TClaim> extends AbstractGrpcRdaSource<TM
       String claimType,
       RdaVersion rdaVersion,
       Optional<Integer> messageErrorExpirationDays,
+      Optional<Integer> replayMaxGap,
       DLQDao dao) {
     super(
         Preconditions.checkNotNull(channel),
@@ -122,6 +134,7 @@ public class DLQGrpcRdaSource<TMessage, TClaim> extends AbstractGrpcRdaSource<TM
     this.dao = dao;
     this.sequencePredicate = sequencePredicate;
     this.messageErrorExpirationDays = messageErrorExpirationDays;
+    this.replayMaxGap = replayMaxGap;
   }
 
   /**
@@ -170,8 +183,12 @@ public class DLQGrpcRdaSource<TMessage, TClaim> extends AbstractGrpcRdaSource<TM
       log.info(
           "Found {} {} claims in DLQ, attempting to reprocess", sequenceNumbers.size(), claimType);
 
-      totalProcessed =
-          tryRetrieveAndProcessObjects(dlqProcessingLogic(sink, type, sequenceNumbers));
+      final Processor processor =
+          replayMaxGap.isPresent()
+              ? rangedDlqProcessingLogic(
+                  sink, type, createReplayRanges(sequenceNumbers, replayMaxGap.get()), maxPerBatch)
+              : dlqProcessingLogic(sink, type, sequenceNumbers);
+      totalProcessed = tryRetrieveAndProcessObjects(processor);
     }
 
     return totalProcessed;
@@ -291,19 +308,213 @@ public class DLQGrpcRdaSource<TMessage, TClaim> extends AbstractGrpcRdaSource<TM
         }
       }
 
-      try {
-        sink.shutdown(MAX_SINK_SHUTDOWN_WAIT);
-      } catch (Exception ex) {
-        if (processResult.getException() != null) {
-          processResult.getException().addSuppressed(ex);
-        } else {
-          processResult.setException(ex);
+      shutdownSink(sink, processResult);
+
+      return processResult;
+    };
+  }
+
+  /**
+   * Sorts the sequence numbers and groups them into ranges that can each be replayed using a single
+   * stream. A sequence number is added to the current range if it is no more than {@code maxGap}
+   * greater than the previous one, otherwise it starts a new range.
+   *
+   * @param sequenceNumbers the sequence numbers to group
+   * @param maxGap max difference between adjacent sequence numbers in the same range
+   * @return the ranges, each a sorted non-empty list of sequence numbers
+   */
+  @VisibleForTesting
+  static List<List<Long>> createReplayRanges(Collection<Long> sequenceNumbers, int maxGap) {
+    final List<List<Long>> ranges = new ArrayList<>();
+    List<Long> range = null;
+    for (long sequenceNumber : sequenceNumbers.stream().sorted().distinct().toList()) {
+      if (range == null || sequenceNumber - range.get(range.size() - 1) > maxGap) {
+        range = new ArrayList<>();
+        ranges.add(range);
+      }
+      range.add(sequenceNumber);
+    }
+    return ranges;
+  }
+
+  /**
+   * Helper method, called internally, to return the ranged DLQ processing logic to pass to {@link
+   * AbstractGrpcRdaSource#tryRetrieveAndProcessObjects(Processor)}. Opens one stream per range
+   * starting at the first sequence number in the range and reads it until a message at or beyond
+   * the last sequence number is received. Messages with a sequence number in the range are sent to
+   * the sink in batches and all others are skipped. Wanted sequence numbers that the stream passed
+   * over without returning are obsolete. The states of all the messages in a range are updated with
+   * one {@link DLQDao} call per status.
+   *
+   * @param sink The sink to use to write claims, etc.
+   * @param type The {@link MessageError.ClaimType} associated with the claims to process.
+   * @param ranges The sorted ranges of sequence numbers to attempt to reprocess
+   * @param maxPerBatch maximum number of objects to collect into a batch before calling the sink
+   * @return The DLQ processing logic {@link Processor}.
+   */
+  @VisibleForTesting
+  Processor rangedDlqProcessingLogic(
+      RdaSink<TMessage, TClaim> sink,
+      MessageError.ClaimType type,
+      List<List<Long>> ranges,
+      int maxPerBatch) {
+    return () -> {
+      ProcessResult processResult = new ProcessResult();
+      final String apiVersion = caller.callVersionService(channel, callOptionsFactory.get());
+      checkApiVersion(apiVersion);
+
+      for (List<Long> range : ranges) {
+        if (processResult.isInterrupted()) {
+          break;
+        }
+        final long firstSequenceNumber = range.get(0);
+        final long lastSequenceNumber = range.get(range.size() - 1);
+        log.info(
+            "calling API for {} {} claims in sequence number range {} to {}",
+            range.size(),
+            claimType,
+            firstSequenceNumber,
+            lastSequenceNumber);
+
+        final Set<Long> wanted = new HashSet<>(range);
+        final Set<Long> received = new HashSet<>();
+        final List<Long> resolved = new ArrayList<>();
+        long highestReceived = firstSequenceNumber - 1;
+
+        // The "since" parameter of the RDA API is non-inclusive, so we have to subtract 1.
+        try (GrpcResponseStream<TMessage> responseStream =
+            caller.callService(channel, callOptionsFactory.get(), firstSequenceNumber - 1)) {
+          final Map<Object, TMessage> batch = new LinkedHashMap<>();
+          final List<Long> batchSequenceNumbers = new ArrayList<>();
+
+          try {
+            while (highestReceived < lastSequenceNumber && responseStream.hasNext()) {
+              setUptimeToReceiving();
+              final TMessage result = responseStream.next();
+              metrics.getObjectsReceived().increment();
+
+              final long sequenceNumber = sink.getSequenceNumberForObject(result);
+              highestReceived = Math.max(highestReceived, sequenceNumber);
+              if (wanted.contains(sequenceNumber)) {
+                received.add(sequenceNumber);
+                batch.put(sink.getClaimIdForMessage(result), result);
+                batchSequenceNumbers.add(sequenceNumber);
+                if (batch.size() >= maxPerBatch) {
+                  submitRangeBatch(apiVersion, sink, batch, batchSequenceNumbers, resolved)
+                      .ifPresent(processResult::addCount);
+                }
+              }
+            }
+            submitRangeBatch(apiVersion, sink, batch, batchSequenceNumbers, resolved)
+                .ifPresent(processResult::addCount);
+            responseStream.cancelStream("No further messages need to be ingested.");
+          } catch (GrpcResponseStream.StreamInterruptedException ex) {
+            // If our thread is interrupted we cancel the stream so the server knows we're done
+            // and then shut down normally.
+            processResult.setInterrupted(true);
+            responseStream.cancelStream("shutting down due to InterruptedException");
+          } catch (Exception e) {
+            responseStream.cancelStream("shutting down due to Exception");
+            // Claims that we failed to process stay in the DLQ, nothing to do.
+            log.error(
+                "Failed to process {} messages in sequence range {} to {}",
+                claimType,
+                firstSequenceNumber,
+                lastSequenceNumber,
+                e);
+          }
         }
+
+        // Anything the stream moved past without returning will never be returned.
+        final long passedOver = highestReceived;
+        final List<Long> obsolete =
+            range.stream()
+                .filter(sequenceNumber -> sequenceNumber < passedOver)
+                .filter(sequenceNumber -> !received.contains(sequenceNumber))
+                .toList();
+        updateRangeStates(type, resolved, MessageError.Status.RESOLVED);
+        updateRangeStates(type, obsolete, MessageError.Status.OBSOLETE);
       }
 
-      processResult.addCount(sink.getProcessedCount());
+      shutdownSink(sink, processResult);
 
       return processResult;
     };
   }
+
+  /**
+   * Sends a non-empty batch of messages read from a replay range to the sink and then clears it.
+   * The sequence numbers of the batch are added to {@code resolved} if any of them were processed.
+   *
+   * @param apiVersion the RDA API version of the messages
+   * @param sink The sink to use to write claims, etc.
+   * @param batch the messages to send, keyed by claim id
+   * @param batchSequenceNumbers the sequence numbers of the messages in the batch
+   * @param resolved receives the sequence numbers that were processed
+   * @return the number of messages processed, empty if the batch was empty
+   * @throws ProcessingException if the sink fails
+   */
+  private Optional<Integer> submitRangeBatch(
+      String apiVersion,
+      RdaSink<TMessage, TClaim> sink,
+      Map<Object, TMessage> batch,
+      List<Long> batchSequenceNumbers,
+      List<Long> resolved)
+      throws ProcessingException {
+    if (batch.isEmpty()) {
+      return Optional.empty();
+    }
+    final int processed = submitBatchToSink(apiVersion, sink, batch);
+    if (processed > 0) {
+      resolved.addAll(batchSequenceNumbers);
+    }
+    batch.clear();
+    batchSequenceNumbers.clear();
+    return Optional.of(processed);
+  }
+
+  /**
+   * Updates the state of the {@link MessageError}s for a replay range with one {@link DLQDao} call.
+   * Failures are logged since the records simply remain in the DLQ until the next run.
+   *
+   * @param type The {@link MessageError.ClaimType} associated with the claims
+   * @param sequenceNumbers the sequence numbers to update
+   * @param status the new status
+   */
+  private void updateRangeStates(
+      MessageError.ClaimType type, List<Long> sequenceNumbers, MessageError.Status status) {
+    if (sequenceNumbers.isEmpty()) {
+      return;
+    }
+    try {
+      final long updated = dao.updateState(sequenceNumbers, type, status);
+      log.info(
+          "marked {} of {} {} claims as {}", updated, sequenceNumbers.size(), claimType, status);
+    } catch (Exception ex) {
+      log.error("failed to mark {} {} claims as {}", sequenceNumbers.size(), claimType, status, ex);
+    }
+  }
+
+  /**
+   * Shuts down the sink once all DLQ messages have been submitted to it and adds its processed
+   * count to the result. Any exception is recorded in the result.
+   *
+   * @param sink the sink to shut down
+   * @param processResult the result to update
+   * @throws ProcessingException if the sink's processed count cannot be read
+   */
+  private void shutdownSink(RdaSink<TMessage, TClaim> sink, ProcessResult processResult)
+      throws ProcessingException {
+    try {
+      sink.shutdown(MAX_SINK_SHUTDOWN_WAIT);
+    } catch (Exception ex) {
+      if (processResult.getException() != null) {
+        processResult.getException().addSuppressed(ex);
+      } else {
+        processResult.setException(ex);
+      }
+    }
+
+    processResult.addCount(sink.getProcessedCount());
+  }
 }
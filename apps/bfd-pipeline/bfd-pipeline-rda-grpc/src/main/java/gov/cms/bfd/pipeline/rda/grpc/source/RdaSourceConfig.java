@@ -58,6 +58,13 @@ public class RdaSourceConfig {
   /** Maximum number of days to retain processed {@link MessageError} records in the database. */
   @Nullable private final Integer messageErrorExpirationDays;
 
+  /**
+   * When set, {@link MessageError} records are replayed by streaming ranges of sequence numbers
+   * rather than one sequence number at a time. Sequence numbers no more than this far apart are
+   * read using the same stream.
+   */
+  @Nullable private final Integer dlqReplayMaxGap;
+
   /**
    * Specifies which type of server we want to connect to. {@code Remote} is the normal
    * configuration. {@code InProcess} is used when populating an environment with synthetic data
@@ -84,6 +91,7 @@ public class RdaSourceConfig {
    * @param minIdleTimeBeforeConnectionDrop the min idle time before connection drop
    * @param authenticationToken the authentication token
    * @param messageErrorExpirationDays days until message errors expire
+   * @param dlqReplayMaxGap max gap between message error sequence numbers replayed with one stream
    */
   @Builder
   private RdaSourceConfig(
@@ -94,7 +102,8 @@ public class RdaSourceConfig {
       Duration maxIdle,
       @Nullable Duration minIdleTimeBeforeConnectionDrop,
       @Nullable String authenticationToken,
-      @Nullable Integer messageErrorExpirationDays) {
+      @Nullable Integer messageErrorExpirationDays,
+      @Nullable Integer dlqReplayMaxGap) {
     this.serverType = Preconditions.checkNotNull(serverType, "serverType is required");
     this.host = host;
     this.port = port;
@@ -122,6 +131,11 @@ public class RdaSourceConfig {
       this.expirationDate = null;
     }
     this.messageErrorExpirationDays = messageErrorExpirationDays;
+    Preconditions.checkArgument(
+        dlqReplayMaxGap == null || dlqReplayMaxGap >= 0,
+        "dlqReplayMaxGap is negative (%s)",
+        dlqReplayMaxGap);
+    this.dlqReplayMaxGap = dlqReplayMaxGap;
   }
 
   /**
@@ -199,6 +213,16 @@ public class RdaSourceConfig {
     return Optional.ofNullable(messageErrorExpirationDays);
   }
 
+  /**
+   * The maximum gap between sequence numbers of {@link MessageError} records that are replayed
+   * using a single stream. Empty if each record should be replayed using its own stream.
+   *
+   * @return max gap between sequence numbers in a replay range
+   */
+  public Optional<Integer> getDlqReplayMaxGap() {
+    return Optional.ofNullable(dlqReplayMaxGap);
+  }
+
   /**
    * Creates a remove channel builder.
    *
@@ -0,0 +1,149 @@
+package gov.cms.bfd.pipeline.rda.grpc;
+
+import gov.cms.bfd.BenchmarkUtils;
+import gov.cms.bfd.pipeline.rda.grpc.server.RandomClaimGeneratorConfig;
+import gov.cms.bfd.pipeline.rda.grpc.server.RdaMessageSourceFactory;
+import gov.cms.bfd.pipeline.rda.grpc.server.RdaServer;
+import gov.cms.bfd.pipeline.rda.grpc.server.RdaService;
+import gov.cms.bfd.pipeline.rda.grpc.source.RdaSourceConfig;
+import gov.cms.bfd.pipeline.rda.grpc.source.RdaVersion;
+import gov.cms.bfd.pipeline.sharedutils.IdHasher;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Compares the throughput of the FISS claim load job when claims are written using {@code
+ * EntityManager.merge} (the default) with the throughput when they are written using the JDBC bulk
+ * writers generated from the DSL. Each run streams the same random claims from an in-process {@link
+ * RdaServer} using {@link gov.cms.bfd.pipeline.rda.grpc.server.RandomFissClaimSource} into an empty
+ * database.
+ *
+ * <p>It loads into the database used by the integration tests, set with the {@code its.db.*} system
+ * properties. From {@code bfd-pipeline-rda-grpc}:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.pipeline.rda.grpc.RdaBulkWriteBenchmark \
+ *   -Dexec.args="50000 100 4 3"
+ * </pre>
+ *
+ * <p>The arguments are the number of claims to load, the batch size, the number of write threads
+ * and the number of measured loads of each mode. For each mode it reports the median elapsed time
+ * and the number of claims written per second at that median.
+ */
+public final class RdaBulkWriteBenchmark {
+  /** Seed for the random claims so that both modes load identical claims. */
+  private static final long RANDOM_SEED = 42L;
+
+  /** The number of unreported loads of each mode run first to warm up the JIT. */
+  private static final int WARMUP_ITERATIONS = 1;
+
+  /** Prevents instantiation of this class. */
+  private RdaBulkWriteBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of claims, the batch size, the number of write threads and the number of
+   *     measured loads
+   * @throws Exception if the server or the job fails
+   */
+  public static void main(String[] args) throws Exception {
+    final int claimCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+    final int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+    final int writeThreads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+    final int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+    for (boolean bulkWrites : new boolean[] {false, true}) {
+      final BenchmarkUtils.Samples samples =
+          BenchmarkUtils.measure(
+              WARMUP_ITERATIONS,
+              iterations,
+              () -> run(claimCount, batchSize, writeThreads, bulkWrites));
+      final long elapsedMillis = samples.median(0);
+      final long written = samples.median(1);
+      System.out.printf(
+          "%-5s batch=%d threads=%d claims=%d: %dms %.0f claims/s%n",
+          bulkWrites ? "bulk" : "merge",
+          batchSize,
+          writeThreads,
+          written,
+          elapsedMillis,
+          written * 1000.0 / Math.max(1, elapsedMillis));
+    }
+  }
+
+  /**
+   * Loads the random claims into an empty database using one write mode.
+   *
+   * @param claimCount the number of claims to load
+   * @param batchSize the number of claims per database transaction
+   * @param writeThreads the number of write threads
+   * @param bulkWrites true to use the bulk writers, false to use merge
+   * @return the elapsed milliseconds and the number of claims written
+   * @throws Exception if the server or the job fails
+   */
+  private static long[] run(int claimCount, int batchSize, int writeThreads, boolean bulkWrites)
+      throws Exception {
+    final long[] result = new long[2];
+    RdaPipelineTestUtils.runTestWithTemporaryDb(
+        Clock.systemUTC(),
+        (appState, transactionManager) ->
+            RdaServer.InProcessConfig.builder()
+                .serviceConfig(
+                    RdaMessageSourceFactory.Config.builder()
+                        .randomClaimConfig(
+                            RandomClaimGeneratorConfig.builder()
+                                .seed(RANDOM_SEED)
+                                .maxToSend(claimCount)
+                                .build())
+                        .build())
+                .serverName(RdaServerJob.Config.DEFAULT_SERVER_NAME)
+                .build()
+                .runWithNoParam(
+                    () -> {
+                      final RdaLoadOptions options =
+                          createRdaLoadOptions(batchSize, writeThreads, bulkWrites);
+                      final var mbiCache = options.createComputedMbiCache(appState);
+                      final long start = System.nanoTime();
+                      options.createFissClaimsLoadJob(appState, mbiCache).call();
+                      result[0] = (System.nanoTime() - start) / 1_000_000;
+                      result[1] =
+                          transactionManager.executeFunction(
+                              entityManager ->
+                                  entityManager
+                                      .createQuery(
+                                          "select count(c) from RdaFissClaim c", Long.class)
+                                      .getSingleResult());
+                    }));
+    return result;
+  }
+
+  /**
+   * Creates the job options for loading from the in-process server.
+   *
+   * @param batchSize the number of claims per database transaction
+   * @param writeThreads the number of write threads
+   * @param bulkWrites true to use the bulk writers, false to use merge
+   * @return the options
+   */
+  private static RdaLoadOptions createRdaLoadOptions(
+      int batchSize, int writeThreads, boolean bulkWrites) {
+    return new RdaLoadOptions(
+        AbstractRdaLoadJob.Config.builder()
+            .runInterval(Duration.ofSeconds(1))
+            .batchSize(batchSize)
+            .writeThreads(writeThreads)
+            .bulkWrites(bulkWrites)
+            .rdaVersion(
+                RdaVersion.builder().versionString("^" + RdaService.RDA_PROTO_VERSION).build())
+            .build(),
+        RdaSourceConfig.builder()
+            .serverType(RdaSourceConfig.ServerType.InProcess)
+            .inProcessServerName(RdaServerJob.Config.DEFAULT_SERVER_NAME)
+            .maxIdle(Duration.ofSeconds(5))
+            .build(),
+        new RdaServerJob.Config(),
+        0,
+        new IdHasher.Config(100, "thisisjustatest"));
+  }
+}
@@ -11,14 +11,18 @@ import gov.cms.bfd.model.rda.Mbi;
 import gov.cms.bfd.model.rda.MessageError;
 import gov.cms.bfd.model.rda.RdaApiProgress;
 import gov.cms.bfd.model.rda.RdaClaimMessageMetaData;
+import gov.cms.bfd.model.rda.entities.RdaFissAuditTrail;
 import gov.cms.bfd.model.rda.entities.RdaFissClaim;
 import gov.cms.bfd.model.rda.entities.RdaFissDiagnosisCode;
 import gov.cms.bfd.model.rda.entities.RdaFissPayer;
 import gov.cms.bfd.model.rda.entities.RdaFissProcCode;
 import gov.cms.bfd.model.rda.entities.RdaFissRevenueLine;
+import gov.cms.bfd.model.rda.entities.RdaMcsAdjustment;
+import gov.cms.bfd.model.rda.entities.RdaMcsAudit;
 import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
 import gov.cms.bfd.model.rda.entities.RdaMcsDetail;
 import gov.cms.bfd.model.rda.entities.RdaMcsDiagnosisCode;
+import gov.cms.bfd.model.rda.entities.RdaMcsLocation;
 import gov.cms.bfd.pipeline.sharedutils.PipelineApplicationState;
 import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
 import gov.cms.bfd.sharedutils.database.DatabaseOptions;
@@ -46,9 +50,13 @@ public class RdaPipelineTestUtils {
           RdaFissPayer.class,
           RdaFissDiagnosisCode.class,
           RdaFissProcCode.class,
+          RdaFissAuditTrail.class,
           RdaFissClaim.class,
           RdaMcsDetail.class,
           RdaMcsDiagnosisCode.class,
+          RdaMcsAdjustment.class,
+          RdaMcsAudit.class,
+          RdaMcsLocation.class,
           RdaMcsClaim.class,
           RdaClaimMessageMetaData.class,
           RdaApiProgress.class,
@@ -287,6 +287,63 @@ public class ClaimWriterTest {
     verifyNoMoreInteractions(sink);
   }
 
+  /**
+   * Verifies that messages already transformed by the transform stage are buffered using their
+   * claims without being transformed again.
+   *
+   * @throws Exception passed through if thrown during test
+   */
+  @Test
+  void shouldUseClaimsFromTransformedMessages() throws Exception {
+    doReturn(2).when(sink).writeClaims(List.of(1L, 3L));
+
+    var seqNum = 100;
+    final var message1 = new ApiMessage<>("1", ++seqNum, ApiVersion, 1);
+    final var message2 = new ApiMessage<>("2", ++seqNum, ApiVersion, 2);
+    final var message3 = new ApiMessage<>("3", ++seqNum, ApiVersion, 3);
+    final var allMessages = List.of(message1, message2, message3);
+
+    // claim is buffered as is
+    var result = writer.processMessage(TransformedMessage.transformed(message1, 1L));
+    assertEquals(Optional.empty(), result.blockOptional());
+    assertTrue(writer.containsMessage(message1));
+
+    // message without a claim is tracked but produces nothing to write
+    result = writer.processMessage(TransformedMessage.<Integer, Long>transformed(message2, null));
+    assertEquals(Optional.empty(), result.blockOptional());
+    assertTrue(writer.containsMessage(message2));
+
+    // claim is buffered as is
+    result = writer.processMessage(TransformedMessage.transformed(message3, 3L));
+    assertEquals(Optional.empty(), result.blockOptional());
+
+    // flush writes the two claims
+    result = writer.processMessage(ApiMessage.createFlushMessage());
+    assertEquals(Optional.of(new BatchResult<>(allMessages, 2)), result.blockOptional());
+    assertTrue(writer.isEmpty());
+
+    verify(sink).writeClaims(List.of(1L, 3L));
+    verifyNoMoreInteractions(sink);
+  }
+
+  /**
+   * Verifies that an error thrown by the transform stage is passed through in the result.
+   *
+   * @throws Exception passed through if thrown during test
+   */
+  @Test
+  void shouldPassThroughTransformStageErrors() throws Exception {
+    final var transformError = new IOException("oops");
+    final var message = new ApiMessage<>("1", 101, ApiVersion, 1);
+
+    var result =
+        writer.processMessage(TransformedMessage.<Integer, Long>failed(message, transformError));
+    assertEquals(
+        Optional.of(new BatchResult<>(List.of(message), transformError)), result.blockOptional());
+    assertTrue(writer.isEmpty());
+    verifyNoMoreInteractions(sink);
+  }
+
   /**
    * Verifies that close closes the sink.
    *
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gov.cms.bfd.pipeline.rda.grpc.ProcessingException;
 import gov.cms.model.dsl.codegen.library.DataTransformer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,6 +43,36 @@ public class ConcurrentRdaSinkIT {
     assertEquals(messages.size(), database.getLastSequenceNumber());
   }
 
+  /**
+   * Tests that the writer successfully writes all the queued claims to the database when messages
+   * are transformed by a separate pool of transform threads, and that every stage's queue has been
+   * drained once the sink is closed.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void testSuccessWithTransformThreads() throws Exception {
+    final TestDatabase database = new TestDatabase();
+    final List<TestDatabase.Message> messages = createTestMessages();
+    final ConcurrentRdaSink.Metrics metrics;
+    try (ConcurrentRdaSink<TestDatabase.Message, TestDatabase.Claim> pool =
+        new ConcurrentRdaSink<>(5, 3, 11, new SimpleMeterRegistry(), database::createSink)) {
+      metrics = pool.getMetrics();
+      for (List<TestDatabase.Message> messageList : createBatchesOfMessages(messages, 11)) {
+        pool.writeMessages(VERSION, messageList);
+      }
+    }
+    assertTrue(database.allClosed(), "all sinks closed");
+    assertEquals(expectedClaims(messages), database.getClaims());
+    assertEquals(messages.size(), database.getLastSequenceNumber());
+    assertEquals(0, metrics.getReceiveQueueSize().get());
+    assertEquals(0, metrics.getTransformQueueSize().get());
+    assertEquals(0, metrics.getWriteQueueSize().get());
+    assertEquals(messages.size(), metrics.getReceiveBlockedTime().count());
+    assertEquals(messages.size(), metrics.getTransformTime().count());
+    assertTrue(metrics.getWriteTime().count() > 0, "batches were timed");
+  }
+
   /**
    * Tests that when there is an exception when transforming one of the messages, we get a {@link
    * ProcessingException} and the sinks are closed correctly.
@@ -70,6 +101,34 @@ public class ConcurrentRdaSinkIT {
     assertTrue(database.allClosed(), "all sinks closed");
   }
 
+  /**
+   * Tests that when there is an exception when transforming one of the messages using the transform
+   * threads, we get a {@link ProcessingException} and the sinks are closed correctly.
+   */
+  @Test
+  public void testTransformFailureWithTransformThreads() {
+    final TestDatabase database = new TestDatabase();
+    final List<TestDatabase.Message> messages = createTestMessages();
+    // trigger a transform error on last message
+    messages.set(messages.size() - 1, messages.get(messages.size() - 1).withFailOnTransform(true));
+
+    Exception error = null;
+    try (ConcurrentRdaSink<TestDatabase.Message, TestDatabase.Claim> pool =
+        new ConcurrentRdaSink<>(5, 3, 9, new SimpleMeterRegistry(), database::createSink)) {
+      for (List<TestDatabase.Message> messageList : createBatchesOfMessages(messages, 9)) {
+        pool.writeMessages(VERSION, messageList);
+      }
+    } catch (Exception ex) {
+      error = ex;
+    }
+    assertTrue(error instanceof ProcessingException, "caught the exception");
+    assertTrue(
+        ((ProcessingException) error).getOriginalCause()
+            instanceof DataTransformer.TransformationException,
+        "exception is a transformation error");
+    assertTrue(database.allClosed(), "all sinks closed");
+  }
+
   /**
    * Tests that when there is a failure writing one of the messages, we get a {@link
    * ProcessingException} and the sinks are closed correctly.
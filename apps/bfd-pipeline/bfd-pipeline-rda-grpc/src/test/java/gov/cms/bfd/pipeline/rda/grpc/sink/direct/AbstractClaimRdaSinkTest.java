@@ -371,7 +371,7 @@ public class AbstractClaimRdaSinkTest {
         RdaApiProgress.ClaimType claimType,
         boolean autoUpdateLastSeq,
         int errorLimit) {
-      super(appState, claimType, autoUpdateLastSeq, errorLimit);
+      super(appState, claimType, autoUpdateLastSeq, errorLimit, null);
     }
 
     /** {@inheritDoc} */
@@ -33,6 +33,8 @@ import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /** Tests the {@link FissClaimRdaSink} with integrated dependencies. */
 public class FissClaimRdaSinkIT {
@@ -45,10 +47,14 @@ public class FissClaimRdaSinkIT {
    * Checks if writing valid FISS claim messages results in the entities being persisted to the
    * database with the expected field values.
    *
+   * <p>The same checks are run with both the JPA merge and the JDBC bulk writes.
+   *
+   * @param bulkWrites true if the sink should use bulk writes
    * @throws Exception If any unexpected exceptions are thrown.
    */
-  @Test
-  public void fissClaim() throws Exception {
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void fissClaim(boolean bulkWrites) throws Exception {
     RdaPipelineTestUtils.runTestWithTemporaryDb(
         Clock.systemUTC(),
         (appState, transactionManager) -> {
@@ -126,7 +132,8 @@ public class FissClaimRdaSinkIT {
           final IdHasher defaultIdHasher = new IdHasher(new IdHasher.Config(1, "notarealpepper"));
           final FissClaimTransformer transformer =
               new FissClaimTransformer(clock, MbiCache.computedCache(defaultIdHasher.getConfig()));
-          final FissClaimRdaSink sink = new FissClaimRdaSink(appState, transformer, true, 0);
+          final FissClaimRdaSink sink =
+              new FissClaimRdaSink(appState, transformer, true, 0, bulkWrites);
           final String expectedMbiHash = defaultIdHasher.computeIdentifierHash(claim.getMbi());
 
           assertEquals(Optional.empty(), sink.readMaxExistingSequenceNumber());
@@ -46,6 +46,7 @@ import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
 import javax.persistence.TypedQuery;
 import org.hamcrest.CoreMatchers;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -126,6 +127,7 @@ public class FissClaimRdaSinkTest {
             "FissClaimRdaSink.transform.failures",
             "FissClaimRdaSink.transform.successes",
             "FissClaimRdaSink.writes.batchSize",
+            "FissClaimRdaSink.writes.bulk",
             "FissClaimRdaSink.writes.elapsed",
             "FissClaimRdaSink.writes.merged",
             "FissClaimRdaSink.writes.persisted",
@@ -225,6 +227,44 @@ public class FissClaimRdaSinkTest {
     assertTimerCount(1, "database timer count", metrics.getDbUpdateTime());
   }
 
+  /** Tests the outcome of a successful batch write when bulk writes are enabled. */
+  @Test
+  public void bulkWriteSuccessful() throws Exception {
+    final Session session = mock(Session.class);
+    doReturn(session).when(entityManager).unwrap(Session.class);
+    doReturn(7).when(session).doReturningWork(any());
+    sink =
+        new FissClaimRdaSink(
+            new PipelineApplicationState(
+                meters, appMetrics, dataSource, entityManagerFactory, clock),
+            transformer,
+            true,
+            0,
+            true);
+    sink.getMetrics().setLatestSequenceNumber(0);
+    final List<RdaChange<RdaFissClaim>> batch =
+        ImmutableList.of(createClaim("1"), createClaim("2"), createClaim("3"));
+
+    final int count = sink.writeMessages(VERSION, messagesForBatch(batch));
+    assertEquals(3, count);
+
+    // all claims are written with a single unit of JDBC work instead of merges
+    verify(session).doReturningWork(any());
+    for (RdaChange<RdaFissClaim> change : batch) {
+      verify(entityManager, times(0)).merge(change.getClaim());
+    }
+    verify(transaction).commit();
+
+    final AbstractClaimRdaSink.Metrics metrics = sink.getMetrics();
+    assertMeterReading(0, "merges", metrics.getObjectsMerged());
+    assertMeterReading(3, "bulk writes", metrics.getObjectsBulkWritten());
+    assertMeterReading(3, "writes", metrics.getObjectsWritten());
+    assertMeterReading(1, "successes", metrics.getSuccesses());
+    assertGaugeReading(2, "lastSeq", metrics.getLatestSequenceNumber());
+    assertHistogramReading(3, "database batch size", metrics.getDbBatchSize());
+    assertHistogramReading(7, "database insert count", metrics.getInsertCount());
+  }
+
   /** Tests the outcome of when a batch merge throws an exception. */
   @Test
   public void mergeFatalError() {
@@ -30,6 +30,8 @@ import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 /** Tests the {@link McsClaimRdaSink} with integrated dependencies. */
 public class McsClaimRdaSinkIT {
@@ -42,10 +44,14 @@ public class McsClaimRdaSinkIT {
    * Checks if writing valid MCS claim messages results in the entities being persisted to the
    * database with the expected field values.
    *
+   * <p>The same checks are run with both the JPA merge and the JDBC bulk writes.
+   *
+   * @param bulkWrites true if the sink should use bulk writes
    * @throws Exception If any unexpected exceptions are thrown.
    */
-  @Test
-  public void mcsClaim() throws Exception {
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void mcsClaim(boolean bulkWrites) throws Exception {
     RdaPipelineTestUtils.runTestWithTemporaryDb(
         Clock.systemUTC(),
         (appState, transactionManager) -> {
@@ -105,7 +111,8 @@ public class McsClaimRdaSinkIT {
           final IdHasher hasher = new IdHasher(new IdHasher.Config(1, "notarealpepper"));
           final McsClaimTransformer transformer =
               new McsClaimTransformer(clock, MbiCache.computedCache(hasher.getConfig()));
-          final McsClaimRdaSink sink = new McsClaimRdaSink(appState, transformer, true, 0);
+          final McsClaimRdaSink sink =
+              new McsClaimRdaSink(appState, transformer, true, 0, bulkWrites);
           final String expectedMbiHash = hasher.computeIdentifierHash(claim.getIdrClaimMbi());
 
           assertEquals(Optional.empty(), sink.readMaxExistingSequenceNumber());
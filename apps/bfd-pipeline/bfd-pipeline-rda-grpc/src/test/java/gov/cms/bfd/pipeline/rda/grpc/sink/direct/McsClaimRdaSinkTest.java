@@ -129,6 +129,7 @@ public class McsClaimRdaSinkTest {
             "McsClaimRdaSink.transform.failures",
             "McsClaimRdaSink.transform.successes",
             "McsClaimRdaSink.writes.batchSize",
+            "McsClaimRdaSink.writes.bulk",
             "McsClaimRdaSink.writes.elapsed",
             "McsClaimRdaSink.writes.merged",
             "McsClaimRdaSink.writes.persisted",
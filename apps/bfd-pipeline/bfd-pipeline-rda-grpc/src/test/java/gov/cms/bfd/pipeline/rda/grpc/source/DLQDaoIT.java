@@ -186,6 +186,50 @@ public class DLQDaoIT {
         });
   }
 
+  /**
+   * Verifies that updating a collection of sequence numbers updates only the intended records.
+   *
+   * @throws Exception pass through
+   */
+  @Test
+  void testUpdateStateForCollection() throws Exception {
+    final var firstToUpdate = createRecord(1, claimType, UNRESOLVED, 1);
+    final var secondToUpdate = createRecord(3, claimType, UNRESOLVED, 1);
+    final var sameSeqNoWrongTypeRecord = createRecord(1, ignoredClaimType, UNRESOLVED, 1);
+    final var wrongSeqSameTypeRecord = createRecord(2, claimType, UNRESOLVED, 1);
+    final var allRecordsBefore =
+        List.of(firstToUpdate, secondToUpdate, sameSeqNoWrongTypeRecord, wrongSeqSameTypeRecord);
+
+    final var allRecordsAfter =
+        List.of(
+            firstToUpdate.toBuilder().status(OBSOLETE).updatedDate(clockTime).build(),
+            secondToUpdate.toBuilder().status(OBSOLETE).updatedDate(clockTime).build(),
+            sameSeqNoWrongTypeRecord,
+            wrongSeqSameTypeRecord);
+
+    RdaPipelineTestUtils.runTestWithTemporaryDb(
+        clock,
+        (appState, transactionManager) -> {
+          try (var dao = new DLQDao(clock, transactionManager)) {
+            try {
+              dao.insertMessageErrors(allRecordsBefore);
+
+              // verify it's safe to call with nothing to update
+              assertEquals(0, dao.updateState(List.of(), claimType, OBSOLETE));
+              assertEquals(0, dao.updateState(List.of(42L), claimType, OBSOLETE));
+
+              // missing sequence numbers are ignored
+              final var updatedCount = dao.updateState(List.of(1L, 3L, 42L), claimType, OBSOLETE);
+              assertEquals(2, updatedCount);
+              assertContentsHaveSamePropertyValues(
+                  allRecordsAfter, dao.readAllMessageErrors(), ComparatorForSorting);
+            } finally {
+              dao.deleteMessageErrors(allRecordsBefore);
+            }
+          }
+        });
+  }
+
   /**
    * Verifies that only expired records of the correct type and status are deleted.
    *
@@ -141,6 +141,7 @@ public class DLQGrpcRdaSourceTest {
                 claimType,
                 rdaVersion,
                 Optional.of(MAX_DQL_AGE_DAYS),
+                Optional.empty(),
                 mockDao));
 
     doReturn(mockLogic)
@@ -182,6 +183,7 @@ public class DLQGrpcRdaSourceTest {
             claimType,
             rdaVersion,
             Optional.of(MAX_DQL_AGE_DAYS),
+            Optional.empty(),
             mockDao);
     doReturn(18)
         .when(mockDao)
@@ -207,6 +209,7 @@ public class DLQGrpcRdaSourceTest {
             claimType,
             rdaVersion,
             Optional.of(MAX_DQL_AGE_DAYS),
+            Optional.empty(),
             mockDao);
     doThrow(new RuntimeException("can't stop me!"))
         .when(mockDao)
@@ -235,6 +238,7 @@ public class DLQGrpcRdaSourceTest {
                 claimType,
                 rdaVersion,
                 Optional.of(MAX_DQL_AGE_DAYS),
+                Optional.empty(),
                 mockDao));
 
     doReturn(mockLogic)
@@ -336,6 +340,7 @@ public class DLQGrpcRdaSourceTest {
                 claimType,
                 rdaVersion,
                 Optional.of(MAX_DQL_AGE_DAYS),
+                Optional.empty(),
                 mockDao));
 
     doNothing().when(sourceSpy).setUptimeToReceiving();
@@ -412,4 +417,105 @@ public class DLQGrpcRdaSourceTest {
 
     verify(mockSink, times(1)).shutdown(any(Duration.class));
   }
+
+  /** Verifies that sequence numbers are sorted and grouped into ranges using the max gap. */
+  @Test
+  void shouldCreateReplayRanges() {
+    assertEquals(List.of(), DLQGrpcRdaSource.createReplayRanges(List.of(), 10));
+    assertEquals(
+        List.of(List.of(3L, 5L, 15L), List.of(26L), List.of(40L, 40L + 10L)),
+        DLQGrpcRdaSource.createReplayRanges(List.of(50L, 15L, 3L, 40L, 26L, 5L, 15L), 10));
+    assertEquals(
+        List.of(List.of(1L), List.of(2L), List.of(3L)),
+        DLQGrpcRdaSource.createReplayRanges(Set.of(3L, 1L, 2L), 0));
+  }
+
+  /**
+   * Tests that ranged replay reads each range of {@link MessageError}s with a single stream,
+   * processes only the wanted sequence numbers, and updates their states with one call per status
+   * for each range.
+   */
+  @Test
+  void shouldReplayDLQRanges() throws Exception {
+    final String claimType = "fiss";
+    final MessageError.ClaimType type = MessageError.ClaimType.FISS;
+    final CallOptions mockCallOptions = mock(CallOptions.class);
+
+    doReturn(0).when(mockSink).getProcessedCount();
+    doReturn(mockCallOptions).when(mockConfig).createCallOptions();
+
+    // Using Long messages whose value is their sequence number, for testing simplicity
+    lenient()
+        .doAnswer(invocation -> invocation.getArgument(0))
+        .when(mockSink)
+        .getSequenceNumberForObject(anyLong());
+    lenient()
+        .doAnswer(invocation -> String.valueOf((Long) invocation.getArgument(0)))
+        .when(mockSink)
+        .getClaimIdForMessage(anyLong());
+
+    DLQGrpcRdaSource<Long, Long> sourceSpy =
+        spy(
+            new DLQGrpcRdaSource<>(
+                mockManager,
+                Objects::equals,
+                mockChannel,
+                mockCaller,
+                mockConfig::createCallOptions,
+                meters,
+                claimType,
+                rdaVersion,
+                Optional.of(MAX_DQL_AGE_DAYS),
+                Optional.of(5),
+                mockDao));
+
+    doNothing().when(sourceSpy).setUptimeToReceiving();
+
+    // unchecked - This is fine for a mock.
+    //noinspection unchecked
+    doReturn(1)
+        .when(sourceSpy)
+        .submitBatchToSink(eq(TEST_RDA_VERSION), eq(mockSink), any(Map.class));
+
+    doReturn(TEST_RDA_VERSION).when(mockCaller).callVersionService(mockChannel, mockCallOptions);
+
+    // First range is 5, 7, 8. The stream skips 7 and stops being read once 8 arrives.
+    // unchecked - This is fine for a mock.
+    //noinspection unchecked
+    GrpcResponseStream<Long> mockStreamA = mock(GrpcResponseStream.class);
+    doReturn(true).when(mockStreamA).hasNext();
+    doReturn(5L).doReturn(6L).doReturn(8L).when(mockStreamA).next();
+    doReturn(mockStreamA).when(mockCaller).callService(mockChannel, mockCallOptions, 4L);
+
+    // Second range is just 30 which the stream skips.
+    // unchecked - This is fine for a mock.
+    //noinspection unchecked
+    GrpcResponseStream<Long> mockStreamB = mock(GrpcResponseStream.class);
+    doReturn(true).when(mockStreamB).hasNext();
+    doReturn(31L).when(mockStreamB).next();
+    doReturn(mockStreamB).when(mockCaller).callService(mockChannel, mockCallOptions, 29L);
+
+    final List<List<Long>> ranges =
+        DLQGrpcRdaSource.createReplayRanges(List.of(30L, 8L, 5L, 7L), 5);
+    assertEquals(List.of(List.of(5L, 7L, 8L), List.of(30L)), ranges);
+
+    AbstractGrpcRdaSource.ProcessResult expectedResult = new AbstractGrpcRdaSource.ProcessResult();
+    expectedResult.setCount(2);
+
+    AbstractGrpcRdaSource.ProcessResult actualResult =
+        sourceSpy.rangedDlqProcessingLogic(mockSink, type, ranges, 1).process();
+    assertEquals(expectedResult, actualResult);
+
+    verify(mockCaller, times(2)).callService(any(), any(), anyLong());
+    verify(mockStreamA, times(3)).next();
+    verify(mockStreamA).close();
+    verify(mockStreamB).close();
+    verify(mockDao, times(0))
+        .updateState(anyLong(), any(MessageError.ClaimType.class), any(MessageError.Status.class));
+    verify(mockDao).updateState(List.of(5L, 8L), type, MessageError.Status.RESOLVED);
+    verify(mockDao).updateState(List.of(7L), type, MessageError.Status.OBSOLETE);
+    verify(mockDao).updateState(List.of(30L), type, MessageError.Status.OBSOLETE);
+
+    verify(mockSink, times(1)).shutdown(any(Duration.class));
+  }
 }
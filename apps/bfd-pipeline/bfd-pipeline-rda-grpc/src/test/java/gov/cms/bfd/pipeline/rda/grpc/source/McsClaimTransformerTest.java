@@ -5,6 +5,7 @@ import static gov.cms.bfd.pipeline.rda.grpc.source.TransformerTestUtils.assertLi
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.samePropertyValuesAs;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import gov.cms.bfd.model.rda.Mbi;
@@ -1946,7 +1947,10 @@ public class McsClaimTransformerTest {
   private void assertChangeMatches(RdaChange.Type changeType) {
     RdaChange<RdaMcsClaim> changed = transformer.transformClaim(changeBuilder.build());
     assertEquals(changeType, changed.getType());
-    assertThat(changed.getClaim(), samePropertyValuesAs(claim));
+    assertThat(changed.getClaim(), samePropertyValuesAs(claim, "mbiId"));
+    // mbiId is read from the mbiRecord, which is only given an id once it is saved
+    assertEquals(claim.getMbiRecord(), changed.getClaim().getMbiRecord());
+    assertNull(changed.getClaim().getMbiId());
   }
 
   // region Field Tester Classes
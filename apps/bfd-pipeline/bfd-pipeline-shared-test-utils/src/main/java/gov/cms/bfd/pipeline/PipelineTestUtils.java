@@ -7,6 +7,7 @@ import gov.cms.bfd.model.rda.entities.RdaFissClaim;
 import gov.cms.bfd.model.rda.entities.RdaFissProcCode;
 import gov.cms.bfd.model.rif.LoadedBatch;
 import gov.cms.bfd.model.rif.LoadedFile;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
 import gov.cms.bfd.model.rif.RifFile;
 import gov.cms.bfd.model.rif.RifFileType;
 import gov.cms.bfd.model.rif.RifFilesEvent;
@@ -163,6 +164,7 @@ public final class PipelineTestUtils {
             BeneficiaryHistory.class,
             BeneficiaryMonthly.class,
             Beneficiary.class,
+            LoadedFileBloomFilter.class,
             LoadedBatch.class,
             LoadedFile.class,
             S3ManifestFile.class,
@@ -0,0 +1,237 @@
+package gov.cms.bfd.pipeline.sharedutils.s3;
+
+import com.google.common.base.Preconditions;
+import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ReadableByteChannel} that streams an S3 object using parallel ranged GET requests rather
+ * than downloading it to a file first. Up to {@code parallelism} chunks are requested ahead of the
+ * reader and are returned strictly in order, so reading starts as soon as the first chunk arrives
+ * and memory use is bounded by roughly {@code (parallelism + 1) * chunkSize} bytes.
+ *
+ * <p>When an expected MD5 checksum is provided, the checksum is computed incrementally as chunks
+ * are consumed. The final chunk is checked before any of its bytes are returned, so a reader never
+ * reaches the end of an object whose checksum does not match. Instead the read fails with an {@link
+ * IOException}.
+ *
+ * <p>Instances are not thread safe. They are meant to be read by a single thread.
+ */
+public class S3ChunkedObjectChannel implements ReadableByteChannel {
+  /** Used to issue the ranged GET requests. */
+  private final S3Dao s3Dao;
+
+  /** The bucket containing the object. */
+  private final String s3Bucket;
+
+  /** The key, eTag, and size of the object. */
+  private final S3Dao.S3ObjectDetails objectDetails;
+
+  /** Number of bytes requested by each ranged GET. */
+  private final int chunkSize;
+
+  /** Maximum number of ranged GETs that can be in flight at one time. */
+  private final int parallelism;
+
+  /** Base64 encoded MD5 checksum the object must match, or null if no check is required. */
+  @Nullable private final String expectedMd5;
+
+  /** Digest updated as chunks are consumed, or null if no check is required. */
+  @Nullable private final MessageDigest md5Digest;
+
+  /** Ranged GETs that have been started but not yet consumed, in object order. */
+  private final Deque<CompletableFuture<byte[]>> pendingChunks = new ArrayDeque<>();
+
+  /** Offset of the first byte that has not yet been requested. */
+  private long nextRequestOffset;
+
+  /** Offset of the first byte that has not yet been consumed from {@link #pendingChunks}. */
+  private long consumedOffset;
+
+  /** The chunk currently being returned to the reader. */
+  private ByteBuffer currentChunk = ByteBuffer.allocate(0);
+
+  /** Set once the checksum has been verified so that it is only computed once. */
+  private boolean checksumVerified;
+
+  /** The first error encountered. Once set every read fails with this exception. */
+  @Nullable private IOException failure;
+
+  /** False once {@link #close} has been called. */
+  private boolean open = true;
+
+  /**
+   * Initializes an instance and immediately starts the first {@code parallelism} ranged GETs.
+   *
+   * @param s3Dao used to issue the ranged GET requests
+   * @param s3Bucket the bucket containing the object
+   * @param objectDetails the key, eTag, and size of the object
+   * @param chunkSize number of bytes requested by each ranged GET
+   * @param parallelism maximum number of ranged GETs in flight at one time
+   * @param expectedMd5 Base64 encoded MD5 checksum the object must match, or null to skip the check
+   */
+  public S3ChunkedObjectChannel(
+      S3Dao s3Dao,
+      String s3Bucket,
+      S3Dao.S3ObjectDetails objectDetails,
+      int chunkSize,
+      int parallelism,
+      @Nullable String expectedMd5) {
+    Preconditions.checkArgument(chunkSize > 0, "chunkSize must be positive");
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+    this.s3Dao = s3Dao;
+    this.s3Bucket = s3Bucket;
+    this.objectDetails = objectDetails;
+    this.chunkSize = chunkSize;
+    this.parallelism = parallelism;
+    this.expectedMd5 = expectedMd5;
+    md5Digest = expectedMd5 == null ? null : createMd5Digest();
+    requestChunks();
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    if (!open) {
+      throw new ClosedChannelException();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    try {
+      while (!currentChunk.hasRemaining()) {
+        if (pendingChunks.isEmpty()) {
+          verifyChecksum();
+          return -1;
+        }
+        currentChunk = ByteBuffer.wrap(takeNextChunk());
+        requestChunks();
+      }
+    } catch (IOException ex) {
+      failure = ex;
+      throw ex;
+    }
+    final int count = Math.min(dst.remaining(), currentChunk.remaining());
+    dst.put(currentChunk.slice(currentChunk.position(), count));
+    currentChunk.position(currentChunk.position() + count);
+    return count;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return open;
+  }
+
+  /** Cancels any ranged GETs that are still in flight. {@inheritDoc} */
+  @Override
+  public void close() {
+    if (open) {
+      open = false;
+      pendingChunks.forEach(chunk -> chunk.cancel(true));
+      pendingChunks.clear();
+      currentChunk = ByteBuffer.allocate(0);
+    }
+  }
+
+  /**
+   * Starts ranged GETs until {@link #parallelism} of them are in flight or the whole object has
+   * been requested.
+   */
+  private void requestChunks() {
+    final long objectSize = objectDetails.getSize();
+    while (pendingChunks.size() < parallelism && nextRequestOffset < objectSize) {
+      final long lastByte = Math.min(nextRequestOffset + chunkSize, objectSize) - 1;
+      pendingChunks.addLast(
+          s3Dao.readObjectRange(
+              s3Bucket,
+              objectDetails.getKey(),
+              objectDetails.getETag(),
+              nextRequestOffset,
+              lastByte));
+      nextRequestOffset = lastByte + 1;
+    }
+  }
+
+  /**
+   * Waits for the oldest pending ranged GET to complete, adds its bytes to the checksum, and
+   * verifies the checksum if it is the final chunk of the object.
+   *
+   * @return the bytes of the chunk
+   * @throws IOException if the GET failed, returned the wrong number of bytes, or the checksum does
+   *     not match
+   */
+  private byte[] takeNextChunk() throws IOException {
+    final CompletableFuture<byte[]> pendingChunk = pendingChunks.removeFirst();
+    final byte[] chunk;
+    try {
+      chunk = pendingChunk.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while reading " + objectDetails.getKey());
+    } catch (ExecutionException ex) {
+      throw new IOException(
+          String.format(
+              "Ranged GET failed for file %s at offset %d", objectDetails.getKey(), consumedOffset),
+          ex.getCause());
+    }
+    final long expectedLength = Math.min(chunkSize, objectDetails.getSize() - consumedOffset);
+    if (chunk.length != expectedLength) {
+      throw new IOException(
+          String.format(
+              "Ranged GET for file %s at offset %d returned %d bytes but %d were expected",
+              objectDetails.getKey(), consumedOffset, chunk.length, expectedLength));
+    }
+    consumedOffset += chunk.length;
+    if (md5Digest != null) {
+      md5Digest.update(chunk);
+    }
+    if (consumedOffset == objectDetails.getSize()) {
+      verifyChecksum();
+    }
+    return chunk;
+  }
+
+  /**
+   * Compares the computed checksum to {@link #expectedMd5}. Does nothing if no check is required or
+   * if the check has already been done.
+   *
+   * @throws IOException if the checksums do not match
+   */
+  private void verifyChecksum() throws IOException {
+    if (md5Digest == null || checksumVerified) {
+      return;
+    }
+    checksumVerified = true;
+    final String computedMd5 = Base64.getEncoder().encodeToString(md5Digest.digest());
+    if (!computedMd5.equals(expectedMd5)) {
+      throw new IOException(
+          String.format("MD5 checksum mismatch for file %s", objectDetails.getKey()));
+    }
+  }
+
+  /**
+   * Creates a {@link MessageDigest} for computing MD5 checksums.
+   *
+   * @return the digest
+   */
+  @SuppressWarnings("java:S4790")
+  private static MessageDigest createMd5Digest() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      // this should never happen so convert it to an unchecked exception
+      throw new BadCodeMonkeyException("No MessageDigest instance for MD5", e);
+    }
+  }
+}
@@ -11,12 +11,15 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
@@ -251,6 +254,32 @@ public class S3Dao implements AutoCloseable {
     return s3Client.getObjectAsBytes(getObjectRequest).asInputStream();
   }
 
+  /**
+   * Starts an asynchronous ranged GET of part of an S3 object. The request only succeeds if the
+   * object still has the given eTag, so every range read for an object comes from the same version
+   * of it. Used by {@link S3ChunkedObjectChannel} to read large objects in parallel chunks.
+   *
+   * @param s3Bucket the bucket containing the object
+   * @param s3Key the S3 object key
+   * @param eTag the eTag the object is expected to have
+   * @param firstByte offset of the first byte to read
+   * @param lastByte offset of the last byte to read (inclusive)
+   * @return a future that completes with the bytes of the range
+   */
+  public CompletableFuture<byte[]> readObjectRange(
+      String s3Bucket, String s3Key, String eTag, long firstByte, long lastByte) {
+    GetObjectRequest getObjectRequest =
+        GetObjectRequest.builder()
+            .bucket(s3Bucket)
+            .key(s3Key)
+            .ifMatch(eTag)
+            .range(String.format("bytes=%d-%d", firstByte, lastByte))
+            .build();
+    return s3AsyncClient
+        .getObject(getObjectRequest, AsyncResponseTransformer.toBytes())
+        .thenApply(ResponseBytes::asByteArrayUnsafe);
+  }
+
   /**
    * Download S3 object and return its {@link GetObjectResponse}. Uses a {@link S3TransferManager}
    * for higher throughput and reliability than {@link #readObject}.
@@ -13,6 +13,9 @@ import java.io.FileFilter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -628,6 +631,20 @@ public class S3DirectoryDao implements AutoCloseable {
       return createByteSourceForCachedFile(s3Key, path);
     }
 
+    /**
+     * Opens a {@link ReadableByteChannel} that reads the same data as {@link #getBytes()}. For
+     * uncompressed files this is a {@link FileChannel} reading the cached file directly.
+     *
+     * @return the channel
+     * @throws IOException pass through if the file cannot be opened
+     */
+    public ReadableByteChannel openChannel() throws IOException {
+      if (s3Key.endsWith(".gz")) {
+        return Channels.newChannel(getBytes().openStream());
+      }
+      return FileChannel.open(path);
+    }
+
     /**
      * Deletes the file from the cache.
      *
@@ -0,0 +1,301 @@
+package gov.cms.bfd.pipeline.sharedutils.samhsa;
+
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
+import gov.cms.bfd.pipeline.sharedutils.PipelineJob;
+import gov.cms.bfd.pipeline.sharedutils.PipelineJobOutcome;
+import gov.cms.bfd.pipeline.sharedutils.PipelineJobSchedule;
+import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link PipelineJob} that computes the stored SAMHSA flag of claims that were loaded before the
+ * flag existed, or whose flag was computed with an older {@link SamhsaCodeSet#CODE_LIST_VERSION}.
+ * Claims written by the loaders already have a current flag, so once the backfill has caught up
+ * each run finds nothing to do.
+ *
+ * <p>Each transaction loads up to the configured batch size of claims without a current flag,
+ * classifies them, and stores their flags using bulk updates. Claims are paged through in id order
+ * using the last id of the previous batch, and the child collections the classifier reads are
+ * loaded with one query per collection for the whole batch rather than lazily for each claim. The
+ * updates only touch the two flag columns and skip any claim that was given a current flag by a
+ * loader in the meantime, so the job can safely run while claims are being loaded.
+ *
+ * <p>Every run pages through the claims with no flag at all, which the partial indexes on those
+ * claims serve directly. Claims with a stale flag only exist after a new {@link
+ * SamhsaCodeSet#CODE_LIST_VERSION} has been deployed, when nearly every claim is stale, so they are
+ * paged through by primary key once per table after the job is created. Claims written afterwards
+ * always get the current version, so later runs skip that pass.
+ */
+@Slf4j
+public class SamhsaBackfillJob implements PipelineJob {
+  /** Condition selecting claims that have no SAMHSA flag, which matches the partial indexes. */
+  private static final String MISSING_FLAG_CONDITION = "c.samhsaCodeListVersion is null";
+
+  /** Condition selecting claims whose SAMHSA flag was computed with another code list version. */
+  private static final String STALE_FLAG_CONDITION = "c.samhsaCodeListVersion <> :version";
+
+  /** Query template used to find the first batch of claims matching a condition. */
+  private static final String FIRST_SELECT_QUERY_TEMPLATE =
+      "select c from %1$s c where %3$s order by c.%2$s";
+
+  /** Query template used to find the next batch of claims after the previous batch's last id. */
+  private static final String NEXT_SELECT_QUERY_TEMPLATE =
+      "select c from %1$s c where %3$s and c.%2$s > :lastId order by c.%2$s";
+
+  /** Query template used to load one child collection of a batch of claims. */
+  private static final String FETCH_QUERY_TEMPLATE =
+      "select distinct c from %s c left join fetch c.%s where c.%s in (:ids)";
+
+  /** Query template used to store the SAMHSA flag of a batch of claims. */
+  private static final String UPDATE_QUERY_TEMPLATE =
+      "update %s c set c.samhsaFlag = :flag, c.samhsaCodeListVersion = :version"
+          + " where c.%s in (:ids)"
+          + " and (c.samhsaCodeListVersion is null or c.samhsaCodeListVersion <> :version)";
+
+  /** Used to run the queries. */
+  private final TransactionManager transactionManager;
+
+  /** The job settings. */
+  private final Config config;
+
+  /** The claim tables to backfill, in the order they are processed. */
+  private final List<ClaimTable<?>> claimTables;
+
+  /** The entity classes of the claim tables that no longer contain claims with a stale flag. */
+  private final Set<Class<?>> staleFlagsChecked = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Creates a new job.
+   *
+   * @param transactionManager used to run the queries
+   * @param config the job settings
+   * @param claimTables the claim tables to backfill
+   */
+  public SamhsaBackfillJob(
+      TransactionManager transactionManager, Config config, List<ClaimTable<?>> claimTables) {
+    this.transactionManager = transactionManager;
+    this.config = config;
+    this.claimTables = List.copyOf(claimTables);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Optional<PipelineJobSchedule> getSchedule() {
+    return Optional.of(
+        new PipelineJobSchedule(config.getRunInterval().toMillis(), ChronoUnit.MILLIS));
+  }
+
+  /**
+   * The backfill can be safely stopped between any two transactions.
+   *
+   * @return true
+   */
+  @Override
+  public boolean isInterruptible() {
+    return true;
+  }
+
+  /**
+   * Processes batches of claims from each table in turn until no claims without a current SAMHSA
+   * flag remain or the thread is interrupted.
+   *
+   * @return {@link PipelineJobOutcome#WORK_DONE} if any claim was updated, otherwise {@link
+   *     PipelineJobOutcome#NOTHING_TO_DO}
+   */
+  @Override
+  public PipelineJobOutcome call() {
+    long totalUpdated = 0;
+    for (ClaimTable<?> claimTable : claimTables) {
+      final String entityName = claimTable.getEntityClass().getSimpleName();
+      final long startMillis = System.currentTimeMillis();
+      long tableUpdated = backfillClaims(claimTable, false);
+      if (!Thread.currentThread().isInterrupted()
+          && !staleFlagsChecked.contains(claimTable.getEntityClass())) {
+        tableUpdated += backfillClaims(claimTable, true);
+        if (!Thread.currentThread().isInterrupted()) {
+          staleFlagsChecked.add(claimTable.getEntityClass());
+        }
+      }
+      totalUpdated += tableUpdated;
+
+      if (Thread.currentThread().isInterrupted()) {
+        log.info("SAMHSA backfill interrupted: entity={} updated={}", entityName, tableUpdated);
+        return totalUpdated > 0 ? PipelineJobOutcome.WORK_DONE : PipelineJobOutcome.NOTHING_TO_DO;
+      }
+      if (tableUpdated > 0) {
+        log.info(
+            "SAMHSA backfill updated {} claims in {}ms: entity={}",
+            tableUpdated,
+            System.currentTimeMillis() - startMillis,
+            entityName);
+      }
+    }
+    return totalUpdated > 0 ? PipelineJobOutcome.WORK_DONE : PipelineJobOutcome.NOTHING_TO_DO;
+  }
+
+  /**
+   * Processes batches of the claims in the given table that have no SAMHSA flag, or a stale one,
+   * until none remain or the thread is interrupted.
+   *
+   * @param claimTable the table to process
+   * @param staleFlags <code>true</code> to process the claims with a stale flag, <code>false
+   *     </code> for those with no flag
+   * @return the number of claims that were updated
+   */
+  private long backfillClaims(ClaimTable<?> claimTable, boolean staleFlags) {
+    long updated = 0;
+    Object lastId = null;
+    List<Object> batchIds;
+    do {
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+      final Object afterId = lastId;
+      batchIds =
+          transactionManager.executeFunction(
+              em -> processBatch(em, claimTable, staleFlags, afterId));
+      if (!batchIds.isEmpty()) {
+        lastId = batchIds.get(batchIds.size() - 1);
+      }
+      updated += batchIds.size();
+    } while (!batchIds.isEmpty());
+    return updated;
+  }
+
+  /**
+   * Loads, classifies and updates one batch of claims from the given table.
+   *
+   * @param entityManager used to run the queries
+   * @param claimTable the table to process
+   * @param staleFlags <code>true</code> to process the claims with a stale flag, <code>false
+   *     </code> for those with no flag
+   * @param lastId the id of the last claim of the previous batch, or <code>null</code> for the
+   *     first batch
+   * @param <T> the claim entity type
+   * @return the ids of the claims that were loaded, in id order, empty when the table has been
+   *     fully backfilled
+   */
+  private <T> List<Object> processBatch(
+      EntityManager entityManager, ClaimTable<T> claimTable, boolean staleFlags, Object lastId) {
+    final String entityName = claimTable.getEntityClass().getSimpleName();
+    final String idAttribute = claimTable.getIdAttribute();
+    final String condition = staleFlags ? STALE_FLAG_CONDITION : MISSING_FLAG_CONDITION;
+    final TypedQuery<T> selectQuery;
+    if (lastId == null) {
+      selectQuery =
+          entityManager.createQuery(
+              String.format(FIRST_SELECT_QUERY_TEMPLATE, entityName, idAttribute, condition),
+              claimTable.getEntityClass());
+    } else {
+      selectQuery =
+          entityManager
+              .createQuery(
+                  String.format(NEXT_SELECT_QUERY_TEMPLATE, entityName, idAttribute, condition),
+                  claimTable.getEntityClass())
+              .setParameter("lastId", lastId);
+    }
+    if (staleFlags) {
+      selectQuery.setParameter("version", SamhsaCodeSet.CODE_LIST_VERSION);
+    }
+    final List<T> claims = selectQuery.setMaxResults(config.getBatchSize()).getResultList();
+    final List<Object> ids = claims.stream().map(claimTable.getIdGetter()).toList();
+    if (ids.isEmpty()) {
+      return ids;
+    }
+
+    // The claims are already managed, so each query initializes one collection of every claim.
+    for (String collectionAttribute : claimTable.getCollectionAttributes()) {
+      entityManager
+          .createQuery(
+              String.format(FETCH_QUERY_TEMPLATE, entityName, collectionAttribute, idAttribute),
+              claimTable.getEntityClass())
+          .setParameter("ids", ids)
+          .getResultList();
+    }
+
+    final Map<Boolean, List<Object>> idsByFlag =
+        claims.stream()
+            .collect(
+                Collectors.partitioningBy(
+                    claimTable.getClassifier(),
+                    Collectors.mapping(
+                        claimTable.getIdGetter(), Collectors.toCollection(ArrayList::new))));
+    // The claims are not modified, so there is no need to keep them in the persistence context.
+    entityManager.clear();
+
+    for (Map.Entry<Boolean, List<Object>> entry : idsByFlag.entrySet()) {
+      if (!entry.getValue().isEmpty()) {
+        entityManager
+            .createQuery(
+                String.format(UPDATE_QUERY_TEMPLATE, entityName, claimTable.getIdAttribute()))
+            .setParameter("flag", entry.getKey())
+            .setParameter("version", SamhsaCodeSet.CODE_LIST_VERSION)
+            .setParameter("ids", entry.getValue())
+            .executeUpdate();
+      }
+    }
+    return ids;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void close() {
+    transactionManager.close();
+  }
+
+  /**
+   * Describes one claim table to backfill.
+   *
+   * @param <T> the claim entity type
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class ClaimTable<T> {
+    /** The claim entity class. */
+    @NonNull private final Class<T> entityClass;
+
+    /** The name of the entity's id attribute. */
+    @NonNull private final String idAttribute;
+
+    /** Gets the id of a claim. */
+    @NonNull private final Function<? super T, Object> idGetter;
+
+    /**
+     * The names of the entity's collection attributes read by {@link #classifier}, which are loaded
+     * for a whole batch at once.
+     */
+    @NonNull private final List<String> collectionAttributes;
+
+    /** Determines whether a claim is SAMHSA-related. */
+    @NonNull private final Predicate<? super T> classifier;
+  }
+
+  /** The settings for the job. */
+  @Value
+  @Builder
+  public static class Config {
+    /** How often the job is run. */
+    @NonNull Duration runInterval;
+
+    /** The maximum number of claims classified in a single transaction. */
+    int batchSize;
+  }
+}
@@ -0,0 +1,217 @@
+package gov.cms.bfd.pipeline.sharedutils.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link S3ChunkedObjectChannel}. */
+public class S3ChunkedObjectChannelTest {
+  /** Bucket name used in all tests. */
+  private static final String BUCKET = "bucket";
+
+  /** Key of the object used in all tests. */
+  private static final String KEY = "data.rif";
+
+  /** ETag of the object used in all tests. */
+  private static final String ETAG = "etag";
+
+  /** Mock used to serve ranges of {@link #objectBytes}. */
+  private S3Dao s3Dao;
+
+  /** Contents of the object. */
+  private byte[] objectBytes;
+
+  /** Futures returned by {@link #s3Dao} in the order they were requested. */
+  private List<CompletableFuture<byte[]>> requests;
+
+  /**
+   * Creates a mock {@link S3Dao} whose ranged GETs complete asynchronously with the requested bytes
+   * of {@link #objectBytes}.
+   */
+  @BeforeEach
+  void setUp() {
+    objectBytes = new byte[1000];
+    new Random(42).nextBytes(objectBytes);
+    requests = new ArrayList<>();
+    s3Dao = mock(S3Dao.class);
+    doAnswer(
+            invocation -> {
+              final long firstByte = invocation.getArgument(3);
+              final long lastByte = invocation.getArgument(4);
+              final var request = new CompletableFuture<byte[]>();
+              request.completeAsync(
+                  () -> Arrays.copyOfRange(objectBytes, (int) firstByte, (int) lastByte + 1));
+              requests.add(request);
+              return request;
+            })
+        .when(s3Dao)
+        .readObjectRange(eq(BUCKET), eq(KEY), eq(ETAG), anyLong(), anyLong());
+  }
+
+  /**
+   * Verifies that the whole object is returned in order for a variety of chunk sizes, parallelism
+   * values, and read buffer sizes, and that the checksum is verified without error.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void shouldReadWholeObjectInOrder() throws IOException {
+    for (int chunkSize : new int[] {1, 7, 100, 999, 1000, 5000}) {
+      for (int parallelism : new int[] {1, 3, 16}) {
+        for (int bufferSize : new int[] {1, 64, 4096}) {
+          try (var channel = createChannel(chunkSize, parallelism, md5(objectBytes))) {
+            assertThat(readAll(channel, bufferSize)).isEqualTo(objectBytes);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Verifies that no more than the allowed number of ranged GETs are started before the reader
+   * consumes any chunks.
+   */
+  @Test
+  void shouldLimitRequestsInFlight() {
+    try (var channel = createChannel(100, 3, null)) {
+      assertThat(channel.isOpen()).isTrue();
+      verify(s3Dao, times(3)).readObjectRange(eq(BUCKET), eq(KEY), eq(ETAG), anyLong(), anyLong());
+    }
+  }
+
+  /**
+   * Verifies that a checksum mismatch fails the read of the final chunk, before any of its bytes
+   * are returned, and that later reads keep failing.
+   */
+  @Test
+  void shouldFailBeforeReturningLastChunkWhenChecksumDoesNotMatch() {
+    final String wrongMd5 = md5(new byte[] {1, 2, 3});
+    final var channel = createChannel(300, 2, wrongMd5);
+    final ByteBuffer buffer = ByteBuffer.allocate(objectBytes.length);
+    assertThatThrownBy(
+            () -> {
+              while (channel.read(buffer) >= 0) {
+                // keep reading
+              }
+            })
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("MD5 checksum mismatch");
+    assertThat(buffer.position()).isEqualTo(900);
+    assertThatThrownBy(() -> channel.read(buffer)).isInstanceOf(IOException.class);
+  }
+
+  /**
+   * Verifies that the checksum of an empty object is checked when the end of the object is reached.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void shouldCheckChecksumOfEmptyObject() throws IOException {
+    objectBytes = new byte[0];
+    try (var channel = createChannel(100, 2, md5(objectBytes))) {
+      assertThat(channel.read(ByteBuffer.allocate(10))).isEqualTo(-1);
+    }
+    try (var channel = createChannel(100, 2, md5(new byte[] {1}))) {
+      assertThatThrownBy(() -> channel.read(ByteBuffer.allocate(10)))
+          .isInstanceOf(IOException.class);
+    }
+  }
+
+  /** Verifies that a failed ranged GET is reported as an {@link IOException}. */
+  @Test
+  void shouldFailWhenRangedGetFails() {
+    final var failure = new RuntimeException("boom");
+    doAnswer(invocation -> CompletableFuture.failedFuture(failure))
+        .when(s3Dao)
+        .readObjectRange(eq(BUCKET), eq(KEY), eq(ETAG), anyLong(), anyLong());
+    try (var channel = createChannel(100, 2, null)) {
+      assertThatThrownBy(() -> channel.read(ByteBuffer.allocate(10)))
+          .isInstanceOf(IOException.class)
+          .hasCause(failure);
+    }
+  }
+
+  /** Verifies that closing the channel cancels pending requests and prevents further reads. */
+  @Test
+  void shouldCancelRequestsWhenClosed() {
+    doAnswer(
+            invocation -> {
+              final var request = new CompletableFuture<byte[]>();
+              requests.add(request);
+              return request;
+            })
+        .when(s3Dao)
+        .readObjectRange(eq(BUCKET), eq(KEY), eq(ETAG), anyLong(), anyLong());
+    final var channel = createChannel(100, 4, null);
+    channel.close();
+    assertThat(channel.isOpen()).isFalse();
+    assertThat(requests).hasSize(4).allMatch(CompletableFuture::isCancelled);
+    assertThatThrownBy(() -> channel.read(ByteBuffer.allocate(10)))
+        .isInstanceOf(ClosedChannelException.class);
+  }
+
+  /**
+   * Creates a channel for reading {@link #objectBytes}.
+   *
+   * @param chunkSize number of bytes per ranged GET
+   * @param parallelism maximum ranged GETs in flight
+   * @param expectedMd5 expected checksum or null
+   * @return the channel
+   */
+  private S3ChunkedObjectChannel createChannel(int chunkSize, int parallelism, String expectedMd5) {
+    final var details = new S3Dao.S3ObjectDetails(KEY, ETAG, objectBytes.length, Map.of());
+    return new S3ChunkedObjectChannel(s3Dao, BUCKET, details, chunkSize, parallelism, expectedMd5);
+  }
+
+  /**
+   * Reads the channel to its end using a buffer of the given size.
+   *
+   * @param channel the channel to read
+   * @param bufferSize size of the read buffer
+   * @return all bytes read
+   * @throws IOException pass through
+   */
+  private static byte[] readAll(S3ChunkedObjectChannel channel, int bufferSize) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    final ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+    while (channel.read(buffer) >= 0) {
+      bytes.write(buffer.array(), 0, buffer.position());
+      buffer.clear();
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Computes the Base64 encoded MD5 checksum of some bytes.
+   *
+   * @param bytes the bytes
+   * @return the checksum
+   */
+  private static String md5(byte[] bytes) {
+    try {
+      return Base64.getEncoder().encodeToString(MessageDigest.getInstance("MD5").digest(bytes));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
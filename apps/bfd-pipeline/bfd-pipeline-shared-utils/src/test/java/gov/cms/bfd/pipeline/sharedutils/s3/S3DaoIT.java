@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
+import com.google.common.hash.Hashing;
 import com.google.common.io.ByteStreams;
 import gov.cms.bfd.AbstractLocalStackTest;
 import gov.cms.bfd.pipeline.sharedutils.s3.S3Dao.S3ObjectDetails;
@@ -15,9 +16,11 @@ import gov.cms.bfd.sharedutils.exceptions.UncheckedIOException;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -302,6 +305,37 @@ class S3DaoIT extends AbstractLocalStackTest {
         .hasMessageContaining("only buckets created by this class can be deleted");
   }
 
+  /**
+   * Verify that {@link S3ChunkedObjectChannel} streams an object using ranged GETs, that the
+   * checksum is verified, and that a ranged GET for a stale eTag fails.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  void shouldStreamObjectUsingRangedGets() throws IOException {
+    final var originalBytes = new byte[100_000];
+    ThreadLocalRandom.current().nextBytes(originalBytes);
+    final var objectKey = "streamed-object";
+    s3Dao.putObject(bucket, objectKey, originalBytes, Map.of());
+    final var details = s3Dao.readObjectMetaData(bucket, objectKey);
+    final var expectedMd5 =
+        Base64.getEncoder().encodeToString(Hashing.md5().hashBytes(originalBytes).asBytes());
+
+    try (var channel = new S3ChunkedObjectChannel(s3Dao, bucket, details, 7_000, 4, expectedMd5)) {
+      final byte[] streamedBytes = ByteStreams.toByteArray(Channels.newInputStream(channel));
+      assertThat(streamedBytes).isEqualTo(originalBytes);
+    }
+
+    try (var channel = new S3ChunkedObjectChannel(s3Dao, bucket, details, 7_000, 4, "wrong")) {
+      assertThatThrownBy(() -> ByteStreams.toByteArray(Channels.newInputStream(channel)))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("MD5 checksum mismatch");
+    }
+
+    assertThatThrownBy(() -> s3Dao.readObjectRange(bucket, objectKey, "\"stale\"", 0, 99).join())
+        .isInstanceOf(CompletionException.class);
+  }
+
   /**
    * Verify that copying a file within the same bucket works correctly.
    *
@@ -0,0 +1,166 @@
+package gov.cms.bfd.pipeline.sharedutils.samhsa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import gov.cms.bfd.model.rda.entities.RdaFissClaim;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
+import gov.cms.bfd.pipeline.sharedutils.PipelineJobOutcome;
+import gov.cms.bfd.pipeline.sharedutils.TransactionManager;
+import gov.cms.bfd.sharedutils.interfaces.ThrowingFunction;
+import java.time.Duration;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/** Unit tests for {@link SamhsaBackfillJob}. */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SamhsaBackfillJobTest {
+  /** Mock for the transaction manager, which runs each transaction with {@link #entityManager}. */
+  @Mock private TransactionManager transactionManager;
+
+  /** Mock for the entity manager. */
+  @Mock private EntityManager entityManager;
+
+  /** Mock for the query that selects claims without a current flag. */
+  @Mock private TypedQuery<RdaFissClaim> selectQuery;
+
+  /** Mock for the query that loads a collection of a batch of claims. */
+  @Mock private TypedQuery<RdaFissClaim> fetchQuery;
+
+  /** Mock for the query that stores the flags. */
+  @Mock private Query updateQuery;
+
+  /** The job being tested. */
+  private SamhsaBackfillJob job;
+
+  /** Configures the mocks and creates the job. */
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() throws Exception {
+    doAnswer(
+            invocation ->
+                invocation
+                    .<ThrowingFunction<Object, EntityManager, Exception>>getArgument(0)
+                    .apply(entityManager))
+        .when(transactionManager)
+        .executeFunction(any());
+    doReturn(selectQuery).when(entityManager).createQuery(anyString(), eq(RdaFissClaim.class));
+    doReturn(selectQuery).when(selectQuery).setParameter(anyString(), any());
+    doReturn(selectQuery).when(selectQuery).setMaxResults(anyInt());
+    doReturn(fetchQuery)
+        .when(entityManager)
+        .createQuery(contains("join fetch"), eq(RdaFissClaim.class));
+    doReturn(fetchQuery).when(fetchQuery).setParameter(anyString(), any());
+    doReturn(updateQuery).when(entityManager).createQuery(anyString());
+    doReturn(updateQuery).when(updateQuery).setParameter(anyString(), any());
+
+    job =
+        new SamhsaBackfillJob(
+            transactionManager,
+            SamhsaBackfillJob.Config.builder()
+                .runInterval(Duration.ofMinutes(5))
+                .batchSize(2)
+                .build(),
+            List.of(
+                new SamhsaBackfillJob.ClaimTable<>(
+                    RdaFissClaim.class,
+                    "claimId",
+                    RdaFissClaim::getClaimId,
+                    List.of("diagCodes"),
+                    claim -> claim.getClaimId().startsWith("samhsa"))));
+  }
+
+  /**
+   * Verifies that nothing is updated when every claim already has a current flag, and that both the
+   * missing and the stale flags are looked for.
+   */
+  @Test
+  void shouldDoNothingWhenAllClaimsHaveCurrentFlag() {
+    doReturn(List.of()).when(selectQuery).getResultList();
+
+    assertEquals(PipelineJobOutcome.NOTHING_TO_DO, job.call());
+    verify(entityManager)
+        .createQuery(contains("samhsaCodeListVersion is null"), eq(RdaFissClaim.class));
+    verify(entityManager)
+        .createQuery(contains("samhsaCodeListVersion <> :version"), eq(RdaFissClaim.class));
+    verify(selectQuery).setParameter("version", SamhsaCodeSet.CODE_LIST_VERSION);
+    verify(selectQuery, times(2)).setMaxResults(2);
+    verify(selectQuery, never()).setParameter(eq("lastId"), any());
+    verify(fetchQuery, never()).getResultList();
+    verify(entityManager, never()).createQuery(anyString());
+  }
+
+  /**
+   * Verifies that claims with a stale flag are only looked for during the first run, since every
+   * claim written after that has a current flag.
+   */
+  @Test
+  void shouldOnlyLookForStaleFlagsOnce() {
+    doReturn(List.of()).when(selectQuery).getResultList();
+
+    assertEquals(PipelineJobOutcome.NOTHING_TO_DO, job.call());
+    assertEquals(PipelineJobOutcome.NOTHING_TO_DO, job.call());
+    verify(entityManager, times(2))
+        .createQuery(contains("samhsaCodeListVersion is null"), eq(RdaFissClaim.class));
+    verify(entityManager, times(1))
+        .createQuery(contains("samhsaCodeListVersion <> :version"), eq(RdaFissClaim.class));
+  }
+
+  /**
+   * Verifies that batches are processed until none remain, that each batch starts after the last id
+   * of the previous one, that the classified collection is loaded once per batch, and that the
+   * claims in each batch are updated with one query per flag value. The last transaction is the
+   * empty search for claims with a stale flag.
+   */
+  @Test
+  void shouldUpdateFlagsOfEachBatch() {
+    doReturn(List.of(fissClaim("samhsa-1"), fissClaim("other-1")))
+        .doReturn(List.of(fissClaim("other-2")))
+        .doReturn(List.of())
+        .when(selectQuery)
+        .getResultList();
+
+    assertEquals(PipelineJobOutcome.WORK_DONE, job.call());
+    verify(transactionManager, times(4)).executeFunction(any());
+    verify(selectQuery).setParameter("lastId", "other-1");
+    verify(selectQuery).setParameter("lastId", "other-2");
+    verify(fetchQuery).setParameter("ids", List.of("samhsa-1", "other-1"));
+    verify(fetchQuery).setParameter("ids", List.of("other-2"));
+    verify(fetchQuery, times(2)).getResultList();
+    verify(updateQuery, times(3)).executeUpdate();
+    verify(updateQuery).setParameter("ids", List.of("samhsa-1"));
+    verify(updateQuery).setParameter("ids", List.of("other-1"));
+    verify(updateQuery).setParameter("ids", List.of("other-2"));
+    verify(updateQuery, times(1)).setParameter("flag", true);
+    verify(updateQuery, times(2)).setParameter("flag", false);
+  }
+
+  /**
+   * Creates a claim with the given id.
+   *
+   * @param claimId the claim id
+   * @return the claim
+   */
+  private static RdaFissClaim fissClaim(String claimId) {
+    return RdaFissClaim.builder().claimId(claimId).build();
+  }
+}
@@ -0,0 +1,124 @@
+package gov.cms.bfd.server.war;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link ExecutorService} that runs every task on its own virtual thread, but never runs more
+ * than a fixed number of tasks at once.
+ *
+ * <p>The EOB claim type tasks spend nearly all of their time waiting on the database, so a virtual
+ * thread per task is far cheaper than a large pool of platform threads. Each task holds a database
+ * connection while it runs though, so running more tasks than the Hikari pool has connections only
+ * moves the waiting from the executor into the pool. The limit is therefore meant to be the maximum
+ * pool size; tasks beyond it park their virtual thread until a running task completes.
+ */
+public class BoundedVirtualThreadExecutorService extends AbstractExecutorService {
+  /** Starts a new virtual thread for each task. */
+  private final ExecutorService delegate;
+
+  /** Holds one permit per task that is allowed to run at the same time. */
+  private final Semaphore permits;
+
+  /** The maximum number of tasks that run at the same time. */
+  private final int maxConcurrency;
+
+  /**
+   * Creates a new executor.
+   *
+   * @param threadNamePrefix the prefix of the virtual thread names, which is followed by a counter
+   * @param maxConcurrency the maximum number of tasks that run at the same time
+   */
+  public BoundedVirtualThreadExecutorService(String threadNamePrefix, int maxConcurrency) {
+    Preconditions.checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+    this.delegate =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  /**
+   * Gets the maximum number of tasks that run at the same time.
+   *
+   * @return the limit
+   */
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /**
+   * Gets the number of tasks that are currently running, which does not include the tasks waiting
+   * for a permit.
+   *
+   * @return the number of running tasks
+   */
+  @VisibleForTesting
+  int getRunningCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The command's virtual thread is started immediately and waits for a permit before running
+   * it. If that thread is interrupted while waiting (e.g. by {@link #shutdownNow}) the command is
+   * never run; if it is a {@link Future} it is cancelled so that its callers are not left waiting.
+   */
+  @Override
+  public void execute(Runnable command) {
+    delegate.execute(
+        () -> {
+          try {
+            permits.acquire();
+          } catch (InterruptedException e) {
+            if (command instanceof Future<?> future) {
+              future.cancel(false);
+            }
+            Thread.currentThread().interrupt();
+            return;
+          }
+          try {
+            command.run();
+          } finally {
+            permits.release();
+          }
+        });
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
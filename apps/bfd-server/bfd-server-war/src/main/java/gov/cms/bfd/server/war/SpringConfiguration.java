@@ -119,6 +119,54 @@ public class SpringConfiguration {
   /** Maximum number of threads to use for executing EOB claim transformers in parallel. */
   public static final String PROP_EXECUTOR_SERVICE_THREADS = "bfdServer.executorService.threads";
 
+  /**
+   * The {@link String } Boolean property that is used to run EOB claim transformers on virtual
+   * threads instead of a fixed thread pool. When enabled, {@link #PROP_EXECUTOR_SERVICE_THREADS} is
+   * ignored and the number of concurrently running transformers is limited to the maximum size of
+   * the database connection pool instead.
+   */
+  public static final String PROP_EXECUTOR_SERVICE_VIRTUAL_THREADS_ENABLED =
+      "bfdServer.executorService.virtualThreads.enabled";
+
+  /**
+   * The {@link String } Boolean property that is used to enable page-scoped EOB searches. When
+   * enabled, paged {@code findByPatient} requests resolve the ordered claim ids first and only
+   * fetch and transform the claims that fall on the requested page.
+   */
+  public static final String PROP_EOB_DB_PAGING_ENABLED = "bfdServer.eob.dbPaging.enabled";
+
+  /**
+   * The {@link String } Boolean property that is used to enable the SAMHSA parity check. When
+   * enabled, claims are still transformed before SAMHSA filtering and both the entity and resource
+   * SAMHSA matchers are run, with any disagreement between them logged and counted.
+   */
+  public static final String PROP_SAMHSA_PARITY_CHECK_ENABLED =
+      "bfdServer.samhsa.parityCheck.enabled";
+
+  /**
+   * The {@link String } Long property that sets the maximum weight of the transformed EOB cache.
+   * The weight of a cached EOB is roughly the number of lines, diagnoses and procedures it
+   * contains. Zero (the default) disables the cache.
+   */
+  public static final String PROP_EOB_CACHE_MAX_WEIGHT = "bfdServer.eob.cache.maxWeight";
+
+  /**
+   * The {@link String } Boolean property that is used to enable streamed EOB searches. When
+   * enabled, unpaged {@code findByPatient} requests for compact JSON write each claim type's EOBs
+   * to the response as soon as they have been transformed, instead of building the whole bundle in
+   * memory first. Streamed entries are grouped by claim type rather than sorted by claim id across
+   * all claim types.
+   */
+  public static final String PROP_EOB_STREAMING_ENABLED = "bfdServer.eob.streaming.enabled";
+
+  /**
+   * The {@link String } Boolean property that is used to enable the EOB service date filter
+   * metrics. When enabled, each claim type that is filtered by {@code service-date} also runs a
+   * count query to record how many of the beneficiary's claims the filter removed.
+   */
+  public static final String PROP_EOB_SERVICE_DATE_FILTER_METRICS_ENABLED =
+      "bfdServer.eob.serviceDateFilterMetrics.enabled";
+
   /** The database transaction timeout value (seconds). */
   public static final int TRANSACTION_TIMEOUT = 30;
 
@@ -154,6 +202,37 @@ public class SpringConfiguration {
    */
   public static final String PAC_OLD_MBI_HASH_ENABLED = "PacOldMbiHashEnabled";
 
+  /**
+   * The {@link Bean#name()} for the {@link Boolean} indicating if paged EOB searches should only
+   * fetch and transform the claims on the requested page.
+   */
+  public static final String EOB_DB_PAGING_ENABLED = "EobDbPagingEnabled";
+
+  /**
+   * The {@link Bean#name()} for the {@link Boolean} indicating if the entity and resource SAMHSA
+   * matchers should both be run and compared.
+   */
+  public static final String SAMHSA_PARITY_CHECK_ENABLED = "SamhsaParityCheckEnabled";
+
+  /**
+   * The {@link Bean#name()} for the {@link Long} maximum weight of the {@link
+   * gov.cms.bfd.server.war.r4.providers.TransformedEobCache}.
+   */
+  public static final String EOB_CACHE_MAX_WEIGHT = "EobCacheMaxWeight";
+
+  /**
+   * The {@link Bean#name()} for the {@link Boolean} indicating if unpaged EOB searches should
+   * stream their results to the response.
+   */
+  public static final String EOB_STREAMING_ENABLED = "EobStreamingEnabled";
+
+  /**
+   * The {@link Bean#name()} for the {@link Boolean} indicating if EOB searches should record how
+   * many claims the service date filter removed.
+   */
+  public static final String EOB_SERVICE_DATE_FILTER_METRICS_ENABLED =
+      "EobServiceDateFilterMetricsEnabled";
+
   /**
    * Exposes our {@link ConfigLoader} instance as a singleton to components in the application. If
    * one has already been created for use in a {@link ConfigPropertySource} and added to the {@link
@@ -366,6 +445,76 @@ public class SpringConfiguration {
     return enabled;
   }
 
+  /**
+   * Determines if paged {@link R4ExplanationOfBenefitResourceProvider#findByPatient} requests
+   * should select the claim ids for the requested page before fetching any claim entities, so that
+   * only the claims on that page are loaded and transformed. This is off by default.
+   *
+   * @param enabled injected property indicating if feature is enabled
+   * @return True if paged EOB searches should be page-scoped, False otherwise.
+   */
+  @Bean(name = EOB_DB_PAGING_ENABLED)
+  Boolean isEobDbPagingEnabled(
+      @Value("${" + PROP_EOB_DB_PAGING_ENABLED + ":false}") Boolean enabled) {
+    return enabled;
+  }
+
+  /**
+   * Determines if SAMHSA filtering should run in parity mode. By default SAMHSA claims are screened
+   * using their entities before they are transformed; in parity mode every claim is transformed,
+   * the FHIR resource matcher decides what is filtered, and the entity matcher's result is only
+   * compared against it. This is off by default.
+   *
+   * @param enabled injected property indicating if feature is enabled
+   * @return True if the SAMHSA matchers should be compared, False otherwise.
+   */
+  @Bean(name = SAMHSA_PARITY_CHECK_ENABLED)
+  Boolean isSamhsaParityCheckEnabled(
+      @Value("${" + PROP_SAMHSA_PARITY_CHECK_ENABLED + ":false}") Boolean enabled) {
+    return enabled;
+  }
+
+  /**
+   * Determines the maximum weight of the {@link
+   * gov.cms.bfd.server.war.r4.providers.TransformedEobCache}, which caches the EOBs produced by the
+   * V2 claim transformers. This is zero, which disables the cache, by default.
+   *
+   * @param maxWeight injected property with the maximum weight
+   * @return the maximum weight, zero if the cache is disabled
+   */
+  @Bean(name = EOB_CACHE_MAX_WEIGHT)
+  Long eobCacheMaxWeight(@Value("${" + PROP_EOB_CACHE_MAX_WEIGHT + ":0}") Long maxWeight) {
+    return maxWeight;
+  }
+
+  /**
+   * Determines if unpaged {@link R4ExplanationOfBenefitResourceProvider#findByPatient} and {@link
+   * ExplanationOfBenefitResourceProvider#findByPatient} requests should write each claim type's
+   * EOBs to the response as soon as they are ready, rather than returning a complete bundle. This
+   * is off by default.
+   *
+   * @param enabled injected property indicating if feature is enabled
+   * @return True if unpaged EOB searches should be streamed, False otherwise.
+   */
+  @Bean(name = EOB_STREAMING_ENABLED)
+  Boolean isEobStreamingEnabled(
+      @Value("${" + PROP_EOB_STREAMING_ENABLED + ":false}") Boolean enabled) {
+    return enabled;
+  }
+
+  /**
+   * Determines if EOB searches filtered by {@code service-date} should run an extra count query per
+   * claim type to record how many claims the filter removed. This is off by default.
+   *
+   * @param enabled injected property indicating if feature is enabled
+   * @return True if the service date filter metrics should be recorded, False otherwise.
+   */
+  @Bean(name = EOB_SERVICE_DATE_FILTER_METRICS_ENABLED)
+  Boolean isEobServiceDateFilterMetricsEnabled(
+      @Value("${" + PROP_EOB_SERVICE_DATE_FILTER_METRICS_ENABLED + ":false}") Boolean enabled) {
+    return enabled;
+  }
+
   /**
    * Creates a new r4 resource provider list.
    *
@@ -531,12 +680,26 @@ public class SpringConfiguration {
    * thread at time of thread pool creation), retrieving EOB claims represents a high-volume service
    * that will make good use of allocated threads.
    *
+   * <p>When virtual threads are enabled, each task runs on its own virtual thread instead, and the
+   * number of tasks running at once is limited to the maximum size of the database connection pool,
+   * since every task holds a connection while it runs. See {@link
+   * BoundedVirtualThreadExecutorService}.
+   *
    * @param threadCount system parameter for the number of threads in the fixed thread pool.
+   * @param virtualThreadsEnabled system parameter indicating if virtual threads should be used
+   * @param connectionsMaxText the maximum number of database connections to use
    * @return {@link ExecutorService} for the application.
    */
   @Bean
   public ExecutorService executorService(
-      @Value("${" + PROP_EXECUTOR_SERVICE_THREADS + ":80}") Integer threadCount) {
+      @Value("${" + PROP_EXECUTOR_SERVICE_THREADS + ":80}") Integer threadCount,
+      @Value("${" + PROP_EXECUTOR_SERVICE_VIRTUAL_THREADS_ENABLED + ":false}")
+          Boolean virtualThreadsEnabled,
+      @Value("${" + SSM_PATH_DATABASE_MAX_POOL_SIZE + ":-1}") String connectionsMaxText) {
+    if (virtualThreadsEnabled) {
+      return new BoundedVirtualThreadExecutorService(
+          "eob_claims-", DatabaseUtils.computeMaximumPoolSize(connectionsMaxText));
+    }
     return Executors.newFixedThreadPool(
         threadCount,
         r -> {
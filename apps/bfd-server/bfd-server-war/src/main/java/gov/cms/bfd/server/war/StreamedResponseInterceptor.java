@@ -0,0 +1,60 @@
+package gov.cms.bfd.server.war;
+
+import ca.uhn.fhir.interceptor.api.Hook;
+import ca.uhn.fhir.interceptor.api.Interceptor;
+import ca.uhn.fhir.interceptor.api.Pointcut;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import gov.cms.bfd.server.war.commons.StreamingBundleWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stops HAPI from writing a response for requests whose response was already written by a {@link
+ * StreamingBundleWriter}. The search methods that stream their results still have to return a
+ * bundle, which is discarded here.
+ *
+ * <p>A search that fails before anything was streamed is answered with HAPI's usual {@code
+ * OperationOutcome}. Once the status and the first entries have been sent that is no longer
+ * possible, so the error is logged and handed back to the servlet container, which closes the
+ * connection without terminating the response. The client then sees a failed transfer rather than a
+ * complete-looking response with a truncated bundle.
+ */
+@Interceptor
+public class StreamedResponseInterceptor {
+  /** The logger. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamedResponseInterceptor.class);
+
+  /**
+   * Pointcut to skip writing the response if it has already been streamed.
+   *
+   * @param requestDetails the request being answered
+   * @return false to stop HAPI from writing the response, true to let it continue as usual
+   */
+  @Hook(Pointcut.SERVER_OUTGOING_RESPONSE)
+  public boolean serverOutgoingResponse(RequestDetails requestDetails) {
+    return !StreamingBundleWriter.isStreamed(requestDetails);
+  }
+
+  /**
+   * Pointcut to stop HAPI from writing an {@code OperationOutcome} into a response that has already
+   * been partly streamed.
+   *
+   * @param requestDetails the request being answered
+   * @param exception the error the request failed with
+   * @return true to let HAPI write the error response as usual, if nothing was streamed
+   * @throws BaseServerResponseException the given exception, if the response was already streamed
+   */
+  @Hook(Pointcut.SERVER_HANDLE_EXCEPTION)
+  public boolean serverHandleException(
+      RequestDetails requestDetails, BaseServerResponseException exception) {
+    if (!StreamingBundleWriter.isStreamed(requestDetails)) {
+      return true;
+    }
+    LOGGER.error(
+        "Request failed after its response was streamed; closing the connection: {}",
+        requestDetails.getCompleteUrl(),
+        exception);
+    throw exception;
+  }
+}
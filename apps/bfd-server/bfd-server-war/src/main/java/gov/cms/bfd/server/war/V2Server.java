@@ -126,6 +126,9 @@ public class V2Server extends RestfulServer {
     // executed
     registerInterceptor(new TimerInterceptor());
 
+    // Skips the response for searches that have already streamed their results
+    registerInterceptor(new StreamedResponseInterceptor());
+
     // OpenAPI
     OpenApiInterceptor openApiInterceptor = new OpenApiInterceptor();
     registerInterceptor(openApiInterceptor);
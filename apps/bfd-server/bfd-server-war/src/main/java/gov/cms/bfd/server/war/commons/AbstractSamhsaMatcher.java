@@ -1,7 +1,10 @@
 package gov.cms.bfd.server.war.commons;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
 import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
 import gov.cms.bfd.server.war.adapters.CodeableConcept;
 import gov.cms.bfd.server.war.adapters.Coding;
 import gov.cms.bfd.server.war.adapters.DiagnosisComponent;
@@ -9,19 +12,13 @@ import gov.cms.bfd.server.war.adapters.ItemComponent;
 import gov.cms.bfd.server.war.adapters.ProcedureComponent;
 import gov.cms.bfd.server.war.adapters.SupportingInfoComponent;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
 import org.hl7.fhir.exceptions.FHIRException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Common SAMHSA check logic that can be used by all current FHIR resources and resource verions.
@@ -36,8 +33,8 @@ import org.hl7.fhir.exceptions.FHIRException;
  */
 public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
 
-  /** The {@link CSVFormat} used to parse the SAMHSA-related code CSV files. */
-  private static final CSVFormat CSV_FORMAT = CSVFormat.EXCEL.withHeader();
+  /** The logger. */
+  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSamhsaMatcher.class);
 
   /** The DRG CCW codebook url. */
   protected static final String DRG =
@@ -61,42 +58,30 @@ public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
   /** The list of ICD10 Diagnosis codes. */
   private final Set<String> icd10DiagnosisCodes;
 
+  /** Applies the entity level SAMHSA rules using the same codes as this matcher. */
+  private final SamhsaClaimClassifier claimClassifier;
+
   /**
-   * Constructs a new {@link AbstractSamhsaMatcher}, loading the lists of SAMHSA-related codes from
-   * the classpath. The list data is normalized as it is loaded.
+   * Constructs a new {@link AbstractSamhsaMatcher}, using the lists of SAMHSA-related codes loaded
+   * from the classpath by {@link SamhsaCodeSet#getInstance()}.
    */
   protected AbstractSamhsaMatcher() {
-    this.drgCodes =
-        resourceCsvColumnToList("samhsa-related-codes/codes-drg.csv", "MS-DRGs").stream()
-            .map(AbstractSamhsaMatcher::normalizeDrgCode)
-            .collect(Collectors.toUnmodifiableSet());
-    this.cptCodes =
-        resourceCsvColumnToList("samhsa-related-codes/codes-cpt.csv", "CPT Code").stream()
-            .map(AbstractSamhsaMatcher::normalizeHcpcsCode)
-            .collect(Collectors.toUnmodifiableSet());
-    this.icd9ProcedureCodes =
-        resourceCsvColumnToList("samhsa-related-codes/codes-icd-9-procedure.csv", "ICD-9-CM")
-            .stream()
-            .map(AbstractSamhsaMatcher::normalizeIcdCode)
-            .collect(Collectors.toUnmodifiableSet());
-    this.icd9DiagnosisCodes =
-        resourceCsvColumnToList(
-                "samhsa-related-codes/codes-icd-9-diagnosis.csv", "ICD-9-CM Diagnosis Code")
-            .stream()
-            .map(AbstractSamhsaMatcher::normalizeIcdCode)
-            .collect(Collectors.toUnmodifiableSet());
-    this.icd10ProcedureCodes =
-        resourceCsvColumnToList(
-                "samhsa-related-codes/codes-icd-10-procedure.csv", "ICD-10-PCS Code")
-            .stream()
-            .map(AbstractSamhsaMatcher::normalizeIcdCode)
-            .collect(Collectors.toUnmodifiableSet());
-    this.icd10DiagnosisCodes =
-        resourceCsvColumnToList(
-                "samhsa-related-codes/codes-icd-10-diagnosis.csv", "ICD-10-CM Diagnosis Code")
-            .stream()
-            .map(AbstractSamhsaMatcher::normalizeIcdCode)
-            .collect(Collectors.toUnmodifiableSet());
+    this(SamhsaCodeSet.getInstance());
+  }
+
+  /**
+   * Constructs a new {@link AbstractSamhsaMatcher} using the given SAMHSA-related codes.
+   *
+   * @param codeSet the SAMHSA-related codes
+   */
+  private AbstractSamhsaMatcher(SamhsaCodeSet codeSet) {
+    this(
+        codeSet.getCptCodes(),
+        codeSet.getDrgCodes(),
+        codeSet.getIcd9ProcedureCodes(),
+        codeSet.getIcd9DiagnosisCodes(),
+        codeSet.getIcd10ProcedureCodes(),
+        codeSet.getIcd10DiagnosisCodes());
   }
 
   /**
@@ -122,6 +107,15 @@ public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
     this.icd9DiagnosisCodes = icd9DiagnosisCodes;
     this.icd10ProcedureCodes = icd10ProcedureCodes;
     this.icd10DiagnosisCodes = icd10DiagnosisCodes;
+    this.claimClassifier =
+        new SamhsaClaimClassifier(
+            new SamhsaCodeSet(
+                drgCodes,
+                cptCodes,
+                icd9ProcedureCodes,
+                icd9DiagnosisCodes,
+                icd10ProcedureCodes,
+                icd10DiagnosisCodes));
   }
 
   /**
@@ -134,16 +128,7 @@ public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
   @VisibleForTesting
   public static List<String> resourceCsvColumnToList(
       String csvResourceName, String columnToReturn) {
-    try (InputStream csvStream =
-            Thread.currentThread().getContextClassLoader().getResourceAsStream(csvResourceName);
-        InputStreamReader csvReader = new InputStreamReader(csvStream, StandardCharsets.UTF_8);
-        CSVParser csvParser = new CSVParser(csvReader, CSV_FORMAT)) {
-      List<String> columnValues = new ArrayList<>();
-      csvParser.forEach(r -> columnValues.add(r.get(columnToReturn)));
-      return columnValues;
-    } catch (IOException e) {
-      throw new UncheckedIOException(e);
-    }
+    return SamhsaCodeSet.resourceCsvColumnToList(csvResourceName, columnToReturn);
   }
 
   /**
@@ -475,6 +460,64 @@ public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
     return coding.getCode() != null && cptCodes.contains(normalizeHcpcsCode(coding.getCode()));
   }
 
+  /**
+   * Checks if the given claim entity is SAMHSA-related. A SAMHSA flag stored by the pipeline with
+   * the current {@link SamhsaCodeSet#CODE_LIST_VERSION} was computed by the same {@link
+   * SamhsaClaimClassifier} from the same codes, so it is used as is. Claims whose flag is missing
+   * or stale are checked with the {@link SamhsaClaimClassifier} instead.
+   *
+   * @param claimEntity the claim entity to check
+   * @param currentSamhsaFlag the entity's stored SAMHSA flag if it was computed with the current
+   *     {@link SamhsaCodeSet#CODE_LIST_VERSION}, otherwise empty
+   * @return <code>true</code> if the claim entity is SAMHSA-related, <code>false</code> otherwise
+   */
+  protected boolean isSamhsaClaimEntity(Object claimEntity, Optional<Boolean> currentSamhsaFlag) {
+    return currentSamhsaFlag.orElseGet(() -> claimClassifier.isSamhsaClaim(claimEntity));
+  }
+
+  /**
+   * Records the outcome of a SAMHSA parity check, which compares the result of screening a claim
+   * entity with the result of testing the FHIR resource transformed from it. Every comparison is
+   * counted, and any disagreement is logged and counted separately so that it can be alerted on.
+   *
+   * @param metricRegistry the {@link MetricRegistry} to record the comparison in
+   * @param claimTypeLabel a label for the type of claim that was checked
+   * @param claimId the id of the claim that was checked, used when logging a disagreement
+   * @param entityResult the result of the entity matcher
+   * @param resourceResult the result of the FHIR resource matcher
+   */
+  public static void recordParityCheck(
+      MetricRegistry metricRegistry,
+      String claimTypeLabel,
+      Object claimId,
+      boolean entityResult,
+      boolean resourceResult) {
+    metricRegistry.counter(parityMetricName(claimTypeLabel, "checked")).inc();
+
+    if (entityResult != resourceResult) {
+      metricRegistry.counter(parityMetricName(claimTypeLabel, "mismatch")).inc();
+      LOGGER.warn(
+          "SAMHSA matcher disagreement for {} claim {}: entity={}, resource={}",
+          claimTypeLabel,
+          claimId,
+          entityResult,
+          resourceResult);
+    }
+  }
+
+  /**
+   * Creates the name of a SAMHSA parity check counter.
+   *
+   * @param claimTypeLabel a label for the type of claim that was checked
+   * @param countType the kind of comparisons being counted
+   * @return the metric name
+   */
+  @VisibleForTesting
+  static String parityMetricName(String claimTypeLabel, String countType) {
+    return MetricRegistry.name(
+        AbstractSamhsaMatcher.class.getSimpleName(), "parity", claimTypeLabel, countType);
+  }
+
   /**
    * Checks if the given {@link CodeableConcept} contains SAMHSA diagnosis data.
    *
@@ -593,9 +636,7 @@ public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
    */
   @VisibleForTesting
   public static String normalizeDrgCode(String code) {
-    code = code.trim();
-    code = code.replace("MS-DRG ", "");
-    return code;
+    return SamhsaCodeSet.normalizeDrgCode(code);
   }
 
   /**
@@ -607,11 +648,7 @@ public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
    */
   @VisibleForTesting
   public static String normalizeIcdCode(String icdCode) {
-    icdCode = icdCode.trim();
-    icdCode = icdCode.replaceFirst("\\.", "");
-    icdCode = icdCode.toUpperCase();
-
-    return icdCode;
+    return SamhsaCodeSet.normalizeIcdCode(icdCode);
   }
 
   /**
@@ -622,9 +659,6 @@ public abstract class AbstractSamhsaMatcher<T> implements Predicate<T> {
    */
   @VisibleForTesting
   public static String normalizeHcpcsCode(String hcpcsCode) {
-    hcpcsCode = hcpcsCode.trim();
-    hcpcsCode = hcpcsCode.toUpperCase();
-
-    return hcpcsCode;
+    return SamhsaCodeSet.normalizeHcpcsCode(hcpcsCode);
   }
 }
@@ -40,55 +40,79 @@ public enum ClaimType {
       CarrierClaim.class,
       CarrierClaim_.claimId,
       CarrierClaim_.beneficiaryId,
+      (entity) -> ((CarrierClaim) entity).getClaimId(),
+      (entity) -> ((CarrierClaim) entity).getBeneficiaryId(),
       (entity) -> ((CarrierClaim) entity).getDateThrough(),
+      CarrierClaim_.dateThrough,
       CarrierClaim_.lines),
   /** Represents the DME claim type. */
   DME(
       DMEClaim.class,
       DMEClaim_.claimId,
       DMEClaim_.beneficiaryId,
+      (entity) -> ((DMEClaim) entity).getClaimId(),
+      (entity) -> ((DMEClaim) entity).getBeneficiaryId(),
       (entity) -> ((DMEClaim) entity).getDateThrough(),
+      DMEClaim_.dateThrough,
       DMEClaim_.lines),
   /** Represents the hha claim type. */
   HHA(
       HHAClaim.class,
       HHAClaim_.claimId,
       HHAClaim_.beneficiaryId,
+      (entity) -> ((HHAClaim) entity).getClaimId(),
+      (entity) -> ((HHAClaim) entity).getBeneficiaryId(),
       (entity) -> ((HHAClaim) entity).getDateThrough(),
+      HHAClaim_.dateThrough,
       HHAClaim_.lines),
   /** Represents the hospice claim type. */
   HOSPICE(
       HospiceClaim.class,
       HospiceClaim_.claimId,
       HospiceClaim_.beneficiaryId,
+      (entity) -> ((HospiceClaim) entity).getClaimId(),
+      (entity) -> ((HospiceClaim) entity).getBeneficiaryId(),
       (entity) -> ((HospiceClaim) entity).getDateThrough(),
+      HospiceClaim_.dateThrough,
       HospiceClaim_.lines),
   /** Represents the inpatient claim type. */
   INPATIENT(
       InpatientClaim.class,
       InpatientClaim_.claimId,
       InpatientClaim_.beneficiaryId,
+      (entity) -> ((InpatientClaim) entity).getClaimId(),
+      (entity) -> ((InpatientClaim) entity).getBeneficiaryId(),
       (entity) -> ((InpatientClaim) entity).getDateThrough(),
+      InpatientClaim_.dateThrough,
       InpatientClaim_.lines),
   /** Represents the outpatient claim type. */
   OUTPATIENT(
       OutpatientClaim.class,
       OutpatientClaim_.claimId,
       OutpatientClaim_.beneficiaryId,
+      (entity) -> ((OutpatientClaim) entity).getClaimId(),
+      (entity) -> ((OutpatientClaim) entity).getBeneficiaryId(),
       (entity) -> ((OutpatientClaim) entity).getDateThrough(),
+      OutpatientClaim_.dateThrough,
       OutpatientClaim_.lines),
   /** Represents the PDE claim type. */
   PDE(
       PartDEvent.class,
       PartDEvent_.eventId,
       PartDEvent_.beneficiaryId,
-      (entity) -> ((PartDEvent) entity).getPrescriptionFillDate()),
+      (entity) -> ((PartDEvent) entity).getEventId(),
+      (entity) -> ((PartDEvent) entity).getBeneficiaryId(),
+      (entity) -> ((PartDEvent) entity).getPrescriptionFillDate(),
+      PartDEvent_.prescriptionFillDate),
   /** Represents the SNF claim type. */
   SNF(
       SNFClaim.class,
       SNFClaim_.claimId,
       SNFClaim_.beneficiaryId,
+      (entity) -> ((SNFClaim) entity).getClaimId(),
+      (entity) -> ((SNFClaim) entity).getBeneficiaryId(),
       (entity) -> ((SNFClaim) entity).getDateThrough(),
+      SNFClaim_.dateThrough,
       SNFClaim_.lines);
 
   /** The entity class. */
@@ -100,9 +124,18 @@ public enum ClaimType {
   /** The entity beneficiary id attribute. */
   private final SingularAttribute<?, Long> entityBeneficiaryIdAttribute;
 
+  /** The entity id function. */
+  private final Function<Object, Long> entityIdFunction;
+
+  /** The entity beneficiary id function. */
+  private final Function<Object, Long> entityBeneficiaryIdFunction;
+
   /** The service end attribute function. */
   private final Function<Object, LocalDate> serviceEndAttributeFunction;
 
+  /** The service end attribute. */
+  private final SingularAttribute<?, LocalDate> serviceEndAttribute;
+
   /** The entity lazy attributes. */
   private final Collection<PluralAttribute<?, ?, ?>> entityLazyAttributes;
 
@@ -113,19 +146,29 @@ public enum ClaimType {
    * @param entityIdAttribute the value to use for {@link #getEntityIdAttribute()}
    * @param entityBeneficiaryIdAttribute the value to use for {@link
    *     #getEntityBeneficiaryIdAttribute()}
+   * @param entityIdFunction the value to use for {@link #getEntityIdFunction()}
+   * @param entityBeneficiaryIdFunction the value to use for {@link
+   *     #getEntityBeneficiaryIdFunction()}
    * @param serviceEndAttributeFunction the service end attribute function
+   * @param serviceEndAttribute the value to use for {@link #getServiceEndAttribute()}
    * @param entityLazyAttributes the value to use for {@link #getEntityLazyAttributes()}
    */
   ClaimType(
       Class<?> entityClass,
       SingularAttribute<?, Long> entityIdAttribute,
       SingularAttribute<?, Long> entityBeneficiaryIdAttribute,
+      Function<Object, Long> entityIdFunction,
+      Function<Object, Long> entityBeneficiaryIdFunction,
       Function<Object, LocalDate> serviceEndAttributeFunction,
+      SingularAttribute<?, LocalDate> serviceEndAttribute,
       PluralAttribute<?, ?, ?>... entityLazyAttributes) {
     this.entityClass = entityClass;
     this.entityIdAttribute = entityIdAttribute;
     this.entityBeneficiaryIdAttribute = entityBeneficiaryIdAttribute;
+    this.entityIdFunction = entityIdFunction;
+    this.entityBeneficiaryIdFunction = entityBeneficiaryIdFunction;
     this.serviceEndAttributeFunction = serviceEndAttributeFunction;
+    this.serviceEndAttribute = serviceEndAttribute;
     this.entityLazyAttributes =
         entityLazyAttributes != null
             ? Collections.unmodifiableCollection(Arrays.asList(entityLazyAttributes))
@@ -161,6 +204,25 @@ public enum ClaimType {
     return entityBeneficiaryIdAttribute;
   }
 
+  /**
+   * Gets the {@link #entityIdFunction}.
+   *
+   * @return the {@link Function} to use to retrieve the {@link Id} of an entity of this type
+   */
+  public Function<Object, Long> getEntityIdFunction() {
+    return entityIdFunction;
+  }
+
+  /**
+   * Gets the {@link #entityBeneficiaryIdFunction}.
+   *
+   * @return the {@link Function} to use to retrieve the {@link Beneficiary#getBeneficiaryId()} that
+   *     an entity of this type references
+   */
+  public Function<Object, Long> getEntityBeneficiaryIdFunction() {
+    return entityBeneficiaryIdFunction;
+  }
+
   /**
    * Gets the {@link #serviceEndAttributeFunction}.
    *
@@ -171,6 +233,16 @@ public enum ClaimType {
     return serviceEndAttributeFunction;
   }
 
+  /**
+   * Gets the {@link #serviceEndAttribute}.
+   *
+   * @return the JPA {@link Entity} field that holds the {@link LocalDate} to use for service date
+   *     filters applied by the database
+   */
+  public SingularAttribute<?, LocalDate> getServiceEndAttribute() {
+    return serviceEndAttribute;
+  }
+
   /**
    * Gets the {@link #entityLazyAttributes}.
    *
@@ -9,6 +9,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
 import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
+import gov.cms.bfd.model.codebook.model.CodebookValueIndex;
 import gov.cms.bfd.model.codebook.model.Value;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
@@ -29,14 +30,12 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -457,7 +456,8 @@ public final class CommonTransformerUtils {
     if (rootResource == null || ccwVariable == null || code == null) {
       throw new IllegalArgumentException();
     }
-    if (!ccwVariable.getVariable().getValueGroups().isPresent()) {
+    final CodebookValueIndex valueIndex = ccwVariable.getValueIndex();
+    if (!valueIndex.isCoded()) {
       throw new BadCodeMonkeyException("No display values for Variable: " + ccwVariable);
     }
     /*
@@ -467,15 +467,12 @@ public final class CommonTransformerUtils {
      * The log event will at least allow for further investigation, if warranted.
      * Also, there's a chance that the CCW Variable data itself is messy, and
      * that the Coding's code matches more than one value -- log those events too.
+     * The index is built once per variable so none of these cases scan its values.
      */
-    List<Value> matchingVariableValues =
-        ccwVariable.getVariable().getValueGroups().get().stream()
-            .flatMap(g -> g.getValues().stream())
-            .filter(v -> v.getCode().equals(code))
-            .collect(Collectors.toList());
-    if (matchingVariableValues.size() == 1) {
-      return Optional.of(matchingVariableValues.get(0).getDescription());
-    } else if (matchingVariableValues.isEmpty()) {
+    final Optional<String> description = valueIndex.getDescription(code);
+    if (description.isPresent()) {
+      return description;
+    } else if (!valueIndex.isDuplicate(code)) {
       if (!codebookLookupMissingFailures.contains(ccwVariable)) {
         codebookLookupMissingFailures.add(ccwVariable);
         /*if (ccwVariable instanceof CcwCodebookVariable) {
@@ -495,7 +492,7 @@ public final class CommonTransformerUtils {
         }*/
       }
       return Optional.empty();
-    } else if (matchingVariableValues.size() > 1) {
+    } else {
       if (!codebookLookupDuplicateFailures.contains(ccwVariable)) {
         // Note: The race condition here (from concurrent requests) is harmless.
         codebookLookupDuplicateFailures.add(ccwVariable);
@@ -516,8 +513,6 @@ public final class CommonTransformerUtils {
         }*/
       }
       return Optional.empty();
-    } else {
-      throw new BadCodeMonkeyException();
     }
   }
 
@@ -111,6 +111,17 @@ public abstract class IcdCode {
    * @return the fhir coding system value
    */
   public String getFhirSystem() {
+    return getFhirSystem(icdVersionCode);
+  }
+
+  /**
+   * Gets the the <a href= "https://www.hl7.org/fhir/terminologies-systems.html"> FHIR Coding
+   * system</a> value for the specified ICD version code, as used by {@link #getFhirSystem()}.
+   *
+   * @param icdVersionCode the ICD version code, or <code>null</code> if none was provided
+   * @return the fhir coding system value
+   */
+  public static String getFhirSystem(Character icdVersionCode) {
     String system;
     if (icdVersionCode == null || icdVersionCode.equals('9')) system = CODING_SYSTEM_ICD_9;
     else if (icdVersionCode.equals('0')) system = CODING_SYSTEM_ICD_10;
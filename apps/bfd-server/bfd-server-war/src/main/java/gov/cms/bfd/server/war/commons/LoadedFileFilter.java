@@ -3,6 +3,7 @@ package gov.cms.bfd.server.war.commons;
 import ca.uhn.fhir.rest.param.DateParam;
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,8 +17,12 @@ import org.apache.spark.util.sketch.BloomFilter;
 @Getter
 @AllArgsConstructor
 public class LoadedFileFilter {
-  /** False positive percentage value used in creating the bloom filter. */
-  public static final double FALSE_POSITIVE_PERCENTAGE = 0.01;
+  /**
+   * False positive percentage value used in creating the bloom filter. Matches the filters saved by
+   * the pipeline.
+   */
+  public static final double FALSE_POSITIVE_PERCENTAGE =
+      LoadedFileBloomFilter.FALSE_POSITIVE_PROBABILITY;
 
   /** The entry of the LoadedFiles table. */
   private final long loadedFileId;
@@ -1,11 +1,20 @@
 package gov.cms.bfd.server.war.commons;
 
+import ca.uhn.fhir.rest.param.DateParam;
 import ca.uhn.fhir.rest.param.DateRangeParam;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import gov.cms.bfd.model.rif.LoadedBatch;
 import gov.cms.bfd.model.rif.LoadedFile;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -19,14 +28,26 @@ import javax.persistence.criteria.Root;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.apache.spark.util.sketch.BloomFilter;
+import org.hibernate.jpa.QueryHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
  * Monitors the loaded files and their associated batches in the database. Creates Bloom filters to
  * match these files.
+ *
+ * <p>The filters and timestamps are published together as an immutable snapshot through a volatile
+ * field. Request threads read whatever snapshot is current without locking, and {@link
+ * #refreshFilters} builds a complete new snapshot before swapping it in, so a refresh never blocks
+ * a request. Only the methods that replace the snapshot synchronize, and only with each other.
+ *
+ * <p>The pipeline saves the filter of every file it finishes loading as a {@link
+ * LoadedFileBloomFilter}. A refresh reads those saved filters directly and only builds filters from
+ * the {@link LoadedBatch} rows of files that are still being loaded or were loaded before filters
+ * were saved.
  */
 @Component
 public class LoadedFilterManager {
@@ -35,20 +56,30 @@ public class LoadedFilterManager {
   /** A date before the lastUpdate feature was rolled out. */
   private static final Instant BEFORE_LAST_UPDATED_FEATURE = Instant.parse("2020-01-01T00:00:00Z");
 
-  /** The connection to the DB. */
-  private EntityManager entityManager;
+  /** Name of the timer for the first refresh, which loads the filters of every retained file. */
+  public static final String INITIAL_REFRESH_TIMER_NAME =
+      MetricRegistry.name(LoadedFilterManager.class.getSimpleName(), "refreshFilters", "initial");
 
-  /** The filter set. */
-  @Getter private List<LoadedFileFilter> filters;
+  /** Name of the meter for filters read from their saved form. */
+  public static final String SAVED_FILTERS_METER_NAME =
+      MetricRegistry.name(LoadedFilterManager.class.getSimpleName(), "filters", "saved");
 
-  /** The latest transaction time from the LoadedBatch files. */
-  private Instant transactionTime;
+  /** Name of the meter for filters built from their batches because none was saved in time. */
+  public static final String BUILT_FILTERS_METER_NAME =
+      MetricRegistry.name(LoadedFilterManager.class.getSimpleName(), "filters", "built");
 
-  /** The last LoadedBatch.created in the filter set. */
-  private Instant lastBatchCreated;
+  /** Name of the meter for filters built from their batches because their saved form was bad. */
+  public static final String REBUILT_FILTERS_METER_NAME =
+      MetricRegistry.name(LoadedFilterManager.class.getSimpleName(), "filters", "rebuilt");
 
-  /** The first LoadedBatch.created in the filter set. */
-  private Instant firstBatchCreated;
+  /** The metric registry. */
+  private final MetricRegistry metricRegistry;
+
+  /** The connection to the DB. */
+  private EntityManager entityManager;
+
+  /** The current filters and timestamps. Replaced, never modified, by each refresh. */
+  private volatile Snapshot snapshot = Snapshot.EMPTY;
 
   /**
    * A tuple of values: LoadedFile.loadedFileid, LoadedFile.created, max(LoadedBatch.created). Used
@@ -67,9 +98,172 @@ public class LoadedFilterManager {
     private Instant lastUpdated;
   }
 
-  /** Create a manager for {@link LoadedFileFilter}s. */
+  /**
+   * An immutable set of filters and the timestamps that describe them. Besides the filters in their
+   * published order, it holds them sorted in ascending order by {@code firstUpdated} along with the
+   * running maximum of their {@code lastUpdated}. A binary search on the first array finds the last
+   * filter that starts before a range ends and the running maximum tells when no earlier filter can
+   * end after the range starts, so a lookup only visits the filters near the requested range no
+   * matter how many files are retained.
+   */
+  private static final class Snapshot {
+    /** The snapshot used before the first refresh. */
+    private static final Snapshot EMPTY = new Snapshot(List.of(), null, null, null);
+
+    /** The filters, sorted in descending order by firstUpdated. */
+    private final List<LoadedFileFilter> filters;
+
+    /** The filters, sorted in ascending order by firstUpdated. */
+    private final LoadedFileFilter[] byFirstUpdated;
+
+    /** The firstUpdated of each filter in {@link #byFirstUpdated}. */
+    private final Instant[] firstUpdated;
+
+    /** The greatest lastUpdated of the filters in {@link #byFirstUpdated} up to each index. */
+    private final Instant[] maxLastUpdated;
+
+    /** The first LoadedBatch.created in the filter set. */
+    private final Instant firstBatchCreated;
+
+    /** The last LoadedBatch.created in the filter set. */
+    private final Instant lastBatchCreated;
+
+    /** The latest transaction time from the LoadedBatch files. */
+    private final Instant transactionTime;
+
+    /**
+     * Creates a snapshot and its index.
+     *
+     * @param filters the filters, sorted in descending order by firstUpdated
+     * @param firstBatchCreated the first batch created
+     * @param lastBatchCreated the last batch created
+     * @param transactionTime the latest transaction time
+     */
+    private Snapshot(
+        List<LoadedFileFilter> filters,
+        Instant firstBatchCreated,
+        Instant lastBatchCreated,
+        Instant transactionTime) {
+      this.filters = List.copyOf(filters);
+      this.firstBatchCreated = firstBatchCreated;
+      this.lastBatchCreated = lastBatchCreated;
+      this.transactionTime = transactionTime;
+      byFirstUpdated = this.filters.toArray(new LoadedFileFilter[0]);
+      Arrays.sort(byFirstUpdated, Comparator.comparing(LoadedFileFilter::getFirstUpdated));
+      firstUpdated = new Instant[byFirstUpdated.length];
+      maxLastUpdated = new Instant[byFirstUpdated.length];
+      for (int i = 0; i < byFirstUpdated.length; ++i) {
+        firstUpdated[i] = byFirstUpdated[i].getFirstUpdated();
+        final Instant lastUpdated = byFirstUpdated[i].getLastUpdated();
+        maxLastUpdated[i] =
+            i > 0 && maxLastUpdated[i - 1].isAfter(lastUpdated)
+                ? maxLastUpdated[i - 1]
+                : lastUpdated;
+      }
+    }
+
+    /**
+     * Test the passed in range against the range of information in this snapshot.
+     *
+     * @param range to test against
+     * @return true iff the range is within the bounds of the filters
+     */
+    private boolean isInBounds(DateRangeParam range) {
+      if (range == null || filters.isEmpty()) return false;
+      if (firstBatchCreated == null) {
+        throw new RuntimeException("LoadedFilterManager has not been refreshed.");
+      }
+
+      // The manager has a "known" interval which it has information about. The known range
+      // is from the firstFilterUpdate to the future.
+      final Instant lowerBound =
+          range.getLowerBoundAsInstant() != null
+              ? range.getLowerBoundAsInstant().toInstant()
+              : null;
+      return lowerBound != null && lowerBound.toEpochMilli() >= firstBatchCreated.toEpochMilli();
+    }
+
+    /**
+     * Tests whether no filter whose time span overlaps the range might contain the beneficiary.
+     *
+     * <p>The search is bounded with the raw values of the range's bounds, which are never narrower
+     * than the span {@link LoadedFileFilter#matchesDateRange} accepts, and every candidate is still
+     * checked with that method.
+     *
+     * @param beneficiaryId to test
+     * @param range to test
+     * @return true if no matching filter might contain the beneficiary
+     */
+    private boolean noneMightContain(long beneficiaryId, DateRangeParam range) {
+      final Instant upper = boundValue(range.getUpperBound());
+      final Instant lower = boundValue(range.getLowerBound());
+      final int end = upper == null ? byFirstUpdated.length : countStartingAtOrBefore(upper);
+      for (int i = end - 1; i >= 0; --i) {
+        if (lower != null && maxLastUpdated[i].isBefore(lower)) {
+          // no filter at or before this index ends inside the range
+          return true;
+        }
+        final LoadedFileFilter filter = byFirstUpdated[i];
+        if (filter.matchesDateRange(range) && filter.mightContain(beneficiaryId)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Counts the filters whose firstUpdated is at or before a time using a binary search.
+     *
+     * @param time to compare
+     * @return the number of leading filters in {@link #byFirstUpdated} that start at or before time
+     */
+    private int countStartingAtOrBefore(Instant time) {
+      int low = 0;
+      int high = firstUpdated.length;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (firstUpdated[mid].isAfter(time)) {
+          high = mid;
+        } else {
+          low = mid + 1;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * Gets the raw value of a range bound.
+     *
+     * @param bound the bound, possibly null
+     * @return the value of the bound or null if it has none
+     */
+    private static Instant boundValue(DateParam bound) {
+      return bound != null && bound.getValue() != null ? bound.getValue().toInstant() : null;
+    }
+  }
+
+  /** Create a manager for {@link LoadedFileFilter}s that records metrics in its own registry. */
   public LoadedFilterManager() {
-    this.filters = new ArrayList<>();
+    this(new MetricRegistry());
+  }
+
+  /**
+   * Create a manager for {@link LoadedFileFilter}s.
+   *
+   * @param metricRegistry the metric registry
+   */
+  @Autowired
+  public LoadedFilterManager(MetricRegistry metricRegistry) {
+    this.metricRegistry = metricRegistry;
+  }
+
+  /**
+   * The filter set, sorted in descending order by {@code firstUpdated}.
+   *
+   * @return the current filters
+   */
+  public List<LoadedFileFilter> getFilters() {
+    return snapshot.filters;
   }
 
   /**
@@ -78,6 +272,7 @@ public class LoadedFilterManager {
    * @return the last batch's created timestamp
    */
   public Instant getTransactionTime() {
+    final Instant transactionTime = snapshot.transactionTime;
     if (transactionTime == null) {
       throw new RuntimeException("LoadedFilterManager has not been initialized.");
     }
@@ -90,6 +285,7 @@ public class LoadedFilterManager {
    * @return the first batch's created timestamp
    */
   public Instant getLastBatchCreated() {
+    final Instant lastBatchCreated = snapshot.lastBatchCreated;
     if (lastBatchCreated == null) {
       throw new RuntimeException("LoadedFilterManager has not been refreshed.");
     }
@@ -102,6 +298,7 @@ public class LoadedFilterManager {
    * @return the first batch's created timestamp
    */
   public Instant getFirstBatchCreated() {
+    final Instant firstBatchCreated = snapshot.firstBatchCreated;
     if (firstBatchCreated == null) {
       throw new RuntimeException("LoadedFilterManager has not been refreshed.");
     }
@@ -122,7 +319,12 @@ public class LoadedFilterManager {
   @PostConstruct
   public synchronized void init() {
     // The transaction time will either the last LoadedBatch or some earlier time
-    transactionTime = fetchLastLoadedBatchCreated().orElse(BEFORE_LAST_UPDATED_FEATURE);
+    final Instant transactionTime =
+        fetchLastLoadedBatchCreated().orElse(BEFORE_LAST_UPDATED_FEATURE);
+    final Snapshot current = snapshot;
+    snapshot =
+        new Snapshot(
+            current.filters, current.firstBatchCreated, current.lastBatchCreated, transactionTime);
   }
 
   /**
@@ -135,34 +337,21 @@ public class LoadedFilterManager {
    * @param lastUpdatedRange to test
    * @return true if the results set is empty. false if the result set *may* contain items.
    */
-  public synchronized boolean isResultSetEmpty(
-      Long beneficiaryId, DateRangeParam lastUpdatedRange) {
+  public boolean isResultSetEmpty(Long beneficiaryId, DateRangeParam lastUpdatedRange) {
     if (beneficiaryId == null) {
       // This case should not happen and be caught/validated before this, therefore if we get here
       // it is a code error
       throw new IllegalArgumentException("Beneficiary id cannot be null/empty");
     }
 
-    if (!isInBounds(lastUpdatedRange)) {
+    final Snapshot current = snapshot;
+    if (!current.isInBounds(lastUpdatedRange)) {
       // Out of bounds has to be treated as unknown result
       return false;
     }
 
     // Within the known interval that search for matching filters
-    for (LoadedFileFilter filter : filters) {
-      if (filter.matchesDateRange(lastUpdatedRange)) {
-        if (filter.mightContain(beneficiaryId)) {
-          return false;
-        }
-      } else if (filter
-          .getLastUpdated()
-          .isBefore(lastUpdatedRange.getLowerBoundAsInstant().toInstant())) {
-        // filters are sorted in descending by lastUpdated time, so we can exit early from this
-        // loop
-        return true;
-      }
-    }
-    return true;
+    return current.noneMightContain(beneficiaryId, lastUpdatedRange);
   }
 
   /**
@@ -174,24 +363,19 @@ public class LoadedFilterManager {
    * @param range to test against
    * @return true iff the range is within the bounds of the filters
    */
-  public synchronized boolean isInBounds(DateRangeParam range) {
-    if (range == null || getFilters().size() == 0) return false;
-
-    // The manager has a "known" interval which it has information about. The known range
-    // is from the firstFilterUpdate to the future.
-    final Instant lowerBound =
-        range.getLowerBoundAsInstant() != null ? range.getLowerBoundAsInstant().toInstant() : null;
-    return lowerBound != null && lowerBound.toEpochMilli() >= getFirstBatchCreated().toEpochMilli();
+  public boolean isInBounds(DateRangeParam range) {
+    return snapshot.isInBounds(range);
   }
 
   /**
    * Called periodically to build and refresh the filters list from the entityManager.
    *
-   * <p>The {@link #lastBatchCreated} and {@link #firstBatchCreated} fields are updated by this
-   * call.
+   * <p>The {@link Snapshot#lastBatchCreated} and {@link Snapshot#firstBatchCreated} fields are
+   * updated by this call. The time taken by the first refresh, which loads the filters of every
+   * retained file, is recorded by the {@link #INITIAL_REFRESH_TIMER_NAME} timer.
    */
   @Scheduled(fixedDelay = 1000, initialDelay = 2000)
-  public void refreshFilters() {
+  public synchronized void refreshFilters() {
     /*
      * Dev note: the pipeline has a process to trim the files list. Nevertheless, building a set of
      * bloom filters may take a while. This method is expected to be called on it's own thread by
@@ -202,27 +386,35 @@ public class LoadedFilterManager {
      * millisecond.
      */
     try {
+      final Snapshot current = snapshot;
+
       // If new batches are present, then build new filters for the affected files
       final Instant currentLastBatchCreated =
           fetchLastLoadedBatchCreated().orElse(BEFORE_LAST_UPDATED_FEATURE);
 
-      if (this.lastBatchCreated == null
-          || this.lastBatchCreated.isBefore(currentLastBatchCreated)) {
+      if (current.lastBatchCreated == null
+          || current.lastBatchCreated.isBefore(currentLastBatchCreated)) {
+        final Timer.Context initialTimer =
+            current.lastBatchCreated == null
+                ? metricRegistry.timer(INITIAL_REFRESH_TIMER_NAME).time()
+                : null;
         LOGGER.info(
             "Refreshing LoadedFile filters with new filters from {} to {}",
-            lastBatchCreated,
+            current.lastBatchCreated,
             currentLastBatchCreated);
 
-        List<LoadedTuple> loadedTuples = fetchLoadedTuples(this.lastBatchCreated);
-        List<LoadedFileFilter> newFilters =
-            updateFilters(this.filters, loadedTuples, this::fetchLoadedBatches);
+        List<LoadedTuple> loadedTuples = fetchLoadedTuples(current.lastBatchCreated);
+        Map<Long, LoadedFileBloomFilter> savedFilters = fetchSavedFilters(loadedTuples);
+        List<LoadedFileFilter> builtFilters =
+            buildFilters(loadedTuples, savedFilters, this::fetchLoadedBatches, metricRegistry);
+        List<LoadedFileFilter> newFilters = mergeFilters(current.filters, builtFilters);
 
         // If batches been trimmed, then remove filters which are no longer present
         final Instant currentFirstBatchUpdate =
             fetchFirstLoadedBatchCreated().orElse(BEFORE_LAST_UPDATED_FEATURE);
 
-        if (this.firstBatchCreated == null
-            || this.firstBatchCreated.isBefore(currentFirstBatchUpdate)) {
+        if (current.firstBatchCreated == null
+            || current.firstBatchCreated.isBefore(currentFirstBatchUpdate)) {
           LOGGER.info("Trimmed LoadedFile filters before {}", currentFirstBatchUpdate);
           List<LoadedFile> loadedFiles = fetchLoadedFiles();
           newFilters = trimFilters(newFilters, loadedFiles);
@@ -234,6 +426,16 @@ public class LoadedFilterManager {
             currentLastBatchCreated);
 
         set(newFilters, currentFirstBatchUpdate, currentLastBatchCreated);
+        if (initialTimer != null) {
+          final long nanos = initialTimer.stop();
+          LOGGER.info(
+              "Loaded {} initial LoadedFile filters in {} ms ({} saved, {} built, {} rebuilt)",
+              builtFilters.size(),
+              nanos / 1_000_000,
+              metricRegistry.meter(SAVED_FILTERS_METER_NAME).getCount(),
+              metricRegistry.meter(BUILT_FILTERS_METER_NAME).getCount(),
+              metricRegistry.meter(REBUILT_FILTERS_METER_NAME).getCount());
+        }
       }
     } catch (Throwable ex) {
       LOGGER.error("Error found refreshing LoadedFile filters", ex);
@@ -241,31 +443,30 @@ public class LoadedFilterManager {
   }
 
   /**
-   * Set the current state in consistent fashion.
+   * Set the current state in consistent fashion. Readers see either the previous state or all of
+   * the new state, never a mix of the two.
    *
-   * @param filters the filters
+   * @param filters the filters, sorted in descending order by {@code firstUpdated}
    * @param firstBatchCreated the first batch created
    * @param lastBatchCreated the last batch created
    */
   public synchronized void set(
       List<LoadedFileFilter> filters, Instant firstBatchCreated, Instant lastBatchCreated) {
-    this.filters = filters;
-    this.firstBatchCreated = firstBatchCreated;
-    this.lastBatchCreated = lastBatchCreated;
-    this.transactionTime = lastBatchCreated;
+    snapshot = new Snapshot(filters, firstBatchCreated, lastBatchCreated, lastBatchCreated);
   }
 
   /** {@inheritDoc} */
   @Override
   public String toString() {
+    final Snapshot current = snapshot;
     return "LoadedFilterManager [filters.size="
-        + (filters != null ? String.valueOf(filters.size()) : "null")
+        + current.filters.size()
         + ", transactionTime="
-        + transactionTime
+        + current.transactionTime
         + ", firstBatchCreated="
-        + firstBatchCreated
+        + current.firstBatchCreated
         + ", lastBatchCreated="
-        + lastBatchCreated
+        + current.lastBatchCreated
         + "]";
   }
 
@@ -291,8 +492,20 @@ public class LoadedFilterManager {
       List<LoadedFileFilter> existingFilters,
       List<LoadedTuple> loadedTuples,
       Function<Long, List<LoadedBatch>> fetchById) {
+    return mergeFilters(existingFilters, buildFilters(loadedTuples, fetchById));
+  }
+
+  /**
+   * Create an updated {@link LoadedFileFilter} list from existing filters and newly built filters.
+   * A new filter replaces any existing filter for the same file.
+   *
+   * @param existingFilters that should be included
+   * @param newFilters that were built from new LoadedBatch
+   * @return a new filter list
+   */
+  public static List<LoadedFileFilter> mergeFilters(
+      List<LoadedFileFilter> existingFilters, List<LoadedFileFilter> newFilters) {
     List<LoadedFileFilter> result = new ArrayList<>(existingFilters);
-    List<LoadedFileFilter> newFilters = buildFilters(loadedTuples, fetchById);
     newFilters.forEach(
         filter -> {
           result.removeIf(f -> f.getLoadedFileId() == filter.getLoadedFileId());
@@ -311,11 +524,83 @@ public class LoadedFilterManager {
    */
   public static List<LoadedFileFilter> buildFilters(
       List<LoadedTuple> loadedTuples, Function<Long, List<LoadedBatch>> fetchById) {
+    return buildFilters(loadedTuples, Map.of(), fetchById, new MetricRegistry());
+  }
+
+  /**
+   * Build a new {@link LoadedFileFilter} list, using the saved filter of a file when it covers
+   * every batch of the file and building the filter from the file's batches otherwise.
+   *
+   * @param loadedTuples that come from new LoadedBatch
+   * @param savedFilters the saved filters of the tuples' files, by loaded file id
+   * @param fetchById to use retrieve list of LoadedBatch by id
+   * @param metrics receives the {@link #SAVED_FILTERS_METER_NAME}, {@link
+   *     #BUILT_FILTERS_METER_NAME} and {@link #REBUILT_FILTERS_METER_NAME} meters
+   * @return a new filter list
+   */
+  public static List<LoadedFileFilter> buildFilters(
+      List<LoadedTuple> loadedTuples,
+      Map<Long, LoadedFileBloomFilter> savedFilters,
+      Function<Long, List<LoadedBatch>> fetchById,
+      MetricRegistry metrics) {
     return loadedTuples.stream()
-        .map(t -> buildFilter(t.getLoadedFileId(), t.getFirstUpdated(), fetchById))
+        .map(t -> buildFilter(t, savedFilters.get(t.getLoadedFileId()), fetchById, metrics))
         .collect(Collectors.toList());
   }
 
+  /**
+   * Build a filter for a loaded file from its saved filter if that is usable, or from its batches
+   * if not. A saved filter that cannot be read is logged and ignored, and counted as a rebuild.
+   *
+   * @param loadedTuple of the file to build a filter for
+   * @param savedFilter the file's saved filter or null if it has none
+   * @param fetchById a function which returns a list of batches
+   * @param metrics receives a mark of the meter for how the filter was obtained
+   * @return a new filter
+   */
+  private static LoadedFileFilter buildFilter(
+      LoadedTuple loadedTuple,
+      LoadedFileBloomFilter savedFilter,
+      Function<Long, List<LoadedBatch>> fetchById,
+      MetricRegistry metrics) {
+    final long fileId = loadedTuple.getLoadedFileId();
+    final Instant firstUpdated = loadedTuple.getFirstUpdated();
+    if (isUsable(savedFilter, loadedTuple.getLastUpdated())) {
+      try {
+        final BloomFilter bloomFilter =
+            BloomFilter.readFrom(new ByteArrayInputStream(savedFilter.getBloomFilter()));
+        final Instant lastUpdated =
+            savedFilter.getLastUpdated().isAfter(firstUpdated)
+                ? savedFilter.getLastUpdated()
+                : firstUpdated;
+        final LoadedFileFilter filter =
+            new LoadedFileFilter(
+                fileId, savedFilter.getBatchesCount(), firstUpdated, lastUpdated, bloomFilter);
+        metrics.meter(SAVED_FILTERS_METER_NAME).mark();
+        return filter;
+      } catch (IOException ex) {
+        LOGGER.warn("Unreadable saved filter for {}, building it from its batches", fileId, ex);
+        metrics.meter(REBUILT_FILTERS_METER_NAME).mark();
+        return buildFilter(fileId, firstUpdated, fetchById);
+      }
+    }
+    metrics.meter(BUILT_FILTERS_METER_NAME).mark();
+    return buildFilter(fileId, firstUpdated, fetchById);
+  }
+
+  /**
+   * Tests whether a saved filter includes every batch of its file. The pipeline only saves the
+   * filter of a file once all of its batches are written, so a saved filter whose lastUpdated is
+   * not before the file's latest batch includes them all.
+   *
+   * @param savedFilter the saved filter or null
+   * @param lastBatchCreated the created time of the file's latest batch
+   * @return true if the saved filter can be used in place of building one
+   */
+  private static boolean isUsable(LoadedFileBloomFilter savedFilter, Instant lastBatchCreated) {
+    return savedFilter != null && !savedFilter.getLastUpdated().isBefore(lastBatchCreated);
+  }
+
   /**
    * Trim filters to match current {@link LoadedFile} list. Only deletes filters.
    *
@@ -347,19 +632,18 @@ public class LoadedFilterManager {
     if (batchCount == 0) {
       throw new IllegalArgumentException("Batches cannot be empty for a filter");
     }
-    final String[] loadedBatchBenes = loadedBatches.get(0).getBeneficiaries().split(",");
-    final int batchSize = loadedBatchBenes.length;
-
-    // It is important to get a good estimate of the number of entries for
-    // an accurate FFP and minimal memory size. This one assumes that all batches are of equal size.
-    final BloomFilter bloomFilter = LoadedFileFilter.createFilter(batchSize * batchCount);
+    // It is important to get a good estimate of the number of entries for an accurate FFP and
+    // minimal memory size. Every batch knows its beneficiary count without decoding them.
+    int beneficiaryCount = 0;
+    for (LoadedBatch batch : loadedBatches) {
+      beneficiaryCount += batch.getBeneficiaryCount();
+    }
+    final BloomFilter bloomFilter = LoadedFileFilter.createFilter(Math.max(beneficiaryCount, 1));
 
     // Loop through all batches, filling the bloom filter and finding the lastUpdated
     Instant lastUpdated = firstUpdated;
     for (LoadedBatch batch : loadedBatches) {
-      for (Long beneficiary : batch.getBeneficiariesAsList()) {
-        bloomFilter.putLong(beneficiary);
-      }
+      batch.forEachBeneficiary(bloomFilter::putLong);
       if (batch.getCreated().isAfter(lastUpdated)) {
         lastUpdated = batch.getCreated();
       }
@@ -424,6 +708,30 @@ public class LoadedFilterManager {
     return entityManager.createQuery(query).getResultList();
   }
 
+  /**
+   * Fetch the saved filters of the files in a list of tuples. Like batches, saved filters are only
+   * read so they are loaded read-only.
+   *
+   * @param loadedTuples the tuples of the files
+   * @return the saved filters by loaded file id, for the files that have one
+   */
+  private Map<Long, LoadedFileBloomFilter> fetchSavedFilters(List<LoadedTuple> loadedTuples) {
+    if (loadedTuples.isEmpty()) {
+      return Map.of();
+    }
+    final List<Long> loadedFileIds =
+        loadedTuples.stream().map(LoadedTuple::getLoadedFileId).collect(Collectors.toList());
+    return entityManager
+        .createQuery(
+            "select f from LoadedFileBloomFilter f where f.loadedFileId in :loadedFileIds",
+            LoadedFileBloomFilter.class)
+        .setParameter("loadedFileIds", loadedFileIds)
+        .setHint(QueryHints.HINT_READONLY, true)
+        .getResultList()
+        .stream()
+        .collect(Collectors.toMap(LoadedFileBloomFilter::getLoadedFileId, Function.identity()));
+  }
+
   /**
    * Fetch all the files that are currently loaded.
    *
@@ -436,7 +744,9 @@ public class LoadedFilterManager {
   }
 
   /**
-   * Fetch all the batches associated with LoadedFile.
+   * Fetch all the batches associated with LoadedFile. The batches are only read to build a filter
+   * so they are loaded read-only, which keeps Hibernate from holding a snapshot copy of every
+   * batch's beneficiaries for dirty checking.
    *
    * @param loadedFileId of the LoadedFile
    * @return a list of LoadedBatches or an empty list
@@ -446,6 +756,7 @@ public class LoadedFilterManager {
         .createQuery(
             "select b from LoadedBatch b where b.loadedFileId = :loadedFileId", LoadedBatch.class)
         .setParameter("loadedFileId", loadedFileId)
+        .setHint(QueryHints.HINT_READONLY, true)
         .getResultList();
   }
 }
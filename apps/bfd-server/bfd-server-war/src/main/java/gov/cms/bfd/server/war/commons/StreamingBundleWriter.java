@@ -0,0 +1,219 @@
+package gov.cms.bfd.server.war.commons;
+
+import static java.util.Objects.requireNonNull;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.valueset.BundleTypeEnum;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.BundleLinks;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.IVersionSpecificBundleFactory;
+import ca.uhn.fhir.rest.api.SummaryEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.RestfulServerUtils;
+import ca.uhn.fhir.util.BundleUtil;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+/**
+ * Writes a searchset {@link IBaseBundle} directly to the response while its entries are still being
+ * produced, instead of building the complete bundle in memory and letting HAPI serialize it once
+ * the search method returns. Callers write each batch of resources as soon as it is available and
+ * can then discard it, so the heap used by a request is bounded by its largest batch rather than by
+ * the whole result.
+ *
+ * <p>The bundle is written as compact JSON. Since JSON object members are unordered, the entries
+ * are written first and the root properties (id, meta, type, total and the self link) are written
+ * last, once the total is known. The root properties are added by HAPI's own bundle factory, so
+ * they are the same ones HAPI would have added to a returned bundle.
+ *
+ * <p>Once anything has been written, the response is marked as streamed in the request's user data
+ * and the search method's return value must not be written by HAPI; {@link
+ * gov.cms.bfd.server.war.StreamedResponseInterceptor} takes care of that. The status and headers
+ * are sent with the first entry, so an error after that point cannot be reported to the client. The
+ * writer is deliberately left open when that happens: the interceptor logs the error and lets the
+ * servlet container close the connection, so the client sees a failed transfer instead of a cleanly
+ * terminated response holding a truncated bundle.
+ *
+ * <p>Instances are not thread-safe and are only used for a single request.
+ */
+public final class StreamingBundleWriter {
+  /** The {@link RequestDetails#getUserData()} key that is set once a response has been streamed. */
+  public static final String RESPONSE_STREAMED_KEY =
+      StreamingBundleWriter.class.getName() + ".responseStreamed";
+
+  /** The start of every compact JSON bundle, which is followed by the bundle's other members. */
+  private static final String BUNDLE_JSON_PREFIX = "{\"resourceType\":\"Bundle\",";
+
+  /** The request being answered. */
+  private final RequestDetails requestDetails;
+
+  /** The FHIR context of the server handling the request. */
+  private final FhirContext fhirContext;
+
+  /** The parser used to encode the resources, configured the same way HAPI would configure it. */
+  private final IParser parser;
+
+  /** The response writer, or null if nothing has been written yet. */
+  private Writer writer;
+
+  /** The number of resources written so far. */
+  private int resourceCount;
+
+  /** The latest lastUpdated of the resources written so far, or null if there is none. */
+  private Instant lastUpdated;
+
+  /**
+   * Creates a writer for the response to the given request. Nothing is written until {@link
+   * #writeResources} or {@link #finish} is called.
+   *
+   * @param requestDetails the request being answered
+   */
+  public StreamingBundleWriter(RequestDetails requestDetails) {
+    this.requestDetails = requireNonNull(requestDetails);
+    fhirContext = requestDetails.getFhirContext();
+    parser =
+        RestfulServerUtils.getNewParser(
+            fhirContext, fhirContext.getVersion().getVersion(), requestDetails);
+  }
+
+  /**
+   * Determines whether the response to the given request can be streamed. Only compact JSON
+   * responses without {@code _summary} or {@code _elements} handling are supported; any other
+   * response must be built in memory and written by HAPI.
+   *
+   * @param requestDetails the request being answered
+   * @return true if the response can be written by a {@link StreamingBundleWriter}
+   */
+  public static boolean isSupported(RequestDetails requestDetails) {
+    return RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails).getEncoding()
+            == EncodingEnum.JSON
+        && !RestfulServerUtils.prettyPrintResponse(requestDetails.getServer(), requestDetails)
+        && Set.of(SummaryEnum.FALSE).equals(RestfulServerUtils.determineSummaryMode(requestDetails))
+        && requestDetails.getParameters().keySet().stream()
+            .noneMatch(name -> name.startsWith(Constants.PARAM_ELEMENTS));
+  }
+
+  /**
+   * Determines whether the response to the given request has been written (or abandoned) by a
+   * {@link StreamingBundleWriter}.
+   *
+   * @param requestDetails the request
+   * @return true if HAPI must not write a response for the request
+   */
+  public static boolean isStreamed(RequestDetails requestDetails) {
+    return Boolean.TRUE.equals(requestDetails.getUserData().get(RESPONSE_STREAMED_KEY));
+  }
+
+  /**
+   * Writes the given resources as bundle entries and flushes them to the client.
+   *
+   * @param resources the resources to write
+   * @throws IOException if the response could not be written
+   */
+  public void writeResources(List<? extends IBaseResource> resources) throws IOException {
+    if (resources.isEmpty()) {
+      return;
+    }
+    final Writer out = start();
+    for (IBaseResource resource : resources) {
+      out.write(resourceCount == 0 ? "\"entry\":[{\"resource\":" : ",{\"resource\":");
+      parser.encodeResourceToWriter(resource, out);
+      out.write('}');
+      resourceCount += 1;
+
+      final Instant resourceLastUpdated =
+          resource.getMeta().getLastUpdated() == null
+              ? null
+              : resource.getMeta().getLastUpdated().toInstant();
+      if (resourceLastUpdated != null
+          && (lastUpdated == null || resourceLastUpdated.isAfter(lastUpdated))) {
+        lastUpdated = resourceLastUpdated;
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * Gets the number of resources written so far.
+   *
+   * @return the number of resources
+   */
+  public int getResourceCount() {
+    return resourceCount;
+  }
+
+  /**
+   * Gets the latest lastUpdated of the resources written so far.
+   *
+   * @return the latest lastUpdated, or empty if no resource had one
+   */
+  public Optional<Instant> getLastUpdated() {
+    return Optional.ofNullable(lastUpdated);
+  }
+
+  /**
+   * Completes the response by writing the root properties of the given bundle, which must not
+   * contain any entries, and commits it. HAPI's bundle factory adds the id, type and self link, so
+   * the caller only needs to set the total and meta.lastUpdated.
+   *
+   * @param bundle the bundle holding the root properties of the response
+   * @throws IOException if the response could not be written
+   */
+  public void finish(IBaseBundle bundle) throws IOException {
+    Preconditions.checkArgument(
+        BundleUtil.toListOfResources(fhirContext, bundle).isEmpty(),
+        "The streamed bundle's entries must be written with writeResources");
+    final IVersionSpecificBundleFactory bundleFactory = fhirContext.newBundleFactory();
+    bundleFactory.initializeWithBundleResource(bundle);
+    final BundleLinks links =
+        new BundleLinks(
+            requestDetails.getServerBaseForRequest(), null, false, BundleTypeEnum.SEARCHSET);
+    links.setSelf(
+        RestfulServerUtils.createLinkSelf(requestDetails.getFhirServerBase(), requestDetails));
+    bundleFactory.addRootPropertiesToBundle(null, links, null, null);
+
+    final String json = parser.encodeResourceToString(bundle);
+    if (!json.startsWith(BUNDLE_JSON_PREFIX)) {
+      throw new IllegalStateException("Unexpected bundle encoding: " + json);
+    }
+    final Writer out = start();
+    if (resourceCount > 0) {
+      out.write("],");
+    }
+    out.write(json, BUNDLE_JSON_PREFIX.length(), json.length() - BUNDLE_JSON_PREFIX.length());
+    requestDetails.getResponse().commitResponse(out);
+  }
+
+  /**
+   * Gets the response writer, sending the status and headers and writing the start of the bundle on
+   * the first call.
+   *
+   * @return the response writer
+   * @throws IOException if the response could not be written
+   */
+  private Writer start() throws IOException {
+    if (writer == null) {
+      requestDetails.getUserData().put(RESPONSE_STREAMED_KEY, Boolean.TRUE);
+      writer =
+          requestDetails
+              .getResponse()
+              .getResponseWriter(
+                  Constants.STATUS_HTTP_200_OK,
+                  RestfulServerUtils.determineResponseEncodingWithDefault(requestDetails)
+                      .getResourceContentType(),
+                  Constants.CHARSET_NAME_UTF8,
+                  requestDetails.isRespondGzip());
+      writer.write(BUNDLE_JSON_PREFIX);
+    }
+    return writer;
+  }
+}
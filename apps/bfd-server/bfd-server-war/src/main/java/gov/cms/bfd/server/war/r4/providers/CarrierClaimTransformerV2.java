@@ -21,7 +21,6 @@ import gov.cms.bfd.server.war.commons.carin.C4BBPractitionerIdentifierType;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit.CareTeamComponent;
@@ -192,8 +191,7 @@ final class CarrierClaimTransformerV2 implements ClaimTransformerInterfaceV2 {
     // PRNCPAL_DGNS_CD => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_CD(1-12) => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_VRSN_CD(1-12) => diagnosis.diagnosisCodeableConcept
-    DiagnosisUtilV2.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    DiagnosisUtilV2.extractDiagnoses(claimGroup)
         .forEach(diagnosis -> DiagnosisUtilV2.addDiagnosisCode(eob, diagnosis, ClaimType.CARRIER));
 
     // CARR_CLM_RFRNG_PIN_NUM => ExplanationOfBenefit.careteam.provider
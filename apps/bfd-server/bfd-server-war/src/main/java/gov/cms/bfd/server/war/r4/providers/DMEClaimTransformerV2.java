@@ -19,7 +19,6 @@ import gov.cms.bfd.server.war.commons.carin.C4BBClaimProfessionalAndNonClinician
 import gov.cms.bfd.server.war.commons.carin.C4BBPractitionerIdentifierType;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit.CareTeamComponent;
@@ -180,8 +179,7 @@ final class DMEClaimTransformerV2 implements ClaimTransformerInterfaceV2 {
     // PRNCPAL_DGNS_VRSN_CD => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_CD(1-12) => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_VRSN_CD(1-12) => diagnosis.diagnosisCodeableConcept
-    DiagnosisUtilV2.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    DiagnosisUtilV2.extractDiagnoses(claimGroup)
         .forEach(diagnosis -> DiagnosisUtilV2.addDiagnosisCode(eob, diagnosis, ClaimType.DME));
 
     // CARR_CLM_ENTRY_CD => ExplanationOfBenefit.extension
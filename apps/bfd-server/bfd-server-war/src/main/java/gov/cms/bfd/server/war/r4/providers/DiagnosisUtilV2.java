@@ -2,6 +2,7 @@ package gov.cms.bfd.server.war.r4.providers;
 
 import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
 import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
+import gov.cms.bfd.model.rif.ClaimDiagnosesAndProcedures;
 import gov.cms.bfd.server.war.commons.ClaimType;
 import gov.cms.bfd.server.war.commons.Diagnosis;
 import gov.cms.bfd.server.war.commons.Diagnosis.DiagnosisLabel;
@@ -40,6 +41,24 @@ import org.slf4j.LoggerFactory;
 public class DiagnosisUtilV2 {
   private static final Logger LOGGER = LoggerFactory.getLogger(DiagnosisUtilV2.class);
 
+  /**
+   * The {@link CcwCodebookVariable} for the "PresentOnAdmissionCode" of each numbered diagnosis,
+   * indexed by the diagnosis number.
+   */
+  private static final CcwCodebookVariable[] DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES =
+      IntStream.rangeClosed(0, 25)
+          .mapToObj(i -> i == 0 ? null : CcwCodebookVariable.valueOf("CLM_POA_IND_SW" + i))
+          .toArray(CcwCodebookVariable[]::new);
+
+  /**
+   * The {@link CcwCodebookVariable} for the "PresentOnAdmissionCode" of each numbered external
+   * diagnosis, indexed by the diagnosis number.
+   */
+  private static final CcwCodebookVariable[] EXTERNAL_DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES =
+      IntStream.rangeClosed(0, 12)
+          .mapToObj(i -> i == 0 ? null : CcwCodebookVariable.valueOf("CLM_E_POA_IND_SW" + i))
+          .toArray(CcwCodebookVariable[]::new);
+
   /** Stores the diagnosis ICD codes and their display values. */
   private static Map<String, String> icdMap = null;
 
@@ -175,151 +194,144 @@ public class DiagnosisUtilV2 {
   /**
    * Generically attempts to retrieve a diagnosis from the current claim.
    *
-   * @param substitution The methods to retrive diagnosis information all follow a similar pattern.
-   *     This value is used to substitute into that pattern when looking up the specific method to
-   *     retrive information with.
-   * @param codes The mapping of diagnosis codes by their property name and respective value
-   * @param codeVersions The mapping of diagnosis code versions by their property name and
-   *     respective value
-   * @param presentOnAdms The mapping of diagnosis "PresentOnAdmissionCode" codes by their property
-   *     name and respective value
+   * @param code the diagnosis code, if any
+   * @param codeVersion the diagnosis code version, if any
+   * @param presentOnAdm the diagnosis "PresentOnAdmissionCode" code, if any
    * @param ccw CCW Codebook value that represents which "PresentOnAdmissionCode" is being used.
    *     Example: {@link CcwCodebookVariable#CLM_POA_IND_SW5}
    * @param label One or more labels to use when mapping the diagnosis.
    * @return a {@link Diagnosis} or {@link Optional#empty()}
    */
   public static Optional<Diagnosis> extractDiagnosis(
-      String substitution,
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<Character>> presentOnAdms,
+      Optional<String> code,
+      Optional<Character> codeVersion,
+      Optional<Character> presentOnAdm,
       Optional<CcwCodebookInterface> ccw,
       DiagnosisLabel label) {
-    Optional<String> code =
-        codes.getOrDefault(String.format("diagnosis%sCode", substitution), Optional.empty());
-    Optional<Character> codeVersion =
-        codeVersions.getOrDefault(
-            String.format("diagnosis%sCodeVersion", substitution), Optional.empty());
-    Optional<Character> presentOnAdm =
-        presentOnAdms.getOrDefault(
-            String.format("diagnosis%sPresentOnAdmissionCode", substitution), Optional.empty());
     return Diagnosis.from(code, codeVersion, presentOnAdm, ccw, label);
   }
 
+  /**
+   * Adds one of the numbered diagnoses of a claim to a list if the claim has a code for it. Nothing
+   * is allocated for numbers without a code.
+   *
+   * @param diagnoses the list to add the diagnosis to
+   * @param code the diagnosis code, or null if the claim has none
+   * @param codeVersion the diagnosis code version, or null if the claim has none
+   * @param presentOnAdm the diagnosis "PresentOnAdmissionCode" code, or null if the claim has none
+   * @param ccw CCW Codebook value that represents which "PresentOnAdmissionCode" is being used, or
+   *     null if none is used
+   * @param label the label to use when mapping the diagnosis
+   */
+  private static void addNumberedDiagnosis(
+      List<Diagnosis> diagnoses,
+      String code,
+      Character codeVersion,
+      Character presentOnAdm,
+      CcwCodebookInterface ccw,
+      DiagnosisLabel label) {
+    if (code != null) {
+      extractDiagnosis(
+              Optional.of(code),
+              Optional.ofNullable(codeVersion),
+              Optional.ofNullable(presentOnAdm),
+              Optional.ofNullable(ccw),
+              label)
+          .ifPresent(diagnoses::add);
+    }
+  }
+
   /**
    * Extracts nearly all diagnosis types from a Claim. If the specific claim type doesn't have the
    * given diagnosis it will just be skipped.
    *
-   * @param codes The mapping of diagnosis codes by their property name and respective value
-   * @param codeVersions The mapping of diagnosis code versions by their property name and
-   *     respective value
-   * @param presentOnAdms The mapping of diagnosis "PresentOnAdmissionCode" codes by their property
-   *     name and respective value
-   * @return the {@link Diagnosis} that can be extracted from the specified {@link
-   *     gov.cms.bfd.model.rif.InpatientClaim}
+   * @param claim the claim to extract the diagnoses from
+   * @return the {@link Diagnosis} that can be extracted from the specified claim
    */
-  static List<Diagnosis> extractDiagnoses(
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<Character>> presentOnAdms) {
-    List<Optional<Diagnosis>> diagnosis = new ArrayList<>();
+  static List<Diagnosis> extractDiagnoses(ClaimDiagnosesAndProcedures claim) {
+    List<Diagnosis> diagnoses = new ArrayList<>();
 
     // Handle the "special" diagnosis fields
-    diagnosis.add(
-        extractDiagnosis(
-            "Admitting",
-            codes,
-            codeVersions,
-            presentOnAdms,
+    extractDiagnosis(
+            claim.getDiagnosisAdmittingCode(),
+            claim.getDiagnosisAdmittingCodeVersion(),
+            Optional.empty(),
+            Optional.empty(),
+            DiagnosisLabel.ADMITTING)
+        .ifPresent(diagnoses::add);
+    addNumberedDiagnosis(
+        diagnoses,
+        claim.getDiagnosisCode(1),
+        claim.getDiagnosisCodeVersion(1),
+        claim.getDiagnosisPresentOnAdmissionCode(1),
+        DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[1],
+        DiagnosisLabel.PRINCIPAL);
+    extractDiagnosis(
+            claim.getDiagnosisPrincipalCode(),
+            claim.getDiagnosisPrincipalCodeVersion(),
             Optional.empty(),
-            DiagnosisLabel.ADMITTING));
-    diagnosis.add(
-        extractDiagnosis(
-            "1",
-            codes,
-            codeVersions,
-            presentOnAdms,
-            Optional.of(CcwCodebookVariable.CLM_POA_IND_SW1),
-            DiagnosisLabel.PRINCIPAL));
-    diagnosis.add(
-        extractDiagnosis(
-            "Principal",
-            codes,
-            codeVersions,
-            presentOnAdms,
             Optional.empty(),
-            DiagnosisLabel.PRINCIPAL));
+            DiagnosisLabel.PRINCIPAL)
+        .ifPresent(diagnoses::add);
 
     // Generically handle the rest (2-25)
     final int FIRST_DIAG = 2;
     final int LAST_DIAG = 25;
-    IntStream.range(FIRST_DIAG, LAST_DIAG + 1)
-        .mapToObj(
-            i ->
-                extractDiagnosis(
-                    String.valueOf(i),
-                    codes,
-                    codeVersions,
-                    presentOnAdms,
-                    Optional.of(CcwCodebookVariable.valueOf("CLM_POA_IND_SW" + i)),
-                    DiagnosisLabel.OTHER))
-        .forEach(diagnosis::add);
+    for (int i = FIRST_DIAG; i <= LAST_DIAG; i++) {
+      addNumberedDiagnosis(
+          diagnoses,
+          claim.getDiagnosisCode(i),
+          claim.getDiagnosisCodeVersion(i),
+          claim.getDiagnosisPresentOnAdmissionCode(i),
+          DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[i],
+          DiagnosisLabel.OTHER);
+    }
 
     // Handle first external diagnosis
-    diagnosis.add(
-        extractDiagnosis(
-            "External1",
-            codes,
-            codeVersions,
-            presentOnAdms,
-            Optional.of(CcwCodebookVariable.CLM_E_POA_IND_SW1),
-            DiagnosisLabel.FIRSTEXTERNAL));
-    diagnosis.add(
-        extractDiagnosis(
-            "ExternalFirst",
-            codes,
-            codeVersions,
-            presentOnAdms,
+    addNumberedDiagnosis(
+        diagnoses,
+        claim.getDiagnosisExternalCode(1),
+        claim.getDiagnosisExternalCodeVersion(1),
+        claim.getDiagnosisExternalPresentOnAdmissionCode(1),
+        EXTERNAL_DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[1],
+        DiagnosisLabel.FIRSTEXTERNAL);
+    extractDiagnosis(
+            claim.getDiagnosisExternalFirstCode(),
+            claim.getDiagnosisExternalFirstCodeVersion(),
+            Optional.empty(),
             Optional.empty(),
-            DiagnosisLabel.FIRSTEXTERNAL));
+            DiagnosisLabel.FIRSTEXTERNAL)
+        .ifPresent(diagnoses::add);
 
     // Generically handle the rest (2-12)
     final int FIRST_EX_DIAG = 2;
     final int LAST_EX_DIAG = 12;
-    IntStream.range(FIRST_EX_DIAG, LAST_EX_DIAG + 1)
-        .mapToObj(
-            i ->
-                extractDiagnosis(
-                    "External" + String.valueOf(i),
-                    codes,
-                    codeVersions,
-                    presentOnAdms,
-                    Optional.of(CcwCodebookVariable.valueOf("CLM_E_POA_IND_SW" + i)),
-                    DiagnosisLabel.EXTERNAL))
-        .forEach(diagnosis::add);
+    for (int i = FIRST_EX_DIAG; i <= LAST_EX_DIAG; i++) {
+      addNumberedDiagnosis(
+          diagnoses,
+          claim.getDiagnosisExternalCode(i),
+          claim.getDiagnosisExternalCodeVersion(i),
+          claim.getDiagnosisExternalPresentOnAdmissionCode(i),
+          EXTERNAL_DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[i],
+          DiagnosisLabel.EXTERNAL);
+    }
 
     // Handle Inpatient Diagnosis.
     // RSN_VISIT_CD(1-3)        => diagnosis.diagnosisCodeableConcept
     // RSN_VISIT_VRSN_CD(1-3)   => diagnosis.diagnosisCodeableConcept
     final int FIRST_INPATIENT_DIAGNOSIS = 1;
     final int LAST_INPATIENT_DIAGNOSIS = 3;
-    IntStream.range(FIRST_INPATIENT_DIAGNOSIS, LAST_INPATIENT_DIAGNOSIS + 1)
-        .mapToObj(
-            i ->
-                extractDiagnosis(
-                    String.format("Admission%d", i),
-                    codes,
-                    codeVersions,
-                    Map.of(),
-                    Optional.empty(),
-                    DiagnosisLabel.REASONFORVISIT))
-        .forEach(diagnosis::add);
-
-    // Some may be empty.  Convert from List<Optional<Diagnosis>> to List<Diagnosis>
-    return diagnosis.stream()
-        .filter(d -> d.isPresent())
-        .map(d -> d.get())
-        .collect(Collectors.toList());
+    for (int i = FIRST_INPATIENT_DIAGNOSIS; i <= LAST_INPATIENT_DIAGNOSIS; i++) {
+      addNumberedDiagnosis(
+          diagnoses,
+          claim.getDiagnosisAdmissionCode(i),
+          claim.getDiagnosisAdmissionCodeVersion(i),
+          null,
+          null,
+          DiagnosisLabel.REASONFORVISIT);
+    }
+
+    return diagnoses;
   }
 
   /**
@@ -322,18 +322,12 @@ final class InpatientClaimTransformerV2 implements ClaimTransformerInterfaceV2 {
     // ICD_DGNS_E_CD(1-12) => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_E_VRSN_CD(1-12) => diagnosis.diagnosisCodeableConcept
     // CLM_E_POA_IND_SW(1-12) => diagnosis.type
-    DiagnosisUtilV2.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(),
-            claimGroup.getDiagnosisCodeVersions(),
-            claimGroup.getDiagnosisPresentOnAdmissionCodes())
+    DiagnosisUtilV2.extractDiagnoses(claimGroup)
         .forEach(
             diagnosis -> DiagnosisUtilV2.addDiagnosisCode(eob, diagnosis, ClaimType.INPATIENT));
 
     // Handle Procedures
-    TransformerUtilsV2.extractCCWProcedures(
-            claimGroup.getProcedureCodes(),
-            claimGroup.getProcedureCodeVersions(),
-            claimGroup.getProcedureDates())
+    TransformerUtilsV2.extractCCWProcedures(claimGroup)
         .forEach(p -> TransformerUtilsV2.addProcedureCode(eob, p));
 
     // NCH_WKLY_PROC_DT => ExplanationOfBenefit.supportinginfo.timingDate
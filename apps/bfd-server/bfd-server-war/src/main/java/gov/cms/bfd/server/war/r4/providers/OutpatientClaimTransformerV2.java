@@ -21,7 +21,6 @@ import gov.cms.bfd.server.war.commons.carin.C4BBOrganizationIdentifierType;
 import gov.cms.bfd.server.war.commons.carin.C4BBPractitionerIdentifierType;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit.ItemComponent;
@@ -244,16 +243,12 @@ final class OutpatientClaimTransformerV2 implements ClaimTransformerInterfaceV2
     // FST_DGNS_E_VRSN_CD => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_E_CD(1-12) => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_E_VRSN_CD(1-12) => diagnosis.diagnosisCodeableConcept
-    DiagnosisUtilV2.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    DiagnosisUtilV2.extractDiagnoses(claimGroup)
         .forEach(
             diagnosis -> DiagnosisUtilV2.addDiagnosisCode(eob, diagnosis, ClaimType.OUTPATIENT));
 
     // Handle Procedures
-    TransformerUtilsV2.extractCCWProcedures(
-            claimGroup.getProcedureCodes(),
-            claimGroup.getProcedureCodeVersions(),
-            claimGroup.getProcedureDates())
+    TransformerUtilsV2.extractCCWProcedures(claimGroup)
         .forEach(p -> TransformerUtilsV2.addProcedureCode(eob, p));
 
     // ClaimLine => ExplanationOfBenefit.item
@@ -9,17 +9,22 @@ import com.google.common.annotations.VisibleForTesting;
 import com.newrelic.api.agent.Trace;
 import gov.cms.bfd.data.fda.lookup.FdaDrugCodeDisplayLookup;
 import gov.cms.bfd.data.npi.lookup.NPIOrgLookup;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
+import gov.cms.bfd.model.rif.samhsa.SamhsaFlaggedClaim;
+import gov.cms.bfd.server.war.SpringConfiguration;
+import gov.cms.bfd.server.war.commons.AbstractSamhsaMatcher;
 import gov.cms.bfd.server.war.commons.ClaimType;
 import gov.cms.bfd.server.war.commons.CommonTransformerUtils;
 import gov.cms.bfd.server.war.commons.QueryUtils;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.ZoneId;
+import gov.cms.bfd.server.war.r4.providers.pac.common.ClaimDao;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -28,11 +33,14 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -76,6 +84,9 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
   /** The samhsa matcher. */
   private final R4EobSamhsaMatcher samhsaMatcher;
 
+  /** whether SAMHSA filtering should compare the entity and resource matchers. */
+  private final boolean samhsaParityCheckEnabled;
+
   /** Database entity manager. */
   private EntityManager entityManager;
 
@@ -104,6 +115,15 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
   /** whether to exclude SAMHSA claims. */
   private boolean excludeSamhsa = false;
 
+  /** optional set of claim ids that limits which of the beneficiary's claims are fetched. */
+  private Optional<Set<Long>> claimIds = Optional.empty();
+
+  /** whether to count the claims removed by the service date filter. */
+  private boolean serviceDateFilterMetricsEnabled = false;
+
+  /** the {@link System#nanoTime()} when the task was set up, just before it was submitted. */
+  private long setupNanos;
+
   // +++++++++++++++++++++++++++++++++++
   // task properties
   // +++++++++++++++++++++++++++++++++++
@@ -131,16 +151,21 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
    * @param samhsaMatcher the samhsa matcher bean
    * @param drugCodeDisplayLookup the drug code display lookup bean
    * @param npiOrgLookup the npi org lookup bean
+   * @param samhsaParityCheckEnabled true if SAMHSA filtering should compare the entity and resource
+   *     matchers
    */
   public PatientClaimsEobTaskTransformerV2(
       MetricRegistry metricRegistry,
       R4EobSamhsaMatcher samhsaMatcher,
       FdaDrugCodeDisplayLookup drugCodeDisplayLookup,
-      NPIOrgLookup npiOrgLookup) {
+      NPIOrgLookup npiOrgLookup,
+      @Qualifier(SpringConfiguration.SAMHSA_PARITY_CHECK_ENABLED)
+          Boolean samhsaParityCheckEnabled) {
     this.metricRegistry = requireNonNull(metricRegistry);
     this.samhsaMatcher = requireNonNull(samhsaMatcher);
     this.drugCodeDisplayLookup = requireNonNull(drugCodeDisplayLookup);
     this.npiOrgLookup = requireNonNull(npiOrgLookup);
+    this.samhsaParityCheckEnabled = requireNonNull(samhsaParityCheckEnabled);
   }
 
   /**
@@ -166,6 +191,7 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
     this.lastUpdated = lastUpdated;
     this.serviceDate = serviceDate;
     this.excludeSamhsa = excludeSamhsa;
+    this.setupNanos = System.nanoTime();
   }
 
   /**
@@ -190,17 +216,51 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
   }
 
   /**
-   * ExecutorService will invoke the task.
+   * Sets the {@link #claimIds} which will restrict the task to only fetch and transform the
+   * beneficiary's claims having one of the specified ids; used when only a single page of claims is
+   * needed.
+   *
+   * @param claimIds the claim ids to fetch, or {@link Optional#empty()} to fetch all claims
+   */
+  public void setClaimIds(Optional<Set<Long>> claimIds) {
+    this.claimIds = requireNonNull(claimIds);
+  }
+
+  /**
+   * Sets the {@link #serviceDateFilterMetricsEnabled}; when enabled, searches filtered by service
+   * date also count the beneficiary's unfiltered claims so the filtered row count can be recorded.
+   *
+   * @param serviceDateFilterMetricsEnabled true to record the service date filter metrics
+   */
+  @Autowired
+  public void setServiceDateFilterMetricsEnabled(
+      @Qualifier(SpringConfiguration.EOB_SERVICE_DATE_FILTER_METRICS_ENABLED)
+          Boolean serviceDateFilterMetricsEnabled) {
+    this.serviceDateFilterMetricsEnabled = serviceDateFilterMetricsEnabled;
+  }
+
+  /**
+   * ExecutorService will invoke the task. The time the task spent waiting to be run and the time it
+   * took to run are recorded in per claim type timers.
    *
    * @return the results for the task.
    */
   @Override
   public PatientClaimsEobTaskTransformerV2 call() {
     LOGGER.debug("TransformPatientClaimsToEobTaskV2.call() started for {}", id);
+    final long startNanos = System.nanoTime();
+    metricRegistry
+        .timer(taskMetricName("queue_wait"))
+        .update(startNanos - setupNanos, TimeUnit.NANOSECONDS);
     try {
-      eobs.addAll(transformToEobs(findClaimTypeByPatient()));
-      if (excludeSamhsa) {
-        filterSamhsa(eobs);
+      List<Object> claimEntities = findClaimTypeByPatient();
+      if (excludeSamhsa && !samhsaParityCheckEnabled) {
+        eobs.addAll(transformToEobs(filterSamhsaEntities(claimEntities)));
+      } else {
+        eobs.addAll(transformToEobs(claimEntities));
+        if (excludeSamhsa) {
+          filterSamhsa(claimEntities, eobs);
+        }
       }
     } catch (NoResultException e) {
       LOGGER.warn(e.getMessage(), e);
@@ -209,6 +269,10 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
       // keep track of the Exception so we can provide to caller.
       LOGGER.error(e.getMessage(), e);
       taskException.set(e);
+    } finally {
+      metricRegistry
+          .timer(taskMetricName("execution"))
+          .update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
     }
     return this;
   }
@@ -321,6 +385,23 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
       Predicate predicate = QueryUtils.createLastUpdatedPredicate(builder, root, lastUpdated.get());
       wherePredicate = builder.and(wherePredicate, predicate);
     }
+    if (serviceDate.isPresent()) {
+      Predicate predicate =
+          new ClaimDao(entityManager, metricRegistry, false)
+              .createServiceDatePredicates(
+                  builder,
+                  root,
+                  serviceDate.get(),
+                  List.of(claimType.getServiceEndAttribute().getName()));
+      wherePredicate = builder.and(wherePredicate, predicate);
+    }
+    if (claimIds.isPresent()) {
+      Predicate predicate = root.get(claimType.getEntityIdAttribute()).in(claimIds.get());
+      wherePredicate = builder.and(wherePredicate, predicate);
+    }
+    if (shouldSkipFlaggedSamhsaClaims()) {
+      wherePredicate = builder.and(wherePredicate, createNotFlaggedSamhsaPredicate(builder, root));
+    }
     criteria.where(wherePredicate);
 
     List<T> claimEntities = null;
@@ -342,56 +423,167 @@ public class PatientClaimsEobTaskTransformerV2 implements Callable {
       }
     }
 
-    if (claimEntities != null && !serviceDate.isEmpty()) {
-      final Instant lowerBound =
-          serviceDate.get().getLowerBoundAsInstant() != null
-              ? serviceDate.get().getLowerBoundAsInstant().toInstant()
-              : null;
-      final Instant upperBound =
-          serviceDate.get().getUpperBoundAsInstant() != null
-              ? serviceDate.get().getUpperBoundAsInstant().toInstant()
-              : null;
-      final java.util.function.Predicate<LocalDate> lowerBoundCheck =
-          lowerBound == null
-              ? (date) -> true
-              : (date) ->
-                  TransformerUtilsV2.compareLocalDate(
-                      date,
-                      lowerBound.atZone(ZoneId.systemDefault()).toLocalDate(),
-                      serviceDate.get().getLowerBound().getPrefix());
-      final java.util.function.Predicate<LocalDate> upperBoundCheck =
-          upperBound == null
-              ? (date) -> true
-              : (date) ->
-                  TransformerUtilsV2.compareLocalDate(
-                      date,
-                      upperBound.atZone(ZoneId.systemDefault()).toLocalDate(),
-                      serviceDate.get().getUpperBound().getPrefix());
-
-      return claimEntities.stream()
-          .filter(
-              entity ->
-                  lowerBoundCheck.test(claimType.getServiceEndAttributeFunction().apply(entity))
-                      && upperBoundCheck.test(
-                          claimType.getServiceEndAttributeFunction().apply(entity)))
-          .collect(Collectors.toList());
+    if (serviceDate.isPresent() && claimIds.isEmpty()) {
+      metricRegistry.counter(serviceDateFilterMetricName("materialized")).inc(claimEntities.size());
+      if (serviceDateFilterMetricsEnabled) {
+        recordServiceDateFilteredCount(claimEntities.size());
+      }
     }
     return claimEntities;
   }
 
+  /**
+   * Determines if the claims with a current stored SAMHSA flag of {@code true} can be left out of
+   * the query. That is only done when SAMHSA claims are being excluded without a parity check,
+   * which needs to see every claim, and the claim type stores a SAMHSA flag.
+   *
+   * @return {@code true} if {@link #createNotFlaggedSamhsaPredicate} should be applied
+   */
+  private boolean shouldSkipFlaggedSamhsaClaims() {
+    return excludeSamhsa
+        && !samhsaParityCheckEnabled
+        && SamhsaFlaggedClaim.class.isAssignableFrom(claimType.getEntityClass());
+  }
+
+  /**
+   * Creates a predicate that skips the claims whose stored SAMHSA flag is {@code true} and was
+   * computed with the current {@link SamhsaCodeSet#CODE_LIST_VERSION}, so that they are never read.
+   * Claims with a missing or stale flag are still returned, to be checked by {@link
+   * #filterSamhsaEntities}.
+   *
+   * @param builder the {@link CriteriaBuilder} of the query
+   * @param root the {@link Root} of the query, which must be a {@link SamhsaFlaggedClaim}
+   * @return the predicate
+   */
+  private Predicate createNotFlaggedSamhsaPredicate(CriteriaBuilder builder, Root<?> root) {
+    final Path<Boolean> samhsaFlag = root.get("samhsaFlag");
+    final Path<Short> codeListVersion = root.get("samhsaCodeListVersion");
+    return builder.or(
+        builder.isNull(codeListVersion),
+        builder.notEqual(codeListVersion, SamhsaCodeSet.CODE_LIST_VERSION),
+        builder.isNull(samhsaFlag),
+        builder.isFalse(samhsaFlag));
+  }
+
+  /**
+   * Counts the beneficiary's claims without the service date predicate and records how many of them
+   * the filter removed. Only the count is read, so no claim lines are fetched.
+   *
+   * @param materializedCount the number of claims that matched the service date filter
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private void recordServiceDateFilteredCount(int materializedCount) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> criteria = builder.createQuery(Long.class);
+    Root root = criteria.from(claimType.getEntityClass());
+    criteria.select(builder.count(root));
+
+    Predicate wherePredicate =
+        builder.equal(root.get(claimType.getEntityBeneficiaryIdAttribute()), id);
+    if (lastUpdated.isPresent()) {
+      Predicate predicate = QueryUtils.createLastUpdatedPredicate(builder, root, lastUpdated.get());
+      wherePredicate = builder.and(wherePredicate, predicate);
+    }
+    if (shouldSkipFlaggedSamhsaClaims()) {
+      wherePredicate = builder.and(wherePredicate, createNotFlaggedSamhsaPredicate(builder, root));
+    }
+    criteria.where(wherePredicate);
+
+    Long unfilteredCount = null;
+    try (Timer.Context timerCountQuery =
+        CommonTransformerUtils.createMetricsTimer(
+            metricRegistry,
+            metricRegistry.getClass().getSimpleName(),
+            "query",
+            "eob_count_by_bene_id",
+            claimType.name().toLowerCase())) {
+      try {
+        unfilteredCount = entityManager.createQuery(criteria).getSingleResult();
+      } finally {
+        long countQueryNanoSeconds = timerCountQuery.stop();
+        CommonTransformerUtils.recordQueryInMdc(
+            String.format("eob_count_by_bene_id_%s", claimType.name().toLowerCase()),
+            countQueryNanoSeconds,
+            1);
+      }
+    }
+    metricRegistry
+        .counter(serviceDateFilterMetricName("filtered"))
+        .inc(Math.max(0L, unfilteredCount - materializedCount));
+  }
+
+  /**
+   * Creates the name of a per claim type service date filter counter.
+   *
+   * @param countType the kind of claims being counted
+   * @return the metric name
+   */
+  @VisibleForTesting
+  String serviceDateFilterMetricName(String countType) {
+    return MetricRegistry.name(
+        getClass().getSimpleName(),
+        "service_date_filter",
+        claimType.name().toLowerCase(),
+        countType);
+  }
+
+  /**
+   * Creates the name of a per claim type task timer.
+   *
+   * @param timerType the phase of the task being timed
+   * @return the metric name
+   */
+  @VisibleForTesting
+  String taskMetricName(String timerType) {
+    return MetricRegistry.name(
+        getClass().getSimpleName(), "task", claimType.name().toLowerCase(), timerType);
+  }
+
+  /**
+   * Removes all SAMHSA-related claims from the specified {@link List} of claim entities, so that
+   * they are never transformed.
+   *
+   * @param claimEntities the {@link List} of claim entities to filter
+   * @return the claim entities that are not SAMHSA-related
+   */
+  private List<Object> filterSamhsaEntities(List<Object> claimEntities) {
+    // init to zero if doing SAMHSA filtering
+    samhsaIgnoredCount.getAndIncrement();
+    List<Object> filtered = new ArrayList<>(claimEntities.size());
+    for (Object claimEntity : claimEntities) {
+      if (samhsaMatcher.testEntity(claimEntity)) {
+        samhsaRemovedCount.getAndIncrement();
+      } else {
+        samhsaIgnoredCount.getAndIncrement();
+        filtered.add(claimEntity);
+      }
+    }
+    return filtered;
+  }
+
   /**
    * Removes all SAMHSA-related claims from the specified {@link List} of {@link
-   * ExplanationOfBenefit} resources.
+   * ExplanationOfBenefit} resources, comparing the result for each with the result of screening the
+   * claim entity it was transformed from.
    *
+   * @param claimEntities the claim entities that were transformed, in the same order as the eobs
    * @param eobs the {@link List} of {@link ExplanationOfBenefit} resources (i.e. claims) to filter
    */
-  private void filterSamhsa(List<ExplanationOfBenefit> eobs) {
+  private void filterSamhsa(List<Object> claimEntities, List<ExplanationOfBenefit> eobs) {
     ListIterator<ExplanationOfBenefit> eobsIter = eobs.listIterator();
+    Iterator<Object> claimEntitiesIter = claimEntities.iterator();
     // init to zero if doing SAMHSA filtering
     samhsaIgnoredCount.getAndIncrement();
     while (eobsIter.hasNext()) {
       ExplanationOfBenefit eob = eobsIter.next();
-      if (samhsaMatcher.test(eob)) {
+      boolean containsSamhsa = samhsaMatcher.test(eob);
+      AbstractSamhsaMatcher.recordParityCheck(
+          metricRegistry,
+          claimType.name().toLowerCase(),
+          eob.getIdElement().getIdPart(),
+          samhsaMatcher.testEntity(claimEntitiesIter.next()),
+          containsSamhsa);
+      if (containsSamhsa) {
         eobsIter.remove();
         samhsaRemovedCount.getAndIncrement();
       } else {
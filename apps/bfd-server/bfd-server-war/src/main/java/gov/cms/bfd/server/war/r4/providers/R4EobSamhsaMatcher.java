@@ -1,6 +1,8 @@
 package gov.cms.bfd.server.war.r4.providers;
 
 import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaFlaggedClaim;
 import gov.cms.bfd.server.war.adapters.CodeableConcept;
 import gov.cms.bfd.server.war.adapters.Coding;
 import gov.cms.bfd.server.war.adapters.r4.ExplanationOfBenefitAdapter;
@@ -9,6 +11,7 @@ import gov.cms.bfd.server.war.commons.CCWUtils;
 import gov.cms.bfd.server.war.commons.ClaimType;
 import gov.cms.bfd.server.war.commons.TransformerConstants;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -76,6 +79,27 @@ public final class R4EobSamhsaMatcher extends AbstractSamhsaMatcher<ExplanationO
     return containsSamhsa;
   }
 
+  /**
+   * Determines if the given claim entity is SAMHSA-related without transforming it, so SAMHSA
+   * claims can be excluded before paying for their transformation. The entity's raw DRG, ICD and
+   * HCPCS columns are checked by the shared {@link SamhsaClaimClassifier}, which applies the same
+   * rules as {@link #test(ExplanationOfBenefit)} does to the {@link ExplanationOfBenefit} built
+   * from that entity by its {@link ClaimTransformerInterfaceV2}.
+   *
+   * <p>A current SAMHSA flag stored by the pipeline is used instead of checking the codes: see
+   * {@link #isSamhsaClaimEntity(Object, Optional)}.
+   *
+   * @param claimEntity the RIF claim entity to check
+   * @return <code>true</code> if the claim entity is SAMHSA-related, <code>false</code> otherwise
+   */
+  public boolean testEntity(Object claimEntity) {
+    final Optional<Boolean> currentSamhsaFlag =
+        claimEntity instanceof SamhsaFlaggedClaim flaggedClaim
+            ? flaggedClaim.getCurrentSamhsaFlag()
+            : Optional.empty();
+    return isSamhsaClaimEntity(claimEntity, currentSamhsaFlag);
+  }
+
   /**
    * Checks if the given {@link CodeableConcept} contains only known coding systems.
    *
@@ -1,5 +1,7 @@
 package gov.cms.bfd.server.war.r4.providers;
 
+import static gov.cms.bfd.server.war.SpringConfiguration.EOB_DB_PAGING_ENABLED;
+import static gov.cms.bfd.server.war.SpringConfiguration.EOB_STREAMING_ENABLED;
 import static java.util.Objects.requireNonNull;
 
 import ca.uhn.fhir.model.api.annotation.Description;
@@ -23,6 +25,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.collect.Iterators;
 import com.newrelic.api.agent.Trace;
 import gov.cms.bfd.server.war.CanonicalOperation;
 import gov.cms.bfd.server.war.commons.AbstractResourceProvider;
@@ -33,10 +36,19 @@ import gov.cms.bfd.server.war.commons.LoadedFilterManager;
 import gov.cms.bfd.server.war.commons.LoggingUtils;
 import gov.cms.bfd.server.war.commons.OffsetLinkBuilder;
 import gov.cms.bfd.server.war.commons.OpenAPIContentProvider;
+import gov.cms.bfd.server.war.commons.QueryUtils;
+import gov.cms.bfd.server.war.commons.StreamingBundleWriter;
+import gov.cms.bfd.server.war.r4.providers.pac.common.ClaimDao;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -51,6 +63,7 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.Bundle;
@@ -58,6 +71,7 @@ import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.hl7.fhir.r4.model.IdType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
@@ -89,6 +103,15 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
   /** spring application context. */
   private final ApplicationContext appContext;
 
+  /** Caches the results of the claim transformers. */
+  private final TransformedEobCache transformedEobCache;
+
+  /** Whether paged searches should only fetch and transform the claims on the requested page. */
+  private final boolean dbPagingEnabled;
+
+  /** Whether unpaged searches should write their results to the response as they are ready. */
+  private final boolean streamingEnabled;
+
   /** The transformer for carrier claims. */
   private final CarrierClaimTransformerV2 carrierClaimTransformer;
 
@@ -131,6 +154,9 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
    * @param outpatientClaimTransformer the outpatient claim transformer
    * @param partDEventTransformer the part d event transformer
    * @param snfClaimTransformer the snf claim transformer
+   * @param transformedEobCache the transformed eob cache
+   * @param dbPagingEnabled whether paged searches should only fetch the claims on the page
+   * @param streamingEnabled whether unpaged searches should stream their results
    */
   public R4ExplanationOfBenefitResourceProvider(
       ApplicationContext appContext,
@@ -144,7 +170,10 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
       InpatientClaimTransformerV2 inpatientClaimTransformer,
       OutpatientClaimTransformerV2 outpatientClaimTransformer,
       PartDEventTransformerV2 partDEventTransformer,
-      SNFClaimTransformerV2 snfClaimTransformer) {
+      SNFClaimTransformerV2 snfClaimTransformer,
+      TransformedEobCache transformedEobCache,
+      @Qualifier(EOB_DB_PAGING_ENABLED) Boolean dbPagingEnabled,
+      @Qualifier(EOB_STREAMING_ENABLED) Boolean streamingEnabled) {
     this.appContext = requireNonNull(appContext);
     this.metricRegistry = requireNonNull(metricRegistry);
     this.loadedFilterManager = requireNonNull(loadedFilterManager);
@@ -157,6 +186,9 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
     this.outpatientClaimTransformer = requireNonNull(outpatientClaimTransformer);
     this.partDEventTransformer = requireNonNull(partDEventTransformer);
     this.snfClaimTransformer = requireNonNull(snfClaimTransformer);
+    this.transformedEobCache = requireNonNull(transformedEobCache);
+    this.dbPagingEnabled = dbPagingEnabled;
+    this.streamingEnabled = streamingEnabled;
   }
 
   /**
@@ -386,7 +418,8 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
                 Optional.ofNullable(lastUpdated),
                 Optional.ofNullable(serviceDate),
                 filterSamhsa,
-                includeTaxNumbers);
+                includeTaxNumbers,
+                requestDetails);
       } catch (InvalidRequestException e) {
         // If we're throwing a 400, pass it back up
         throw e;
@@ -418,10 +451,13 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
    *     filtering of all SAMHSA-related claims from the results.
    * @param includeTaxNumbers an {@link Optional} boolean denoting includsio/exclusion of tax
    *     numbers in the response,
+   * @param requestDetails the {@link RequestDetails} of the request, used to stream the response
    * @return Returns a {@link Bundle} of {@link ExplanationOfBenefit}s, which may contain multiple
-   *     matching resources, or may also be empty.
+   *     matching resources, or may also be empty. If the response was streamed, the bundle only
+   *     holds its root properties and is not written.
    * @throws InterruptedException when thread processing task is interrupted.
    * @throws ExecutionException when when executor fails to create thread.
+   * @throws IOException when the streamed response could not be written.
    */
   @VisibleForTesting
   private Bundle processClaimsMask(
@@ -432,8 +468,9 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
       Optional<DateRangeParam> lastUpdated,
       Optional<DateRangeParam> serviceDate,
       boolean excludeSamhsa,
-      boolean includeTaxNumbers)
-      throws InterruptedException, ExecutionException {
+      boolean includeTaxNumbers,
+      RequestDetails requestDetails)
+      throws InterruptedException, ExecutionException, IOException {
 
     EnumSet<ClaimType> claimsToProcess =
         TransformerUtilsV2.fetchClaimsAvailability(claimTypesRequested, claimTypesThatHaveData);
@@ -445,22 +482,268 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
       return null;
     }
 
+    // Add bene_id to MDC logs
+    LoggingUtils.logBeneIdToMdc(beneficiaryId);
+
+    /*
+     * SAMHSA filtering is applied to the transformed claims, so the set of claims on a page can
+     * only be known up front when it is not in effect.
+     */
+    if (dbPagingEnabled && paging.isPagingRequested() && !excludeSamhsa) {
+      return processClaimsPage(
+          claimsToProcess, beneficiaryId, paging, lastUpdated, serviceDate, includeTaxNumbers);
+    }
+
+    if (streamingEnabled
+        && !paging.isPagingRequested()
+        && StreamingBundleWriter.isSupported(requestDetails)) {
+      return streamClaims(
+          claimsToProcess,
+          beneficiaryId,
+          lastUpdated,
+          serviceDate,
+          excludeSamhsa,
+          includeTaxNumbers,
+          new StreamingBundleWriter(requestDetails));
+    }
+
+    List<IBaseResource> eobs =
+        transformClaims(
+            claimsToProcess,
+            Map.of(),
+            beneficiaryId,
+            lastUpdated,
+            serviceDate,
+            excludeSamhsa,
+            includeTaxNumbers);
+    eobs.sort(R4ExplanationOfBenefitResourceProvider::compareByClaimIdThenClaimType);
+
+    return TransformerUtilsV2.createBundle(paging, eobs, loadedFilterManager.getTransactionTime());
+  }
+
+  /**
+   * Builds the requested page of {@link ExplanationOfBenefit}s by first selecting the ids of the
+   * claims that fall on that page and then only fetching and transforming those claims. The claim
+   * ids for each claim type are read with a key-only query, ordered exactly as {@link
+   * #compareByClaimIdThenClaimType} would order the transformed resources, and merged across claim
+   * types until the end of the page is reached.
+   *
+   * @param claimsToProcess the claim types that have data for the beneficiary
+   * @param beneficiaryId a {@link Long} patient bene_id value.
+   * @param paging a {@link OffsetLinkBuilder} for the startIndex (or offset) when using pagination.
+   * @param lastUpdated a {@link DateRangeParam} denoting inclusion of lastUpdated field.
+   * @param serviceDate a {@link DateRangeParam} specifying date range for the {@link
+   *     ExplanationOfBenefit}s that completed.
+   * @param includeTaxNumbers whether to include tax numbers in the response
+   * @return Returns a {@link Bundle} containing the requested page of {@link
+   *     ExplanationOfBenefit}s, which may also be empty.
+   * @throws InterruptedException when thread processing task is interrupted.
+   * @throws ExecutionException when when executor fails to create thread.
+   */
+  private Bundle processClaimsPage(
+      Set<ClaimType> claimsToProcess,
+      long beneficiaryId,
+      OffsetLinkBuilder paging,
+      Optional<DateRangeParam> lastUpdated,
+      Optional<DateRangeParam> serviceDate,
+      boolean includeTaxNumbers)
+      throws InterruptedException, ExecutionException {
+    Map<ClaimType, List<Long>> claimIdsByType = new EnumMap<>(ClaimType.class);
+    for (ClaimType claimType : claimsToProcess) {
+      claimIdsByType.put(
+          claimType, findClaimIdsByPatient(claimType, beneficiaryId, lastUpdated, serviceDate));
+    }
+    int total = claimIdsByType.values().stream().mapToInt(List::size).sum();
+    if (total > 0) {
+      // Throw a 400 if startIndex >= results, same as when paging over the complete result list
+      TransformerUtilsV2.validateStartIndexSize(paging.getStartIndex(), total);
+    }
+
+    Map<ClaimType, Set<Long>> pageClaimIds =
+        selectClaimIdsForPage(claimIdsByType, paging.getStartIndex(), paging.getPageSize());
+    List<IBaseResource> eobs =
+        transformClaims(
+            pageClaimIds.keySet(),
+            pageClaimIds,
+            beneficiaryId,
+            lastUpdated,
+            Optional.empty(),
+            false,
+            includeTaxNumbers);
+    eobs.sort(R4ExplanationOfBenefitResourceProvider::compareByClaimIdThenClaimType);
+
+    return TransformerUtilsV2.createBundle(
+        paging, eobs, total, loadedFilterManager.getTransactionTime());
+  }
+
+  /**
+   * Runs one {@link PatientClaimsEobTaskTransformerV2} per claim type in parallel and collects the
+   * resulting {@link ExplanationOfBenefit}s.
+   *
+   * @param claimTypes the claim types to fetch and transform
+   * @param claimIds if a claim type has an entry here, only the claims with these ids are fetched
+   * @param beneficiaryId a {@link Long} patient bene_id value.
+   * @param lastUpdated a {@link DateRangeParam} denoting inclusion of lastUpdated field.
+   * @param serviceDate a {@link DateRangeParam} specifying date range for the {@link
+   *     ExplanationOfBenefit}s that completed.
+   * @param excludeSamhsa whether to filter out all SAMHSA-related claims from the results
+   * @param includeTaxNumbers whether to include tax numbers in the response
+   * @return the unsorted {@link ExplanationOfBenefit}s from all of the tasks
+   * @throws InterruptedException when thread processing task is interrupted.
+   * @throws ExecutionException when when executor fails to create thread.
+   */
+  private List<IBaseResource> transformClaims(
+      Set<ClaimType> claimTypes,
+      Map<ClaimType, Set<Long>> claimIds,
+      long beneficiaryId,
+      Optional<DateRangeParam> lastUpdated,
+      Optional<DateRangeParam> serviceDate,
+      boolean excludeSamhsa,
+      boolean includeTaxNumbers)
+      throws InterruptedException, ExecutionException {
     List<IBaseResource> eobs = new ArrayList<>();
 
+    List<Callable<PatientClaimsEobTaskTransformerV2>> callableTasks =
+        createTasks(
+            claimTypes,
+            claimIds,
+            beneficiaryId,
+            lastUpdated,
+            serviceDate,
+            excludeSamhsa,
+            includeTaxNumbers);
+    List<Future<PatientClaimsEobTaskTransformerV2>> futures;
+    futures = executorService.invokeAll(callableTasks);
+
+    for (Future<PatientClaimsEobTaskTransformerV2> future : futures) {
+      PatientClaimsEobTaskTransformerV2 taskResult = future.get();
+      if (taskResult.ranSuccessfully()) {
+        eobs.addAll(taskResult.fetchEOBs());
+      } else {
+        Throwable taskError = taskResult.getFailure().get();
+        throw new RuntimeException(taskError);
+      }
+    }
+    return eobs;
+  }
+
+  /**
+   * Runs one {@link PatientClaimsEobTaskTransformerV2} per claim type in parallel and writes the
+   * resulting {@link ExplanationOfBenefit}s to the response one claim type at a time, in {@link
+   * ClaimType} order. Each task's resources are sorted by {@link #compareByClaimIdThenClaimType}
+   * before they are written, so the same request always produces the same entries in the same
+   * order. Once a task's resources have been written they are released, so at most the resources of
+   * the tasks that completed ahead of the claim type being written are held at once.
+   *
+   * <p>This order differs from the unstreamed response, which sorts all of its resources by {@link
+   * #compareByClaimIdThenClaimType} so that claims of different types are interleaved. Matching it
+   * would mean holding every task's resources until the last task completes. Streamed responses are
+   * never paged, so the difference doesn't affect paging stability, but the same request can list
+   * its entries in a different order depending on whether streaming is enabled.
+   *
+   * <p>If a task fails before anything was written, the exception is answered with the usual {@code
+   * OperationOutcome}; after that, {@link gov.cms.bfd.server.war.StreamedResponseInterceptor} logs
+   * it and the connection is closed.
+   *
+   * @param claimTypes the claim types to fetch and transform, which are written in iteration order
+   * @param beneficiaryId a {@link Long} patient bene_id value.
+   * @param lastUpdated a {@link DateRangeParam} denoting inclusion of lastUpdated field.
+   * @param serviceDate a {@link DateRangeParam} specifying date range for the {@link
+   *     ExplanationOfBenefit}s that completed.
+   * @param excludeSamhsa whether to filter out all SAMHSA-related claims from the results
+   * @param includeTaxNumbers whether to include tax numbers in the response
+   * @param writer the writer for the response
+   * @return a {@link Bundle} holding the root properties of the streamed response, with no entries
+   * @throws InterruptedException when thread processing task is interrupted.
+   * @throws ExecutionException when when executor fails to create thread.
+   * @throws IOException when the response could not be written.
+   */
+  private Bundle streamClaims(
+      EnumSet<ClaimType> claimTypes,
+      long beneficiaryId,
+      Optional<DateRangeParam> lastUpdated,
+      Optional<DateRangeParam> serviceDate,
+      boolean excludeSamhsa,
+      boolean includeTaxNumbers,
+      StreamingBundleWriter writer)
+      throws InterruptedException, ExecutionException, IOException {
+    List<Callable<PatientClaimsEobTaskTransformerV2>> callableTasks =
+        createTasks(
+            claimTypes,
+            Map.of(),
+            beneficiaryId,
+            lastUpdated,
+            serviceDate,
+            excludeSamhsa,
+            includeTaxNumbers);
+    List<Future<PatientClaimsEobTaskTransformerV2>> futures =
+        callableTasks.stream().map(executorService::submit).toList();
+
+    try {
+      for (Future<PatientClaimsEobTaskTransformerV2> future : futures) {
+        PatientClaimsEobTaskTransformerV2 taskResult = future.get();
+        if (!taskResult.ranSuccessfully()) {
+          Throwable taskError = taskResult.getFailure().get();
+          throw new RuntimeException(taskError);
+        }
+        List<ExplanationOfBenefit> eobs = taskResult.fetchEOBs();
+        eobs.sort(R4ExplanationOfBenefitResourceProvider::compareByClaimIdThenClaimType);
+        writer.writeResources(eobs);
+        eobs.clear();
+      }
+    } catch (InterruptedException | ExecutionException | IOException | RuntimeException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw e;
+    }
+
+    Bundle bundle = new Bundle();
+    bundle.setTotal(writer.getResourceCount());
+    Instant transactionTime = loadedFilterManager.getTransactionTime();
+    bundle
+        .getMeta()
+        .setLastUpdated(
+            Date.from(
+                writer.getLastUpdated().filter(transactionTime::isBefore).orElse(transactionTime)));
+    writer.finish(bundle);
+    LoggingUtils.logResourceCountToMdc(writer.getResourceCount());
+    return bundle;
+  }
+
+  /**
+   * Creates one {@link PatientClaimsEobTaskTransformerV2} per claim type.
+   *
+   * @param claimTypes the claim types to fetch and transform
+   * @param claimIds if a claim type has an entry here, only the claims with these ids are fetched
+   * @param beneficiaryId a {@link Long} patient bene_id value.
+   * @param lastUpdated a {@link DateRangeParam} denoting inclusion of lastUpdated field.
+   * @param serviceDate a {@link DateRangeParam} specifying date range for the {@link
+   *     ExplanationOfBenefit}s that completed.
+   * @param excludeSamhsa whether to filter out all SAMHSA-related claims from the results
+   * @param includeTaxNumbers whether to include tax numbers in the response
+   * @return the tasks
+   */
+  private List<Callable<PatientClaimsEobTaskTransformerV2>> createTasks(
+      Set<ClaimType> claimTypes,
+      Map<ClaimType, Set<Long>> claimIds,
+      long beneficiaryId,
+      Optional<DateRangeParam> lastUpdated,
+      Optional<DateRangeParam> serviceDate,
+      boolean excludeSamhsa,
+      boolean includeTaxNumbers) {
     /*
      * The way our JPA/SQL schema is setup, we have to run a separate search for
      * each claim type, then combine the results. It's not super efficient, but it's
      * also not so inefficient that it's worth fixing.
      */
     List<Callable<PatientClaimsEobTaskTransformerV2>> callableTasks =
-        new ArrayList<>(claimsToProcess.size());
+        new ArrayList<>(claimTypes.size());
     /*
      * We create the task bean by directly invoking the applications Spring
      * ApplicationContext to provide the bean; this is necessary as the tasks
      * will run concurrently and each task will need its own instance of an
      * {@link EntityManager}.
      */
-    claimsToProcess.forEach(
+    claimTypes.forEach(
         claimType -> {
           PatientClaimsEobTaskTransformerV2 task =
               appContext.getBean(PatientClaimsEobTaskTransformerV2.class);
@@ -474,26 +757,122 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
               excludeSamhsa);
 
           task.setIncludeTaxNumbers(includeTaxNumbers);
+          task.setClaimIds(Optional.ofNullable(claimIds.get(claimType)));
           callableTasks.add(task);
         });
+    return callableTasks;
+  }
 
-    List<Future<PatientClaimsEobTaskTransformerV2>> futures;
-    futures = executorService.invokeAll(callableTasks);
+  /**
+   * Finds the ids of all claims of the specified type for the beneficiary. Only the id column is
+   * read so no claim lines are fetched.
+   *
+   * @param claimType the claim type to query
+   * @param beneficiaryId a {@link Long} patient bene_id value.
+   * @param lastUpdated a {@link DateRangeParam} denoting inclusion of lastUpdated field.
+   * @param serviceDate a {@link DateRangeParam} specifying date range for the {@link
+   *     ExplanationOfBenefit}s that completed.
+   * @return the matching claim ids, in no particular order
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Trace
+  private List<Long> findClaimIdsByPatient(
+      ClaimType claimType,
+      long beneficiaryId,
+      Optional<DateRangeParam> lastUpdated,
+      Optional<DateRangeParam> serviceDate) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> criteria = builder.createQuery(Long.class);
+    Root root = criteria.from(claimType.getEntityClass());
+    criteria.select(root.get(claimType.getEntityIdAttribute()));
+
+    Predicate wherePredicate =
+        builder.equal(root.get(claimType.getEntityBeneficiaryIdAttribute()), beneficiaryId);
+    if (lastUpdated.isPresent()) {
+      Predicate predicate = QueryUtils.createLastUpdatedPredicate(builder, root, lastUpdated.get());
+      wherePredicate = builder.and(wherePredicate, predicate);
+    }
+    if (serviceDate.isPresent()) {
+      Predicate predicate =
+          new ClaimDao(entityManager, metricRegistry, false)
+              .createServiceDatePredicates(
+                  builder,
+                  root,
+                  serviceDate.get(),
+                  List.of(claimType.getServiceEndAttribute().getName()));
+      wherePredicate = builder.and(wherePredicate, predicate);
+    }
+    criteria.where(wherePredicate);
 
-    for (Future<PatientClaimsEobTaskTransformerV2> future : futures) {
-      PatientClaimsEobTaskTransformerV2 taskResult = future.get();
-      if (taskResult.ranSuccessfully()) {
-        eobs.addAll(taskResult.fetchEOBs());
-      } else {
-        Throwable taskError = taskResult.getFailure().get();
-        throw new RuntimeException(taskError);
+    List<Long> claimIds = null;
+    try (Timer.Context timerEobIdQuery =
+        CommonTransformerUtils.createMetricsTimer(
+            metricRegistry,
+            getClass().getSimpleName(),
+            "query",
+            "eob_ids_by_bene_id",
+            claimType.name().toLowerCase())) {
+      try {
+        claimIds = entityManager.createQuery(criteria).getResultList();
+      } finally {
+        long eobIdsByBeneIdQueryNanoSeconds = timerEobIdQuery.stop();
+        CommonTransformerUtils.recordQueryInMdc(
+            String.format("eob_ids_by_bene_id_%s", claimType.name().toLowerCase()),
+            eobIdsByBeneIdQueryNanoSeconds,
+            claimIds == null ? 0 : claimIds.size());
       }
     }
-    eobs.sort(R4ExplanationOfBenefitResourceProvider::compareByClaimIdThenClaimType);
+    return claimIds;
+  }
 
-    // Add bene_id to MDC logs
-    LoggingUtils.logBeneIdToMdc(beneficiaryId);
-    return TransformerUtilsV2.createBundle(paging, eobs, loadedFilterManager.getTransactionTime());
+  /**
+   * Selects the claim ids that fall on the requested page. Each claim type's ids are sorted on
+   * their own and then k-way merged, using the same ordering as {@link
+   * #compareByClaimIdThenClaimType} (claim id text, then claim type), stopping as soon as the page
+   * is complete.
+   *
+   * @param claimIdsByType the unordered claim ids of each claim type
+   * @param startIndex the offset of the first claim on the page
+   * @param pageSize the maximum number of claims on the page
+   * @return the ids of the claims on the page, grouped by claim type
+   */
+  @VisibleForTesting
+  static Map<ClaimType, Set<Long>> selectClaimIdsForPage(
+      Map<ClaimType, List<Long>> claimIdsByType, int startIndex, int pageSize) {
+    List<Iterator<ClaimKey>> sortedKeys = new ArrayList<>(claimIdsByType.size());
+    for (Map.Entry<ClaimType, List<Long>> entry : claimIdsByType.entrySet()) {
+      sortedKeys.add(
+          entry.getValue().stream()
+              .map(claimId -> new ClaimKey(String.valueOf(claimId), claimId, entry.getKey()))
+              .sorted(ClaimKey.ORDER)
+              .iterator());
+    }
+
+    Iterator<ClaimKey> mergedKeys = Iterators.mergeSorted(sortedKeys, ClaimKey.ORDER);
+    Iterators.advance(mergedKeys, startIndex);
+
+    Map<ClaimType, Set<Long>> pageClaimIds = new EnumMap<>(ClaimType.class);
+    Iterators.limit(mergedKeys, pageSize)
+        .forEachRemaining(
+            key ->
+                pageClaimIds.computeIfAbsent(key.claimType(), t -> new HashSet<>()).add(key.id()));
+    return pageClaimIds;
+  }
+
+  /**
+   * Identifies a claim for paging purposes.
+   *
+   * @param text the claim id as it appears in the {@link ExplanationOfBenefit} identifier
+   * @param id the claim id
+   * @param claimType the claim type
+   */
+  private record ClaimKey(String text, Long id, ClaimType claimType) {
+    /**
+     * Same ordering as {@link
+     * R4ExplanationOfBenefitResourceProvider#compareByClaimIdThenClaimType}.
+     */
+    private static final Comparator<ClaimKey> ORDER =
+        Comparator.comparing(ClaimKey::text).thenComparing(ClaimKey::claimType);
   }
 
   /**
@@ -526,13 +905,23 @@ public final class R4ExplanationOfBenefitResourceProvider extends AbstractResour
   }
 
   /**
-   * Return the EOB transfromer based on claim type.
+   * Return the EOB transfromer based on claim type, wrapped by the {@link #transformedEobCache}.
    *
    * @param eobIdType the eob claim type
    * @return the transformed explanation of benefit
    */
   @VisibleForTesting
   private ClaimTransformerInterfaceV2 deriveTransformer(ClaimType eobIdType) {
+    return transformedEobCache.wrap(eobIdType, deriveUncachedTransformer(eobIdType));
+  }
+
+  /**
+   * Return the EOB transfromer based on claim type.
+   *
+   * @param eobIdType the eob claim type
+   * @return the transformed explanation of benefit
+   */
+  private ClaimTransformerInterfaceV2 deriveUncachedTransformer(ClaimType eobIdType) {
     switch (eobIdType) {
       case CARRIER:
         return carrierClaimTransformer;
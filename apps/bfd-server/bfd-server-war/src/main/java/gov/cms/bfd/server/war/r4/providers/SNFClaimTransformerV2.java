@@ -21,7 +21,6 @@ import gov.cms.bfd.server.war.commons.carin.C4BBPractitionerIdentifierType;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.math.BigDecimal;
 import java.util.Collections;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit;
 import org.hl7.fhir.r4.model.ExplanationOfBenefit.ItemComponent;
@@ -322,15 +321,11 @@ public class SNFClaimTransformerV2 implements ClaimTransformerInterfaceV2 {
     // FST_DGNS_E_VRSN_CD => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_E_CD(1-12) => diagnosis.diagnosisCodeableConcept
     // ICD_DGNS_E_VRSN_CD(1-12) => diagnosis.diagnosisCodeableConcept
-    DiagnosisUtilV2.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    DiagnosisUtilV2.extractDiagnoses(claimGroup)
         .forEach(diagnosis -> DiagnosisUtilV2.addDiagnosisCode(eob, diagnosis, ClaimType.SNF));
 
     // Handle Procedures
-    TransformerUtilsV2.extractCCWProcedures(
-            claimGroup.getProcedureCodes(),
-            claimGroup.getProcedureCodeVersions(),
-            claimGroup.getProcedureDates())
+    TransformerUtilsV2.extractCCWProcedures(claimGroup)
         .forEach(p -> TransformerUtilsV2.addProcedureCode(eob, p));
 
     for (SNFClaimLine line : claimGroup.getLines()) {
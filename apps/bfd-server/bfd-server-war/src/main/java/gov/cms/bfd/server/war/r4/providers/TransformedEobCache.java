@@ -0,0 +1,204 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static java.util.Objects.requireNonNull;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import gov.cms.bfd.model.rif.RifRecordBase;
+import gov.cms.bfd.server.war.SpringConfiguration;
+import gov.cms.bfd.server.war.commons.ClaimType;
+import java.time.Instant;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * A bounded cache of the {@link ExplanationOfBenefit} resources produced by the V2 claim
+ * transformers. The same beneficiaries are requested over and over, and transforming their claims
+ * is a large part of the cost of each request, so this allows repeated requests to skip it.
+ *
+ * <p>Entries are keyed by claim type, claim id, the claim's lastUpdated and the includeTaxNumbers
+ * option. A claim that is updated by the pipeline gets a new lastUpdated, so a stale entry can
+ * never be returned for it; it simply stops being used and is evicted like any other entry that is
+ * no longer requested.
+ *
+ * <p>The cache is bounded by an approximate weight rather than an entry count, since EOBs vary
+ * greatly in size. Each entry's weight is the number of items, diagnoses, procedures, supporting
+ * info and care team entries in the resource, plus one. A maximum weight of zero disables the
+ * cache.
+ *
+ * <p>A copy of each resource is stored, so the caller that caused the transformation keeps a
+ * private instance. Every hit returns the same stored instance, which may be in use by several
+ * requests at once, so callers must not modify the resources they are given. The EOB providers only
+ * add them to bundles and serialize them.
+ */
+@Component
+public class TransformedEobCache {
+  /** The cached resources, or null if the cache is disabled. */
+  private final Cache<Key, Entry> cache;
+
+  /** Counts requests that were answered from the cache. */
+  private final Counter hits;
+
+  /** Counts requests that required a transformation. */
+  private final Counter misses;
+
+  /** Counts entries that were evicted to stay within the maximum weight. */
+  private final Counter evictions;
+
+  /**
+   * Instantiates a new cache.
+   *
+   * <p>Spring will wire this class during the initial component scan, so this constructor should
+   * only be explicitly called by tests.
+   *
+   * @param metricRegistry the metric registry bean
+   * @param maxWeight the maximum total weight of the cached resources, zero to disable the cache
+   */
+  public TransformedEobCache(
+      MetricRegistry metricRegistry,
+      @Qualifier(SpringConfiguration.EOB_CACHE_MAX_WEIGHT) Long maxWeight) {
+    if (maxWeight > 0) {
+      cache =
+          CacheBuilder.newBuilder()
+              .maximumWeight(maxWeight)
+              .weigher((Key key, Entry entry) -> entry.weight())
+              .removalListener(this::onRemoval)
+              .build();
+      hits = metricRegistry.counter(metricName("hits"));
+      misses = metricRegistry.counter(metricName("misses"));
+      evictions = metricRegistry.counter(metricName("evictions"));
+      metricRegistry.<Gauge<Long>>gauge(metricName("size"), () -> cache::size);
+    } else {
+      cache = null;
+      hits = null;
+      misses = null;
+      evictions = null;
+    }
+  }
+
+  /**
+   * Wraps a transformer so that its results are cached. Claim entities that don't have a
+   * lastUpdated property are always passed through to the transformer.
+   *
+   * @param claimType the type of claim the transformer handles
+   * @param transformer the transformer to wrap
+   * @return the caching transformer, or the transformer itself if the cache is disabled
+   */
+  public ClaimTransformerInterfaceV2 wrap(
+      ClaimType claimType, ClaimTransformerInterfaceV2 transformer) {
+    requireNonNull(claimType);
+    requireNonNull(transformer);
+    if (cache == null) {
+      return transformer;
+    }
+    return (claimEntity, includeTaxNumbers) ->
+        claimEntity instanceof RifRecordBase record
+            ? transform(claimType, transformer, record, includeTaxNumbers)
+            : transformer.transform(claimEntity, includeTaxNumbers);
+  }
+
+  /**
+   * Returns the cached resource for the claim, transforming and caching a copy of it first if
+   * necessary.
+   *
+   * @param claimType the type of the claim
+   * @param transformer used to transform the claim on a miss
+   * @param claimEntity the claim to transform
+   * @param includeTaxNumbers whether to include tax numbers in the resource
+   * @return the transformed resource
+   */
+  private ExplanationOfBenefit transform(
+      ClaimType claimType,
+      ClaimTransformerInterfaceV2 transformer,
+      RifRecordBase claimEntity,
+      boolean includeTaxNumbers) {
+    final Key key =
+        new Key(
+            claimType,
+            claimType.getEntityIdFunction().apply(claimEntity),
+            claimEntity.getLastUpdated().orElse(null),
+            includeTaxNumbers);
+    final Entry cached = cache.getIfPresent(key);
+    if (cached != null) {
+      hits.inc();
+      return cached.eob();
+    }
+
+    misses.inc();
+    final ExplanationOfBenefit eob = transformer.transform(claimEntity, includeTaxNumbers);
+    cache.put(key, new Entry(eob.copy(), weigh(eob)));
+    return eob;
+  }
+
+  /**
+   * Gets the approximate number of cached resources.
+   *
+   * @return the number of entries, zero if the cache is disabled
+   */
+  @VisibleForTesting
+  long size() {
+    return cache == null ? 0 : cache.size();
+  }
+
+  /**
+   * Counts entries that were removed to stay within the maximum weight.
+   *
+   * @param notification describes the removed entry
+   */
+  private void onRemoval(RemovalNotification<Key, Entry> notification) {
+    if (notification.wasEvicted()) {
+      evictions.inc();
+    }
+  }
+
+  /**
+   * Computes the weight of a resource.
+   *
+   * @param eob the resource
+   * @return the weight
+   */
+  @VisibleForTesting
+  static int weigh(ExplanationOfBenefit eob) {
+    return 1
+        + eob.getItem().size()
+        + eob.getDiagnosis().size()
+        + eob.getProcedure().size()
+        + eob.getSupportingInfo().size()
+        + eob.getCareTeam().size();
+  }
+
+  /**
+   * Creates the name of one of the cache's metrics.
+   *
+   * @param metric the metric
+   * @return the metric name
+   */
+  private static String metricName(String metric) {
+    return MetricRegistry.name(TransformedEobCache.class.getSimpleName(), metric);
+  }
+
+  /**
+   * The cache key.
+   *
+   * @param claimType the type of the claim
+   * @param claimId the id of the claim
+   * @param lastUpdated the claim's lastUpdated, or null if it has none
+   * @param includeTaxNumbers whether the resource includes tax numbers
+   */
+  private record Key(
+      ClaimType claimType, long claimId, Instant lastUpdated, boolean includeTaxNumbers) {}
+
+  /**
+   * A cached resource.
+   *
+   * @param eob the stored copy of the transformed resource
+   * @param weight the weight of the resource
+   */
+  private record Entry(ExplanationOfBenefit eob, int weight) {}
+}
@@ -13,6 +13,7 @@ import gov.cms.bfd.model.codebook.data.CcwCodebookMissingVariable;
 import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
 import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
 import gov.cms.bfd.model.codebook.model.Variable;
+import gov.cms.bfd.model.rif.ClaimDiagnosesAndProcedures;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
 import gov.cms.bfd.model.rif.entities.CarrierClaimColumn;
@@ -68,6 +69,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.EnumSet;
@@ -77,7 +79,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.IntStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.hl7.fhir.dstu3.model.codesystems.BenefitCategory;
@@ -1506,6 +1507,49 @@ public final class TransformerUtilsV2 {
     return bundle;
   }
 
+  /**
+   * Create a bundle from a single page of resources that was selected before the resources were
+   * created; unlike {@link #createBundle(OffsetLinkBuilder, List, Instant)} the resources are not
+   * sub-listed, and the total number of matching resources is supplied by the caller.
+   *
+   * @param paging contains the {@link OffsetLinkBuilder} information
+   * @param pageResources the resources on the requested page
+   * @param total the total number of resources across all pages
+   * @param transactionTime date for the bundle
+   * @return the bundle containing the page of resources
+   */
+  public static Bundle createBundle(
+      OffsetLinkBuilder paging,
+      List<IBaseResource> pageResources,
+      int total,
+      Instant transactionTime) {
+    Bundle bundle = TransformerUtilsV2.addResourcesToBundle(new Bundle(), pageResources);
+    paging.setTotal(total).addLinks(bundle);
+    // Add number of paginated resources to MDC logs
+    LoggingUtils.logResourceCountToMdc(pageResources.size());
+
+    /*
+     * Dev Note: the Bundle's lastUpdated timestamp is the known last update time for the whole
+     * database. Because the filterManager's tracking of this timestamp is lazily updated for
+     * performance reason, the resources of the bundle may be after the filter manager's version of
+     * the timestamp.
+     */
+    Instant maxBundleDate =
+        pageResources.stream()
+            .map(r -> r.getMeta().getLastUpdated().toInstant())
+            .filter(Objects::nonNull)
+            .max(Instant::compareTo)
+            .orElse(transactionTime);
+    bundle
+        .getMeta()
+        .setLastUpdated(
+            transactionTime.isAfter(maxBundleDate)
+                ? Date.from(transactionTime)
+                : Date.from(maxBundleDate));
+    bundle.setTotal(total);
+    return bundle;
+  }
+
   /**
    * Validate the start index size is less than the total number of resources. If startIndex is
    * greater than or equal to the number of resources, throws an InvalidRequestException which will
@@ -3418,52 +3462,40 @@ public final class TransformerUtilsV2 {
    * Generically attempts to retrieve a procedure from the current claim.
    *
    * @param procedure Procedure accessors all follow the same pattern except for an integer
-   *     difference. This value is used as a substitution when looking up the method name.
-   * @param codes The mapping of procedure codes by their property name and respective value
-   * @param codeVersions The mapping of procedure code versions by their property name and
-   *     respective value
-   * @param dates The mapping of procedure dates by their property name and respective value
+   *     difference. This value is used as the number of the procedure to retrieve.
+   * @param claim the claim to retrieve the procedure from
    * @return a {@link CCWProcedure} or {@link Optional#empty()}
    */
   public static Optional<CCWProcedure> extractCCWProcedure(
-      int procedure,
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<LocalDate>> dates) {
-    Optional<String> code =
-        codes.getOrDefault(String.format("procedure%dCode", procedure), Optional.empty());
-    Optional<Character> codeVersion =
-        codeVersions.getOrDefault(
-            String.format("procedure%dCodeVersion", procedure), Optional.empty());
-    Optional<LocalDate> date =
-        dates.getOrDefault(String.format("procedure%dDate", procedure), Optional.empty());
-    return CCWProcedure.from(code, codeVersion, date);
+      int procedure, ClaimDiagnosesAndProcedures claim) {
+    String code = claim.getProcedureCode(procedure);
+    if (code == null) {
+      return Optional.empty();
+    }
+    return CCWProcedure.from(
+        Optional.of(code),
+        Optional.ofNullable(claim.getProcedureCodeVersion(procedure)),
+        Optional.ofNullable(claim.getProcedureDate(procedure)));
   }
 
   /**
    * Generically attempts to retrieve the procedures from the current claim.
    *
-   * @param codes The mapping of procedure codes by their property name and respective value
-   * @param codeVersions The mapping of procedure code versions by their property name and
-   *     respective value
-   * @param dates The mapping of procedure dates by their property name and respective value
+   * @param claim the claim to retrieve the procedures from
    * @return a list of {@link CCWProcedure}
    */
-  public static List<CCWProcedure> extractCCWProcedures(
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<LocalDate>> dates) {
+  public static List<CCWProcedure> extractCCWProcedures(ClaimDiagnosesAndProcedures claim) {
     // Handle Procedures
     // ICD_PRCDR_CD(1-25)        => ExplanationOfBenefit.procedure.procedureCodableConcept
     // ICD_PRCDR_VRSN_CD(1-25)   => ExplanationOfBenefit.procedure.procedureCodableConcept
     // PRCDR_DT(1-25)            => ExplanationOfBenefit.procedure.date
     final int FIRST_PROCEDURE = 1;
     final int LAST_PROCEDURE = 25;
-    return IntStream.range(FIRST_PROCEDURE, LAST_PROCEDURE + 1)
-        .mapToObj(i -> TransformerUtilsV2.extractCCWProcedure(i, codes, codeVersions, dates))
-        .filter(p -> p.isPresent())
-        .map(p -> p.get())
-        .toList();
+    List<CCWProcedure> procedures = new ArrayList<>();
+    for (int i = FIRST_PROCEDURE; i <= LAST_PROCEDURE; i++) {
+      extractCCWProcedure(i, claim).ifPresent(procedures::add);
+    }
+    return procedures;
   }
 
   /**
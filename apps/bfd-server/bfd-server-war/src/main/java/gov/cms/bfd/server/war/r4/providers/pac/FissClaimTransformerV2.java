@@ -94,6 +94,18 @@ public class FissClaimTransformerV2 extends AbstractTransformerV2
     }
   }
 
+  /**
+   * Determines if the ICD codes of the given {@link RdaFissClaim} are ICD-9 codes, based on the
+   * claim's statement covers to date.
+   *
+   * @param claimGroup the {@link RdaFissClaim} to check
+   * @return {@code true} if the claim's codes should use an ICD-9 system
+   */
+  static boolean isIcd9(RdaFissClaim claimGroup) {
+    return claimGroup.getStmtCovToDate() != null
+        && claimGroup.getStmtCovToDate().isBefore(ICD_9_CUTOFF_DATE);
+  }
+
   /**
    * Transforms a {@link RdaFissClaim} into a FHIR {@link Claim}.
    *
@@ -104,9 +116,7 @@ public class FissClaimTransformerV2 extends AbstractTransformerV2
   private Claim transformClaim(RdaFissClaim claimGroup, boolean includeTaxNumbers) {
     Claim claim = new Claim();
 
-    boolean isIcd9 =
-        claimGroup.getStmtCovToDate() != null
-            && claimGroup.getStmtCovToDate().isBefore(ICD_9_CUTOFF_DATE);
+    boolean isIcd9 = isIcd9(claimGroup);
 
     claim.setId("f-" + claimGroup.getClaimId());
     claim.setContained(
@@ -180,16 +180,7 @@ public class McsClaimTransformerV2 extends AbstractTransformerV2
               Claim.DiagnosisComponent component;
 
               if (Strings.isNotBlank(diagCode.getIdrDiagCode())) {
-                String system;
-
-                if (VALID_ICD_TYPES.contains(diagCode.getIdrDiagIcdType())) {
-                  system =
-                      diagCode.getIdrDiagIcdType().equals("0")
-                          ? IcdCode.CODING_SYSTEM_ICD_10_CM
-                          : IcdCode.CODING_SYSTEM_ICD_9;
-                } else {
-                  system = null;
-                }
+                String system = getIcdSystem(diagCode.getIdrDiagIcdType());
 
                 component =
                     new Claim.DiagnosisComponent()
@@ -206,6 +197,24 @@ public class McsClaimTransformerV2 extends AbstractTransformerV2
         .toList();
   }
 
+  /**
+   * Determines the ICD coding system for the given MCS diagnosis ICD type.
+   *
+   * @param icdType the {@link RdaMcsDiagnosisCode#getIdrDiagIcdType()} value
+   * @return the ICD coding system, or {@code null} if the ICD type is not valid
+   */
+  static String getIcdSystem(String icdType) {
+    String system;
+
+    if (VALID_ICD_TYPES.contains(icdType)) {
+      system = icdType.equals("0") ? IcdCode.CODING_SYSTEM_ICD_10_CM : IcdCode.CODING_SYSTEM_ICD_9;
+    } else {
+      system = null;
+    }
+
+    return system;
+  }
+
   /**
    * Parses out the line item data from the given {@link RdaMcsClaim} object, creating a list of
    * FHIR {@link Claim.ItemComponent} objects.
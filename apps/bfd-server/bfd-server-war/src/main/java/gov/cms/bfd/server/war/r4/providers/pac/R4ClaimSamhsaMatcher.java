@@ -1,13 +1,19 @@
 package gov.cms.bfd.server.war.r4.providers.pac;
 
+import com.codahale.metrics.MetricRegistry;
 import gov.cms.bfd.model.rda.entities.RdaFissClaim;
 import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
+import gov.cms.bfd.server.war.SpringConfiguration;
 import gov.cms.bfd.server.war.adapters.CodeableConcept;
 import gov.cms.bfd.server.war.adapters.r4.ClaimAdapter;
 import gov.cms.bfd.server.war.commons.AbstractSamhsaMatcher;
 import gov.cms.bfd.server.war.commons.TransformerConstants;
+import java.util.Optional;
 import java.util.function.Predicate;
 import org.hl7.fhir.r4.model.Claim;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 /**
@@ -29,6 +35,12 @@ public final class R4ClaimSamhsaMatcher extends AbstractSamhsaMatcher<Claim> {
   /** The mcs claim transformer, used for converting resources to check for samhsa data. */
   private final McsClaimTransformerV2 mcsTransformer;
 
+  /** The metric registry, used to record SAMHSA parity checks. */
+  private final MetricRegistry metricRegistry;
+
+  /** Whether claims should be transformed and checked by both matchers to compare their results. */
+  private final boolean parityCheckEnabled;
+
   /**
    * Instantiates a new samhsa matcher.
    *
@@ -36,32 +48,94 @@ public final class R4ClaimSamhsaMatcher extends AbstractSamhsaMatcher<Claim> {
    *
    * @param fissClaimTransformer the fiss claim transformer
    * @param mcsClaimTransformer the mcs claim transformer
+   * @param metricRegistry the metric registry
+   * @param parityCheckEnabled true if the entity and resource matchers should be compared
    */
   public R4ClaimSamhsaMatcher(
-      FissClaimTransformerV2 fissClaimTransformer, McsClaimTransformerV2 mcsClaimTransformer) {
+      FissClaimTransformerV2 fissClaimTransformer,
+      McsClaimTransformerV2 mcsClaimTransformer,
+      MetricRegistry metricRegistry,
+      @Qualifier(SpringConfiguration.SAMHSA_PARITY_CHECK_ENABLED) Boolean parityCheckEnabled) {
     this.mcsTransformer = mcsClaimTransformer;
     this.fissTransformer = fissClaimTransformer;
+    this.metricRegistry = metricRegistry;
+    this.parityCheckEnabled = parityCheckEnabled;
   }
 
   /**
    * Determines if there are no samhsa entries in the claim.
    *
+   * <p>The claim entity is screened directly using {@link #testEntity(Object)}, so SAMHSA claims
+   * are never transformed. When the parity check is enabled the claim is also transformed and
+   * checked with {@link #test(Claim)}, which then decides the result, and any disagreement between
+   * the two is recorded.
+   *
    * @param entity the claim to check
    * @return {@code true} if there are no samhsa entries in the claim
    */
   public boolean hasNoSamhsaData(Object entity) {
-    Claim claim;
+    boolean containsSamhsa = testEntity(entity);
+
+    if (parityCheckEnabled) {
+      boolean resourceContainsSamhsa;
+
+      if (entity instanceof RdaFissClaim fissClaim) {
+        resourceContainsSamhsa = test(fissTransformer.transform(entity, false));
+        recordParityCheck(
+            metricRegistry, "fiss", fissClaim.getClaimId(), containsSamhsa, resourceContainsSamhsa);
+      } else {
+        resourceContainsSamhsa = test(mcsTransformer.transform(entity, false));
+        recordParityCheck(
+            metricRegistry,
+            "mcs",
+            ((RdaMcsClaim) entity).getIdrClmHdIcn(),
+            containsSamhsa,
+            resourceContainsSamhsa);
+      }
+
+      containsSamhsa = resourceContainsSamhsa;
+    }
+
+    return !containsSamhsa;
+  }
 
-    if (entity instanceof RdaFissClaim) {
-      claim = fissTransformer.transform(entity, false);
-    } else if (entity instanceof RdaMcsClaim) {
-      claim = mcsTransformer.transform(entity, false);
+  /**
+   * Determines if the given claim entity is SAMHSA-related without transforming it. The entity's
+   * raw ICD and HCPCS columns are checked by the shared {@link SamhsaClaimClassifier}, which
+   * applies the same rules as {@link #test(Claim)} does to the {@link Claim} built from that entity
+   * by {@link FissClaimTransformerV2} or {@link McsClaimTransformerV2}.
+   *
+   * <p>A current SAMHSA flag stored by the pipeline is used instead of checking the codes: see
+   * {@link #isSamhsaClaimEntity(Object, Optional)}.
+   *
+   * @param entity the {@link RdaFissClaim} or {@link RdaMcsClaim} to check
+   * @return {@code true} if the claim entity is SAMHSA-related
+   */
+  public boolean testEntity(Object entity) {
+    if (entity instanceof RdaFissClaim fissClaim) {
+      return isSamhsaClaimEntity(
+          entity, currentFlag(fissClaim.getSamhsaCodeListVersion(), fissClaim.getSamhsaFlag()));
+    } else if (entity instanceof RdaMcsClaim mcsClaim) {
+      return isSamhsaClaimEntity(
+          entity, currentFlag(mcsClaim.getSamhsaCodeListVersion(), mcsClaim.getSamhsaFlag()));
     } else {
       throw new IllegalArgumentException(
           "Unsupported entity " + entity.getClass().getCanonicalName() + " for samhsa filtering");
     }
+  }
 
-    return !test(claim);
+  /**
+   * Gets a stored SAMHSA flag if it was computed with the current code list version.
+   *
+   * @param codeListVersion the code list version the flag was computed with, if any
+   * @param samhsaFlag the stored flag, if any
+   * @return the flag if it was computed with the current {@link SamhsaCodeSet#CODE_LIST_VERSION},
+   *     otherwise empty
+   */
+  private static Optional<Boolean> currentFlag(Short codeListVersion, Boolean samhsaFlag) {
+    return codeListVersion != null && codeListVersion == SamhsaCodeSet.CODE_LIST_VERSION
+        ? Optional.ofNullable(samhsaFlag)
+        : Optional.empty();
   }
 
   /** {@inheritDoc} */
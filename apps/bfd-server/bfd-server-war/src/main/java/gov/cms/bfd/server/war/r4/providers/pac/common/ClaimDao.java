@@ -197,8 +197,7 @@ public class ClaimDao {
    * @return a {@link Predicate} to be used in query where clause
    * @param <T> The entity type being retrieved.
    */
-  @VisibleForTesting
-  <T> Predicate createServiceDatePredicates(
+  public <T> Predicate createServiceDatePredicates(
       CriteriaBuilder builder,
       Root<T> root,
       DateRangeParam serviceDate,
@@ -18,7 +18,6 @@ import gov.cms.bfd.server.war.commons.TransformerConstants;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.dstu3.model.ExplanationOfBenefit;
 import org.hl7.fhir.dstu3.model.ExplanationOfBenefit.ItemComponent;
@@ -135,8 +134,7 @@ final class CarrierClaimTransformer implements ClaimTransformerInterface {
         claimGroup.getClaimDispositionCode(),
         claimGroup.getClaimCarrierControlNumber());
 
-    TransformerUtils.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    TransformerUtils.extractDiagnoses(claimGroup, false)
         .forEach(d -> TransformerUtils.addDiagnosisCode(eob, d));
 
     for (CarrierClaimLine claimLine : claimGroup.getLines()) {
@@ -15,7 +15,6 @@ import gov.cms.bfd.server.war.commons.MedicareSegment;
 import gov.cms.bfd.server.war.commons.TransformerConstants;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.dstu3.model.ExplanationOfBenefit;
 import org.hl7.fhir.dstu3.model.ExplanationOfBenefit.ItemComponent;
@@ -130,8 +129,7 @@ final class DMEClaimTransformer implements ClaimTransformerInterface {
         claimGroup.getClaimDispositionCode(),
         claimGroup.getClaimCarrierControlNumber());
 
-    TransformerUtils.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    TransformerUtils.extractDiagnoses(claimGroup, false)
         .forEach(d -> TransformerUtils.addDiagnosisCode(eob, d));
 
     for (DMEClaimLine claimLine : claimGroup.getLines()) {
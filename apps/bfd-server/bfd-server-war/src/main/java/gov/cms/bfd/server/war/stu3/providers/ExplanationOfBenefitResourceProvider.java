@@ -1,5 +1,6 @@
 package gov.cms.bfd.server.war.stu3.providers;
 
+import static gov.cms.bfd.server.war.SpringConfiguration.EOB_STREAMING_ENABLED;
 import static java.util.Objects.requireNonNull;
 
 import ca.uhn.fhir.model.api.annotation.Description;
@@ -30,8 +31,12 @@ import gov.cms.bfd.server.war.commons.LoadedFilterManager;
 import gov.cms.bfd.server.war.commons.LoggingUtils;
 import gov.cms.bfd.server.war.commons.OffsetLinkBuilder;
 import gov.cms.bfd.server.war.commons.OpenAPIContentProvider;
+import gov.cms.bfd.server.war.commons.StreamingBundleWriter;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -55,6 +60,7 @@ import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
@@ -107,6 +113,9 @@ public final class ExplanationOfBenefitResourceProvider extends AbstractResource
   /** The transformer for snf claims. */
   private final SNFClaimTransformer snfClaimTransformer;
 
+  /** Whether unpaged searches should write their results to the response as they are ready. */
+  private final boolean streamingEnabled;
+
   /**
    * Instantiates a new {@link ExplanationOfBenefitResourceProvider}.
    *
@@ -125,6 +134,7 @@ public final class ExplanationOfBenefitResourceProvider extends AbstractResource
    * @param outpatientClaimTransformer the outpatient claim transformer
    * @param partDEventTransformer the part d event transformer
    * @param snfClaimTransformer the snf claim transformer
+   * @param streamingEnabled whether unpaged searches should stream their results
    */
   public ExplanationOfBenefitResourceProvider(
       ApplicationContext appContext,
@@ -138,7 +148,8 @@ public final class ExplanationOfBenefitResourceProvider extends AbstractResource
       InpatientClaimTransformer inpatientClaimTransformer,
       OutpatientClaimTransformer outpatientClaimTransformer,
       PartDEventTransformer partDEventTransformer,
-      SNFClaimTransformer snfClaimTransformer) {
+      SNFClaimTransformer snfClaimTransformer,
+      @Qualifier(EOB_STREAMING_ENABLED) Boolean streamingEnabled) {
     this.appContext = requireNonNull(appContext);
     this.metricRegistry = requireNonNull(metricRegistry);
     this.loadedFilterManager = requireNonNull(loadedFilterManager);
@@ -151,6 +162,7 @@ public final class ExplanationOfBenefitResourceProvider extends AbstractResource
     this.outpatientClaimTransformer = requireNonNull(outpatientClaimTransformer);
     this.partDEventTransformer = requireNonNull(partDEventTransformer);
     this.snfClaimTransformer = requireNonNull(snfClaimTransformer);
+    this.streamingEnabled = streamingEnabled;
   }
 
   /**
@@ -357,16 +369,31 @@ public final class ExplanationOfBenefitResourceProvider extends AbstractResource
     Bundle bundle = null;
     if (claimTypesThatHaveData > 0) {
       try {
-        bundle =
-            processClaimsMask(
-                claimTypesThatHaveData,
-                claimTypesRequested,
-                beneficiaryId,
-                paging,
-                Optional.ofNullable(lastUpdated),
-                Optional.ofNullable(serviceDate),
-                filterSamhsa,
-                includeTaxNumbers);
+        if (streamingEnabled
+            && !paging.isPagingRequested()
+            && StreamingBundleWriter.isSupported(requestDetails)) {
+          bundle =
+              streamClaimsMask(
+                  claimTypesThatHaveData,
+                  claimTypesRequested,
+                  beneficiaryId,
+                  Optional.ofNullable(lastUpdated),
+                  Optional.ofNullable(serviceDate),
+                  filterSamhsa,
+                  includeTaxNumbers,
+                  new StreamingBundleWriter(requestDetails));
+        } else {
+          bundle =
+              processClaimsMask(
+                  claimTypesThatHaveData,
+                  claimTypesRequested,
+                  beneficiaryId,
+                  paging,
+                  Optional.ofNullable(lastUpdated),
+                  Optional.ofNullable(serviceDate),
+                  filterSamhsa,
+                  includeTaxNumbers);
+        }
       } catch (InvalidRequestException e) {
         // If we're throwing a 400, pass it back up
         throw e;
@@ -428,6 +455,155 @@ public final class ExplanationOfBenefitResourceProvider extends AbstractResource
     }
     List<IBaseResource> eobs = new ArrayList<>();
 
+    List<Callable<PatientClaimsEobTaskTransformer>> callableTasks =
+        createTasks(
+            claimsToProcess,
+            beneficiaryId,
+            lastUpdated,
+            serviceDate,
+            excludeSamhsa,
+            includeTaxNumbers);
+    List<Future<PatientClaimsEobTaskTransformer>> futures;
+    try {
+      futures = executorService.invokeAll(callableTasks);
+    } catch (InterruptedException e) {
+      throw e;
+    }
+
+    for (Future<PatientClaimsEobTaskTransformer> future : futures) {
+      try {
+        PatientClaimsEobTaskTransformer taskResult = future.get();
+        if (taskResult.ranSuccessfully()) {
+          eobs.addAll(taskResult.fetchEOBs());
+        } else {
+          Throwable taskError = taskResult.getFailure().get();
+          throw new RuntimeException(taskError);
+        }
+      } catch (InterruptedException | ExecutionException e) {
+        throw e;
+      }
+    }
+    eobs.sort(ExplanationOfBenefitResourceProvider::compareByClaimIdThenClaimType);
+
+    // Add bene_id to MDC logs
+    LoggingUtils.logBeneIdToMdc(beneficiaryId);
+    return TransformerUtils.createBundle(paging, eobs, loadedFilterManager.getTransactionTime());
+  }
+
+  /**
+   * Process the available claims mask value denoting which claims to process in parallel, writing
+   * the resulting {@link ExplanationOfBenefit}s to the response one claim type at a time, in {@link
+   * ClaimType} order. Each task's resources are sorted by {@link #compareByClaimIdThenClaimType}
+   * before they are written, so the same request always produces the same entries in the same
+   * order. Once a task's resources have been written they are released, so the whole result is
+   * never held in memory at once.
+   *
+   * <p>This order differs from the unstreamed response, which sorts all of its resources by {@link
+   * #compareByClaimIdThenClaimType} so that claims of different types are interleaved. Matching it
+   * would mean holding every task's resources until the last task completes. Streamed responses are
+   * never paged, so the difference doesn't affect paging stability, but the same request can list
+   * its entries in a different order depending on whether streaming is enabled.
+   *
+   * <p>If a task fails before anything was written, the exception is answered with the usual {@code
+   * OperationOutcome}; after that, {@link gov.cms.bfd.server.war.StreamedResponseInterceptor} logs
+   * it and the connection is closed.
+   *
+   * @param claimTypesThatHaveData an {@link Integer} denoting the claim types to process.
+   * @param claimTypesRequested a {@link Set} of {@link ClaimType} denoting requested claim types.
+   * @param beneficiaryId a {@link Long} patient bene_id value.
+   * @param lastUpdated a {@link DateRangeParam} denoting inclusion of lastUpdated field.
+   * @param serviceDate a {@link DateRangeParam} specifying date range for the {@link
+   *     ExplanationOfBenefit}s that completed.
+   * @param excludeSamhsa whether to filter out all SAMHSA-related claims from the results
+   * @param includeTaxNumbers whether to include tax numbers in the response
+   * @param writer the writer for the response
+   * @return a {@link Bundle} holding the root properties of the streamed response, with no entries,
+   *     or null if none of the requested claim types have data
+   * @throws InterruptedException when thread processing task is interrupted.
+   * @throws ExecutionException when when executor fails to create thread.
+   * @throws IOException when the response could not be written.
+   */
+  private Bundle streamClaimsMask(
+      int claimTypesThatHaveData,
+      Set<ClaimType> claimTypesRequested,
+      long beneficiaryId,
+      Optional<DateRangeParam> lastUpdated,
+      Optional<DateRangeParam> serviceDate,
+      boolean excludeSamhsa,
+      boolean includeTaxNumbers,
+      StreamingBundleWriter writer)
+      throws InterruptedException, ExecutionException, IOException {
+    EnumSet<ClaimType> claimsToProcess =
+        TransformerUtils.fetchClaimsAvailability(claimTypesRequested, claimTypesThatHaveData);
+
+    // OK to return null, since fallback will create bundle and log things.
+    if (claimsToProcess.isEmpty()) {
+      return null;
+    }
+
+    List<Callable<PatientClaimsEobTaskTransformer>> callableTasks =
+        createTasks(
+            claimsToProcess,
+            beneficiaryId,
+            lastUpdated,
+            serviceDate,
+            excludeSamhsa,
+            includeTaxNumbers);
+    List<Future<PatientClaimsEobTaskTransformer>> futures =
+        callableTasks.stream().map(executorService::submit).toList();
+
+    try {
+      for (Future<PatientClaimsEobTaskTransformer> future : futures) {
+        PatientClaimsEobTaskTransformer taskResult = future.get();
+        if (!taskResult.ranSuccessfully()) {
+          Throwable taskError = taskResult.getFailure().get();
+          throw new RuntimeException(taskError);
+        }
+        List<ExplanationOfBenefit> eobs = taskResult.fetchEOBs();
+        eobs.sort(ExplanationOfBenefitResourceProvider::compareByClaimIdThenClaimType);
+        writer.writeResources(eobs);
+        eobs.clear();
+      }
+    } catch (InterruptedException | ExecutionException | IOException | RuntimeException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw e;
+    }
+
+    Bundle bundle = new Bundle();
+    bundle.setTotal(writer.getResourceCount());
+    Instant transactionTime = loadedFilterManager.getTransactionTime();
+    bundle
+        .getMeta()
+        .setLastUpdated(
+            Date.from(
+                writer.getLastUpdated().filter(transactionTime::isBefore).orElse(transactionTime)));
+    writer.finish(bundle);
+
+    // Add bene_id and number of resources to MDC logs
+    LoggingUtils.logBeneIdToMdc(beneficiaryId);
+    LoggingUtils.logResourceCountToMdc(writer.getResourceCount());
+    return bundle;
+  }
+
+  /**
+   * Creates one {@link PatientClaimsEobTaskTransformer} per claim type.
+   *
+   * @param claimsToProcess the claim types to fetch and transform
+   * @param beneficiaryId a {@link Long} patient bene_id value.
+   * @param lastUpdated a {@link DateRangeParam} denoting inclusion of lastUpdated field.
+   * @param serviceDate a {@link DateRangeParam} specifying date range for the {@link
+   *     ExplanationOfBenefit}s that completed.
+   * @param excludeSamhsa whether to filter out all SAMHSA-related claims from the results
+   * @param includeTaxNumbers whether to include tax numbers in the response
+   * @return the tasks
+   */
+  private List<Callable<PatientClaimsEobTaskTransformer>> createTasks(
+      Set<ClaimType> claimsToProcess,
+      long beneficiaryId,
+      Optional<DateRangeParam> lastUpdated,
+      Optional<DateRangeParam> serviceDate,
+      boolean excludeSamhsa,
+      boolean includeTaxNumbers) {
     /*
      * The way our JPA/SQL schema is setup, we have to run a separate search for
      * each claim type, then combine the results. It's not super efficient, but it's
@@ -457,32 +633,7 @@ public final class ExplanationOfBenefitResourceProvider extends AbstractResource
           task.setIncludeTaxNumbers(includeTaxNumbers);
           callableTasks.add(task);
         });
-
-    List<Future<PatientClaimsEobTaskTransformer>> futures;
-    try {
-      futures = executorService.invokeAll(callableTasks);
-    } catch (InterruptedException e) {
-      throw e;
-    }
-
-    for (Future<PatientClaimsEobTaskTransformer> future : futures) {
-      try {
-        PatientClaimsEobTaskTransformer taskResult = future.get();
-        if (taskResult.ranSuccessfully()) {
-          eobs.addAll(taskResult.fetchEOBs());
-        } else {
-          Throwable taskError = taskResult.getFailure().get();
-          throw new RuntimeException(taskError);
-        }
-      } catch (InterruptedException | ExecutionException e) {
-        throw e;
-      }
-    }
-    eobs.sort(ExplanationOfBenefitResourceProvider::compareByClaimIdThenClaimType);
-
-    // Add bene_id to MDC logs
-    LoggingUtils.logBeneIdToMdc(beneficiaryId);
-    return TransformerUtils.createBundle(paging, eobs, loadedFilterManager.getTransactionTime());
+    return callableTasks;
   }
 
   /**
@@ -13,7 +13,6 @@ import gov.cms.bfd.server.war.commons.ClaimType;
 import gov.cms.bfd.server.war.commons.MedicareSegment;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.dstu3.model.Address;
 import org.hl7.fhir.dstu3.model.ExplanationOfBenefit;
@@ -145,8 +144,7 @@ final class HospiceClaimTransformer implements ClaimTransformerInterface {
         claimGroup.getFiDocumentClaimControlNumber(),
         claimGroup.getFiOriginalClaimControlNumber());
 
-    TransformerUtils.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    TransformerUtils.extractDiagnoses(claimGroup, false)
         .forEach(d -> TransformerUtils.addDiagnosisCode(eob, d));
 
     for (HospiceClaimLine claimLine : claimGroup.getLines()) {
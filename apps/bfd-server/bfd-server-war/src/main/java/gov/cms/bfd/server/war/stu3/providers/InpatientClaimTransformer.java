@@ -238,16 +238,10 @@ final class InpatientClaimTransformer implements ClaimTransformerInterface {
         claimGroup.getBeneficiaryDischargeDate(),
         Optional.of(claimGroup.getUtilizationDayCount()));
 
-    TransformerUtils.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(),
-            claimGroup.getDiagnosisCodeVersions(),
-            claimGroup.getDiagnosisPresentOnAdmissionCodes())
+    TransformerUtils.extractDiagnoses(claimGroup, true)
         .forEach(d -> TransformerUtils.addDiagnosisCode(eob, d));
 
-    TransformerUtils.extractCCWProcedures(
-            claimGroup.getProcedureCodes(),
-            claimGroup.getProcedureCodeVersions(),
-            claimGroup.getProcedureDates())
+    TransformerUtils.extractCCWProcedures(claimGroup)
         .forEach(p -> TransformerUtils.addProcedureCode(eob, p));
 
     for (InpatientClaimLine claimLine : claimGroup.getLines()) {
@@ -14,7 +14,6 @@ import gov.cms.bfd.server.war.commons.ClaimType;
 import gov.cms.bfd.server.war.commons.MedicareSegment;
 import gov.cms.bfd.sharedutils.exceptions.BadCodeMonkeyException;
 import java.util.Arrays;
-import java.util.Map;
 import java.util.Optional;
 import org.hl7.fhir.dstu3.model.Address;
 import org.hl7.fhir.dstu3.model.ExplanationOfBenefit;
@@ -167,15 +166,11 @@ final class OutpatientClaimTransformer implements ClaimTransformerInterface {
         claimGroup.getFiDocumentClaimControlNumber(),
         claimGroup.getFiOriginalClaimControlNumber());
 
-    TransformerUtils.extractDiagnoses(
-            claimGroup.getDiagnosisCodes(), claimGroup.getDiagnosisCodeVersions(), Map.of())
+    TransformerUtils.extractDiagnoses(claimGroup, false)
         .forEach(d -> TransformerUtils.addDiagnosisCode(eob, d));
 
     // Handle Procedures
-    TransformerUtils.extractCCWProcedures(
-            claimGroup.getProcedureCodes(),
-            claimGroup.getProcedureCodeVersions(),
-            claimGroup.getProcedureDates())
+    TransformerUtils.extractCCWProcedures(claimGroup)
         .forEach(p -> TransformerUtils.addProcedureCode(eob, p));
 
     for (OutpatientClaimLine claimLine : claimGroup.getLines()) {
@@ -13,6 +13,7 @@ import gov.cms.bfd.model.codebook.data.CcwCodebookMissingVariable;
 import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
 import gov.cms.bfd.model.codebook.model.CcwCodebookInterface;
 import gov.cms.bfd.model.codebook.model.Variable;
+import gov.cms.bfd.model.rif.ClaimDiagnosesAndProcedures;
 import gov.cms.bfd.model.rif.entities.Beneficiary;
 import gov.cms.bfd.model.rif.entities.CarrierClaim;
 import gov.cms.bfd.model.rif.entities.CarrierClaimColumn;
@@ -65,7 +66,6 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -115,6 +115,24 @@ import org.hl7.fhir.r4.model.Organization;
  * resources (e.g. {@link Patient}).
  */
 public final class TransformerUtils {
+  /**
+   * The {@link CcwCodebookVariable} for the "PresentOnAdmissionCode" of each numbered diagnosis,
+   * indexed by the diagnosis number.
+   */
+  private static final CcwCodebookVariable[] DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES =
+      IntStream.rangeClosed(0, 25)
+          .mapToObj(i -> i == 0 ? null : CcwCodebookVariable.valueOf("CLM_POA_IND_SW" + i))
+          .toArray(CcwCodebookVariable[]::new);
+
+  /**
+   * The {@link CcwCodebookVariable} for the "PresentOnAdmissionCode" of each numbered external
+   * diagnosis, indexed by the diagnosis number.
+   */
+  private static final CcwCodebookVariable[] EXTERNAL_DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES =
+      IntStream.rangeClosed(0, 12)
+          .mapToObj(i -> i == 0 ? null : CcwCodebookVariable.valueOf("CLM_E_POA_IND_SW" + i))
+          .toArray(CcwCodebookVariable[]::new);
+
   /**
    * Adds an adjudication total to the specified {@link ExplanationOfBenefit}.
    *
@@ -2227,36 +2245,20 @@ public final class TransformerUtils {
   /**
    * Generically attempts to retrieve a diagnosis from the current claim.
    *
-   * @param substitution The methods to retrive diagnosis information all follow a similar pattern.
-   *     This value is used to substitute into that pattern when looking up the specific method to
-   *     retrive information with.
-   * @param codes The mapping of diagnosis codes by their property name and respective value
-   * @param codeVersions The mapping of diagnosis code versions by their property name and
-   *     respective value
-   * @param presentOnAdms The mapping of diagnosis "PresentOnAdmissionCode" codes by their property
-   *     name and respective value
+   * @param code the diagnosis code, if any
+   * @param codeVersion the diagnosis code version, if any
+   * @param presentOnAdm the diagnosis "PresentOnAdmissionCode" code, if any
    * @param ccw CCW Codebook value that represents which "PresentOnAdmissionCode" is being used.
    *     Example: {@link CcwCodebookVariable#CLM_POA_IND_SW5}
    * @param label One or more labels to use when mapping the diagnosis.
    * @return a {@link Diagnosis} or {@link Optional#empty()}
    */
   public static Optional<Diagnosis> extractDiagnosis(
-      String substitution,
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<Character>> presentOnAdms,
+      Optional<String> code,
+      Optional<Character> codeVersion,
+      Optional<Character> presentOnAdm,
       Optional<CcwCodebookInterface> ccw,
       Optional<DiagnosisLabel> label) {
-    Optional<String> code =
-        codes.getOrDefault(String.format("diagnosis%sCode", substitution), Optional.empty());
-    Optional<Character> codeVersion =
-        codeVersions.getOrDefault(
-            String.format("diagnosis%sCodeVersion", substitution), Optional.empty());
-    Optional<Character> presentOnAdm =
-        presentOnAdms.isEmpty()
-            ? Optional.empty()
-            : presentOnAdms.getOrDefault(
-                String.format("diagnosis%sPresentOnAdmissionCode", substitution), Optional.empty());
     if (presentOnAdm.isEmpty() && ccw.isEmpty() && label.isEmpty()) {
       return Diagnosis.from(code, codeVersion);
     }
@@ -2266,166 +2268,157 @@ public final class TransformerUtils {
     return Diagnosis.from(code, codeVersion, presentOnAdm, ccw, label.get());
   }
 
+  /**
+   * Adds one of the numbered diagnoses of a claim to a list if the claim has a code for it. Nothing
+   * is allocated for numbers without a code.
+   *
+   * @param diagnoses the list to add the diagnosis to
+   * @param code the diagnosis code, or null if the claim has none
+   * @param codeVersion the diagnosis code version, or null if the claim has none
+   * @param presentOnAdm the diagnosis "PresentOnAdmissionCode" code, or null if the claim has none
+   * @param ccw CCW Codebook value that represents which "PresentOnAdmissionCode" is being used, or
+   *     null if none is used
+   * @param label the label to use when mapping the diagnosis, or null if none is used
+   */
+  private static void addNumberedDiagnosis(
+      List<Diagnosis> diagnoses,
+      String code,
+      Character codeVersion,
+      Character presentOnAdm,
+      CcwCodebookInterface ccw,
+      DiagnosisLabel label) {
+    if (code != null) {
+      extractDiagnosis(
+              Optional.of(code),
+              Optional.ofNullable(codeVersion),
+              Optional.ofNullable(presentOnAdm),
+              Optional.ofNullable(ccw),
+              Optional.ofNullable(label))
+          .ifPresent(diagnoses::add);
+    }
+  }
+
   /**
    * Extracts all possible diagnosis types from a Claim.
    *
-   * @param codes The mapping of diagnosis codes by their property name and respective value
-   * @param codeVersions The mapping of diagnosis code versions by their property name and
-   *     respective value
-   * @param presentOnAdms The mapping of diagnosis "PresentOnAdmissionCode" codes by their property
-   *     name and respective value
-   * @return the {@link Diagnosis} that can be extracted from the specified claim properties
+   * @param claim the claim to extract the diagnoses from
+   * @param presentOnAdmission true if the claim type has "PresentOnAdmissionCode" codes for its
+   *     diagnoses
+   * @return the {@link Diagnosis} that can be extracted from the specified claim
    */
   static List<Diagnosis> extractDiagnoses(
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<Character>> presentOnAdms) {
+      ClaimDiagnosesAndProcedures claim, boolean presentOnAdmission) {
 
-    List<Optional<Diagnosis>> diagnosis = new ArrayList<>();
+    List<Diagnosis> diagnoses = new ArrayList<>();
     // Handle the "special" diagnosis fields
-    diagnosis.add(
-        extractDiagnosis(
-            "Admitting",
-            codes,
-            codeVersions,
-            presentOnAdms,
+    extractDiagnosis(
+            claim.getDiagnosisAdmittingCode(),
+            claim.getDiagnosisAdmittingCodeVersion(),
             Optional.empty(),
-            Optional.of(DiagnosisLabel.ADMITTING)));
-    diagnosis.add(
-        extractDiagnosis(
-            "1",
-            codes,
-            codeVersions,
-            presentOnAdms,
-            presentOnAdms.isEmpty()
-                ? Optional.empty()
-                : Optional.of(CcwCodebookVariable.CLM_POA_IND_SW1),
-            Optional.of(DiagnosisLabel.PRINCIPAL)));
-    diagnosis.add(
-        extractDiagnosis(
-            "Principal",
-            codes,
-            codeVersions,
-            presentOnAdms,
             Optional.empty(),
-            Optional.of(DiagnosisLabel.PRINCIPAL)));
+            Optional.of(DiagnosisLabel.ADMITTING))
+        .ifPresent(diagnoses::add);
+    addNumberedDiagnosis(
+        diagnoses,
+        claim.getDiagnosisCode(1),
+        claim.getDiagnosisCodeVersion(1),
+        presentOnAdmission ? claim.getDiagnosisPresentOnAdmissionCode(1) : null,
+        presentOnAdmission ? DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[1] : null,
+        DiagnosisLabel.PRINCIPAL);
+    extractDiagnosis(
+            claim.getDiagnosisPrincipalCode(),
+            claim.getDiagnosisPrincipalCodeVersion(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(DiagnosisLabel.PRINCIPAL))
+        .ifPresent(diagnoses::add);
 
     // Generically handle the rest (2-25)
     final int FIRST_DIAG = 2;
     final int LAST_DIAG = 25;
-    IntStream.range(FIRST_DIAG, LAST_DIAG + 1)
-        .mapToObj(
-            i ->
-                extractDiagnosis(
-                    String.valueOf(i),
-                    codes,
-                    codeVersions,
-                    presentOnAdms,
-                    presentOnAdms.isEmpty()
-                        ? Optional.empty()
-                        : Optional.of(CcwCodebookVariable.valueOf("CLM_POA_IND_SW" + i)),
-                    presentOnAdms.isEmpty() ? Optional.empty() : Optional.of(DiagnosisLabel.OTHER)))
-        .forEach(diagnosis::add);
+    for (int i = FIRST_DIAG; i <= LAST_DIAG; i++) {
+      addNumberedDiagnosis(
+          diagnoses,
+          claim.getDiagnosisCode(i),
+          claim.getDiagnosisCodeVersion(i),
+          presentOnAdmission ? claim.getDiagnosisPresentOnAdmissionCode(i) : null,
+          presentOnAdmission ? DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[i] : null,
+          presentOnAdmission ? DiagnosisLabel.OTHER : null);
+    }
 
     // Handle first external diagnosis
-    diagnosis.add(
-        extractDiagnosis(
-            "External1",
-            codes,
-            codeVersions,
-            presentOnAdms,
-            presentOnAdms.isEmpty()
-                ? Optional.empty()
-                : Optional.of(CcwCodebookVariable.CLM_E_POA_IND_SW1),
-            Optional.of(DiagnosisLabel.FIRSTEXTERNAL)));
-    diagnosis.add(
-        extractDiagnosis(
-            "ExternalFirst",
-            codes,
-            codeVersions,
-            presentOnAdms,
+    addNumberedDiagnosis(
+        diagnoses,
+        claim.getDiagnosisExternalCode(1),
+        claim.getDiagnosisExternalCodeVersion(1),
+        presentOnAdmission ? claim.getDiagnosisExternalPresentOnAdmissionCode(1) : null,
+        presentOnAdmission ? EXTERNAL_DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[1] : null,
+        DiagnosisLabel.FIRSTEXTERNAL);
+    extractDiagnosis(
+            claim.getDiagnosisExternalFirstCode(),
+            claim.getDiagnosisExternalFirstCodeVersion(),
             Optional.empty(),
-            Optional.of(DiagnosisLabel.FIRSTEXTERNAL)));
+            Optional.empty(),
+            Optional.of(DiagnosisLabel.FIRSTEXTERNAL))
+        .ifPresent(diagnoses::add);
 
     // Generically handle the rest (2-12)
     final int FIRST_EX_DIAG = 2;
     final int LAST_EX_DIAG = 12;
-    IntStream.range(FIRST_EX_DIAG, LAST_EX_DIAG + 1)
-        .mapToObj(
-            i ->
-                extractDiagnosis(
-                    "External" + i,
-                    codes,
-                    codeVersions,
-                    presentOnAdms,
-                    presentOnAdms.isEmpty()
-                        ? Optional.empty()
-                        : Optional.of(CcwCodebookVariable.valueOf("CLM_E_POA_IND_SW" + i)),
-                    Optional.of(DiagnosisLabel.EXTERNAL)))
-        .forEach(diagnosis::add);
+    for (int i = FIRST_EX_DIAG; i <= LAST_EX_DIAG; i++) {
+      addNumberedDiagnosis(
+          diagnoses,
+          claim.getDiagnosisExternalCode(i),
+          claim.getDiagnosisExternalCodeVersion(i),
+          presentOnAdmission ? claim.getDiagnosisExternalPresentOnAdmissionCode(i) : null,
+          presentOnAdmission ? EXTERNAL_DIAGNOSIS_PRESENT_ON_ADMISSION_VARIABLES[i] : null,
+          DiagnosisLabel.EXTERNAL);
+    }
 
     // RSN_VISIT_CD(1-3) => diagnosis.diagnosisCodeableConcept
     // RSN_VISIT_VRSN_CD(1-3) => diagnosis.diagnosisCodeableConcept
     final int FIRST_INPATIENT_DIAGNOSIS = 1;
     final int LAST_INPATIENT_DIAGNOSIS = 3;
-    IntStream.range(FIRST_INPATIENT_DIAGNOSIS, LAST_INPATIENT_DIAGNOSIS + 1)
-        .mapToObj(
-            i ->
-                TransformerUtils.extractDiagnosis(
-                    String.format("Admission%d", i),
-                    codes,
-                    codeVersions,
-                    Map.of(),
-                    Optional.empty(),
-                    Optional.of(DiagnosisLabel.REASONFORVISIT)))
-        .forEach(diagnosis::add);
-
-    // Some may be empty. Convert from List<Optional<Diagnosis>> to List<Diagnosis>
-    return diagnosis.stream()
-        .filter(d -> d.isPresent())
-        .map(d -> d.get())
-        .collect(Collectors.toList());
+    for (int i = FIRST_INPATIENT_DIAGNOSIS; i <= LAST_INPATIENT_DIAGNOSIS; i++) {
+      addNumberedDiagnosis(
+          diagnoses,
+          claim.getDiagnosisAdmissionCode(i),
+          claim.getDiagnosisAdmissionCodeVersion(i),
+          null,
+          null,
+          DiagnosisLabel.REASONFORVISIT);
+    }
+
+    return diagnoses;
   }
 
   /**
    * Generically attempts to retrieve a procedure from the current claim.
    *
    * @param procedure Procedure accessors all follow the same pattern except for an integer
-   *     difference. This value is used as a substitution when looking up the method name.
-   * @param codes The mapping of procedure codes by their property name and respective value
-   * @param codeVersions The mapping of procedure code versions by their property name and
-   *     respective value
-   * @param dates The mapping of procedure dates by their property name and respective value
+   *     difference. This value is used as the number of the procedure to retrieve.
+   * @param claim the claim to retrieve the procedure from
    * @return a {@link CCWProcedure} or {@link Optional#empty()}
    */
   public static Optional<CCWProcedure> extractCCWProcedure(
-      int procedure,
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<LocalDate>> dates) {
-    Optional<String> code =
-        codes.getOrDefault(String.format("procedure%dCode", procedure), Optional.empty());
-    Optional<Character> codeVersion =
-        codeVersions.getOrDefault(
-            String.format("procedure%dCodeVersion", procedure), Optional.empty());
-    Optional<LocalDate> date =
-        dates.getOrDefault(String.format("procedure%dDate", procedure), Optional.empty());
-    return CCWProcedure.from(code, codeVersion, date);
+      int procedure, ClaimDiagnosesAndProcedures claim) {
+    String code = claim.getProcedureCode(procedure);
+    if (code == null) {
+      return Optional.empty();
+    }
+    return CCWProcedure.from(
+        Optional.of(code),
+        Optional.ofNullable(claim.getProcedureCodeVersion(procedure)),
+        Optional.ofNullable(claim.getProcedureDate(procedure)));
   }
 
   /**
    * Generically attempts to retrieve the procedures from the current claim.
    *
-   * @param codes The mapping of procedure codes by their property name and respective value
-   * @param codeVersions The mapping of procedure code versions by their property name and
-   *     respective value
-   * @param dates The mapping of procedure dates by their property name and respective value
+   * @param claim the claim to retrieve the procedures from
    * @return a list of {@link CCWProcedure}
    */
-  public static List<CCWProcedure> extractCCWProcedures(
-      Map<String, Optional<String>> codes,
-      Map<String, Optional<Character>> codeVersions,
-      Map<String, Optional<LocalDate>> dates) {
+  public static List<CCWProcedure> extractCCWProcedures(ClaimDiagnosesAndProcedures claim) {
     // Handle Procedures
     // ICD_PRCDR_CD(1-25) => ExplanationOfBenefit.procedure.procedureCodableConcept
     // ICD_PRCDR_VRSN_CD(1-25) =>
@@ -2433,11 +2426,11 @@ public final class TransformerUtils {
     // PRCDR_DT(1-25) => ExplanationOfBenefit.procedure.date
     final int FIRST_PROCEDURE = 1;
     final int LAST_PROCEDURE = 25;
-    return IntStream.range(FIRST_PROCEDURE, LAST_PROCEDURE + 1)
-        .mapToObj(i -> TransformerUtils.extractCCWProcedure(i, codes, codeVersions, dates))
-        .filter(p -> p.isPresent())
-        .map(p -> p.get())
-        .toList();
+    List<CCWProcedure> procedures = new ArrayList<>();
+    for (int i = FIRST_PROCEDURE; i <= LAST_PROCEDURE; i++) {
+      extractCCWProcedure(i, claim).ifPresent(procedures::add);
+    }
+    return procedures;
   }
 
   /**
@@ -0,0 +1,104 @@
+package gov.cms.bfd.server.war;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link BoundedVirtualThreadExecutorService}. */
+public class BoundedVirtualThreadExecutorServiceTest {
+  /** The maximum number of tasks the executor under test runs at once. */
+  private static final int MAX_CONCURRENCY = 3;
+
+  /** The executor under test. */
+  private BoundedVirtualThreadExecutorService executor;
+
+  /** Creates the executor under test. */
+  @BeforeEach
+  public void setup() {
+    executor = new BoundedVirtualThreadExecutorService("test-", MAX_CONCURRENCY);
+  }
+
+  /**
+   * Stops the executor under test.
+   *
+   * @throws InterruptedException if interrupted while waiting for the executor to stop
+   */
+  @AfterEach
+  public void tearDown() throws InterruptedException {
+    executor.shutdownNow();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Verifies that all submitted tasks are run on virtual threads, but never more than the limit at
+   * the same time.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void testInvokeAllWhenMoreTasksThanLimitExpectLimitNeverExceeded() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (int i = 0; i < 20; ++i) {
+      tasks.add(
+          () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+              Thread.sleep(10);
+              return Thread.currentThread().isVirtual();
+            } finally {
+              running.decrementAndGet();
+            }
+          });
+    }
+
+    List<Future<Boolean>> futures = executor.invokeAll(tasks);
+
+    for (Future<Boolean> future : futures) {
+      assertTrue(future.get());
+    }
+    assertTrue(maxRunning.get() <= MAX_CONCURRENCY, "maxRunning=" + maxRunning.get());
+  }
+
+  /**
+   * Verifies that a task still waiting for a permit when the executor is shut down is cancelled
+   * rather than left incomplete.
+   *
+   * @throws Exception indicates test failure
+   */
+  @Test
+  public void testShutdownNowWhenTaskWaitingExpectTaskCancelled() throws Exception {
+    CountDownLatch started = new CountDownLatch(MAX_CONCURRENCY);
+    // the running tasks ignore the interrupt so that the waiting task can't get their permits
+    Semaphore release = new Semaphore(0);
+    for (int i = 0; i < MAX_CONCURRENCY; ++i) {
+      executor.submit(
+          () -> {
+            started.countDown();
+            release.acquireUninterruptibly();
+          });
+    }
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    Future<String> waiting = executor.submit(() -> "ran");
+    assertEquals(MAX_CONCURRENCY, executor.getRunningCount());
+
+    executor.shutdownNow();
+
+    assertThrows(CancellationException.class, () -> waiting.get(10, TimeUnit.SECONDS));
+    release.release(MAX_CONCURRENCY);
+  }
+}
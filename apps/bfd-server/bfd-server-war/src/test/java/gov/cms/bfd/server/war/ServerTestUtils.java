@@ -10,6 +10,7 @@ import ca.uhn.fhir.rest.client.interceptor.LoggingInterceptor;
 import com.google.common.collect.ImmutableSet;
 import gov.cms.bfd.model.rif.LoadedBatch;
 import gov.cms.bfd.model.rif.LoadedFile;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
 import gov.cms.bfd.model.rif.RifFileEvent;
 import gov.cms.bfd.model.rif.RifFilesEvent;
 import gov.cms.bfd.model.rif.RifRecordBase;
@@ -596,6 +597,7 @@ public final class ServerTestUtils {
             BeneficiaryHistory.class,
             BeneficiaryMonthly.class,
             Beneficiary.class,
+            LoadedFileBloomFilter.class,
             LoadedBatch.class,
             LoadedFile.class,
             SkippedRifRecord.class);
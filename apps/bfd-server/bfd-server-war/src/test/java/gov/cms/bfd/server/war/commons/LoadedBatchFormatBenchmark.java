@@ -0,0 +1,107 @@
+package gov.cms.bfd.server.war.commons;
+
+import gov.cms.bfd.BenchmarkUtils;
+import gov.cms.bfd.model.rif.LoadedBatch;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the legacy comma separated {@link LoadedBatch} beneficiaries format with the packed
+ * binary format. For a synthetic file it reports the bytes stored per format and the median time
+ * and heap allocation of {@link LoadedFilterManager#buildFilter} over the measured iterations.
+ *
+ * <p>The file is synthetic, so no database is needed. From {@code bfd-server-war}:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.server.war.commons.LoadedBatchFormatBenchmark \
+ *   -Dexec.args="2000 10000 10"
+ * </pre>
+ *
+ * <p>The arguments are the number of batches in the file, the number of beneficiaries per batch and
+ * the number of measured iterations. The defaults approximate a full size beneficiary file of 20
+ * million records. Bene ids are spread randomly over a range ten times the number of records, as
+ * they are in a real load.
+ */
+public final class LoadedBatchFormatBenchmark {
+  /** The number of untimed iterations run first to warm up the JIT. */
+  private static final int WARMUP_ITERATIONS = 2;
+
+  /** Prevents instantiation of this class. */
+  private LoadedBatchFormatBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of batches, the number of beneficiaries per batch and the number of
+   *     measured iterations
+   * @throws Exception if building a filter fails
+   */
+  public static void main(String[] args) throws Exception {
+    final int batchCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    final int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+    final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    final Random random = new Random(42);
+    final long idRange = 10L * batchCount * batchSize;
+    final Instant created = Instant.now();
+
+    final List<LoadedBatch> legacyBatches = new ArrayList<>(batchCount);
+    final List<LoadedBatch> packedBatches = new ArrayList<>(batchCount);
+    long legacyBytes = 0;
+    long packedBytes = 0;
+    for (int i = 0; i < batchCount; ++i) {
+      final long[] ids =
+          LongStream.generate(() -> random.nextLong(idRange) + 1).limit(batchSize).toArray();
+      final String legacy =
+          Arrays.stream(ids).mapToObj(String::valueOf).collect(Collectors.joining(","));
+      legacyBatches.add(new LoadedBatch(i, 1, legacy, null, created));
+      final LoadedBatch packed = new LoadedBatch();
+      packed.setLoadedBatchId(i);
+      packed.setLoadedFileId(1);
+      packed.setBeneficiaries(ids, ids.length);
+      packed.setCreated(created);
+      packedBatches.add(packed);
+      legacyBytes += legacy.getBytes(StandardCharsets.UTF_8).length;
+      packedBytes += packed.getBeneficiariesPacked().length;
+    }
+
+    report("legacy", legacyBytes, legacyBatches, iterations);
+    report("packed", packedBytes, packedBatches, iterations);
+  }
+
+  /**
+   * Measures building a filter from the batches and prints the results.
+   *
+   * @param format name of the format
+   * @param storedBytes total bytes of beneficiaries stored in the batches
+   * @param batches the batches
+   * @param iterations number of measured iterations
+   * @throws Exception if building the filter fails
+   */
+  private static void report(
+      String format, long storedBytes, List<LoadedBatch> batches, int iterations) throws Exception {
+    final BenchmarkUtils.Samples samples =
+        BenchmarkUtils.measure(
+            WARMUP_ITERATIONS,
+            iterations,
+            () -> {
+              final long allocatedBefore = BenchmarkUtils.currentThreadAllocatedBytes();
+              final long start = System.nanoTime();
+              LoadedFilterManager.buildFilter(1, Instant.EPOCH, id -> batches);
+              final long elapsed = System.nanoTime() - start;
+              return new long[] {
+                elapsed / 1_000_000,
+                (BenchmarkUtils.currentThreadAllocatedBytes() - allocatedBefore) / (1024 * 1024)
+              };
+            });
+    System.out.printf(
+        "%s batches=%d stored=%dMB buildFilter=%dms allocated=%dMB%n",
+        format, batches.size(), storedBytes / (1024 * 1024), samples.median(0), samples.median(1));
+  }
+}
@@ -0,0 +1,274 @@
+package gov.cms.bfd.server.war.commons;
+
+import ca.uhn.fhir.rest.param.DateRangeParam;
+import gov.cms.bfd.BenchmarkUtils;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.spark.util.sketch.BloomFilter;
+
+/**
+ * Measures {@link LoadedFilterManager#isResultSetEmpty} throughput and latency with many concurrent
+ * readers while another thread keeps publishing new filter sets, as the scheduled refresh does
+ * during a load. The lock-free snapshot lookup is compared with a synchronized linear scan that
+ * reproduces how lookups used to work.
+ *
+ * <p>Contention depends on the number of cores, so only compare runs made on the same host. From
+ * {@code bfd-server-war}:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.server.war.commons.LoadedFilterManagerContentionBenchmark \
+ *   -Dexec.args="2000 32 5"
+ * </pre>
+ *
+ * <p>The arguments are the number of retained files, the number of reader threads and the number of
+ * seconds to run each lookup. Readers ask about random beneficiaries over random _lastUpdated
+ * ranges of up to six hours within the retained files, and the refresher publishes a new filter set
+ * every millisecond.
+ */
+public final class LoadedFilterManagerContentionBenchmark {
+  /** Seconds between the first updates of consecutive files. */
+  private static final int SECONDS_BETWEEN_FILES = 60;
+
+  /** Number of beneficiaries in each file's filter. */
+  private static final int BENES_PER_FILE = 1000;
+
+  /** The number of unreported runs of each lookup made first to warm up the JIT. */
+  private static final int WARMUP_ITERATIONS = 1;
+
+  /** Prevents instantiation of this class. */
+  private LoadedFilterManagerContentionBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of retained files, the number of reader threads and the number of
+   *     seconds to run each lookup
+   * @throws Exception if interrupted while waiting for the threads
+   */
+  public static void main(String[] args) throws Exception {
+    final int fileCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    final int readerCount = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+    final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    final Instant start = Instant.parse("2023-01-01T00:00:00Z");
+    final List<LoadedFileFilter> filters = new ArrayList<>(fileCount);
+    for (int i = 0; i < fileCount; ++i) {
+      final Instant firstUpdated = start.plusSeconds((long) SECONDS_BETWEEN_FILES * i);
+      final BloomFilter bloomFilter = LoadedFileFilter.createFilter(BENES_PER_FILE);
+      for (int bene = 0; bene < BENES_PER_FILE; ++bene) {
+        bloomFilter.putLong((long) i * BENES_PER_FILE + bene);
+      }
+      filters.add(
+          new LoadedFileFilter(
+              i,
+              1,
+              firstUpdated,
+              firstUpdated.plusSeconds(SECONDS_BETWEEN_FILES / 2),
+              bloomFilter));
+    }
+    final List<LoadedFileFilter> sortedFilters =
+        LoadedFilterManager.mergeFilters(Collections.emptyList(), filters);
+    final Instant end = start.plusSeconds((long) SECONDS_BETWEEN_FILES * fileCount);
+
+    final LoadedFilterManager manager = new LoadedFilterManager();
+    final LockedLinearScan lockedScan = new LockedLinearScan();
+    final Lookup snapshotLookup =
+        new Lookup() {
+          @Override
+          public void publish(List<LoadedFileFilter> filters, Instant last) {
+            manager.set(filters, start, last);
+          }
+
+          @Override
+          public boolean isResultSetEmpty(long beneficiaryId, DateRangeParam range) {
+            return manager.isResultSetEmpty(beneficiaryId, range);
+          }
+        };
+
+    report("locked-scan", lockedScan, sortedFilters, start, end, readerCount, seconds);
+    report("snapshot", snapshotLookup, sortedFilters, start, end, readerCount, seconds);
+  }
+
+  /**
+   * Runs one lookup implementation once to warm up and once measured, and prints the results of the
+   * measured run.
+   *
+   * @param name name of the implementation
+   * @param lookup the implementation
+   * @param filters the filters to publish
+   * @param start first update of the oldest file
+   * @param end time after the newest file
+   * @param readerCount number of reader threads
+   * @param seconds how long to run
+   * @throws Exception if interrupted while waiting for the threads
+   */
+  private static void report(
+      String name,
+      Lookup lookup,
+      List<LoadedFileFilter> filters,
+      Instant start,
+      Instant end,
+      int readerCount,
+      int seconds)
+      throws Exception {
+    final BenchmarkUtils.Samples samples =
+        BenchmarkUtils.measure(
+            WARMUP_ITERATIONS, 1, () -> run(lookup, filters, start, end, readerCount, seconds));
+    System.out.printf(
+        "%-12s files=%d readers=%d: lookups/s=%d p50=%dus p99=%dus max=%dus publishes=%d%n",
+        name,
+        filters.size(),
+        readerCount,
+        samples.median(0) / seconds,
+        samples.median(1) / 1000,
+        samples.median(2) / 1000,
+        samples.median(3) / 1000,
+        samples.median(4));
+  }
+
+  /**
+   * Runs one lookup implementation.
+   *
+   * @param lookup the implementation
+   * @param filters the filters to publish
+   * @param start first update of the oldest file
+   * @param end time after the newest file
+   * @param readerCount number of reader threads
+   * @param seconds how long to run
+   * @return the number of lookups, the p50, p99 and maximum lookup latency in nanoseconds, and the
+   *     number of filter sets published
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static long[] run(
+      Lookup lookup,
+      List<LoadedFileFilter> filters,
+      Instant start,
+      Instant end,
+      int readerCount,
+      int seconds)
+      throws InterruptedException {
+    lookup.publish(filters, end);
+    final AtomicBoolean running = new AtomicBoolean(true);
+    final AtomicLong lookups = new AtomicLong();
+    final AtomicLong publishes = new AtomicLong();
+    final long[][] latencies = new long[readerCount][];
+    final CountDownLatch done = new CountDownLatch(readerCount + 1);
+
+    final Thread refresher =
+        new Thread(
+            () -> {
+              while (running.get()) {
+                lookup.publish(filters, end.plusMillis(publishes.incrementAndGet()));
+                try {
+                  Thread.sleep(1);
+                } catch (InterruptedException e) {
+                  break;
+                }
+              }
+              done.countDown();
+            });
+    refresher.start();
+    for (int r = 0; r < readerCount; ++r) {
+      final int reader = r;
+      new Thread(
+              () -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                final long fileCount = filters.size();
+                final Duration span = Duration.between(start, end);
+                long[] samples = new long[1 << 16];
+                int sampleCount = 0;
+                while (running.get()) {
+                  final long lowerOffset = random.nextLong(span.getSeconds());
+                  final Instant lower = start.plusSeconds(lowerOffset);
+                  final Instant upper = lower.plusSeconds(random.nextLong(60, 6 * 60 * 60));
+                  final DateRangeParam range =
+                      new DateRangeParam(Date.from(lower), Date.from(upper));
+                  final long bene = random.nextLong(fileCount * BENES_PER_FILE);
+                  final long before = System.nanoTime();
+                  lookup.isResultSetEmpty(bene, range);
+                  final long elapsed = System.nanoTime() - before;
+                  if (sampleCount == samples.length) {
+                    samples = Arrays.copyOf(samples, samples.length * 2);
+                  }
+                  samples[sampleCount++] = elapsed;
+                }
+                latencies[reader] = Arrays.copyOf(samples, sampleCount);
+                lookups.addAndGet(sampleCount);
+                done.countDown();
+              })
+          .start();
+    }
+    Thread.sleep(seconds * 1000L);
+    running.set(false);
+    done.await();
+
+    final long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).toArray();
+    return new long[] {
+      lookups.get(),
+      BenchmarkUtils.median(all),
+      BenchmarkUtils.percentile(all, 0.99),
+      BenchmarkUtils.percentile(all, 1),
+      publishes.get()
+    };
+  }
+
+  /** A filter lookup implementation under test. */
+  private interface Lookup {
+    /**
+     * Publishes a new filter set.
+     *
+     * @param filters the filters sorted in descending order by firstUpdated
+     * @param last the last batch created time
+     */
+    void publish(List<LoadedFileFilter> filters, Instant last);
+
+    /**
+     * Looks up a beneficiary.
+     *
+     * @param beneficiaryId to test
+     * @param range to test
+     * @return true if the results set is empty
+     */
+    boolean isResultSetEmpty(long beneficiaryId, DateRangeParam range);
+  }
+
+  /**
+   * Reproduces the previous lookup: readers and the refresher share one monitor and every lookup
+   * scans the filters in descending order by firstUpdated.
+   */
+  private static final class LockedLinearScan implements Lookup {
+    /** The current filters. */
+    private List<LoadedFileFilter> filters = List.of();
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void publish(List<LoadedFileFilter> filters, Instant last) {
+      this.filters = filters;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean isResultSetEmpty(long beneficiaryId, DateRangeParam range) {
+      for (LoadedFileFilter filter : filters) {
+        if (filter.matchesDateRange(range)) {
+          if (filter.mightContain(beneficiaryId)) {
+            return false;
+          }
+        } else if (filter.getLastUpdated().isBefore(range.getLowerBoundAsInstant().toInstant())) {
+          return true;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package gov.cms.bfd.server.war.commons;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import gov.cms.bfd.BenchmarkUtils;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+
+/**
+ * Compares the heap use and latency of a large unpaged EOB search response written by HAPI from a
+ * complete {@link Bundle} (the current path) with the same response written by a {@link
+ * StreamingBundleWriter}. Each claim type is simulated by a task that builds synthetic EOBs, and
+ * the tasks are run on a thread pool just like the providers' claim type tasks.
+ *
+ * <p>To run it from {@code bfd-server-war}:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.server.war.commons.StreamingBundleWriterBenchmark \
+ *   -Dexec.args="2000 20 5"
+ * </pre>
+ *
+ * <p>The arguments are the number of EOBs per claim type, the number of items per EOB and the
+ * number of measured iterations. For each path it reports the median time to the first byte, the
+ * median total time and the median peak heap growth (sampled every millisecond) over the measured
+ * iterations.
+ */
+public final class StreamingBundleWriterBenchmark {
+  /** The number of simulated claim types, one task each. */
+  private static final int CLAIM_TYPE_COUNT = 8;
+
+  /** The number of untimed iterations run first to warm up the JIT. */
+  private static final int WARMUP_ITERATIONS = 2;
+
+  /** Prevents instantiation of this class. */
+  private StreamingBundleWriterBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of EOBs per claim type, the number of items per EOB and the number of
+   *     measured iterations
+   * @throws Exception if a path fails
+   */
+  public static void main(String[] args) throws Exception {
+    final int eobsPerType = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    final int itemsPerEob = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+    final ExecutorService executor = Executors.newFixedThreadPool(CLAIM_TYPE_COUNT);
+    try {
+      for (boolean streamed : new boolean[] {false, true}) {
+        final BenchmarkUtils.Samples samples =
+            BenchmarkUtils.measure(
+                WARMUP_ITERATIONS,
+                iterations,
+                () -> {
+                  final Result result = run(executor, streamed, eobsPerType, itemsPerEob);
+                  return new long[] {
+                    result.firstByteNanos() / 1_000_000,
+                    result.totalNanos() / 1_000_000,
+                    result.peakHeapBytes() / (1024 * 1024)
+                  };
+                });
+        System.out.printf(
+            "%-8s eobs=%d items=%d: firstByte=%dms total=%dms peakHeapGrowth=%dMB%n",
+            streamed ? "streamed" : "buffered",
+            eobsPerType * CLAIM_TYPE_COUNT,
+            itemsPerEob,
+            samples.median(0),
+            samples.median(1),
+            samples.median(2));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Writes one response using either path.
+   *
+   * @param executor runs the claim type tasks
+   * @param streamed true to use a {@link StreamingBundleWriter}, false to build a complete bundle
+   * @param eobsPerType the number of EOBs per claim type
+   * @param itemsPerEob the number of items per EOB
+   * @return the measurements
+   * @throws Exception if the response could not be written
+   */
+  private static Result run(
+      ExecutorService executor, boolean streamed, int eobsPerType, int itemsPerEob)
+      throws Exception {
+    final List<Callable<List<ExplanationOfBenefit>>> tasks = new ArrayList<>();
+    for (int type = 0; type < CLAIM_TYPE_COUNT; ++type) {
+      final int claimType = type;
+      tasks.add(() -> createEobs(claimType, eobsPerType, itemsPerEob));
+    }
+    final DiscardingWriter out = new DiscardingWriter();
+    final ServletRequestDetails requestDetails =
+        StreamingBundleWriterTest.createRequestDetails(Map.of(), out);
+
+    BenchmarkUtils.usedHeapAfterGc();
+    final HeapSampler sampler = new HeapSampler();
+    sampler.start();
+    final long start = System.nanoTime();
+    out.start = start;
+    if (streamed) {
+      final StreamingBundleWriter writer = new StreamingBundleWriter(requestDetails);
+      final List<Future<List<ExplanationOfBenefit>>> futures =
+          tasks.stream().map(executor::submit).toList();
+      for (Future<List<ExplanationOfBenefit>> future : futures) {
+        final List<ExplanationOfBenefit> eobs = future.get();
+        writer.writeResources(eobs);
+        eobs.clear();
+      }
+      writer.finish(new Bundle().setTotal(writer.getResourceCount()));
+    } else {
+      final Bundle bundle = new Bundle();
+      for (Future<List<ExplanationOfBenefit>> future : executor.invokeAll(tasks)) {
+        future.get().forEach(eob -> bundle.addEntry().setResource(eob));
+      }
+      bundle.setTotal(bundle.getEntry().size());
+      final FhirContext fhirContext = requestDetails.getFhirContext();
+      final IParser parser = fhirContext.newJsonParser();
+      final Writer writer =
+          requestDetails
+              .getResponse()
+              .getResponseWriter(200, "application/fhir+json", "UTF-8", false);
+      parser.encodeResourceToWriter(bundle, writer);
+      requestDetails.getResponse().commitResponse(writer);
+    }
+    final long totalNanos = System.nanoTime() - start;
+    return new Result(out.firstByteNanos.get(), totalNanos, sampler.finish());
+  }
+
+  /**
+   * Simulates a claim type task by building synthetic EOBs.
+   *
+   * @param claimType the index of the simulated claim type
+   * @param count the number of EOBs
+   * @param itemCount the number of items per EOB
+   * @return the EOBs
+   */
+  private static List<ExplanationOfBenefit> createEobs(int claimType, int count, int itemCount) {
+    final List<ExplanationOfBenefit> eobs = new ArrayList<>(count);
+    for (int i = 0; i < count; ++i) {
+      final ExplanationOfBenefit eob =
+          StreamingBundleWriterTest.createEob("type" + claimType + "-" + i, null);
+      for (int item = 2; item <= itemCount; ++item) {
+        eob.addItem()
+            .setSequence(item)
+            .getProductOrService()
+            .addCoding()
+            .setSystem("https://bluebutton.cms.gov/resources/codesystem/hcpcs")
+            .setCode(String.format("%05d", item))
+            .setDisplay("Synthetic procedure " + item);
+      }
+      eobs.add(eob);
+    }
+    return eobs;
+  }
+
+  /**
+   * The measurements of one run.
+   *
+   * @param firstByteNanos the time until the first byte of the response was written
+   * @param totalNanos the time until the response was complete
+   * @param peakHeapBytes the peak heap growth during the run
+   */
+  private record Result(long firstByteNanos, long totalNanos, long peakHeapBytes) {}
+
+  /** Samples the used heap in a background thread to find its peak growth. */
+  private static final class HeapSampler extends Thread {
+    /** Used to read the heap usage. */
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    /** The used heap when sampling started. */
+    private final long baseline = memory.getHeapMemoryUsage().getUsed();
+
+    /** The highest used heap seen so far. */
+    private final AtomicLong peak = new AtomicLong(baseline);
+
+    /** Cleared to stop sampling. */
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    /** Creates a daemon sampler. */
+    private HeapSampler() {
+      setDaemon(true);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void run() {
+      while (running.get()) {
+        peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Stops sampling.
+     *
+     * @return the peak heap growth
+     * @throws InterruptedException if interrupted while waiting for the sampler to stop
+     */
+    private long finish() throws InterruptedException {
+      running.set(false);
+      join();
+      return peak.get() - baseline;
+    }
+  }
+
+  /** A {@link Writer} that discards everything, recording when the first character arrived. */
+  private static final class DiscardingWriter extends Writer {
+    /** When the run started. */
+    private long start;
+
+    /** The time from the start until the first character was written, zero until then. */
+    private final AtomicLong firstByteNanos = new AtomicLong();
+
+    /** {@inheritDoc} */
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+      if (length > 0) {
+        firstByteNanos.compareAndSet(0, System.nanoTime() - start);
+      }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flush() {}
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws IOException {}
+  }
+}
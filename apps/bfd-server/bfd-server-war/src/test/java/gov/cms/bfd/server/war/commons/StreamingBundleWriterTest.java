@@ -0,0 +1,264 @@
+package gov.cms.bfd.server.war.commons;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.RequestTypeEnum;
+import ca.uhn.fhir.rest.server.HardcodedServerAddressStrategy;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import ca.uhn.fhir.rest.server.servlet.ServletRestfulResponse;
+import gov.cms.bfd.server.war.StreamedResponseInterceptor;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link StreamingBundleWriter}. */
+public class StreamingBundleWriterTest {
+  /** The FHIR context used by the test server. */
+  private static final FhirContext FHIR_CONTEXT = FhirContext.forR4Cached();
+
+  /** The server base of the test requests. */
+  private static final String SERVER_BASE = "https://localhost/v2/fhir";
+
+  /**
+   * Verifies that resources written in several batches produce a bundle containing all of them,
+   * along with the root properties HAPI would have added to a returned bundle.
+   *
+   * @throws IOException if the response could not be written
+   */
+  @Test
+  public void testWriteResourcesWhenBatchesWrittenExpectCompleteBundle() throws IOException {
+    StringWriter out = new StringWriter();
+    ServletRequestDetails requestDetails = createRequestDetails(Map.of(), out);
+    StreamingBundleWriter writer = new StreamingBundleWriter(requestDetails);
+    List<ExplanationOfBenefit> first =
+        List.of(createEob("carrier-1", "2023-01-01T00:00:00Z"), createEob("carrier-2", null));
+    List<ExplanationOfBenefit> second = List.of(createEob("pde-3", "2023-02-01T00:00:00Z"));
+
+    writer.writeResources(first);
+    writer.writeResources(List.of());
+    writer.writeResources(second);
+    Bundle header = new Bundle();
+    header.setTotal(writer.getResourceCount());
+    header.getMeta().setLastUpdated(Date.from(writer.getLastUpdated().get()));
+    writer.finish(header);
+
+    assertEquals(3, writer.getResourceCount());
+    assertEquals(Instant.parse("2023-02-01T00:00:00Z"), writer.getLastUpdated().get());
+    assertTrue(StreamingBundleWriter.isStreamed(requestDetails));
+    assertFalse(new StreamedResponseInterceptor().serverOutgoingResponse(requestDetails));
+    verify(requestDetails.getServletResponse()).setStatus(Constants.STATUS_HTTP_200_OK);
+
+    Bundle bundle = FHIR_CONTEXT.newJsonParser().parseResource(Bundle.class, out.toString());
+    assertEquals(Bundle.BundleType.SEARCHSET, bundle.getType());
+    assertEquals(3, bundle.getTotal());
+    assertFalse(bundle.getIdElement().isEmpty());
+    assertEquals(
+        Date.from(Instant.parse("2023-02-01T00:00:00Z")), bundle.getMeta().getLastUpdated());
+    assertEquals(
+        SERVER_BASE + "/ExplanationOfBenefit", bundle.getLink(Constants.LINK_SELF).getUrl());
+
+    // The entries must match the ones HAPI writes when it serializes a complete bundle
+    Bundle complete = new Bundle();
+    first.forEach(eob -> complete.addEntry().setResource(eob));
+    second.forEach(eob -> complete.addEntry().setResource(eob));
+    Bundle expected =
+        FHIR_CONTEXT
+            .newJsonParser()
+            .parseResource(
+                Bundle.class, FHIR_CONTEXT.newJsonParser().encodeResourceToString(complete));
+    assertEquals(3, bundle.getEntry().size());
+    for (int i = 0; i < 3; ++i) {
+      assertTrue(
+          expected
+              .getEntry()
+              .get(i)
+              .getResource()
+              .equalsDeep(bundle.getEntry().get(i).getResource()));
+    }
+  }
+
+  /**
+   * Verifies that finishing a response without any resources produces an empty bundle, which must
+   * not contain an (invalid) empty entry array.
+   *
+   * @throws IOException if the response could not be written
+   */
+  @Test
+  public void testFinishWhenNoResourcesExpectEmptyBundle() throws IOException {
+    StringWriter out = new StringWriter();
+    ServletRequestDetails requestDetails = createRequestDetails(Map.of(), out);
+    StreamingBundleWriter writer = new StreamingBundleWriter(requestDetails);
+
+    writer.finish(new Bundle().setTotal(0));
+
+    assertFalse(out.toString().contains("\"entry\""));
+    Bundle bundle = FHIR_CONTEXT.newJsonParser().parseResource(Bundle.class, out.toString());
+    assertEquals(0, bundle.getTotal());
+    assertTrue(bundle.getEntry().isEmpty());
+    assertTrue(StreamingBundleWriter.isStreamed(requestDetails));
+  }
+
+  /**
+   * Verifies that a bundle with entries is rejected by {@link StreamingBundleWriter#finish}, since
+   * its entries would be written twice.
+   */
+  @Test
+  public void testFinishWhenBundleHasEntriesExpectException() {
+    StreamingBundleWriter writer =
+        new StreamingBundleWriter(createRequestDetails(Map.of(), new StringWriter()));
+    Bundle bundle = new Bundle();
+    bundle.addEntry().setResource(createEob("carrier-1", null));
+
+    assertThrows(IllegalArgumentException.class, () -> writer.finish(bundle));
+  }
+
+  /**
+   * Verifies that a request that fails before anything was streamed is left to HAPI, which answers
+   * it with an {@code OperationOutcome}.
+   */
+  @Test
+  public void testServerHandleExceptionWhenNothingStreamedExpectHandledByHapi() {
+    ServletRequestDetails requestDetails = createRequestDetails(Map.of(), new StringWriter());
+    new StreamingBundleWriter(requestDetails);
+
+    assertFalse(StreamingBundleWriter.isStreamed(requestDetails));
+    assertTrue(new StreamedResponseInterceptor().serverOutgoingResponse(requestDetails));
+    assertTrue(
+        new StreamedResponseInterceptor()
+            .serverHandleException(requestDetails, new InternalErrorException("failed")));
+  }
+
+  /**
+   * Verifies that a request that fails after entries were streamed is not answered with an {@code
+   * OperationOutcome} appended to the partial bundle, but rethrown so the connection is closed.
+   *
+   * @throws IOException if the response could not be written
+   */
+  @Test
+  public void testServerHandleExceptionWhenStreamedExpectRethrown() throws IOException {
+    ServletRequestDetails requestDetails = createRequestDetails(Map.of(), new StringWriter());
+    new StreamingBundleWriter(requestDetails)
+        .writeResources(List.of(createEob("carrier-1", "2023-01-01T00:00:00Z")));
+    InternalErrorException failure = new InternalErrorException("failed");
+
+    InternalErrorException thrown =
+        assertThrows(
+            InternalErrorException.class,
+            () -> new StreamedResponseInterceptor().serverHandleException(requestDetails, failure));
+
+    assertSame(failure, thrown);
+  }
+
+  /**
+   * Verifies that only compact JSON responses without {@code _summary} or {@code _elements} can be
+   * streamed.
+   */
+  @Test
+  public void testIsSupported() {
+    StringWriter out = new StringWriter();
+    assertTrue(StreamingBundleWriter.isSupported(createRequestDetails(Map.of(), out)));
+    assertFalse(
+        StreamingBundleWriter.isSupported(
+            createRequestDetails(Map.of(Constants.PARAM_PRETTY, "true"), out)));
+    assertFalse(
+        StreamingBundleWriter.isSupported(
+            createRequestDetails(Map.of(Constants.PARAM_FORMAT, Constants.FORMAT_XML), out)));
+    assertFalse(
+        StreamingBundleWriter.isSupported(
+            createRequestDetails(Map.of(Constants.PARAM_SUMMARY, "true"), out)));
+    assertFalse(
+        StreamingBundleWriter.isSupported(
+            createRequestDetails(Map.of(Constants.PARAM_ELEMENTS, "id"), out)));
+  }
+
+  /**
+   * Creates the details of an {@code ExplanationOfBenefit} search request to a JSON server, whose
+   * response is written to the given writer.
+   *
+   * @param parameters the request parameters
+   * @param out receives the response body
+   * @return the request details
+   */
+  static ServletRequestDetails createRequestDetails(Map<String, String> parameters, Writer out) {
+    ServletContext servletContext = mock(ServletContext.class);
+    RestfulServer server =
+        new RestfulServer(FHIR_CONTEXT) {
+          @Override
+          public ServletContext getServletContext() {
+            return servletContext;
+          }
+        };
+    server.setServerAddressStrategy(new HardcodedServerAddressStrategy(SERVER_BASE));
+    server.setDefaultResponseEncoding(EncodingEnum.JSON);
+    server.setDefaultPrettyPrint(false);
+
+    HttpServletRequest servletRequest = mock(HttpServletRequest.class);
+    when(servletRequest.getHeaders(anyString())).thenReturn(Collections.emptyEnumeration());
+    HttpServletResponse servletResponse = mock(HttpServletResponse.class);
+    try {
+      when(servletResponse.getWriter()).thenReturn(new PrintWriter(out));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+
+    ServletRequestDetails requestDetails = new ServletRequestDetails();
+    requestDetails.setServer(server);
+    requestDetails.setServletRequest(servletRequest);
+    requestDetails.setServletResponse(servletResponse);
+    requestDetails.setResponse(new ServletRestfulResponse(requestDetails));
+    requestDetails.setRequestType(RequestTypeEnum.GET);
+    requestDetails.setFhirServerBase(SERVER_BASE);
+    requestDetails.setCompleteUrl(SERVER_BASE + "/ExplanationOfBenefit");
+    requestDetails.setRequestPath("ExplanationOfBenefit");
+    requestDetails.setResourceName("ExplanationOfBenefit");
+    Map<String, String[]> parameterArrays = new HashMap<>();
+    parameters.forEach((name, value) -> parameterArrays.put(name, new String[] {value}));
+    requestDetails.setParameters(parameterArrays);
+    return requestDetails;
+  }
+
+  /**
+   * Creates a small EOB.
+   *
+   * @param id the resource id
+   * @param lastUpdated the resource's lastUpdated, or null for none
+   * @return the EOB
+   */
+  static ExplanationOfBenefit createEob(String id, String lastUpdated) {
+    ExplanationOfBenefit eob = new ExplanationOfBenefit();
+    eob.setId(id);
+    eob.setStatus(ExplanationOfBenefit.ExplanationOfBenefitStatus.ACTIVE);
+    eob.getPatient().setReference("Patient/1");
+    eob.addItem().setSequence(1);
+    if (lastUpdated != null) {
+      eob.getMeta().setLastUpdated(Date.from(Instant.parse(lastUpdated)));
+    }
+    return eob;
+  }
+}
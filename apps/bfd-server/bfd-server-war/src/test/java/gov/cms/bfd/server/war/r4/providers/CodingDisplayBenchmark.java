@@ -0,0 +1,172 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import com.codahale.metrics.MetricRegistry;
+import gov.cms.bfd.BenchmarkUtils;
+import gov.cms.bfd.data.npi.lookup.NPIOrgLookup;
+import gov.cms.bfd.model.codebook.data.CcwCodebookVariable;
+import gov.cms.bfd.model.codebook.model.CodebookValueIndex;
+import gov.cms.bfd.model.codebook.model.Value;
+import gov.cms.bfd.model.rif.entities.InpatientClaim;
+import gov.cms.bfd.model.rif.samples.StaticRifResourceGroup;
+import gov.cms.bfd.server.war.ServerTestUtils;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the cost of calculating coding display values. It compares a linear scan of every {@link
+ * Value} of a {@link CcwCodebookVariable} with a lookup in its {@link CodebookValueIndex}, then
+ * reports the median time of a representative {@link InpatientClaimTransformerV2} transform, which
+ * uses the index for all of its coding displays.
+ *
+ * <p>Usage, from {@code bfd-server-war}:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.server.war.r4.providers.CodingDisplayBenchmark \
+ *   -Dexec.args="20 2000"
+ * </pre>
+ *
+ * <p>The arguments are the number of measured iterations and the number of transforms per
+ * iteration. Each lookup iteration looks up every code of every coded variable once.
+ */
+public final class CodingDisplayBenchmark {
+  /** Prevents instantiation of this class. */
+  private CodingDisplayBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of measured iterations and the number of transforms per iteration
+   * @throws Exception if a lookup or transform fails
+   */
+  public static void main(String[] args) throws Exception {
+    final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    final int transforms = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+    final List<Map.Entry<CcwCodebookVariable, String>> lookups = new ArrayList<>();
+    for (CcwCodebookVariable variable : CcwCodebookVariable.values()) {
+      variable.getVariable().getValueGroups().stream()
+          .flatMap(List::stream)
+          .flatMap(group -> group.getValues().stream())
+          .forEach(value -> lookups.add(Map.entry(variable, value.getCode())));
+    }
+
+    reportLookups("scan", lookups, iterations, CodingDisplayBenchmark::scan);
+    reportLookups("index", lookups, iterations, CodingDisplayBenchmark::index);
+    reportTransforms(iterations, transforms);
+  }
+
+  /**
+   * Looks up a description the way {@code calculateCodingDisplay} did before it used the index.
+   *
+   * @param variable the variable
+   * @param code the code
+   * @return the description or null if there is not exactly one match
+   */
+  private static String scan(CcwCodebookVariable variable, String code) {
+    final List<Value> matches =
+        variable.getVariable().getValueGroups().get().stream()
+            .flatMap(g -> g.getValues().stream())
+            .filter(v -> v.getCode().equals(code))
+            .collect(Collectors.toList());
+    return matches.size() == 1 ? matches.get(0).getDescription() : null;
+  }
+
+  /**
+   * Looks up a description using the variable's {@link CodebookValueIndex}.
+   *
+   * @param variable the variable
+   * @param code the code
+   * @return the description or null if there is not exactly one match
+   */
+  private static String index(CcwCodebookVariable variable, String code) {
+    return variable.getValueIndex().getDescription(code).orElse(null);
+  }
+
+  /**
+   * Measures looking up every code and prints the median time per lookup.
+   *
+   * @param name name of the lookup strategy
+   * @param lookups the variable and code pairs to look up
+   * @param iterations number of measured iterations
+   * @param lookup the lookup strategy
+   * @throws Exception if a lookup fails
+   */
+  private static void reportLookups(
+      String name,
+      List<Map.Entry<CcwCodebookVariable, String>> lookups,
+      int iterations,
+      Lookup lookup)
+      throws Exception {
+    final int[] found = new int[1];
+    final long nanos =
+        BenchmarkUtils.measure(
+                iterations,
+                () -> {
+                  found[0] = 0;
+                  final long start = System.nanoTime();
+                  for (Map.Entry<CcwCodebookVariable, String> entry : lookups) {
+                    if (lookup.describe(entry.getKey(), entry.getValue()) != null) {
+                      found[0] += 1;
+                    }
+                  }
+                  return new long[] {System.nanoTime() - start};
+                })
+            .median();
+    System.out.printf(
+        "%-5s lookups=%d found=%d: %.1fns/lookup%n",
+        name, lookups.size(), found[0], (double) nanos / lookups.size());
+  }
+
+  /**
+   * Measures transforming the sample inpatient claim and prints the median time per transform.
+   *
+   * @param iterations number of measured iterations
+   * @param transforms number of transforms per iteration
+   * @throws Exception if a transform fails
+   */
+  private static void reportTransforms(int iterations, int transforms) throws Exception {
+    final InpatientClaim claim =
+        ServerTestUtils.parseData(Arrays.asList(StaticRifResourceGroup.SAMPLE_A.getResources()))
+            .stream()
+            .filter(r -> r instanceof InpatientClaim)
+            .map(InpatientClaim.class::cast)
+            .findFirst()
+            .get();
+    claim.setLastUpdated(Instant.now());
+    final InpatientClaimTransformerV2 transformer =
+        new InpatientClaimTransformerV2(new MetricRegistry(), new NPIOrgLookup());
+
+    final long nanos =
+        BenchmarkUtils.measure(
+                iterations,
+                () -> {
+                  final long start = System.nanoTime();
+                  for (int t = 0; t < transforms; ++t) {
+                    transformer.transform(claim, false);
+                  }
+                  return new long[] {System.nanoTime() - start};
+                })
+            .median();
+    System.out.printf(
+        "InpatientClaimTransformerV2 transforms=%d: %.1fus/transform%n",
+        transforms, nanos / 1000.0 / transforms);
+  }
+
+  /** A strategy for looking up the description of a code. */
+  @FunctionalInterface
+  private interface Lookup {
+    /**
+     * Looks up the description of a code.
+     *
+     * @param variable the variable
+     * @param code the code
+     * @return the description or null if there is not exactly one match
+     */
+    String describe(CcwCodebookVariable variable, String code);
+  }
+}
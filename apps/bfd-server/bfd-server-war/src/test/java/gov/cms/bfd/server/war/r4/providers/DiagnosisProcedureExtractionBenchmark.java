@@ -0,0 +1,172 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import gov.cms.bfd.BenchmarkUtils;
+import gov.cms.bfd.model.rif.entities.InpatientClaim;
+import gov.cms.bfd.model.rif.samples.StaticRifResourceGroup;
+import gov.cms.bfd.server.war.ServerTestUtils;
+import gov.cms.bfd.server.war.commons.CCWProcedure;
+import gov.cms.bfd.server.war.commons.Diagnosis;
+import gov.cms.bfd.server.war.commons.Diagnosis.DiagnosisLabel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures the allocation rate and time of extracting the diagnoses and procedures of the sample
+ * inpatient claim. It compares building the grouped property maps and probing them with formatted
+ * property names, the way {@link DiagnosisUtilV2} and {@link TransformerUtilsV2} used to, with the
+ * generated indexed accessors they use now.
+ *
+ * <p>It needs nothing beyond the test classpath. From {@code bfd-server-war}:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=gov.cms.bfd.server.war.r4.providers.DiagnosisProcedureExtractionBenchmark \
+ *   -Dexec.args="20 100000"
+ * </pre>
+ *
+ * <p>The arguments are the number of measured iterations and the number of extractions per
+ * iteration.
+ */
+public final class DiagnosisProcedureExtractionBenchmark {
+  /** The diagnosis property name substitutions in the order they were extracted. */
+  private static final List<String> DIAGNOSIS_SUBSTITUTIONS =
+      Stream.of(
+              Stream.of("Admitting", "1", "Principal"),
+              IntStream.rangeClosed(2, 25).mapToObj(String::valueOf),
+              Stream.of("External1", "ExternalFirst"),
+              IntStream.rangeClosed(2, 12).mapToObj(i -> "External" + i),
+              IntStream.rangeClosed(1, 3).mapToObj(i -> "Admission" + i))
+          .flatMap(s -> s)
+          .toList();
+
+  /** Prevents instantiation of this class. */
+  private DiagnosisProcedureExtractionBenchmark() {}
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of measured iterations and the number of extractions per iteration
+   * @throws Exception if an extraction fails
+   */
+  public static void main(String[] args) throws Exception {
+    final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    final int extractions = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+    final InpatientClaim claim =
+        ServerTestUtils.parseData(Arrays.asList(StaticRifResourceGroup.SAMPLE_A.getResources()))
+            .stream()
+            .filter(r -> r instanceof InpatientClaim)
+            .map(InpatientClaim.class::cast)
+            .findFirst()
+            .get();
+
+    report("maps", claim, iterations, extractions, DiagnosisProcedureExtractionBenchmark::maps);
+    report(
+        "indexed", claim, iterations, extractions, DiagnosisProcedureExtractionBenchmark::indexed);
+  }
+
+  /**
+   * Extracts the diagnoses and procedures by probing the grouped property maps.
+   *
+   * @param claim the claim
+   * @return the number of diagnoses and procedures extracted
+   */
+  private static int maps(InpatientClaim claim) {
+    final Map<String, Optional<String>> diagnosisCodes = claim.getDiagnosisCodes();
+    final Map<String, Optional<Character>> diagnosisCodeVersions = claim.getDiagnosisCodeVersions();
+    final Map<String, Optional<Character>> presentOnAdms =
+        claim.getDiagnosisPresentOnAdmissionCodes();
+    final List<Diagnosis> diagnoses = new ArrayList<>();
+    for (String substitution : DIAGNOSIS_SUBSTITUTIONS) {
+      Diagnosis.from(
+              diagnosisCodes.getOrDefault(
+                  String.format("diagnosis%sCode", substitution), Optional.empty()),
+              diagnosisCodeVersions.getOrDefault(
+                  String.format("diagnosis%sCodeVersion", substitution), Optional.empty()),
+              presentOnAdms.getOrDefault(
+                  String.format("diagnosis%sPresentOnAdmissionCode", substitution),
+                  Optional.empty()),
+              Optional.empty(),
+              DiagnosisLabel.OTHER)
+          .ifPresent(diagnoses::add);
+    }
+
+    final Map<String, Optional<String>> procedureCodes = claim.getProcedureCodes();
+    final var procedureCodeVersions = claim.getProcedureCodeVersions();
+    final var procedureDates = claim.getProcedureDates();
+    final List<CCWProcedure> procedures = new ArrayList<>();
+    for (int i = 1; i <= 25; i++) {
+      CCWProcedure.from(
+              procedureCodes.getOrDefault(String.format("procedure%dCode", i), Optional.empty()),
+              procedureCodeVersions.getOrDefault(
+                  String.format("procedure%dCodeVersion", i), Optional.empty()),
+              procedureDates.getOrDefault(String.format("procedure%dDate", i), Optional.empty()))
+          .ifPresent(procedures::add);
+    }
+    return diagnoses.size() + procedures.size();
+  }
+
+  /**
+   * Extracts the diagnoses and procedures using the generated indexed accessors.
+   *
+   * @param claim the claim
+   * @return the number of diagnoses and procedures extracted
+   */
+  private static int indexed(InpatientClaim claim) {
+    return DiagnosisUtilV2.extractDiagnoses(claim).size()
+        + TransformerUtilsV2.extractCCWProcedures(claim).size();
+  }
+
+  /**
+   * Measures one extraction strategy and prints the median time and bytes allocated per claim.
+   *
+   * @param name name of the extraction strategy
+   * @param claim the claim to extract from
+   * @param iterations number of measured iterations
+   * @param extractions number of extractions per iteration
+   * @param extraction the extraction strategy
+   * @throws Exception if the extraction fails
+   */
+  private static void report(
+      String name, InpatientClaim claim, int iterations, int extractions, Extraction extraction)
+      throws Exception {
+    final int[] extracted = new int[1];
+    final BenchmarkUtils.Samples samples =
+        BenchmarkUtils.measure(
+            iterations,
+            () -> {
+              final long allocatedBefore = BenchmarkUtils.currentThreadAllocatedBytes();
+              final long start = System.nanoTime();
+              for (int e = 0; e < extractions; ++e) {
+                extracted[0] = extraction.extract(claim);
+              }
+              final long elapsed = System.nanoTime() - start;
+              return new long[] {
+                elapsed, BenchmarkUtils.currentThreadAllocatedBytes() - allocatedBefore
+              };
+            });
+    System.out.printf(
+        "%-7s extracted=%d: %.0fns/claim allocated=%dB/claim%n",
+        name,
+        extracted[0],
+        (double) samples.median(0) / extractions,
+        samples.median(1) / extractions);
+  }
+
+  /** A strategy for extracting the diagnoses and procedures of a claim. */
+  @FunctionalInterface
+  private interface Extraction {
+    /**
+     * Extracts the diagnoses and procedures of a claim.
+     *
+     * @param claim the claim
+     * @return the number of diagnoses and procedures extracted
+     */
+    int extract(InpatientClaim claim);
+  }
+}
@@ -43,10 +43,12 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import javax.persistence.EntityManager;
@@ -189,7 +191,10 @@ public class R4ExplanationOfBenefitResourceProviderTest {
             Mockito.mock(InpatientClaimTransformerV2.class),
             Mockito.mock(OutpatientClaimTransformerV2.class),
             mockPdeTransformer,
-            Mockito.mock(SNFClaimTransformerV2.class));
+            Mockito.mock(SNFClaimTransformerV2.class),
+            new TransformedEobCache(metricRegistry, 0L),
+            false,
+            false);
 
     // entity manager mocking
     mockEntityManager();
@@ -529,6 +534,34 @@ public class R4ExplanationOfBenefitResourceProviderTest {
     assertEquals(0, response.getTotal());
   }
 
+  /**
+   * Verifies that {@link R4ExplanationOfBenefitResourceProvider#selectClaimIdsForPage} selects the
+   * same claims for a page as sorting all claims by claim id text then claim type and sub-listing
+   * would.
+   */
+  @Test
+  void testSelectClaimIdsForPageMatchesFullSortOrder() {
+    Map<ClaimType, List<Long>> claimIdsByType = new EnumMap<>(ClaimType.class);
+    claimIdsByType.put(ClaimType.CARRIER, List.of(9L, 100L, -5L, 42L));
+    claimIdsByType.put(ClaimType.DME, List.of(42L, 7L));
+    claimIdsByType.put(ClaimType.PDE, List.of(1000L, 11L));
+
+    // Text order: -5/C, 100/C, 1000/P, 11/P, 42/C, 42/D, 7/D, 9/C
+    assertEquals(
+        Map.of(ClaimType.CARRIER, Set.of(-5L, 100L), ClaimType.PDE, Set.of(1000L)),
+        R4ExplanationOfBenefitResourceProvider.selectClaimIdsForPage(claimIdsByType, 0, 3));
+    assertEquals(
+        Map.of(
+            ClaimType.PDE, Set.of(11L), ClaimType.CARRIER, Set.of(42L), ClaimType.DME, Set.of(42L)),
+        R4ExplanationOfBenefitResourceProvider.selectClaimIdsForPage(claimIdsByType, 3, 3));
+    assertEquals(
+        Map.of(ClaimType.DME, Set.of(7L), ClaimType.CARRIER, Set.of(9L)),
+        R4ExplanationOfBenefitResourceProvider.selectClaimIdsForPage(claimIdsByType, 6, 3));
+    assertEquals(
+        Map.of(),
+        R4ExplanationOfBenefitResourceProvider.selectClaimIdsForPage(claimIdsByType, 8, 3));
+  }
+
   /**
    * Sets up mock query of a given claim type.
    *
@@ -0,0 +1,306 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import gov.cms.bfd.data.fda.lookup.FdaDrugCodeDisplayLookup;
+import gov.cms.bfd.data.npi.lookup.NPIOrgLookup;
+import gov.cms.bfd.model.rda.entities.RdaFissClaim;
+import gov.cms.bfd.model.rda.entities.RdaFissDiagnosisCode;
+import gov.cms.bfd.model.rda.entities.RdaFissProcCode;
+import gov.cms.bfd.model.rda.entities.RdaFissRevenueLine;
+import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
+import gov.cms.bfd.model.rda.entities.RdaMcsDetail;
+import gov.cms.bfd.model.rda.entities.RdaMcsDiagnosisCode;
+import gov.cms.bfd.model.rif.entities.CarrierClaim;
+import gov.cms.bfd.model.rif.entities.DMEClaim;
+import gov.cms.bfd.model.rif.entities.HHAClaim;
+import gov.cms.bfd.model.rif.entities.HospiceClaim;
+import gov.cms.bfd.model.rif.entities.InpatientClaim;
+import gov.cms.bfd.model.rif.entities.OutpatientClaim;
+import gov.cms.bfd.model.rif.entities.PartDEvent;
+import gov.cms.bfd.model.rif.entities.SNFClaim;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
+import gov.cms.bfd.model.rif.samples.StaticRifResourceGroup;
+import gov.cms.bfd.server.war.ServerTestUtils;
+import gov.cms.bfd.server.war.r4.providers.pac.FissClaimTransformerV2;
+import gov.cms.bfd.server.war.r4.providers.pac.McsClaimTransformerV2;
+import gov.cms.bfd.server.war.r4.providers.pac.R4ClaimSamhsaMatcher;
+import gov.cms.bfd.server.war.utils.RDATestUtils;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hl7.fhir.r4.model.Claim;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that the shared {@link SamhsaClaimClassifier}, which the pipeline uses to compute the
+ * stored SAMHSA flag and the server uses to screen claim entities, agrees with the FHIR resource
+ * matchers ({@link R4EobSamhsaMatcher#test(ExplanationOfBenefit)} and {@link
+ * R4ClaimSamhsaMatcher#test(Claim)}) on every sample claim and on randomly generated RDA claims.
+ */
+public class SamhsaClassifierParityTest {
+  /** The seed for the generated claims, fixed so that failures are reproducible. */
+  private static final long RANDOM_SEED = 20240117L;
+
+  /** The number of claims of each RDA type to generate. */
+  private static final int GENERATED_CLAIM_COUNT = 500;
+
+  /** Diagnosis codes to pick from: SAMHSA ICD-9, SAMHSA ICD-10, non-SAMHSA and blank. */
+  private static final List<String> DIAGNOSIS_CODES =
+      Arrays.asList("291.0", "F10.10", "R69", "V70.0", "", null);
+
+  /** Procedure codes to pick from: SAMHSA ICD-9, SAMHSA ICD-10, non-SAMHSA and blank. */
+  private static final List<String> PROCEDURE_CODES =
+      Arrays.asList("94.45", "HZ30ZZZ", "0W9G3ZZ", "88.38", null);
+
+  /** HCPCS codes to pick from: SAMHSA CPT, non-SAMHSA and blank. */
+  private static final List<String> HCPCS_CODES = Arrays.asList("H0005", "99213", "", null);
+
+  /** MCS diagnosis ICD types to pick from, including an unknown type. */
+  private static final List<String> MCS_ICD_TYPES = List.of("0", "9", "1");
+
+  /** Statement end dates to pick from, on both sides of the ICD-10 cutover, and none. */
+  private static final List<LocalDate> FISS_TO_DATES =
+      Arrays.asList(LocalDate.of(2015, 9, 30), LocalDate.of(2015, 10, 1), null);
+
+  /** The shared classifier. */
+  private static final SamhsaClaimClassifier classifier =
+      new SamhsaClaimClassifier(SamhsaCodeSet.getInstance());
+
+  /** The CCW claim matcher. */
+  private static final R4EobSamhsaMatcher eobMatcher = new R4EobSamhsaMatcher();
+
+  /** The FISS claim transformer. */
+  private static final FissClaimTransformerV2 fissTransformer =
+      new FissClaimTransformerV2(new MetricRegistry());
+
+  /** The MCS claim transformer. */
+  private static final McsClaimTransformerV2 mcsTransformer =
+      new McsClaimTransformerV2(new MetricRegistry());
+
+  /** The RDA claim matcher. */
+  private static final R4ClaimSamhsaMatcher claimMatcher =
+      new R4ClaimSamhsaMatcher(fissTransformer, mcsTransformer, new MetricRegistry(), false);
+
+  /** The transformers used to build the CCW resources, by claim entity type. */
+  private static Map<Class<?>, ClaimTransformerInterfaceV2> transformers;
+
+  /** Sets up the CCW transformers. */
+  @BeforeAll
+  public static void setup() throws IOException {
+    FdaDrugCodeDisplayLookup fdaDrugCodeDisplayLookup =
+        FdaDrugCodeDisplayLookup.createDrugCodeLookupForTesting();
+    NPIOrgLookup npiOrgLookup = new NPIOrgLookup();
+    MetricRegistry metricRegistry = new MetricRegistry();
+
+    transformers =
+        Map.of(
+            InpatientClaim.class,
+            new InpatientClaimTransformerV2(metricRegistry, npiOrgLookup),
+            OutpatientClaim.class,
+            new OutpatientClaimTransformerV2(
+                metricRegistry, fdaDrugCodeDisplayLookup, npiOrgLookup),
+            SNFClaim.class,
+            new SNFClaimTransformerV2(metricRegistry, npiOrgLookup),
+            CarrierClaim.class,
+            new CarrierClaimTransformerV2(metricRegistry, fdaDrugCodeDisplayLookup, npiOrgLookup),
+            DMEClaim.class,
+            new DMEClaimTransformerV2(metricRegistry, fdaDrugCodeDisplayLookup),
+            HHAClaim.class,
+            new HHAClaimTransformerV2(metricRegistry, npiOrgLookup),
+            HospiceClaim.class,
+            new HospiceClaimTransformerV2(metricRegistry, npiOrgLookup),
+            PartDEvent.class,
+            new PartDEventTransformerV2(metricRegistry, fdaDrugCodeDisplayLookup));
+  }
+
+  /**
+   * Verifies that the classifier, the entity matcher and the resource matcher agree on every CCW
+   * claim in the sample A, SAMHSA sample A and Synthea data sets, and that both results are seen.
+   */
+  @Test
+  public void ccwSampleClaimsAgree() {
+    List<Object> claims =
+        Stream.of(
+                StaticRifResourceGroup.SAMPLE_A,
+                StaticRifResourceGroup.SAMPLE_A_SAMHSA,
+                StaticRifResourceGroup.SYNTHEA_DATA)
+            .flatMap(
+                group -> ServerTestUtils.parseData(Arrays.asList(group.getResources())).stream())
+            .filter(record -> transformers.containsKey(record.getClass()))
+            .toList();
+
+    Set<Boolean> results = new HashSet<>();
+    for (Object claim : claims) {
+      boolean resourceResult =
+          eobMatcher.test(transformers.get(claim.getClass()).transform(claim, false));
+      assertParity(claim, resourceResult, eobMatcher.testEntity(claim));
+      results.add(resourceResult);
+    }
+
+    assertEquals(Set.of(true, false), results, "samples should include SAMHSA and other claims");
+  }
+
+  /**
+   * Verifies that the classifier, the entity matcher and the resource matcher agree on the RDA seed
+   * claims.
+   */
+  @Test
+  public void rdaSampleClaimsAgree() {
+    for (Object claim : new RDATestUtils().createSeedClaims()) {
+      assertRdaParity(claim);
+    }
+  }
+
+  /**
+   * Verifies that the classifier, the entity matcher and the resource matcher agree on randomly
+   * generated FISS and MCS claims that mix SAMHSA and non-SAMHSA codes, ICD types and dates.
+   */
+  @Test
+  public void generatedRdaClaimsAgree() {
+    Random random = new Random(RANDOM_SEED);
+    List<Boolean> results = new ArrayList<>();
+    for (int i = 0; i < GENERATED_CLAIM_COUNT; ++i) {
+      results.add(assertRdaParity(generateFissClaim(random, i)));
+      results.add(assertRdaParity(generateMcsClaim(random, i)));
+    }
+
+    assertTrue(results.contains(true), "generated claims should include SAMHSA claims");
+    assertTrue(results.contains(false), "generated claims should include non-SAMHSA claims");
+  }
+
+  /**
+   * Asserts that the classifier, the entity matcher and the resource matcher agree on the given RDA
+   * claim.
+   *
+   * @param claim the {@link RdaFissClaim} or {@link RdaMcsClaim} to check
+   * @return the agreed result
+   */
+  private static boolean assertRdaParity(Object claim) {
+    Claim resource =
+        claim instanceof RdaFissClaim
+            ? fissTransformer.transform(claim, false)
+            : mcsTransformer.transform(claim, false);
+    boolean resourceResult = claimMatcher.test(resource);
+    assertParity(claim, resourceResult, claimMatcher.testEntity(claim));
+    return resourceResult;
+  }
+
+  /**
+   * Asserts that the classifier and the entity matcher agree with the resource matcher.
+   *
+   * @param claim the claim entity that was checked
+   * @param resourceResult the resource matcher result
+   * @param entityResult the entity matcher result
+   */
+  private static void assertParity(Object claim, boolean resourceResult, boolean entityResult) {
+    assertEquals(
+        resourceResult, classifier.isSamhsaClaim(claim), "classifier differs for " + claim);
+    assertEquals(resourceResult, entityResult, "entity matcher differs for " + claim);
+  }
+
+  /**
+   * Generates a FISS claim with random diagnosis, procedure and revenue line codes.
+   *
+   * @param random the source of randomness
+   * @param index the index of the claim, used for its id
+   * @return the claim
+   */
+  private static RdaFissClaim generateFissClaim(Random random, int index) {
+    RdaFissClaim claim = new RdaFissClaim();
+    claim.setClaimId("f" + index);
+    claim.setLastUpdated(Instant.ofEpochMilli(1));
+    claim.setStmtCovToDate(pick(random, FISS_TO_DATES));
+
+    Set<RdaFissDiagnosisCode> diagnoses = new HashSet<>();
+    for (int i = 0, count = random.nextInt(4); i < count; ++i) {
+      RdaFissDiagnosisCode diagnosis = new RdaFissDiagnosisCode();
+      diagnosis.setRdaPosition((short) (i + 1));
+      diagnosis.setDiagCd2(pick(random, DIAGNOSIS_CODES));
+      diagnoses.add(diagnosis);
+    }
+    claim.setDiagCodes(diagnoses);
+
+    Set<RdaFissProcCode> procedures = new HashSet<>();
+    for (int i = 0, count = random.nextInt(3); i < count; ++i) {
+      RdaFissProcCode procedure = new RdaFissProcCode();
+      procedure.setRdaPosition((short) (i + 1));
+      procedure.setProcDate(LocalDate.EPOCH);
+      procedure.setProcCode(pick(random, PROCEDURE_CODES));
+      procedures.add(procedure);
+    }
+    claim.setProcCodes(procedures);
+
+    Set<RdaFissRevenueLine> revenueLines = new HashSet<>();
+    for (int i = 0, count = random.nextInt(3); i < count; ++i) {
+      RdaFissRevenueLine revenueLine = new RdaFissRevenueLine();
+      revenueLine.setRdaPosition((short) (i + 1));
+      // HCPCS codes on revenue lines are rare in practice, so most lines have none.
+      revenueLine.setHcpcCd(random.nextInt(4) == 0 ? pick(random, HCPCS_CODES) : null);
+      revenueLines.add(revenueLine);
+    }
+    claim.setRevenueLines(revenueLines);
+    return claim;
+  }
+
+  /**
+   * Generates an MCS claim with random diagnosis codes and detail procedure codes.
+   *
+   * @param random the source of randomness
+   * @param index the index of the claim, used for its id
+   * @return the claim
+   */
+  private static RdaMcsClaim generateMcsClaim(Random random, int index) {
+    RdaMcsClaim claim = new RdaMcsClaim();
+    claim.setIdrClmHdIcn("m" + index);
+    claim.setLastUpdated(Instant.ofEpochMilli(1));
+
+    Set<RdaMcsDiagnosisCode> diagnoses = new HashSet<>();
+    for (int i = 0, count = random.nextInt(4); i < count; ++i) {
+      RdaMcsDiagnosisCode diagnosis = new RdaMcsDiagnosisCode();
+      diagnosis.setRdaPosition((short) (i + 1));
+      // Unknown ICD types are rare in practice, so most codes use a known type.
+      diagnosis.setIdrDiagIcdType(
+          random.nextInt(8) == 0 ? pick(random, MCS_ICD_TYPES) : pick(random, List.of("0", "9")));
+      diagnosis.setIdrDiagCode(pick(random, DIAGNOSIS_CODES));
+      diagnoses.add(diagnosis);
+    }
+    claim.setDiagCodes(diagnoses);
+
+    Set<RdaMcsDetail> details = new HashSet<>();
+    for (int i = 0, count = random.nextInt(4); i < count; ++i) {
+      RdaMcsDetail detail = new RdaMcsDetail();
+      detail.setIdrDtlNumber((short) (i + 1));
+      detail.setIdrDtlToDate(LocalDate.EPOCH);
+      detail.setIdrProcCode(pick(random, HCPCS_CODES));
+      details.add(detail);
+    }
+    claim.setDetails(details);
+    return claim;
+  }
+
+  /**
+   * Picks a random element of the given list.
+   *
+   * @param random the source of randomness
+   * @param values the values to pick from
+   * @param <T> the element type
+   * @return the picked value
+   */
+  private static <T> T pick(Random random, List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+}
@@ -0,0 +1,269 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import com.codahale.metrics.MetricRegistry;
+import gov.cms.bfd.data.fda.lookup.FdaDrugCodeDisplayLookup;
+import gov.cms.bfd.data.npi.lookup.NPIOrgLookup;
+import gov.cms.bfd.model.rif.RifRecordBase;
+import gov.cms.bfd.model.rif.entities.CarrierClaim;
+import gov.cms.bfd.model.rif.entities.DMEClaim;
+import gov.cms.bfd.model.rif.entities.HHAClaim;
+import gov.cms.bfd.model.rif.entities.HospiceClaim;
+import gov.cms.bfd.model.rif.entities.InpatientClaim;
+import gov.cms.bfd.model.rif.entities.OutpatientClaim;
+import gov.cms.bfd.model.rif.entities.PartDEvent;
+import gov.cms.bfd.model.rif.entities.SNFClaim;
+import gov.cms.bfd.model.rif.samhsa.SamhsaClaimClassifier;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Verifies that {@link R4EobSamhsaMatcher#testEntity(Object)} and the shared {@link
+ * SamhsaClaimClassifier} agree with {@link R4EobSamhsaMatcher#test(ExplanationOfBenefit)} on the
+ * {@link ExplanationOfBenefit} transformed from the same claim entity.
+ */
+public class SamhsaMatcherR4FromClaimEntityTest {
+
+  /** A blacklisted HCPCS code. */
+  private static final String BLACKLISTED_HCPCS_CODE = "G2215";
+
+  /** A blacklisted IC9 diagnosis code. */
+  private static final String BLACKLISTED_IC9_DIAGNOSIS_CODE = "291.0";
+
+  /** A blacklisted IC10 diagnosis code. */
+  private static final String BLACKLISTED_IC10_DIAGNOSIS_CODE = "F10.10";
+
+  /** A blacklisted IC10 procedure code. */
+  private static final String BLACKLISTED_IC10_PROCEDURE_CODE = "HZ2ZZZZ";
+
+  /** A non-blacklisted IC code. */
+  private static final String NON_BLACKLISTED_IC_CODE = "111111";
+
+  /** A blacklisted DRG diagnosis code. */
+  private static final String BLACKLISTED_DRG_DIAGNOSIS_CODE = "895";
+
+  /** The matcher used in tests. */
+  private static final R4EobSamhsaMatcher samhsaMatcherV2 = new R4EobSamhsaMatcher();
+
+  /** The classifier shared with the pipeline, which uses it to compute the stored SAMHSA flag. */
+  private static final SamhsaClaimClassifier classifier =
+      new SamhsaClaimClassifier(SamhsaCodeSet.getInstance());
+
+  /** The transformers used to build the resources, by claim entity type. */
+  private static Map<Class<?>, ClaimTransformerInterfaceV2> transformers;
+
+  /** Sets up the transformers. */
+  @BeforeAll
+  public static void setup() throws IOException {
+    FdaDrugCodeDisplayLookup fdaDrugCodeDisplayLookup =
+        FdaDrugCodeDisplayLookup.createDrugCodeLookupForTesting();
+    NPIOrgLookup npiOrgLookup = new NPIOrgLookup();
+    MetricRegistry metricRegistry = new MetricRegistry();
+
+    transformers =
+        Map.of(
+            InpatientClaim.class,
+            new InpatientClaimTransformerV2(metricRegistry, npiOrgLookup),
+            OutpatientClaim.class,
+            new OutpatientClaimTransformerV2(
+                metricRegistry, fdaDrugCodeDisplayLookup, npiOrgLookup),
+            SNFClaim.class,
+            new SNFClaimTransformerV2(metricRegistry, npiOrgLookup),
+            CarrierClaim.class,
+            new CarrierClaimTransformerV2(metricRegistry, fdaDrugCodeDisplayLookup, npiOrgLookup),
+            DMEClaim.class,
+            new DMEClaimTransformerV2(metricRegistry, fdaDrugCodeDisplayLookup),
+            HHAClaim.class,
+            new HHAClaimTransformerV2(metricRegistry, npiOrgLookup),
+            HospiceClaim.class,
+            new HospiceClaimTransformerV2(metricRegistry, npiOrgLookup),
+            PartDEvent.class,
+            new PartDEventTransformerV2(metricRegistry, fdaDrugCodeDisplayLookup));
+  }
+
+  /**
+   * Returns the data for the tests. Each entry names a claim type and a modification to apply to
+   * the sample claim entity of that type, along with the expected matcher result (or {@code null}
+   * when only agreement between the two matchers is checked).
+   *
+   * @return the data
+   */
+  public static Stream<Arguments> data() {
+    return Stream.of(
+        arguments("Inpatient sample", InpatientClaim.class, noChange(), null),
+        arguments("Outpatient sample", OutpatientClaim.class, noChange(), null),
+        arguments("SNF sample", SNFClaim.class, noChange(), null),
+        arguments("Carrier sample", CarrierClaim.class, noChange(), null),
+        arguments("DME sample", DMEClaim.class, noChange(), null),
+        arguments("HHA sample", HHAClaim.class, noChange(), null),
+        arguments("Hospice sample", HospiceClaim.class, noChange(), null),
+        arguments("PDE sample", PartDEvent.class, noChange(), false),
+        arguments(
+            "Inpatient ICD10 diagnosis",
+            InpatientClaim.class,
+            (Consumer<InpatientClaim>)
+                c -> {
+                  c.setDiagnosis1Code(Optional.of(BLACKLISTED_IC10_DIAGNOSIS_CODE));
+                  c.setDiagnosis1CodeVersion(Optional.of('0'));
+                },
+            true),
+        arguments(
+            "Inpatient ICD10 procedure",
+            InpatientClaim.class,
+            (Consumer<InpatientClaim>)
+                c -> {
+                  c.setProcedure1Code(Optional.of(BLACKLISTED_IC10_PROCEDURE_CODE));
+                  c.setProcedure1CodeVersion(Optional.of('0'));
+                },
+            true),
+        arguments(
+            "Inpatient DRG",
+            InpatientClaim.class,
+            (Consumer<InpatientClaim>)
+                c -> c.setDiagnosisRelatedGroupCd(Optional.of(BLACKLISTED_DRG_DIAGNOSIS_CODE)),
+            true),
+        arguments(
+            "Inpatient line HCPCS",
+            InpatientClaim.class,
+            (Consumer<InpatientClaim>)
+                c -> c.getLines().get(0).setHcpcsCode(Optional.of(BLACKLISTED_HCPCS_CODE)),
+            true),
+        arguments(
+            "Outpatient ICD9 diagnosis",
+            OutpatientClaim.class,
+            (Consumer<OutpatientClaim>)
+                c -> {
+                  c.setDiagnosis1Code(Optional.of(BLACKLISTED_IC9_DIAGNOSIS_CODE));
+                  c.setDiagnosis1CodeVersion(Optional.of('9'));
+                },
+            true),
+        arguments(
+            "SNF DRG",
+            SNFClaim.class,
+            (Consumer<SNFClaim>)
+                c -> c.setDiagnosisRelatedGroupCd(Optional.of(BLACKLISTED_DRG_DIAGNOSIS_CODE)),
+            true),
+        arguments(
+            "Carrier line ICD10 diagnosis",
+            CarrierClaim.class,
+            (Consumer<CarrierClaim>)
+                c -> {
+                  c.getLines()
+                      .get(0)
+                      .setDiagnosisCode(Optional.of(BLACKLISTED_IC10_DIAGNOSIS_CODE));
+                  c.getLines().get(0).setDiagnosisCodeVersion(Optional.of('0'));
+                },
+            true),
+        arguments(
+            "Carrier unknown diagnosis version",
+            CarrierClaim.class,
+            (Consumer<CarrierClaim>)
+                c -> {
+                  c.setDiagnosis1Code(Optional.of(NON_BLACKLISTED_IC_CODE));
+                  c.setDiagnosis1CodeVersion(Optional.of('X'));
+                },
+            true),
+        arguments(
+            "DME line HCPCS",
+            DMEClaim.class,
+            (Consumer<DMEClaim>)
+                c -> c.getLines().get(0).setHcpcsCode(Optional.of(BLACKLISTED_HCPCS_CODE)),
+            true),
+        arguments(
+            "HHA ICD10 diagnosis",
+            HHAClaim.class,
+            (Consumer<HHAClaim>)
+                c -> {
+                  c.setDiagnosis1Code(Optional.of(BLACKLISTED_IC10_DIAGNOSIS_CODE));
+                  c.setDiagnosis1CodeVersion(Optional.of('0'));
+                },
+            true),
+        arguments(
+            "Hospice line HCPCS",
+            HospiceClaim.class,
+            (Consumer<HospiceClaim>)
+                c -> c.getLines().get(0).setHcpcsCode(Optional.of(BLACKLISTED_HCPCS_CODE)),
+            true));
+  }
+
+  /**
+   * Verifies that the entity and resource matchers return the same result for the modified sample
+   * claim, and that the result is the expected one when given.
+   *
+   * @param testName the test name
+   * @param claimClass the claim entity type
+   * @param modifier the modification to apply to the sample claim entity
+   * @param expected the expected result, or {@code null} to only check agreement
+   * @param <T> the claim entity type
+   */
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("data")
+  public <T extends RifRecordBase> void testEntityMatchesResourceResult(
+      String testName, Class<T> claimClass, Consumer<T> modifier, Boolean expected) {
+    T claim = claimClass.cast(SamhsaMatcherR4FromClaimTransformerV2Test.getClaim(claimClass));
+    modifier.accept(claim);
+
+    boolean entityResult = samhsaMatcherV2.testEntity(claim);
+    boolean resourceResult =
+        samhsaMatcherV2.test(transformers.get(claimClass).transform(claim, false));
+
+    assertEquals(resourceResult, entityResult, testName + " entity and resource results differ");
+    assertEquals(
+        resourceResult,
+        classifier.isSamhsaClaim(claim),
+        testName + " classifier and resource results differ");
+    if (expected != null) {
+      assertEquals(expected, entityResult, testName);
+    }
+  }
+
+  /**
+   * Verifies that a stored SAMHSA flag computed with the current code list version is used instead
+   * of the claim's codes, and that a stale flag is ignored.
+   */
+  @Test
+  public void testEntityUsesCurrentStoredFlag() {
+    InpatientClaim claim =
+        (InpatientClaim) SamhsaMatcherR4FromClaimTransformerV2Test.getClaim(InpatientClaim.class);
+    claim.setDiagnosisRelatedGroupCd(Optional.of(BLACKLISTED_DRG_DIAGNOSIS_CODE));
+    assertTrue(samhsaMatcherV2.testEntity(claim));
+
+    claim.setSamhsaFlag(Optional.of(false));
+    claim.setSamhsaCodeListVersion(Optional.of(SamhsaCodeSet.CODE_LIST_VERSION));
+    assertFalse(samhsaMatcherV2.testEntity(claim), "current stored false flag should be used");
+
+    claim.setSamhsaCodeListVersion(Optional.of((short) (SamhsaCodeSet.CODE_LIST_VERSION - 1)));
+    assertTrue(samhsaMatcherV2.testEntity(claim), "stale stored flag should be ignored");
+
+    claim.setDiagnosisRelatedGroupCd(Optional.empty());
+    assertFalse(samhsaMatcherV2.testEntity(claim));
+
+    claim.setSamhsaFlag(Optional.of(true));
+    claim.setSamhsaCodeListVersion(Optional.of(SamhsaCodeSet.CODE_LIST_VERSION));
+    assertTrue(samhsaMatcherV2.testEntity(claim), "current stored true flag should be used");
+  }
+
+  /**
+   * Returns a modifier that leaves the sample claim unchanged.
+   *
+   * @param <T> the claim entity type
+   * @return the modifier
+   */
+  private static <T> Consumer<T> noChange() {
+    return c -> {};
+  }
+}
@@ -0,0 +1,146 @@
+package gov.cms.bfd.server.war.r4.providers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.MetricRegistry;
+import gov.cms.bfd.model.rif.entities.CarrierClaim;
+import gov.cms.bfd.server.war.commons.ClaimType;
+import java.time.Instant;
+import org.hl7.fhir.r4.model.ExplanationOfBenefit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** Unit tests for {@link TransformedEobCache}. */
+@ExtendWith(MockitoExtension.class)
+public class TransformedEobCacheTest {
+  /** A lastUpdated value for test claims. */
+  private static final Instant LAST_UPDATED = Instant.parse("2023-01-01T00:00:00Z");
+
+  /** Used to verify the cache metrics. */
+  private MetricRegistry metricRegistry;
+
+  /** The mock transformer being cached. */
+  @Mock private ClaimTransformerInterfaceV2 transformer;
+
+  /** Creates a new metric registry for each test. */
+  @BeforeEach
+  public void setup() {
+    metricRegistry = new MetricRegistry();
+  }
+
+  /** Verifies that a disabled cache does not wrap the transformer. */
+  @Test
+  public void testWrapWhenDisabledExpectSameTransformer() {
+    TransformedEobCache cache = new TransformedEobCache(metricRegistry, 0L);
+
+    assertSame(transformer, cache.wrap(ClaimType.CARRIER, transformer));
+  }
+
+  /**
+   * Verifies that a repeated transformation of the same claim is answered from the cache, that the
+   * stored resource is a copy of the one returned by the transformer, and that every hit returns
+   * that same stored resource.
+   */
+  @Test
+  public void testTransformWhenRepeatedExpectHit() {
+    when(transformer.transform(any(), anyBoolean())).thenAnswer(i -> createEob(1));
+    TransformedEobCache cache = new TransformedEobCache(metricRegistry, 100L);
+    ClaimTransformerInterfaceV2 cachingTransformer = cache.wrap(ClaimType.CARRIER, transformer);
+    CarrierClaim claim = createClaim(1L, 10L, LAST_UPDATED);
+
+    ExplanationOfBenefit first = cachingTransformer.transform(claim, false);
+    ExplanationOfBenefit second = cachingTransformer.transform(claim, false);
+    ExplanationOfBenefit third = cachingTransformer.transform(claim, false);
+
+    verify(transformer, times(1)).transform(claim, false);
+    assertNotSame(first, second);
+    assertTrue(first.equalsDeep(second));
+    assertSame(second, third);
+    assertEquals(2, metricRegistry.counter("TransformedEobCache.hits").getCount());
+    assertEquals(1, metricRegistry.counter("TransformedEobCache.misses").getCount());
+  }
+
+  /**
+   * Verifies that changes to the claim's lastUpdated or the includeTaxNumbers option are cache
+   * misses.
+   */
+  @Test
+  public void testTransformWhenKeyChangesExpectMiss() {
+    when(transformer.transform(any(), anyBoolean())).thenAnswer(i -> createEob(1));
+    TransformedEobCache cache = new TransformedEobCache(metricRegistry, 100L);
+    ClaimTransformerInterfaceV2 cachingTransformer = cache.wrap(ClaimType.CARRIER, transformer);
+
+    cachingTransformer.transform(createClaim(1L, 10L, LAST_UPDATED), false);
+    cachingTransformer.transform(createClaim(1L, 10L, LAST_UPDATED), true);
+    cachingTransformer.transform(createClaim(1L, 10L, LAST_UPDATED.plusSeconds(1)), false);
+    cachingTransformer.transform(createClaim(1L, 10L, null), false);
+
+    verify(transformer, times(4)).transform(any(), anyBoolean());
+    assertEquals(0, metricRegistry.counter("TransformedEobCache.hits").getCount());
+    assertEquals(4, metricRegistry.counter("TransformedEobCache.misses").getCount());
+  }
+
+  /** Verifies that entries are evicted once the maximum weight is exceeded. */
+  @Test
+  public void testTransformWhenOverMaxWeightExpectEvictions() {
+    when(transformer.transform(any(), anyBoolean())).thenAnswer(i -> createEob(4));
+    TransformedEobCache cache = new TransformedEobCache(metricRegistry, 10L);
+    ClaimTransformerInterfaceV2 cachingTransformer = cache.wrap(ClaimType.CARRIER, transformer);
+
+    for (long claimId = 1; claimId <= 10; ++claimId) {
+      cachingTransformer.transform(createClaim(claimId, 10L, LAST_UPDATED), false);
+    }
+
+    assertTrue(cache.size() < 10);
+    assertTrue(metricRegistry.counter("TransformedEobCache.evictions").getCount() > 0);
+  }
+
+  /** Verifies that the weight of a resource grows with its repeating elements. */
+  @Test
+  public void testWeigh() {
+    assertEquals(1, TransformedEobCache.weigh(new ExplanationOfBenefit()));
+    assertEquals(4, TransformedEobCache.weigh(createEob(3)));
+  }
+
+  /**
+   * Creates a carrier claim.
+   *
+   * @param claimId the claim id
+   * @param beneficiaryId the beneficiary id
+   * @param lastUpdated the lastUpdated value, or null for none
+   * @return the claim
+   */
+  private static CarrierClaim createClaim(long claimId, long beneficiaryId, Instant lastUpdated) {
+    CarrierClaim claim = new CarrierClaim();
+    claim.setClaimId(claimId);
+    claim.setBeneficiaryId(beneficiaryId);
+    claim.setLastUpdated(lastUpdated);
+    return claim;
+  }
+
+  /**
+   * Creates an EOB with the given number of items.
+   *
+   * @param itemCount the number of items
+   * @return the EOB
+   */
+  private static ExplanationOfBenefit createEob(int itemCount) {
+    ExplanationOfBenefit eob = new ExplanationOfBenefit();
+    eob.setId("carrier-1");
+    for (int i = 1; i <= itemCount; ++i) {
+      eob.addItem().setSequence(i);
+    }
+    return eob;
+  }
+}
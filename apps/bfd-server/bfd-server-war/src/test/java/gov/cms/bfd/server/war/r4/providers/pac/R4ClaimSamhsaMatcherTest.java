@@ -1,15 +1,24 @@
 package gov.cms.bfd.server.war.r4.providers.pac;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.codahale.metrics.MetricRegistry;
 import gov.cms.bfd.model.rda.entities.RdaFissClaim;
+import gov.cms.bfd.model.rda.entities.RdaFissRevenueLine;
 import gov.cms.bfd.model.rda.entities.RdaMcsClaim;
+import gov.cms.bfd.model.rda.entities.RdaMcsDetail;
+import gov.cms.bfd.model.rif.samhsa.SamhsaCodeSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.hl7.fhir.r4.model.Claim;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,7 +48,9 @@ public class R4ClaimSamhsaMatcherTest {
   /** Sets up the class under test and dependencies. */
   @BeforeEach
   public void setup() {
-    samhsaMatcher = new R4ClaimSamhsaMatcher(mockFissTransformer, mockMcsTransformer);
+    samhsaMatcher =
+        new R4ClaimSamhsaMatcher(
+            mockFissTransformer, mockMcsTransformer, new MetricRegistry(), false);
     when(mockFissTransformer.transform(any(), anyBoolean())).thenReturn(mockClaim);
     when(mockMcsTransformer.transform(any(), anyBoolean())).thenReturn(mockClaim);
     List<Claim.ProcedureComponent> procedureComponentList = new ArrayList<>();
@@ -73,4 +84,71 @@ public class R4ClaimSamhsaMatcherTest {
 
     assertTrue(hasNoSamhsa);
   }
+
+  /**
+   * Tests that the claim is not transformed when the parity check is disabled, since the entity is
+   * screened directly.
+   */
+  @Test
+  public void testHasNoSamhsaDataWhenParityCheckDisabledExpectNoTransform() {
+    RdaFissClaim fissClaim = mock(RdaFissClaim.class);
+    RdaMcsClaim mcsClaim = mock(RdaMcsClaim.class);
+
+    assertTrue(samhsaMatcher.hasNoSamhsaData(fissClaim));
+    assertTrue(samhsaMatcher.hasNoSamhsaData(mcsClaim));
+
+    verify(mockFissTransformer, never()).transform(any(), anyBoolean());
+    verify(mockMcsTransformer, never()).transform(any(), anyBoolean());
+  }
+
+  /**
+   * Tests that the transformed claim decides the result when the parity check is enabled, and that
+   * a disagreement between the entity and resource checks is counted.
+   */
+  @Test
+  public void testHasNoSamhsaDataWhenParityCheckEnabledExpectResourceResultAndMismatchCounted() {
+    MetricRegistry metricRegistry = new MetricRegistry();
+    samhsaMatcher =
+        new R4ClaimSamhsaMatcher(mockFissTransformer, mockMcsTransformer, metricRegistry, true);
+
+    RdaFissRevenueLine revenueLine = new RdaFissRevenueLine();
+    revenueLine.setHcpcCd("G2215");
+    RdaFissClaim fissClaim = new RdaFissClaim();
+    fissClaim.setClaimId("claim1");
+    fissClaim.setRevenueLines(Set.of(revenueLine));
+
+    // The entity check flags the revenue line, but the mock transformer returns an empty claim
+    assertTrue(samhsaMatcher.testEntity(fissClaim));
+    assertTrue(samhsaMatcher.hasNoSamhsaData(fissClaim));
+    assertEquals(1, metricRegistry.counter("AbstractSamhsaMatcher.parity.fiss.checked").getCount());
+    assertEquals(
+        1, metricRegistry.counter("AbstractSamhsaMatcher.parity.fiss.mismatch").getCount());
+  }
+
+  /**
+   * Tests that a stored SAMHSA flag computed with the current code list version is used instead of
+   * the claim's codes, and that a stale flag is ignored.
+   */
+  @Test
+  public void testTestEntityWhenStoredFlagExpectCurrentFlagUsed() {
+    RdaMcsClaim mcsClaim = new RdaMcsClaim();
+    mcsClaim.setIdrClmHdIcn("claim1");
+    mcsClaim.setSamhsaFlag(true);
+
+    mcsClaim.setSamhsaCodeListVersion(SamhsaCodeSet.CODE_LIST_VERSION);
+    assertTrue(samhsaMatcher.testEntity(mcsClaim));
+    assertFalse(samhsaMatcher.hasNoSamhsaData(mcsClaim));
+
+    mcsClaim.setSamhsaCodeListVersion((short) (SamhsaCodeSet.CODE_LIST_VERSION - 1));
+    assertFalse(samhsaMatcher.testEntity(mcsClaim));
+
+    RdaMcsDetail detail = new RdaMcsDetail();
+    detail.setIdrProcCode("H0005");
+    mcsClaim.setDetails(Set.of(detail));
+    mcsClaim.setSamhsaFlag(false);
+    assertTrue(samhsaMatcher.testEntity(mcsClaim));
+
+    mcsClaim.setSamhsaCodeListVersion(SamhsaCodeSet.CODE_LIST_VERSION);
+    assertFalse(samhsaMatcher.testEntity(mcsClaim));
+  }
 }
@@ -198,9 +198,11 @@ public class R4ClaimSamhsaMatcherTransformerTest {
     Claim claim = fissClaimTransformerV2.transform(entity, true);
 
     R4ClaimSamhsaMatcher matcher =
-        new R4ClaimSamhsaMatcher(fissClaimTransformerV2, mcsClaimTransformerV2);
+        new R4ClaimSamhsaMatcher(
+            fissClaimTransformerV2, mcsClaimTransformerV2, new MetricRegistry(), false);
 
     assertEquals(expectedResult, matcher.test(claim), testName + " " + errorMessagePostFix);
+    assertEquals(expectedResult, matcher.testEntity(entity), testName + " " + errorMessagePostFix);
   }
 
   /**
@@ -297,8 +299,10 @@ public class R4ClaimSamhsaMatcherTransformerTest {
     Claim claim = mcsClaimTransformerV2.transform(entity, true);
 
     R4ClaimSamhsaMatcher matcher =
-        new R4ClaimSamhsaMatcher(fissClaimTransformerV2, mcsClaimTransformerV2);
+        new R4ClaimSamhsaMatcher(
+            fissClaimTransformerV2, mcsClaimTransformerV2, new MetricRegistry(), false);
 
     assertEquals(expectedResult, matcher.test(claim), testName + " " + errorMessagePostFix);
+    assertEquals(expectedResult, matcher.testEntity(entity), testName + " " + errorMessagePostFix);
   }
 }
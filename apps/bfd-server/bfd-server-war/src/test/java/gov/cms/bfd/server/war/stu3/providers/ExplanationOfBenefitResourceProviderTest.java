@@ -188,7 +188,8 @@ public class ExplanationOfBenefitResourceProviderTest {
             Mockito.mock(InpatientClaimTransformer.class),
             Mockito.mock(OutpatientClaimTransformer.class),
             mockPdeTransformer,
-            Mockito.mock(SNFClaimTransformer.class));
+            Mockito.mock(SNFClaimTransformer.class),
+            false);
 
     // entity manager mocking
     mockEntityManager();
@@ -6,10 +6,14 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ca.uhn.fhir.rest.param.DateRangeParam;
+import com.codahale.metrics.MetricRegistry;
 import gov.cms.bfd.model.rif.LoadedBatch;
 import gov.cms.bfd.model.rif.LoadedFile;
+import gov.cms.bfd.model.rif.LoadedFileBloomFilter;
 import gov.cms.bfd.server.war.commons.LoadedFileFilter;
 import gov.cms.bfd.server.war.commons.LoadedFilterManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.text.ParseException;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -19,9 +23,14 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.apache.spark.util.sketch.BloomFilter;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
@@ -273,6 +282,202 @@ public final class LoadedFilterManagerTest {
     assertSame(bFilters.get(0), aFilters.get(0));
   }
 
+  /**
+   * Validates that batches written in the legacy comma separated format and in the packed format
+   * produce filters containing the same beneficiaries, so that filters can be built while both
+   * kinds of rows are in the table.
+   */
+  @Test
+  public void buildFilterFromLegacyAndPackedBatches() {
+    final List<Long> benes = List.of(SAMPLE_BENE, -88888888L, 42L, SAMPLE_BENE + 1000);
+    final LoadedBatch legacyBatch =
+        new LoadedBatch(
+            1,
+            1,
+            benes.stream().map(String::valueOf).collect(Collectors.joining(LoadedBatch.SEPARATOR)),
+            null,
+            preDates[4]);
+    final LoadedBatch packedBatch = new LoadedBatch(2, 2, benes, preDates[9]);
+    assertEquals(benes.size(), legacyBatch.getBeneficiaryCount());
+    assertEquals(benes.size(), packedBatch.getBeneficiaryCount());
+
+    final MockDb mockDb =
+        new MockDb().insert(1, preDates[1]).insert(2, preDates[6]).insert(legacyBatch, packedBatch);
+    final List<LoadedFileFilter> filters =
+        LoadedFilterManager.buildFilters(mockDb.fetchAllTuples(), mockDb::fetchById);
+    assertEquals(2, filters.size());
+    for (LoadedFileFilter filter : filters) {
+      for (Long bene : benes) {
+        assertTrue(filter.mightContain(bene));
+      }
+      assertFalse(filter.mightContain(INVALID_BENE));
+    }
+  }
+
+  /**
+   * Validates that {@link LoadedBatch#combine} merges legacy and packed batches into a packed batch
+   * containing the beneficiaries of both in ascending order without duplicates.
+   */
+  @Test
+  public void combineLegacyAndPackedBatches() {
+    final LoadedBatch legacyBatch = new LoadedBatch(1, 1, "5,-3,5", null, preDates[0]);
+    final LoadedBatch packedBatch =
+        new LoadedBatch(2, 1, List.of(Long.MAX_VALUE, 5L, Long.MIN_VALUE), preDates[1]);
+    final LoadedBatch combined = LoadedBatch.combine(legacyBatch, packedBatch);
+    assertEquals(
+        List.of(Long.MIN_VALUE, -3L, 5L, Long.MAX_VALUE), combined.getBeneficiariesAsList());
+    assertEquals(1, combined.getLoadedBatchId());
+    assertEquals(preDates[1], combined.getCreated());
+    assertEquals(0, new LoadedBatch(3, 1, List.of(), preDates[2]).getBeneficiaryCount());
+  }
+
+  /**
+   * Validates that new batches also fill in the legacy comma separated column, in the order given,
+   * so that servers that only read that column still see every beneficiary.
+   */
+  @Test
+  public void newBatchesKeepLegacyBeneficiaries() {
+    final LoadedBatch packedBatch =
+        new LoadedBatch(1, 1, List.of(Long.MAX_VALUE, 5L, Long.MIN_VALUE), preDates[0]);
+    assertEquals(Long.MAX_VALUE + ",5," + Long.MIN_VALUE, packedBatch.getBeneficiaries());
+    assertEquals("", new LoadedBatch(2, 1, List.of(), preDates[1]).getBeneficiaries());
+  }
+
+  /**
+   * Validates that a saved filter is used in place of the file's batches when it includes every
+   * batch, and that the filter is built from the batches when the saved filter is stale or cannot
+   * be read. Each case is counted by its own meter, and an unreadable saved filter is not counted
+   * as loaded.
+   *
+   * @throws IOException pass through
+   */
+  @Test
+  public void buildFiltersFromSavedFilters() throws IOException {
+    final long savedBene = 99L;
+    final MockDb mockDb =
+        new MockDb()
+            .insert(1, preDates[1])
+            .insert(2, preDates[11])
+            .insert(3, preDates[21])
+            .insert(preBatches[0], preBatches[2], preBatches[4]);
+    final Map<Long, LoadedFileBloomFilter> savedFilters =
+        Map.of(
+            1L,
+            createSavedFilter(1, preDates[4], savedBene),
+            2L,
+            createSavedFilter(2, preDates[13], savedBene),
+            3L,
+            new LoadedFileBloomFilter(3, 1, preDates[24], new byte[] {1, 2}, preDates[24]));
+    final Set<Long> fetchedIds = new HashSet<>();
+    final MetricRegistry metrics = new MetricRegistry();
+    final List<LoadedFileFilter> filters =
+        LoadedFilterManager.buildFilters(
+            mockDb.fetchAllTuples(),
+            savedFilters,
+            id -> {
+              fetchedIds.add(id);
+              return mockDb.fetchById(id);
+            },
+            metrics);
+
+    assertEquals(Set.of(2L, 3L), fetchedIds);
+    assertEquals(3, filters.size());
+    final Map<Long, LoadedFileFilter> byId =
+        filters.stream()
+            .collect(Collectors.toMap(LoadedFileFilter::getLoadedFileId, Function.identity()));
+    assertTrue(byId.get(1L).mightContain(savedBene));
+    assertFalse(byId.get(1L).mightContain(SAMPLE_BENE));
+    assertEquals(preDates[1], byId.get(1L).getFirstUpdated());
+    assertEquals(preDates[4], byId.get(1L).getLastUpdated());
+    for (long fileId : List.of(2L, 3L)) {
+      assertTrue(byId.get(fileId).mightContain(SAMPLE_BENE));
+      assertFalse(byId.get(fileId).mightContain(savedBene));
+    }
+    assertEquals(1, metrics.meter(LoadedFilterManager.SAVED_FILTERS_METER_NAME).getCount());
+    assertEquals(1, metrics.meter(LoadedFilterManager.BUILT_FILTERS_METER_NAME).getCount());
+    assertEquals(1, metrics.meter(LoadedFilterManager.REBUILT_FILTERS_METER_NAME).getCount());
+  }
+
+  /**
+   * Creates a saved filter as the pipeline would save it.
+   *
+   * @param fileId the loaded file id
+   * @param lastUpdated the created time of the file's latest batch
+   * @param bene the only beneficiary in the filter
+   * @return the saved filter
+   * @throws IOException pass through
+   */
+  private static LoadedFileBloomFilter createSavedFilter(
+      long fileId, Instant lastUpdated, long bene) throws IOException {
+    final BloomFilter bloomFilter = LoadedFileFilter.createFilter(1);
+    bloomFilter.putLong(bene);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bloomFilter.writeTo(bytes);
+    return new LoadedFileBloomFilter(fileId, 1, lastUpdated, bytes.toByteArray(), lastUpdated);
+  }
+
+  /**
+   * Validates that {@link LoadedFilterManager#isResultSetEmpty} gives the same answer as checking
+   * every filter when there are many filters with overlapping time spans, including long loads that
+   * span many later ones.
+   */
+  @Test
+  public void testIsResultSetEmptyMatchesLinearScan() {
+    final Instant start = preDates[0];
+    final List<LoadedFileFilter> filters = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      final Instant firstUpdated = start.plusSeconds(10L * i);
+      // every seventh load runs far longer than the others
+      final Instant lastUpdated = firstUpdated.plusSeconds(i % 7 == 0 ? 200 : 5);
+      final BloomFilter bloomFilter = LoadedFileFilter.createFilter(2);
+      bloomFilter.putLong(SAMPLE_BENE + i);
+      bloomFilter.putLong(SAMPLE_BENE + i + 1);
+      filters.add(new LoadedFileFilter(i, 1, firstUpdated, lastUpdated, bloomFilter));
+    }
+    final List<LoadedFileFilter> sortedFilters =
+        LoadedFilterManager.mergeFilters(Collections.emptyList(), filters);
+    final LoadedFilterManager filterManager = new LoadedFilterManager();
+    filterManager.set(sortedFilters, start, start.plusSeconds(800));
+
+    for (int lower = 0; lower < 800; lower += 13) {
+      for (int length : new int[] {1, 7, 50, 400}) {
+        for (boolean inclusive : new boolean[] {false, true}) {
+          final Date lowerDate = Date.from(start.plusSeconds(lower));
+          final Date upperDate = Date.from(start.plusSeconds(lower + length));
+          final DateRangeParam range =
+              inclusive
+                  ? new DateRangeParam(lowerDate, upperDate)
+                  : new DateRangeParam()
+                      .setLowerBoundExclusive(lowerDate)
+                      .setUpperBoundExclusive(upperDate);
+          final DateRangeParam openRange = new DateRangeParam().setLowerBoundInclusive(lowerDate);
+          for (long bene = SAMPLE_BENE - 1; bene <= SAMPLE_BENE + 61; bene++) {
+            assertEquals(
+                isResultSetEmptyByScan(sortedFilters, bene, range),
+                filterManager.isResultSetEmpty(bene, range));
+            assertEquals(
+                isResultSetEmptyByScan(sortedFilters, bene, openRange),
+                filterManager.isResultSetEmpty(bene, openRange));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks every filter for one that matches the range and might contain the beneficiary.
+   *
+   * @param filters the filters to check
+   * @param beneficiaryId the beneficiary to look for
+   * @param range the range to match
+   * @return true if no filter matches
+   */
+  private static boolean isResultSetEmptyByScan(
+      List<LoadedFileFilter> filters, long beneficiaryId, DateRangeParam range) {
+    return filters.stream()
+        .noneMatch(f -> f.matchesDateRange(range) && f.mightContain(beneficiaryId));
+  }
+
   /** Helper class that mocks a DB for LoadedFilterManager testing. */
   private static class MockDb {
     /** Batches for loading. */
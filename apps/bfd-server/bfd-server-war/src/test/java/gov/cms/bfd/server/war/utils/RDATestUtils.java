@@ -120,6 +120,17 @@ public class RDATestUtils {
         });
   }
 
+  /**
+   * Creates the claims inserted by {@link #seedData(boolean)} without touching the database, for
+   * tests that only need the claim entities.
+   *
+   * @return the FISS and MCS test claims
+   */
+  public List<Object> createSeedClaims() {
+    Mbi mbi = Mbi.builder().mbi(MBI).hash(MBI_HASH).build();
+    return List.of(fissTestDataA(mbi), fissTestDataB(mbi), mcsTestDataA(mbi), mcsTestDataB(mbi));
+  }
+
   /** Inserts an MBI cache record for use with test case claims. */
   public void seedMbiRecord() {
     final var mbi = Mbi.builder().mbi(MBI).hash(MBI_HASH).oldHash(MBI_OLD_HASH).build();
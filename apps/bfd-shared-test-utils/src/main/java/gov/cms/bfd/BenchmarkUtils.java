@@ -0,0 +1,168 @@
+package gov.cms.bfd;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Shared harness for the {@code *Benchmark} main classes in the test sources of the BFD modules.
+ * Those benchmarks are not run as part of the build; they run a workload for a number of untimed
+ * warmup iterations followed by a number of measured iterations, and report the median of each
+ * measured value. This class holds the warmup loop, the statistics and the heap and allocation
+ * probes so that every benchmark measures the same way.
+ */
+public final class BenchmarkUtils {
+  /**
+   * The number of untimed iterations run first to warm up the JIT, unless a benchmark overrides it.
+   */
+  public static final int DEFAULT_WARMUP_ITERATIONS = 3;
+
+  /** The number of times {@link #usedHeapAfterGc} asks for a collection before reading the heap. */
+  private static final int GC_PASSES = 3;
+
+  /** Prevents instantiation of this class. */
+  private BenchmarkUtils() {}
+
+  /**
+   * Runs an iteration {@link #DEFAULT_WARMUP_ITERATIONS} times without recording it, then the given
+   * number of times recording its values.
+   *
+   * @param iterations the number of measured iterations
+   * @param iteration the workload, which returns the values it measured
+   * @return the values of the measured iterations
+   * @throws Exception if the workload fails
+   */
+  public static Samples measure(int iterations, Iteration iteration) throws Exception {
+    return measure(DEFAULT_WARMUP_ITERATIONS, iterations, iteration);
+  }
+
+  /**
+   * Runs an iteration the given number of times without recording it, then the given number of
+   * times recording its values. Every iteration must return the same number of values.
+   *
+   * @param warmupIterations the number of untimed iterations
+   * @param iterations the number of measured iterations
+   * @param iteration the workload, which returns the values it measured
+   * @return the values of the measured iterations
+   * @throws Exception if the workload fails
+   */
+  public static Samples measure(int warmupIterations, int iterations, Iteration iteration)
+      throws Exception {
+    if (iterations < 1) {
+      throw new IllegalArgumentException("At least one measured iteration is required");
+    }
+    long[][] values = null;
+    for (int i = -warmupIterations; i < iterations; ++i) {
+      final long[] sample = iteration.run();
+      if (i < 0) {
+        continue;
+      }
+      if (values == null) {
+        values = new long[sample.length][iterations];
+      } else if (sample.length != values.length) {
+        throw new IllegalStateException(
+            String.format("Expected %d values but got %d", values.length, sample.length));
+      }
+      for (int value = 0; value < sample.length; ++value) {
+        values[value][i] = sample[value];
+      }
+    }
+    return new Samples(values);
+  }
+
+  /**
+   * Computes the median of the given values.
+   *
+   * @param values the values, which are not modified
+   * @return the median
+   */
+  public static long median(long[] values) {
+    return percentile(values, 0.5);
+  }
+
+  /**
+   * Computes a percentile of the given values using the nearest rank.
+   *
+   * @param values the values, which are not modified
+   * @param fraction the percentile as a fraction between 0 and 1, e.g. 0.99 for the 99th
+   * @return the value at that percentile
+   */
+  public static long percentile(long[] values, double fraction) {
+    if (values.length == 0 || fraction < 0 || fraction > 1) {
+      throw new IllegalArgumentException("No values or fraction out of range: " + fraction);
+    }
+    final long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+  }
+
+  /**
+   * Runs the garbage collector a few times and returns the heap in use afterwards. Subtracting two
+   * readings taken with and without a structure reachable gives the heap that structure retains.
+   *
+   * @return used heap in bytes
+   */
+  public static long usedHeapAfterGc() {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < GC_PASSES; ++i) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * Gets the number of bytes allocated by the current thread so far. Subtracting two readings gives
+   * the bytes allocated by the code run between them on this thread.
+   *
+   * @return the bytes allocated by the current thread
+   */
+  public static long currentThreadAllocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getCurrentThreadAllocatedBytes();
+  }
+
+  /** One iteration of a benchmark's workload. */
+  @FunctionalInterface
+  public interface Iteration {
+    /**
+     * Runs the workload once.
+     *
+     * @return the values measured by this iteration, always in the same order
+     * @throws Exception if the workload fails
+     */
+    long[] run() throws Exception;
+  }
+
+  /** The values recorded by the measured iterations, indexed by their position in the sample. */
+  public static final class Samples {
+    /** The recorded values, indexed by value and then by iteration. */
+    private final long[][] values;
+
+    /**
+     * Creates an instance.
+     *
+     * @param values the recorded values, indexed by value and then by iteration
+     */
+    private Samples(long[][] values) {
+      this.values = values;
+    }
+
+    /**
+     * Gets the median of the first value of every iteration.
+     *
+     * @return the median
+     */
+    public long median() {
+      return median(0);
+    }
+
+    /**
+     * Gets the median of one of the values of every iteration.
+     *
+     * @param value the position of the value in the arrays returned by the iterations
+     * @return the median
+     */
+    public long median(int value) {
+      return BenchmarkUtils.median(values[value]);
+    }
+  }
+}
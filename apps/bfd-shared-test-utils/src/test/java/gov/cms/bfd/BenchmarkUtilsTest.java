@@ -0,0 +1,61 @@
+package gov.cms.bfd;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link BenchmarkUtils}. */
+public class BenchmarkUtilsTest {
+  /**
+   * Verifies that the warmup iterations are run but not recorded, and that each value is summarized
+   * separately.
+   *
+   * @throws Exception if the workload fails
+   */
+  @Test
+  void measureSkipsWarmupIterations() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+
+    BenchmarkUtils.Samples samples =
+        BenchmarkUtils.measure(
+            2,
+            3,
+            () -> {
+              int run = runs.incrementAndGet();
+              return new long[] {run, run * 10L};
+            });
+
+    assertEquals(5, runs.get());
+    assertEquals(4, samples.median());
+    assertEquals(40, samples.median(1));
+  }
+
+  /**
+   * Verifies that iterations returning a different number of values are rejected.
+   *
+   * @throws Exception if the workload fails
+   */
+  @Test
+  void measureRejectsInconsistentSamples() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> BenchmarkUtils.measure(0, 2, () -> new long[runs.incrementAndGet()]));
+  }
+
+  /** Verifies the median and percentiles, and that the input is left as it was. */
+  @Test
+  void percentileUsesNearestRankWithoutSortingInput() {
+    long[] values = {5, 1, 4, 2, 3};
+
+    assertEquals(3, BenchmarkUtils.median(values));
+    assertEquals(1, BenchmarkUtils.percentile(values, 0));
+    assertEquals(5, BenchmarkUtils.percentile(values, 0.99));
+    assertEquals(5, BenchmarkUtils.percentile(values, 1));
+    assertArrayEquals(new long[] {5, 1, 4, 2, 3}, values);
+  }
+}